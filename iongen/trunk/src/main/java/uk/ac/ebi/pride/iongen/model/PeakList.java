@@ -0,0 +1,417 @@
+package uk.ac.ebi.pride.iongen.model;
+
+import uk.ac.ebi.pride.iongen.utils.ApproximateComparator;
+
+import java.util.*;
+
+/**
+ * Peak list backed by a primitive m/z array and a primitive intensity array, sorted in the order of
+ * {@link Peak#compareTo(Peak)}, that is m/z ascent order and intensity descent order.
+ *
+ * <P>A peak list is immutable. Sub lists and windows are views on the same arrays, therefore, they
+ * do not copy any peak.</P>
+ *
+ * <P>Use {@link #getInstance(PeakSet)} and {@link #toPeakSet()} to work with existing PeakSet code.</P>
+ *
+ * Date: 17/10/26
+ */
+public class PeakList implements Iterable<Peak> {
+    private static final PeakList EMPTY = new PeakList(new double[0], new double[0], 0, 0);
+
+    private static final ApproximateComparator comparator = new ApproximateComparator();
+
+    private final double[] mzArray;
+    private final double[] intensityArray;
+
+    /**
+     * range of this view in the arrays, [from, to)
+     */
+    private final int from;
+    private final int to;
+
+    private PeakList(double[] mzArray, double[] intensityArray, int from, int to) {
+        this.mzArray = mzArray;
+        this.intensityArray = intensityArray;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Create a peak list from the m/z Array and intensity Array. The arrays are copied, sorted, and duplicate
+     * peaks are removed, just like {@link PeakSet#getInstance(double[], double[])}.
+     * <P>Notice: the length of two array should be equal.</P>
+     * @param mzArray if null, return a empty peak list.
+     * @param intensityArray if null, return a empty peak list.
+     */
+    public static PeakList getInstance(double[] mzArray, double[] intensityArray) {
+        if (mzArray == null || intensityArray == null) {
+            return EMPTY;
+        }
+
+        if (mzArray.length != intensityArray.length) {
+            throw new IllegalArgumentException("the mz array not equal to intensity array!");
+        }
+
+        int length = mzArray.length;
+        for (int i = 0; i < length; i++) {
+            if (mzArray[i] < 0d) {
+                throw new IllegalArgumentException("mz value should not less than 0");
+            }
+            if (intensityArray[i] < 0d) {
+                throw new IllegalArgumentException("intensity value should not less than 0");
+            }
+        }
+
+        boolean sorted = true;
+        for (int i = 1; i < length && sorted; i++) {
+            sorted = compare(mzArray[i - 1], intensityArray[i - 1], mzArray[i], intensityArray[i]) < 0;
+        }
+
+        double[] mzs = new double[length];
+        double[] intensities = new double[length];
+        int size = 0;
+        if (sorted) {
+            System.arraycopy(mzArray, 0, mzs, 0, length);
+            System.arraycopy(intensityArray, 0, intensities, 0, length);
+            size = length;
+        } else {
+            Integer[] order = new Integer[length];
+            for (int i = 0; i < length; i++) {
+                order[i] = i;
+            }
+            final double[] mz = mzArray;
+            final double[] intensity = intensityArray;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return PeakList.compare(mz[o1], intensity[o1], mz[o2], intensity[o2]);
+                }
+            });
+
+            for (Integer index : order) {
+                // a peak set keeps only one of the equal peaks
+                if (size > 0 && compare(mzs[size - 1], intensities[size - 1], mzArray[index], intensityArray[index]) == 0) {
+                    continue;
+                }
+                mzs[size] = mzArray[index];
+                intensities[size] = intensityArray[index];
+                size++;
+            }
+        }
+
+        return new PeakList(mzs, intensities, 0, size);
+    }
+
+    /**
+     * Create a peak list from a peak set, which is already sorted.
+     * @param peakSet if null, return a empty peak list.
+     */
+    public static PeakList getInstance(PeakSet peakSet) {
+        if (peakSet == null || peakSet.isEmpty()) {
+            return EMPTY;
+        }
+
+        double[] mzs = new double[peakSet.size()];
+        double[] intensities = new double[peakSet.size()];
+        int i = 0;
+        for (Peak peak : peakSet) {
+            mzs[i] = peak.getMz();
+            intensities[i] = peak.getIntensity();
+            i++;
+        }
+
+        return new PeakList(mzs, intensities, 0, i);
+    }
+
+    /**
+     * Same order as {@link Peak#compareTo(Peak)}
+     */
+    private static int compare(double mz1, double intensity1, double mz2, double intensity2) {
+        int result = Double.compare(mz1, mz2);
+        return result == 0 ? Double.compare(intensity2, intensity1) : result;
+    }
+
+    public int size() {
+        return to - from;
+    }
+
+    public boolean isEmpty() {
+        return to == from;
+    }
+
+    public double getMz(int index) {
+        return mzArray[checkIndex(index)];
+    }
+
+    public double getIntensity(int index) {
+        return intensityArray[checkIndex(index)];
+    }
+
+    /**
+     * @return a new peak object, prefer {@link #getMz(int)} and {@link #getIntensity(int)} in loops.
+     */
+    public Peak getPeak(int index) {
+        int i = checkIndex(index);
+        return new Peak(mzArray[i], intensityArray[i]);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        return from + index;
+    }
+
+    /**
+     * @return m/z array of peak list, a copy.
+     */
+    public double[] getMzArray() {
+        double[] result = new double[size()];
+        System.arraycopy(mzArray, from, result, 0, size());
+        return result;
+    }
+
+    /**
+     * @return intensity array of peak list, a copy.
+     */
+    public double[] getIntensityArray() {
+        double[] result = new double[size()];
+        System.arraycopy(intensityArray, from, result, 0, size());
+        return result;
+    }
+
+    /**
+     * @return a view of the peaks [fromIndex, toIndex).
+     */
+    public PeakList subList(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size());
+        }
+        return new PeakList(mzArray, intensityArray, from + fromIndex, from + toIndex);
+    }
+
+    /**
+     * Create a view of the peaks in the range [m/z - interval, m/z + interval]. The bounds are compared with
+     * a {@link ApproximateComparator}, just like {@link PeakSet#subSet(double, double)}.
+     *
+     * @param interval should great than 0. Otherwise, return empty peak list.
+     */
+    public PeakList subListByMz(double mz, double interval) {
+        if (isEmpty() || interval <= 0d) {
+            return subList(0, 0);
+        }
+
+        int start = upperBound(mz - interval);
+        int end = upperBound(mz + interval);
+        // include the peaks on or next to the bounds, which are approximately in the range
+        while (start > from && comparator.compare(mz - mzArray[start - 1], interval) <= 0) {
+            start--;
+        }
+        while (end < to && comparator.compare(mzArray[end] - mz, interval) <= 0) {
+            end++;
+        }
+
+        return new PeakList(mzArray, intensityArray, start, end);
+    }
+
+    /**
+     * @return the first position in the arrays of this view whose m/z is greater than m/z.
+     */
+    private int upperBound(double mz) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (mzArray[mid] <= mz) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * split the whole peaks into list of windows. Each window m/z length less than or equal splitSize.
+     * window is (startMZ, endMZ], endMz - startMz <= splitSize, the windows start from m/z 0.
+     * The windows are views, see {@link PeakSet#splitWindow(int)}.
+     */
+    public List<PeakList> splitWindow(int splitSize) {
+        if (splitSize <= 1) {
+            throw new IllegalArgumentException("Can not split peaks into windows which size less than 2");
+        }
+
+        List<PeakList> windowList = new ArrayList<PeakList>();
+
+        int reset = 0;
+        int start = from;
+        int i = from;
+        while (i < to) {
+            if (Double.compare(mzArray[i] - reset, splitSize) <= 0) {
+                i++;
+            } else {
+                windowList.add(new PeakList(mzArray, intensityArray, start, i));
+                reset += splitSize;
+                start = i;
+            }
+        }
+        if (i > start) {
+            windowList.add(new PeakList(mzArray, intensityArray, start, i));
+        }
+
+        return windowList;
+    }
+
+    /**
+     * @return index of the maximum intensity peak. If more than one peaks, return the first one.
+     * If the list is empty, return -1.
+     */
+    public int getMaxIntensityIndex() {
+        int max = -1;
+        for (int i = from; i < to; i++) {
+            if (max == -1 || intensityArray[i] > intensityArray[max]) {
+                max = i;
+            }
+        }
+        return max == -1 ? -1 : max - from;
+    }
+
+    /**
+     * @return the maximum intensity peak within the peaks window. If more than one peaks,
+     * return the first matching peak.
+     */
+    public Peak getMaxIntensityPeak() {
+        int index = getMaxIntensityIndex();
+        if (index == -1) {
+            throw new NoSuchElementException();
+        }
+        return getPeak(index);
+    }
+
+    /**
+     * Select the top peaks by intensity, if two peaks have same intensity, the one with smaller m/z is selected.
+     * Only the selected peaks are copied, using a heap of size top.
+     *
+     * @return the top peaks, in m/z ascent order.
+     */
+    public PeakList getTopIntensityPeaks(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException(top + " should be great than 1");
+        }
+
+        if (top >= size()) {
+            return this;
+        }
+
+        // min heap of positions, the root is the weakest selected peak
+        int[] heap = new int[top];
+        int heapSize = 0;
+        for (int i = from; i < to; i++) {
+            if (heapSize < top) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize);
+                heapSize++;
+            } else if (isWeaker(heap[0], i)) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        Arrays.sort(heap);
+        double[] mzs = new double[top];
+        double[] intensities = new double[top];
+        for (int i = 0; i < top; i++) {
+            mzs[i] = mzArray[heap[i]];
+            intensities[i] = intensityArray[heap[i]];
+        }
+
+        return new PeakList(mzs, intensities, 0, top);
+    }
+
+    /**
+     * based on intensity descent order, and m/z ascent order, the positions are in m/z ascent order.
+     */
+    private boolean isWeaker(int i, int j) {
+        int result = Double.compare(intensityArray[i], intensityArray[j]);
+        return result == 0 ? i > j : result < 0;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!isWeaker(value, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private void siftDown(int[] heap, int size) {
+        int index = 0;
+        int value = heap[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWeaker(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isWeaker(heap[child], value)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    /**
+     * @return a new peak set with the same peaks.
+     */
+    public PeakSet toPeakSet() {
+        PeakSet peakSet = new PeakSet();
+        for (int i = from; i < to; i++) {
+            peakSet.add(new Peak(mzArray[i], intensityArray[i]));
+        }
+        return peakSet;
+    }
+
+    /**
+     * Iterate the peaks in m/z ascent order, a new peak object is created for each peak.
+     */
+    @Override
+    public Iterator<Peak> iterator() {
+        return new Iterator<Peak>() {
+            private int next = from;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public Peak next() {
+                if (next >= to) {
+                    throw new NoSuchElementException();
+                }
+                Peak peak = new Peak(mzArray[next], intensityArray[next]);
+                next++;
+                return peak;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("Peak list is immutable");
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return "PeakList{size=" + size() + "}";
+    }
+}
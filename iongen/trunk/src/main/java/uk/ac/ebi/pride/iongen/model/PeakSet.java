@@ -177,51 +177,38 @@ public class PeakSet extends TreeSet<Peak> {
         return intensityArray;
     }
 
-    /**
-     * based on intensity descent order, and m/z ascent order.
-     */
-    private class IntensityComparator implements Comparator<Peak> {
-        @Override
-        public int compare(Peak o1, Peak o2) {
-            int result = Double.compare(o2.getIntensity(), o1.getIntensity());
-            result = result == 0 ? Double.compare(o1.getMz(), o2.getMz()) : result;
-
-            return result;
-        }
-    }
-
     /**
      *
      * @return the maximum intensity peak within the peaks window. If more than one peaks,
      * return the first matching peak.
      */
     public Peak getMaxIntensityPeak() {
-        return getTopIntensityPeak(1).first();
-    }
-
-    public PeakSet getTopIntensityPeak(int top) {
-        if (top < 1) {
-            throw new IllegalArgumentException(top + " should be great than 1");
+        Peak maxPeak = null;
+        for (Peak peak : this) {
+            if (maxPeak == null || Double.compare(peak.getIntensity(), maxPeak.getIntensity()) > 0) {
+                maxPeak = peak;
+            }
         }
 
-        PeakSet peakList = new PeakSet();
-
-        TreeSet<Peak> intentOrderPeakSet = new TreeSet<Peak>(new IntensityComparator());
-        intentOrderPeakSet.addAll(this);
+        if (maxPeak == null) {
+            throw new NoSuchElementException();
+        }
 
-        Peak peak;
-        Iterator<Peak> it = intentOrderPeakSet.iterator();
-        int count = 0;
-        while (it.hasNext()) {
-            count++;
-            if (count > top) {
-                break;
-            }
+        return maxPeak;
+    }
 
-            peak = it.next();
-            peakList.add(peak);
-        }
+    /**
+     * based on intensity descent order, and m/z ascent order. Only the top peaks are copied,
+     * see {@link PeakList#getTopIntensityPeaks(int)}.
+     */
+    public PeakSet getTopIntensityPeak(int top) {
+        return PeakList.getInstance(this).getTopIntensityPeaks(top).toPeakSet();
+    }
 
-        return peakList;
+    /**
+     * @return a peak list with the same peaks.
+     */
+    public PeakList toPeakList() {
+        return PeakList.getInstance(this);
     }
 }
@@ -7,7 +7,6 @@ import uk.ac.ebi.pride.mol.ProductIonType;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -165,6 +164,13 @@ public class PeptideScore {
      * match the peak set to fragment ion list with an ion tolerance of [-tolerance, +tolerance]
      */
     public ProductIonSet getMatchedSet(ProductIonSet productIonSet, PeakSet peakSet) {
+        return getMatchedSet(productIonSet, PeakList.getInstance(peakSet));
+    }
+
+    /**
+     * match the peak list to fragment ion list with an ion tolerance of [-tolerance, +tolerance]
+     */
+    public ProductIonSet getMatchedSet(ProductIonSet productIonSet, PeakList peakList) {
         if (productIonSet == null) {
             throw new NullPointerException("Product Ion Set is null!");
         }
@@ -174,13 +180,8 @@ public class PeptideScore {
             return matchedSet;
         }
 
-        Iterator<ProductIon> it = productIonSet.iterator();
-        ProductIon productIon;
-        PeakSet subset;
-        while (it.hasNext()) {
-            productIon = it.next();
-            subset = peakSet.subSet(productIon.getMassOverCharge(), tolerance);
-            if (subset.size() > 0) {
+        for (ProductIon productIon : productIonSet) {
+            if (! peakList.subListByMz(productIon.getMassOverCharge(), tolerance).isEmpty()) {
                 matchedSet.add(productIon);
             }
         }
@@ -195,11 +196,25 @@ public class PeptideScore {
     public List<PeakSet> getDepthPeakSetList(int peakDepth, int splitSize) {
         List<PeakSet> peakDepthWindows = new ArrayList<PeakSet>();
 
-        PeakSet peakDepthWindow;
-        List<PeakSet> windows = peakSet.splitWindow(splitSize);
-        for (PeakSet window : windows) {
-            peakDepthWindow = window.getTopIntensityPeak(peakDepth);
-            peakDepthWindows.add(peakDepthWindow);
+        for (PeakList window : getDepthPeakList(peakDepth, splitSize)) {
+            peakDepthWindows.add(window.toPeakSet());
+        }
+
+        return peakDepthWindows;
+    }
+
+    /**
+     * Same as {@link #getDepthPeakSetList(int, int)}, the windows are peak lists.
+     */
+    public List<PeakList> getDepthPeakList(int peakDepth, int splitSize) {
+        return getDepthPeakList(PeakList.getInstance(peakSet).splitWindow(splitSize), peakDepth);
+    }
+
+    private List<PeakList> getDepthPeakList(List<PeakList> windows, int peakDepth) {
+        List<PeakList> peakDepthWindows = new ArrayList<PeakList>();
+
+        for (PeakList window : windows) {
+            peakDepthWindows.add(window.isEmpty() ? window : window.getTopIntensityPeaks(peakDepth));
         }
 
         return peakDepthWindows;
@@ -209,14 +224,33 @@ public class PeptideScore {
      * get a peptide score based on peakDepth.
      */
     public double getScore(ProductIonSet productIonSet, int peakDepth, int splitSize) {
-        List<PeakSet> depthPeakSetList = getDepthPeakSetList(peakDepth, splitSize);
-        PeakSet allDepthPeakSet = new PeakSet();
+        return getScore(productIonSet, PeakList.getInstance(peakSet).splitWindow(splitSize), peakDepth, splitSize);
+    }
+
+    /**
+     * get a peptide score based on peakDepth, the peaks are already split into windows of splitSize.
+     */
+    private double getScore(ProductIonSet productIonSet, List<PeakList> windows, int peakDepth, int splitSize) {
+        List<PeakList> depthPeakList = getDepthPeakList(windows, peakDepth);
 
-        for (PeakSet depthPeakSet : depthPeakSetList) {
-            allDepthPeakSet.addAll(depthPeakSet);
+        // windows are in m/z order and do not overlap, so the merged peaks are still sorted
+        int size = 0;
+        for (PeakList depthPeaks : depthPeakList) {
+            size += depthPeaks.size();
         }
+        double[] mzArray = new double[size];
+        double[] intensityArray = new double[size];
+        int offset = 0;
+        for (PeakList depthPeaks : depthPeakList) {
+            for (int i = 0; i < depthPeaks.size(); i++) {
+                mzArray[offset] = depthPeaks.getMz(i);
+                intensityArray[offset] = depthPeaks.getIntensity(i);
+                offset++;
+            }
+        }
+        PeakList allDepthPeakList = PeakList.getInstance(mzArray, intensityArray);
 
-        ProductIonSet matchedSet = getMatchedSet(productIonSet, allDepthPeakSet);
+        ProductIonSet matchedSet = getMatchedSet(productIonSet, allDepthPeakList);
 
         int N = productIonSet.size();
         int n = matchedSet.size();
@@ -238,11 +272,14 @@ public class PeptideScore {
             throw new IllegalArgumentException("Weight list is null or empty!");
         }
 
+        // split the peaks once for all the depths
+        List<PeakList> windows = PeakList.getInstance(peakSet).splitWindow(splitSize);
+
         double totalScore = 0;
         double weightSum = 0;
         double score;
         for (int depth = 0; depth < weightList.length; depth++) {
-            score = getScore(productIonSet, depth + 1, splitSize);
+            score = getScore(productIonSet, windows, depth + 1, splitSize);
             if (Double.isInfinite(score)) {
                 break;
             }
@@ -0,0 +1,148 @@
+package uk.ac.ebi.pride.iongen.model;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17/10/26
+ */
+public class PeakListTest {
+    @Test
+    public void testGetInstance() {
+        double[] mzArray = {5, 3, 4, 4, 3};
+        double[] intensityArray = {1, 2, 3, 7, 2};
+        PeakList peakList = PeakList.getInstance(mzArray, intensityArray);
+
+        // sorted by m/z, then by intensity descent, equal peaks removed
+        assertEquals(4, peakList.size());
+        assertTrue(Arrays.equals(new double[]{3, 4, 4, 5}, peakList.getMzArray()));
+        assertTrue(Arrays.equals(new double[]{2, 7, 3, 1}, peakList.getIntensityArray()));
+
+        assertEquals(PeakSet.getInstance(mzArray, intensityArray), peakList.toPeakSet());
+        assertEquals(0, PeakList.getInstance(null, null).size());
+    }
+
+    @Test
+    public void testSubList() {
+        double[] mzArray = {3, 4, 4.1, 4.2, 4.4, 4.5, 4.9, 5, 6};
+        double[] intensityArray = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        PeakList peakList = PeakList.getInstance(mzArray, intensityArray);
+
+        double tolerance = 0.2;
+        assertEquals(0, peakList.subListByMz(2, tolerance).size());
+        assertEquals(1, peakList.subListByMz(3, tolerance).size());
+        assertEquals(3, peakList.subListByMz(4, tolerance).size());
+        assertEquals(2, peakList.subListByMz(4.5, tolerance).size());
+        assertEquals(2, peakList.subListByMz(4.9, tolerance).size());
+        assertEquals(1, peakList.subListByMz(6, tolerance).size());
+        assertEquals(1, peakList.subListByMz(6.2, tolerance).size());
+        assertEquals(0, peakList.subListByMz(8, tolerance).size());
+        assertEquals(0, peakList.subListByMz(4, 0).size());
+
+        // a view of a view
+        PeakList sub = peakList.subListByMz(4.3, 0.5);
+        assertEquals(5, sub.size());
+        assertEquals(4.0, sub.getMz(0), 0);
+        assertEquals(2, sub.subListByMz(4.5, tolerance).size());
+        assertEquals(0, sub.subListByMz(4.9, tolerance).size());
+        assertEquals(6.0, sub.getIntensity(sub.getMaxIntensityIndex()), 0);
+    }
+
+    @Test
+    public void testTopIntensityPeaks() {
+        double[] mzArray = {1, 2, 3, 4, 5, 6};
+        double[] intensityArray = {5, 9, 1, 9, 3, 7};
+        PeakList peakList = PeakList.getInstance(mzArray, intensityArray);
+
+        PeakList top3 = peakList.getTopIntensityPeaks(3);
+        assertTrue(Arrays.equals(new double[]{2, 4, 6}, top3.getMzArray()));
+
+        // same intensity, the smaller m/z wins
+        PeakList top1 = peakList.getTopIntensityPeaks(1);
+        assertEquals(2.0, top1.getMz(0), 0);
+        assertEquals(new Peak(2, 9), peakList.getMaxIntensityPeak());
+
+        assertEquals(6, peakList.getTopIntensityPeaks(10).size());
+    }
+
+    @Test
+    public void testSplitWindow() {
+        double[] mzArray = {150, 199, 201, 350, 400};
+        double[] intensityArray = {1, 2, 3, 4, 5};
+        PeakList peakList = PeakList.getInstance(mzArray, intensityArray);
+
+        List<PeakList> windows = peakList.splitWindow(100);
+        List<PeakSet> windowSets = PeakSet.getInstance(mzArray, intensityArray).splitWindow(100);
+        assertEquals(windowSets.size(), windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            assertEquals(windowSets.get(i), windows.get(i).toPeakSet());
+        }
+    }
+
+    @Test
+    public void testSameAsPeakSet() {
+        Random random = new Random(17);
+        double[] mzArray = new double[500];
+        double[] intensityArray = new double[500];
+        for (int i = 0; i < mzArray.length; i++) {
+            mzArray[i] = 200 + random.nextInt(180000) / 100d;
+            intensityArray[i] = random.nextInt(50);
+        }
+
+        PeakSet peakSet = PeakSet.getInstance(mzArray, intensityArray);
+        PeakList peakList = PeakList.getInstance(mzArray, intensityArray);
+        assertEquals(peakSet, peakList.toPeakSet());
+        assertEquals(peakSet, PeakList.getInstance(peakSet).toPeakSet());
+
+        for (int i = 0; i < 1000; i++) {
+            double mz = 150 + random.nextInt(190000) / 100d;
+            double interval = random.nextInt(100) / 100d;
+            PeakSet subSet = peakSet.subSet(mz, interval);
+            PeakList subList = peakList.subListByMz(mz, interval);
+            assertEquals(subSet, subList.toPeakSet());
+            if (!subSet.isEmpty()) {
+                assertEquals(subSet.getMaxIntensityPeak(), subList.getMaxIntensityPeak());
+            }
+        }
+
+        for (int top = 1; top <= 20; top++) {
+            assertEquals(getTopIntensityPeak(peakSet, top), peakList.getTopIntensityPeaks(top).toPeakSet());
+            assertEquals(getTopIntensityPeak(peakSet, top), peakSet.getTopIntensityPeak(top));
+        }
+
+        List<PeakSet> windowSets = peakSet.splitWindow(100);
+        List<PeakList> windows = peakList.splitWindow(100);
+        assertEquals(windowSets.size(), windows.size());
+        for (int i = 0; i < windows.size(); i++) {
+            assertEquals(windowSets.get(i), windows.get(i).toPeakSet());
+            if (!windows.get(i).isEmpty()) {
+                assertEquals(getTopIntensityPeak(windowSets.get(i), 3), windows.get(i).getTopIntensityPeaks(3).toPeakSet());
+            }
+        }
+    }
+
+    /**
+     * sort all the peaks by intensity descent order, and m/z ascent order.
+     */
+    private PeakSet getTopIntensityPeak(PeakSet peakSet, int top) {
+        Peak[] peaks = peakSet.toArray(new Peak[peakSet.size()]);
+        Arrays.sort(peaks, new Comparator<Peak>() {
+            @Override
+            public int compare(Peak o1, Peak o2) {
+                int result = Double.compare(o2.getIntensity(), o1.getIntensity());
+                return result == 0 ? Double.compare(o1.getMz(), o2.getMz()) : result;
+            }
+        });
+
+        PeakSet result = new PeakSet();
+        result.addAll(Arrays.asList(peaks).subList(0, Math.min(top, peaks.length)));
+        return result;
+    }
+}
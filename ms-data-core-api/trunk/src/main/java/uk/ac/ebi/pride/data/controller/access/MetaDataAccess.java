@@ -1,6 +1,7 @@
 package uk.ac.ebi.pride.data.controller.access;
 
 import uk.ac.ebi.pride.data.core.ExperimentMetaData;
+import uk.ac.ebi.pride.data.core.ExperimentStatistics;
 import uk.ac.ebi.pride.data.core.IdentificationMetaData;
 import uk.ac.ebi.pride.data.core.MzGraphMetaData;
 
@@ -31,6 +32,14 @@ public interface MetaDataAccess {
      */
     public MzGraphMetaData getMzGraphMetaData();
 
+    /**
+     * Get the summary statistics of the experiment: entity counts, ms level and charge distributions,
+     * and the number of peptides per rank.
+     *
+     * @return ExperimentStatistics    experiment statistics
+     */
+    public ExperimentStatistics getExperimentStatistics();
+
     /**
      * This function give the user the possibility to know if the controller contains
      * MetaData. The metaData could be ExperimentMetadata, MzGraphMetaData, IdentificationMetaData
@@ -3,6 +3,7 @@ package uk.ac.ebi.pride.data.controller.access;
 import uk.ac.ebi.pride.data.controller.DataAccessException;
 import uk.ac.ebi.pride.data.core.Chromatogram;
 import uk.ac.ebi.pride.data.core.Spectrum;
+import uk.ac.ebi.pride.data.utils.IdIndex;
 
 import java.util.Collection;
 
@@ -75,6 +76,15 @@ public interface MzGraphDataAccess {
      */
     public int getSpectrumIndex(Comparable id);
 
+    /**
+     * Get the positional index of the spectrum ids, it finds the id at a position
+     * and the position of an id in constant time.
+     * Note: this method should be used for paging through large number of spectra.
+     *
+     * @return IdIndex  spectrum id index
+     */
+    public IdIndex getSpectrumIdIndex();
+
     /**
      * Get a Spectrum object via an spectrum id
      *
@@ -176,6 +186,14 @@ public interface MzGraphDataAccess {
      */
     public int getChromatogramIndex(Comparable chromaId) throws DataAccessException;
 
+    /**
+     * Get the positional index of the chromatogram ids
+     *
+     * @return IdIndex  chromatogram id index
+     * @throws DataAccessException data access exception
+     */
+    public IdIndex getChromatogramIdIndex() throws DataAccessException;
+
     /**
      * Get a Chromatogram object
      *
@@ -1,6 +1,7 @@
 package uk.ac.ebi.pride.data.controller.access;
 
 import uk.ac.ebi.pride.data.core.*;
+import uk.ac.ebi.pride.data.utils.PeptideIdIndex;
 import uk.ac.ebi.pride.term.CvTermReference;
 
 import java.util.Collection;
@@ -32,6 +33,14 @@ public interface PeptideDataAccess {
      */
     public Collection<Comparable> getPeptideIds(Comparable proteinId);
 
+    /**
+     * Get the positional index of all the peptides, ordered by identification.
+     * Note: building the index reads the peptide ids of all the identifications.
+     *
+     * @return PeptideIdIndex  peptide id index
+     */
+    public PeptideIdIndex getPeptideIdIndex();
+
     /**
      * This is convenient method for accessing peptide.
      *
@@ -4,6 +4,7 @@ import uk.ac.ebi.pride.data.core.DBSequence;
 import uk.ac.ebi.pride.data.core.Protein;
 import uk.ac.ebi.pride.data.core.Score;
 import uk.ac.ebi.pride.data.core.SearchDataBase;
+import uk.ac.ebi.pride.data.utils.IdIndex;
 import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
 
@@ -42,6 +43,14 @@ public interface ProteinDataAccess {
      */
     public int indexOfProtein(Comparable proteinId);
 
+    /**
+     * Get the positional index of the identification ids, it finds the id at a position
+     * and the position of an id in constant time.
+     *
+     * @return IdIndex  identification id index
+     */
+    public IdIndex getProteinIdIndex();
+
     /**
      * Get a Identification object
      *
@@ -0,0 +1,104 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * AppendOnlyList is a list which only grows, it is used to cache collections such as spectrum ids.
+ * <p/>
+ * Writers are serialized, readers never lock: snapshot() returns a read-only view of the elements
+ * which were present at the time of the call, without copying them. This is safe because an element
+ * is never overwritten once it has been published, growing the list allocates a new array and
+ * leaves the old one to the existing snapshots.
+ * <p/>
+ * Date: 17/10/2026
+ */
+class AppendOnlyList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final Object writeLock = new Object();
+
+    private volatile State state;
+
+    AppendOnlyList(int initialCapacity) {
+        this.state = new State(new Object[Math.max(DEFAULT_CAPACITY, initialCapacity)], 0);
+    }
+
+    void add(Object element) {
+        synchronized (writeLock) {
+            State current = state;
+            Object[] elements = ensureCapacity(current, current.size + 1);
+            elements[current.size] = element;
+            // the volatile write publishes the new element
+            state = new State(elements, current.size + 1);
+        }
+    }
+
+    void addAll(Collection<?> newElements) {
+        synchronized (writeLock) {
+            State current = state;
+            Object[] elements = ensureCapacity(current, current.size + newElements.size());
+            int size = current.size;
+            for (Object newElement : newElements) {
+                elements[size++] = newElement;
+            }
+            state = new State(elements, size);
+        }
+    }
+
+    int size() {
+        return state.size;
+    }
+
+    /**
+     * Read-only view of the current elements, later additions are not visible through it
+     *
+     * @return List    snapshot view
+     */
+    List<Object> snapshot() {
+        return new Snapshot(state);
+    }
+
+    private Object[] ensureCapacity(State current, int capacity) {
+        Object[] elements = current.elements;
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.length + (elements.length >> 1)));
+        }
+        return elements;
+    }
+
+    private static class State {
+        private final Object[] elements;
+        private final int size;
+
+        private State(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+    }
+
+    private static class Snapshot extends AbstractList<Object> implements RandomAccess {
+        private final State state;
+
+        private Snapshot(State state) {
+            this.state = state;
+        }
+
+        @Override
+        public Object get(int index) {
+            if (index < 0 || index >= state.size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + state.size);
+            }
+            return state.elements[index];
+        }
+
+        @Override
+        public int size() {
+            return state.size;
+        }
+    }
+}
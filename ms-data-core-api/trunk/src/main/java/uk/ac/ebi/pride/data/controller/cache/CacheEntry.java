@@ -14,17 +14,19 @@ import java.util.HashMap;
  * Time: 10:52:54
  */
 public enum CacheEntry {
-    SPECTRUM(CachedMap.class, 10),                             // Map<Spectrum id, Spectrum>
+    SPECTRUM(CachedMap.class, 10, 64L * 1024 * 1024),          // Map<Spectrum id, Spectrum>
     SPECTRADATA_TO_SPECTRUMIDS(HashMap.class, null),            // Map<Comparable, List<Comparable>>
     PROTEIN_TO_PEPTIDE_EVIDENCES(HashMap.class, null),         //Map<db squence id,List<Spectrum identification item id>>>
     PROTEIN_TO_PROTEIN_GROUP_ID(HashMap.class, null),           // Map<Comparable, Comparable>
     PROTEIN_GROUP_ID(ArrayList.class, null),                   // List of Protein Groups
-    CHROMATOGRAM(CachedMap.class, 10),                         // Map<Chromatogram id, Chromatogram>
-    PROTEIN(CachedMap.class, 10),                              // Map<Identification id, Identification>
-    PROTEIN_GROUP(CachedMap.class, 5),                        // Map<Protein group id, Protein group>
-    PEPTIDE(CachedMap.class, 10),                              // Map<Tuple<Comparable, Comparable>, Peptide>
+    CHROMATOGRAM(CachedMap.class, 10, 32L * 1024 * 1024),      // Map<Chromatogram id, Chromatogram>
+    PROTEIN(CachedMap.class, 10, 16L * 1024 * 1024),           // Map<Identification id, Identification>
+    PROTEIN_GROUP(CachedMap.class, 5, 8L * 1024 * 1024),       // Map<Protein group id, Protein group>
+    PEPTIDE(CachedMap.class, 10, 16L * 1024 * 1024),           // Map<Tuple<Comparable, Comparable>, Peptide>
+    IDENTIFICATION_GRAPH(CachedMap.class, 4, 32L * 1024 * 1024), // Map<First identification id of a batch, PrideDBIdentificationGraph>
     EXPERIMENT_ACC(ArrayList.class, null),                     // List<Experiement Accession>
     EXPERIMENT_METADATA(ArrayList.class, null),                // List<Experiment Metadata>
+    EXPERIMENT_STATISTICS(ArrayList.class, null),              // List<Experiment Statistics>
     PROTEIN_METADATA(ArrayList.class, null),                   // List of Identification Metadata for Protein Identification
     MZGRAPH_METADATA(ArrayList.class, null),                   // List of MZGraph Metadata
     SEARCH_ENGINE_TYPE(ArrayList.class, null),                 // List<SearchEngineTypes>
@@ -65,10 +67,19 @@ public enum CacheEntry {
 
     private final Class dataStructType;
     private final Integer size;
+    /**
+     * heap budget in bytes, used by ConcurrentCacheAccessor instead of the number of entries
+     */
+    private final Long maxWeight;
 
     private CacheEntry(Class dataStructType, Integer size) {
+        this(dataStructType, size, null);
+    }
+
+    private CacheEntry(Class dataStructType, Integer size, Long maxWeight) {
         this.dataStructType = dataStructType;
         this.size = size;
+        this.maxWeight = maxWeight;
     }
 
     public Class getDataStructType() {
@@ -79,6 +90,10 @@ public enum CacheEntry {
         return size;
     }
 
+    public Long getMaxWeight() {
+        return maxWeight;
+    }
+
 
 }
 
@@ -0,0 +1,77 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CacheStatistics records the hits, misses and evictions of a single cache entry,
+ * as well as the estimated heap weight currently held by it.
+ * <p/>
+ * All the counters are updated without locking, the values returned are
+ * therefore only a best effort view when the cache is being modified.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class CacheStatistics {
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    void recordHit() {
+        hitCount.incrementAndGet();
+    }
+
+    void recordMiss() {
+        missCount.incrementAndGet();
+    }
+
+    void recordEviction(long evictedWeight) {
+        evictionCount.incrementAndGet();
+        weight.addAndGet(-evictedWeight);
+    }
+
+    void addWeight(long delta) {
+        weight.addAndGet(delta);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * Estimated heap size in bytes of the values held by the cache entry
+     *
+     * @return long    weight in bytes
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{" +
+                "hitCount=" + getHitCount() +
+                ", missCount=" + getMissCount() +
+                ", evictionCount=" + getEvictionCount() +
+                ", weight=" + getWeight() +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+/**
+ * CacheWeigher estimates the heap size of a cached key-value pair,
+ * it is used to keep a cache entry within its memory budget.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public interface CacheWeigher {
+
+    /**
+     * Estimate the heap size of a key-value pair
+     *
+     * @param key   key
+     * @param value value, can be null
+     * @return long estimated size in bytes, must be positive
+     */
+    long weigh(Object key, Object value);
+}
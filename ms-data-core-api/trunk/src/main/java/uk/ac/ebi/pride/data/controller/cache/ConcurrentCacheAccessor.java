@@ -0,0 +1,376 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * ConcurrentCacheAccessor is a thread safe implementation of cache, it can replace CacheAccessor.
+ * <p/>
+ * Each CacheEntry is stored in its own concurrent data structure:
+ * <p/>
+ * 1. Map entries are stored in a ConcurrentHashMap, reads never lock.
+ * 2. Collection entries are stored in an append only list, reads return a snapshot view without copying.
+ * 3. Entries with a heap budget (see CacheEntry.getMaxWeight) are stored in a lock striped LRU map,
+ * which evicts the least recently used values once the estimated heap size exceeds the budget.
+ * <p/>
+ * Unlike CacheAccessor, the data structures returned by get are read-only views instead of copies,
+ * hit, miss and eviction statistics are recorded for every CacheEntry.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class ConcurrentCacheAccessor implements Cache {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrentCacheAccessor.class);
+
+    /**
+     * ConcurrentHashMap does not accept null values, this is stored instead
+     */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * All data are stored in here.
+     */
+    private final ConcurrentMap<CacheEntry, Object> contents;
+
+    private final ConcurrentMap<CacheEntry, CacheStatistics> statistics;
+
+    private final CacheWeigher weigher;
+
+    private final int concurrencyLevel;
+
+    public ConcurrentCacheAccessor() {
+        this(new DefaultCacheWeigher(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param weigher          estimates the heap size of bounded cache entries
+     * @param concurrencyLevel number of lock stripes for bounded cache entries
+     */
+    public ConcurrentCacheAccessor(CacheWeigher weigher, int concurrencyLevel) {
+        this.contents = new ConcurrentHashMap<CacheEntry, Object>();
+        this.statistics = new ConcurrentHashMap<CacheEntry, CacheStatistics>();
+        this.weigher = weigher;
+        this.concurrencyLevel = concurrencyLevel;
+    }
+
+    /**
+     * Store key into cache, type should be a collection type.
+     *
+     * @param type cache type
+     * @param key  key
+     */
+    @Override
+    public void store(CacheEntry type, Object key) {
+        store(type, key, null);
+    }
+
+    /**
+     * Store a key-value pair into cache, type should be a map type.
+     *
+     * @param type  cache type
+     * @param key   key
+     * @param value value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void store(CacheEntry type, Object key, Object value) {
+        Object content = createIfNotExist(type);
+
+        if (content instanceof AppendOnlyList) {
+            ((AppendOnlyList) content).add(key);
+        } else {
+            // must do this check here
+            if (key == null) {
+                String errMsg = "Key and value cannot be null (key: " + key + ", value: " + value + ")";
+
+                logger.error(errMsg);
+
+                throw new IllegalArgumentException(errMsg);
+            }
+
+            if (content instanceof StripedLruMap) {
+                ((StripedLruMap) content).put(key, value);
+            } else {
+                ((Map) content).put(key, maskNull(value));
+            }
+        }
+    }
+
+    /**
+     * Store a map of values
+     *
+     * @param type   cache type
+     * @param values a map of values
+     */
+    @Override
+    public void storeInBatch(CacheEntry type, Map values) {
+        if (values == null) {
+            String errMsg = "Map values cannot be null";
+
+            logger.error(errMsg);
+
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        if (!values.isEmpty()) {
+            Object content = createIfNotExist(type);
+
+            if (!(content instanceof AppendOnlyList)) {
+                for (Object entry : values.entrySet()) {
+                    Map.Entry mapEntry = (Map.Entry) entry;
+                    store(type, mapEntry.getKey(), mapEntry.getValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Store a collection of values
+     *
+     * @param type   cache category
+     * @param values a collection of data
+     */
+    @Override
+    public void storeInBatch(CacheEntry type, Collection values) {
+        if (values == null) {
+            String errMsg = "Collection values cannot be null";
+
+            logger.error(errMsg);
+
+            throw new IllegalArgumentException(errMsg);
+        }
+
+        if (!values.isEmpty()) {
+            Object content = createIfNotExist(type);
+
+            if (content instanceof AppendOnlyList) {
+                ((AppendOnlyList) content).addAll(values);
+            }
+        }
+    }
+
+    /**
+     * Get the stored data using a key.
+     *
+     * @param type cache category
+     * @param key  key
+     * @return Object data, a collection or a map will be returned as a read-only view
+     */
+    @Override
+    public Object get(CacheEntry type, Object key) {
+        return retrieveContent(type, key);
+    }
+
+    /**
+     * Get a collection of values using a collection of keys.
+     * Note: keys with no matching value will automatically be ignored.
+     *
+     * @param type cache category
+     * @param keys keys
+     * @return Collection   value collection
+     */
+    @Override
+    public Collection getInBatch(CacheEntry type, Collection keys) {
+        Collection<Object> results = new ArrayList<Object>();
+
+        for (Object key : keys) {
+            Object val = retrieveContent(type, key);
+
+            if (val != null) {
+                results.add(val);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Get the stored data set using a type.
+     *
+     * @param type cache category
+     * @return Object   data, a read-only view for map and collection types,
+     *         a copy for the memory bounded types.
+     */
+    @Override
+    public Object get(CacheEntry type) {
+        return retrieveContent(type, null);
+    }
+
+    @Override
+    public boolean hasCacheEntry(CacheEntry type) {
+        return contents.containsKey(type);
+    }
+
+    @Override
+    public void clear(CacheEntry type) {
+        contents.remove(type);
+        statistics.remove(type);
+    }
+
+    @Override
+    public void clear() {
+        contents.clear();
+        statistics.clear();
+    }
+
+    /**
+     * Get the statistics of a cache category
+     *
+     * @param type cache category
+     * @return CacheStatistics  hits, misses, evictions and estimated heap size
+     */
+    public CacheStatistics getStatistics(CacheEntry type) {
+        CacheStatistics stats = statistics.get(type);
+        if (stats == null) {
+            CacheStatistics newStats = new CacheStatistics();
+            stats = statistics.putIfAbsent(type, newStats);
+            if (stats == null) {
+                stats = newStats;
+            }
+        }
+        return stats;
+    }
+
+    private Object createIfNotExist(CacheEntry type) {
+        Object content = contents.get(type);
+
+        if (content == null) {
+            Object newContent = createContent(type);
+            content = contents.putIfAbsent(type, newContent);
+            if (content == null) {
+                content = newContent;
+            }
+        }
+
+        return content;
+    }
+
+    private Object createContent(CacheEntry type) {
+        Class dataStructType = type.getDataStructType();
+        Integer size = type.getSize();
+
+        if (Collection.class.isAssignableFrom(dataStructType)) {
+            return new AppendOnlyList(size == null ? 0 : size);
+        } else if (type.getMaxWeight() != null) {
+            return new StripedLruMap(concurrencyLevel, type.getMaxWeight(), weigher, getStatistics(type));
+        } else if (Map.class.isAssignableFrom(dataStructType)) {
+            return new ConcurrentHashMap<Object, Object>(size == null ? 16 : size, .75F, concurrencyLevel);
+        } else {
+            String errMsg = "Unsupported data structure for caching: " + dataStructType;
+
+            logger.error(errMsg);
+
+            throw new IllegalArgumentException(errMsg);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object retrieveContent(CacheEntry type, Object key) {
+        Object content = contents.get(type);
+        Object result = null;
+
+        if (content instanceof AppendOnlyList) {
+            result = ((AppendOnlyList) content).snapshot();
+        } else if (content instanceof StripedLruMap) {
+            result = key == null ? ((StripedLruMap) content).copy() : ((StripedLruMap) content).get(key);
+        } else if (content != null) {
+            Map<Object, Object> map = (Map<Object, Object>) content;
+            result = key == null ? new NullUnmaskingMap(map) : unmaskNull(map.get(key));
+        }
+
+        if (key != null) {
+            if (result == null) {
+                getStatistics(type).recordMiss();
+            } else {
+                getStatistics(type).recordHit();
+            }
+        }
+
+        return readOnly(result);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object readOnly(Object result) {
+        if (result instanceof List) {
+            return Collections.unmodifiableList((List) result);
+        } else if (result instanceof Set) {
+            return Collections.unmodifiableSet((Set) result);
+        } else if (result instanceof Collection) {
+            return Collections.unmodifiableCollection((Collection) result);
+        } else if (result instanceof Map) {
+            return Collections.unmodifiableMap((Map) result);
+        }
+        return result;
+    }
+
+    private static Object maskNull(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    private static Object unmaskNull(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * A view of a ConcurrentHashMap, which turns the masked null values back into null
+     */
+    private static class NullUnmaskingMap extends AbstractMap<Object, Object> {
+        private final Map<Object, Object> map;
+
+        private NullUnmaskingMap(Map<Object, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return key == null ? null : unmaskNull(map.get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != null && map.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Set<Entry<Object, Object>> entrySet() {
+            return new AbstractSet<Entry<Object, Object>>() {
+                @Override
+                public Iterator<Entry<Object, Object>> iterator() {
+                    final Iterator<Entry<Object, Object>> iterator = map.entrySet().iterator();
+                    return new Iterator<Entry<Object, Object>>() {
+                        @Override
+                        public boolean hasNext() {
+                            return iterator.hasNext();
+                        }
+
+                        @Override
+                        public Entry<Object, Object> next() {
+                            Entry<Object, Object> entry = iterator.next();
+                            return new SimpleImmutableEntry<Object, Object>(entry.getKey(), unmaskNull(entry.getValue()));
+                        }
+
+                        @Override
+                        public void remove() {
+                            throw new UnsupportedOperationException();
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+            };
+        }
+    }
+}
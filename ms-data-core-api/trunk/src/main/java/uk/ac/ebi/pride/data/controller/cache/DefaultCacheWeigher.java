@@ -0,0 +1,71 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+import uk.ac.ebi.pride.data.core.BinaryDataArray;
+import uk.ac.ebi.pride.data.core.MzGraph;
+import uk.ac.ebi.pride.data.io.db.PrideDBIdentificationGraph;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DefaultCacheWeigher gives a rough estimation of the heap size of cached objects.
+ * <p/>
+ * Spectra and chromatograms are weighed by their binary arrays, which dominate their size,
+ * identification graphs by their rows, all the other objects get a flat estimation.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class DefaultCacheWeigher implements CacheWeigher {
+
+    /**
+     * Object header, reference and hash map entry overhead
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * Flat estimation for objects which are not weighed by their content
+     */
+    private static final long DEFAULT_OBJECT_SIZE = 1024;
+
+    @Override
+    public long weigh(Object key, Object value) {
+        return ENTRY_OVERHEAD + weighObject(key) + weighObject(value);
+    }
+
+    private long weighObject(Object object) {
+        if (object == null) {
+            return 0;
+        } else if (object instanceof MzGraph) {
+            return weighMzGraph((MzGraph) object);
+        } else if (object instanceof PrideDBIdentificationGraph) {
+            return ((PrideDBIdentificationGraph) object).getEstimatedSize();
+        } else if (object instanceof CharSequence) {
+            return 40 + 2L * ((CharSequence) object).length();
+        } else if (object instanceof Number) {
+            return 16;
+        } else if (object instanceof Collection) {
+            return 32 + 16L * ((Collection) object).size();
+        } else if (object instanceof Map) {
+            return 48 + 48L * ((Map) object).size();
+        } else {
+            return DEFAULT_OBJECT_SIZE;
+        }
+    }
+
+    private long weighMzGraph(MzGraph mzGraph) {
+        long size = DEFAULT_OBJECT_SIZE;
+
+        List<BinaryDataArray> binaryDataArrays = mzGraph.getBinaryDataArrays();
+        if (binaryDataArrays != null) {
+            for (BinaryDataArray binaryDataArray : binaryDataArrays) {
+                double[] values = binaryDataArray == null ? null : binaryDataArray.getDoubleArray();
+                if (values != null) {
+                    size += 16 + 8L * values.length;
+                }
+            }
+        }
+
+        return size;
+    }
+}
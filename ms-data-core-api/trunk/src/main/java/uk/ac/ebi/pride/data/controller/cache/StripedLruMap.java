@@ -0,0 +1,181 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * StripedLruMap is a memory bounded LRU map split into independently locked segments.
+ * <p/>
+ * Each segment keeps its own access order, the heap budget is shared by all segments:
+ * when it is exceeded, the least recently used entries are evicted segment by segment,
+ * starting from the segment which has just been written to.
+ * The most recently stored entry is never evicted, so a single value larger than the
+ * budget is still cached until the next store.
+ * <p/>
+ * Date: 17/10/2026
+ */
+class StripedLruMap {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+
+    private final long maxWeight;
+
+    private final CacheWeigher weigher;
+
+    private final CacheStatistics statistics;
+
+    private final AtomicLong totalWeight = new AtomicLong();
+
+    StripedLruMap(int concurrencyLevel, long maxWeight, CacheWeigher weigher, CacheStatistics statistics) {
+        int numberOfSegments = Math.max(1, Math.min(MAX_SEGMENTS, concurrencyLevel));
+        this.segments = new Segment[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments[i] = new Segment();
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.statistics = statistics;
+    }
+
+    Object get(Object key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            WeighedValue weighedValue = segment.entries.get(key);
+            return weighedValue == null ? null : weighedValue.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    boolean containsKey(Object key) {
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.entries.containsKey(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    void put(Object key, Object value) {
+        int segmentIndex = segmentIndex(key);
+        Segment segment = segments[segmentIndex];
+
+        long weight = weigher.weigh(key, value);
+        segment.lock.lock();
+        try {
+            WeighedValue previous = segment.entries.put(key, new WeighedValue(value, weight));
+            long delta = previous == null ? weight : weight - previous.weight;
+            totalWeight.addAndGet(delta);
+            statistics.addWeight(delta);
+        } finally {
+            segment.lock.unlock();
+        }
+
+        if (totalWeight.get() > maxWeight) {
+            evict(segmentIndex, key);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    long getWeight() {
+        return totalWeight.get();
+    }
+
+    /**
+     * Copy all the entries, segment by segment
+     *
+     * @return Map<Object, Object> a new map which contains all the entries
+     */
+    Map<Object, Object> copy() {
+        Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                for (Map.Entry<Object, WeighedValue> entry : segment.entries.entrySet()) {
+                    copy.put(entry.getKey(), entry.getValue().value);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return copy;
+    }
+
+    private void evict(int startSegment, Object protectedKey) {
+        int idleSegments = 0;
+        int segmentIndex = startSegment;
+
+        // stop once a full round over the segments could not evict anything
+        while (totalWeight.get() > maxWeight && idleSegments < segments.length) {
+            Segment segment = segments[segmentIndex];
+            boolean evicted = false;
+
+            segment.lock.lock();
+            try {
+                Iterator<Map.Entry<Object, WeighedValue>> iterator = segment.entries.entrySet().iterator();
+                if (iterator.hasNext()) {
+                    Map.Entry<Object, WeighedValue> eldest = iterator.next();
+                    if (!eldest.getKey().equals(protectedKey)) {
+                        iterator.remove();
+                        totalWeight.addAndGet(-eldest.getValue().weight);
+                        statistics.recordEviction(eldest.getValue().weight);
+                        evicted = true;
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+
+            idleSegments = evicted ? 0 : idleSegments + 1;
+            segmentIndex = (segmentIndex + 1) % segments.length;
+        }
+    }
+
+    private Segment segmentFor(Object key) {
+        return segments[segmentIndex(key)];
+    }
+
+    private int segmentIndex(Object key) {
+        int hash = key.hashCode();
+        // spread the hash bits, the same way HashMap does
+        hash ^= (hash >>> 20) ^ (hash >>> 12);
+        hash ^= (hash >>> 7) ^ (hash >>> 4);
+        return (hash & 0x7fffffff) % segments.length;
+    }
+
+    private static class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        // access order, the eldest entry is the least recently used one
+        private final LinkedHashMap<Object, WeighedValue> entries = new LinkedHashMap<Object, WeighedValue>(16, .75F, true);
+    }
+
+    private static class WeighedValue {
+        private final Object value;
+        private final long weight;
+
+        private WeighedValue(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -11,12 +11,15 @@ import uk.ac.ebi.pride.data.controller.cache.CacheEntry;
 import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.MzIdentMLControllerImpl;
 import uk.ac.ebi.pride.data.controller.impl.Transformer.MzIdentMLTransformer;
 import uk.ac.ebi.pride.data.core.CVLookup;
+import uk.ac.ebi.pride.data.core.ExperimentStatistics;
 import uk.ac.ebi.pride.data.core.IdentifiableParamGroup;
+import uk.ac.ebi.pride.data.io.file.MzIdentMLPrescanner;
 import uk.ac.ebi.pride.data.io.file.MzIdentMLUnmarshallerAdaptor;
 import uk.ac.ebi.pride.data.utils.Constants;
 import uk.ac.ebi.pride.data.utils.MzIdentMLUtils;
 
 import javax.naming.ConfigurationException;
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -143,17 +146,18 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
         Map<Comparable, String[]> identSpectrumMap = new HashMap<Comparable, String[]>();
 
 
-        Set<String> spectrumIdentResultIds = unmarshaller.getIDsForElement(MzIdentMLElement.SpectrumIdentificationResult);
+        List<String> spectrumIdentResultIds = new ArrayList<String>(unmarshaller.getIDsForElement(MzIdentMLElement.SpectrumIdentificationResult));
 
         Map<Comparable, SpectraData> spectraDataIds = unmarshaller.getSpectraDataMap();
 
         Map<Comparable, List<Comparable>> spectraDataMap = new HashMap<Comparable, List<Comparable>>(spectraDataIds.size());
 
-        for (String spectrumIdentResultId : spectrumIdentResultIds) {
+        Set<List<String>> identifiedSpectra = new HashSet<List<String>>();
 
-            Map<String, String> spectrumIdentificationResultAttributes = unmarshaller.getElementAttributes(spectrumIdentResultId, SpectrumIdentificationResult.class);
-            String spectrumDataReference = spectrumIdentificationResultAttributes.get("spectraData_ref");
-            String spectrumID = spectrumIdentificationResultAttributes.get("spectrumID");
+        for (MzIdentMLPrescanner.ScannedResult spectrumIdentResult : prescan(unmarshaller, spectrumIdentResultIds, false)) {
+
+            String spectrumDataReference = spectrumIdentResult.getSpectraDataRef();
+            String spectrumID = spectrumIdentResult.getSpectrumId();
             SpectraData spectraData = spectraDataIds.get(spectrumDataReference);
 
             // fill the SpectraDataMap
@@ -166,10 +170,11 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
             }
             // add the spectrum ID to the list of spectrum IDs for the current spectrum file
             spectrumIds.add(spectrumID);
+            identifiedSpectra.add(Arrays.asList(spectrumDataReference, spectrumID));
 
             // proceed to populate the identSpectrumMap
-            Set<String> spectrumIdentItemIds = unmarshaller.getSpectrumIdentificationItemIds(spectrumIdentResultId);
-            for (String spectrumIdentItemId : spectrumIdentItemIds) {
+            for (MzIdentMLPrescanner.ScannedItem spectrumIdentItem : spectrumIdentResult.getItems()) {
+                String spectrumIdentItemId = spectrumIdentItem.getId();
 
                 // extract the spectrum ID from the provided identifier
                 String formattedSpectrumID = MzIdentMLUtils.getSpectrumId(spectraData, spectrumID);
@@ -184,6 +189,11 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
 
         cache.clear(CacheEntry.PEPTIDE_TO_SPECTRUM);
         cache.storeInBatch(CacheEntry.PEPTIDE_TO_SPECTRUM, identSpectrumMap);
+
+        // peptides belong to protein detection hypotheses here, they are only counted when the statistics are requested
+        ExperimentStatistics.Collector statistics = new ExperimentStatistics.Collector();
+        statistics.setNumberOfIdentifiedSpectra(identifiedSpectra.size());
+        cacheStatistics(statistics.build());
     }
 
     /**
@@ -227,7 +237,13 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
         /**
          * List of PSMs, e.g. SpectrumIdentificationResult IDs
          */
-        Set<String> spectrumIdentResultIds = unmarshaller.getIDsForElement(MzIdentMLElement.SpectrumIdentificationResult);
+        List<String> spectrumIdentResultIds = new ArrayList<String>(unmarshaller.getIDsForElement(MzIdentMLElement.SpectrumIdentificationResult));
+
+        /**
+         * PeptideEvidence ids to DBSequence ids, read in parallel with the results, filled on demand if that failed
+         */
+        Map<String, String> peptideEvidenceToDBSequence = new HashMap<String, String>();
+        List<MzIdentMLPrescanner.ScannedResult> spectrumIdentResults = prescan(unmarshaller, spectrumIdentResultIds, true, peptideEvidenceToDBSequence);
 
         /**
          * This Protein Map represents the Protein identification in the DBSequence Section that contains SpectrumIdentification Items
@@ -238,11 +254,22 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
          */
         Map<Comparable, List<Comparable>> identProteinsMap = new HashMap<Comparable, List<Comparable>>();
 
-        for (String spectrumIdentResultId : spectrumIdentResultIds) {
+        /**
+         * Peptides are counted while they are scanned, each SpectrumIdentificationItem is a peptide of every protein it maps to,
+         * they are left to a full pass if the items were read without their rank
+         */
+        ExperimentStatistics.Collector statistics = new ExperimentStatistics.Collector();
+        boolean ranked = true;
 
-            Map<String, String> spectrumIdentificationResultAttributes = unmarshaller.getElementAttributes(spectrumIdentResultId, SpectrumIdentificationResult.class);
-            String spectrumDataReference = spectrumIdentificationResultAttributes.get("spectraData_ref");
-            String spectrumID = spectrumIdentificationResultAttributes.get("spectrumID");
+        /**
+         * Spectra data id and spectrum id of the identified spectra, several results can identify the same spectrum
+         */
+        Set<List<String>> identifiedSpectra = new HashSet<List<String>>();
+
+        for (MzIdentMLPrescanner.ScannedResult spectrumIdentResult : spectrumIdentResults) {
+
+            String spectrumDataReference = spectrumIdentResult.getSpectraDataRef();
+            String spectrumID = spectrumIdentResult.getSpectrumId();
 
             // fill the SpectraDataMap
             // for the currently referenced spectra file, retrieve the List (if it exists already) that is to store all the spectra IDs
@@ -254,10 +281,11 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
             }
             // add the spectrum ID to the list of spectrum IDs for the current spectrum file
             spectrumIds.add(spectrumID);
+            identifiedSpectra.add(Arrays.asList(spectrumDataReference, spectrumID));
 
             // proceed to populate the identSpectrumMap
-            Set<String> spectrumIdentItemIds = unmarshaller.getSpectrumIdentificationItemIds(spectrumIdentResultId);
-            for (String spectrumIdentItemId : spectrumIdentItemIds) {
+            for (MzIdentMLPrescanner.ScannedItem spectrumIdentItem : spectrumIdentResult.getItems()) {
+                String spectrumIdentItemId = spectrumIdentItem.getId();
 
                 // fill the SpectrumIdentification and the Spectrum information
                 SpectraData spectraData = spectraDataIds.get(spectrumDataReference);
@@ -269,10 +297,15 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
                 identSpectrumMap.put(spectrumIdentItemId, spectrumFeatures);
 
                 Set<Comparable> idProteins = new HashSet<Comparable>();
-                Set<String> peptideEvidenceReferences = unmarshaller.getPeptideEvidenceReferences(spectrumIdentResultId, spectrumIdentItemId);
-                for (String peptideEvidenceReference : peptideEvidenceReferences) {
-                    Map<String, String> attributes = unmarshaller.getElementAttributes(peptideEvidenceReference, PeptideEvidence.class);
-                    idProteins.add(attributes.get("dBSequence_ref"));
+                for (String peptideEvidenceReference : spectrumIdentItem.getPeptideEvidenceRefs()) {
+                    idProteins.add(getDBSequenceRef(unmarshaller, peptideEvidenceReference, peptideEvidenceToDBSequence));
+                }
+
+                if (spectrumIdentItem.getRank() == null) {
+                    ranked = false;
+                } else {
+                    statistics.addPeptides(parseInt(spectrumIdentItem.getRank(), 0),
+                            parseInt(spectrumIdentItem.getChargeState(), 0), idProteins.size());
                 }
 
                 for (Comparable idProtein : idProteins) {
@@ -298,6 +331,86 @@ public class MzIdentMLCachingStrategy extends AbstractCachingStrategy {
 
         cache.clear(CacheEntry.PEPTIDE_TO_SPECTRUM);
         cache.storeInBatch(CacheEntry.PEPTIDE_TO_SPECTRUM, identSpectrumMap);
+
+        statistics = ranked ? statistics.startPeptides() : new ExperimentStatistics.Collector();
+        statistics.setNumberOfProteins(identProteinsMap.size());
+        statistics.setNumberOfIdentifiedSpectra(identifiedSpectra.size());
+        cacheStatistics(statistics.build());
+    }
+
+    private List<MzIdentMLPrescanner.ScannedResult> prescan(MzIdentMLUnmarshallerAdaptor unmarshaller,
+                                                            List<String> spectrumIdentResultIds,
+                                                            boolean withPeptideEvidences) {
+        return prescan(unmarshaller, spectrumIdentResultIds, withPeptideEvidences, new HashMap<String, String>());
+    }
+
+    /**
+     * Read the spectrum identification results with the parallel prescanner, and fall back to
+     * reading their attributes one by one through the unmarshaller if that fails.
+     * The fallback does not read the rank and charge state of the items.
+     * <p/>
+     * The results come in the order of the given ids, and the items of a result in document order, on both paths.
+     * The items used to come in the HashMap key order of the adaptor's scanned id mappings, so the lists of item ids
+     * cached in PROTEIN_TO_PEPTIDE_EVIDENCES are now in document order as well.
+     *
+     * @param peptideEvidenceToDBSequence filled with the DBSequence id of every PeptideEvidence when the prescan succeeds
+     */
+    private List<MzIdentMLPrescanner.ScannedResult> prescan(MzIdentMLUnmarshallerAdaptor unmarshaller,
+                                                            List<String> spectrumIdentResultIds,
+                                                            boolean withPeptideEvidences,
+                                                            Map<String, String> peptideEvidenceToDBSequence) {
+        try {
+            List<MzIdentMLPrescanner.ScannedResult> results = unmarshaller.prescanSpectrumIdentificationResults(spectrumIdentResultIds);
+            if (withPeptideEvidences) {
+                peptideEvidenceToDBSequence.putAll(unmarshaller.prescanPeptideEvidenceDBSequenceRefs());
+            }
+            return results;
+        } catch (IOException e) {
+            logger.warn("Failed to prescan the spectrum identification results in parallel, reading them one by one", e);
+        }
+
+        List<MzIdentMLPrescanner.ScannedResult> results = new ArrayList<MzIdentMLPrescanner.ScannedResult>(spectrumIdentResultIds.size());
+        for (String spectrumIdentResultId : spectrumIdentResultIds) {
+            Map<String, String> spectrumIdentificationResultAttributes = unmarshaller.getElementAttributes(spectrumIdentResultId, SpectrumIdentificationResult.class);
+            MzIdentMLPrescanner.ScannedResult result = new MzIdentMLPrescanner.ScannedResult(spectrumIdentResultId,
+                    spectrumIdentificationResultAttributes.get("spectrumID"), spectrumIdentificationResultAttributes.get("spectraData_ref"));
+
+            for (String spectrumIdentItemId : unmarshaller.getSpectrumIdentificationItemIds(spectrumIdentResultId)) {
+                MzIdentMLPrescanner.ScannedItem item = new MzIdentMLPrescanner.ScannedItem(spectrumIdentItemId, null, null);
+                if (withPeptideEvidences) {
+                    item.getPeptideEvidenceRefs().addAll(unmarshaller.getPeptideEvidenceReferences(spectrumIdentResultId, spectrumIdentItemId));
+                }
+                result.getItems().add(item);
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private String getDBSequenceRef(MzIdentMLUnmarshallerAdaptor unmarshaller, String peptideEvidenceId,
+                                    Map<String, String> peptideEvidenceToDBSequence) {
+        if (peptideEvidenceToDBSequence.containsKey(peptideEvidenceId)) {
+            return peptideEvidenceToDBSequence.get(peptideEvidenceId);
+        }
+        String dbSequenceRef = unmarshaller.getElementAttributes(peptideEvidenceId, PeptideEvidence.class).get("dBSequence_ref");
+        peptideEvidenceToDBSequence.put(peptideEvidenceId, dbSequenceRef);
+        return dbSequenceRef;
+    }
+
+    private void cacheStatistics(ExperimentStatistics statistics) {
+        cache.clear(CacheEntry.EXPERIMENT_STATISTICS);
+        cache.store(CacheEntry.EXPERIMENT_STATISTICS, statistics);
+    }
+
+    private static int parseInt(String value, int defaultValue) {
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                logger.debug("Not an integer: {}", value);
+            }
+        }
+        return defaultValue;
     }
 }
 
@@ -9,6 +9,7 @@ import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.PrideDBAccessControll
 import uk.ac.ebi.pride.data.core.*;
 import uk.ac.ebi.pride.data.io.db.DBUtilities;
 import uk.ac.ebi.pride.data.io.db.PooledConnectionFactory;
+import uk.ac.ebi.pride.data.io.db.PrideDBIdentificationLoader;
 import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
 import uk.ac.ebi.pride.util.NumberUtilities;
@@ -345,6 +346,23 @@ public class PrideDBCachingStrategy extends AbstractCachingStrategy {
         spectrumRefToId.clear();
     }
 
+    /**
+     * @return String  a comma separated list of the given number of statement placeholders
+     */
+    private static String getPlaceholders(int cnt) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < cnt; i++) {
+            placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        return placeholders.toString();
+    }
+
+    private static void setLongs(PreparedStatement st, List<Comparable> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            st.setLong(i + 1, Long.parseLong(ids.get(i).toString()));
+        }
+    }
+
     /**
      * Populate PTM information
      *
@@ -392,53 +410,86 @@ public class PrideDBCachingStrategy extends AbstractCachingStrategy {
                 accToModId.put(modAcc, modId);
             }
             rs.close();
-            for (Map.Entry<String, Comparable> entry : accToModId.entrySet()) {
+            st.close();
 
-                String modAcc = entry.getKey();
-                Comparable modId = entry.getValue();
-                String modDB = null;
-                String modDBVersion = null;
-                List<Double> monoMasses = new ArrayList<Double>();
-                List<Double> avgMasses = new ArrayList<Double>();
+            // modification id to accession, only one modification per accession is kept
+            Map<Comparable, String> modIdToAcc = new HashMap<Comparable, String>();
+            for (Map.Entry<String, Comparable> entry : accToModId.entrySet()) {
+                modIdToAcc.put(entry.getValue(), entry.getKey());
+            }
+            Map<Comparable, List<Double>> monoMasses = new HashMap<Comparable, List<Double>>();
+            Map<Comparable, List<Double>> avgMasses = new HashMap<Comparable, List<Double>>();
+            Map<Comparable, ParamGroup> paramGroups = new HashMap<Comparable, ParamGroup>();
+
+            // only the kept modifications are read, one per accession
+            String modIdList = getPlaceholders(modIdToAcc.size());
+            List<Comparable> modIds = new ArrayList<Comparable>(modIdToAcc.keySet());
+            if (!modIds.isEmpty()) {
+                // mass deltas of the kept modifications, in one query
                 logger.debug("Getting mass delta value");
-
-                //todo: why split the original query into two? Is it faster?
-                st = connection.prepareStatement("SELECT mass_delta_value FROM pride_mass_delta WHERE modification_id = ? AND classname = ?");
-                st.setInt(1, Integer.parseInt(modId.toString()));
-                st.setString(2, "uk.ac.ebi.pride.rdbms.ojb.model.core.MonoMassDeltaBean");
+                st = connection.prepareStatement("SELECT md.modification_id, md.mass_delta_value, md.classname FROM pride_mass_delta md " +
+                        "where md.modification_id in (" + modIdList + ")");
+                setLongs(st, modIds);
                 rs = st.executeQuery();
                 while (rs.next()) {
-                    monoMasses.add(rs.getDouble("mass_delta_value"));
-                }
-                st = connection.prepareStatement("SELECT mass_delta_value FROM pride_mass_delta WHERE modification_id = ? AND classname = ?");
-                st.setInt(1, Integer.parseInt(modId.toString()));
-                st.setString(2, "uk.ac.ebi.pride.rdbms.ojb.model.core.AverageMassDeltaBean");
-                rs = st.executeQuery();
-                while (rs.next()) {
-                    avgMasses.add(rs.getDouble("mass_delta_value"));
+                    Comparable modId = rs.getString("modification_id");
+                    if (modIdToAcc.containsKey(modId)) {
+                        String className = rs.getString("classname");
+                        Map<Comparable, List<Double>> masses;
+                        if (PrideDBIdentificationLoader.MONO_MASS_DELTA.equals(className)) {
+                            masses = monoMasses;
+                        } else if (PrideDBIdentificationLoader.AVERAGE_MASS_DELTA.equals(className)) {
+                            masses = avgMasses;
+                        } else {
+                            continue;
+                        }
+                        List<Double> values = masses.get(modId);
+                        if (values == null) {
+                            values = new ArrayList<Double>();
+                            masses.put(modId, values);
+                        }
+                        values.add(rs.getDouble("mass_delta_value"));
+                    }
                 }
+                rs.close();
+                st.close();
 
-                //todo: the following two queries can be merged into one
-                List<CvParam> cvParams = new ArrayList<CvParam>();
-                st = connection.prepareStatement("SELECT accession, name, value, cv_label FROM pride_modification_param " + " WHERE parent_element_fk = ? AND cv_label is not null");
-                st.setInt(1, Integer.parseInt(modId.toString()));
-                rs = st.executeQuery();
-                while (rs.next()) {
-                    cvParams.add(new CvParam(rs.getString("accession"), rs.getString("name"), rs.getString("cv_label"), rs.getString("value"), "", "", ""));
-                }
-                List<UserParam> userParams = new ArrayList<UserParam>();
-                st = connection.prepareStatement("SELECT name, value FROM pride_modification_param " + " WHERE parent_element_fk = ? AND cv_label is null");
-                st.setInt(1, Integer.parseInt(modId.toString()));
+                // params of the kept modifications, in one query
+                st = connection.prepareStatement("SELECT pmp.parent_element_fk, pmp.accession, pmp.name, pmp.value, pmp.cv_label FROM pride_modification_param pmp " +
+                        "where pmp.parent_element_fk in (" + modIdList + ")");
+                setLongs(st, modIds);
                 rs = st.executeQuery();
                 while (rs.next()) {
-                    userParams.add(new UserParam(rs.getString("name"), "", rs.getString("value"), "", "", ""));
+                    Comparable modId = rs.getString("parent_element_fk");
+                    if (modIdToAcc.containsKey(modId)) {
+                        ParamGroup paramGroup = paramGroups.get(modId);
+                        if (paramGroup == null) {
+                            paramGroup = new ParamGroup();
+                            paramGroups.put(modId, paramGroup);
+                        }
+                        String cvLabel = rs.getString("cv_label");
+                        if (cvLabel == null) {
+                            paramGroup.addUserParam(new UserParam(rs.getString("name"), "", rs.getString("value"), "", "", ""));
+                        } else {
+                            paramGroup.addCvParam(new CvParam(rs.getString("accession"), rs.getString("name"), cvLabel, rs.getString("value"), "", "", ""));
+                        }
+                    }
                 }
-                ParamGroup paramGroup = new ParamGroup(cvParams, userParams);
-                Modification mod = new Modification(paramGroup, modAcc, null, 0, null, avgMasses, monoMasses, modDB, modDBVersion);
-                modifications.put(modAcc, mod);
                 rs.close();
             }
 
+            for (Map.Entry<Comparable, String> entry : modIdToAcc.entrySet()) {
+                Comparable modId = entry.getKey();
+                String modAcc = entry.getValue();
+                ParamGroup paramGroup = paramGroups.get(modId);
+                List<Double> avgMassDeltas = avgMasses.get(modId);
+                List<Double> monoMassDeltas = monoMasses.get(modId);
+                Modification mod = new Modification(paramGroup == null ? new ParamGroup() : paramGroup, modAcc, null, 0, null,
+                        avgMassDeltas == null ? new ArrayList<Double>() : avgMassDeltas,
+                        monoMassDeltas == null ? new ArrayList<Double>() : monoMassDeltas, null, null);
+                modifications.put(modAcc, mod);
+            }
+
         } catch (SQLException e) {
             logger.error("Querying PTM locations", e);
             throw e;
@@ -2,9 +2,11 @@ package uk.ac.ebi.pride.data.controller.cache.strategy;
 
 import uk.ac.ebi.pride.data.controller.cache.CacheEntry;
 import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.PrideXmlControllerImpl;
+import uk.ac.ebi.pride.data.core.ExperimentStatistics;
 import uk.ac.ebi.pride.jaxb.xml.PrideXmlReader;
 
 import java.util.ArrayList;
+import java.util.List;
 
 /**
  * PrideXmlAccessCacheBuilder initialize the cache for pride xml reading.
@@ -24,12 +26,39 @@ public class PrideXmlCachingStrategy extends AbstractCachingStrategy {
         PrideXmlReader reader = ((PrideXmlControllerImpl) controller).getReader();
 
         // clear and add spectrum ids
+        List<String> spectrumIds = reader.getSpectrumIds();
         cache.clear(CacheEntry.SPECTRUM_ID);
-        cache.storeInBatch(CacheEntry.SPECTRUM_ID, new ArrayList<Comparable>(reader.getSpectrumIds()));
+        cache.storeInBatch(CacheEntry.SPECTRUM_ID, new ArrayList<Comparable>(spectrumIds));
 
         // clear and add peptide ids
+        List<String> identIds = reader.getIdentIds();
         cache.clear(CacheEntry.PROTEIN_ID);
-        cache.storeInBatch(CacheEntry.PROTEIN_ID, new ArrayList<Comparable>(reader.getIdentIds()));
+        cache.storeInBatch(CacheEntry.PROTEIN_ID, new ArrayList<Comparable>(identIds));
+
+        cacheStatistics(reader, spectrumIds, identIds);
+    }
+
+    /**
+     * The counts come from the xml index, in PRIDE XML all peptides are rank 1 and carry no precursor charge.
+     * The spectrum distributions are left to the spectrum headers, which are only read when needed.
+     */
+    private void cacheStatistics(PrideXmlReader reader, List<String> spectrumIds, List<String> identIds) {
+        int numOfIdentifiedSpectra = 0;
+        for (String spectrumId : spectrumIds) {
+            if (reader.isIdentifiedSpectrum(spectrumId)) {
+                numOfIdentifiedSpectra++;
+            }
+        }
+
+        ExperimentStatistics statistics = new ExperimentStatistics.Collector()
+                .setNumberOfSpectra(spectrumIds.size())
+                .setNumberOfIdentifiedSpectra(numOfIdentifiedSpectra)
+                .setNumberOfProteins(identIds.size())
+                .addPeptides(1, null, reader.getNumberOfPeptides())
+                .build();
+
+        cache.clear(CacheEntry.EXPERIMENT_STATISTICS);
+        cache.store(CacheEntry.EXPERIMENT_STATISTICS, statistics);
     }
 }
 
@@ -6,6 +6,8 @@ import uk.ac.ebi.pride.data.controller.DataAccessController;
 import uk.ac.ebi.pride.data.controller.DataAccessUtilities;
 import uk.ac.ebi.pride.data.core.*;
 import uk.ac.ebi.pride.data.utils.CollectionUtils;
+import uk.ac.ebi.pride.data.utils.IdIndex;
+import uk.ac.ebi.pride.data.utils.PeptideIdIndex;
 import uk.ac.ebi.pride.data.utils.QuantCvTermReference;
 import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
@@ -45,6 +47,13 @@ public abstract class AbstractDataAccessController implements DataAccessControll
      * Data source, such as: File
      */
     private Object source;
+    /**
+     * Positional indexes of the ids, they are rebuilt when the ids have changed
+     */
+    private volatile IdIndex spectrumIdIndex = IdIndex.EMPTY;
+    private volatile IdIndex chromatogramIdIndex = IdIndex.EMPTY;
+    private volatile IdIndex proteinIdIndex = IdIndex.EMPTY;
+    private volatile PeptideIdIndex peptideIdIndex = PeptideIdIndex.EMPTY;
 
 
     protected AbstractDataAccessController() {
@@ -120,6 +129,56 @@ public abstract class AbstractDataAccessController implements DataAccessControll
         return null;
     }
 
+    /**
+     * Compute the statistics by going through all the spectra, proteins and peptides,
+     * this loads every entity, controllers which collect the statistics while indexing override it.
+     *
+     * @return ExperimentStatistics    experiment statistics
+     */
+    @Override
+    public ExperimentStatistics getExperimentStatistics() {
+        ExperimentStatistics.Collector collector = new ExperimentStatistics.Collector();
+        collectSpectrumStatistics(collector);
+        collectPeptideStatistics(collector);
+        return collector.build();
+    }
+
+    /**
+     * Count the spectra by ms level and precursor charge
+     *
+     * @param collector statistics collector
+     */
+    protected void collectSpectrumStatistics(ExperimentStatistics.Collector collector) {
+        collector.startSpectra();
+        Collection<Comparable> ids = getSpectrumIds();
+        if (ids != null) {
+            for (Comparable id : ids) {
+                collector.addSpectrum(getSpectrumMsLevel(id), getSpectrumPrecursorCharge(id), isIdentifiedSpectrum(id));
+            }
+        }
+    }
+
+    /**
+     * Count the proteins, and the peptides by rank and precursor charge
+     *
+     * @param collector statistics collector
+     */
+    protected void collectPeptideStatistics(ExperimentStatistics.Collector collector) {
+        collector.startPeptides();
+        Collection<Comparable> ids = getProteinIds();
+        collector.setNumberOfProteins(ids == null ? 0 : ids.size());
+        if (ids != null) {
+            for (Comparable id : ids) {
+                Collection<Comparable> peptideIds = getPeptideIds(id);
+                if (peptideIds != null) {
+                    for (Comparable peptideId : peptideIds) {
+                        collector.addPeptide(getPeptideRank(id, peptideId), getPeptidePrecursorCharge(id, peptideId));
+                    }
+                }
+            }
+        }
+    }
+
     public Collection<Sample> getSamples() {
         return Collections.emptyList();
     }
@@ -150,10 +209,16 @@ public abstract class AbstractDataAccessController implements DataAccessControll
 
     @Override
     public int getSpectrumIndex(Comparable id) {
-        int index = -1;
+        return getSpectrumIdIndex().indexOf(id);
+    }
+
+    @Override
+    public IdIndex getSpectrumIdIndex() {
+        IdIndex index = spectrumIdIndex;
         Collection<Comparable> ids = getSpectrumIds();
-        if (ids != null) {
-            index = CollectionUtils.getIndex(ids, id);
+        if (!index.isIndexOf(ids)) {
+            index = IdIndex.create(ids);
+            spectrumIdIndex = index;
         }
         return index;
     }
@@ -161,15 +226,8 @@ public abstract class AbstractDataAccessController implements DataAccessControll
     @Override
     public Collection<Spectrum> getSpectraByIndex(int index, int offset) {
         List<Spectrum> spectra = new ArrayList<Spectrum>();
-        Collection<Comparable> specIds = getSpectrumIds();
-        if (specIds != null && index < specIds.size()) {
-            int stopIndex = index + offset;
-            int idSize = specIds.size();
-            stopIndex = stopIndex >= idSize ? idSize : stopIndex;
-            for (int i = index; i < stopIndex; i++) {
-                Comparable specId = CollectionUtils.getElement(specIds, i);
-                spectra.add(getSpectrumById(specId));
-            }
+        for (Comparable specId : getSpectrumIdIndex().getIds(index, offset)) {
+            spectra.add(getSpectrumById(specId));
         }
 
         return spectra;
@@ -298,10 +356,16 @@ public abstract class AbstractDataAccessController implements DataAccessControll
 
     @Override
     public int getChromatogramIndex(Comparable chromaId) {
-        int index = -1;
+        return getChromatogramIdIndex().indexOf(chromaId);
+    }
+
+    @Override
+    public IdIndex getChromatogramIdIndex() {
+        IdIndex index = chromatogramIdIndex;
         Collection<Comparable> ids = getChromatogramIds();
-        if (ids != null) {
-            index = CollectionUtils.getIndex(ids, chromaId);
+        if (!index.isIndexOf(ids)) {
+            index = IdIndex.create(ids);
+            chromatogramIdIndex = index;
         }
         return index;
     }
@@ -309,15 +373,8 @@ public abstract class AbstractDataAccessController implements DataAccessControll
     @Override
     public Collection<Chromatogram> getChromatogramByIndex(int index, int offset) {
         List<Chromatogram> chromas = new ArrayList<Chromatogram>();
-        Collection<Comparable> chromatogramIds = getChromatogramIds();
-        if (chromatogramIds != null && index < chromatogramIds.size()) {
-            int stopIndex = index + offset;
-            int idSize = chromatogramIds.size();
-            stopIndex = stopIndex >= idSize ? idSize : stopIndex;
-            for (int i = index; i < stopIndex; i++) {
-                Comparable chromaId = CollectionUtils.getElement(chromatogramIds, i);
-                chromas.add(getChromatogramById(chromaId));
-            }
+        for (Comparable chromaId : getChromatogramIdIndex().getIds(index, offset)) {
+            chromas.add(getChromatogramById(chromaId));
         }
 
         return chromas;
@@ -360,25 +417,24 @@ public abstract class AbstractDataAccessController implements DataAccessControll
 
     @Override
     public int indexOfProtein(Comparable proteinId) {
-        int index = -1;
+        return getProteinIdIndex().indexOf(proteinId);
+    }
+
+    @Override
+    public IdIndex getProteinIdIndex() {
+        IdIndex index = proteinIdIndex;
         Collection<Comparable> ids = getProteinIds();
-        if (ids != null) {
-            index = CollectionUtils.getIndex(ids, proteinId);
+        if (!index.isIndexOf(ids)) {
+            index = IdIndex.create(ids);
+            proteinIdIndex = index;
         }
         return index;
     }
 
     public Collection<Protein> getProteinByIndex(int index, int offset) {
         List<Protein> proteins = new ArrayList<Protein>();
-        Collection<Comparable> proteinIds = getProteinIds();
-        if (proteinIds != null && index < proteinIds.size()) {
-            int stopIndex = index + offset;
-            int idSize = proteinIds.size();
-            stopIndex = stopIndex >= idSize ? idSize : stopIndex;
-            for (int i = index; i < stopIndex; i++) {
-                Comparable intentId = CollectionUtils.getElement(proteinIds, i);
-                proteins.add(getProteinById(intentId));
-            }
+        for (Comparable intentId : getProteinIdIndex().getIds(index, offset)) {
+            proteins.add(getProteinById(intentId));
         }
 
         return proteins;
@@ -459,7 +515,7 @@ public abstract class AbstractDataAccessController implements DataAccessControll
         List<SearchEngineType> searchEngineTypes = new ArrayList<SearchEngineType>();
         Collection<Comparable> proteinIds = this.getProteinIds();
         if (!proteinIds.isEmpty()) {
-            Protein protein = getProteinById(CollectionUtils.getElement(proteinIds, 0));
+            Protein protein = getProteinById(proteinIds.iterator().next());
             if (protein != null) {
                 if (protein.getScore() != null) {
                     searchEngineTypes.addAll(protein.getScore().getSearchEngineTypes());
@@ -483,7 +539,7 @@ public abstract class AbstractDataAccessController implements DataAccessControll
         Collection<Comparable> proteinIds = this.getProteinIds();
         List<CvTermReference> cvTermReferences = Collections.emptyList();
         if (!proteinIds.isEmpty()) {
-            Protein protein = getProteinById(CollectionUtils.getElement(proteinIds, 0));
+            Protein protein = getProteinById(proteinIds.iterator().next());
             if (protein != null) {
                 Score score = protein.getScore();
                 if (score != null) {
@@ -500,7 +556,7 @@ public abstract class AbstractDataAccessController implements DataAccessControll
         Collection<Comparable> proteinIds = this.getProteinIds();
         List<CvTermReference> cvTermReferences = Collections.emptyList();
         if (!proteinIds.isEmpty()) {
-            Protein protein = getProteinById(CollectionUtils.getElement(proteinIds, 0));
+            Protein protein = getProteinById(proteinIds.iterator().next());
             if (protein != null && !protein.getPeptides().isEmpty()) {
                 List<Peptide> peptides = protein.getPeptides();
                 Peptide peptide = peptides.get(0);
@@ -556,6 +612,21 @@ public abstract class AbstractDataAccessController implements DataAccessControll
         return ids;
     }
 
+    @Override
+    public PeptideIdIndex getPeptideIdIndex() {
+        IdIndex proteins = getProteinIdIndex();
+        PeptideIdIndex index = peptideIdIndex;
+        if (index.getProteinIdIndex() != proteins) {
+            List<Collection<Comparable>> peptideIds = new ArrayList<Collection<Comparable>>(proteins.size());
+            for (Comparable proteinId : proteins.getIds()) {
+                peptideIds.add(getPeptideIds(proteinId));
+            }
+            index = PeptideIdIndex.create(proteins, peptideIds);
+            peptideIdIndex = index;
+        }
+        return index;
+    }
+
     @Override
     public Peptide getPeptideByIndex(Comparable proteinId, Comparable index) {
         Peptide peptide = null;
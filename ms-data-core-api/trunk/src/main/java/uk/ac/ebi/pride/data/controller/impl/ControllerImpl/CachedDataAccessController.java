@@ -7,15 +7,18 @@ import uk.ac.ebi.pride.data.controller.DataAccessException;
 import uk.ac.ebi.pride.data.controller.DataAccessMode;
 import uk.ac.ebi.pride.data.controller.DataAccessUtilities;
 import uk.ac.ebi.pride.data.controller.cache.Cache;
-import uk.ac.ebi.pride.data.controller.cache.CacheAccessor;
+import uk.ac.ebi.pride.data.controller.cache.ConcurrentCacheAccessor;
 import uk.ac.ebi.pride.data.controller.cache.CacheEntry;
 import uk.ac.ebi.pride.data.controller.cache.CachingStrategy;
 import uk.ac.ebi.pride.data.core.*;
+import uk.ac.ebi.pride.data.io.file.SpectrumHeader;
+import uk.ac.ebi.pride.data.io.file.SpectrumHeaderReader;
 import uk.ac.ebi.pride.data.utils.CollectionUtils;
 import uk.ac.ebi.pride.data.utils.QuantCvTermReference;
 import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -46,6 +49,10 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
      * builder is responsible for initializing the Cache
      */
     private CachingStrategy cachingStrategy;
+    /**
+     * whether the spectrum headers have been read into the cache, null if not tried yet
+     */
+    private volatile Boolean spectrumHeadersCached = null;
 
     public CachedDataAccessController() {
         this(null, DataAccessMode.CACHE_AND_SOURCE);
@@ -58,7 +65,7 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public CachedDataAccessController(Object source, DataAccessMode mode) {
         super(source);
         this.mode = mode;
-        this.cache = new CacheAccessor();
+        this.cache = new ConcurrentCacheAccessor();
     }
 
     public Cache getCache() {
@@ -77,6 +84,7 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
 
     public void populateCache() {
         cache.clear();
+        spectrumHeadersCached = null;
 
         if (cachingStrategy != null) {
             try {
@@ -89,6 +97,70 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
         }
     }
 
+    /**
+     * Get the reader for the spectrum headers of the data source, the headers are used to
+     * answer the spectrum metadata queries without unmarshalling and decoding every spectrum.
+     * <p/>
+     * Default implementation returns null, meaning the metadata are computed from each spectrum.
+     *
+     * @return SpectrumHeaderReader    spectrum header reader, null if not supported
+     */
+    protected SpectrumHeaderReader getSpectrumHeaderReader() {
+        return null;
+    }
+
+    /**
+     * Read all the spectrum headers into the cache, on the first call only
+     *
+     * @return boolean true if the spectrum headers are in the cache
+     */
+    private boolean cacheSpectrumHeaders() {
+        if (spectrumHeadersCached == null) {
+            synchronized (this) {
+                if (spectrumHeadersCached == null) {
+                    SpectrumHeaderReader reader = getSpectrumHeaderReader();
+                    if (reader == null) {
+                        spectrumHeadersCached = false;
+                        return false;
+                    }
+
+                    final Map<Comparable, Integer> msLevels = new HashMap<Comparable, Integer>();
+                    final Map<Comparable, Integer> numberOfPeaks = new HashMap<Comparable, Integer>();
+                    final Map<Comparable, Double> precursorMzs = new HashMap<Comparable, Double>();
+                    final Map<Comparable, Integer> precursorCharges = new HashMap<Comparable, Integer>();
+                    final Map<Comparable, Double> precursorIntensities = new HashMap<Comparable, Double>();
+
+                    try {
+                        reader.read(new SpectrumHeaderReader.Handler() {
+                            @Override
+                            public void handle(SpectrumHeader header) {
+                                Comparable id = header.getId();
+                                msLevels.put(id, header.getMsLevel());
+                                numberOfPeaks.put(id, Math.max(header.getNumberOfPeaks(), 0));
+                                precursorMzs.put(id, header.getPrecursorMz() == null ? -1 : header.getPrecursorMz());
+                                precursorCharges.put(id, header.getPrecursorCharge());
+                                precursorIntensities.put(id, header.getPrecursorIntensity() == null ? -1 : header.getPrecursorIntensity());
+                            }
+                        });
+                    } catch (IOException e) {
+                        logger.warn("Failed to read spectrum headers, spectrum metadata will be read from each spectrum", e);
+                        spectrumHeadersCached = false;
+                        return false;
+                    }
+
+                    cache.storeInBatch(CacheEntry.MS_LEVEL, msLevels);
+                    cache.storeInBatch(CacheEntry.NUMBER_OF_PEAKS, numberOfPeaks);
+                    cache.storeInBatch(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_MZ, precursorMzs);
+                    cache.storeInBatch(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_CHARGE, precursorCharges);
+                    cache.storeInBatch(CacheEntry.PRECURSOR_INTENSITY, precursorIntensities);
+
+                    spectrumHeadersCached = true;
+                }
+            }
+        }
+        return spectrumHeadersCached;
+    }
+
     /**
      * Get the runtime mode
      *
@@ -119,6 +191,20 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
         return ids == null ? Collections.<Comparable>emptyList() : ids;
     }
 
+    /**
+     * Get the number of identified spectra, from the experiment statistics if they have been collected
+     *
+     * @return int  number of identified spectra
+     */
+    @Override
+    public int getNumberOfIdentifiedSpectra() {
+        ExperimentStatistics statistics = getCachedExperimentStatistics();
+        if (statistics != null && statistics.getNumberOfIdentifiedSpectra() >= 0) {
+            return statistics.getNumberOfIdentifiedSpectra();
+        }
+        return super.getNumberOfIdentifiedSpectra();
+    }
+
     /**
      * Get chromatogram ids from cache
      *
@@ -227,8 +313,12 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public int getNumberOfSpectrumPeaks(Comparable specId) {
         Integer numOfPeaks = (Integer) cache.get(CacheEntry.NUMBER_OF_PEAKS, specId);
         if (!DataAccessMode.CACHE_ONLY.equals(mode) && numOfPeaks == null) {
-            numOfPeaks = super.getNumberOfSpectrumPeaks(specId);
-            cache.store(CacheEntry.NUMBER_OF_PEAKS, specId, numOfPeaks);
+            if (cacheSpectrumHeaders()) {
+                numOfPeaks = (Integer) cache.get(CacheEntry.NUMBER_OF_PEAKS, specId);
+            } else {
+                numOfPeaks = super.getNumberOfSpectrumPeaks(specId);
+                cache.store(CacheEntry.NUMBER_OF_PEAKS, specId, numOfPeaks);
+            }
         }
         return numOfPeaks == null ? 0 : numOfPeaks;
     }
@@ -245,8 +335,12 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public int getSpectrumMsLevel(Comparable specId) {
         Integer msLevel = (Integer) cache.get(CacheEntry.MS_LEVEL, specId);
         if (!DataAccessMode.CACHE_ONLY.equals(mode) && msLevel == null) {
-            msLevel = super.getSpectrumMsLevel(specId);
-            cache.store(CacheEntry.MS_LEVEL, specId, msLevel);
+            if (cacheSpectrumHeaders()) {
+                msLevel = (Integer) cache.get(CacheEntry.MS_LEVEL, specId);
+            } else {
+                msLevel = super.getSpectrumMsLevel(specId);
+                cache.store(CacheEntry.MS_LEVEL, specId, msLevel);
+            }
         }
         return msLevel == null ? -1 : msLevel;
     }
@@ -262,8 +356,13 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public Integer getSpectrumPrecursorCharge(Comparable specId) {
         Integer charge = (Integer) cache.get(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_CHARGE, specId);
         if (!DataAccessMode.CACHE_ONLY.equals(mode) && charge == null) {
-            charge = super.getSpectrumPrecursorCharge(specId);
-            cache.store(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_CHARGE, specId, charge);
+            // a missing charge is cached as null, so the headers tell whether the spectrum has no charge
+            if (cacheSpectrumHeaders()) {
+                charge = (Integer) cache.get(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_CHARGE, specId);
+            } else {
+                charge = super.getSpectrumPrecursorCharge(specId);
+                cache.store(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_CHARGE, specId, charge);
+            }
         }
         return charge;
     }
@@ -306,8 +405,12 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public double getSpectrumPrecursorMz(Comparable specId) {
         Double mz = (Double) cache.get(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_MZ, specId);
         if (!DataAccessMode.CACHE_ONLY.equals(mode) && mz == null) {
-            mz = super.getSpectrumPrecursorMz(specId);
-            cache.store(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_MZ, specId, mz);
+            if (cacheSpectrumHeaders()) {
+                mz = (Double) cache.get(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_MZ, specId);
+            } else {
+                mz = super.getSpectrumPrecursorMz(specId);
+                cache.store(CacheEntry.SPECTRUM_LEVEL_PRECURSOR_MZ, specId, mz);
+            }
         }
         return mz == null ? -1 : mz;
     }
@@ -344,8 +447,12 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
     public double getSpectrumPrecursorIntensity(Comparable specId) {
         Double intent = (Double) cache.get(CacheEntry.PRECURSOR_INTENSITY, specId);
         if (!DataAccessMode.CACHE_ONLY.equals(mode) && intent == null) {
-            intent = super.getSpectrumPrecursorIntensity(specId);
-            cache.store(CacheEntry.PRECURSOR_INTENSITY, specId, intent);
+            if (cacheSpectrumHeaders()) {
+                intent = (Double) cache.get(CacheEntry.PRECURSOR_INTENSITY, specId);
+            } else {
+                intent = super.getSpectrumPrecursorIntensity(specId);
+                cache.store(CacheEntry.PRECURSOR_INTENSITY, specId, intent);
+            }
         }
         return intent == null ? -1 : intent;
     }
@@ -561,6 +668,35 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
         return cnt;
     }
 
+    /**
+     * Get the number of peptides, from the experiment statistics if they have been collected
+     *
+     * @return int  number of peptides
+     */
+    @Override
+    public int getNumberOfPeptides() {
+        ExperimentStatistics statistics = getCachedExperimentStatistics();
+        if (statistics != null && statistics.getNumberOfPeptides() >= 0) {
+            return statistics.getNumberOfPeptides();
+        }
+        return super.getNumberOfPeptides();
+    }
+
+    /**
+     * Get the number of peptides of a rank, from the experiment statistics if they have been collected
+     *
+     * @param rank peptide rank
+     * @return int  number of peptides
+     */
+    @Override
+    public int getNumberOfPeptidesByRank(int rank) {
+        ExperimentStatistics statistics = getCachedExperimentStatistics();
+        if (statistics != null && statistics.hasPeptideStatistics()) {
+            return statistics.getNumberOfPeptidesByRank(rank);
+        }
+        return super.getNumberOfPeptidesByRank(rank);
+    }
+
     /**
      * Get number of unique peptides using identification id.
      * This implementation will check cache first.
@@ -876,6 +1012,52 @@ public abstract class CachedDataAccessController extends AbstractDataAccessContr
         return null;
     }
 
+    /**
+     * Get the experiment statistics from the cache, the caching strategy collects them while indexing.
+     * The parts it could not collect are computed on the first call and then cached.
+     *
+     * @return ExperimentStatistics    experiment statistics
+     */
+    @Override
+    public ExperimentStatistics getExperimentStatistics() {
+        ExperimentStatistics statistics = getCachedExperimentStatistics();
+        if (statistics != null && statistics.hasSpectrumStatistics() && statistics.hasPeptideStatistics()) {
+            return statistics;
+        }
+        if (DataAccessMode.CACHE_ONLY.equals(mode)) {
+            return statistics == null ? ExperimentStatistics.EMPTY : statistics;
+        }
+
+        synchronized (this) {
+            statistics = getCachedExperimentStatistics();
+            ExperimentStatistics.Collector collector = statistics == null ?
+                    new ExperimentStatistics.Collector() : new ExperimentStatistics.Collector(statistics);
+            if (statistics == null || !statistics.hasSpectrumStatistics()) {
+                // the spectrum metadata come from the spectrum headers when they can be read
+                collectSpectrumStatistics(collector);
+            }
+            if (statistics == null || !statistics.hasPeptideStatistics()) {
+                collectPeptideStatistics(collector);
+            }
+            statistics = collector.build();
+            cache.clear(CacheEntry.EXPERIMENT_STATISTICS);
+            cache.store(CacheEntry.EXPERIMENT_STATISTICS, statistics);
+        }
+        return statistics;
+    }
+
+    /**
+     * @return ExperimentStatistics    experiment statistics in the cache, null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    protected ExperimentStatistics getCachedExperimentStatistics() {
+        Collection<ExperimentStatistics> statistics = (Collection<ExperimentStatistics>) cache.get(CacheEntry.EXPERIMENT_STATISTICS);
+        if (statistics != null && !statistics.isEmpty()) {
+            return CollectionUtils.getElement(statistics, 0);
+        }
+        return null;
+    }
+
     /**
      * Get Identification Meta Data
      *
@@ -19,6 +19,7 @@ import uk.ac.ebi.pride.data.io.file.MzIdentMLUnmarshallerAdaptor;
 import uk.ac.ebi.pride.data.utils.Constants;
 import uk.ac.ebi.pride.data.utils.MD5Utils;
 import uk.ac.ebi.pride.data.utils.MzIdentMLUtils;
+import uk.ac.ebi.pride.data.utils.SpectrumReferenceResolver;
 
 import javax.naming.ConfigurationException;
 import javax.xml.bind.JAXBException;
@@ -61,6 +62,18 @@ public class MzIdentMLControllerImpl extends CachedDataAccessController {
      */
     private Map<Comparable, DataAccessController> msDataAccessControllers;
 
+    /**
+     * Resolves spectrum references against all the spectra files, built on demand, and reset when the
+     * spectra files change
+     */
+    private volatile SpectrumReferenceResolver spectrumReferenceResolver;
+
+    /**
+     * Spectrum ids of all the spectra files, as id!spectraDataId, built on demand, and reset when the
+     * spectra files change
+     */
+    private volatile List<Comparable> spectraFileSpectrumIds;
+
     public MzIdentMLControllerImpl(File file) {
         this(file, false);
     }
@@ -767,9 +780,10 @@ public class MzIdentMLControllerImpl extends CachedDataAccessController {
         if (spectrum == null && spectrumIdArray != null) {
             logger.debug("Get new spectrum from file: {}", id);
             try {
+                Comparable spectrumId = getSpectrumReferenceResolver().resolve(spectrumIdArray[1], spectrumIdArray[0]);
                 DataAccessController spectrumController = msDataAccessControllers.get(spectrumIdArray[1]);
-                if (spectrumController != null && spectrumController.getSpectrumIds().contains(spectrumIdArray[0])) {
-                    spectrum = spectrumController.getSpectrumById(spectrumIdArray[0]);
+                if (spectrumController != null && spectrumId != null) {
+                    spectrum = spectrumController.getSpectrumById(spectrumId);
                     if (useCache && spectrum != null) {
                         getCache().store(CacheEntry.SPECTRUM, id, spectrum);
                     }
@@ -787,21 +801,84 @@ public class MzIdentMLControllerImpl extends CachedDataAccessController {
         return spectrum;
     }
 
+    private SpectrumReferenceResolver getSpectrumReferenceResolver() {
+        SpectrumReferenceResolver resolver = spectrumReferenceResolver;
+        if (resolver == null) {
+            synchronized (this) {
+                resolver = spectrumReferenceResolver;
+                if (resolver == null) {
+                    Map<Comparable, Collection<Comparable>> spectrumIds = new HashMap<Comparable, Collection<Comparable>>();
+                    Map<Comparable, List<String>> spectrumTitles = new HashMap<Comparable, List<String>>();
+                    for (Map.Entry<Comparable, DataAccessController> entry : msDataAccessControllers.entrySet()) {
+                        if (entry.getValue() != null) {
+                            spectrumIds.put(entry.getKey(), entry.getValue().getSpectrumIds());
+                            // only the mgf files are indexed by title
+                            if (entry.getValue() instanceof PeakControllerImpl) {
+                                List<String> titles = ((PeakControllerImpl) entry.getValue()).getSpectrumTitles();
+                                if (titles != null) {
+                                    spectrumTitles.put(entry.getKey(), titles);
+                                }
+                            }
+                        }
+                    }
+                    resolver = new SpectrumReferenceResolver(spectrumIds, spectrumTitles);
+                    spectrumReferenceResolver = resolver;
+                }
+            }
+        }
+        return resolver;
+    }
+
+    /**
+     * Get the spectrum references which could not be resolved against the spectra files,
+     * or not without ambiguity, since the spectra files were last changed.
+     * Title references are only resolved against the titles of the mgf files.
+     *
+     * @return List<SpectrumReferenceResolver.Diagnostic>   diagnostics, in the order they were found
+     */
+    public List<SpectrumReferenceResolver.Diagnostic> getSpectrumReferenceDiagnostics() {
+        SpectrumReferenceResolver resolver = spectrumReferenceResolver;
+        return resolver == null ? Collections.<SpectrumReferenceResolver.Diagnostic>emptyList() : resolver.getDiagnostics();
+    }
+
     @Override
     public Collection<Comparable> getSpectrumIds() {
         Collection<Comparable> spectrumIds = super.getSpectrumIds();
         if (spectrumIds.size() == 0 && hasSpectrum()) {
-            spectrumIds = new ArrayList<Comparable>();
-            for (Comparable id : msDataAccessControllers.keySet()) {
-                if (msDataAccessControllers.get(id) != null)
-                    for (Comparable idSpectrum : msDataAccessControllers.get(id).getSpectrumIds()) {
-                        spectrumIds.add(idSpectrum + "!" + id);
+            spectrumIds = getSpectraFileSpectrumIds();
+        }
+        return spectrumIds;
+    }
+
+    private List<Comparable> getSpectraFileSpectrumIds() {
+        List<Comparable> spectrumIds = spectraFileSpectrumIds;
+        if (spectrumIds == null) {
+            synchronized (this) {
+                spectrumIds = spectraFileSpectrumIds;
+                if (spectrumIds == null) {
+                    List<Comparable> ids = new ArrayList<Comparable>();
+                    for (Comparable id : msDataAccessControllers.keySet()) {
+                        if (msDataAccessControllers.get(id) != null)
+                            for (Comparable idSpectrum : msDataAccessControllers.get(id).getSpectrumIds()) {
+                                ids.add(idSpectrum + "!" + id);
+                            }
                     }
+                    spectrumIds = Collections.unmodifiableList(ids);
+                    spectraFileSpectrumIds = spectrumIds;
+                }
             }
         }
         return spectrumIds;
     }
 
+    /**
+     * Reset everything built from the spectra files, called whenever they change
+     */
+    private void resetSpectraFiles() {
+        spectrumReferenceResolver = null;
+        spectraFileSpectrumIds = null;
+    }
+
     /**
      * Is identified Spectrum return true if the spectrum was identified
      *
@@ -896,11 +973,13 @@ public class MzIdentMLControllerImpl extends CachedDataAccessController {
             }
 
         }
+        resetSpectraFiles();
     }
 
 
     public void clearMSControllers() {
         msDataAccessControllers.clear();
+        resetSpectraFiles();
     }
 
 
@@ -926,6 +1005,7 @@ public class MzIdentMLControllerImpl extends CachedDataAccessController {
             }
             if (changeStatus) {
                 getCache().clear(CacheEntry.SPECTRUM);
+                resetSpectraFiles();
             }
         }
         return changeStatus;
@@ -21,6 +21,8 @@ import uk.ac.ebi.pride.data.core.Software;
 import uk.ac.ebi.pride.data.core.SourceFile;
 import uk.ac.ebi.pride.data.core.Spectrum;
 import uk.ac.ebi.pride.data.io.file.MzMLUnmarshallerAdaptor;
+import uk.ac.ebi.pride.data.io.file.MzMLSpectrumHeaderReader;
+import uk.ac.ebi.pride.data.io.file.SpectrumHeaderReader;
 import uk.ac.ebi.pride.data.utils.MD5Utils;
 
 import java.io.BufferedReader;
@@ -94,6 +96,16 @@ public class MzMLControllerImpl extends CachedDataAccessController {
         return unmarshaller;
     }
 
+    /**
+     * Spectrum metadata are read from the spectrum headers, without decoding the binary data arrays
+     *
+     * @return SpectrumHeaderReader    mzML spectrum header reader
+     */
+    @Override
+    protected SpectrumHeaderReader getSpectrumHeaderReader() {
+        return new MzMLSpectrumHeaderReader((File) getSource());
+    }
+
     /**
      * Get the unique id for this data access controller
      * It generates a MD5 hash using the absolute path of the file
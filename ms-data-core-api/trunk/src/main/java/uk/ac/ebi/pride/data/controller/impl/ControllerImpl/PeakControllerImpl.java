@@ -20,8 +20,13 @@ import uk.ac.ebi.pride.tools.mgf_parser.MgfFile;
 import uk.ac.ebi.pride.tools.ms2_parser.Ms2File;
 import uk.ac.ebi.pride.tools.pkl_parser.PklFile;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 
@@ -42,6 +47,11 @@ public class PeakControllerImpl extends CachedDataAccessController {
      */
     private PeakUnmarshallerAdaptor unmarshaller;
 
+    /**
+     * Titles of the spectra of an mgf file, read on demand
+     */
+    private volatile List<String> spectrumTitles;
+
     /**
      * Construct a data access controller using a given mzML file
      *
@@ -116,6 +126,55 @@ public class PeakControllerImpl extends CachedDataAccessController {
         return unmarshaller;
     }
 
+    /**
+     * Get the titles of the spectra of an mgf file, in the same order as the spectrum ids.
+     * The titles are read from the TITLE lines of the file the first time.
+     *
+     * @return List<String>    spectrum titles, null for a spectrum without title, null if the file is not an mgf file
+     */
+    public List<String> getSpectrumTitles() {
+        List<String> titles = spectrumTitles;
+        File file = (File) this.getSource();
+        if (titles == null && isValidFormat(file) == MgfFile.class) {
+            try {
+                titles = Collections.unmodifiableList(readMgfTitles(file));
+                spectrumTitles = titles;
+            } catch (IOException e) {
+                String msg = "Failed to read the spectrum titles of the mgf file";
+                logger.error(msg, e);
+                throw new DataAccessException(msg, e);
+            }
+        }
+        return titles;
+    }
+
+    private static List<String> readMgfTitles(File file) throws IOException {
+        List<String> titles = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            boolean inSpectrum = false;
+            String title = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if ("BEGIN IONS".equalsIgnoreCase(line)) {
+                    inSpectrum = true;
+                    title = null;
+                } else if ("END IONS".equalsIgnoreCase(line)) {
+                    if (inSpectrum) {
+                        titles.add(title);
+                    }
+                    inSpectrum = false;
+                } else if (inSpectrum && line.regionMatches(true, 0, "TITLE=", 0, 6)) {
+                    title = line.substring(6).trim();
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return titles;
+    }
+
     /**
      * Get the unique id for this data access controller
      * It generates a MD5 hash using the absolute path of the file
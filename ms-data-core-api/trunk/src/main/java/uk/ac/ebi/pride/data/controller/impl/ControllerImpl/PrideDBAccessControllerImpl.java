@@ -15,6 +15,7 @@ import uk.ac.ebi.pride.data.io.db.*;
 import uk.ac.ebi.pride.data.utils.BinaryDataUtils;
 import uk.ac.ebi.pride.data.utils.CollectionUtils;
 import uk.ac.ebi.pride.data.utils.Constants;
+import uk.ac.ebi.pride.data.utils.IdIndex;
 import uk.ac.ebi.pride.data.utils.MD5Utils;
 import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
@@ -46,8 +47,15 @@ public class PrideDBAccessControllerImpl extends CachedDataAccessController {
 
     private final static String PROTOCOL_ID = "protocol1";
 
+    /**
+     * Number of identifications loaded together, the identification graph of each batch is cached
+     */
+    private final static int IDENTIFICATION_BATCH_SIZE = 100;
+
     private final JdbcTemplate jdbcTemplate;
 
+    private final PrideDBIdentificationLoader identificationLoader;
+
     private Comparable experimentAcc;
 
     /**
@@ -58,6 +66,7 @@ public class PrideDBAccessControllerImpl extends CachedDataAccessController {
     public PrideDBAccessControllerImpl(Comparable experimentAcc) {
         super(DataAccessMode.CACHE_ONLY);
         this.jdbcTemplate = new JdbcTemplate(PooledConnectionFactory.getInstance().getConnectionPool());
+        this.identificationLoader = new PrideDBIdentificationLoader(jdbcTemplate);
         initialize(experimentAcc);
     }
 
@@ -618,7 +627,7 @@ public class PrideDBAccessControllerImpl extends CachedDataAccessController {
             List<Map<String, Object>> results = jdbcTemplate.queryForList(query, idInt);
             for (Map<String, Object> result : results) {
                 try {
-                    int index = CollectionUtils.getIndex(getSpectrumIds(), idInt);
+                    int index = getSpectrumIndex(idInt);
 
                     //do scanlist
                     List<ParamGroup> scanWindows = getScanWindows((BigDecimal) result.get("mz_range_start"), (BigDecimal) result.get("mz_range_stop"));
@@ -679,170 +688,47 @@ public class PrideDBAccessControllerImpl extends CachedDataAccessController {
         return spectrum;
     }
 
-    private List<Double> getDeltaValues(long modification_id, String deltaType) {
-        logger.debug("Get delta values");
-
-        String query = "SELECT mass_delta_value FROM pride_mass_delta WHERE modification_id = ? AND classname = ?";
-        return jdbcTemplate.queryForList(query, Double.class, modification_id, deltaType);
-    }
-
-    private List<Modification> getModificationsPeptide(long peptide_id) {
-        logger.debug("Get a list of modifications, peptide {}", peptide_id);
-
-        List<Modification> modifications = new ArrayList<Modification>();
-
-        String query = "SELECT modification_id, accession, mod_database, mod_database_version, location FROM pride_modification WHERE peptide_id = ?";
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(query, peptide_id);
-
-        for (Map<String, Object> result : results) {
-            ParamGroup params = new ParamGroup(getCvParams("pride_modification_param", (Long) result.get("modification_id")), getUserParams("pride_modification_param",
-                    (Long) result.get("modification_id")));
-            List<Double> monoMassDeltas = getDeltaValues((Long) result.get("modification_id"), "uk.ac.ebi.pride.rdbms.ojb.model.core.MonoMassDeltaBean");
-            List<Double> avgMassDeltas = getDeltaValues((Long) result.get("modification_id"), "uk.ac.ebi.pride.rdbms.ojb.model.core.AverageMassDeltaBean");
-            modifications.add(new Modification(params, (String) result.get("accession"), null, (Integer) result.get("location"), null, monoMassDeltas, avgMassDeltas, (String) result.get("mod_database"), (String) result.get("mod_database_version")));
-        }
-
-        return modifications;
-    }
-
-    private List<FragmentIon> getFragmentIons(long peptide_id) {
-        logger.debug("Get list of fragment ions for peptide {}", peptide_id);
-
-        List<FragmentIon> fragmentIons = new ArrayList<FragmentIon>();
-
-        String query = "SELECT fragment_ion_id, mz, intensity, mass_error, retention_time_error, accession_ion_type, ion_type_name, fragment_ion_number, ion_charge FROM pride_fragment_ion WHERE peptide_id = ?";
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(query, peptide_id);
-
-        for (Map<String, Object> result : results) {
-            List<CvParam> cvParams = new ArrayList<CvParam>();
-            //add mz param
-            CvTermReference cvTerm = CvTermReference.PRODUCT_ION_MZ;
-            cvParams.add(new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
-                    result.get("mz") == null ? null : result.get("mz").toString(), null, null, null));
-            cvTerm = CvTermReference.PRODUCT_ION_INTENSITY;
-            cvParams.add(new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
-                    result.get("intensity") == null ? null : result.get("intensity").toString(), null, null, null));
-            cvTerm = CvTermReference.PRODUCT_ION_MASS_ERROR;
-            cvParams.add(new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
-                    result.get("mass_error") == null ? null : result.get("mass_error").toString(), null, null, null));
-            cvTerm = CvTermReference.PRODUCT_ION_RETENTION_TIME_ERROR;
-            cvParams.add(new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
-                    result.get("retention_time_error") == null ? null : result.get("retention_time_error").toString(), null, null, null));
-            cvTerm = CvTermReference.PRODUCT_ION_TYPE;
-            cvParams.add(new CvParam((String) result.get("accession_ion_type"), (String) result.get("ion_type_name"), cvTerm.getCvLabel(),
-                    result.get("fragment_ion_number") == null ? null : result.get("fragment_ion_number").toString(), null, null, null));
-            cvTerm = CvTermReference.PRODUCT_ION_CHARGE;
-            cvParams.add(new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
-                    result.get("ion_charge") == null ? null : result.get("ion_charge").toString(), null, null, null));
-            //get the charge
-            cvParams.addAll(getCvParams("pride_fragment_ion_param", ((Long) result.get("fragment_ion_id")).intValue()));
-            fragmentIons.add(new FragmentIon(new ParamGroup(cvParams, null)));
-        }
-
-        return fragmentIons;
-    }
-
-    private Spectrum getSpectrumByPeptide(long experiment_id, long spectrum_ref) {
-        logger.debug("Get spectrum by spectrum reference {}", spectrum_ref);
-
-        String query = "SELECT spectrum_id FROM pride_experiment pe, mzdata_spectrum ms WHERE pe.experiment_id = ? AND " +
-                "pe.mz_data_id = ms.mz_data_id AND ms.spectrum_identifier = ?";
-
-        String spectrumId = jdbcTemplate.queryForObject(query, String.class, experiment_id, spectrum_ref);
-
-        return getSpectrumById(spectrumId);
-    }
-
-    private List<Peptide> getPeptideIdentification(long identification_id, long experiment_id) {
-        logger.debug("Get a list of peptides for identification {}", identification_id);
-        List<Peptide> peptides = new ArrayList<Peptide>();
-
-        String query = "SELECT peptide_id, sequence, pep_start, pep_end, spectrum_ref FROM pride_peptide WHERE identification_id = ?";
-
-        List<Map<String, Object>> results = jdbcTemplate.queryForList(query, identification_id);
-
-        for (Map<String, Object> result : results) {
-            ParamGroup params = new ParamGroup(getCvParams("pride_peptide_param", (Long) result.get("peptide_id")),
-                    getUserParams("pride_peptide_param", (Long) result.get("peptide_id")));
-            List<Modification> modifications = getModificationsPeptide((Long) result.get("peptide_id"));
-            List<FragmentIon> fragmentIons = getFragmentIons((Long) result.get("peptide_id"));
-            Spectrum spectrum = (result.get("spectrum_ref") != null) ? getSpectrumByPeptide(experiment_id, (Long) result.get("spectrum_ref")) : null;
-            PeptideSequence peptideSequence = new PeptideSequence(null, null, (String) result.get("sequence"), modifications);
-            List<PeptideEvidence> peptideEvidences = new ArrayList<PeptideEvidence>();
-            PeptideEvidence peptideEvidence = new PeptideEvidence(null, null, (result.get("pep_start") == null) ? null : (Integer) result.get("pep_start"), (result.get("pep_end") == null) ? null : (Integer) result.get("pep_end"), false, peptideSequence, null);
-            peptideEvidences.add(peptideEvidence);
-
-            Integer charge = DataAccessUtilities.getPrecursorChargeParamGroup(spectrum);
-            Double mz = DataAccessUtilities.getPrecursorMz(spectrum);
-
-            //get Scores
-            Score score = DataAccessUtilities.getScore(params);
-
-            SpectrumIdentification spectrumIdentification = new SpectrumIdentification(params, null, null, (charge == null ? -1 : charge), (mz == null ? -1 : mz), 0.0, 0.0, peptideSequence, -1, false, null, null, peptideEvidences, fragmentIons, score, spectrum, null);
-            peptides.add(new Peptide(peptideEvidence, spectrumIdentification));
-        }
-
-        return peptides;
-    }
-
-
-    private Gel getPeptideGel(long gel_id, Double x_coordinate, Double y_coordinate, Double molecular_weight, Double pi) {
-        logger.debug("Get peptide gel {}", gel_id);
-
-        String gelLink = null;
-
-        String query = "SELECT gel_link FROM pride_gel WHERE gel_id = ?";
-
-        List<Map<String, Object>> result = jdbcTemplate.queryForList(query, gel_id);
-
-        if (!result.isEmpty()) {
-            gelLink = jdbcTemplate.queryForObject(query, String.class, gel_id);
-        }
-
-        ParamGroup params = new ParamGroup(getCvParams("pride_gel_param", gel_id), getUserParams("pride_gel_param", gel_id));
-
-        return new Gel(params, gelLink, x_coordinate, y_coordinate, molecular_weight, pi);
-    }
-
     @Override
     public Protein getProteinById(Comparable proteinId, boolean useCache) {
         Protein protein = super.getProteinById(proteinId, useCache);
         if (protein == null) {
             logger.debug("Get protein identification {}", proteinId);
 
-            String query = "SELECT identification_id, accession_number, accession_version, score, search_database, database_version, " +
-                    "search_engine, sequence_coverage, splice_isoform, threshold, gel_id, x_coordinate, y_coordinate, " +
-                    "molecular_weight, pi, identification_id, pi.experiment_id, pi.classname, pi.spectrum_ref FROM pride_identification pi, pride_experiment pe " +
-                    "WHERE pe.accession = ? AND pi.experiment_id = pe.experiment_id AND pi.identification_id = ?";
-            List<Map<String, Object>> results = jdbcTemplate.queryForList(query, experimentAcc, proteinId);
-
-            for (Map<String, Object> result : results) {
-                String accession = (String) result.get("accession_number");
-                logger.debug("Getting a identification from database: {}", accession);
-                Double seqConverage = (Double) result.get("sequence_coverage");
-                double seqConverageVal = seqConverage == null ? -1 : seqConverage;
-                ParamGroup params = new ParamGroup(getCvParams("pride_identification_param", (Long) result.get("identification_id")),
-                        getUserParams("pride_identification_param", (Long) result.get("identification_id")));
-
-                List<Peptide> peptides = getPeptideIdentification((Long) result.get("identification_id"), (Long) result.get("experiment_id"));
-                String className = (String) result.get("classname");
-                DBSequence dbSequence = new DBSequence(null, null, null, -1, accession, new SearchDataBase((String) result.get("search_database"), (String) result.get("database_version")), null, (String) result.get("accession_version"), (String) result.get("splice_isoform"));
-
-
-                if ("uk.ac.ebi.pride.rdbms.ojb.model.core.TwoDimensionalIdentificationBean".equals(className)) {
-                    Gel gel = getPeptideGel((Long) result.get("gel_id"), result.get("x_coordinate") != null ? (Double) result.get("x_coordinate") : null, result.get("x_coordinate") != null ? (Double) result.get("y_coordinate") : null, result.get("molecular_weight") != null ? (Double) result.get("molecular_weight") : null, result.get("pi") != null ? (Double) result.get("pi") : null);
-                    protein = new Protein(params, (Long) result.get("identification_id"), null, dbSequence, false, peptides, null, (result.get("threshold") == null) ? -1 : ((BigDecimal) result.get("threshold")).doubleValue(), seqConverageVal, gel);
-                } else if ("uk.ac.ebi.pride.rdbms.ojb.model.core.GelFreeIdentificationBean".equals(className)) {
-                    protein = new Protein(params, (Long) result.get("identification_id"), null, dbSequence, false, peptides, null, (result.get("threshold") == null) ? -1 : ((BigDecimal) result.get("threshold")).doubleValue(), seqConverageVal, null);
-                }
-                if (useCache) {
-                    getCache().store(CacheEntry.PROTEIN, proteinId, protein);
-                }
+            protein = getIdentificationGraph(proteinId).getProtein(proteinId, this);
+            if (protein != null && useCache) {
+                getCache().store(CacheEntry.PROTEIN, proteinId, protein);
             }
         }
         return protein;
     }
 
+    /**
+     * Load the identifications of the experiment in batches of IDENTIFICATION_BATCH_SIZE, each batch with a bounded
+     * number of queries, proteins and peptides are assembled from the batch of their identification afterwards.
+     * The batches are stored in the cache, so they are evicted once they exceed its budget.
+     *
+     * @param identificationId identification id
+     * @return PrideDBIdentificationGraph  identification graph of the batch which contains the identification
+     */
+    public PrideDBIdentificationGraph getIdentificationGraph(Comparable identificationId) {
+        IdIndex proteinIds = getProteinIdIndex();
+        int index = proteinIds.indexOf(identificationId);
+        List<Comparable> batch;
+        if (index < 0) {
+            batch = Collections.singletonList(identificationId);
+        } else {
+            batch = proteinIds.getIds(index - index % IDENTIFICATION_BATCH_SIZE, IDENTIFICATION_BATCH_SIZE);
+        }
+
+        Comparable batchId = batch.get(0);
+        PrideDBIdentificationGraph graph = (PrideDBIdentificationGraph) getCache().get(CacheEntry.IDENTIFICATION_GRAPH, batchId);
+        if (graph == null) {
+            graph = identificationLoader.load(experimentAcc, batch);
+            getCache().store(CacheEntry.IDENTIFICATION_GRAPH, batchId, graph);
+        }
+        return graph;
+    }
+
     @Override
     public boolean isIdentifiedSpectrum(Comparable specId) {
         Map<Comparable, Comparable> peptideToSpectrum = (Map<Comparable, Comparable>) getCache().get(CacheEntry.PEPTIDE_TO_SPECTRUM);
@@ -853,32 +739,10 @@ public class PrideDBAccessControllerImpl extends CachedDataAccessController {
     public Peptide getPeptideByIndex(Comparable proteinId, Comparable peptideId, boolean useCache) {
         Peptide peptide = super.getPeptideByIndex(proteinId, peptideId, useCache);
         if (peptide == null) {
-            //todo: check whether to use cache
-            String sequence = (String) getCache().get(CacheEntry.PEPTIDE_SEQUENCE, peptideId);
-            logger.debug("getPeptideById(identId, peptideId): ID[{}] : Sequence[{}]", new Object[]{peptideId, sequence});
-            Integer start = (Integer) getCache().get(CacheEntry.PEPTIDE_START, peptideId);
-            Integer end = (Integer) getCache().get(CacheEntry.PEPTIDE_END, peptideId);
-            int pid = Integer.parseInt(peptideId.toString());
-            ParamGroup params = new ParamGroup(getCvParams("pride_peptide_param", pid), getUserParams("pride_peptide_param", pid));
-            List<Modification> modifications = this.getPTMs(proteinId, peptideId);
-            List<FragmentIon> fragmentIons = getFragmentIons(pid);
-            Spectrum spectrum = null;
-            Comparable specId = this.getPeptideSpectrumId(proteinId, peptideId);
-            if (specId != null) {
-                spectrum = getSpectrumById(specId);
-            }
+            logger.debug("Get peptide {} of protein identification {}", peptideId, proteinId);
 
-            //todo: change this to take into account peptide level charges
-            int charge = this.getSpectrumPrecursorCharge(specId);
-            Double mz = this.getSpectrumPrecursorMz(specId);
-            PeptideSequence peptideSequence = new PeptideSequence(null, null, sequence, modifications);
-            List<PeptideEvidence> peptideEvidences = new ArrayList<PeptideEvidence>();
-            PeptideEvidence peptideEvidence = new PeptideEvidence(null, null, start, end, false, peptideSequence, null);
-            peptideEvidences.add(peptideEvidence);
-            SpectrumIdentification spectrumIdentification = new SpectrumIdentification(params, null, null, charge, mz, 0.0, 0.0, peptideSequence, -1, false, null, null, peptideEvidences, fragmentIons, null, spectrum, null);
-            peptide = new Peptide(peptideEvidence, spectrumIdentification);
-
-            if (useCache) {
+            peptide = getIdentificationGraph(proteinId).getPeptide(proteinId, peptideId, this);
+            if (peptide != null && useCache) {
                 getCache().store(CacheEntry.PEPTIDE, new Tuple<Comparable, Comparable>(proteinId, peptideId), peptide);
             }
         }
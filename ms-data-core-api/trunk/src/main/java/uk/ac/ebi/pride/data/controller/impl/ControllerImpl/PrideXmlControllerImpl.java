@@ -10,6 +10,8 @@ import uk.ac.ebi.pride.data.controller.cache.CacheEntry;
 import uk.ac.ebi.pride.data.controller.cache.strategy.PrideXmlCachingStrategy;
 import uk.ac.ebi.pride.data.controller.impl.Transformer.PrideXmlTransformer;
 import uk.ac.ebi.pride.data.core.*;
+import uk.ac.ebi.pride.data.io.file.PrideXmlSpectrumHeaderReader;
+import uk.ac.ebi.pride.data.io.file.SpectrumHeaderReader;
 import uk.ac.ebi.pride.data.utils.MD5Utils;
 import uk.ac.ebi.pride.jaxb.xml.PrideXmlReader;
 
@@ -81,6 +83,16 @@ public class PrideXmlControllerImpl extends CachedDataAccessController {
         return reader;
     }
 
+    /**
+     * Spectrum metadata are read from the spectrum headers, without decoding the binary data arrays
+     *
+     * @return SpectrumHeaderReader    PRIDE XML spectrum header reader
+     */
+    @Override
+    protected SpectrumHeaderReader getSpectrumHeaderReader() {
+        return new PrideXmlSpectrumHeaderReader((File) getSource());
+    }
+
     /**
      * Get md5 hash unique id
      *
@@ -4,7 +4,7 @@ import uk.ac.ebi.jmzml.model.mzml.ComponentList;
 import uk.ac.ebi.jmzml.model.mzml.FileDescription;
 import uk.ac.ebi.pride.data.controller.DataAccessUtilities;
 import uk.ac.ebi.pride.data.core.*;
-import uk.ac.ebi.pride.data.utils.BinaryDataUtils;
+import uk.ac.ebi.pride.data.utils.BinaryDataDecoder;
 import uk.ac.ebi.pride.term.CvTermReference;
 
 import java.nio.ByteOrder;
@@ -241,11 +241,7 @@ public final class MzMLTransformer {
                 }
             }
 
-            if (isCompressed) {
-                binary = BinaryDataUtils.decompress(binary);
-            }
-
-            double[] binaryDoubleArr = BinaryDataUtils.toDoubleArray(binary, binaryDataType, ByteOrder.LITTLE_ENDIAN);
+            double[] binaryDoubleArr = BinaryDataDecoder.toDoubleArray(binary, isCompressed, binaryDataType, ByteOrder.LITTLE_ENDIAN);
             DataProcessing dataProcessing = transformDataProcessing(oldBinaryArr.getDataProcessing());
 
             newBinaryArr = new BinaryDataArray(dataProcessing, binaryDoubleArr, paramGroup);
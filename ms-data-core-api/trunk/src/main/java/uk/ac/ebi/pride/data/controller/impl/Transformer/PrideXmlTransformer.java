@@ -2,7 +2,7 @@ package uk.ac.ebi.pride.data.controller.impl.Transformer;
 
 import uk.ac.ebi.pride.data.controller.DataAccessUtilities;
 import uk.ac.ebi.pride.data.core.*;
-import uk.ac.ebi.pride.data.utils.BinaryDataUtils;
+import uk.ac.ebi.pride.data.utils.BinaryDataDecoder;
 import uk.ac.ebi.pride.term.CvTermReference;
 import uk.ac.ebi.pride.util.NumberUtilities;
 
@@ -326,7 +326,7 @@ public final class PrideXmlTransformer {
         //check endianess
         ByteOrder order = "big".equals(rawData.getEndian()) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
 
-        double[] binaryDoubleArr = BinaryDataUtils.toDoubleArray(binary, dataType, order);
+        double[] binaryDoubleArr = BinaryDataDecoder.toDoubleArray(binary, dataType, order);
 
         // create param group
         ParamGroup params = new ParamGroup();
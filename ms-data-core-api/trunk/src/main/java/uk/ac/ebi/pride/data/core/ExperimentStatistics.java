@@ -0,0 +1,303 @@
+package uk.ac.ebi.pride.data.core;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ExperimentStatistics summarises an experiment: the number of spectra, proteins and peptides,
+ * the distribution of the spectra by ms level and precursor charge, and the distribution of the
+ * peptides by rank and precursor charge.
+ * <p/>
+ * The statistics are collected in a single pass while the data source is indexed, and kept in the cache,
+ * so they can be read without loading any spectrum, protein or peptide.
+ * <p/>
+ * Spectrum and peptide statistics are collected separately, a data source may only provide one of them,
+ * the counts which have not been collected are -1. Peptides are counted per protein, like getNumberOfPeptides.
+ * <p/>
+ * This class is immutable.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class ExperimentStatistics {
+
+    public static final ExperimentStatistics EMPTY = new Collector().build();
+
+    private final int numberOfSpectra;
+    private final int numberOfIdentifiedSpectra;
+    private final int numberOfProteins;
+    private final int numberOfPeptides;
+
+    /**
+     * ms level to number of spectra, null if the spectra have not been counted
+     */
+    private final Map<Integer, Integer> spectrumMsLevels;
+    /**
+     * precursor charge to number of spectra, null if the spectra have not been counted
+     */
+    private final Map<Integer, Integer> spectrumPrecursorCharges;
+    /**
+     * rank to number of peptides, null if the peptides have not been counted
+     */
+    private final Map<Integer, Integer> peptideRanks;
+    /**
+     * precursor charge to number of peptides, null if the peptides have not been counted
+     */
+    private final Map<Integer, Integer> peptidePrecursorCharges;
+
+    private ExperimentStatistics(Collector collector) {
+        this.numberOfSpectra = collector.numberOfSpectra;
+        this.numberOfIdentifiedSpectra = collector.numberOfIdentifiedSpectra;
+        this.numberOfProteins = collector.numberOfProteins;
+        this.numberOfPeptides = collector.numberOfPeptides;
+        this.spectrumMsLevels = copy(collector.spectrumMsLevels);
+        this.spectrumPrecursorCharges = copy(collector.spectrumPrecursorCharges);
+        this.peptideRanks = copy(collector.peptideRanks);
+        this.peptidePrecursorCharges = copy(collector.peptidePrecursorCharges);
+    }
+
+    private static Map<Integer, Integer> copy(Map<Integer, Integer> distribution) {
+        return distribution == null ? null : Collections.unmodifiableMap(new TreeMap<Integer, Integer>(distribution));
+    }
+
+    /**
+     * @return int  number of spectra, -1 if not counted
+     */
+    public int getNumberOfSpectra() {
+        return numberOfSpectra;
+    }
+
+    /**
+     * @return int  number of spectra used by at least one peptide, -1 if not counted
+     */
+    public int getNumberOfIdentifiedSpectra() {
+        return numberOfIdentifiedSpectra;
+    }
+
+    /**
+     * @return int  number of proteins, -1 if not counted
+     */
+    public int getNumberOfProteins() {
+        return numberOfProteins;
+    }
+
+    /**
+     * @return int  number of peptides, -1 if not counted
+     */
+    public int getNumberOfPeptides() {
+        return numberOfPeptides;
+    }
+
+    /**
+     * @param rank peptide rank
+     * @return int  number of peptides of the given rank, -1 if the peptide ranks have not been counted
+     */
+    public int getNumberOfPeptidesByRank(int rank) {
+        return count(peptideRanks, rank);
+    }
+
+    /**
+     * @param msLevel ms level
+     * @return int  number of spectra of the given ms level, -1 if the ms levels have not been counted
+     */
+    public int getNumberOfSpectraByMsLevel(int msLevel) {
+        return count(spectrumMsLevels, msLevel);
+    }
+
+    private static int count(Map<Integer, Integer> distribution, int value) {
+        if (distribution == null) {
+            return -1;
+        }
+        Integer cnt = distribution.get(value);
+        return cnt == null ? 0 : cnt;
+    }
+
+    public boolean hasSpectrumStatistics() {
+        return spectrumMsLevels != null;
+    }
+
+    public boolean hasPeptideStatistics() {
+        return peptideRanks != null;
+    }
+
+    /**
+     * @return Map<Integer, Integer>   ms level to number of spectra, in ms level order, empty if not counted,
+     *         spectra without ms level are under -1
+     */
+    public Map<Integer, Integer> getSpectrumMsLevelDistribution() {
+        return distribution(spectrumMsLevels);
+    }
+
+    /**
+     * @return Map<Integer, Integer>   precursor charge to number of spectra, in charge order, empty if not counted,
+     *         spectra without precursor charge are under 0
+     */
+    public Map<Integer, Integer> getSpectrumPrecursorChargeDistribution() {
+        return distribution(spectrumPrecursorCharges);
+    }
+
+    /**
+     * @return Map<Integer, Integer>   rank to number of peptides, in rank order, empty if not counted
+     */
+    public Map<Integer, Integer> getPeptideRankDistribution() {
+        return distribution(peptideRanks);
+    }
+
+    /**
+     * @return Map<Integer, Integer>   precursor charge to number of peptides, in charge order, empty if not counted,
+     *         peptides without precursor charge are under 0
+     */
+    public Map<Integer, Integer> getPeptidePrecursorChargeDistribution() {
+        return distribution(peptidePrecursorCharges);
+    }
+
+    private static Map<Integer, Integer> distribution(Map<Integer, Integer> distribution) {
+        return distribution == null ? Collections.<Integer, Integer>emptyMap() : distribution;
+    }
+
+    @Override
+    public String toString() {
+        return "ExperimentStatistics{" +
+                "numberOfSpectra=" + numberOfSpectra +
+                ", numberOfIdentifiedSpectra=" + numberOfIdentifiedSpectra +
+                ", numberOfProteins=" + numberOfProteins +
+                ", numberOfPeptides=" + numberOfPeptides +
+                ", spectrumMsLevels=" + spectrumMsLevels +
+                ", spectrumPrecursorCharges=" + spectrumPrecursorCharges +
+                ", peptideRanks=" + peptideRanks +
+                ", peptidePrecursorCharges=" + peptidePrecursorCharges +
+                '}';
+    }
+
+    /**
+     * Collector accumulates the statistics while the entities are streamed, it is not thread safe.
+     */
+    public static class Collector {
+        private int numberOfSpectra = -1;
+        private int numberOfIdentifiedSpectra = -1;
+        private int numberOfProteins = -1;
+        private int numberOfPeptides = -1;
+        private Map<Integer, Integer> spectrumMsLevels;
+        private Map<Integer, Integer> spectrumPrecursorCharges;
+        private Map<Integer, Integer> peptideRanks;
+        private Map<Integer, Integer> peptidePrecursorCharges;
+
+        public Collector() {
+        }
+
+        /**
+         * Start from existing statistics, to add the part they are missing
+         *
+         * @param statistics existing statistics
+         */
+        public Collector(ExperimentStatistics statistics) {
+            this.numberOfSpectra = statistics.numberOfSpectra;
+            this.numberOfIdentifiedSpectra = statistics.numberOfIdentifiedSpectra;
+            this.numberOfProteins = statistics.numberOfProteins;
+            this.numberOfPeptides = statistics.numberOfPeptides;
+            this.spectrumMsLevels = mutableCopy(statistics.spectrumMsLevels);
+            this.spectrumPrecursorCharges = mutableCopy(statistics.spectrumPrecursorCharges);
+            this.peptideRanks = mutableCopy(statistics.peptideRanks);
+            this.peptidePrecursorCharges = mutableCopy(statistics.peptidePrecursorCharges);
+        }
+
+        private static Map<Integer, Integer> mutableCopy(Map<Integer, Integer> distribution) {
+            return distribution == null ? null : new TreeMap<Integer, Integer>(distribution);
+        }
+
+        /**
+         * Start counting the spectra, so the spectrum statistics are available even if there are no spectra.
+         * The streamed spectra replace any spectrum count set before.
+         */
+        public Collector startSpectra() {
+            if (spectrumMsLevels == null) {
+                numberOfSpectra = 0;
+                numberOfIdentifiedSpectra = 0;
+                spectrumMsLevels = new TreeMap<Integer, Integer>();
+                spectrumPrecursorCharges = new TreeMap<Integer, Integer>();
+            }
+            return this;
+        }
+
+        /**
+         * Start counting the peptides, so the peptide statistics are available even if there are no peptides
+         */
+        public Collector startPeptides() {
+            if (peptideRanks == null) {
+                numberOfPeptides = 0;
+                peptideRanks = new TreeMap<Integer, Integer>();
+                peptidePrecursorCharges = new TreeMap<Integer, Integer>();
+            }
+            return this;
+        }
+
+        /**
+         * Count a spectrum
+         *
+         * @param msLevel         ms level, -1 if not available
+         * @param precursorCharge precursor charge, null or 0 if not available
+         * @param identified      whether the spectrum has been identified
+         */
+        public Collector addSpectrum(int msLevel, Integer precursorCharge, boolean identified) {
+            startSpectra();
+            numberOfSpectra++;
+            increment(spectrumMsLevels, msLevel < 0 ? -1 : msLevel, 1);
+            increment(spectrumPrecursorCharges, precursorCharge == null ? 0 : precursorCharge, 1);
+            if (identified) {
+                numberOfIdentifiedSpectra++;
+            }
+            return this;
+        }
+
+        /**
+         * Count a peptide
+         *
+         * @param rank            peptide rank
+         * @param precursorCharge precursor charge, null or 0 if not available
+         */
+        public Collector addPeptide(int rank, Integer precursorCharge) {
+            return addPeptides(rank, precursorCharge, 1);
+        }
+
+        /**
+         * Count a number of peptides sharing the same rank and precursor charge
+         *
+         * @param rank            peptide rank
+         * @param precursorCharge precursor charge, null or 0 if not available
+         * @param cnt             number of peptides
+         */
+        public Collector addPeptides(int rank, Integer precursorCharge, int cnt) {
+            startPeptides();
+            if (cnt > 0) {
+                numberOfPeptides += cnt;
+                increment(peptideRanks, rank, cnt);
+                increment(peptidePrecursorCharges, precursorCharge == null ? 0 : precursorCharge, cnt);
+            }
+            return this;
+        }
+
+        private static void increment(Map<Integer, Integer> distribution, int value, int cnt) {
+            Integer current = distribution.get(value);
+            distribution.put(value, current == null ? cnt : current + cnt);
+        }
+
+        public Collector setNumberOfSpectra(int numberOfSpectra) {
+            this.numberOfSpectra = numberOfSpectra;
+            return this;
+        }
+
+        public Collector setNumberOfIdentifiedSpectra(int numberOfIdentifiedSpectra) {
+            this.numberOfIdentifiedSpectra = numberOfIdentifiedSpectra;
+            return this;
+        }
+
+        public Collector setNumberOfProteins(int numberOfProteins) {
+            this.numberOfProteins = numberOfProteins;
+            return this;
+        }
+
+        public ExperimentStatistics build() {
+            return new ExperimentStatistics(this);
+        }
+    }
+}
@@ -0,0 +1,417 @@
+package uk.ac.ebi.pride.data.io.db;
+
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.controller.DataAccessUtilities;
+import uk.ac.ebi.pride.data.core.*;
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.util.*;
+
+/**
+ * PrideDBIdentificationGraph holds the rows loaded by PrideDBIdentificationLoader, grouped by their parent,
+ * and assembles them into proteins, peptides, modifications and fragment ions without going back to the database.
+ * <p/>
+ * Spectra are not part of the graph, they are fetched from a DataAccessController when assembling the peptides.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PrideDBIdentificationGraph {
+
+    private static final String TWO_DIMENSIONAL_IDENTIFICATION = "uk.ac.ebi.pride.rdbms.ojb.model.core.TwoDimensionalIdentificationBean";
+
+    private static final String GEL_FREE_IDENTIFICATION = "uk.ac.ebi.pride.rdbms.ojb.model.core.GelFreeIdentificationBean";
+
+    /**
+     * Rough heap size of a loaded row, either kept as a map of its columns or converted into a param
+     */
+    private static final long ROW_SIZE = 512;
+
+    private final Map<Long, Map<String, Object>> identifications = new LinkedHashMap<Long, Map<String, Object>>();
+
+    private final Map<Long, ParamGroup> identificationParams = new HashMap<Long, ParamGroup>();
+
+    private final Map<Long, String> gelLinks = new HashMap<Long, String>();
+
+    private final Map<Long, ParamGroup> gelParams = new HashMap<Long, ParamGroup>();
+
+    private final Map<Long, List<Map<String, Object>>> peptides = new HashMap<Long, List<Map<String, Object>>>();
+
+    private final Map<Long, Map<String, Object>> peptideRows = new HashMap<Long, Map<String, Object>>();
+
+    private final Map<Long, ParamGroup> peptideParams = new HashMap<Long, ParamGroup>();
+
+    private final Map<Long, List<Map<String, Object>>> modifications = new HashMap<Long, List<Map<String, Object>>>();
+
+    private final Map<Long, List<Double>> monoMassDeltas = new HashMap<Long, List<Double>>();
+
+    private final Map<Long, List<Double>> avgMassDeltas = new HashMap<Long, List<Double>>();
+
+    private final Map<Long, ParamGroup> modificationParams = new HashMap<Long, ParamGroup>();
+
+    private final Map<Long, List<Map<String, Object>>> fragmentIons = new HashMap<Long, List<Map<String, Object>>>();
+
+    private final Map<Long, List<CvParam>> fragmentIonParams = new HashMap<Long, List<CvParam>>();
+
+    /**
+     * peptide id to spectrum id
+     */
+    private final Map<Long, Comparable> spectrumIds = new HashMap<Long, Comparable>();
+
+    private long numberOfRows = 0;
+
+    PrideDBIdentificationGraph() {
+    }
+
+    void addIdentification(Map<String, Object> row) {
+        numberOfRows++;
+        identifications.put(getLong(row, "identification_id"), row);
+    }
+
+    void addIdentificationParams(List<Map<String, Object>> rows) {
+        addParams(identificationParams, rows);
+    }
+
+    void addGels(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            gelLinks.put(getLong(row, "gel_id"), (String) row.get("gel_link"));
+        }
+    }
+
+    void addGelParams(List<Map<String, Object>> rows) {
+        addParams(gelParams, rows);
+    }
+
+    void addPeptides(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            addRow(peptides, getLong(row, "identification_id"), row);
+            peptideRows.put(getLong(row, "peptide_id"), row);
+            Object spectrumId = row.get("spectrum_id");
+            if (spectrumId != null) {
+                spectrumIds.put(getLong(row, "peptide_id"), spectrumId.toString());
+            }
+        }
+    }
+
+    void addPeptideParams(List<Map<String, Object>> rows) {
+        addParams(peptideParams, rows);
+    }
+
+    void addModifications(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            addRow(modifications, getLong(row, "peptide_id"), row);
+        }
+    }
+
+    void addMassDeltas(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            String className = (String) row.get("classname");
+            Map<Long, List<Double>> massDeltas;
+            if (PrideDBIdentificationLoader.MONO_MASS_DELTA.equals(className)) {
+                massDeltas = monoMassDeltas;
+            } else if (PrideDBIdentificationLoader.AVERAGE_MASS_DELTA.equals(className)) {
+                massDeltas = avgMassDeltas;
+            } else {
+                continue;
+            }
+
+            Long modificationId = getLong(row, "modification_id");
+            List<Double> values = massDeltas.get(modificationId);
+            if (values == null) {
+                values = new ArrayList<Double>();
+                massDeltas.put(modificationId, values);
+            }
+            values.add(getDouble(row, "mass_delta_value"));
+        }
+    }
+
+    void addModificationParams(List<Map<String, Object>> rows) {
+        addParams(modificationParams, rows);
+    }
+
+    void addFragmentIons(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            addRow(fragmentIons, getLong(row, "peptide_id"), row);
+        }
+    }
+
+    void addFragmentIonParams(List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            Long fragmentIonId = getLong(row, "parent_element_fk");
+            List<CvParam> cvParams = fragmentIonParams.get(fragmentIonId);
+            if (cvParams == null) {
+                cvParams = new ArrayList<CvParam>();
+                fragmentIonParams.put(fragmentIonId, cvParams);
+            }
+            cvParams.add(createCvParam(row));
+        }
+    }
+
+    /**
+     * Get the ids of all the identifications, in ascending order
+     *
+     * @return List<Comparable>    identification ids
+     */
+    public List<Comparable> getIdentificationIds() {
+        return new ArrayList<Comparable>(identifications.keySet());
+    }
+
+    /**
+     * Estimate the heap size of the graph, it is dominated by the loaded rows
+     *
+     * @return long    estimated size in bytes
+     */
+    public long getEstimatedSize() {
+        return numberOfRows * ROW_SIZE;
+    }
+
+    public boolean hasIdentification(Comparable identificationId) {
+        return identifications.containsKey(toLong(identificationId));
+    }
+
+    /**
+     * Assemble a protein identification
+     *
+     * @param identificationId identification id
+     * @param spectrumSource   controller to fetch the spectra of the peptides from, null to leave them out
+     * @return Protein protein, null if the identification is not part of the graph
+     */
+    public Protein getProtein(Comparable identificationId, DataAccessController spectrumSource) {
+        Long id = toLong(identificationId);
+        Map<String, Object> row = identifications.get(id);
+        if (row == null) {
+            return null;
+        }
+
+        String accession = (String) row.get("accession_number");
+        Double seqCoverage = getDouble(row, "sequence_coverage");
+        double seqCoverageVal = seqCoverage == null ? -1 : seqCoverage;
+        Double threshold = getDouble(row, "threshold");
+        double thresholdVal = threshold == null ? -1 : threshold;
+        ParamGroup params = copyOf(identificationParams.get(id));
+        List<Peptide> peptideList = getPeptides(id, spectrumSource);
+        DBSequence dbSequence = new DBSequence(null, null, null, -1, accession,
+                new SearchDataBase((String) row.get("search_database"), (String) row.get("database_version")),
+                null, (String) row.get("accession_version"), (String) row.get("splice_isoform"));
+
+        String className = (String) row.get("classname");
+        if (TWO_DIMENSIONAL_IDENTIFICATION.equals(className)) {
+            Long gelId = getLong(row, "gel_id");
+            Gel gel = new Gel(copyOf(gelParams.get(gelId)), gelLinks.get(gelId), getDouble(row, "x_coordinate"),
+                    getDouble(row, "y_coordinate"), getDouble(row, "molecular_weight"), getDouble(row, "pi"));
+            return new Protein(params, id, null, dbSequence, false, peptideList, null, thresholdVal, seqCoverageVal, gel);
+        } else if (GEL_FREE_IDENTIFICATION.equals(className)) {
+            return new Protein(params, id, null, dbSequence, false, peptideList, null, thresholdVal, seqCoverageVal, null);
+        }
+
+        return null;
+    }
+
+    /**
+     * Assemble the peptides of a protein identification
+     *
+     * @param identificationId identification id
+     * @param spectrumSource   controller to fetch the spectra from, null to leave them out
+     * @return List<Peptide>   peptides, empty if there is none
+     */
+    public List<Peptide> getPeptides(Comparable identificationId, DataAccessController spectrumSource) {
+        List<Peptide> peptideList = new ArrayList<Peptide>();
+
+        List<Map<String, Object>> rows = peptides.get(toLong(identificationId));
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                peptideList.add(createPeptide(row, spectrumSource));
+            }
+        }
+
+        return peptideList;
+    }
+
+    /**
+     * Assemble a peptide of a protein identification
+     *
+     * @param identificationId identification id
+     * @param peptideId        peptide id
+     * @param spectrumSource   controller to fetch the spectrum from, null to leave it out
+     * @return Peptide peptide, null if the peptide is not part of the identification
+     */
+    public Peptide getPeptide(Comparable identificationId, Comparable peptideId, DataAccessController spectrumSource) {
+        Map<String, Object> row = peptideRows.get(toLong(peptideId));
+        if (row == null || !toLong(identificationId).equals(getLong(row, "identification_id"))) {
+            return null;
+        }
+        return createPeptide(row, spectrumSource);
+    }
+
+    private Peptide createPeptide(Map<String, Object> row, DataAccessController spectrumSource) {
+        Long peptideId = getLong(row, "peptide_id");
+        ParamGroup params = copyOf(peptideParams.get(peptideId));
+        Comparable spectrumId = spectrumIds.get(peptideId);
+        Spectrum spectrum = (spectrumSource == null || spectrumId == null) ? null : spectrumSource.getSpectrumById(spectrumId);
+        PeptideSequence peptideSequence = new PeptideSequence(null, null, (String) row.get("sequence"), getModifications(peptideId));
+        List<PeptideEvidence> peptideEvidences = new ArrayList<PeptideEvidence>();
+        PeptideEvidence peptideEvidence = new PeptideEvidence(null, null, getInteger(row, "pep_start"), getInteger(row, "pep_end"),
+                false, peptideSequence, null);
+        peptideEvidences.add(peptideEvidence);
+
+        Integer charge = DataAccessUtilities.getPrecursorChargeParamGroup(spectrum);
+        Double mz = DataAccessUtilities.getPrecursorMz(spectrum);
+        Score score = DataAccessUtilities.getScore(params);
+
+        SpectrumIdentification spectrumIdentification = new SpectrumIdentification(params, null, null, (charge == null ? -1 : charge),
+                (mz == null ? -1 : mz), 0.0, 0.0, peptideSequence, -1, false, null, null, peptideEvidences,
+                getFragmentIons(peptideId), score, spectrum, null);
+        return new Peptide(peptideEvidence, spectrumIdentification);
+    }
+
+    /**
+     * Get the id of the spectrum identified by a peptide
+     *
+     * @param peptideId peptide id
+     * @return Comparable  spectrum id, null if the peptide has no spectrum
+     */
+    public Comparable getSpectrumId(Comparable peptideId) {
+        return spectrumIds.get(toLong(peptideId));
+    }
+
+    public ParamGroup getIdentificationParams(Comparable identificationId) {
+        return copyOf(identificationParams.get(toLong(identificationId)));
+    }
+
+    public ParamGroup getPeptideParams(Comparable peptideId) {
+        return copyOf(peptideParams.get(toLong(peptideId)));
+    }
+
+    /**
+     * Assemble the modifications of a peptide
+     *
+     * @param peptideId peptide id
+     * @return List<Modification>  modifications, empty if there is none
+     */
+    public List<Modification> getModifications(Comparable peptideId) {
+        List<Modification> modificationList = new ArrayList<Modification>();
+
+        List<Map<String, Object>> rows = modifications.get(toLong(peptideId));
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                Long modificationId = getLong(row, "modification_id");
+                Integer location = getInteger(row, "location");
+                modificationList.add(new Modification(copyOf(modificationParams.get(modificationId)), (String) row.get("accession"), null,
+                        location == null ? -1 : location, null, copyOf(avgMassDeltas.get(modificationId)), copyOf(monoMassDeltas.get(modificationId)),
+                        (String) row.get("mod_database"), (String) row.get("mod_database_version")));
+            }
+        }
+
+        return modificationList;
+    }
+
+    /**
+     * Assemble the fragment ions of a peptide
+     *
+     * @param peptideId peptide id
+     * @return List<FragmentIon>   fragment ions, empty if there is none
+     */
+    public List<FragmentIon> getFragmentIons(Comparable peptideId) {
+        List<FragmentIon> fragmentIonList = new ArrayList<FragmentIon>();
+
+        List<Map<String, Object>> rows = fragmentIons.get(toLong(peptideId));
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                List<CvParam> cvParams = new ArrayList<CvParam>();
+                cvParams.add(createCvParam(CvTermReference.PRODUCT_ION_MZ, row.get("mz")));
+                cvParams.add(createCvParam(CvTermReference.PRODUCT_ION_INTENSITY, row.get("intensity")));
+                cvParams.add(createCvParam(CvTermReference.PRODUCT_ION_MASS_ERROR, row.get("mass_error")));
+                cvParams.add(createCvParam(CvTermReference.PRODUCT_ION_RETENTION_TIME_ERROR, row.get("retention_time_error")));
+                Object ionNumber = row.get("fragment_ion_number");
+                cvParams.add(new CvParam((String) row.get("accession_ion_type"), (String) row.get("ion_type_name"),
+                        CvTermReference.PRODUCT_ION_TYPE.getCvLabel(), ionNumber == null ? null : ionNumber.toString(), null, null, null));
+                cvParams.add(createCvParam(CvTermReference.PRODUCT_ION_CHARGE, row.get("ion_charge")));
+                List<CvParam> extraParams = fragmentIonParams.get(getLong(row, "fragment_ion_id"));
+                if (extraParams != null) {
+                    cvParams.addAll(extraParams);
+                }
+                fragmentIonList.add(new FragmentIon(new ParamGroup(cvParams, null)));
+            }
+        }
+
+        return fragmentIonList;
+    }
+
+    /**
+     * Params are stored in tables with a parent_element_fk column, rows without a cv label are user params
+     */
+    private void addParams(Map<Long, ParamGroup> params, List<Map<String, Object>> rows) {
+        numberOfRows += rows.size();
+        for (Map<String, Object> row : rows) {
+            Long parentId = getLong(row, "parent_element_fk");
+            ParamGroup paramGroup = params.get(parentId);
+            if (paramGroup == null) {
+                paramGroup = new ParamGroup();
+                params.put(parentId, paramGroup);
+            }
+
+            if (row.get("cv_label") == null) {
+                paramGroup.addUserParam(new UserParam((String) row.get("name"), "", (String) row.get("value"), "", "", ""));
+            } else {
+                paramGroup.addCvParam(createCvParam(row));
+            }
+        }
+    }
+
+    private static CvParam createCvParam(Map<String, Object> row) {
+        return new CvParam((String) row.get("accession"), (String) row.get("name"), (String) row.get("cv_label"),
+                (String) row.get("value"), "", "", "");
+    }
+
+    private static CvParam createCvParam(CvTermReference cvTerm, Object value) {
+        return new CvParam(cvTerm.getAccession(), cvTerm.getName(), cvTerm.getCvLabel(),
+                value == null ? null : value.toString(), null, null, null);
+    }
+
+    private static void addRow(Map<Long, List<Map<String, Object>>> rows, Long parentId, Map<String, Object> row) {
+        List<Map<String, Object>> children = rows.get(parentId);
+        if (children == null) {
+            children = new ArrayList<Map<String, Object>>();
+            rows.put(parentId, children);
+        }
+        children.add(row);
+    }
+
+    /**
+     * The graph is shared, so every assembled object gets its own param group
+     */
+    private static ParamGroup copyOf(ParamGroup params) {
+        return params == null ? new ParamGroup() : new ParamGroup(params);
+    }
+
+    private static List<Double> copyOf(List<Double> values) {
+        return values == null ? new ArrayList<Double>() : new ArrayList<Double>(values);
+    }
+
+    private static Long toLong(Comparable id) {
+        return id instanceof Long ? (Long) id : Long.valueOf(id.toString());
+    }
+
+    /**
+     * Column types differ between drivers, numbers are converted from whatever Number the driver returns
+     */
+    private static Long getLong(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private static Integer getInteger(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : ((Number) value).intValue();
+    }
+
+    private static Double getDouble(Map<String, Object> row, String column) {
+        Object value = row.get(column);
+        return value == null ? null : ((Number) value).doubleValue();
+    }
+}
@@ -0,0 +1,195 @@
+package uk.ac.ebi.pride.data.io.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PrideDBIdentificationLoader loads the identification graph of a PRIDE public experiment,
+ * proteins, peptides, modifications, fragment ions and all their params, using one set based
+ * query per table instead of one query per protein, peptide, modification or fragment ion.
+ * <p/>
+ * Loading never issues more than MAX_NUMBER_OF_QUERIES queries, regardless of the size of the experiment.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PrideDBIdentificationLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrideDBIdentificationLoader.class);
+
+    /**
+     * Upper bound of the number of queries issued by one load
+     */
+    public static final int MAX_NUMBER_OF_QUERIES = 11;
+
+    public static final String MONO_MASS_DELTA = "uk.ac.ebi.pride.rdbms.ojb.model.core.MonoMassDeltaBean";
+
+    public static final String AVERAGE_MASS_DELTA = "uk.ac.ebi.pride.rdbms.ojb.model.core.AverageMassDeltaBean";
+
+    private static final String IDENTIFICATION_JOIN = " JOIN pride_identification pi ON pp.identification_id = pi.identification_id" +
+            " JOIN pride_experiment pe ON pi.experiment_id = pe.experiment_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicInteger numberOfQueries = new AtomicInteger(0);
+
+    public PrideDBIdentificationLoader(DataSource dataSource) {
+        this(new JdbcTemplate(dataSource));
+    }
+
+    public PrideDBIdentificationLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Load all the identifications of an experiment
+     *
+     * @param experimentAcc experiment accession
+     * @return PrideDBIdentificationGraph  identification graph
+     */
+    public PrideDBIdentificationGraph load(Comparable experimentAcc) {
+        return load(experimentAcc, (Collection<Comparable>) null);
+    }
+
+    /**
+     * Load one identification of an experiment, or all of them if the identification id is null
+     *
+     * @param experimentAcc    experiment accession
+     * @param identificationId identification id, null for all the identifications
+     * @return PrideDBIdentificationGraph  identification graph
+     */
+    public PrideDBIdentificationGraph load(Comparable experimentAcc, Comparable identificationId) {
+        return load(experimentAcc, identificationId == null ? null : Collections.singletonList(identificationId));
+    }
+
+    /**
+     * Load a batch of identifications of an experiment, or all of them if the identification ids are null
+     *
+     * @param experimentAcc     experiment accession
+     * @param identificationIds identification ids, null for all the identifications
+     * @return PrideDBIdentificationGraph  identification graph
+     */
+    public PrideDBIdentificationGraph load(Comparable experimentAcc, Collection<Comparable> identificationIds) {
+        logger.debug("Loading identifications of experiment {}, identifications {}", experimentAcc, identificationIds);
+
+        String filter;
+        Object[] args;
+        if (identificationIds == null) {
+            filter = " WHERE pe.accession = ?";
+            args = new Object[]{experimentAcc.toString()};
+        } else if (identificationIds.isEmpty()) {
+            return new PrideDBIdentificationGraph();
+        } else {
+            StringBuilder in = new StringBuilder(" WHERE pe.accession = ? AND pi.identification_id IN (");
+            List<Object> values = new ArrayList<Object>();
+            values.add(experimentAcc.toString());
+            for (Comparable identificationId : identificationIds) {
+                in.append(values.size() == 1 ? "?" : ", ?");
+                values.add(Long.valueOf(identificationId.toString()));
+            }
+            filter = in.append(")").toString();
+            args = values.toArray();
+        }
+
+        PrideDBIdentificationGraph graph = new PrideDBIdentificationGraph();
+
+        // identifications
+        List<Map<String, Object>> identifications = query("SELECT pi.identification_id, pi.accession_number, pi.accession_version, " +
+                "pi.search_database, pi.database_version, pi.sequence_coverage, pi.splice_isoform, pi.threshold, pi.gel_id, " +
+                "pi.x_coordinate, pi.y_coordinate, pi.molecular_weight, pi.pi, pi.classname " +
+                "FROM pride_identification pi JOIN pride_experiment pe ON pi.experiment_id = pe.experiment_id" + filter +
+                " ORDER BY pi.identification_id", args);
+        if (identifications.isEmpty()) {
+            return graph;
+        }
+
+        boolean hasGel = false;
+        for (Map<String, Object> identification : identifications) {
+            graph.addIdentification(identification);
+            hasGel |= identification.get("gel_id") != null;
+        }
+
+        graph.addIdentificationParams(query("SELECT pip.parent_element_fk, pip.accession, pip.name, pip.value, pip.cv_label " +
+                "FROM pride_identification_param pip JOIN pride_identification pi ON pip.parent_element_fk = pi.identification_id " +
+                "JOIN pride_experiment pe ON pi.experiment_id = pe.experiment_id" + filter, args));
+
+        // gels, shared by the two dimensional identifications
+        if (hasGel) {
+            String gelIds = " IN (SELECT pi.gel_id FROM pride_identification pi " +
+                    "JOIN pride_experiment pe ON pi.experiment_id = pe.experiment_id" + filter + ")";
+            graph.addGels(query("SELECT g.gel_id, g.gel_link FROM pride_gel g WHERE g.gel_id" + gelIds, args));
+            graph.addGelParams(query("SELECT gp.parent_element_fk, gp.accession, gp.name, gp.value, gp.cv_label " +
+                    "FROM pride_gel_param gp WHERE gp.parent_element_fk" + gelIds, args));
+        }
+
+        // peptides, the spectrum reference is resolved to the spectrum id in the same query
+        List<Map<String, Object>> peptides = query("SELECT pp.peptide_id, pp.identification_id, pp.sequence, pp.pep_start, pp.pep_end, ms.spectrum_id " +
+                "FROM pride_peptide pp" + IDENTIFICATION_JOIN +
+                " LEFT JOIN mzdata_spectrum ms ON ms.mz_data_id = pe.mz_data_id AND ms.spectrum_identifier = pp.spectrum_ref" + filter +
+                " ORDER BY pp.peptide_id", args);
+        if (peptides.isEmpty()) {
+            return graph;
+        }
+        graph.addPeptides(peptides);
+
+        graph.addPeptideParams(query("SELECT ppp.parent_element_fk, ppp.accession, ppp.name, ppp.value, ppp.cv_label " +
+                "FROM pride_peptide_param ppp JOIN pride_peptide pp ON ppp.parent_element_fk = pp.peptide_id" + IDENTIFICATION_JOIN + filter, args));
+
+        // modifications
+        List<Map<String, Object>> modifications = query("SELECT pm.modification_id, pm.peptide_id, pm.accession, pm.location, " +
+                "pm.mod_database, pm.mod_database_version FROM pride_modification pm" + peptideJoin("pm") + filter +
+                " ORDER BY pm.modification_id", args);
+        if (!modifications.isEmpty()) {
+            graph.addModifications(modifications);
+            graph.addMassDeltas(query("SELECT md.modification_id, md.mass_delta_value, md.classname " +
+                    "FROM pride_mass_delta md JOIN pride_modification pm ON md.modification_id = pm.modification_id" + peptideJoin("pm") + filter, args));
+            graph.addModificationParams(query("SELECT pmp.parent_element_fk, pmp.accession, pmp.name, pmp.value, pmp.cv_label " +
+                    "FROM pride_modification_param pmp JOIN pride_modification pm ON pmp.parent_element_fk = pm.modification_id" + peptideJoin("pm") + filter, args));
+        }
+
+        // fragment ions, only cv params are kept for fragment ions
+        List<Map<String, Object>> fragmentIons = query("SELECT fi.fragment_ion_id, fi.peptide_id, fi.mz, fi.intensity, fi.mass_error, " +
+                "fi.retention_time_error, fi.accession_ion_type, fi.ion_type_name, fi.fragment_ion_number, fi.ion_charge " +
+                "FROM pride_fragment_ion fi" + peptideJoin("fi") + filter + " ORDER BY fi.fragment_ion_id", args);
+        if (!fragmentIons.isEmpty()) {
+            graph.addFragmentIons(fragmentIons);
+            graph.addFragmentIonParams(query("SELECT fip.parent_element_fk, fip.accession, fip.name, fip.value, fip.cv_label " +
+                    "FROM pride_fragment_ion_param fip JOIN pride_fragment_ion fi ON fip.parent_element_fk = fi.fragment_ion_id" + peptideJoin("fi") + filter +
+                    " AND fip.cv_label IS NOT NULL", args));
+        }
+
+        return graph;
+    }
+
+    /**
+     * Get the number of queries issued by this loader so far
+     *
+     * @return int number of queries
+     */
+    public int getNumberOfQueries() {
+        return numberOfQueries.get();
+    }
+
+    /**
+     * Join a table with a peptide_id column to its peptide, identification and experiment
+     *
+     * @param alias alias of the table
+     * @return String  join clause
+     */
+    private static String peptideJoin(String alias) {
+        return " JOIN pride_peptide pp ON " + alias + ".peptide_id = pp.peptide_id" + IDENTIFICATION_JOIN;
+    }
+
+    private List<Map<String, Object>> query(String sql, Object[] args) {
+        numberOfQueries.incrementAndGet();
+        return jdbcTemplate.queryForList(sql, args);
+    }
+}
@@ -0,0 +1,164 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * ElementRangeReader reads the xml of many indexed elements of a file at once.
+ * <p/>
+ * 1. the elements are sorted by offset, and neighbouring elements are coalesced into byte ranges,
+ * two elements are in the same range if the gap between them is not larger than the maximum gap.
+ * <p/>
+ * 2. each range is read from the file with a single read, the bytes in the gaps are read and discarded,
+ * which is cheaper than a seek and a read per element.
+ * <p/>
+ * 3. the xml is returned in the order of the requested elements, an element requested twice is read once.
+ * <p/>
+ * This class is not thread safe, the file is opened for each call.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class ElementRangeReader {
+
+    /**
+     * maximum number of bytes between two elements read in the same range
+     */
+    public static final int DEFAULT_MAX_GAP = 16 * 1024;
+    /**
+     * maximum number of bytes of a range, a larger element is read on its own
+     */
+    public static final int DEFAULT_MAX_RANGE_BYTES = 8 * 1024 * 1024;
+
+    private final File file;
+    private final int maxGap;
+    private final int maxRangeBytes;
+    private final Charset charset;
+
+    private int numberOfReads = 0;
+
+    public ElementRangeReader(File file) throws IOException {
+        this(file, DEFAULT_MAX_GAP, DEFAULT_MAX_RANGE_BYTES);
+    }
+
+    ElementRangeReader(File file, int maxGap, int maxRangeBytes) throws IOException {
+        this.file = file;
+        this.maxGap = Math.max(maxGap, 0);
+        this.maxRangeBytes = Math.max(maxRangeBytes, 1);
+        this.charset = MzIdentMLPrescanner.readCharset(file);
+    }
+
+    /**
+     * Read the xml of elements
+     *
+     * @param starts start offset of each element
+     * @param stops  stop offset of each element
+     * @return List<String>    xml of each element, in the order of the offsets
+     * @throws IOException failed to read the file
+     */
+    public List<String> read(long[] starts, long[] stops) throws IOException {
+        if (starts.length != stops.length) {
+            throw new IllegalArgumentException("Expected the same number of start and stop offsets");
+        }
+
+        String[] xml = new String[starts.length];
+        if (starts.length == 0) {
+            return Arrays.asList(xml);
+        }
+
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            for (int[] range : coalesce(starts, stops, maxGap, maxRangeBytes)) {
+                readRange(raf, range, starts, stops, xml);
+            }
+        } finally {
+            raf.close();
+        }
+
+        return Arrays.asList(xml);
+    }
+
+    private void readRange(RandomAccessFile raf, int[] range, long[] starts, long[] stops, String[] xml) throws IOException {
+        long rangeStart = starts[range[0]];
+        long rangeStop = rangeStart;
+        for (int index : range) {
+            rangeStop = Math.max(rangeStop, stops[index]);
+        }
+        if (rangeStop - rangeStart > Integer.MAX_VALUE) {
+            throw new IOException("Element is too large to read: " + rangeStart + "-" + rangeStop);
+        }
+
+        byte[] bytes = new byte[(int) (rangeStop - rangeStart)];
+        raf.seek(rangeStart);
+        raf.readFully(bytes);
+        numberOfReads++;
+
+        // the same element requested twice is decoded once
+        int previous = -1;
+        for (int index : range) {
+            if (previous >= 0 && starts[previous] == starts[index] && stops[previous] == stops[index]) {
+                xml[index] = xml[previous];
+            } else {
+                xml[index] = new String(bytes, (int) (starts[index] - rangeStart), (int) (stops[index] - starts[index]), charset);
+            }
+            previous = index;
+        }
+    }
+
+    /**
+     * @return int  number of reads since this reader was created, one per range
+     */
+    public int getNumberOfReads() {
+        return numberOfReads;
+    }
+
+    /**
+     * Group the elements into ranges to be read at once
+     *
+     * @param starts        start offset of each element
+     * @param stops         stop offset of each element
+     * @param maxGap        maximum number of bytes between two elements of the same range
+     * @param maxRangeBytes maximum number of bytes of a range
+     * @return List<int[]>  positions of the elements of each range, sorted by offset
+     */
+    static List<int[]> coalesce(final long[] starts, final long[] stops, int maxGap, int maxRangeBytes) {
+        int size = starts.length;
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                if (starts[i1] != starts[i2]) {
+                    return starts[i1] < starts[i2] ? -1 : 1;
+                }
+                return stops[i1] < stops[i2] ? -1 : (stops[i1] == stops[i2] ? 0 : 1);
+            }
+        });
+
+        List<int[]> ranges = new ArrayList<int[]>();
+        int rangeStart = 0;
+        while (rangeStart < size) {
+            long firstOffset = starts[order[rangeStart]];
+            long lastStop = stops[order[rangeStart]];
+            int rangeEnd = rangeStart + 1;
+            while (rangeEnd < size
+                    && starts[order[rangeEnd]] - lastStop <= maxGap
+                    && Math.max(lastStop, stops[order[rangeEnd]]) - firstOffset <= maxRangeBytes) {
+                lastStop = Math.max(lastStop, stops[order[rangeEnd]]);
+                rangeEnd++;
+            }
+
+            int[] range = new int[rangeEnd - rangeStart];
+            for (int i = 0; i < range.length; i++) {
+                range[i] = order[rangeStart + i];
+            }
+            ranges.add(range);
+            rangeStart = rangeEnd;
+        }
+        return ranges;
+    }
+}
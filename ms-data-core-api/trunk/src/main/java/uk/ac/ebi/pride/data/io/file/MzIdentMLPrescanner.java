@@ -0,0 +1,436 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MzIdentMLPrescanner reads indexed mzIdentML elements in parallel, in chunks of neighbouring elements.
+ * <p/>
+ * 1. the elements are sorted by offset and grouped into chunks, each chunk is read from the file with a single read.
+ * <p/>
+ * 2. each element is parsed once, collecting the attributes of all the nested elements needed to build the
+ * id mappings, instead of re-reading each nested element through the index.
+ * <p/>
+ * 3. the results are returned in the order of the given ids, whatever the number of threads.
+ * <p/>
+ * Attribute values are returned as they are in the file, without resolving entities, like
+ * MzIdentMLUnmarshaller.getElementAttributes does.
+ * <p/>
+ * Setting -Duk.ac.ebi.pride.data.mzidentml.prescan.threads=1 reads the chunks in the calling thread.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class MzIdentMLPrescanner {
+
+    public static final String THREADS_PROPERTY = "uk.ac.ebi.pride.data.mzidentml.prescan.threads";
+
+    private static final int DEFAULT_CHUNK_SIZE = 2048;
+    /**
+     * maximum number of bytes read at once, a larger element is read on its own
+     */
+    private static final int MAX_CHUNK_BYTES = 8 * 1024 * 1024;
+
+    private static final Pattern ENCODING_PATTERN = Pattern.compile("encoding\\s*=\\s*[\"']([A-Za-z0-9._\\-]+)[\"']");
+
+    private static final String SPECTRUM_IDENTIFICATION_RESULT = "SpectrumIdentificationResult";
+    private static final String SPECTRUM_IDENTIFICATION_ITEM = "SpectrumIdentificationItem";
+    private static final String PEPTIDE_EVIDENCE_REF = "PeptideEvidenceRef";
+
+    private final File file;
+    private final int threads;
+    private final int chunkSize;
+    private final Charset charset;
+
+    public MzIdentMLPrescanner(File file) throws IOException {
+        this(file, getDefaultThreads(), DEFAULT_CHUNK_SIZE);
+    }
+
+    MzIdentMLPrescanner(File file, int threads, int chunkSize) throws IOException {
+        this.file = file;
+        this.threads = Math.max(threads, 1);
+        this.chunkSize = Math.max(chunkSize, 1);
+        this.charset = readCharset(file);
+    }
+
+    /**
+     * @return int  number of threads set by the system property, the number of processors by default
+     */
+    public static int getDefaultThreads() {
+        return Integer.getInteger(THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
+
+    static Charset readCharset(File file) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            byte[] head = new byte[(int) Math.min(raf.length(), 256)];
+            raf.readFully(head);
+            String declaration = new String(head, "US-ASCII");
+            int end = declaration.indexOf("?>");
+            Matcher matcher = ENCODING_PATTERN.matcher(end < 0 ? declaration : declaration.substring(0, end));
+            if (declaration.startsWith("<?xml") && matcher.find() && Charset.isSupported(matcher.group(1))) {
+                return Charset.forName(matcher.group(1));
+            }
+            return Charset.forName("UTF-8");
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Scan SpectrumIdentificationResult elements
+     *
+     * @param ids    result ids
+     * @param starts start offset of each result
+     * @param stops  stop offset of each result
+     * @return List<ScannedResult> scanned results, in the order of the ids
+     * @throws IOException failed to read the file
+     */
+    public List<ScannedResult> scanSpectrumIdentificationResults(List<String> ids, long[] starts, long[] stops) throws IOException {
+        return scan(ids, starts, stops, new ElementParser<ScannedResult>() {
+            @Override
+            public ScannedResult parse(String id, String xml) {
+                return parseSpectrumIdentificationResult(id, xml);
+            }
+        });
+    }
+
+    /**
+     * Scan an attribute of the start tag of a type of elements, such as the dBSequence_ref of the PeptideEvidences
+     *
+     * @param ids       element ids
+     * @param starts    start offset of each element
+     * @param stops     stop offset of each element
+     * @param attribute attribute name
+     * @return List<String>    attribute values, in the order of the ids, null if an element has no such attribute
+     * @throws IOException failed to read the file
+     */
+    public List<String> scanAttribute(List<String> ids, long[] starts, long[] stops, final String attribute) throws IOException {
+        return scan(ids, starts, stops, new ElementParser<String>() {
+            @Override
+            public String parse(String id, String xml) {
+                int start = xml.indexOf('<');
+                if (start < 0) {
+                    return null;
+                }
+                int nameEnd = start + 1;
+                while (nameEnd < xml.length() && !isNameEnd(xml.charAt(nameEnd))) {
+                    nameEnd++;
+                }
+                return parseAttributes(xml, nameEnd, findTagEnd(xml, nameEnd)).get(attribute);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> scan(final List<String> ids, final long[] starts, final long[] stops,
+                             final ElementParser<T> parser) throws IOException {
+        final int size = ids.size();
+        if (starts.length != size || stops.length != size) {
+            throw new IllegalArgumentException("Expected offsets of " + size + " elements");
+        }
+
+        // read neighbouring elements together
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer i1, Integer i2) {
+                return starts[i1] < starts[i2] ? -1 : (starts[i1] == starts[i2] ? 0 : 1);
+            }
+        });
+
+        final Object[] results = new Object[size];
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+        int chunkStart = 0;
+        while (chunkStart < size) {
+            int chunkEnd = chunkStart + 1;
+            long firstOffset = starts[order[chunkStart]];
+            while (chunkEnd < size && chunkEnd - chunkStart < chunkSize
+                    && stops[order[chunkEnd]] - firstOffset <= MAX_CHUNK_BYTES) {
+                chunkEnd++;
+            }
+
+            final int[] chunk = new int[chunkEnd - chunkStart];
+            for (int i = 0; i < chunk.length; i++) {
+                chunk[i] = order[chunkStart + i];
+            }
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    scanChunk(chunk, ids, starts, stops, parser, results);
+                    return null;
+                }
+            });
+            chunkStart = chunkEnd;
+        }
+
+        run(tasks);
+
+        List<T> scanned = new ArrayList<T>(size);
+        for (Object result : results) {
+            scanned.add((T) result);
+        }
+        return scanned;
+    }
+
+    private void run(List<Callable<Void>> tasks) throws IOException {
+        if (threads == 1 || tasks.size() <= 1) {
+            for (Callable<Void> task : tasks) {
+                try {
+                    task.call();
+                } catch (IOException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new IOException("Failed to prescan " + file.getName(), e);
+                }
+            }
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()));
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while prescanning " + file.getName(), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to prescan " + file.getName(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Read a chunk of elements sorted by offset with a single read, each task has its own file handle
+     */
+    private <T> void scanChunk(int[] chunk, List<String> ids, long[] starts, long[] stops,
+                               ElementParser<T> parser, Object[] results) throws IOException {
+        long chunkStart = starts[chunk[0]];
+        long chunkStop = chunkStart;
+        for (int index : chunk) {
+            chunkStop = Math.max(chunkStop, stops[index]);
+        }
+        if (chunkStop - chunkStart > Integer.MAX_VALUE) {
+            throw new IOException("Element is too large to prescan: " + ids.get(chunk[0]));
+        }
+
+        byte[] bytes = new byte[(int) (chunkStop - chunkStart)];
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            raf.seek(chunkStart);
+            raf.readFully(bytes);
+        } finally {
+            raf.close();
+        }
+
+        for (int index : chunk) {
+            int offset = (int) (starts[index] - chunkStart);
+            int length = (int) (stops[index] - starts[index]);
+            String xml = new String(bytes, offset, length, charset);
+            results[index] = parser.parse(ids.get(index), xml);
+        }
+    }
+
+    /**
+     * Collect the attributes of a SpectrumIdentificationResult, of its SpectrumIdentificationItems
+     * and of their PeptideEvidenceRefs
+     */
+    static ScannedResult parseSpectrumIdentificationResult(String id, String xml) {
+        ScannedResult result = null;
+        ScannedItem item = null;
+
+        int pos = 0;
+        while ((pos = xml.indexOf('<', pos)) >= 0) {
+            if (xml.startsWith("<!--", pos)) {
+                pos = skipTo(xml, pos, "-->");
+                continue;
+            } else if (xml.startsWith("<![CDATA[", pos)) {
+                pos = skipTo(xml, pos, "]]>");
+                continue;
+            }
+
+            int nameStart = pos + 1;
+            int nameEnd = nameStart;
+            while (nameEnd < xml.length() && !isNameEnd(xml.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            int tagEnd = findTagEnd(xml, nameEnd);
+            if (nameEnd == nameStart || xml.charAt(nameStart) == '/' || xml.charAt(nameStart) == '?' || xml.charAt(nameStart) == '!') {
+                pos = tagEnd + 1;
+                continue;
+            }
+
+            String name = xml.substring(nameStart, nameEnd);
+            int prefixEnd = name.indexOf(':');
+            if (prefixEnd >= 0) {
+                name = name.substring(prefixEnd + 1);
+            }
+
+            if (SPECTRUM_IDENTIFICATION_RESULT.equals(name) && result == null) {
+                Map<String, String> attributes = parseAttributes(xml, nameEnd, tagEnd);
+                result = new ScannedResult(id, attributes.get("spectrumID"), attributes.get("spectraData_ref"));
+            } else if (SPECTRUM_IDENTIFICATION_ITEM.equals(name) && result != null) {
+                Map<String, String> attributes = parseAttributes(xml, nameEnd, tagEnd);
+                item = new ScannedItem(attributes.get("id"), attributes.get("rank"), attributes.get("chargeState"));
+                result.getItems().add(item);
+            } else if (PEPTIDE_EVIDENCE_REF.equals(name) && item != null) {
+                String peptideEvidenceRef = parseAttributes(xml, nameEnd, tagEnd).get("peptideEvidence_ref");
+                if (peptideEvidenceRef != null) {
+                    item.getPeptideEvidenceRefs().add(peptideEvidenceRef);
+                }
+            }
+            pos = tagEnd + 1;
+        }
+
+        return result == null ? new ScannedResult(id, null, null) : result;
+    }
+
+    private static boolean isNameEnd(char c) {
+        return Character.isWhitespace(c) || c == '>' || c == '/';
+    }
+
+    private static int skipTo(String xml, int pos, String end) {
+        int index = xml.indexOf(end, pos);
+        return index < 0 ? xml.length() : index + end.length();
+    }
+
+    /**
+     * Find the '>' closing a tag, a '>' inside a quoted attribute value does not close it
+     */
+    private static int findTagEnd(String xml, int pos) {
+        char quote = 0;
+        for (int i = pos; i < xml.length(); i++) {
+            char c = xml.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return i;
+            }
+        }
+        return xml.length();
+    }
+
+    /**
+     * Parse the attributes of a tag, between the end of its name and its closing '>'
+     */
+    private static Map<String, String> parseAttributes(String xml, int pos, int tagEnd) {
+        Map<String, String> attributes = new HashMap<String, String>();
+        while (pos < tagEnd) {
+            int equals = xml.indexOf('=', pos);
+            if (equals < 0 || equals >= tagEnd) {
+                break;
+            }
+            String name = xml.substring(pos, equals).trim();
+
+            int valueStart = equals + 1;
+            while (valueStart < tagEnd && Character.isWhitespace(xml.charAt(valueStart))) {
+                valueStart++;
+            }
+            if (valueStart >= tagEnd) {
+                break;
+            }
+            char quote = xml.charAt(valueStart);
+            if (quote != '"' && quote != '\'') {
+                break;
+            }
+            int valueEnd = xml.indexOf(quote, valueStart + 1);
+            if (valueEnd < 0 || valueEnd > tagEnd) {
+                break;
+            }
+            attributes.put(name, xml.substring(valueStart + 1, valueEnd));
+            pos = valueEnd + 1;
+        }
+        return attributes;
+    }
+
+    private interface ElementParser<T> {
+        T parse(String id, String xml);
+    }
+
+    /**
+     * Attributes of a SpectrumIdentificationResult needed for the id mappings
+     */
+    public static class ScannedResult {
+        private final String id;
+        private final String spectrumId;
+        private final String spectraDataRef;
+        private final List<ScannedItem> items = new ArrayList<ScannedItem>();
+
+        public ScannedResult(String id, String spectrumId, String spectraDataRef) {
+            this.id = id;
+            this.spectrumId = spectrumId;
+            this.spectraDataRef = spectraDataRef;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getSpectrumId() {
+            return spectrumId;
+        }
+
+        public String getSpectraDataRef() {
+            return spectraDataRef;
+        }
+
+        /**
+         * @return List<ScannedItem>   spectrum identification items, in document order
+         */
+        public List<ScannedItem> getItems() {
+            return items;
+        }
+    }
+
+    /**
+     * Attributes of a SpectrumIdentificationItem needed for the id mappings and the statistics
+     */
+    public static class ScannedItem {
+        private final String id;
+        private final String rank;
+        private final String chargeState;
+        private final Set<String> peptideEvidenceRefs = new LinkedHashSet<String>();
+
+        public ScannedItem(String id, String rank, String chargeState) {
+            this.id = id;
+            this.rank = rank;
+            this.chargeState = chargeState;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getRank() {
+            return rank;
+        }
+
+        public String getChargeState() {
+            return chargeState;
+        }
+
+        /**
+         * @return Set<String> ids of the referenced peptide evidences, in document order
+         */
+        public Set<String> getPeptideEvidenceRefs() {
+            return peptideEvidenceRefs;
+        }
+    }
+}
@@ -1,14 +1,24 @@
 package uk.ac.ebi.pride.data.io.file;
 
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
 import psidev.psi.tools.xxindex.index.IndexElement;
 import uk.ac.ebi.jmzidml.MzIdentMLElement;
 import uk.ac.ebi.jmzidml.model.mzidml.*;
 import uk.ac.ebi.jmzidml.xml.io.MzIdentMLUnmarshaller;
+import uk.ac.ebi.jmzidml.xml.jaxb.unmarshaller.UnmarshallerFactory;
+import uk.ac.ebi.jmzidml.xml.jaxb.unmarshaller.filters.MzIdentMLNamespaceFilter;
 
 import javax.naming.ConfigurationException;
+import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.sax.SAXSource;
 import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.*;
 
 
@@ -22,6 +32,10 @@ import java.util.*;
  */
 public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
 
+    private static final Logger logger = LoggerFactory.getLogger(MzIdentMLUnmarshallerAdaptor.class);
+
+    private final File mzIdentMLFile;
+
     private Map<String, Map<String, List<IndexElement>>> scannedIdMappings;
 
     private Inputs inputs = null;
@@ -32,11 +46,13 @@ public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
 
     public MzIdentMLUnmarshallerAdaptor(File mzIdentMLFile, boolean inMemory) throws ConfigurationException {
         super(mzIdentMLFile, inMemory);
+        this.mzIdentMLFile = mzIdentMLFile;
         scanIdMappings();
     }
 
     public MzIdentMLUnmarshallerAdaptor(File mzIdentMLFile, boolean inMemory, boolean avoidProteinInference) throws ConfigurationException{
        super(mzIdentMLFile, inMemory);
+       this.mzIdentMLFile = mzIdentMLFile;
        this.avoidProteinInference = avoidProteinInference;
        scanIdMappings();
     }
@@ -66,50 +82,60 @@ public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
                                    List<IndexElement> peptideEvidenceRefIndexElements,
                                    boolean proteinGroupPresent) {
 
-        for (String spectrumIdentResultId : spectrumIdentResultIdToIndexElements.keySet()) {
-            IndexElement spectrumIdentResultIndexElement = spectrumIdentResultIdToIndexElements.get(spectrumIdentResultId);
-
-            Iterator<Map.Entry<String, IndexElement>> spectrumIdentItemElementEntryIterator = spectrumIdentItemIdToIndexElements.entrySet().iterator();
-            while (spectrumIdentItemElementEntryIterator.hasNext()) {
-                Map.Entry<String, IndexElement> spectrumIdentItemElementEntry = spectrumIdentItemElementEntryIterator.next();
-                String spectrumIdentItemId = spectrumIdentItemElementEntry.getKey();
-                IndexElement spectrumIdentItemIndexElement = spectrumIdentItemElementEntry.getValue();
-                if (isParentIndexElement(spectrumIdentResultIndexElement, spectrumIdentItemIndexElement)) {
-                    Map<String, List<IndexElement>> spectrumIdentItemWithin = scannedIdMappings.get(spectrumIdentResultId);
-                    if (spectrumIdentItemWithin == null) {
-                        spectrumIdentItemWithin = new HashMap<String, List<IndexElement>>();
-                        scannedIdMappings.put(spectrumIdentResultId, spectrumIdentItemWithin);
-                    }
-
-                    if (proteinGroupPresent) {
-                        spectrumIdentItemWithin.put(spectrumIdentItemId, null);
-                    } else {
-                        spectrumIdentItemWithin.put(spectrumIdentItemId, findPeptideEvidenceRefIndexElements(spectrumIdentItemIndexElement, peptideEvidenceRefIndexElements));
-                    }
-
-                    spectrumIdentItemElementEntryIterator.remove();
+        // index the spectrum identification results by their offsets
+        OffsetIntervalIndex.Builder<String> resultIndexBuilder = new OffsetIntervalIndex.Builder<String>();
+        for (Map.Entry<String, IndexElement> spectrumIdentResultEntry : spectrumIdentResultIdToIndexElements.entrySet()) {
+            IndexElement indexElement = spectrumIdentResultEntry.getValue();
+            resultIndexBuilder.add(indexElement.getStart(), indexElement.getStop(), spectrumIdentResultEntry.getKey());
+        }
+        OffsetIntervalIndex<String> resultIndex = resultIndexBuilder.build();
+
+        // index the spectrum identification items, peptide evidence refs are resolved against them
+        OffsetIntervalIndex.Builder<String> itemIndexBuilder = new OffsetIntervalIndex.Builder<String>();
+        for (Map.Entry<String, IndexElement> spectrumIdentItemEntry : spectrumIdentItemIdToIndexElements.entrySet()) {
+            IndexElement indexElement = spectrumIdentItemEntry.getValue();
+            itemIndexBuilder.add(indexElement.getStart(), indexElement.getStop(), spectrumIdentItemEntry.getKey());
+        }
+        OffsetIntervalIndex<String> itemIndex = itemIndexBuilder.build();
+
+        Map<String, List<IndexElement>> peptideEvidenceRefsByItem = Collections.emptyMap();
+        if (!proteinGroupPresent && peptideEvidenceRefIndexElements != null) {
+            peptideEvidenceRefsByItem = groupByEnclosing(itemIndex, peptideEvidenceRefIndexElements);
+        }
+
+        for (int i = 0; i < itemIndex.size(); i++) {
+            String spectrumIdentItemId = itemIndex.getValue(i);
+            String spectrumIdentResultId = resultIndex.getEnclosing(itemIndex.getStart(i), itemIndex.getStop(i));
+            if (spectrumIdentResultId != null) {
+                Map<String, List<IndexElement>> spectrumIdentItemWithin = scannedIdMappings.get(spectrumIdentResultId);
+                if (spectrumIdentItemWithin == null) {
+                    spectrumIdentItemWithin = new LinkedHashMap<String, List<IndexElement>>();
+                    scannedIdMappings.put(spectrumIdentResultId, spectrumIdentItemWithin);
+                }
+
+                if (proteinGroupPresent) {
+                    spectrumIdentItemWithin.put(spectrumIdentItemId, null);
+                } else {
+                    List<IndexElement> peptideEvidenceRefs = peptideEvidenceRefsByItem.get(spectrumIdentItemId);
+                    spectrumIdentItemWithin.put(spectrumIdentItemId, peptideEvidenceRefs == null ? new ArrayList<IndexElement>() : peptideEvidenceRefs);
                 }
             }
         }
     }
 
-    private List<IndexElement> findPeptideEvidenceRefIndexElements(IndexElement spectrumIdentItemIndexElement, List<IndexElement> peptideEvidenceRefIndexElements) {
-        List<IndexElement> peptideEvidenceRefIndexElementsFound = new ArrayList<IndexElement>();
+    private Map<String, List<IndexElement>> groupByEnclosing(OffsetIntervalIndex<String> parentIndex, List<IndexElement> childIndexElements) {
+        int size = childIndexElements.size();
+        long[] childStarts = new long[size];
+        long[] childStops = new long[size];
 
-        Iterator<IndexElement> peptideEvidenceRefIndexElementIterator = peptideEvidenceRefIndexElements.iterator();
-        while (peptideEvidenceRefIndexElementIterator.hasNext()) {
-            IndexElement peptideEvidenceRefIndexElement = peptideEvidenceRefIndexElementIterator.next();
-            if (isParentIndexElement(spectrumIdentItemIndexElement, peptideEvidenceRefIndexElement)) {
-                peptideEvidenceRefIndexElementsFound.add(peptideEvidenceRefIndexElement);
-                peptideEvidenceRefIndexElementIterator.remove();
-            }
+        int i = 0;
+        for (IndexElement childIndexElement : childIndexElements) {
+            childStarts[i] = childIndexElement.getStart();
+            childStops[i] = childIndexElement.getStop();
+            i++;
         }
 
-        return peptideEvidenceRefIndexElementsFound;
-    }
-
-    private boolean isParentIndexElement(IndexElement parent, IndexElement child) {
-        return parent.getStart() <= child.getStart() && parent.getStop() >= child.getStop();
+        return parentIndex.groupChildren(childStarts, childStops, childIndexElements);
     }
 
     public List<Sample> getSampleList() {
@@ -244,19 +270,76 @@ public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
         return proteinAmbiguityGroupIds != null && !proteinAmbiguityGroupIds.isEmpty() && !avoidProteinInference;
     }
 
+    /**
+     * Get spectrum identification items, the items are read from the file in a few contiguous byte ranges,
+     * and unmarshalled together with the same unmarshaller.
+     *
+     * @param spectrumIdentIds spectrum identification item ids
+     * @return List<SpectrumIdentificationItem>    items in the order of the ids, null if there is no id
+     * @throws JAXBException failed to unmarshal an item
+     */
     public List<SpectrumIdentificationItem> getSpectrumIdentificationsByIds(List<Comparable> spectrumIdentIds) throws JAXBException {
         List<SpectrumIdentificationItem> spectrumIdentifications = null;
         if (spectrumIdentIds != null && spectrumIdentIds.size() > 0) {
-            spectrumIdentifications = new ArrayList<SpectrumIdentificationItem>();
+            List<String> ids = new ArrayList<String>(spectrumIdentIds.size());
             for (Comparable id : spectrumIdentIds) {
-                SpectrumIdentificationItem spectrumIdentification = this.unmarshal(SpectrumIdentificationItem.class, (String) id);
-                spectrumIdentifications.add(spectrumIdentification);
+                ids.add((String) id);
+            }
+
+            try {
+                spectrumIdentifications = unmarshalBatch(SpectrumIdentificationItem.class, ids);
+            } catch (IOException e) {
+                logger.warn("Failed to read the spectrum identification items at once, reading them one by one: {}", e.getMessage());
+            } catch (JAXBException e) {
+                logger.warn("Failed to unmarshal the spectrum identification items at once, reading them one by one: {}", e.getMessage());
             }
 
+            if (spectrumIdentifications == null) {
+                spectrumIdentifications = new ArrayList<SpectrumIdentificationItem>();
+                for (String id : ids) {
+                    SpectrumIdentificationItem spectrumIdentification = this.unmarshal(SpectrumIdentificationItem.class, id);
+                    spectrumIdentifications.add(spectrumIdentification);
+                }
+            }
         }
         return spectrumIdentifications;
     }
 
+    /**
+     * Unmarshal a batch of elements of the same type, the references of the elements are resolved
+     * like they are by unmarshal(Class, String)
+     *
+     * @param cls type of the elements
+     * @param ids element ids
+     * @return List<T> elements in the order of the ids, null for the ids without xml
+     * @throws IOException   failed to read the file, or an element is not in the index
+     * @throws JAXBException failed to unmarshal an element, the message names the first failing id
+     */
+    private <T extends MzIdentMLObject> List<T> unmarshalBatch(Class<T> cls, List<String> ids) throws IOException, JAXBException {
+        long[][] offsets = getOffsets(ids, this.index.getIndexElements(cls));
+        List<String> xmlSnippets = new ElementRangeReader(mzIdentMLFile).read(offsets[0], offsets[1]);
+
+        MzIdentMLNamespaceFilter xmlFilter = new MzIdentMLNamespaceFilter();
+        // initializeUnmarshaller sets the parent reader of the filter and the reference resolvers
+        Unmarshaller unmarshaller = UnmarshallerFactory.getInstance().initializeUnmarshaller(this.index, xmlFilter, null, true);
+
+        List<T> elements = new ArrayList<T>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            String xml = xmlSnippets.get(i);
+            T element = null;
+            if (xml != null) {
+                try {
+                    JAXBElement<T> holder = unmarshaller.unmarshal(new SAXSource(xmlFilter, new InputSource(new StringReader(xml))), cls);
+                    element = holder.getValue();
+                } catch (JAXBException e) {
+                    throw new JAXBException("Failed to unmarshal " + cls.getSimpleName() + " " + ids.get(i), e);
+                }
+            }
+            elements.add(element);
+        }
+        return elements;
+    }
+
     public Set<String> getSpectrumIdentificationItemIds(String spectrumIdentResultId) {
         Map<String, List<IndexElement>> elementsWithSpectrumIdentResult = scannedIdMappings.get(spectrumIdentResultId);
 
@@ -273,16 +356,7 @@ public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
         if (elementsWithSpectrumIdentResult != null) {
             List<IndexElement> peptideEvidenceRefIndexElements = elementsWithSpectrumIdentResult.get(spectrumIdentItemId);
             if (peptideEvidenceRefIndexElements != null) {
-                Set<String> peptideEvidenceRefs = new LinkedHashSet<String>();
-
-                for (IndexElement peptideEvidenceRefIndexElement : peptideEvidenceRefIndexElements) {
-                    Map<String, String> peptideEvidenceRefAttributes = this.getElementAttributes(this.index.getXmlString(peptideEvidenceRefIndexElement));
-                    if (peptideEvidenceRefAttributes.containsKey("peptideEvidence_ref")) {
-                        peptideEvidenceRefs.add(peptideEvidenceRefAttributes.get("peptideEvidence_ref"));
-                    }
-                }
-
-                return peptideEvidenceRefs;
+                return readPeptideEvidenceReferences(peptideEvidenceRefIndexElements);
             } else {
                 return Collections.emptySet();
             }
@@ -291,6 +365,88 @@ public class MzIdentMLUnmarshallerAdaptor extends MzIdentMLUnmarshaller {
         }
     }
 
+    /**
+     * Read the peptide evidence refs of an item, they are next to each other in the file, so they are read at once
+     */
+    private Set<String> readPeptideEvidenceReferences(List<IndexElement> peptideEvidenceRefIndexElements) {
+        int size = peptideEvidenceRefIndexElements.size();
+        List<String> xmlSnippets = null;
+        if (size > 1) {
+            long[] starts = new long[size];
+            long[] stops = new long[size];
+            for (int i = 0; i < size; i++) {
+                starts[i] = peptideEvidenceRefIndexElements.get(i).getStart();
+                stops[i] = peptideEvidenceRefIndexElements.get(i).getStop();
+            }
+            try {
+                xmlSnippets = new ElementRangeReader(mzIdentMLFile).read(starts, stops);
+            } catch (IOException e) {
+                xmlSnippets = null;
+            }
+        }
+
+        Set<String> peptideEvidenceRefs = new LinkedHashSet<String>();
+        for (int i = 0; i < size; i++) {
+            String xml = xmlSnippets == null ? this.index.getXmlString(peptideEvidenceRefIndexElements.get(i)) : xmlSnippets.get(i);
+            Map<String, String> peptideEvidenceRefAttributes = this.getElementAttributes(xml);
+            if (peptideEvidenceRefAttributes.containsKey("peptideEvidence_ref")) {
+                peptideEvidenceRefs.add(peptideEvidenceRefAttributes.get("peptideEvidence_ref"));
+            }
+        }
+        return peptideEvidenceRefs;
+    }
+
+    /**
+     * Read the SpectrumIdentificationResults in parallel, together with their SpectrumIdentificationItems
+     * and PeptideEvidenceRefs, each result is read and parsed once.
+     *
+     * @param spectrumIdentResultIds result ids
+     * @return List<MzIdentMLPrescanner.ScannedResult>    scanned results, in the order of the ids
+     * @throws IOException failed to read the file, or a result is not in the index
+     */
+    public List<MzIdentMLPrescanner.ScannedResult> prescanSpectrumIdentificationResults(List<String> spectrumIdentResultIds) throws IOException {
+        Map<String, IndexElement> indexElements = this.index.getIndexElements(SpectrumIdentificationResult.class);
+        long[][] offsets = getOffsets(spectrumIdentResultIds, indexElements);
+        return new MzIdentMLPrescanner(mzIdentMLFile).scanSpectrumIdentificationResults(spectrumIdentResultIds, offsets[0], offsets[1]);
+    }
+
+    /**
+     * Read the dBSequence_ref of all the PeptideEvidences in parallel
+     *
+     * @return Map<String, String> peptide evidence id to db sequence id
+     * @throws IOException failed to read the file
+     */
+    public Map<String, String> prescanPeptideEvidenceDBSequenceRefs() throws IOException {
+        Map<String, IndexElement> indexElements = this.index.getIndexElements(PeptideEvidence.class);
+        if (indexElements == null || indexElements.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<String> peptideEvidenceIds = new ArrayList<String>(indexElements.keySet());
+        long[][] offsets = getOffsets(peptideEvidenceIds, indexElements);
+        List<String> dbSequenceRefs = new MzIdentMLPrescanner(mzIdentMLFile).scanAttribute(peptideEvidenceIds, offsets[0], offsets[1], "dBSequence_ref");
+
+        Map<String, String> peptideEvidenceToDBSequence = new HashMap<String, String>(peptideEvidenceIds.size() * 4 / 3 + 1);
+        for (int i = 0; i < peptideEvidenceIds.size(); i++) {
+            peptideEvidenceToDBSequence.put(peptideEvidenceIds.get(i), dbSequenceRefs.get(i));
+        }
+        return peptideEvidenceToDBSequence;
+    }
+
+    private long[][] getOffsets(List<String> ids, Map<String, IndexElement> indexElements) throws IOException {
+        long[] starts = new long[ids.size()];
+        long[] stops = new long[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            IndexElement indexElement = indexElements == null ? null : indexElements.get(ids.get(i));
+            if (indexElement == null) {
+                throw new IOException("Element is not in the index: " + ids.get(i));
+            }
+            starts[i] = indexElement.getStart();
+            stops[i] = indexElement.getStop();
+        }
+        return new long[][]{starts, stops};
+    }
+
     public boolean hasProteinSequence() throws ConfigurationException {
         boolean proteinSequencePresent = false;
         Set<String> proteinSequence = this.getIDsForElement(MzIdentMLElement.DBSequence);
@@ -0,0 +1,137 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MzMLSpectrumHeaderReader reads the spectrum headers of a mzML file.
+ * <p/>
+ * The ms level comes from the spectrum, the retention time from the first scan, and the precursor m/z,
+ * charge and intensity from the first selected ion of the first precursor, as in DataAccessUtilities.
+ * The number of peaks is the defaultArrayLength of the spectrum. Referenceable param groups are resolved.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class MzMLSpectrumHeaderReader extends SpectrumHeaderReader {
+
+    private static final String SCAN_START_TIME = "MS:1000016";
+
+    private static final String UNIT_MINUTE = "UO:0000031";
+
+    /**
+     * cv params of the referenceable param groups, each one is {accession, value, unit accession}
+     */
+    private final Map<String, List<String[]>> paramGroups = new HashMap<String, List<String[]>>();
+
+    private List<String[]> currentParamGroup = null;
+
+    private SpectrumHeader header = null;
+
+    private int scanCount;
+
+    private int precursorCount;
+
+    private int selectedIonCount;
+
+    public MzMLSpectrumHeaderReader(File file) {
+        super(file);
+    }
+
+    @Override
+    protected boolean isSkipped(String name) {
+        return "binaryDataArrayList".equals(name) || "chromatogramList".equals(name)
+                || "indexList".equals(name);
+    }
+
+    @Override
+    protected void startElement(String name) {
+        if ("spectrum".equals(name)) {
+            header = new SpectrumHeader(getAttribute("id"));
+            Integer defaultArrayLength = parseInteger(getAttribute("defaultArrayLength"));
+            if (defaultArrayLength != null) {
+                header.setNumberOfPeaks(defaultArrayLength);
+            }
+            scanCount = 0;
+            precursorCount = 0;
+        } else if ("referenceableParamGroup".equals(name)) {
+            currentParamGroup = new ArrayList<String[]>();
+            paramGroups.put(getAttribute("id"), currentParamGroup);
+        } else if ("scan".equals(name)) {
+            scanCount++;
+        } else if ("precursor".equals(name)) {
+            precursorCount++;
+            selectedIonCount = 0;
+        } else if ("selectedIon".equals(name)) {
+            selectedIonCount++;
+        } else if ("cvParam".equals(name)) {
+            String[] cvParam = {getAttribute("accession"), getAttribute("value"), getAttribute("unitAccession")};
+            if (currentParamGroup != null) {
+                currentParamGroup.add(cvParam);
+            } else {
+                addCvParam(cvParam);
+            }
+        } else if ("referenceableParamGroupRef".equals(name)) {
+            List<String[]> cvParams = paramGroups.get(getAttribute("ref"));
+            if (cvParams != null) {
+                for (String[] cvParam : cvParams) {
+                    addCvParam(cvParam);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void endElement(String name) {
+        if ("spectrum".equals(name) && header != null) {
+            handle(header);
+            header = null;
+        } else if ("referenceableParamGroup".equals(name)) {
+            currentParamGroup = null;
+        }
+    }
+
+    /**
+     * Add a cv param of the current element to the spectrum header
+     *
+     * @param cvParam {accession, value, unit accession}
+     */
+    private void addCvParam(String[] cvParam) {
+        if (header == null) {
+            return;
+        }
+
+        String parent = getParent();
+        String accession = cvParam[0];
+        String value = cvParam[1];
+
+        if ("spectrum".equals(parent)) {
+            if (CvTermReference.MS_LEVEL.getAccession().equals(accession)) {
+                Integer msLevel = parseInteger(value);
+                if (msLevel != null) {
+                    header.setMsLevel(msLevel);
+                }
+            }
+        } else if ("scan".equals(parent) && scanCount == 1) {
+            if (SCAN_START_TIME.equals(accession)) {
+                Double time = parseDouble(value);
+                if (time != null && UNIT_MINUTE.equals(cvParam[2])) {
+                    time = time * 60;
+                }
+                header.setRetentionTime(time);
+            }
+        } else if ("selectedIon".equals(parent) && precursorCount == 1 && selectedIonCount == 1) {
+            if (CvTermReference.ION_SELECTION_MZ.getAccession().equals(accession)) {
+                header.setPrecursorMz(parseDouble(value));
+            } else if (CvTermReference.ION_SELECTION_CHARGE_STATE.getAccession().equals(accession)) {
+                header.setPrecursorCharge(parseInteger(value));
+            } else if (CvTermReference.ION_SELECTION_INTENSITY.getAccession().equals(accession)) {
+                header.setPrecursorIntensity(parseDouble(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OffsetIntervalIndex stores a set of non-overlapping byte offset intervals,
+ * such as the start/stop positions of xxindex elements of the same type,
+ * and resolves which interval encloses a given child interval.
+ * <p/>
+ * Lookups are binary searches over the sorted start offsets, so resolving
+ * the parents of R children against I intervals costs O((R + I) log I)
+ * instead of the O(R x I) of a nested scan.
+ * <p/>
+ * Note: intervals of the same element type never overlap in a well-formed XML
+ * document, which is what makes a single binary search sufficient.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class OffsetIntervalIndex<T> {
+
+    private final long[] starts;
+
+    private final long[] stops;
+
+    private final Object[] values;
+
+    private OffsetIntervalIndex(long[] starts, long[] stops, Object[] values) {
+        this.starts = starts;
+        this.stops = stops;
+        this.values = values;
+    }
+
+    /**
+     * Number of intervals in the index
+     *
+     * @return int  number of intervals
+     */
+    public int size() {
+        return values.length;
+    }
+
+    /**
+     * Find the position of the interval which fully contains [start, stop]
+     *
+     * @param start start offset of the child interval
+     * @param stop  stop offset of the child interval
+     * @return int  position of the enclosing interval, -1 if there is none
+     */
+    public int findEnclosing(long start, long stop) {
+        int low = 0;
+        int high = starts.length - 1;
+        int candidate = -1;
+
+        // find the last interval which starts before or at the child
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= start) {
+                candidate = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        if (candidate >= 0 && stops[candidate] >= stop) {
+            return candidate;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Find the value of the interval which fully contains [start, stop]
+     *
+     * @param start start offset of the child interval
+     * @param stop  stop offset of the child interval
+     * @return T    value of the enclosing interval, null if there is none
+     */
+    public T getEnclosing(long start, long stop) {
+        int position = findEnclosing(start, stop);
+        return position < 0 ? null : getValue(position);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getValue(int position) {
+        return (T) values[position];
+    }
+
+    public long getStart(int position) {
+        return starts[position];
+    }
+
+    public long getStop(int position) {
+        return stops[position];
+    }
+
+    /**
+     * Group a list of child intervals by their enclosing interval.
+     * <p/>
+     * Parents are returned in document order, children keep the order of the given list,
+     * parents without children are not included and orphan children are dropped.
+     *
+     * @param childStarts start offsets of the children
+     * @param childStops  stop offsets of the children
+     * @param children    child values, same length as the offset arrays
+     * @return Map<T, List<C>>  parent value to the list of its children
+     */
+    public <C> Map<T, List<C>> groupChildren(long[] childStarts, long[] childStops, List<C> children) {
+        if (childStarts.length != children.size() || childStops.length != children.size()) {
+            throw new IllegalArgumentException("Child offsets and values must have the same length");
+        }
+
+        @SuppressWarnings("unchecked")
+        List<C>[] buckets = new List[values.length];
+        for (int i = 0; i < childStarts.length; i++) {
+            int position = findEnclosing(childStarts[i], childStops[i]);
+            if (position >= 0) {
+                List<C> bucket = buckets[position];
+                if (bucket == null) {
+                    bucket = new ArrayList<C>();
+                    buckets[position] = bucket;
+                }
+                bucket.add(children.get(i));
+            }
+        }
+
+        Map<T, List<C>> groups = new LinkedHashMap<T, List<C>>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != null) {
+                groups.put(getValue(i), buckets[i]);
+            }
+        }
+
+        return groups;
+    }
+
+    /**
+     * Builder which collects intervals in any order and sorts them by start offset
+     */
+    public static class Builder<T> {
+
+        private long[] starts = new long[16];
+
+        private long[] stops = new long[16];
+
+        private Object[] values = new Object[16];
+
+        private int size = 0;
+
+        public Builder<T> add(long start, long stop, T value) {
+            if (stop < start) {
+                throw new IllegalArgumentException("Interval stop offset is before its start: " + start + " > " + stop);
+            }
+
+            if (size == values.length) {
+                int capacity = size * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                stops = Arrays.copyOf(stops, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+
+            starts[size] = start;
+            stops[size] = stop;
+            values[size] = value;
+            size++;
+
+            return this;
+        }
+
+        public OffsetIntervalIndex<T> build() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+
+            final long[] unsortedStarts = starts;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    long s1 = unsortedStarts[o1];
+                    long s2 = unsortedStarts[o2];
+                    return s1 < s2 ? -1 : (s1 == s2 ? 0 : 1);
+                }
+            });
+
+            long[] sortedStarts = new long[size];
+            long[] sortedStops = new long[size];
+            Object[] sortedValues = new Object[size];
+            for (int i = 0; i < size; i++) {
+                int from = order[i];
+                sortedStarts[i] = starts[from];
+                sortedStops[i] = stops[from];
+                sortedValues[i] = values[from];
+            }
+
+            return new OffsetIntervalIndex<T>(sortedStarts, sortedStops, sortedValues);
+        }
+    }
+}
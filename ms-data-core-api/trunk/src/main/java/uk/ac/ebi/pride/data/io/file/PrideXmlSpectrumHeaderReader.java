@@ -0,0 +1,95 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.io.File;
+
+/**
+ * PrideXmlSpectrumHeaderReader reads the spectrum headers of a PRIDE XML file.
+ * <p/>
+ * The ms level and retention time come from the spectrum instrument, the precursor m/z,
+ * charge and intensity from the ion selection of the first precursor, and the number of peaks
+ * from the length of the m/z array.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PrideXmlSpectrumHeaderReader extends SpectrumHeaderReader {
+
+    private static final String TIME_IN_SECONDS = "PSI:1000038";
+
+    private static final String TIME_IN_MINUTES = "PSI:1000039";
+
+    private SpectrumHeader header = null;
+
+    private int precursorCount;
+
+    public PrideXmlSpectrumHeaderReader(File file) {
+        super(file);
+    }
+
+    @Override
+    protected boolean isSkipped(String name) {
+        return "intenArrayBinary".equals(name) || "GelFreeIdentification".equals(name)
+                || "TwoDimensionalIdentification".equals(name);
+    }
+
+    @Override
+    protected void startElement(String name) {
+        if ("spectrum".equals(name)) {
+            // precursors refer to other spectra using the same element name
+            if ("spectrumList".equals(getParent())) {
+                header = new SpectrumHeader(getAttribute("id"));
+                precursorCount = 0;
+            }
+        } else if (header == null) {
+            return;
+        } else if ("spectrumInstrument".equals(name)) {
+            Integer msLevel = parseInteger(getAttribute("msLevel"));
+            if (msLevel != null) {
+                header.setMsLevel(msLevel);
+            }
+        } else if ("precursor".equals(name)) {
+            precursorCount++;
+        } else if ("data".equals(name) && "mzArrayBinary".equals(getParent())) {
+            Integer length = parseInteger(getAttribute("length"));
+            if (length != null) {
+                header.setNumberOfPeaks(length);
+            }
+        } else if ("cvParam".equals(name)) {
+            addCvParam(getAttribute("accession"), getAttribute("value"));
+        }
+    }
+
+    @Override
+    protected void endElement(String name) {
+        if ("spectrum".equals(name) && "spectrumList".equals(getParent()) && header != null) {
+            handle(header);
+            header = null;
+        }
+    }
+
+    private void addCvParam(String accession, String value) {
+        String parent = getParent();
+
+        if ("spectrumInstrument".equals(parent)) {
+            if (TIME_IN_MINUTES.equals(accession)) {
+                Double time = parseDouble(value);
+                header.setRetentionTime(time == null ? null : time * 60);
+            } else if (TIME_IN_SECONDS.equals(accession)) {
+                header.setRetentionTime(parseDouble(value));
+            }
+        } else if ("ionSelection".equals(parent) && precursorCount == 1) {
+            // MS terms take precedence over PSI terms, as in DataAccessUtilities
+            if (CvTermReference.ION_SELECTION_MZ.getAccession().equals(accession)
+                    || (CvTermReference.PSI_ION_SELECTION_MZ.getAccession().equals(accession) && header.getPrecursorMz() == null)) {
+                header.setPrecursorMz(parseDouble(value));
+            } else if (CvTermReference.ION_SELECTION_CHARGE_STATE.getAccession().equals(accession)
+                    || (CvTermReference.PSI_ION_SELECTION_CHARGE_STATE.getAccession().equals(accession) && header.getPrecursorCharge() == null)) {
+                header.setPrecursorCharge(parseInteger(value));
+            } else if (CvTermReference.ION_SELECTION_INTENSITY.getAccession().equals(accession)
+                    || (CvTermReference.PSI_ION_SELECTION_INTENSITY.getAccession().equals(accession) && header.getPrecursorIntensity() == null)) {
+                header.setPrecursorIntensity(parseDouble(value));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package uk.ac.ebi.pride.data.io.file;
+
+/**
+ * SpectrumHeader holds the metadata of a spectrum which can be read without decoding its peak list.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class SpectrumHeader {
+
+    private final Comparable id;
+
+    private int msLevel = -1;
+
+    private Double precursorMz = null;
+
+    private Integer precursorCharge = null;
+
+    private Double precursorIntensity = null;
+
+    /**
+     * retention time in seconds
+     */
+    private Double retentionTime = null;
+
+    private int numberOfPeaks = -1;
+
+    public SpectrumHeader(Comparable id) {
+        this.id = id;
+    }
+
+    public Comparable getId() {
+        return id;
+    }
+
+    public int getMsLevel() {
+        return msLevel;
+    }
+
+    public void setMsLevel(int msLevel) {
+        this.msLevel = msLevel;
+    }
+
+    public Double getPrecursorMz() {
+        return precursorMz;
+    }
+
+    public void setPrecursorMz(Double precursorMz) {
+        this.precursorMz = precursorMz;
+    }
+
+    public Integer getPrecursorCharge() {
+        return precursorCharge;
+    }
+
+    public void setPrecursorCharge(Integer precursorCharge) {
+        this.precursorCharge = precursorCharge;
+    }
+
+    public Double getPrecursorIntensity() {
+        return precursorIntensity;
+    }
+
+    public void setPrecursorIntensity(Double precursorIntensity) {
+        this.precursorIntensity = precursorIntensity;
+    }
+
+    public Double getRetentionTime() {
+        return retentionTime;
+    }
+
+    public void setRetentionTime(Double retentionTime) {
+        this.retentionTime = retentionTime;
+    }
+
+    public int getNumberOfPeaks() {
+        return numberOfPeaks;
+    }
+
+    public void setNumberOfPeaks(int numberOfPeaks) {
+        this.numberOfPeaks = numberOfPeaks;
+    }
+
+    @Override
+    public String toString() {
+        return "SpectrumHeader{" +
+                "id=" + id +
+                ", msLevel=" + msLevel +
+                ", precursorMz=" + precursorMz +
+                ", precursorCharge=" + precursorCharge +
+                ", retentionTime=" + retentionTime +
+                ", numberOfPeaks=" + numberOfPeaks +
+                '}';
+    }
+}
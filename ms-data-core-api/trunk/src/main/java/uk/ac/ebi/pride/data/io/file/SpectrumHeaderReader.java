@@ -0,0 +1,173 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * SpectrumHeaderReader streams through an xml file once and reports the header of every spectrum,
+ * the binary data arrays are skipped without being decoded or unmarshalled.
+ * <p/>
+ * Subclasses implement the format specific part by looking at the start and end of the elements,
+ * with the names of all the enclosing elements available through getParent.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public abstract class SpectrumHeaderReader {
+
+    /**
+     * Receives the spectrum headers, in the order of the file
+     */
+    public interface Handler {
+        void handle(SpectrumHeader header);
+    }
+
+    private final File file;
+
+    /**
+     * names of the enclosing elements
+     */
+    private final List<String> elements = new ArrayList<String>();
+
+    private XMLStreamReader reader;
+
+    private Handler handler;
+
+    protected SpectrumHeaderReader(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Read all the spectrum headers
+     *
+     * @param aHandler handler to receive the headers
+     * @throws IOException failed to read or parse the file
+     */
+    public synchronized void read(Handler aHandler) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            if (file.getName().endsWith(".gz")) {
+                in = new GZIPInputStream(in);
+            }
+
+            XMLInputFactory factory = XMLInputFactory.newInstance();
+            factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+            reader = factory.createXMLStreamReader(in);
+            handler = aHandler;
+            elements.clear();
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if (isSkipped(name)) {
+                        skipElement();
+                    } else {
+                        startElement(name);
+                        elements.add(name);
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    elements.remove(elements.size() - 1);
+                    endElement(reader.getLocalName());
+                }
+            }
+
+            reader.close();
+        } catch (XMLStreamException e) {
+            IOException ex = new IOException("Failed to read spectrum headers from " + file);
+            ex.initCause(e);
+            throw ex;
+        } finally {
+            reader = null;
+            handler = null;
+            in.close();
+        }
+    }
+
+    /**
+     * Whether an element and all its content should be skipped, without calling startElement or endElement
+     *
+     * @param name local name of the element
+     * @return boolean true to skip the element
+     */
+    protected abstract boolean isSkipped(String name);
+
+    /**
+     * Called at the start of an element, getParent returns the enclosing element
+     *
+     * @param name local name of the element
+     */
+    protected abstract void startElement(String name);
+
+    /**
+     * Called at the end of an element, getParent returns the enclosing element
+     *
+     * @param name local name of the element
+     */
+    protected abstract void endElement(String name);
+
+    /**
+     * Get an attribute of the current element, only valid during startElement
+     *
+     * @param name local name of the attribute
+     * @return String  attribute value, null if not present
+     */
+    protected String getAttribute(String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    /**
+     * Get the name of the enclosing element
+     *
+     * @return String  local name of the enclosing element, null at the root
+     */
+    protected String getParent() {
+        return elements.isEmpty() ? null : elements.get(elements.size() - 1);
+    }
+
+    protected void handle(SpectrumHeader header) {
+        handler.handle(header);
+    }
+
+    /**
+     * Skip the current element, the text content is never read
+     *
+     * @throws XMLStreamException failed to parse the element
+     */
+    private void skipElement() throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    protected static Double parseDouble(String value) {
+        if (value != null) {
+            try {
+                return Double.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                // not a number
+            }
+        }
+        return null;
+    }
+
+    protected static Integer parseInteger(String value) {
+        Double number = parseDouble(value);
+        return number == null ? null : number.intValue();
+    }
+}
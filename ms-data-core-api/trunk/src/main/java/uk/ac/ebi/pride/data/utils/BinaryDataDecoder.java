@@ -0,0 +1,236 @@
+package uk.ac.ebi.pride.data.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * BinaryDataDecoder decodes binary data arrays directly into primitive arrays.
+ * <p/>
+ * Compared to BinaryDataUtils.toNumberArray, no value is boxed and no intermediate array is created:
+ * zlib compressed data is inflated into a buffer which is reused by the current thread,
+ * and the values are read in bulk through a typed view of that buffer.
+ * <p/>
+ * Supported data types are 16, 32 and 64-bit float and 32 and 64-bit integer, in both byte orders.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public final class BinaryDataDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BinaryDataDecoder.class);
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Per thread inflater, reset before each use
+     */
+    private static final ThreadLocal<Inflater> INFLATER = new ThreadLocal<Inflater>() {
+        @Override
+        protected Inflater initialValue() {
+            return new Inflater();
+        }
+    };
+
+    /**
+     * Per thread buffer holding the inflated bytes, it grows to the largest array decoded by the thread
+     */
+    private static final ThreadLocal<byte[]> INFLATE_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[INITIAL_BUFFER_SIZE];
+        }
+    };
+
+    /**
+     * Private Constructor
+     */
+    private BinaryDataDecoder() {
+
+    }
+
+    /**
+     * Decode a byte array, optionally zlib compressed, into a double array
+     *
+     * @param binary     byte array, base64 decoded
+     * @param compressed true if the byte array is zlib compressed
+     * @param dataType   data type
+     * @param order      endianess
+     * @return double[] double array
+     */
+    public static double[] toDoubleArray(byte[] binary, boolean compressed, CvTermReference dataType, ByteOrder order) {
+        if (binary == null) {
+            return new double[0];
+        }
+
+        if (compressed) {
+            Inflater inflater = INFLATER.get();
+            inflater.reset();
+            inflater.setInput(binary);
+
+            byte[] buffer = INFLATE_BUFFER.get();
+            int length = 0;
+            try {
+                while (!inflater.finished()) {
+                    if (length == buffer.length) {
+                        byte[] larger = new byte[buffer.length * 2];
+                        System.arraycopy(buffer, 0, larger, 0, length);
+                        buffer = larger;
+                        INFLATE_BUFFER.set(buffer);
+                    }
+
+                    int count = inflater.inflate(buffer, length, buffer.length - length);
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += count;
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Encountered wrong data format "
+                        + "while trying to decompress binary data!", e);
+            }
+
+            return toDoubleArray(buffer, 0, length, dataType, order);
+        } else {
+            return toDoubleArray(binary, 0, binary.length, dataType, order);
+        }
+    }
+
+    /**
+     * Decode an uncompressed byte array into a double array
+     *
+     * @param binary   byte array
+     * @param dataType data type
+     * @param order    endianess
+     * @return double[] double array
+     */
+    public static double[] toDoubleArray(byte[] binary, CvTermReference dataType, ByteOrder order) {
+        return toDoubleArray(binary, false, dataType, order);
+    }
+
+    /**
+     * Decode a region of a byte array into a double array
+     *
+     * @param binary   byte array
+     * @param offset   offset of the first byte
+     * @param length   number of bytes to decode
+     * @param dataType data type
+     * @param order    endianess
+     * @return double[] double array, empty if length is not a multiple of the data type size
+     */
+    public static double[] toDoubleArray(byte[] binary, int offset, int length, CvTermReference dataType, ByteOrder order) {
+        int numOfByte = getNumOfByte(dataType);
+
+        if (length % numOfByte != 0) {
+            logger.error("Failed to byte array to number array: " + dataType.getName() + "\t" + order.toString()
+                    + "\t" + length + " bytes is not a multiple of " + numOfByte);
+            return new double[0];
+        }
+
+        double[] results = new double[length / numOfByte];
+        ByteBuffer buffer = ByteBuffer.wrap(binary, offset, length).slice().order(order);
+
+        switch (dataType) {
+            case FLOAT_64_BIT:
+                DoubleBuffer doubleBuffer = buffer.asDoubleBuffer();
+                doubleBuffer.get(results);
+                break;
+
+            case FLOAT_32_BIT:
+                FloatBuffer floatBuffer = buffer.asFloatBuffer();
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = floatBuffer.get(i);
+                }
+                break;
+
+            case FLOAT_16_BIT:
+                ShortBuffer shortBuffer = buffer.asShortBuffer();
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = halfToFloat(shortBuffer.get(i));
+                }
+                break;
+
+            case INT_64_BIT:
+                LongBuffer longBuffer = buffer.asLongBuffer();
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = longBuffer.get(i);
+                }
+                break;
+
+            case INT_32_BIT:
+                IntBuffer intBuffer = buffer.asIntBuffer();
+                for (int i = 0; i < results.length; i++) {
+                    results[i] = intBuffer.get(i);
+                }
+                break;
+
+            default:
+                // getNumOfByte has already rejected the other types
+                break;
+        }
+
+        return results;
+    }
+
+    /**
+     * Convert an IEEE 754 half precision value into a float
+     *
+     * @param half 16 bits of the half precision value
+     * @return float   float value
+     */
+    public static float halfToFloat(short half) {
+        int bits = half & 0xffff;
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1f;
+        int mantissa = bits & 0x3ff;
+
+        if (exponent == 0) {
+            // zero or subnormal: mantissa * 2^-24
+            float value = mantissa * 5.9604645E-8f;
+            return sign == 0 ? value : -value;
+        } else if (exponent == 0x1f) {
+            // infinity or NaN
+            return Float.intBitsToFloat(sign | 0x7f800000 | (mantissa << 13));
+        } else {
+            // re-bias the exponent from 15 to 127
+            return Float.intBitsToFloat(sign | ((exponent + 112) << 23) | (mantissa << 13));
+        }
+    }
+
+    /**
+     * Get the number of bytes on a given data type
+     *
+     * @param dataType data type
+     * @return int number of bytes
+     */
+    private static int getNumOfByte(CvTermReference dataType) {
+        if (dataType == null) {
+            throw new IllegalArgumentException("Binary data type cannot be null");
+        }
+
+        switch (dataType) {
+            case FLOAT_16_BIT:
+                return 2;
+
+            case INT_32_BIT:
+            case FLOAT_32_BIT:
+                return 4;
+
+            case INT_64_BIT:
+            case FLOAT_64_BIT:
+                return 8;
+
+            default:
+                throw new IllegalArgumentException("Unsupported binary data type: " + dataType.getName());
+        }
+    }
+}
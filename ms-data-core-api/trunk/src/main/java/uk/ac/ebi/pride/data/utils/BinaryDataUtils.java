@@ -6,7 +6,6 @@ import uk.ac.ebi.pride.term.CvTermReference;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
@@ -35,64 +34,55 @@ public final class BinaryDataUtils {
     }
 
     /**
-     * Convert a byte array to a number array
+     * Convert a byte array to a number array, the values are decoded by BinaryDataDecoder
+     * and boxed as Float, Double, Integer or Long according to the data type.
      *
      * @param byteArray byte array
      * @param dataType  data type
      * @param order     endianess
-     * @return Number[]    number array
+     * @return Number[]    number array, empty if the data type is not supported
+     * @deprecated use BinaryDataDecoder.toDoubleArray, which does not box the values
      */
+    @Deprecated
     public static Number[] toNumberArray(byte[] byteArray, CvTermReference dataType, ByteOrder order) {
-        int numOfByte = getNumOfByte(dataType);
-        int arrLength = byteArray.length;
-        Number[] results = new Number[arrLength / numOfByte];
-        ByteBuffer buffer = ByteBuffer.wrap(byteArray);
-
-        buffer.order(order);
-
+        double[] values;
         try {
-            for (int i = 0; i < arrLength; i += numOfByte) {
-                Number num;
-
-                switch (dataType) {
-                    case INT_32_BIT:
-                        num = buffer.getInt(i);
+            values = BinaryDataDecoder.toDoubleArray(byteArray, dataType, order);
+        } catch (IllegalArgumentException ex) {
+            logger.error("Failed to byte array to number array: " + dataType + "\t" + order.toString());
 
-                        break;
-
-                    case FLOAT_16_BIT:    // ToDo: *** provide implementation here ; break;
-                    case FLOAT_32_BIT:
-                        num = buffer.getFloat(i);
+            return new Number[0];
+        }
 
-                        break;
+        Number[] results = new Number[values.length];
+        for (int i = 0; i < values.length; i++) {
+            switch (dataType) {
+                case INT_32_BIT:
+                    results[i] = (int) values[i];
 
-                    case INT_64_BIT:
-                        num = buffer.getLong(i);
+                    break;
 
-                        break;
+                case INT_64_BIT:
+                    results[i] = (long) values[i];
 
-                    case FLOAT_64_BIT:
-                        num = buffer.getDouble(i);
+                    break;
 
-                        break;
+                case FLOAT_16_BIT:
+                case FLOAT_32_BIT:
+                    results[i] = (float) values[i];
 
-                    default:
-                        num = null;
-                }
+                    break;
 
-                results[i / numOfByte] = num;
+                default:
+                    results[i] = values[i];
             }
-        } catch (Exception ex) {
-            logger.error("Failed to byte array to number array: " + dataType.getName() + "\t" + order.toString());
-
-            return new Number[0];
         }
 
         return results;
     }
 
     /**
-     * Convert to double array
+     * Convert to double array, without boxing the values
      *
      * @param arr      byte array
      * @param dataType data type
@@ -100,56 +90,7 @@ public final class BinaryDataUtils {
      * @return double[] double array
      */
     public static double[] toDoubleArray(byte[] arr, CvTermReference dataType, ByteOrder order) {
-        Number[] numArr = toNumberArray(arr, dataType, order);
-        double[] doubleArr = new double[numArr.length];
-
-        for (int i = 0; i < numArr.length; i++) {
-            doubleArr[i] = numArr[i].doubleValue();
-        }
-
-        return doubleArr;
-    }
-
-    /**
-     * Get the number of bytes on a given data type
-     *
-     * @param dataType data type
-     * @return int number of bytes
-     */
-    private static int getNumOfByte(CvTermReference dataType) {
-        int numOfByte;
-
-        switch (dataType) {
-            case INT_32_BIT:
-                numOfByte = 4;
-
-                break;
-
-            case FLOAT_16_BIT:
-                numOfByte = 2;
-
-                break;
-
-            case FLOAT_32_BIT:
-                numOfByte = 4;
-
-                break;
-
-            case INT_64_BIT:
-                numOfByte = 8;
-
-                break;
-
-            case FLOAT_64_BIT:
-                numOfByte = 8;
-
-                break;
-
-            default:
-                numOfByte = -1;
-        }
-
-        return numOfByte;
+        return BinaryDataDecoder.toDoubleArray(arr, dataType, order);
     }
 
     /**
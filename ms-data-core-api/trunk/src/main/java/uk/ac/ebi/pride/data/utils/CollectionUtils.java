@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
  * A utility class to enhance Collections class in JDK
@@ -50,12 +51,17 @@ public final class CollectionUtils {
     public static <T> T getElement(Collection<T> collection, int index) {
         T element = null;
 
-        if (collection != null) {
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            if (index >= 0 && index < collection.size()) {
+                element = ((List<T>) collection).get(index);
+            }
+        } else if (collection != null) {
             int count = 0;
 
             for (T entry : collection) {
                 if (count == index) {
                     element = entry;
+                    break;
                 }
 
                 count++;
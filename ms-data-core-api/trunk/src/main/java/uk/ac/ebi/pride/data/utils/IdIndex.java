@@ -0,0 +1,172 @@
+package uk.ac.ebi.pride.data.utils;
+
+import java.util.*;
+
+/**
+ * IdIndex is a read-only positional index of a collection of ids, such as spectrum ids or protein ids.
+ * <p/>
+ * 1. the id at a position and the position of an id are found in constant time.
+ * <p/>
+ * 2. a range of ids is returned as a view, without copying the ids.
+ * <p/>
+ * When the ids are a random access list, such as the id lists returned by the cache, they are
+ * used directly, otherwise they are copied once. The id to position map is built on the first lookup.
+ * <p/>
+ * This class is thread safe.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public final class IdIndex {
+
+    public static final IdIndex EMPTY = new IdIndex(Collections.<Comparable>emptyList());
+
+    private final List<Comparable> ids;
+
+    /**
+     * id to position, built on demand
+     */
+    private volatile Map<Comparable, Integer> positions;
+
+    private IdIndex(List<Comparable> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Create an index of the ids, the collection should not be changed afterwards,
+     * apart from adding new ids to its end.
+     *
+     * @param ids ids in their positional order
+     * @return IdIndex  id index
+     */
+    public static IdIndex create(Collection<Comparable> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return EMPTY;
+        }
+
+        List<Comparable> idList;
+        if (ids instanceof List && ids instanceof RandomAccess) {
+            // ids appended after this point are beyond the range and stay invisible
+            idList = new IdRange((List<Comparable>) ids, 0, ids.size());
+        } else {
+            idList = new IdRange(new ArrayList<Comparable>(ids), 0, ids.size());
+        }
+        return new IdIndex(idList);
+    }
+
+    /**
+     * Check whether this index still describes the given ids, without iterating them.
+     * Ids are only ever appended, so a different size or last id means the ids have changed.
+     *
+     * @param currentIds current ids
+     * @return boolean true if the index is up to date
+     */
+    public boolean isIndexOf(Collection<Comparable> currentIds) {
+        int size = currentIds == null ? 0 : currentIds.size();
+        if (size != ids.size()) {
+            return false;
+        }
+        if (size > 0 && currentIds instanceof List && currentIds instanceof RandomAccess) {
+            return ids.get(size - 1).equals(((List<Comparable>) currentIds).get(size - 1));
+        }
+        return true;
+    }
+
+    public int size() {
+        return ids.size();
+    }
+
+    public boolean isEmpty() {
+        return ids.isEmpty();
+    }
+
+    /**
+     * Get the id at a position
+     *
+     * @param index position of the id
+     * @return Comparable  id
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Comparable getId(int index) {
+        return ids.get(index);
+    }
+
+    /**
+     * Get the position of an id
+     *
+     * @param id id to search for
+     * @return int  position of the id, -1 if the id is not in the index
+     */
+    public int indexOf(Comparable id) {
+        Integer index = getPositions().get(id);
+        return index == null ? -1 : index;
+    }
+
+    public boolean contains(Comparable id) {
+        return getPositions().containsKey(id);
+    }
+
+    /**
+     * Get a range of ids, as a view of the index
+     *
+     * @param index  start position
+     * @param offset maximum number of ids, the range stops at the end of the index
+     * @return List<Comparable>    read-only list of ids, empty if the start position is out of range
+     */
+    public List<Comparable> getIds(int index, int offset) {
+        if (index < 0 || index >= ids.size() || offset <= 0) {
+            return Collections.emptyList();
+        }
+        int stopIndex = (int) Math.min((long) index + offset, ids.size());
+        return new IdRange(ids, index, stopIndex);
+    }
+
+    /**
+     * @return List<Comparable>    all the ids, as a read-only list
+     */
+    public List<Comparable> getIds() {
+        return ids;
+    }
+
+    private Map<Comparable, Integer> getPositions() {
+        Map<Comparable, Integer> map = positions;
+        if (map == null) {
+            map = new HashMap<Comparable, Integer>(ids.size() * 4 / 3 + 1);
+            int index = 0;
+            for (Comparable id : ids) {
+                // the last occurrence wins, as in CollectionUtils.getIndex
+                map.put(id, index++);
+            }
+            positions = map;
+        }
+        return map;
+    }
+
+    /**
+     * Read-only view of a range of a random access list. Unlike List.subList, it does not fail
+     * when ids are appended to the underlying list.
+     */
+    private static class IdRange extends AbstractList<Comparable> implements RandomAccess {
+        private final List<Comparable> ids;
+        private final int start;
+        private final int size;
+
+        private IdRange(List<Comparable> ids, int start, int stop) {
+            this.ids = ids;
+            this.start = start;
+            this.size = stop - start;
+        }
+
+        @Override
+        public Comparable get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return ids.get(start + index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
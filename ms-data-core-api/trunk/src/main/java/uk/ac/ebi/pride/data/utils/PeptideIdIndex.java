@@ -0,0 +1,171 @@
+package uk.ac.ebi.pride.data.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PeptideIdIndex is a read-only positional index of all the peptides of all the proteins.
+ * <p/>
+ * Peptides are ordered by protein, in the order of the protein index, and then by their order in the protein.
+ * A peptide is identified by its protein id and its peptide id.
+ * <p/>
+ * 1. the protein id and the peptide id at a position are found in constant time.
+ * <p/>
+ * 2. the position of a peptide is found by locating its protein in constant time,
+ * and then the peptide among the peptides of that protein.
+ * <p/>
+ * This class is thread safe.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public final class PeptideIdIndex {
+
+    public static final PeptideIdIndex EMPTY = new PeptideIdIndex(IdIndex.EMPTY, new int[1], new int[0], new Comparable[0]);
+
+    private final IdIndex proteinIdIndex;
+
+    /**
+     * position of the first peptide of each protein, the last entry is the number of peptides
+     */
+    private final int[] firstPeptides;
+
+    /**
+     * protein position of each peptide
+     */
+    private final int[] proteinPositions;
+
+    private final Comparable[] peptideIds;
+
+    private PeptideIdIndex(IdIndex proteinIdIndex, int[] firstPeptides, int[] proteinPositions, Comparable[] peptideIds) {
+        this.proteinIdIndex = proteinIdIndex;
+        this.firstPeptides = firstPeptides;
+        this.proteinPositions = proteinPositions;
+        this.peptideIds = peptideIds;
+    }
+
+    /**
+     * Create an index of the peptides
+     *
+     * @param proteinIdIndex       protein id index
+     * @param peptideIdsOfProteins peptide ids of each protein, in the order of the protein index
+     * @return PeptideIdIndex  peptide index
+     */
+    public static PeptideIdIndex create(IdIndex proteinIdIndex, List<? extends Collection<Comparable>> peptideIdsOfProteins) {
+        int numOfProteins = proteinIdIndex.size();
+        if (peptideIdsOfProteins.size() != numOfProteins) {
+            throw new IllegalArgumentException("Expected peptide ids of " + numOfProteins + " proteins, got " + peptideIdsOfProteins.size());
+        }
+
+        int[] firstPeptides = new int[numOfProteins + 1];
+        for (int i = 0; i < numOfProteins; i++) {
+            Collection<Comparable> ids = peptideIdsOfProteins.get(i);
+            firstPeptides[i + 1] = firstPeptides[i] + (ids == null ? 0 : ids.size());
+        }
+
+        int numOfPeptides = firstPeptides[numOfProteins];
+        int[] proteinPositions = new int[numOfPeptides];
+        Comparable[] peptideIds = new Comparable[numOfPeptides];
+        for (int i = 0; i < numOfProteins; i++) {
+            Collection<Comparable> ids = peptideIdsOfProteins.get(i);
+            if (ids != null) {
+                int index = firstPeptides[i];
+                for (Comparable id : ids) {
+                    proteinPositions[index] = i;
+                    peptideIds[index++] = id;
+                }
+            }
+        }
+
+        return new PeptideIdIndex(proteinIdIndex, firstPeptides, proteinPositions, peptideIds);
+    }
+
+    /**
+     * @return IdIndex  index of the proteins the peptides belong to
+     */
+    public IdIndex getProteinIdIndex() {
+        return proteinIdIndex;
+    }
+
+    /**
+     * @return int  total number of peptides
+     */
+    public int size() {
+        return peptideIds.length;
+    }
+
+    public boolean isEmpty() {
+        return peptideIds.length == 0;
+    }
+
+    /**
+     * Get the id of the protein of the peptide at a position
+     *
+     * @param index peptide position
+     * @return Comparable  protein id
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Comparable getProteinId(int index) {
+        return proteinIdIndex.getId(proteinPositions[index]);
+    }
+
+    /**
+     * Get the id of the peptide at a position
+     *
+     * @param index peptide position
+     * @return Comparable  peptide id, unique only within its protein
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Comparable getPeptideId(int index) {
+        return peptideIds[index];
+    }
+
+    /**
+     * Get the position of a peptide
+     *
+     * @param proteinId protein id
+     * @param peptideId peptide id
+     * @return int  peptide position, -1 if the peptide is not in the index
+     */
+    public int indexOf(Comparable proteinId, Comparable peptideId) {
+        int proteinIndex = proteinIdIndex.indexOf(proteinId);
+        if (proteinIndex >= 0) {
+            for (int i = firstPeptides[proteinIndex]; i < firstPeptides[proteinIndex + 1]; i++) {
+                if (peptideIds[i].equals(peptideId)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Get the position of the first peptide of a protein
+     *
+     * @param proteinId protein id
+     * @return int  peptide position, -1 if the protein is not in the index or has no peptides
+     */
+    public int getFirstPeptideIndex(Comparable proteinId) {
+        int proteinIndex = proteinIdIndex.indexOf(proteinId);
+        if (proteinIndex >= 0 && firstPeptides[proteinIndex] < firstPeptides[proteinIndex + 1]) {
+            return firstPeptides[proteinIndex];
+        }
+        return -1;
+    }
+
+    /**
+     * Get the peptide ids of a range of positions, as a view of the index
+     *
+     * @param index  start position
+     * @param offset maximum number of peptides
+     * @return List<Comparable>    read-only list of peptide ids, use getProteinId to find their proteins
+     */
+    public List<Comparable> getPeptideIds(int index, int offset) {
+        if (index < 0 || index >= peptideIds.length || offset <= 0) {
+            return Collections.emptyList();
+        }
+        int stopIndex = (int) Math.min((long) index + offset, peptideIds.length);
+        return Collections.unmodifiableList(Arrays.asList(peptideIds).subList(index, stopIndex));
+    }
+}
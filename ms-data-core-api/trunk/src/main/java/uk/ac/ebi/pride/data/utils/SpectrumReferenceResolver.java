@@ -0,0 +1,345 @@
+package uk.ac.ebi.pride.data.utils;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SpectrumReferenceResolver resolves the spectrum references of an identification file, such as the spectrumID
+ * of an mzIdentML SpectrumIdentificationResult, to the ids of the spectra in the attached spectra files.
+ * <p/>
+ * 1. a single hash index is built over the spectra of all the files, keyed by reference and spectra file,
+ * so a reference is resolved in constant time, instead of scanning the spectrum ids of its file.
+ * <p/>
+ * 2. besides the spectrum id itself, each spectrum is indexed by its position (index=N, starting from 0)
+ * and by its scan number (scan=N), taken from the scan token of a native id, or from the id if it is a number.
+ * <p/>
+ * 3. the spectra are indexed by their titles as well, when the titles of a spectra file are given.
+ * MzIdentMLControllerImpl gives the titles of the MGF files, which are read from the TITLE lines of the file.
+ * <p/>
+ * 4. a reference is first looked up as it is, then by the index, scan, query, title, file or mzMLid value it holds,
+ * a reference of several tokens, such as a native id, is looked up by each of its index and scan tokens.
+ * A title reference is looked up by the titles of the spectra file, and then by the spectrum ids, so it never
+ * resolves against a spectra file without titles unless the spectrum ids are the titles.
+ * <p/>
+ * A reference which cannot be resolved, or which matches several spectra, is reported as a Diagnostic.
+ * <p/>
+ * This class is thread safe.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class SpectrumReferenceResolver {
+
+    /**
+     * maximum number of diagnostics kept, the mismatches are still counted once the limit is reached
+     */
+    public static final int MAX_DIAGNOSTICS = 1000;
+
+    private static final String SEPARATOR = "!";
+    private static final String INDEX = "index=";
+    private static final String SCAN = "scan=";
+    private static final String TITLE = "title=";
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("([A-Za-z]+)=(\\S+)");
+    private static final Pattern REFERENCE_PATTERN = Pattern.compile("([A-Za-z]+)=(.+)");
+
+    /**
+     * reference!spectra data id to spectrum id
+     */
+    private final Map<String, Comparable> spectrumIds;
+
+    /**
+     * references matching several spectra, in the same form as the keys of the spectrum ids
+     */
+    private final Set<String> ambiguousReferences;
+
+    private final Set<Comparable> spectraDataIds;
+
+    /**
+     * spectra data ids of the spectra files whose spectra are indexed by title
+     */
+    private final Set<Comparable> spectraDataIdsWithTitles;
+
+    private final Map<String, Diagnostic> diagnostics = new LinkedHashMap<String, Diagnostic>();
+
+    private int numberOfMismatches = 0;
+
+    /**
+     * Index the spectra of the spectra files
+     *
+     * @param spectrumIdsBySpectraData spectra data id to the ids of the spectra of its file, in file order
+     */
+    public SpectrumReferenceResolver(Map<Comparable, ? extends Collection<Comparable>> spectrumIdsBySpectraData) {
+        this(spectrumIdsBySpectraData, Collections.<Comparable, List<String>>emptyMap());
+    }
+
+    /**
+     * Index the spectra of the spectra files, together with their titles
+     *
+     * @param spectrumIdsBySpectraData spectra data id to the ids of the spectra of its file, in file order
+     * @param titlesBySpectraData      spectra data id to the titles of the spectra of its file, in the same order
+     *                                 as the spectrum ids, null for a spectrum without title. The titles of a file
+     *                                 are ignored if they do not match its spectrum ids one to one.
+     */
+    public SpectrumReferenceResolver(Map<Comparable, ? extends Collection<Comparable>> spectrumIdsBySpectraData,
+                                     Map<Comparable, ? extends List<String>> titlesBySpectraData) {
+        int size = 0;
+        for (Collection<Comparable> ids : spectrumIdsBySpectraData.values()) {
+            size += ids == null ? 0 : ids.size();
+        }
+
+        Map<String, Comparable> index = new HashMap<String, Comparable>(size * 8 / 3 + 1);
+        Set<String> ambiguous = new HashSet<String>();
+        Set<Comparable> withTitles = new HashSet<Comparable>();
+
+        for (Map.Entry<Comparable, ? extends Collection<Comparable>> entry : spectrumIdsBySpectraData.entrySet()) {
+            if (entry.getValue() == null) {
+                continue;
+            }
+            String suffix = SEPARATOR + entry.getKey();
+
+            // spectrum ids first, they take precedence over the positions and scan numbers
+            for (Comparable id : entry.getValue()) {
+                String key = id + suffix;
+                if (index.containsKey(key)) {
+                    ambiguous.add(key);
+                } else {
+                    index.put(key, id);
+                }
+            }
+
+            List<String> titles = titlesBySpectraData.get(entry.getKey());
+            if (titles != null && titles.size() != entry.getValue().size()) {
+                titles = null;
+            }
+
+            int position = 0;
+            for (Comparable id : entry.getValue()) {
+                addAlias(index, ambiguous, INDEX + position, suffix, id);
+                String scanNumber = getScanNumber(id.toString());
+                if (scanNumber != null) {
+                    addAlias(index, ambiguous, SCAN + scanNumber, suffix, id);
+                }
+                if (titles != null && titles.get(position) != null) {
+                    addAlias(index, ambiguous, TITLE + titles.get(position).trim(), suffix, id);
+                }
+                position++;
+            }
+
+            if (titles != null) {
+                withTitles.add(entry.getKey());
+            }
+        }
+
+        this.spectrumIds = index;
+        this.ambiguousReferences = ambiguous;
+        this.spectraDataIds = new HashSet<Comparable>(spectrumIdsBySpectraData.keySet());
+        this.spectraDataIdsWithTitles = withTitles;
+    }
+
+    private static void addAlias(Map<String, Comparable> index, Set<String> ambiguous, String alias, String suffix, Comparable id) {
+        String key = alias + suffix;
+        Comparable existing = index.get(key);
+        if (existing == null) {
+            index.put(key, id);
+        } else if (!existing.equals(id) && !alias.equals(existing.toString())) {
+            // a spectrum whose id is the alias itself is not ambiguous
+            ambiguous.add(key);
+        }
+    }
+
+    /**
+     * @return String  scan number of a native id with a scan token, or of a numeric id, null otherwise
+     */
+    private static String getScanNumber(String id) {
+        if (id.matches(Constants.INTEGER)) {
+            return id;
+        }
+        Matcher matcher = TOKEN_PATTERN.matcher(id);
+        while (matcher.find()) {
+            if ("scan".equalsIgnoreCase(matcher.group(1)) && matcher.group(2).matches(Constants.INTEGER)) {
+                return matcher.group(2);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolve a spectrum reference, a failed resolution is reported as a diagnostic
+     *
+     * @param spectraDataId spectra data id of the spectra file
+     * @param reference     spectrum reference, a spectrum id, index=N, scan=N, a native id or title=TITLE
+     * @return Comparable  id of the spectrum in its spectra file, null if it cannot be resolved
+     */
+    public Comparable resolve(Comparable spectraDataId, String reference) {
+        if (reference == null) {
+            return null;
+        }
+
+        if (!spectraDataIds.contains(spectraDataId)) {
+            report(new Diagnostic(Diagnostic.Type.NO_SPECTRA_FILE, spectraDataId, reference, null,
+                    "No spectra file for spectra data " + spectraDataId));
+            return null;
+        }
+
+        String suffix = SEPARATOR + spectraDataId;
+        for (String candidate : getCandidateReferences(reference)) {
+            String key = candidate + suffix;
+            Comparable spectrumId = spectrumIds.get(key);
+            if (spectrumId != null) {
+                if (ambiguousReferences.contains(key)) {
+                    report(new Diagnostic(Diagnostic.Type.AMBIGUOUS_REFERENCE, spectraDataId, reference, spectrumId,
+                            "Spectrum reference " + reference + " matches several spectra of spectra data " + spectraDataId));
+                }
+                return spectrumId;
+            }
+        }
+
+        String message = "Spectrum reference " + reference + " is not in the spectra file of spectra data " + spectraDataId;
+        if (isTitleReference(reference.trim()) && !spectraDataIdsWithTitles.contains(spectraDataId)) {
+            message += ", the titles of this spectra file are unknown, only the spectra of MGF files are indexed by title";
+        }
+        report(new Diagnostic(Diagnostic.Type.SPECTRUM_NOT_FOUND, spectraDataId, reference, null, message));
+        return null;
+    }
+
+    private static boolean isTitleReference(String reference) {
+        return reference.regionMatches(true, 0, TITLE, 0, TITLE.length());
+    }
+
+    /**
+     * @return List<String>    the reference as it is, followed by the keys it can be indexed under
+     */
+    private static List<String> getCandidateReferences(String reference) {
+        List<String> candidates = new ArrayList<String>(3);
+        String trimmed = reference.trim();
+        candidates.add(reference);
+
+        if (trimmed.matches(Constants.INTEGER)) {
+            candidates.add(SCAN + trimmed);
+            return candidates;
+        }
+
+        // titles can hold any character, such as '='
+        if (isTitleReference(trimmed)) {
+            String title = trimmed.substring(TITLE.length()).trim();
+            candidates.add(TITLE + title);
+            candidates.add(title);
+            return candidates;
+        }
+
+        Matcher referenceMatcher = REFERENCE_PATTERN.matcher(trimmed);
+        if (referenceMatcher.matches() && !referenceMatcher.group(2).contains("=")) {
+            String type = referenceMatcher.group(1).toLowerCase();
+            String value = referenceMatcher.group(2).trim();
+            if (("index".equals(type) || "query".equals(type)) && value.matches(Constants.INTEGER)) {
+                candidates.add(INDEX + Integer.parseInt(value));
+            } else if (("scan".equals(type) || "scans".equals(type)) && value.matches(Constants.INTEGER)) {
+                candidates.add(SCAN + value);
+            } else {
+                // file=, mzMLid= and others hold the spectrum id
+                candidates.add(value);
+            }
+            return candidates;
+        }
+
+        // a native id of several tokens
+        Matcher tokenMatcher = TOKEN_PATTERN.matcher(trimmed);
+        while (tokenMatcher.find()) {
+            String type = tokenMatcher.group(1).toLowerCase();
+            String value = tokenMatcher.group(2);
+            if ("scan".equals(type) && value.matches(Constants.INTEGER)) {
+                candidates.add(SCAN + value);
+            } else if ("index".equals(type) && value.matches(Constants.INTEGER)) {
+                candidates.add(INDEX + value);
+            }
+        }
+        return candidates;
+    }
+
+    private synchronized void report(Diagnostic diagnostic) {
+        numberOfMismatches++;
+        String key = diagnostic.getType() + SEPARATOR + diagnostic.getReference() + SEPARATOR + diagnostic.getSpectraDataId();
+        if (!diagnostics.containsKey(key) && diagnostics.size() < MAX_DIAGNOSTICS) {
+            diagnostics.put(key, diagnostic);
+        }
+    }
+
+    /**
+     * @return List<Diagnostic>    the problems found so far, once per reference, in the order they were found
+     */
+    public synchronized List<Diagnostic> getDiagnostics() {
+        return new ArrayList<Diagnostic>(diagnostics.values());
+    }
+
+    /**
+     * @return int  number of lookups which have been reported, including the repeated ones
+     */
+    public synchronized int getNumberOfMismatches() {
+        return numberOfMismatches;
+    }
+
+    /**
+     * Diagnostic describes a spectrum reference which could not be resolved, or not without ambiguity
+     */
+    public static class Diagnostic {
+
+        public enum Type {
+            /**
+             * no spectra file is attached for the spectra data
+             */
+            NO_SPECTRA_FILE,
+            /**
+             * no spectrum of the spectra file matches the reference, a title reference can only match
+             * the spectra of a file whose titles are known
+             */
+            SPECTRUM_NOT_FOUND,
+            /**
+             * several spectra of the spectra file match the reference, the first one is used
+             */
+            AMBIGUOUS_REFERENCE
+        }
+
+        private final Type type;
+        private final Comparable spectraDataId;
+        private final String reference;
+        private final Comparable spectrumId;
+        private final String message;
+
+        public Diagnostic(Type type, Comparable spectraDataId, String reference, Comparable spectrumId, String message) {
+            this.type = type;
+            this.spectraDataId = spectraDataId;
+            this.reference = reference;
+            this.spectrumId = spectrumId;
+            this.message = message;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        public Comparable getSpectraDataId() {
+            return spectraDataId;
+        }
+
+        public String getReference() {
+            return reference;
+        }
+
+        /**
+         * @return Comparable  id of the spectrum the reference was resolved to, null if it was not resolved
+         */
+        public Comparable getSpectrumId() {
+            return spectrumId;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return type + ": " + message;
+        }
+    }
+}
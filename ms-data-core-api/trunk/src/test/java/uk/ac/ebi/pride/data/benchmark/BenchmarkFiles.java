@@ -0,0 +1,41 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Temporary directories for the synthetic files of the benchmarks.
+ * <p/>
+ * Date: 17/10/2026
+ */
+final class BenchmarkFiles {
+
+    /**
+     * Seed of the synthetic data, so all runs use the same files
+     */
+    static final long SEED = 20261017L;
+
+    private BenchmarkFiles() {
+    }
+
+    static File createTempDir() throws IOException {
+        File dir = File.createTempFile("pride-benchmark", "");
+        if (!dir.delete() || !dir.mkdir()) {
+            throw new IOException("Failed to create temporary directory: " + dir.getAbsolutePath());
+        }
+        return dir;
+    }
+
+    static void delete(File file) {
+        if (file == null) {
+            return;
+        }
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
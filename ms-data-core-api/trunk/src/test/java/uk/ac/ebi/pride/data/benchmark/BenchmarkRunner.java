@@ -0,0 +1,41 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the benchmarks of the data access controllers and of the binary data decoding, and write the results as JSON, so that runs can be compared.
+ * <p/>
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ * <p/>
+ * Any JMH command line option can be given with -Dbenchmark.args, for example
+ * -Dbenchmark.args="SpectrumAccess -p numberOfSpectra=100000 -rff target/mzml.json"
+ * to run one benchmark with larger files into another result file.
+ * By default all benchmarks of this package are run and the results are written to target/jmh-result.json.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class BenchmarkRunner {
+
+    public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions);
+        if (commandLineOptions.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackage().getName() + ".");
+        }
+        if (!commandLineOptions.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLineOptions.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.pride.data.utils.BinaryDataDecoder;
+import uk.ac.ebi.pride.data.utils.BinaryDataUtils;
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare BinaryDataDecoder with the boxed BinaryDataUtils.toNumberArray path,
+ * on peak lists of different sizes, with and without zlib compression.
+ * <p/>
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args=BinaryDataDecoding
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BinaryDataDecodingBenchmark {
+
+    @Param({"1000", "100000"})
+    private int numberOfPeaks;
+
+    @Param({"false", "true"})
+    private boolean compressed;
+
+    @Param({"FLOAT_32_BIT", "FLOAT_64_BIT"})
+    private String dataType;
+
+    private CvTermReference binaryDataType;
+
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        binaryDataType = CvTermReference.valueOf(dataType);
+        boolean doublePrecision = binaryDataType == CvTermReference.FLOAT_64_BIT;
+
+        Random random = new Random(1);
+        ByteBuffer buffer = ByteBuffer.allocate(numberOfPeaks * (doublePrecision ? 8 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+        double mz = 100;
+        for (int i = 0; i < numberOfPeaks; i++) {
+            mz += random.nextDouble();
+            if (doublePrecision) {
+                buffer.putDouble(mz);
+            } else {
+                buffer.putFloat((float) mz);
+            }
+        }
+
+        binary = compressed ? BinaryDataUtils.compress(buffer.array()) : buffer.array();
+    }
+
+    @Benchmark
+    public void numberArray(Blackhole blackhole) {
+        byte[] bytes = compressed ? BinaryDataUtils.decompress(binary) : binary;
+        Number[] numbers = BinaryDataUtils.toNumberArray(bytes, binaryDataType, ByteOrder.LITTLE_ENDIAN);
+        double[] values = new double[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            values[i] = numbers[i].doubleValue();
+        }
+        blackhole.consume(values);
+    }
+
+    @Benchmark
+    public void decoder(Blackhole blackhole) {
+        blackhole.consume(BinaryDataDecoder.toDoubleArray(binary, compressed, binaryDataType, ByteOrder.LITTLE_ENDIAN));
+    }
+}
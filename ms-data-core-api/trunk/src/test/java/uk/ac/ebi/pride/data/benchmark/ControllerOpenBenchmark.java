@@ -0,0 +1,61 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to open a synthetic file, this includes building the index of the file,
+ * and to read the number of spectra and proteins from the opened controller.
+ * <p/>
+ * Each invocation opens the file again, so this is measured as single shots.
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ControllerOpenBenchmark {
+
+    @Param({"MZML", "MGF", "MZIDENTML", "PRIDE_XML"})
+    private SyntheticDataGenerator.Format format;
+
+    /**
+     * Number of spectra, or number of proteins for mzIdentML
+     */
+    @Param({"1000", "10000"})
+    private int size;
+
+    private File dir;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir();
+        file = new SyntheticDataGenerator(BenchmarkFiles.SEED).createFile(format, dir, size);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(dir);
+    }
+
+    @Benchmark
+    public void open(Blackhole blackhole) {
+        DataAccessController controller = format.open(file);
+        try {
+            blackhole.consume(controller.getNumberOfSpectra());
+            blackhole.consume(controller.getNumberOfProteins());
+        } finally {
+            controller.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteration over all proteins of an opened controller and over all peptides of each protein.
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IdentificationIterationBenchmark {
+
+    @Param({"MZIDENTML", "PRIDE_XML"})
+    private SyntheticDataGenerator.Format format;
+
+    /**
+     * Number of spectra for PRIDE XML, or number of proteins for mzIdentML
+     */
+    @Param({"5000"})
+    private int size;
+
+    @Param({"5"})
+    private int peptidesPerProtein;
+
+    private File dir;
+
+    private DataAccessController controller;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(BenchmarkFiles.SEED);
+        generator.setPeptidesPerProtein(peptidesPerProtein);
+        File file = generator.createFile(format, dir, size);
+
+        controller = format.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.close();
+        BenchmarkFiles.delete(dir);
+    }
+
+    @Benchmark
+    public void proteinIds(Blackhole blackhole) {
+        for (Comparable proteinId : controller.getProteinIds()) {
+            blackhole.consume(controller.getProteinAccession(proteinId));
+        }
+    }
+
+    @Benchmark
+    public void peptides(Blackhole blackhole) {
+        for (Comparable proteinId : controller.getProteinIds()) {
+            for (Comparable peptideId : controller.getPeptideIds(proteinId)) {
+                blackhole.consume(controller.getPeptideByIndex(proteinId, peptideId));
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.core.Spectrum;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random access to spectra of an opened controller, including decoding of the m/z and intensity arrays.
+ * <p/>
+ * The spectrum cache of the controllers keeps the least recently used spectra up to a heap budget of 64 MB
+ * (see CacheEntry.SPECTRUM), a spectrum of 200 peaks weighs about 4.5 KB. With the default sizes all the spectra
+ * fit in the budget, so after the warmup this measures cache hits. With more or larger spectra, for example
+ * -p numberOfSpectra=100000, most accesses read and decode the spectrum from the file.
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpectrumAccessBenchmark {
+
+    @Param({"MZML", "MGF", "PRIDE_XML"})
+    private SyntheticDataGenerator.Format format;
+
+    @Param({"10000"})
+    private int numberOfSpectra;
+
+    @Param({"200"})
+    private int numberOfPeaks;
+
+    private File dir;
+
+    private DataAccessController controller;
+
+    private List<Comparable> spectrumIds;
+
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = BenchmarkFiles.createTempDir();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(BenchmarkFiles.SEED);
+        generator.setNumberOfPeaks(numberOfPeaks);
+        File file = generator.createFile(format, dir, numberOfSpectra);
+
+        controller = format.open(file);
+        spectrumIds = new ArrayList<Comparable>(controller.getSpectrumIds());
+        random = new Random(BenchmarkFiles.SEED);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        controller.close();
+        BenchmarkFiles.delete(dir);
+    }
+
+    @Benchmark
+    public void randomSpectrum(Blackhole blackhole) {
+        Comparable id = spectrumIds.get(random.nextInt(spectrumIds.size()));
+        Spectrum spectrum = controller.getSpectrumById(id);
+        blackhole.consume(spectrum.getMzBinaryDataArray().getDoubleArray());
+        blackhole.consume(spectrum.getIntensityBinaryDataArray().getDoubleArray());
+    }
+}
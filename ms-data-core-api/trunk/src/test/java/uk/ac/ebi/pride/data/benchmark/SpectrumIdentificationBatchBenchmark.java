@@ -0,0 +1,88 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import uk.ac.ebi.jmzidml.MzIdentMLElement;
+import uk.ac.ebi.jmzidml.model.mzidml.SpectrumIdentificationItem;
+import uk.ac.ebi.pride.data.io.file.MzIdentMLUnmarshallerAdaptor;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retrieval of the spectrum identification items of an mzIdentML file in batches,
+ * as they are retrieved for each protein, compared to unmarshalling them one by one.
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SpectrumIdentificationBatchBenchmark {
+
+    /**
+     * Number of proteins
+     */
+    @Param({"2000"})
+    private int size;
+
+    /**
+     * Number of items retrieved together
+     */
+    @Param({"5", "50"})
+    private int batchSize;
+
+    private File dir;
+
+    private MzIdentMLUnmarshallerAdaptor unmarshaller;
+
+    private List<List<Comparable>> batches;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dir = BenchmarkFiles.createTempDir();
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(BenchmarkFiles.SEED);
+        File file = generator.createFile(SyntheticDataGenerator.Format.MZIDENTML, dir, size);
+
+        unmarshaller = new MzIdentMLUnmarshallerAdaptor(file, false);
+
+        batches = new ArrayList<List<Comparable>>();
+        List<Comparable> batch = new ArrayList<Comparable>(batchSize);
+        for (String id : unmarshaller.getIDsForElement(MzIdentMLElement.SpectrumIdentificationItem)) {
+            batch.add(id);
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<Comparable>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkFiles.delete(dir);
+    }
+
+    @Benchmark
+    public void batch(Blackhole blackhole) throws Exception {
+        for (List<Comparable> ids : batches) {
+            blackhole.consume(unmarshaller.getSpectrumIdentificationsByIds(ids));
+        }
+    }
+
+    @Benchmark
+    public void oneByOne(Blackhole blackhole) throws Exception {
+        for (List<Comparable> ids : batches) {
+            for (Comparable id : ids) {
+                blackhole.consume(unmarshaller.unmarshal(SpectrumIdentificationItem.class, (String) id));
+            }
+        }
+    }
+}
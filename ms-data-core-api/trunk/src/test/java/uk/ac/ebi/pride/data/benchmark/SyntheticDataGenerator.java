@@ -0,0 +1,566 @@
+package uk.ac.ebi.pride.data.benchmark;
+
+import org.apache.commons.codec.binary.Base64;
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.MzIdentMLControllerImpl;
+import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.MzMLControllerImpl;
+import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.PeakControllerImpl;
+import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.PrideXmlControllerImpl;
+import uk.ac.ebi.pride.data.utils.BinaryDataUtils;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+/**
+ * Writes synthetic mzML, MGF, mzIdentML and PRIDE XML files of a given size for the benchmarks.
+ * The same seed always generates the same files, so benchmark runs can be compared.
+ * <p/>
+ * Spectra have random increasing m/z values, peptides are substrings of random protein sequences,
+ * each peptide is identified by its own spectrum.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class SyntheticDataGenerator {
+
+    private static final String AMINO_ACIDS = "ACDEFGHIKLMNPQRSTVWY";
+
+    private static final int PROTEIN_LENGTH = 400;
+
+    private static final int PEPTIDE_LENGTH = 12;
+
+    /**
+     * File formats of the benchmarked controllers, the size of a file is its number of spectra,
+     * or its number of proteins for mzIdentML
+     */
+    public enum Format {
+        MZML(".mzML") {
+            @Override
+            public void write(SyntheticDataGenerator generator, File file, int size) throws IOException {
+                generator.writeMzML(file, size, generator.numberOfPeaks, true);
+            }
+
+            @Override
+            public DataAccessController open(File file) {
+                return new MzMLControllerImpl(file);
+            }
+        },
+        MGF(".mgf") {
+            @Override
+            public void write(SyntheticDataGenerator generator, File file, int size) throws IOException {
+                generator.writeMgf(file, size, generator.numberOfPeaks);
+            }
+
+            @Override
+            public DataAccessController open(File file) {
+                return new PeakControllerImpl(file);
+            }
+        },
+        MZIDENTML(".mzid") {
+            @Override
+            public void write(SyntheticDataGenerator generator, File file, int size) throws IOException {
+                generator.writeMzIdentML(file, size, generator.peptidesPerProtein);
+            }
+
+            @Override
+            public DataAccessController open(File file) {
+                return new MzIdentMLControllerImpl(file, true);
+            }
+        },
+        PRIDE_XML(".xml") {
+            @Override
+            public void write(SyntheticDataGenerator generator, File file, int size) throws IOException {
+                generator.writePrideXml(file, Math.max(1, size / generator.peptidesPerProtein),
+                        generator.peptidesPerProtein, generator.numberOfPeaks);
+            }
+
+            @Override
+            public DataAccessController open(File file) {
+                return new PrideXmlControllerImpl(file);
+            }
+        };
+
+        private final String extension;
+
+        private Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Write a file of this format
+         *
+         * @param generator data generator
+         * @param file      output file
+         * @param size      number of spectra, or number of proteins for mzIdentML
+         * @throws IOException if the file could not be written
+         */
+        public abstract void write(SyntheticDataGenerator generator, File file, int size) throws IOException;
+
+        /**
+         * Open a data access controller on a file of this format
+         *
+         * @param file input file
+         * @return DataAccessController
+         */
+        public abstract DataAccessController open(File file);
+    }
+
+    private final long seed;
+
+    private int numberOfPeaks = 200;
+
+    private int peptidesPerProtein = 5;
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    public void setNumberOfPeaks(int numberOfPeaks) {
+        this.numberOfPeaks = numberOfPeaks;
+    }
+
+    public void setPeptidesPerProtein(int peptidesPerProtein) {
+        this.peptidesPerProtein = peptidesPerProtein;
+    }
+
+    /**
+     * Write a file of the given format into a directory
+     *
+     * @param format file format
+     * @param dir    output directory
+     * @param size   number of spectra, or number of proteins for mzIdentML
+     * @return the written file
+     * @throws IOException if the file could not be written
+     */
+    public File createFile(Format format, File dir, int size) throws IOException {
+        File file = new File(dir, "synthetic-" + size + format.getExtension());
+        format.write(this, file, size);
+        return file;
+    }
+
+    /**
+     * Write an mzML file of MS2 spectra, with 64-bit m/z and 32-bit intensity arrays
+     *
+     * @param file            output file
+     * @param numberOfSpectra number of spectra
+     * @param numberOfPeaks   number of peaks per spectrum
+     * @param compressed      whether the binary arrays are zlib compressed
+     * @throws IOException if the file could not be written
+     */
+    public void writeMzML(File file, int numberOfSpectra, int numberOfPeaks, boolean compressed) throws IOException {
+        Random random = new Random(seed);
+        PrintWriter out = createWriter(file);
+        try {
+            out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            out.println("<mzML xmlns=\"http://psi.hupo.org/ms/mzml\" id=\"synthetic\" version=\"1.1.0\">");
+            out.println("  <cvList count=\"2\">");
+            out.println("    <cv id=\"MS\" fullName=\"Proteomics Standards Initiative Mass Spectrometry Ontology\" version=\"3.30.0\" URI=\"http://psidev.cvs.sourceforge.net/*checkout*/psidev/psi/psi-ms/mzML/controlledVocabulary/psi-ms.obo\"/>");
+            out.println("    <cv id=\"UO\" fullName=\"Unit Ontology\" version=\"14:07:2009\" URI=\"http://obo.cvs.sourceforge.net/*checkout*/obo/obo/ontology/phenotype/unit.obo\"/>");
+            out.println("  </cvList>");
+            out.println("  <fileDescription>");
+            out.println("    <fileContent>");
+            out.println("      <cvParam cvRef=\"MS\" accession=\"MS:1000580\" name=\"MSn spectrum\" value=\"\"/>");
+            out.println("    </fileContent>");
+            out.println("  </fileDescription>");
+            out.println("  <softwareList count=\"1\">");
+            out.println("    <software id=\"synthetic\" version=\"1.0\">");
+            out.println("      <cvParam cvRef=\"MS\" accession=\"MS:1000531\" name=\"software\" value=\"\"/>");
+            out.println("    </software>");
+            out.println("  </softwareList>");
+            out.println("  <instrumentConfigurationList count=\"1\">");
+            out.println("    <instrumentConfiguration id=\"IC1\">");
+            out.println("      <cvParam cvRef=\"MS\" accession=\"MS:1000031\" name=\"instrument model\" value=\"\"/>");
+            out.println("    </instrumentConfiguration>");
+            out.println("  </instrumentConfigurationList>");
+            out.println("  <dataProcessingList count=\"1\">");
+            out.println("    <dataProcessing id=\"DP1\">");
+            out.println("      <processingMethod order=\"0\" softwareRef=\"synthetic\">");
+            out.println("        <cvParam cvRef=\"MS\" accession=\"MS:1000035\" name=\"peak picking\" value=\"\"/>");
+            out.println("      </processingMethod>");
+            out.println("    </dataProcessing>");
+            out.println("  </dataProcessingList>");
+            out.println("  <run id=\"synthetic_run\" defaultInstrumentConfigurationRef=\"IC1\">");
+            out.println("    <spectrumList count=\"" + numberOfSpectra + "\" defaultDataProcessingRef=\"DP1\">");
+            for (int i = 0; i < numberOfSpectra; i++) {
+                double[] mz = randomMz(random, numberOfPeaks);
+                double[] intensity = randomIntensity(random, numberOfPeaks);
+                out.println("      <spectrum index=\"" + i + "\" id=\"scan=" + (i + 1) + "\" defaultArrayLength=\"" + numberOfPeaks + "\">");
+                out.println("        <cvParam cvRef=\"MS\" accession=\"MS:1000511\" name=\"ms level\" value=\"2\"/>");
+                out.println("        <precursorList count=\"1\">");
+                out.println("          <precursor>");
+                out.println("            <selectedIonList count=\"1\">");
+                out.println("              <selectedIon>");
+                out.println("                <cvParam cvRef=\"MS\" accession=\"MS:1000744\" name=\"selected ion m/z\" value=\"" + precursorMz(random) + "\" unitCvRef=\"MS\" unitAccession=\"MS:1000040\" unitName=\"m/z\"/>");
+                out.println("                <cvParam cvRef=\"MS\" accession=\"MS:1000041\" name=\"charge state\" value=\"2\"/>");
+                out.println("              </selectedIon>");
+                out.println("            </selectedIonList>");
+                out.println("            <activation>");
+                out.println("              <cvParam cvRef=\"MS\" accession=\"MS:1000133\" name=\"collision-induced dissociation\" value=\"\"/>");
+                out.println("            </activation>");
+                out.println("          </precursor>");
+                out.println("        </precursorList>");
+                out.println("        <binaryDataArrayList count=\"2\">");
+                writeMzMLBinary(out, encode(mz, true, compressed), true, compressed,
+                        "MS:1000514", "m/z array", "MS:1000040", "m/z");
+                writeMzMLBinary(out, encode(intensity, false, compressed), false, compressed,
+                        "MS:1000515", "intensity array", "MS:1000131", "number of counts");
+                out.println("        </binaryDataArrayList>");
+                out.println("      </spectrum>");
+            }
+            out.println("    </spectrumList>");
+            out.println("  </run>");
+            out.println("</mzML>");
+        } finally {
+            close(out, file);
+        }
+    }
+
+    private static void writeMzMLBinary(PrintWriter out, String binary, boolean doublePrecision, boolean compressed,
+                                        String arrayAccession, String arrayName, String unitAccession, String unitName) {
+        out.println("          <binaryDataArray encodedLength=\"" + binary.length() + "\">");
+        if (doublePrecision) {
+            out.println("            <cvParam cvRef=\"MS\" accession=\"MS:1000523\" name=\"64-bit float\" value=\"\"/>");
+        } else {
+            out.println("            <cvParam cvRef=\"MS\" accession=\"MS:1000521\" name=\"32-bit float\" value=\"\"/>");
+        }
+        if (compressed) {
+            out.println("            <cvParam cvRef=\"MS\" accession=\"MS:1000574\" name=\"zlib compression\" value=\"\"/>");
+        } else {
+            out.println("            <cvParam cvRef=\"MS\" accession=\"MS:1000576\" name=\"no compression\" value=\"\"/>");
+        }
+        out.println("            <cvParam cvRef=\"MS\" accession=\"" + arrayAccession + "\" name=\"" + arrayName
+                + "\" value=\"\" unitCvRef=\"MS\" unitAccession=\"" + unitAccession + "\" unitName=\"" + unitName + "\"/>");
+        out.println("            <binary>" + binary + "</binary>");
+        out.println("          </binaryDataArray>");
+    }
+
+    /**
+     * Write an MGF file
+     *
+     * @param file            output file
+     * @param numberOfSpectra number of spectra
+     * @param numberOfPeaks   number of peaks per spectrum
+     * @throws IOException if the file could not be written
+     */
+    public void writeMgf(File file, int numberOfSpectra, int numberOfPeaks) throws IOException {
+        Random random = new Random(seed);
+        PrintWriter out = createWriter(file);
+        try {
+            for (int i = 0; i < numberOfSpectra; i++) {
+                double[] mz = randomMz(random, numberOfPeaks);
+                double[] intensity = randomIntensity(random, numberOfPeaks);
+                out.println("BEGIN IONS");
+                out.println("TITLE=synthetic spectrum " + (i + 1));
+                out.println("PEPMASS=" + precursorMz(random));
+                out.println("CHARGE=2+");
+                for (int j = 0; j < numberOfPeaks; j++) {
+                    out.println(mz[j] + " " + intensity[j]);
+                }
+                out.println("END IONS");
+                out.println();
+            }
+        } finally {
+            close(out, file);
+        }
+    }
+
+    /**
+     * Write an mzIdentML 1.1 file without protein detection list, each peptide evidence is
+     * identified by one spectrum identification item.
+     *
+     * @param file               output file
+     * @param numberOfProteins   number of proteins
+     * @param peptidesPerProtein number of peptides per protein
+     * @throws IOException if the file could not be written
+     */
+    public void writeMzIdentML(File file, int numberOfProteins, int peptidesPerProtein) throws IOException {
+        Random random = new Random(seed);
+        String[] proteins = randomProteins(random, numberOfProteins);
+
+        PrintWriter out = createWriter(file);
+        try {
+            out.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+            out.println("<MzIdentML xmlns=\"http://psidev.info/psi/pi/mzIdentML/1.1\" id=\"synthetic\" version=\"1.1.0\" creationDate=\"2026-10-17T00:00:00\">");
+            out.println("  <cvList>");
+            out.println("    <cv id=\"PSI-MS\" uri=\"http://psidev.cvs.sourceforge.net/viewvc/*checkout*/psidev/psi/psi-ms/mzML/controlledVocabulary/psi-ms.obo\" version=\"3.30.0\" fullName=\"PSI-MS\"/>");
+            out.println("    <cv id=\"UO\" uri=\"http://obo.cvs.sourceforge.net/*checkout*/obo/obo/ontology/phenotype/unit.obo\" fullName=\"UNIT-ONTOLOGY\"/>");
+            out.println("  </cvList>");
+            out.println("  <AnalysisSoftwareList>");
+            out.println("    <AnalysisSoftware id=\"AS_synthetic\" name=\"synthetic\" version=\"1.0\">");
+            out.println("      <SoftwareName>");
+            out.println("        <cvParam accession=\"MS:1001456\" name=\"analysis software\" cvRef=\"PSI-MS\"/>");
+            out.println("      </SoftwareName>");
+            out.println("    </AnalysisSoftware>");
+            out.println("  </AnalysisSoftwareList>");
+
+            out.println("  <SequenceCollection>");
+            for (int i = 0; i < numberOfProteins; i++) {
+                out.println("    <DBSequence id=\"DBSeq_" + i + "\" accession=\"SYN" + i + "\" searchDatabase_ref=\"SDB_1\" length=\"" + PROTEIN_LENGTH + "\">");
+                out.println("      <Seq>" + proteins[i] + "</Seq>");
+                out.println("      <cvParam accession=\"MS:1001088\" name=\"protein description\" cvRef=\"PSI-MS\" value=\"synthetic protein " + i + "\"/>");
+                out.println("    </DBSequence>");
+            }
+            for (int i = 0; i < numberOfProteins; i++) {
+                for (int j = 0; j < peptidesPerProtein; j++) {
+                    int start = peptideStart(j, peptidesPerProtein);
+                    out.println("    <Peptide id=\"PEP_" + i + "_" + j + "\">");
+                    out.println("      <PeptideSequence>" + proteins[i].substring(start, start + PEPTIDE_LENGTH) + "</PeptideSequence>");
+                    out.println("    </Peptide>");
+                }
+            }
+            for (int i = 0; i < numberOfProteins; i++) {
+                for (int j = 0; j < peptidesPerProtein; j++) {
+                    int start = peptideStart(j, peptidesPerProtein);
+                    out.println("    <PeptideEvidence id=\"PE_" + i + "_" + j + "\" peptide_ref=\"PEP_" + i + "_" + j
+                            + "\" dBSequence_ref=\"DBSeq_" + i + "\" start=\"" + (start + 1) + "\" end=\"" + (start + PEPTIDE_LENGTH)
+                            + "\" isDecoy=\"false\"/>");
+                }
+            }
+            out.println("  </SequenceCollection>");
+
+            out.println("  <AnalysisCollection>");
+            out.println("    <SpectrumIdentification id=\"SI_1\" spectrumIdentificationProtocol_ref=\"SIP_1\" spectrumIdentificationList_ref=\"SIL_1\">");
+            out.println("      <InputSpectra spectraData_ref=\"SD_1\"/>");
+            out.println("      <SearchDatabaseRef searchDatabase_ref=\"SDB_1\"/>");
+            out.println("    </SpectrumIdentification>");
+            out.println("  </AnalysisCollection>");
+            out.println("  <AnalysisProtocolCollection>");
+            out.println("    <SpectrumIdentificationProtocol id=\"SIP_1\" analysisSoftware_ref=\"AS_synthetic\">");
+            out.println("      <SearchType>");
+            out.println("        <cvParam accession=\"MS:1001083\" name=\"ms-ms search\" cvRef=\"PSI-MS\"/>");
+            out.println("      </SearchType>");
+            out.println("      <Threshold>");
+            out.println("        <cvParam accession=\"MS:1001494\" name=\"no threshold\" cvRef=\"PSI-MS\"/>");
+            out.println("      </Threshold>");
+            out.println("    </SpectrumIdentificationProtocol>");
+            out.println("  </AnalysisProtocolCollection>");
+
+            out.println("  <DataCollection>");
+            out.println("    <Inputs>");
+            out.println("      <SearchDatabase id=\"SDB_1\" location=\"synthetic.fasta\">");
+            out.println("        <DatabaseName>");
+            out.println("          <userParam name=\"synthetic\"/>");
+            out.println("        </DatabaseName>");
+            out.println("      </SearchDatabase>");
+            out.println("      <SpectraData id=\"SD_1\" location=\"synthetic.mgf\">");
+            out.println("        <FileFormat>");
+            out.println("          <cvParam accession=\"MS:1001062\" name=\"Mascot MGF file\" cvRef=\"PSI-MS\"/>");
+            out.println("        </FileFormat>");
+            out.println("        <SpectrumIDFormat>");
+            out.println("          <cvParam accession=\"MS:1000774\" name=\"multiple peak list nativeID format\" cvRef=\"PSI-MS\"/>");
+            out.println("        </SpectrumIDFormat>");
+            out.println("      </SpectraData>");
+            out.println("    </Inputs>");
+            out.println("    <AnalysisData>");
+            out.println("      <SpectrumIdentificationList id=\"SIL_1\">");
+            int spectrumIndex = 0;
+            for (int i = 0; i < numberOfProteins; i++) {
+                for (int j = 0; j < peptidesPerProtein; j++) {
+                    String mz = precursorMz(random);
+                    out.println("        <SpectrumIdentificationResult id=\"SIR_" + spectrumIndex + "\" spectrumID=\"index=" + spectrumIndex + "\" spectraData_ref=\"SD_1\">");
+                    out.println("          <SpectrumIdentificationItem id=\"SII_" + spectrumIndex + "\" calculatedMassToCharge=\"" + mz
+                            + "\" experimentalMassToCharge=\"" + mz + "\" chargeState=\"2\" peptide_ref=\"PEP_" + i + "_" + j
+                            + "\" rank=\"1\" passThreshold=\"true\">");
+                    out.println("            <PeptideEvidenceRef peptideEvidence_ref=\"PE_" + i + "_" + j + "\"/>");
+                    out.println("            <cvParam accession=\"MS:1001328\" name=\"OMSSA:evalue\" cvRef=\"PSI-MS\" value=\"" + random.nextDouble() + "\"/>");
+                    out.println("          </SpectrumIdentificationItem>");
+                    out.println("        </SpectrumIdentificationResult>");
+                    spectrumIndex++;
+                }
+            }
+            out.println("      </SpectrumIdentificationList>");
+            out.println("    </AnalysisData>");
+            out.println("  </DataCollection>");
+            out.println("</MzIdentML>");
+        } finally {
+            close(out, file);
+        }
+    }
+
+    /**
+     * Write a PRIDE XML file with gel free identifications, each peptide references its own spectrum.
+     *
+     * @param file               output file
+     * @param numberOfProteins   number of proteins
+     * @param peptidesPerProtein number of peptides per protein
+     * @param numberOfPeaks      number of peaks per spectrum
+     * @throws IOException if the file could not be written
+     */
+    public void writePrideXml(File file, int numberOfProteins, int peptidesPerProtein, int numberOfPeaks) throws IOException {
+        Random random = new Random(seed);
+        String[] proteins = randomProteins(random, numberOfProteins);
+        int numberOfSpectra = numberOfProteins * peptidesPerProtein;
+
+        PrintWriter out = createWriter(file);
+        try {
+            out.println("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            out.println("<ExperimentCollection version=\"2.1\">");
+            out.println("  <Experiment>");
+            out.println("    <ExperimentAccession>1</ExperimentAccession>");
+            out.println("    <Title>Synthetic experiment</Title>");
+            out.println("    <ShortLabel>synthetic</ShortLabel>");
+            out.println("    <Protocol>");
+            out.println("      <ProtocolName>Synthetic protocol</ProtocolName>");
+            out.println("    </Protocol>");
+            out.println("    <mzData version=\"1.05\" accessionNumber=\"1\">");
+            out.println("      <cvLookup cvLabel=\"PSI\" fullName=\"The PSI Ontology\" version=\"1.0.0\" address=\"http://psidev.sourceforge.net/ontology/\"/>");
+            out.println("      <description>");
+            out.println("        <admin>");
+            out.println("          <sampleName>synthetic</sampleName>");
+            out.println("          <contact>");
+            out.println("            <name>synthetic</name>");
+            out.println("            <institution>synthetic</institution>");
+            out.println("          </contact>");
+            out.println("        </admin>");
+            out.println("        <instrument>");
+            out.println("          <instrumentName>synthetic</instrumentName>");
+            out.println("          <source>");
+            out.println("            <cvParam cvLabel=\"PSI\" accession=\"PSI:1000073\" name=\"Electrospray Ionization\"/>");
+            out.println("          </source>");
+            out.println("          <analyzerList count=\"1\">");
+            out.println("            <analyzer>");
+            out.println("              <cvParam cvLabel=\"PSI\" accession=\"PSI:1000264\" name=\"Ion Trap\"/>");
+            out.println("            </analyzer>");
+            out.println("          </analyzerList>");
+            out.println("          <detector>");
+            out.println("            <cvParam cvLabel=\"PSI\" accession=\"PSI:1000111\" name=\"Electron Multiplier Tube\"/>");
+            out.println("          </detector>");
+            out.println("        </instrument>");
+            out.println("        <dataProcessing>");
+            out.println("          <software>");
+            out.println("            <name>synthetic</name>");
+            out.println("            <version>1.0</version>");
+            out.println("          </software>");
+            out.println("        </dataProcessing>");
+            out.println("      </description>");
+            out.println("      <spectrumList count=\"" + numberOfSpectra + "\">");
+            for (int i = 1; i <= numberOfSpectra; i++) {
+                double[] mz = randomMz(random, numberOfPeaks);
+                double[] intensity = randomIntensity(random, numberOfPeaks);
+                out.println("        <spectrum id=\"" + i + "\">");
+                out.println("          <spectrumDesc>");
+                out.println("            <spectrumSettings>");
+                out.println("              <spectrumInstrument mzRangeStart=\"" + mz[0] + "\" mzRangeStop=\"" + mz[numberOfPeaks - 1] + "\" msLevel=\"2\"/>");
+                out.println("            </spectrumSettings>");
+                out.println("            <precursorList count=\"1\">");
+                out.println("              <precursor msLevel=\"1\" spectrumRef=\"0\">");
+                out.println("                <ionSelection>");
+                out.println("                  <cvParam cvLabel=\"PSI\" accession=\"PSI:1000041\" name=\"ChargeState\" value=\"2\"/>");
+                out.println("                  <cvParam cvLabel=\"PSI\" accession=\"PSI:1000040\" name=\"MassToChargeRatio\" value=\"" + precursorMz(random) + "\"/>");
+                out.println("                </ionSelection>");
+                out.println("                <activation/>");
+                out.println("              </precursor>");
+                out.println("            </precursorList>");
+                out.println("          </spectrumDesc>");
+                out.println("          <mzArrayBinary>");
+                out.println("            <data precision=\"64\" endian=\"little\" length=\"" + numberOfPeaks + "\">" + encode(mz, true, false) + "</data>");
+                out.println("          </mzArrayBinary>");
+                out.println("          <intenArrayBinary>");
+                out.println("            <data precision=\"64\" endian=\"little\" length=\"" + numberOfPeaks + "\">" + encode(intensity, true, false) + "</data>");
+                out.println("          </intenArrayBinary>");
+                out.println("        </spectrum>");
+            }
+            out.println("      </spectrumList>");
+            out.println("    </mzData>");
+
+            int spectrumReference = 1;
+            for (int i = 0; i < numberOfProteins; i++) {
+                out.println("    <GelFreeIdentification>");
+                out.println("      <Accession>SYN" + i + "</Accession>");
+                out.println("      <Database>synthetic</Database>");
+                for (int j = 0; j < peptidesPerProtein; j++) {
+                    int start = peptideStart(j, peptidesPerProtein);
+                    out.println("      <PeptideItem>");
+                    out.println("        <Sequence>" + proteins[i].substring(start, start + PEPTIDE_LENGTH) + "</Sequence>");
+                    out.println("        <Start>" + (start + 1) + "</Start>");
+                    out.println("        <End>" + (start + PEPTIDE_LENGTH) + "</End>");
+                    out.println("        <SpectrumReference>" + (spectrumReference++) + "</SpectrumReference>");
+                    out.println("      </PeptideItem>");
+                }
+                out.println("      <SearchEngine>synthetic</SearchEngine>");
+                out.println("    </GelFreeIdentification>");
+            }
+            out.println("  </Experiment>");
+            out.println("</ExperimentCollection>");
+        } finally {
+            close(out, file);
+        }
+    }
+
+    private static PrintWriter createWriter(File file) throws IOException {
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"), 1 << 16));
+    }
+
+    private static void close(PrintWriter out, File file) throws IOException {
+        out.close();
+        if (out.checkError()) {
+            throw new IOException("Failed to write synthetic file: " + file.getAbsolutePath());
+        }
+    }
+
+    private static String[] randomProteins(Random random, int numberOfProteins) {
+        String[] proteins = new String[numberOfProteins];
+        char[] sequence = new char[PROTEIN_LENGTH];
+        for (int i = 0; i < numberOfProteins; i++) {
+            for (int j = 0; j < PROTEIN_LENGTH; j++) {
+                sequence[j] = AMINO_ACIDS.charAt(random.nextInt(AMINO_ACIDS.length()));
+            }
+            proteins[i] = new String(sequence);
+        }
+        return proteins;
+    }
+
+    /**
+     * Peptides of a protein are spread over the protein sequence, they may overlap if there are many
+     */
+    private static int peptideStart(int peptide, int peptidesPerProtein) {
+        return (peptide * (PROTEIN_LENGTH - PEPTIDE_LENGTH)) / Math.max(1, peptidesPerProtein);
+    }
+
+    private static double[] randomMz(Random random, int numberOfPeaks) {
+        double[] mz = new double[numberOfPeaks];
+        double value = 100;
+        for (int i = 0; i < numberOfPeaks; i++) {
+            value += 0.01 + random.nextDouble() * 10;
+            mz[i] = value;
+        }
+        return mz;
+    }
+
+    private static double[] randomIntensity(Random random, int numberOfPeaks) {
+        double[] intensity = new double[numberOfPeaks];
+        for (int i = 0; i < numberOfPeaks; i++) {
+            intensity[i] = random.nextDouble() * 10000;
+        }
+        return intensity;
+    }
+
+    private static String precursorMz(Random random) {
+        return String.valueOf(400 + random.nextDouble() * 1200);
+    }
+
+    /**
+     * Base64 encoded little endian values, optionally zlib compressed
+     */
+    private static String encode(double[] values, boolean doublePrecision, boolean compressed) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * (doublePrecision ? 8 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+        for (double value : values) {
+            if (doublePrecision) {
+                buffer.putDouble(value);
+            } else {
+                buffer.putFloat((float) value);
+            }
+        }
+        byte[] bytes = compressed ? BinaryDataUtils.compress(buffer.array()) : buffer.array();
+        try {
+            return new String(Base64.encodeBase64(bytes), "US-ASCII");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package uk.ac.ebi.pride.data.controller.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Date: 17/10/2026
+ */
+public class ConcurrentCacheAccessorTest {
+
+    private static final long VALUE_WEIGHT = 1024 * 1024;
+
+    private ConcurrentCacheAccessor cache;
+
+    @Before
+    public void setUp() throws Exception {
+        // every value weighs 1MB, so the 64MB spectrum budget holds 64 spectra
+        cache = new ConcurrentCacheAccessor(new CacheWeigher() {
+            @Override
+            public long weigh(Object key, Object value) {
+                return VALUE_WEIGHT;
+            }
+        }, 4);
+    }
+
+    @Test
+    public void testStoreAndGet() throws Exception {
+        cache.store(CacheEntry.MS_LEVEL, "spectrum1", 2);
+        cache.store(CacheEntry.PROTEIN_TO_PEPTIDE, "protein1");
+        cache.storeInBatch(CacheEntry.SPECTRUM_ID, Arrays.asList("spectrum1", "spectrum2"));
+        cache.store(CacheEntry.SPECTRUM_ID, "spectrum3");
+
+        assertEquals(2, cache.get(CacheEntry.MS_LEVEL, "spectrum1"));
+        assertNull(cache.get(CacheEntry.MS_LEVEL, "spectrum2"));
+        assertTrue(cache.hasCacheEntry(CacheEntry.PROTEIN_TO_PEPTIDE));
+        assertNull(cache.get(CacheEntry.PROTEIN_TO_PEPTIDE, "protein1"));
+        assertTrue(((Map) cache.get(CacheEntry.PROTEIN_TO_PEPTIDE)).containsKey("protein1"));
+        assertEquals(Arrays.asList("spectrum1", "spectrum2", "spectrum3"), cache.get(CacheEntry.SPECTRUM_ID));
+
+        assertEquals(1, cache.getStatistics(CacheEntry.MS_LEVEL).getHitCount());
+        assertEquals(1, cache.getStatistics(CacheEntry.MS_LEVEL).getMissCount());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterStores() throws Exception {
+        cache.storeInBatch(CacheEntry.SPECTRUM_ID, Arrays.asList("spectrum1", "spectrum2"));
+        Collection ids = (Collection) cache.get(CacheEntry.SPECTRUM_ID);
+
+        for (int i = 3; i < 100; i++) {
+            cache.store(CacheEntry.SPECTRUM_ID, "spectrum" + i);
+        }
+
+        assertEquals(2, ids.size());
+        assertEquals(99, ((Collection) cache.get(CacheEntry.SPECTRUM_ID)).size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testViewsAreReadOnly() throws Exception {
+        cache.store(CacheEntry.SPECTRUM_ID, "spectrum1");
+        ((List) cache.get(CacheEntry.SPECTRUM_ID)).add("spectrum2");
+    }
+
+    @Test
+    public void testEvictionAgainstHeapBudget() throws Exception {
+        long budget = CacheEntry.SPECTRUM.getMaxWeight();
+        int capacity = (int) (budget / VALUE_WEIGHT);
+
+        for (int i = 0; i < capacity * 2; i++) {
+            cache.store(CacheEntry.SPECTRUM, i, "spectrum" + i);
+        }
+
+        CacheStatistics statistics = cache.getStatistics(CacheEntry.SPECTRUM);
+        assertTrue(statistics.getWeight() <= budget);
+        assertEquals(capacity, statistics.getEvictionCount());
+        assertEquals(capacity, ((Map) cache.get(CacheEntry.SPECTRUM)).size());
+        // the most recent value is always kept
+        assertEquals("spectrum" + (capacity * 2 - 1), cache.get(CacheEntry.SPECTRUM, capacity * 2 - 1));
+    }
+
+    @Test
+    public void testOversizedValueIsKept() throws Exception {
+        ConcurrentCacheAccessor smallCache = new ConcurrentCacheAccessor(new CacheWeigher() {
+            @Override
+            public long weigh(Object key, Object value) {
+                return Long.MAX_VALUE / 4;
+            }
+        }, 2);
+
+        smallCache.store(CacheEntry.PROTEIN, "protein1", "first");
+        smallCache.store(CacheEntry.PROTEIN, "protein2", "second");
+
+        assertNull(smallCache.get(CacheEntry.PROTEIN, "protein1"));
+        assertEquals("second", smallCache.get(CacheEntry.PROTEIN, "protein2"));
+    }
+
+    @Test
+    public void testConcurrentReadsAndWrites() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<Future<?>>();
+
+        for (int t = 0; t < 8; t++) {
+            final int thread = t;
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        cache.store(CacheEntry.SPECTRUM_ID, thread + "_" + i);
+                        cache.store(CacheEntry.NUMBER_OF_PEAKS, thread + "_" + i, i);
+                        cache.store(CacheEntry.PEPTIDE, thread + "_" + i, i);
+                        for (Object id : (Collection) cache.get(CacheEntry.SPECTRUM_ID)) {
+                            assertNotNull(id);
+                        }
+                        cache.get(CacheEntry.PEPTIDE, thread + "_" + (i / 2));
+                    }
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        assertEquals(8000, ((Collection) cache.get(CacheEntry.SPECTRUM_ID)).size());
+        assertEquals(8000, ((Map) cache.get(CacheEntry.NUMBER_OF_PEAKS)).size());
+        assertTrue(cache.getStatistics(CacheEntry.PEPTIDE).getWeight() <= CacheEntry.PEPTIDE.getMaxWeight());
+    }
+}
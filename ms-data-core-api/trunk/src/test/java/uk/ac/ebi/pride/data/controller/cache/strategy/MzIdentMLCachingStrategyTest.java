@@ -0,0 +1,140 @@
+package uk.ac.ebi.pride.data.controller.cache.strategy;
+
+import org.junit.Test;
+import uk.ac.ebi.pride.data.controller.cache.CacheEntry;
+import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.MzIdentMLControllerImpl;
+import uk.ac.ebi.pride.data.core.ExperimentStatistics;
+import uk.ac.ebi.pride.data.io.file.MzIdentMLPrescanner;
+import uk.ac.ebi.pride.data.io.file.MzIdentMLUnmarshallerAdaptor;
+
+import javax.naming.ConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * Build the id caches of an mzIdentML file with the parallel prescan, and again reading the elements
+ * one by one, the two must be the same.
+ * <p/>
+ * Both read the spectrum identification items of a result in document order.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class MzIdentMLCachingStrategyTest {
+
+    private static final CacheEntry[] ID_ENTRIES = {
+            CacheEntry.SPECTRADATA_TO_SPECTRUMIDS,
+            CacheEntry.PEPTIDE_TO_SPECTRUM,
+            CacheEntry.PROTEIN_TO_PEPTIDE_EVIDENCES,
+            CacheEntry.PROTEIN_ID,
+            CacheEntry.PROTEIN_GROUP_ID
+    };
+
+    @Test
+    public void testPrescanIdMaps() throws Exception {
+        assertSameCaches("55merge_mascot_full.mzid", true);
+    }
+
+    @Test
+    public void testProteinGroups() throws Exception {
+        assertSameCaches("small.mzid", false);
+    }
+
+    private void assertSameCaches(String resource, boolean avoidProteinInference) throws Exception {
+        URL url = MzIdentMLCachingStrategyTest.class.getClassLoader().getResource(resource);
+        if (url == null) {
+            throw new IllegalStateException("no file for input found!");
+        }
+        File inputFile = new File(url.toURI());
+
+        OneByOneController controller = new OneByOneController(inputFile, avoidProteinInference);
+        try {
+            Map<CacheEntry, Object> parallel = getIdCaches(controller);
+            ExperimentStatistics parallelStatistics = (ExperimentStatistics) controller.getCache().get(CacheEntry.EXPERIMENT_STATISTICS);
+
+            controller.readOneByOne();
+            Map<CacheEntry, Object> oneByOne = getIdCaches(controller);
+            ExperimentStatistics oneByOneStatistics = (ExperimentStatistics) controller.getCache().get(CacheEntry.EXPERIMENT_STATISTICS);
+
+            assertFalse("The file should have been prescanned", parallel.isEmpty());
+            for (CacheEntry entry : ID_ENTRIES) {
+                assertEquals("Cache entry " + entry, parallel.get(entry), oneByOne.get(entry));
+            }
+
+            // the one by one read does not read the rank and charge state of the items, so only these are compared
+            assertEquals(parallelStatistics.getNumberOfProteins(), oneByOneStatistics.getNumberOfProteins());
+            assertEquals(parallelStatistics.getNumberOfIdentifiedSpectra(), oneByOneStatistics.getNumberOfIdentifiedSpectra());
+        } finally {
+            controller.close();
+        }
+    }
+
+    /**
+     * The id caches, with the arrays replaced by lists so they can be compared
+     */
+    private static Map<CacheEntry, Object> getIdCaches(MzIdentMLControllerImpl controller) {
+        Map<CacheEntry, Object> caches = new HashMap<CacheEntry, Object>();
+        for (CacheEntry entry : ID_ENTRIES) {
+            Object value = controller.getCache().get(entry);
+            if (value != null) {
+                caches.put(entry, comparable(value));
+            }
+        }
+        return caches;
+    }
+
+    private static Object comparable(Object value) {
+        if (value instanceof Map) {
+            Map<Object, Object> map = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> mapEntry : ((Map<?, ?>) value).entrySet()) {
+                map.put(mapEntry.getKey(), comparable(mapEntry.getValue()));
+            }
+            return map;
+        } else if (value instanceof Object[]) {
+            return Arrays.asList((Object[]) value);
+        } else if (value instanceof Collection) {
+            return new ArrayList<Object>((Collection<?>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Controller which builds its caches with the parallel prescan, and with the one by one read after readOneByOne
+     */
+    private static class OneByOneController extends MzIdentMLControllerImpl {
+
+        private final boolean avoidProteinInference;
+
+        private MzIdentMLUnmarshallerAdaptor oneByOneUnmarshaller;
+
+        private OneByOneController(File file, boolean avoidProteinInference) {
+            super(file, true, avoidProteinInference);
+            this.avoidProteinInference = avoidProteinInference;
+        }
+
+        private void readOneByOne() throws ConfigurationException {
+            oneByOneUnmarshaller = new FailingPrescanUnmarshaller((File) getSource(), avoidProteinInference);
+            populateCache();
+        }
+
+        @Override
+        public MzIdentMLUnmarshallerAdaptor getUnmarshaller() {
+            return oneByOneUnmarshaller == null ? super.getUnmarshaller() : oneByOneUnmarshaller;
+        }
+    }
+
+    private static class FailingPrescanUnmarshaller extends MzIdentMLUnmarshallerAdaptor {
+
+        private FailingPrescanUnmarshaller(File file, boolean avoidProteinInference) throws ConfigurationException {
+            super(file, true, avoidProteinInference);
+        }
+
+        @Override
+        public List<MzIdentMLPrescanner.ScannedResult> prescanSpectrumIdentificationResults(List<String> spectrumIdentResultIds) throws IOException {
+            throw new IOException("Parallel prescan disabled");
+        }
+    }
+}
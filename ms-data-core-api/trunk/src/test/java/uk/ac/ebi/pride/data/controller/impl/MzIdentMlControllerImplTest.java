@@ -128,6 +128,25 @@ public class MzIdentMlControllerImplTest {
         assertEquals("The id of the first identification should be PDH_psu|NC_LIV_020800_0",identifications.get(0).toString(),"PDH_psu|NC_LIV_020800_0");
    }
 
+    @Test
+    public void testGetExperimentStatistics() throws DataAccessException {
+        ExperimentStatistics statistics = mzIdentMlController.getExperimentStatistics();
+        assertEquals("The number of proteins should match the protein ids", mzIdentMlController.getProteinIds().size(), statistics.getNumberOfProteins());
+
+        int numOfPeptides = 0;
+        for (Comparable id : mzIdentMlController.getProteinIds()) {
+            numOfPeptides += mzIdentMlController.getPeptideIds(id).size();
+        }
+        assertEquals("The number of peptides should match the peptide ids", numOfPeptides, statistics.getNumberOfPeptides());
+
+        int numOfRankedPeptides = 0;
+        for (Integer cnt : statistics.getPeptideRankDistribution().values()) {
+            numOfRankedPeptides += cnt;
+        }
+        assertEquals("Every peptide should have a rank", numOfPeptides, numOfRankedPeptides);
+        assertEquals("Peptides by rank should come from the statistics", statistics.getNumberOfPeptidesByRank(1), mzIdentMlController.getNumberOfPeptidesByRank(1));
+    }
+
    @Test
    public void getIdentificationbyId() throws DataAccessException{
        List<Comparable> identificationIds = new ArrayList<Comparable>(mzIdentMlController.getProteinIds());
@@ -5,12 +5,17 @@ import org.junit.Before;
 import org.junit.Test;
 import uk.ac.ebi.pride.data.controller.impl.ControllerImpl.MzIdentMLControllerImpl;
 import uk.ac.ebi.pride.data.core.Spectrum;
+import uk.ac.ebi.pride.data.utils.SpectrumReferenceResolver;
 
 import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -54,5 +59,32 @@ public class MzIdentMlMSControllerImplTest {
         int j = mzIdentMlController.getNumberOfSpectra();
     }
 
+    @Test
+    public void resolveSpectrumReferences() throws Exception {
+        URL url = MzIdentMlControllerImplTest.class.getClassLoader().getResource("small.mgf");
+        List<File> fileList = new ArrayList<File>();
+        fileList.add(new File(url.toURI()));
+        mzIdentMlController.addMSController(fileList);
+        assertTrue(mzIdentMlController.getSpectrumReferenceDiagnostics().isEmpty());
+
+        Spectrum spectrum = mzIdentMlController.getSpectrumById("730!SD_1", false);
+        assertNotNull(spectrum);
+        double[] intensities = spectrum.getIntensityBinaryDataArray().getDoubleArray();
+
+        // the position and the title of the same spectrum in the mgf file
+        Spectrum byIndex = mzIdentMlController.getSpectrumById("index=729!SD_1", false);
+        assertArrayEquals(intensities, byIndex.getIntensityBinaryDataArray().getDoubleArray(), 0.0);
+        Spectrum byTitle = mzIdentMlController.getSpectrumById("title=cluster_id=49779,sequence=[TKEVYELLDSPGK]!SD_1", false);
+        assertArrayEquals(intensities, byTitle.getIntensityBinaryDataArray().getDoubleArray(), 0.0);
+        assertTrue(mzIdentMlController.getSpectrumReferenceDiagnostics().isEmpty());
+
+        assertNull(mzIdentMlController.getSpectrumById("title=unknown!SD_1", false));
+        List<SpectrumReferenceResolver.Diagnostic> diagnostics = mzIdentMlController.getSpectrumReferenceDiagnostics();
+        assertEquals(1, diagnostics.size());
+        assertEquals(SpectrumReferenceResolver.Diagnostic.Type.SPECTRUM_NOT_FOUND, diagnostics.get(0).getType());
+        assertEquals("SD_1", diagnostics.get(0).getSpectraDataId());
+        assertEquals("title=unknown", diagnostics.get(0).getReference());
+    }
+
 
 }
@@ -0,0 +1,100 @@
+package uk.ac.ebi.pride.data.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class ExperimentStatisticsTest {
+
+    @Test
+    public void testSpectrumStatistics() throws Exception {
+        ExperimentStatistics statistics = new ExperimentStatistics.Collector()
+                .addSpectrum(1, null, false)
+                .addSpectrum(2, 2, true)
+                .addSpectrum(2, 3, false)
+                .addSpectrum(2, 2, true)
+                .addSpectrum(-1, 0, false)
+                .build();
+
+        assertTrue(statistics.hasSpectrumStatistics());
+        assertFalse(statistics.hasPeptideStatistics());
+        assertEquals(5, statistics.getNumberOfSpectra());
+        assertEquals(2, statistics.getNumberOfIdentifiedSpectra());
+        assertEquals(1, statistics.getNumberOfSpectraByMsLevel(1));
+        assertEquals(3, statistics.getNumberOfSpectraByMsLevel(2));
+        assertEquals(0, statistics.getNumberOfSpectraByMsLevel(3));
+        assertEquals(1, statistics.getNumberOfSpectraByMsLevel(-1));
+
+        Map<Integer, Integer> charges = statistics.getSpectrumPrecursorChargeDistribution();
+        assertEquals(Arrays.asList(0, 2, 3), Arrays.asList(charges.keySet().toArray()));
+        assertEquals(2, (int) charges.get(0));
+        assertEquals(2, (int) charges.get(2));
+
+        // peptides have not been counted
+        assertEquals(-1, statistics.getNumberOfPeptides());
+        assertEquals(-1, statistics.getNumberOfPeptidesByRank(1));
+        assertTrue(statistics.getPeptideRankDistribution().isEmpty());
+    }
+
+    @Test
+    public void testPeptideStatistics() throws Exception {
+        ExperimentStatistics statistics = new ExperimentStatistics.Collector()
+                .setNumberOfProteins(2)
+                .addPeptide(1, 2)
+                .addPeptide(1, 3)
+                .addPeptides(2, 2, 3)
+                .addPeptides(3, null, 0)
+                .build();
+
+        assertTrue(statistics.hasPeptideStatistics());
+        assertFalse(statistics.hasSpectrumStatistics());
+        assertEquals(2, statistics.getNumberOfProteins());
+        assertEquals(5, statistics.getNumberOfPeptides());
+        assertEquals(2, statistics.getNumberOfPeptidesByRank(1));
+        assertEquals(3, statistics.getNumberOfPeptidesByRank(2));
+        assertEquals(0, statistics.getNumberOfPeptidesByRank(3));
+        assertEquals(4, (int) statistics.getPeptidePrecursorChargeDistribution().get(2));
+        assertEquals(-1, statistics.getNumberOfSpectra());
+    }
+
+    @Test
+    public void testEmptyCounts() throws Exception {
+        ExperimentStatistics statistics = new ExperimentStatistics.Collector().startSpectra().startPeptides().build();
+        assertEquals(0, statistics.getNumberOfSpectra());
+        assertEquals(0, statistics.getNumberOfIdentifiedSpectra());
+        assertEquals(0, statistics.getNumberOfPeptides());
+        assertEquals(0, statistics.getNumberOfPeptidesByRank(1));
+
+        assertFalse(ExperimentStatistics.EMPTY.hasSpectrumStatistics());
+        assertFalse(ExperimentStatistics.EMPTY.hasPeptideStatistics());
+    }
+
+    @Test
+    public void testCompleteStatistics() throws Exception {
+        ExperimentStatistics peptides = new ExperimentStatistics.Collector()
+                .setNumberOfIdentifiedSpectra(10)
+                .addPeptides(1, 2, 4)
+                .build();
+
+        ExperimentStatistics statistics = new ExperimentStatistics.Collector(peptides)
+                .addSpectrum(2, 2, true)
+                .addSpectrum(2, 2, false)
+                .build();
+
+        // peptides are kept, the streamed spectra replace the identified spectrum count
+        assertEquals(4, statistics.getNumberOfPeptidesByRank(1));
+        assertEquals(2, statistics.getNumberOfSpectra());
+        assertEquals(1, statistics.getNumberOfIdentifiedSpectra());
+        // the original statistics are not changed
+        assertEquals(10, peptides.getNumberOfIdentifiedSpectra());
+        assertFalse(peptides.hasSpectrumStatistics());
+    }
+}
@@ -0,0 +1,230 @@
+package uk.ac.ebi.pride.data.io.db;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import uk.ac.ebi.pride.data.core.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Loads the identifications from an embedded H2 database with a subset of the PRIDE public schema.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PrideDBIdentificationLoaderTest {
+
+    private static final String EXPERIMENT_ACC = "1001";
+
+    private static int databaseCount = 0;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() throws Exception {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:pride" + (databaseCount++) + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("RUNSCRIPT FROM 'classpath:db/pride-schema.sql'");
+        jdbcTemplate.execute("RUNSCRIPT FROM 'classpath:db/pride-fixture.sql'");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testLoadExperiment() throws Exception {
+        PrideDBIdentificationGraph graph = new PrideDBIdentificationLoader(jdbcTemplate).load(EXPERIMENT_ACC);
+
+        assertEquals(Arrays.<Comparable>asList(101L, 102L), graph.getIdentificationIds());
+
+        Protein gelFree = graph.getProtein(101L, null);
+        assertEquals(101L, gelFree.getId());
+        assertEquals("P12345", gelFree.getDbSequence().getAccession());
+        assertEquals(0.05, gelFree.getThreshold(), 1e-9);
+        assertEquals(0.32, gelFree.getSequenceCoverage(), 1e-9);
+        assertNull(gelFree.getGel());
+        assertEquals(1, gelFree.getCvParams().size());
+        assertEquals(1, gelFree.getUserParams().size());
+
+        List<Peptide> peptides = gelFree.getPeptides();
+        assertEquals(2, peptides.size());
+        assertEquals("PEPTIDEK", peptides.get(0).getSequence());
+        assertEquals(Integer.valueOf(10), peptides.get(0).getPeptideEvidence().getStartPosition());
+        assertEquals("501", graph.getSpectrumId(201L));
+        assertNull(graph.getSpectrumId(202L));
+
+        // fragment ions have six generated cv params plus their own cv params
+        List<FragmentIon> fragmentIons = peptides.get(0).getFragmentation();
+        assertEquals(2, fragmentIons.size());
+        assertEquals(7, fragmentIons.get(0).getCvParams().size());
+        assertEquals(6, fragmentIons.get(1).getCvParams().size());
+
+        List<Modification> modifications = peptides.get(1).getModifications();
+        assertEquals(2, modifications.size());
+        Modification oxidation = modifications.get(0);
+        assertEquals("MOD:00719", oxidation.getId());
+        assertEquals(1, oxidation.getLocation());
+        assertEquals(Arrays.asList(15.994915), oxidation.getMonoisotopicMassDelta());
+        assertEquals(Arrays.asList(15.9994), oxidation.getAvgMassDelta());
+        assertEquals(1, oxidation.getCvParams().size());
+        assertTrue(modifications.get(1).getAvgMassDelta().isEmpty());
+
+        Protein twoDimensional = graph.getProtein("102", null);
+        assertEquals(-1, twoDimensional.getThreshold(), 0);
+        Gel gel = twoDimensional.getGel();
+        assertEquals("http://www.example.org/gel/31", gel.getGelLink());
+        assertEquals(6.1, gel.getPI(), 1e-9);
+        assertEquals(1, gel.getUserParams().size());
+        assertEquals("502", graph.getSpectrumId(203L));
+        assertEquals(1, graph.getPeptideParams(203L).getUserParams().size());
+    }
+
+    @Test
+    public void testLoadIdentification() throws Exception {
+        PrideDBIdentificationGraph graph = new PrideDBIdentificationLoader(jdbcTemplate).load(EXPERIMENT_ACC, 102L);
+
+        assertEquals(Arrays.<Comparable>asList(102L), graph.getIdentificationIds());
+        assertNull(graph.getProtein(101L, null));
+        assertTrue(graph.getModifications(202L).isEmpty());
+        assertEquals(1, graph.getProtein(102L, null).getPeptides().size());
+    }
+
+    @Test
+    public void testLoadBatch() throws Exception {
+        insertExperiment(2004, 10);
+
+        PrideDBIdentificationLoader loader = new PrideDBIdentificationLoader(jdbcTemplate);
+        PrideDBIdentificationGraph all = loader.load(2004);
+        int allQueries = loader.getNumberOfQueries();
+
+        List<Comparable> batch = all.getIdentificationIds().subList(2, 5);
+        PrideDBIdentificationGraph graph = loader.load(2004, batch);
+
+        assertEquals(batch, graph.getIdentificationIds());
+        assertEquals(allQueries, loader.getNumberOfQueries() - allQueries);
+        for (Comparable id : batch) {
+            assertEquals(3, graph.getProtein(id, null).getPeptides().size());
+        }
+        assertNull(graph.getProtein(all.getIdentificationIds().get(0), null));
+
+        // a batch weighs its share of the experiment
+        assertEquals(all.getEstimatedSize() * 3 / 10, graph.getEstimatedSize());
+        assertTrue(loader.load(2004, Collections.<Comparable>emptyList()).getIdentificationIds().isEmpty());
+    }
+
+    @Test
+    public void testUnknownExperiment() throws Exception {
+        PrideDBIdentificationLoader loader = new PrideDBIdentificationLoader(jdbcTemplate);
+        PrideDBIdentificationGraph graph = loader.load("9999");
+
+        assertTrue(graph.getIdentificationIds().isEmpty());
+        assertEquals(1, loader.getNumberOfQueries());
+    }
+
+    @Test
+    public void testNumberOfQueriesIsBounded() throws Exception {
+        insertExperiment(2001, 1);
+        insertExperiment(2002, 200);
+
+        PrideDBIdentificationLoader loader = new PrideDBIdentificationLoader(jdbcTemplate);
+        PrideDBIdentificationGraph small = loader.load(2001);
+        int smallQueries = loader.getNumberOfQueries();
+
+        PrideDBIdentificationGraph large = loader.load(2002);
+        int largeQueries = loader.getNumberOfQueries() - smallQueries;
+
+        assertEquals(1, small.getIdentificationIds().size());
+        assertEquals(200, large.getIdentificationIds().size());
+        assertEquals(smallQueries, largeQueries);
+        assertTrue(largeQueries <= PrideDBIdentificationLoader.MAX_NUMBER_OF_QUERIES);
+
+        // every peptide of the large experiment is fully assembled
+        for (Comparable id : large.getIdentificationIds()) {
+            List<Peptide> peptides = large.getProtein(id, null).getPeptides();
+            assertEquals(3, peptides.size());
+            for (Peptide peptide : peptides) {
+                assertEquals(1, peptide.getModifications().size());
+                assertEquals(2, peptide.getFragmentation().size());
+            }
+            long peptideId = (Long) id + 1;
+            assertEquals(String.valueOf(peptideId), large.getSpectrumId(peptideId));
+        }
+    }
+
+    @Test
+    public void testPeptidesAreServedFromTheGraph() throws Exception {
+        insertExperiment(2003, 50);
+
+        PrideDBIdentificationLoader loader = new PrideDBIdentificationLoader(jdbcTemplate);
+        PrideDBIdentificationGraph graph = loader.load(2003);
+        int loadQueries = loader.getNumberOfQueries();
+        assertTrue(loadQueries <= PrideDBIdentificationLoader.MAX_NUMBER_OF_QUERIES);
+
+        // every peptide with its params, modifications and fragment ions, without another round trip
+        for (Comparable id : graph.getIdentificationIds()) {
+            for (int j = 1; j <= 3; j++) {
+                long peptideId = (Long) id + j;
+                Peptide peptide = graph.getPeptide(id, peptideId, null);
+                assertEquals("PEPTIDEK", peptide.getSequence());
+                assertEquals(1, peptide.getSpectrumIdentification().getCvParams().size());
+                assertEquals(1, peptide.getModifications().size());
+                assertEquals(2, peptide.getFragmentation().size());
+            }
+        }
+        assertEquals(loadQueries, loader.getNumberOfQueries());
+
+        // a peptide is only found under its own identification
+        Comparable first = graph.getIdentificationIds().get(0);
+        Comparable second = graph.getIdentificationIds().get(1);
+        assertNull(graph.getPeptide(second, (Long) first + 1, null));
+    }
+
+    /**
+     * Insert an experiment with the given number of identifications, three peptides per identification,
+     * one modification and two fragment ions per peptide
+     */
+    private void insertExperiment(int experimentId, int numberOfIdentifications) {
+        jdbcTemplate.update("INSERT INTO mzdata_mz_data (mz_data_id, accession_number) VALUES (?, ?)", experimentId, String.valueOf(experimentId));
+        jdbcTemplate.update("INSERT INTO pride_experiment (experiment_id, accession, mz_data_id) VALUES (?, ?, ?)", experimentId, String.valueOf(experimentId), experimentId);
+
+        long base = experimentId * 100000L;
+        for (int i = 0; i < numberOfIdentifications; i++) {
+            long identificationId = base + i * 10;
+            jdbcTemplate.update("INSERT INTO pride_identification (identification_id, experiment_id, accession_number, classname) VALUES (?, ?, ?, ?)",
+                    identificationId, experimentId, "P" + i, "uk.ac.ebi.pride.rdbms.ojb.model.core.GelFreeIdentificationBean");
+            jdbcTemplate.update("INSERT INTO pride_identification_param (parent_element_fk, cv_label, accession, name, value) VALUES (?, 'PRIDE', 'PRIDE:0000186', 'ProteinInferenceResult', 'protein')",
+                    identificationId);
+            for (int j = 1; j <= 3; j++) {
+                long peptideId = identificationId + j;
+                jdbcTemplate.update("INSERT INTO mzdata_spectrum (spectrum_id, spectrum_identifier, ms_level, mz_data_id) VALUES (?, ?, 2, ?)",
+                        peptideId, peptideId, experimentId);
+                jdbcTemplate.update("INSERT INTO pride_peptide (peptide_id, identification_id, sequence, spectrum_ref) VALUES (?, ?, 'PEPTIDEK', ?)",
+                        peptideId, identificationId, peptideId);
+                jdbcTemplate.update("INSERT INTO pride_peptide_param (parent_element_fk, cv_label, accession, name, value) VALUES (?, 'PRIDE', 'PRIDE:0000069', 'Mascot Score', '42.0')",
+                        peptideId);
+                jdbcTemplate.update("INSERT INTO pride_modification (modification_id, peptide_id, accession, location) VALUES (?, ?, 'MOD:00719', 1)",
+                        peptideId, peptideId);
+                jdbcTemplate.update("INSERT INTO pride_mass_delta (modification_id, mass_delta_value, classname) VALUES (?, 15.994915, ?)",
+                        peptideId, PrideDBIdentificationLoader.MONO_MASS_DELTA);
+                jdbcTemplate.update("INSERT INTO pride_modification_param (parent_element_fk, cv_label, accession, name, value) VALUES (?, 'MOD', 'MOD:00719', 'L-methionine sulfoxide', NULL)",
+                        peptideId);
+                for (int k = 0; k < 2; k++) {
+                    long fragmentIonId = peptideId * 10 + k;
+                    jdbcTemplate.update("INSERT INTO pride_fragment_ion (fragment_ion_id, peptide_id, mz, intensity, ion_charge) VALUES (?, ?, 100.0, 10.0, 1)",
+                            fragmentIonId, peptideId);
+                    jdbcTemplate.update("INSERT INTO pride_fragment_ion_param (parent_element_fk, cv_label, accession, name, value) VALUES (?, 'PRIDE', 'PRIDE:0000190', 'product ion type', 'b')",
+                            fragmentIonId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Read generated elements with different gaps and range sizes, the xml must always be the same
+ * and in the order of the requested offsets.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class ElementRangeReaderTest {
+
+    private static final int NUMBER_OF_ELEMENTS = 200;
+
+    private File file;
+
+    private final List<String> elements = new ArrayList<String>();
+    private long[] starts;
+    private long[] stops;
+
+    @Before
+    public void setUp() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<SpectrumIdentificationList>\n".getBytes("UTF-8"));
+
+        starts = new long[NUMBER_OF_ELEMENTS];
+        stops = new long[NUMBER_OF_ELEMENTS];
+        for (int i = 0; i < NUMBER_OF_ELEMENTS; i++) {
+            // multi-byte characters, the offsets are byte offsets
+            String element = "<SpectrumIdentificationItem id=\"SII_" + i + "\" name=\"éè " + i + "\"/>";
+            starts[i] = bytes.size();
+            bytes.write(element.getBytes("UTF-8"));
+            stops[i] = bytes.size();
+            elements.add(element);
+            // a gap growing with the position
+            for (int j = 0; j < i; j++) {
+                bytes.write(' ');
+            }
+            bytes.write('\n');
+        }
+        bytes.write("</SpectrumIdentificationList>\n".getBytes("UTF-8"));
+
+        file = File.createTempFile("ranges", ".mzid");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(bytes.toByteArray());
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testRead() throws Exception {
+        // shuffled, with duplicates
+        Random random = new Random(3);
+        int size = NUMBER_OF_ELEMENTS * 2;
+        int[] positions = new int[size];
+        long[] requestedStarts = new long[size];
+        long[] requestedStops = new long[size];
+        for (int i = 0; i < size; i++) {
+            positions[i] = random.nextInt(NUMBER_OF_ELEMENTS);
+            requestedStarts[i] = starts[positions[i]];
+            requestedStops[i] = stops[positions[i]];
+        }
+
+        int[][] settings = {{0, 1}, {0, 1000000}, {50, 1000000}, {1000000, 1000000}, {1000000, 300}};
+        for (int[] setting : settings) {
+            List<String> xml = new ElementRangeReader(file, setting[0], setting[1]).read(requestedStarts, requestedStops);
+            assertEquals(size, xml.size());
+            for (int i = 0; i < size; i++) {
+                assertEquals(elements.get(positions[i]), xml.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void testNumberOfReads() throws Exception {
+        ElementRangeReader reader = new ElementRangeReader(file, 1000000, 1000000);
+        reader.read(starts, stops);
+        assertEquals(1, reader.getNumberOfReads());
+
+        // the first two elements are separated by a single new line
+        reader = new ElementRangeReader(file, 1, 1000000);
+        reader.read(starts, stops);
+        assertEquals(NUMBER_OF_ELEMENTS - 1, reader.getNumberOfReads());
+    }
+
+    @Test
+    public void testCoalesce() throws Exception {
+        long[] rangeStarts = {100, 0, 10, 50, 10};
+        long[] rangeStops = {110, 10, 20, 60, 20};
+
+        List<int[]> ranges = ElementRangeReader.coalesce(rangeStarts, rangeStops, 0, 1000);
+        assertEquals(3, ranges.size());
+        assertTrue(Arrays.equals(new int[]{1, 2, 4}, ranges.get(0)));
+        assertTrue(Arrays.equals(new int[]{3}, ranges.get(1)));
+        assertTrue(Arrays.equals(new int[]{0}, ranges.get(2)));
+
+        assertEquals(1, ElementRangeReader.coalesce(rangeStarts, rangeStops, 40, 1000).size());
+        // a range is never larger than the maximum, unless it has a single element
+        assertEquals(5, ElementRangeReader.coalesce(rangeStarts, rangeStops, 1000, 5).size());
+        assertEquals(2, ElementRangeReader.coalesce(rangeStarts, rangeStops, 1000, 60).size());
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertTrue(new ElementRangeReader(file).read(new long[0], new long[0]).isEmpty());
+        assertTrue(ElementRangeReader.coalesce(new long[0], new long[0], 10, 10).isEmpty());
+    }
+}
@@ -0,0 +1,183 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Scan a generated mzIdentML analysis data section with different numbers of threads and chunk sizes,
+ * the results must always be the same and in the order of the given ids.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class MzIdentMLPrescannerTest {
+
+    private static final int NUMBER_OF_RESULTS = 300;
+
+    private File file;
+
+    private final List<String> resultIds = new ArrayList<String>();
+    private long[] resultStarts;
+    private long[] resultStops;
+
+    private final List<String> evidenceIds = new ArrayList<String>();
+    private long[] evidenceStarts;
+    private long[] evidenceStops;
+
+    @Before
+    public void setUp() throws Exception {
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<MzIdentML>\n<SequenceCollection>\n");
+        List<long[]> evidenceOffsets = new ArrayList<long[]>();
+        for (int i = 0; i < 20; i++) {
+            String id = "PE_" + i;
+            long start = xml.length();
+            xml.append("<PeptideEvidence id=\"").append(id).append("\" peptide_ref=\"pep_").append(i)
+                    .append("\" dBSequence_ref=\"DBSeq_").append(i % 7).append("\">\n<cvParam accession=\"MS:1\"/>\n</PeptideEvidence>");
+            evidenceIds.add(id);
+            evidenceOffsets.add(new long[]{start, xml.length()});
+            xml.append('\n');
+        }
+        xml.append("</SequenceCollection>\n<SpectrumIdentificationList>\n");
+
+        Random random = new Random(7);
+        List<long[]> resultOffsets = new ArrayList<long[]>();
+        for (int r = 0; r < NUMBER_OF_RESULTS; r++) {
+            String id = "SIR_" + r;
+            long start = xml.length();
+            // use a namespace prefix and a comment now and then
+            String prefix = r % 5 == 0 ? "mzid:" : "";
+            xml.append('<').append(prefix).append("SpectrumIdentificationResult spectraData_ref=\"SD_").append(r % 2)
+                    .append("\"\n    spectrumID=\"index=").append(r).append("\" id=\"").append(id).append("\">\n");
+            if (r % 7 == 0) {
+                xml.append("<!-- <SpectrumIdentificationItem id=\"commented\"> -->\n");
+            }
+            int numOfItems = 1 + random.nextInt(3);
+            for (int i = 0; i < numOfItems; i++) {
+                xml.append('<').append(prefix).append("SpectrumIdentificationItem chargeState=\"").append(2 + i)
+                        .append("\" name=\"a > b\" rank=\"").append(i + 1).append("\" id=\"SII_").append(r).append('_').append(i).append("\">\n");
+                int numOfEvidences = random.nextInt(3);
+                for (int e = 0; e < numOfEvidences; e++) {
+                    xml.append("  <").append(prefix).append("PeptideEvidenceRef peptideEvidence_ref='PE_").append((r + e) % 20).append("'/>\n");
+                }
+                xml.append("  <cvParam accession=\"MS:1001171\" value=\"12.3\"/>\n");
+                xml.append("</").append(prefix).append("SpectrumIdentificationItem>\n");
+            }
+            xml.append("<cvParam accession=\"MS:1000796\" value=\"spectrum ").append(r).append("\"/>\n");
+            xml.append("</").append(prefix).append("SpectrumIdentificationResult>");
+            resultIds.add(id);
+            resultOffsets.add(new long[]{start, xml.length()});
+            xml.append('\n');
+        }
+        xml.append("</SpectrumIdentificationList>\n</MzIdentML>\n");
+
+        // the index order is not the document order
+        long seed = 11;
+        Collections.shuffle(resultIds, new Random(seed));
+        Collections.shuffle(resultOffsets, new Random(seed));
+        resultStarts = new long[resultOffsets.size()];
+        resultStops = new long[resultOffsets.size()];
+        for (int i = 0; i < resultOffsets.size(); i++) {
+            resultStarts[i] = resultOffsets.get(i)[0];
+            resultStops[i] = resultOffsets.get(i)[1];
+        }
+        evidenceStarts = new long[evidenceOffsets.size()];
+        evidenceStops = new long[evidenceOffsets.size()];
+        for (int i = 0; i < evidenceOffsets.size(); i++) {
+            evidenceStarts[i] = evidenceOffsets.get(i)[0];
+            evidenceStops[i] = evidenceOffsets.get(i)[1];
+        }
+
+        file = File.createTempFile("prescan", ".mzid");
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(xml.toString().getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testScanResults() throws Exception {
+        List<MzIdentMLPrescanner.ScannedResult> results = new MzIdentMLPrescanner(file, 1, 1000).scanSpectrumIdentificationResults(resultIds, resultStarts, resultStops);
+
+        assertEquals(NUMBER_OF_RESULTS, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            MzIdentMLPrescanner.ScannedResult result = results.get(i);
+            String id = resultIds.get(i);
+            int r = Integer.parseInt(id.substring("SIR_".length()));
+
+            assertEquals(id, result.getId());
+            assertEquals("index=" + r, result.getSpectrumId());
+            assertEquals("SD_" + (r % 2), result.getSpectraDataRef());
+            assertTrue(result.getItems().size() >= 1);
+
+            for (int j = 0; j < result.getItems().size(); j++) {
+                MzIdentMLPrescanner.ScannedItem item = result.getItems().get(j);
+                assertEquals("SII_" + r + "_" + j, item.getId());
+                assertEquals(String.valueOf(j + 1), item.getRank());
+                assertEquals(String.valueOf(2 + j), item.getChargeState());
+                for (String ref : item.getPeptideEvidenceRefs()) {
+                    assertTrue(ref.startsWith("PE_"));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testThreadsAndChunks() throws Exception {
+        String expected = describe(new MzIdentMLPrescanner(file, 1, 1000).scanSpectrumIdentificationResults(resultIds, resultStarts, resultStops));
+
+        int[][] settings = {{1, 1}, {4, 1}, {4, 7}, {8, 64}, {3, 1000}};
+        for (int[] setting : settings) {
+            MzIdentMLPrescanner prescanner = new MzIdentMLPrescanner(file, setting[0], setting[1]);
+            assertEquals(expected, describe(prescanner.scanSpectrumIdentificationResults(resultIds, resultStarts, resultStops)));
+        }
+    }
+
+    @Test
+    public void testScanAttribute() throws Exception {
+        List<String> refs = new MzIdentMLPrescanner(file, 4, 3).scanAttribute(evidenceIds, evidenceStarts, evidenceStops, "dBSequence_ref");
+        assertEquals(evidenceIds.size(), refs.size());
+        for (int i = 0; i < refs.size(); i++) {
+            assertEquals("DBSeq_" + (i % 7), refs.get(i));
+        }
+
+        List<String> missing = new MzIdentMLPrescanner(file, 1, 3).scanAttribute(evidenceIds, evidenceStarts, evidenceStops, "missing");
+        assertNull(missing.get(0));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertTrue(new MzIdentMLPrescanner(file, 4, 10).scanSpectrumIdentificationResults(
+                Collections.<String>emptyList(), new long[0], new long[0]).isEmpty());
+    }
+
+    private static String describe(List<MzIdentMLPrescanner.ScannedResult> results) {
+        StringBuilder description = new StringBuilder();
+        for (MzIdentMLPrescanner.ScannedResult result : results) {
+            description.append(result.getId()).append(',').append(result.getSpectrumId()).append(',').append(result.getSpectraDataRef());
+            for (MzIdentMLPrescanner.ScannedItem item : result.getItems()) {
+                description.append('[').append(item.getId()).append(',').append(item.getRank()).append(',')
+                        .append(item.getChargeState()).append(',').append(item.getPeptideEvidenceRefs()).append(']');
+            }
+            description.append('\n');
+        }
+        return description.toString();
+    }
+}
@@ -0,0 +1,168 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Compare the offset interval index against the nested loop scan which used to
+ * build the mzIdentML id mappings, using generated result/item/evidence layouts.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class OffsetIntervalIndexTest {
+
+    private static final int NUMBER_OF_RESULTS = 500;
+
+    private final List<String> resultIds = new ArrayList<String>();
+    private final List<long[]> resultOffsets = new ArrayList<long[]>();
+
+    private final List<String> itemIds = new ArrayList<String>();
+    private final List<long[]> itemOffsets = new ArrayList<long[]>();
+
+    private final List<String> evidenceRefs = new ArrayList<String>();
+    private final List<long[]> evidenceRefOffsets = new ArrayList<long[]>();
+
+    @Before
+    public void setUp() throws Exception {
+        Random random = new Random(42);
+        long offset = 0;
+
+        for (int r = 0; r < NUMBER_OF_RESULTS; r++) {
+            // random gap between results, e.g. cvParams
+            offset += random.nextInt(50);
+            long resultStart = offset;
+            offset += 10;
+
+            int numberOfItems = random.nextInt(6);
+            for (int i = 0; i < numberOfItems; i++) {
+                long itemStart = offset;
+                offset += 5 + random.nextInt(20);
+
+                int numberOfEvidences = random.nextInt(4);
+                for (int e = 0; e < numberOfEvidences; e++) {
+                    long evidenceStart = offset;
+                    offset += 30;
+                    evidenceRefs.add("PE_" + r + "_" + i + "_" + e);
+                    evidenceRefOffsets.add(new long[]{evidenceStart, offset});
+                    offset += random.nextInt(3);
+                }
+
+                offset += random.nextInt(10);
+                itemIds.add("SII_" + r + "_" + i);
+                itemOffsets.add(new long[]{itemStart, offset});
+            }
+
+            offset += 5;
+            resultIds.add("SIR_" + r);
+            resultOffsets.add(new long[]{resultStart, offset});
+        }
+
+        // the xxindex maps do not guarantee any order
+        long seed = random.nextLong();
+        Collections.shuffle(resultIds, new Random(seed));
+        Collections.shuffle(resultOffsets, new Random(seed));
+        Collections.shuffle(itemIds, new Random(seed));
+        Collections.shuffle(itemOffsets, new Random(seed));
+    }
+
+    @Test
+    public void testResultToItemMappingsMatchNestedScan() throws Exception {
+        OffsetIntervalIndex<String> resultIndex = buildIndex(resultIds, resultOffsets);
+
+        Map<String, Set<String>> indexed = new HashMap<String, Set<String>>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            long[] offsets = itemOffsets.get(i);
+            String resultId = resultIndex.getEnclosing(offsets[0], offsets[1]);
+            if (resultId != null) {
+                Set<String> items = indexed.get(resultId);
+                if (items == null) {
+                    items = new HashSet<String>();
+                    indexed.put(resultId, items);
+                }
+                items.add(itemIds.get(i));
+            }
+        }
+
+        assertEquals(nestedScan(resultIds, resultOffsets, itemIds, itemOffsets), indexed);
+    }
+
+    @Test
+    public void testItemToEvidenceMappingsMatchNestedScan() throws Exception {
+        OffsetIntervalIndex<String> itemIndex = buildIndex(itemIds, itemOffsets);
+
+        long[] starts = new long[evidenceRefs.size()];
+        long[] stops = new long[evidenceRefs.size()];
+        for (int i = 0; i < evidenceRefs.size(); i++) {
+            starts[i] = evidenceRefOffsets.get(i)[0];
+            stops[i] = evidenceRefOffsets.get(i)[1];
+        }
+
+        Map<String, List<String>> grouped = itemIndex.groupChildren(starts, stops, evidenceRefs);
+        Map<String, Set<String>> indexed = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, List<String>> entry : grouped.entrySet()) {
+            indexed.put(entry.getKey(), new HashSet<String>(entry.getValue()));
+        }
+
+        assertEquals(nestedScan(itemIds, itemOffsets, evidenceRefs, evidenceRefOffsets), indexed);
+    }
+
+    @Test
+    public void testOrphanChildren() throws Exception {
+        OffsetIntervalIndex<String> index = new OffsetIntervalIndex.Builder<String>()
+                .add(100, 200, "second")
+                .add(10, 50, "first")
+                .build();
+
+        assertEquals("first", index.getValue(0));
+        assertEquals("first", index.getEnclosing(10, 50));
+        assertEquals("second", index.getEnclosing(150, 160));
+        assertNull(index.getEnclosing(0, 5));
+        assertNull(index.getEnclosing(60, 70));
+        assertNull(index.getEnclosing(190, 210));
+    }
+
+    private OffsetIntervalIndex<String> buildIndex(List<String> ids, List<long[]> offsets) {
+        OffsetIntervalIndex.Builder<String> builder = new OffsetIntervalIndex.Builder<String>();
+        for (int i = 0; i < ids.size(); i++) {
+            builder.add(offsets.get(i)[0], offsets.get(i)[1], ids.get(i));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reference implementation, the nested loop used by MzIdentMLUnmarshallerAdaptor before the index
+     */
+    private Map<String, Set<String>> nestedScan(List<String> parentIds, List<long[]> parentOffsets,
+                                                List<String> childIds, List<long[]> childOffsets) {
+        Map<String, Set<String>> mappings = new HashMap<String, Set<String>>();
+        List<Integer> remaining = new LinkedList<Integer>();
+        for (int i = 0; i < childIds.size(); i++) {
+            remaining.add(i);
+        }
+
+        for (int p = 0; p < parentIds.size(); p++) {
+            long[] parent = parentOffsets.get(p);
+            Iterator<Integer> childIterator = remaining.iterator();
+            while (childIterator.hasNext()) {
+                int c = childIterator.next();
+                long[] child = childOffsets.get(c);
+                if (parent[0] <= child[0] && parent[1] >= child[1]) {
+                    Set<String> children = mappings.get(parentIds.get(p));
+                    if (children == null) {
+                        children = new HashSet<String>();
+                        mappings.put(parentIds.get(p), children);
+                    }
+                    children.add(childIds.get(c));
+                    childIterator.remove();
+                }
+            }
+        }
+
+        return mappings;
+    }
+}
@@ -0,0 +1,78 @@
+package uk.ac.ebi.pride.data.io.file;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Date: 17/10/2026
+ */
+public class SpectrumHeaderReaderTest {
+
+    @Test
+    public void testMzMLHeaders() throws Exception {
+        Map<Comparable, SpectrumHeader> headers = readHeaders(new MzMLSpectrumHeaderReader(getFile("tiny.pwiz.1.1.xml")));
+
+        assertEquals(4, headers.size());
+
+        SpectrumHeader ms1 = headers.get("scan=19");
+        assertEquals(1, ms1.getMsLevel());
+        assertEquals(15, ms1.getNumberOfPeaks());
+        assertEquals(5.8905 * 60, ms1.getRetentionTime(), 1e-9);
+        assertNull(ms1.getPrecursorMz());
+
+        SpectrumHeader ms2 = headers.get("scan=20");
+        assertEquals(2, ms2.getMsLevel());
+        assertEquals(10, ms2.getNumberOfPeaks());
+        assertEquals(445.34, ms2.getPrecursorMz(), 1e-9);
+        assertEquals(Integer.valueOf(2), ms2.getPrecursorCharge());
+        assertEquals(120053, ms2.getPrecursorIntensity(), 0);
+
+        assertEquals(0, headers.get("scan=21").getNumberOfPeaks());
+        // scan start time in seconds
+        assertEquals(42.05, headers.get("sample=1 period=1 cycle=22 experiment=1").getRetentionTime(), 1e-9);
+    }
+
+    @Test
+    public void testPrideXmlHeaders() throws Exception {
+        Map<Comparable, SpectrumHeader> headers = readHeaders(new PrideXmlSpectrumHeaderReader(getFile("test-pride.xml")));
+
+        assertEquals(100, headers.size());
+
+        SpectrumHeader header = headers.get("1");
+        assertEquals(2, header.getMsLevel());
+        assertEquals(51, header.getNumberOfPeaks());
+        assertEquals(536, header.getPrecursorMz(), 0);
+        assertEquals(Integer.valueOf(1), header.getPrecursorCharge());
+
+        header = headers.get("2");
+        assertEquals(0, header.getMsLevel());
+        assertEquals(130, header.getNumberOfPeaks());
+        assertEquals(898, header.getPrecursorMz(), 0);
+        assertEquals(Integer.valueOf(2), header.getPrecursorCharge());
+    }
+
+    private static Map<Comparable, SpectrumHeader> readHeaders(SpectrumHeaderReader reader) throws Exception {
+        final Map<Comparable, SpectrumHeader> headers = new LinkedHashMap<Comparable, SpectrumHeader>();
+        reader.read(new SpectrumHeaderReader.Handler() {
+            @Override
+            public void handle(SpectrumHeader header) {
+                headers.put(header.getId(), header);
+            }
+        });
+        return headers;
+    }
+
+    private static File getFile(String name) throws Exception {
+        URL url = SpectrumHeaderReaderTest.class.getClassLoader().getResource(name);
+        if (url == null) {
+            throw new IllegalStateException("no file for input found!");
+        }
+        return new File(url.toURI());
+    }
+}
@@ -0,0 +1,127 @@
+package uk.ac.ebi.pride.data.utils;
+
+import org.junit.Test;
+import uk.ac.ebi.pride.term.CvTermReference;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class BinaryDataDecoderTest {
+
+    private static final ByteOrder[] BYTE_ORDERS = {ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN};
+
+    @Test
+    public void testFloatAndIntegerArrays() throws Exception {
+        Random random = new Random(7);
+        int length = 1000;
+
+        for (ByteOrder order : BYTE_ORDERS) {
+            double[] expected64 = new double[length];
+            double[] expected32 = new double[length];
+            double[] expectedInt32 = new double[length];
+            double[] expectedInt64 = new double[length];
+
+            ByteBuffer float64 = ByteBuffer.allocate(length * 8).order(order);
+            ByteBuffer float32 = ByteBuffer.allocate(length * 4).order(order);
+            ByteBuffer int32 = ByteBuffer.allocate(length * 4).order(order);
+            ByteBuffer int64 = ByteBuffer.allocate(length * 8).order(order);
+
+            for (int i = 0; i < length; i++) {
+                double value = random.nextDouble() * 2000;
+                expected64[i] = value;
+                float64.putDouble(value);
+
+                expected32[i] = (float) value;
+                float32.putFloat((float) value);
+
+                int intValue = random.nextInt();
+                expectedInt32[i] = intValue;
+                int32.putInt(intValue);
+
+                long longValue = random.nextLong() >> 12;
+                expectedInt64[i] = longValue;
+                int64.putLong(longValue);
+            }
+
+            assertArrayEquals(expected64, BinaryDataDecoder.toDoubleArray(float64.array(), CvTermReference.FLOAT_64_BIT, order), 0);
+            assertArrayEquals(expected32, BinaryDataDecoder.toDoubleArray(float32.array(), CvTermReference.FLOAT_32_BIT, order), 0);
+            assertArrayEquals(expectedInt32, BinaryDataDecoder.toDoubleArray(int32.array(), CvTermReference.INT_32_BIT, order), 0);
+            assertArrayEquals(expectedInt64, BinaryDataDecoder.toDoubleArray(int64.array(), CvTermReference.INT_64_BIT, order), 0);
+        }
+    }
+
+    @Test
+    public void testSameResultAsNumberArray() throws Exception {
+        Random random = new Random(11);
+        ByteBuffer buffer = ByteBuffer.allocate(4096).order(ByteOrder.BIG_ENDIAN);
+        while (buffer.hasRemaining()) {
+            buffer.putFloat(random.nextFloat() * 1000);
+        }
+
+        Number[] numbers = BinaryDataUtils.toNumberArray(buffer.array(), CvTermReference.FLOAT_32_BIT, ByteOrder.BIG_ENDIAN);
+        double[] decoded = BinaryDataDecoder.toDoubleArray(buffer.array(), CvTermReference.FLOAT_32_BIT, ByteOrder.BIG_ENDIAN);
+
+        assertEquals(numbers.length, decoded.length);
+        for (int i = 0; i < numbers.length; i++) {
+            assertEquals(numbers[i].doubleValue(), decoded[i], 0);
+        }
+    }
+
+    @Test
+    public void testHalfPrecision() throws Exception {
+        short[] halves = {0x3c00, (short) 0xc000, 0x7bff, 0x0001, 0x3555, 0x0000, (short) 0x8000};
+        double[] expected = {1.0, -2.0, 65504.0, 5.9604644775390625E-8, 0.333251953125, 0.0, -0.0};
+
+        for (ByteOrder order : BYTE_ORDERS) {
+            ByteBuffer buffer = ByteBuffer.allocate(halves.length * 2).order(order);
+            for (short half : halves) {
+                buffer.putShort(half);
+            }
+
+            assertArrayEquals(expected, BinaryDataDecoder.toDoubleArray(buffer.array(), CvTermReference.FLOAT_16_BIT, order), 0);
+
+            // the deprecated number array path decodes half precision the same way
+            Number[] numbers = BinaryDataUtils.toNumberArray(buffer.array(), CvTermReference.FLOAT_16_BIT, order);
+            assertEquals(expected.length, numbers.length);
+            for (int i = 0; i < numbers.length; i++) {
+                assertEquals(expected[i], numbers[i].doubleValue(), 0);
+            }
+        }
+
+        assertTrue(Float.isInfinite(BinaryDataDecoder.halfToFloat((short) 0x7c00)));
+        assertTrue(Float.isNaN(BinaryDataDecoder.halfToFloat((short) 0x7e00)));
+        assertEquals(Float.NEGATIVE_INFINITY, BinaryDataDecoder.halfToFloat((short) 0xfc00), 0);
+    }
+
+    @Test
+    public void testCompressedArray() throws Exception {
+        // large enough to grow the per thread buffer
+        int length = 100000;
+        double[] expected = new double[length];
+        ByteBuffer buffer = ByteBuffer.allocate(length * 8).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < length; i++) {
+            expected[i] = i * 0.5;
+            buffer.putDouble(expected[i]);
+        }
+
+        byte[] compressed = BinaryDataUtils.compress(buffer.array());
+
+        assertArrayEquals(expected, BinaryDataDecoder.toDoubleArray(compressed, true, CvTermReference.FLOAT_64_BIT, ByteOrder.LITTLE_ENDIAN), 0);
+        // decode again, reusing the buffer
+        assertArrayEquals(expected, BinaryDataDecoder.toDoubleArray(compressed, true, CvTermReference.FLOAT_64_BIT, ByteOrder.LITTLE_ENDIAN), 0);
+    }
+
+    @Test
+    public void testMalformedArray() throws Exception {
+        assertEquals(0, BinaryDataDecoder.toDoubleArray(new byte[7], CvTermReference.FLOAT_64_BIT, ByteOrder.LITTLE_ENDIAN).length);
+        assertEquals(0, BinaryDataDecoder.toDoubleArray(null, CvTermReference.FLOAT_64_BIT, ByteOrder.LITTLE_ENDIAN).length);
+    }
+}
@@ -0,0 +1,129 @@
+package uk.ac.ebi.pride.data.utils;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Date: 17/10/2026
+ */
+public class IdIndexTest {
+
+    private static List<Comparable> createIds(int size) {
+        List<Comparable> ids = new ArrayList<Comparable>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add("spectrum=" + i);
+        }
+        return ids;
+    }
+
+    @Test
+    public void testPositionLookup() throws Exception {
+        List<Comparable> ids = createIds(1000);
+        IdIndex index = IdIndex.create(ids);
+
+        assertEquals(1000, index.size());
+        for (int i = 0; i < ids.size(); i++) {
+            assertEquals(ids.get(i), index.getId(i));
+            assertEquals(CollectionUtils.getIndex(ids, ids.get(i)), index.indexOf(ids.get(i)));
+        }
+        assertEquals(-1, index.indexOf("unknown"));
+        assertFalse(index.contains("unknown"));
+        assertTrue(index.contains("spectrum=999"));
+    }
+
+    @Test
+    public void testNonListIds() throws Exception {
+        Set<Comparable> ids = new LinkedHashSet<Comparable>(createIds(10));
+        IdIndex index = IdIndex.create(ids);
+
+        assertEquals(new ArrayList<Comparable>(ids), index.getIds());
+        assertEquals(3, index.indexOf("spectrum=3"));
+        assertTrue(index.isIndexOf(ids));
+    }
+
+    @Test
+    public void testRange() throws Exception {
+        List<Comparable> ids = createIds(100);
+        IdIndex index = IdIndex.create(ids);
+
+        assertEquals(ids.subList(10, 20), index.getIds(10, 10));
+        // the range stops at the end of the index
+        assertEquals(ids.subList(95, 100), index.getIds(95, 10));
+        assertEquals(ids.subList(95, 100), index.getIds(95, Integer.MAX_VALUE));
+        assertTrue(index.getIds(100, 10).isEmpty());
+        assertTrue(index.getIds(-1, 10).isEmpty());
+        assertTrue(index.getIds(0, 0).isEmpty());
+
+        try {
+            index.getIds(0, 10).set(0, "changed");
+            fail("The range should be read-only");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testAppendedIds() throws Exception {
+        List<Comparable> ids = createIds(10);
+        IdIndex index = IdIndex.create(ids);
+        List<Comparable> range = index.getIds(5, 5);
+
+        ids.add("spectrum=10");
+        assertFalse(index.isIndexOf(ids));
+        // the index and its ranges keep the ids from the time it was created
+        assertEquals(10, index.size());
+        assertEquals(5, range.size());
+        assertEquals("spectrum=9", range.get(4));
+        assertEquals(-1, index.indexOf("spectrum=10"));
+
+        IdIndex newIndex = IdIndex.create(ids);
+        assertTrue(newIndex.isIndexOf(ids));
+        assertEquals(10, newIndex.indexOf("spectrum=10"));
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertSame(IdIndex.EMPTY, IdIndex.create(null));
+        assertSame(IdIndex.EMPTY, IdIndex.create(Collections.<Comparable>emptyList()));
+        assertTrue(IdIndex.EMPTY.isIndexOf(Collections.<Comparable>emptyList()));
+        assertTrue(IdIndex.EMPTY.isIndexOf(null));
+        assertEquals(-1, IdIndex.EMPTY.indexOf("spectrum=0"));
+        assertTrue(IdIndex.EMPTY.getIds(0, 10).isEmpty());
+    }
+
+    @Test
+    public void testPeptideIndex() throws Exception {
+        IdIndex proteins = IdIndex.create(Arrays.<Comparable>asList("P1", "P2", "P3"));
+        List<Collection<Comparable>> peptideIds = new ArrayList<Collection<Comparable>>();
+        peptideIds.add(Arrays.<Comparable>asList(0, 1, 2));
+        peptideIds.add(Collections.<Comparable>emptyList());
+        peptideIds.add(Arrays.<Comparable>asList("pep_a", "pep_b"));
+
+        PeptideIdIndex index = PeptideIdIndex.create(proteins, peptideIds);
+        assertEquals(5, index.size());
+        assertSame(proteins, index.getProteinIdIndex());
+
+        assertEquals("P1", index.getProteinId(2));
+        assertEquals(2, index.getPeptideId(2));
+        assertEquals("P3", index.getProteinId(3));
+        assertEquals("pep_a", index.getPeptideId(3));
+
+        assertEquals(4, index.indexOf("P3", "pep_b"));
+        assertEquals(1, index.indexOf("P1", 1));
+        assertEquals(-1, index.indexOf("P2", 0));
+        assertEquals(-1, index.indexOf("P4", 0));
+
+        assertEquals(3, index.getFirstPeptideIndex("P3"));
+        assertEquals(-1, index.getFirstPeptideIndex("P2"));
+
+        assertEquals(Arrays.<Comparable>asList(2, "pep_a"), index.getPeptideIds(2, 2));
+        assertTrue(index.getPeptideIds(5, 1).isEmpty());
+    }
+}
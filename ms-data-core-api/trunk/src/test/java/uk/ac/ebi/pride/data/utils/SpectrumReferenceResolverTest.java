@@ -0,0 +1,119 @@
+package uk.ac.ebi.pride.data.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class SpectrumReferenceResolverTest {
+
+    private SpectrumReferenceResolver resolver;
+
+    @Before
+    public void setUp() throws Exception {
+        Map<Comparable, List<Comparable>> spectrumIds = new LinkedHashMap<Comparable, List<Comparable>>();
+
+        // peak list, ids are 1-based positions
+        List<Comparable> mgfIds = new ArrayList<Comparable>();
+        for (int i = 1; i <= 10; i++) {
+            mgfIds.add(String.valueOf(i));
+        }
+        spectrumIds.put("SD_mgf", mgfIds);
+
+        // mzML, ids are native ids
+        List<Comparable> mzMLIds = new ArrayList<Comparable>();
+        for (int i = 0; i < 10; i++) {
+            mzMLIds.add("controllerType=0 controllerNumber=1 scan=" + (100 + i));
+        }
+        spectrumIds.put("SD_mzml", mzMLIds);
+
+        // titles, with two spectra of the same scan
+        spectrumIds.put("SD_titles", Arrays.<Comparable>asList("run1.5.5.2", "run1.6.6.3", "a scan=7", "b scan=7"));
+
+        spectrumIds.put("SD_empty", null);
+
+        resolver = new SpectrumReferenceResolver(spectrumIds);
+    }
+
+    @Test
+    public void testSpectrumIds() throws Exception {
+        assertEquals("4", resolver.resolve("SD_mgf", "4"));
+        assertEquals("controllerType=0 controllerNumber=1 scan=102", resolver.resolve("SD_mzml", "controllerType=0 controllerNumber=1 scan=102"));
+        assertEquals("run1.6.6.3", resolver.resolve("SD_titles", "run1.6.6.3"));
+        assertTrue(resolver.getDiagnostics().isEmpty());
+    }
+
+    @Test
+    public void testReferenceFormats() throws Exception {
+        // positions start from 0
+        assertEquals("4", resolver.resolve("SD_mgf", "index=3"));
+        assertEquals("4", resolver.resolve("SD_mgf", "query=3"));
+        assertEquals("controllerType=0 controllerNumber=1 scan=103", resolver.resolve("SD_mzml", "index=3"));
+
+        assertEquals("controllerType=0 controllerNumber=1 scan=105", resolver.resolve("SD_mzml", "scan=105"));
+        assertEquals("controllerType=0 controllerNumber=1 scan=105", resolver.resolve("SD_mzml", "105"));
+        // a native id of another form
+        assertEquals("controllerType=0 controllerNumber=1 scan=106", resolver.resolve("SD_mzml", "controllerType=0 controllerNumber=2 scan=106"));
+
+        assertEquals("run1.5.5.2", resolver.resolve("SD_titles", "title=run1.5.5.2"));
+        assertEquals("run1.5.5.2", resolver.resolve("SD_titles", "file=run1.5.5.2"));
+        assertTrue(resolver.getDiagnostics().isEmpty());
+    }
+
+    @Test
+    public void testTitles() throws Exception {
+        Map<Comparable, List<Comparable>> spectrumIds = new HashMap<Comparable, List<Comparable>>();
+        spectrumIds.put("SD_mgf", Arrays.<Comparable>asList("1", "2", "3"));
+        spectrumIds.put("SD_mzml", Arrays.<Comparable>asList("scan=1", "scan=2"));
+
+        Map<Comparable, List<String>> titles = new HashMap<Comparable, List<String>>();
+        titles.put("SD_mgf", Arrays.asList("cluster_id=1,sequence=[PEPTIDE]", null, "run1.3.3.2"));
+        // not one title per spectrum, ignored
+        titles.put("SD_mzml", Arrays.asList("a"));
+
+        SpectrumReferenceResolver titleResolver = new SpectrumReferenceResolver(spectrumIds, titles);
+        assertEquals("1", titleResolver.resolve("SD_mgf", "title=cluster_id=1,sequence=[PEPTIDE]"));
+        assertEquals("3", titleResolver.resolve("SD_mgf", "TITLE= run1.3.3.2"));
+        assertEquals("2", titleResolver.resolve("SD_mgf", "index=1"));
+        assertTrue(titleResolver.getDiagnostics().isEmpty());
+
+        assertNull(titleResolver.resolve("SD_mgf", "title=unknown"));
+        assertNull(titleResolver.resolve("SD_mzml", "title=a"));
+        List<SpectrumReferenceResolver.Diagnostic> diagnostics = titleResolver.getDiagnostics();
+        assertEquals(2, diagnostics.size());
+        assertFalse(diagnostics.get(0).getMessage().contains("titles of this spectra file are unknown"));
+        assertTrue(diagnostics.get(1).getMessage().contains("titles of this spectra file are unknown"));
+    }
+
+    @Test
+    public void testDiagnostics() throws Exception {
+        assertNull(resolver.resolve("SD_mgf", "index=10"));
+        assertNull(resolver.resolve("SD_mgf", "index=10"));
+        assertNull(resolver.resolve("SD_unknown", "index=0"));
+        assertNull(resolver.resolve("SD_empty", "index=0"));
+        assertEquals("a scan=7", resolver.resolve("SD_titles", "scan=7"));
+
+        List<SpectrumReferenceResolver.Diagnostic> diagnostics = resolver.getDiagnostics();
+        assertEquals(4, diagnostics.size());
+        assertEquals(5, resolver.getNumberOfMismatches());
+
+        assertEquals(SpectrumReferenceResolver.Diagnostic.Type.SPECTRUM_NOT_FOUND, diagnostics.get(0).getType());
+        assertEquals("SD_mgf", diagnostics.get(0).getSpectraDataId());
+        assertEquals("index=10", diagnostics.get(0).getReference());
+        assertNull(diagnostics.get(0).getSpectrumId());
+
+        assertEquals(SpectrumReferenceResolver.Diagnostic.Type.NO_SPECTRA_FILE, diagnostics.get(1).getType());
+        assertEquals(SpectrumReferenceResolver.Diagnostic.Type.SPECTRUM_NOT_FOUND, diagnostics.get(2).getType());
+
+        assertEquals(SpectrumReferenceResolver.Diagnostic.Type.AMBIGUOUS_REFERENCE, diagnostics.get(3).getType());
+        assertEquals("a scan=7", diagnostics.get(3).getSpectrumId());
+    }
+}
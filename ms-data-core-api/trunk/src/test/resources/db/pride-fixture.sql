@@ -0,0 +1,47 @@
+-- Experiment 1001: a gel free identification with two peptides and a two dimensional identification with one
+
+INSERT INTO mzdata_mz_data (mz_data_id, accession_number) VALUES (1, '1001');
+
+INSERT INTO mzdata_spectrum (spectrum_id, spectrum_identifier, ms_level, mz_data_id) VALUES (501, 1, 2, 1);
+INSERT INTO mzdata_spectrum (spectrum_id, spectrum_identifier, ms_level, mz_data_id) VALUES (502, 2, 2, 1);
+
+INSERT INTO pride_experiment (experiment_id, accession, title, short_label, mz_data_id) VALUES (11, '1001', 'Fixture experiment', 'fixture', 1);
+
+INSERT INTO pride_gel (gel_id, gel_link) VALUES (31, 'http://www.example.org/gel/31');
+INSERT INTO pride_gel_param (parent_element_fk, cv_label, accession, name, value) VALUES (31, NULL, NULL, 'gel description', 'silver stained');
+
+INSERT INTO pride_identification (identification_id, experiment_id, accession_number, accession_version, search_database, database_version,
+  search_engine, score, threshold, sequence_coverage, splice_isoform, gel_id, x_coordinate, y_coordinate, molecular_weight, pi, spectrum_ref, classname)
+  VALUES (101, 11, 'P12345', '2', 'UniProtKB', '2013_05', 'Mascot', 88.5, 0.05, 0.32, NULL, NULL, NULL, NULL, NULL, NULL, NULL,
+  'uk.ac.ebi.pride.rdbms.ojb.model.core.GelFreeIdentificationBean');
+INSERT INTO pride_identification (identification_id, experiment_id, accession_number, accession_version, search_database, database_version,
+  search_engine, score, threshold, sequence_coverage, splice_isoform, gel_id, x_coordinate, y_coordinate, molecular_weight, pi, spectrum_ref, classname)
+  VALUES (102, 11, 'Q67890', NULL, 'UniProtKB', '2013_05', 'Mascot', 45.0, NULL, NULL, NULL, 31, 12.5, 40.25, 55000.0, 6.1, NULL,
+  'uk.ac.ebi.pride.rdbms.ojb.model.core.TwoDimensionalIdentificationBean');
+
+INSERT INTO pride_identification_param (parent_element_fk, cv_label, accession, name, value) VALUES (101, 'PRIDE', 'PRIDE:0000186', 'ProteinInferenceResult', 'protein');
+INSERT INTO pride_identification_param (parent_element_fk, cv_label, accession, name, value) VALUES (101, NULL, NULL, 'comment', 'first');
+
+INSERT INTO pride_peptide (peptide_id, identification_id, sequence, pep_start, pep_end, spectrum_ref) VALUES (201, 101, 'PEPTIDEK', 10, 17, 1);
+INSERT INTO pride_peptide (peptide_id, identification_id, sequence, pep_start, pep_end, spectrum_ref) VALUES (202, 101, 'MCARR', NULL, NULL, NULL);
+INSERT INTO pride_peptide (peptide_id, identification_id, sequence, pep_start, pep_end, spectrum_ref) VALUES (203, 102, 'GELPEPK', 3, 9, 2);
+
+INSERT INTO pride_peptide_param (parent_element_fk, cv_label, accession, name, value) VALUES (201, 'PRIDE', 'PRIDE:0000069', 'Mascot Score', '42.0');
+INSERT INTO pride_peptide_param (parent_element_fk, cv_label, accession, name, value) VALUES (203, NULL, NULL, 'note', 'from gel');
+
+INSERT INTO pride_modification (modification_id, peptide_id, accession, location, mod_database, mod_database_version) VALUES (301, 202, 'MOD:00719', 1, 'MOD', '1.0');
+INSERT INTO pride_modification (modification_id, peptide_id, accession, location, mod_database, mod_database_version) VALUES (302, 202, 'MOD:01060', 2, 'MOD', '1.0');
+
+INSERT INTO pride_mass_delta (modification_id, mass_delta_value, classname) VALUES (301, 15.994915, 'uk.ac.ebi.pride.rdbms.ojb.model.core.MonoMassDeltaBean');
+INSERT INTO pride_mass_delta (modification_id, mass_delta_value, classname) VALUES (301, 15.9994, 'uk.ac.ebi.pride.rdbms.ojb.model.core.AverageMassDeltaBean');
+INSERT INTO pride_mass_delta (modification_id, mass_delta_value, classname) VALUES (302, 57.021464, 'uk.ac.ebi.pride.rdbms.ojb.model.core.MonoMassDeltaBean');
+
+INSERT INTO pride_modification_param (parent_element_fk, cv_label, accession, name, value) VALUES (301, 'MOD', 'MOD:00719', 'L-methionine sulfoxide', NULL);
+
+INSERT INTO pride_fragment_ion (fragment_ion_id, peptide_id, mz, intensity, mass_error, retention_time_error, accession_ion_type, ion_type_name,
+  fragment_ion_number, ion_charge) VALUES (401, 201, 244.17, 1500.0, 0.01, NULL, 'PRIDE:0000194', 'b ion', 2, 1);
+INSERT INTO pride_fragment_ion (fragment_ion_id, peptide_id, mz, intensity, mass_error, retention_time_error, accession_ion_type, ion_type_name,
+  fragment_ion_number, ion_charge) VALUES (402, 201, 147.11, 800.0, NULL, NULL, 'PRIDE:0000193', 'y ion', 1, 1);
+
+INSERT INTO pride_fragment_ion_param (parent_element_fk, cv_label, accession, name, value) VALUES (401, 'PRIDE', 'PRIDE:0000190', 'product ion type', 'b');
+INSERT INTO pride_fragment_ion_param (parent_element_fk, cv_label, accession, name, value) VALUES (401, NULL, NULL, 'ignored', 'user param');
@@ -0,0 +1,132 @@
+-- Subset of the PRIDE public schema read by PrideDBIdentificationLoader and PrideDBCachingStrategy
+
+CREATE TABLE mzdata_mz_data (
+  mz_data_id BIGINT PRIMARY KEY,
+  accession_number VARCHAR(20) NOT NULL
+);
+
+CREATE TABLE mzdata_spectrum (
+  spectrum_id BIGINT PRIMARY KEY,
+  spectrum_identifier BIGINT NOT NULL,
+  ms_level INT,
+  mz_data_id BIGINT NOT NULL
+);
+
+CREATE TABLE pride_experiment (
+  experiment_id BIGINT PRIMARY KEY,
+  accession VARCHAR(20) NOT NULL,
+  title VARCHAR(500),
+  short_label VARCHAR(255),
+  mz_data_id BIGINT
+);
+
+CREATE TABLE pride_gel (
+  gel_id BIGINT PRIMARY KEY,
+  gel_link VARCHAR(500)
+);
+
+CREATE TABLE pride_gel_param (
+  parent_element_fk BIGINT NOT NULL,
+  cv_label VARCHAR(50),
+  accession VARCHAR(50),
+  name VARCHAR(500),
+  value VARCHAR(500)
+);
+
+CREATE TABLE pride_identification (
+  identification_id BIGINT PRIMARY KEY,
+  experiment_id BIGINT NOT NULL,
+  accession_number VARCHAR(50) NOT NULL,
+  accession_version VARCHAR(20),
+  search_database VARCHAR(255),
+  database_version VARCHAR(100),
+  search_engine VARCHAR(255),
+  score DOUBLE,
+  threshold DECIMAL(12, 4),
+  sequence_coverage DOUBLE,
+  splice_isoform VARCHAR(20),
+  gel_id BIGINT,
+  x_coordinate DOUBLE,
+  y_coordinate DOUBLE,
+  molecular_weight DOUBLE,
+  pi DOUBLE,
+  spectrum_ref BIGINT,
+  classname VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE pride_identification_param (
+  parent_element_fk BIGINT NOT NULL,
+  cv_label VARCHAR(50),
+  accession VARCHAR(50),
+  name VARCHAR(500),
+  value VARCHAR(500)
+);
+
+CREATE TABLE pride_peptide (
+  peptide_id BIGINT PRIMARY KEY,
+  identification_id BIGINT NOT NULL,
+  sequence VARCHAR(500),
+  pep_start INT,
+  pep_end INT,
+  spectrum_ref BIGINT
+);
+
+CREATE TABLE pride_peptide_param (
+  parent_element_fk BIGINT NOT NULL,
+  cv_label VARCHAR(50),
+  accession VARCHAR(50),
+  name VARCHAR(500),
+  value VARCHAR(500)
+);
+
+CREATE TABLE pride_modification (
+  modification_id BIGINT PRIMARY KEY,
+  peptide_id BIGINT NOT NULL,
+  accession VARCHAR(50),
+  location INT,
+  mod_database VARCHAR(100),
+  mod_database_version VARCHAR(100)
+);
+
+CREATE TABLE pride_mass_delta (
+  mass_delta_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+  modification_id BIGINT NOT NULL,
+  mass_delta_value DOUBLE,
+  classname VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE pride_modification_param (
+  parent_element_fk BIGINT NOT NULL,
+  cv_label VARCHAR(50),
+  accession VARCHAR(50),
+  name VARCHAR(500),
+  value VARCHAR(500)
+);
+
+CREATE TABLE pride_fragment_ion (
+  fragment_ion_id BIGINT PRIMARY KEY,
+  peptide_id BIGINT NOT NULL,
+  mz DOUBLE,
+  intensity DOUBLE,
+  mass_error DOUBLE,
+  retention_time_error DOUBLE,
+  accession_ion_type VARCHAR(50),
+  ion_type_name VARCHAR(100),
+  fragment_ion_number INT,
+  ion_charge INT
+);
+
+CREATE TABLE pride_fragment_ion_param (
+  parent_element_fk BIGINT NOT NULL,
+  cv_label VARCHAR(50),
+  accession VARCHAR(50),
+  name VARCHAR(500),
+  value VARCHAR(500)
+);
+
+CREATE INDEX idx_spectrum_identifier ON mzdata_spectrum (mz_data_id, spectrum_identifier);
+CREATE INDEX idx_identification_experiment ON pride_identification (experiment_id);
+CREATE INDEX idx_peptide_identification ON pride_peptide (identification_id);
+CREATE INDEX idx_modification_peptide ON pride_modification (peptide_id);
+CREATE INDEX idx_mass_delta_modification ON pride_mass_delta (modification_id);
+CREATE INDEX idx_fragment_ion_peptide ON pride_fragment_ion (peptide_id);
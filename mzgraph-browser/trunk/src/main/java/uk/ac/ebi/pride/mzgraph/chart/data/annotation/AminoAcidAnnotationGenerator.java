@@ -105,7 +105,7 @@ public class AminoAcidAnnotationGenerator
             double mass = Math.abs(mz * item.getCharge());
             mass += MoleculeUtilities.calculateMonoMass(Atom.O_16, Atom.C_12) - NuclearParticle.PROTON.getMonoMass();
             // search for peptide
-            List<AminoAcidSequence> peptides = MoleculeUtilities.searchForPeptide(mass - massError, mass + massError, true, 1);
+            List<AminoAcidSequence> peptides = getCompositionIndex(1).search(mass - massError, mass + massError, 1);
             if (!peptides.isEmpty()) {
                 AminoAcidAnnotationInfo info = new AminoAcidAnnotationInfo();
                 for (AminoAcidSequence peptide : peptides) {
@@ -162,12 +162,13 @@ public class AminoAcidAnnotationGenerator
                             massDiff.add(Math.abs(initialIonMassDiff - mmd));
                         }
                     }
-                    // search for all amino acids which are qualified for both the mass range and the number of residues.
+                    // search for all amino acid compositions which are qualified for both the mass range and the number of residues.
+                    // the order of the residues between two ions is unknown, so only the compositions are searched.
+                    AminoAcidCompositionIndex compositionIndex = getCompositionIndex(numOfResidues);
                     List<AminoAcidSequence> peptides = new ArrayList<AminoAcidSequence>();
                     for (Double md : massDiff) {
-                        List<AminoAcidSequence> peptideResults = MoleculeUtilities.searchForPeptide(md - massError, md + massError, true, numOfResidues);
-                        if (peptideResults.size() <= combinationThreshold) {
-                            peptides.addAll(peptideResults);
+                        if (compositionIndex.count(md - massError, md + massError, numOfResidues) <= combinationThreshold) {
+                            peptides.addAll(compositionIndex.search(md - massError, md + massError, numOfResidues));
                         }
                     }
 
@@ -188,6 +189,13 @@ public class AminoAcidAnnotationGenerator
         return anns;
     }
 
+    /**
+     * The composition index is shared, it is built once for all the generators.
+     */
+    private AminoAcidCompositionIndex getCompositionIndex(int numOfResidues) {
+        return AminoAcidCompositionIndex.getInstance(true, Math.max(numOfResidues, maxNumberOfAminoAcid));
+    }
+
     /**
      * calculate all possible modification mass differences between a starting location and a stop location.
      *
@@ -0,0 +1,457 @@
+package uk.ac.ebi.pride.mzgraph.chart.data.util;
+
+import org.jfree.chart.axis.ValueAxis;
+import org.jfree.data.DomainInfo;
+import org.jfree.data.DomainOrder;
+import org.jfree.data.Range;
+import org.jfree.data.RangeInfo;
+import org.jfree.data.general.DatasetChangeEvent;
+import org.jfree.data.general.DatasetChangeListener;
+import org.jfree.data.xy.AbstractXYDataset;
+import org.jfree.data.xy.XYDataset;
+
+import java.util.Arrays;
+
+/**
+ * Level of detail view of a XYDataset, for plotting spectra and chromatograms with many points.
+ * <p/>
+ * The visible range of the domain axis is divided into a number of buckets, normally one per pixel,
+ * and only the points with the lowest and the highest y value of each bucket are kept, together with
+ * the closest point outside of each side of the visible range. So the plot looks the same, but never draws
+ * more than two points per bucket, whatever the number of points in the dataset or the zoom level.
+ * <p/>
+ * The view is only rebuilt when the range of the domain axis, the number of buckets or the source dataset
+ * change. The lowest and highest points of a bucket are found with a min/max tree over the points of each
+ * series, so rebuilding the view takes O(buckets * log(points)).
+ * <p/>
+ * Item indices of this dataset refer to the current view, use getSourceItem to get the item in the source dataset.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class DecimatedXYDataset extends AbstractXYDataset implements DomainInfo, RangeInfo, DatasetChangeListener {
+
+    public static final int DEFAULT_RESOLUTION = 2000;
+
+    private final XYDataset source;
+
+    private ValueAxis domainAxis;
+
+    private int resolution = DEFAULT_RESOLUTION;
+
+    /**
+     * Points of the source dataset, sorted by x
+     */
+    private SeriesData[] seriesData;
+
+    /**
+     * Positions (in x order) of the points in the current view of each series, null if all the points are in the view
+     */
+    private int[][] views;
+
+    /**
+     * Domain range the current view has been built for, null for the whole domain
+     */
+    private Range viewRange;
+
+    private int viewResolution;
+
+    public DecimatedXYDataset(XYDataset source) {
+        this(source, null);
+    }
+
+    /**
+     * @param source     source dataset
+     * @param domainAxis the domain axis of the plot, its range is the visible range of the view
+     */
+    public DecimatedXYDataset(XYDataset source, ValueAxis domainAxis) {
+        this.source = source;
+        this.domainAxis = domainAxis;
+        source.addChangeListener(this);
+    }
+
+    public XYDataset getSource() {
+        return source;
+    }
+
+    public ValueAxis getDomainAxis() {
+        return domainAxis;
+    }
+
+    public void setDomainAxis(ValueAxis domainAxis) {
+        this.domainAxis = domainAxis;
+        fireDatasetChanged();
+    }
+
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Set the number of buckets of the visible range, normally the width of the plot in pixels
+     *
+     * @param resolution number of buckets
+     */
+    public void setResolution(int resolution) {
+        if (resolution < 1) {
+            throw new IllegalArgumentException("Resolution must be positive: " + resolution);
+        }
+        if (this.resolution != resolution) {
+            this.resolution = resolution;
+            fireDatasetChanged();
+        }
+    }
+
+    /**
+     * Source dataset has changed, the points are copied again when the dataset is used next time
+     */
+    @Override
+    public void datasetChanged(DatasetChangeEvent event) {
+        seriesData = null;
+        views = null;
+        fireDatasetChanged();
+    }
+
+    @Override
+    public int getSeriesCount() {
+        return source.getSeriesCount();
+    }
+
+    @Override
+    public Comparable getSeriesKey(int series) {
+        return source.getSeriesKey(series);
+    }
+
+    @Override
+    public DomainOrder getDomainOrder() {
+        return DomainOrder.ASCENDING;
+    }
+
+    @Override
+    public int getItemCount(int series) {
+        updateView();
+        int[] view = views[series];
+        return view == null ? seriesData[series].size() : view.length;
+    }
+
+    @Override
+    public Number getX(int series, int item) {
+        return getXValue(series, item);
+    }
+
+    @Override
+    public Number getY(int series, int item) {
+        return getYValue(series, item);
+    }
+
+    @Override
+    public double getXValue(int series, int item) {
+        updateView();
+        SeriesData data = seriesData[series];
+        return data.x[data.order[viewItem(series, item)]];
+    }
+
+    @Override
+    public double getYValue(int series, int item) {
+        updateView();
+        SeriesData data = seriesData[series];
+        return data.y[data.order[viewItem(series, item)]];
+    }
+
+    /**
+     * Get the index of an item of the current view in the source dataset
+     *
+     * @param series series index
+     * @param item   item index in the current view
+     * @return item index in the source dataset
+     */
+    public int getSourceItem(int series, int item) {
+        updateView();
+        return seriesData[series].order[viewItem(series, item)];
+    }
+
+    private int viewItem(int series, int item) {
+        int[] view = views[series];
+        return view == null ? item : view[item];
+    }
+
+    @Override
+    public double getDomainLowerBound(boolean includeInterval) {
+        Range bounds = getDomainBounds(includeInterval);
+        return bounds == null ? Double.NaN : bounds.getLowerBound();
+    }
+
+    @Override
+    public double getDomainUpperBound(boolean includeInterval) {
+        Range bounds = getDomainBounds(includeInterval);
+        return bounds == null ? Double.NaN : bounds.getUpperBound();
+    }
+
+    /**
+     * Domain of all the points of the source dataset, so the auto range of the axis does not depend on the view
+     */
+    @Override
+    public Range getDomainBounds(boolean includeInterval) {
+        updateData();
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (SeriesData data : seriesData) {
+            if (data.size() > 0) {
+                lower = Math.min(lower, data.x[data.order[0]]);
+                upper = Math.max(upper, data.x[data.order[data.size() - 1]]);
+            }
+        }
+        return lower > upper ? null : new Range(lower, upper);
+    }
+
+    @Override
+    public double getRangeLowerBound(boolean includeInterval) {
+        Range bounds = getRangeBounds(includeInterval);
+        return bounds == null ? Double.NaN : bounds.getLowerBound();
+    }
+
+    @Override
+    public double getRangeUpperBound(boolean includeInterval) {
+        Range bounds = getRangeBounds(includeInterval);
+        return bounds == null ? Double.NaN : bounds.getUpperBound();
+    }
+
+    /**
+     * Range of all the points of the source dataset
+     */
+    @Override
+    public Range getRangeBounds(boolean includeInterval) {
+        updateData();
+        double lower = Double.POSITIVE_INFINITY;
+        double upper = Double.NEGATIVE_INFINITY;
+        for (SeriesData data : seriesData) {
+            if (data.size() > 0) {
+                lower = Math.min(lower, data.y[data.order[data.minIndex(0, data.size())]]);
+                upper = Math.max(upper, data.y[data.order[data.maxIndex(0, data.size())]]);
+            }
+        }
+        return lower > upper ? null : new Range(lower, upper);
+    }
+
+    private void updateData() {
+        if (seriesData == null) {
+            int seriesCount = source.getSeriesCount();
+            seriesData = new SeriesData[seriesCount];
+            for (int i = 0; i < seriesCount; i++) {
+                seriesData[i] = new SeriesData(source, i);
+            }
+            views = null;
+        }
+    }
+
+    private void updateView() {
+        updateData();
+        Range range = domainAxis == null ? null : domainAxis.getRange();
+        if (views == null || viewResolution != resolution
+                || (range == null ? viewRange != null : !range.equals(viewRange))) {
+            views = new int[seriesData.length][];
+            for (int i = 0; i < seriesData.length; i++) {
+                views[i] = seriesData[i].decimate(range, resolution);
+            }
+            viewRange = range;
+            viewResolution = resolution;
+        }
+    }
+
+    /**
+     * Points of one series sorted by x, with a min/max tree of the y values
+     */
+    private static class SeriesData {
+        private final double[] x;
+        private final double[] y;
+
+        /**
+         * Source item indices sorted by x
+         */
+        private final int[] order;
+
+        /**
+         * Iterative segment trees over the sorted points, leaves at size + i, holding the position of the
+         * point with the lowest or highest y value of each node
+         */
+        private final int[] minTree;
+        private final int[] maxTree;
+
+        private SeriesData(XYDataset source, int series) {
+            int size = source.getItemCount(series);
+            x = new double[size];
+            y = new double[size];
+            boolean sorted = true;
+            for (int i = 0; i < size; i++) {
+                x[i] = source.getXValue(series, i);
+                y[i] = source.getYValue(series, i);
+                if (i > 0 && x[i] < x[i - 1]) {
+                    sorted = false;
+                }
+            }
+            order = sortedOrder(x, sorted);
+
+            minTree = new int[2 * size];
+            maxTree = new int[2 * size];
+            for (int i = 0; i < size; i++) {
+                minTree[size + i] = i;
+                maxTree[size + i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                minTree[i] = lower(minTree[2 * i], minTree[2 * i + 1]);
+                maxTree[i] = higher(maxTree[2 * i], maxTree[2 * i + 1]);
+            }
+        }
+
+        private static int[] sortedOrder(final double[] x, boolean sorted) {
+            int[] order = new int[x.length];
+            if (sorted) {
+                for (int i = 0; i < order.length; i++) {
+                    order[i] = i;
+                }
+                return order;
+            }
+
+            // stable sort of the indices by x
+            Integer[] boxed = new Integer[x.length];
+            for (int i = 0; i < x.length; i++) {
+                boxed[i] = i;
+            }
+            Arrays.sort(boxed, new java.util.Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Double.compare(x[o1], x[o2]);
+                }
+            });
+            for (int i = 0; i < order.length; i++) {
+                order[i] = boxed[i];
+            }
+            return order;
+        }
+
+        private int size() {
+            return order.length;
+        }
+
+        private double sortedY(int position) {
+            return y[order[position]];
+        }
+
+        private double sortedX(int position) {
+            return x[order[position]];
+        }
+
+        private int lower(int p1, int p2) {
+            return sortedY(p2) < sortedY(p1) ? p2 : p1;
+        }
+
+        private int higher(int p1, int p2) {
+            return sortedY(p2) > sortedY(p1) ? p2 : p1;
+        }
+
+        /**
+         * Position of the point with the lowest y value in [from, to)
+         */
+        private int minIndex(int from, int to) {
+            int result = from;
+            int size = size();
+            for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    result = lower(result, minTree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    result = lower(result, minTree[--r]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Position of the point with the highest y value in [from, to)
+         */
+        private int maxIndex(int from, int to) {
+            int result = from;
+            int size = size();
+            for (int l = from + size, r = to + size; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    result = higher(result, maxTree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    result = higher(result, maxTree[--r]);
+                }
+            }
+            return result;
+        }
+
+        /**
+         * First position with x >= value
+         */
+        private int lowerBound(double value) {
+            int low = 0;
+            int high = size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sortedX(mid) < value) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Positions of the points in the view of the given range
+         *
+         * @param range   visible domain range, null for the whole domain
+         * @param buckets number of buckets
+         * @return positions of the points in the view, null if all the points are in the view
+         */
+        private int[] decimate(Range range, int buckets) {
+            int size = size();
+            if (size <= 2 * buckets) {
+                return null;
+            }
+
+            double lowerX = range == null ? sortedX(0) : range.getLowerBound();
+            double upperX = range == null ? sortedX(size - 1) : range.getUpperBound();
+            int from = lowerBound(lowerX);
+            int to = range == null ? size : lowerBound(Math.nextUp(upperX));
+
+            int[] view = new int[2 * buckets + 2];
+            int count = 0;
+            // keep the closest point on each side of the visible range, so lines and areas reach the edges
+            if (from > 0) {
+                view[count++] = from - 1;
+            }
+
+            if (to - from <= 2 * buckets) {
+                for (int i = from; i < to; i++) {
+                    view[count++] = i;
+                }
+            } else {
+                double width = (upperX - lowerX) / buckets;
+                int bucketStart = from;
+                for (int bucket = 1; bucket <= buckets && bucketStart < to; bucket++) {
+                    int bucketEnd = bucket == buckets ? to : Math.max(bucketStart, Math.min(to, lowerBound(lowerX + bucket * width)));
+                    if (bucketEnd > bucketStart) {
+                        int min = minIndex(bucketStart, bucketEnd);
+                        int max = maxIndex(bucketStart, bucketEnd);
+                        if (min == max) {
+                            view[count++] = min;
+                        } else {
+                            // keep the points in x order
+                            view[count++] = Math.min(min, max);
+                            view[count++] = Math.max(min, max);
+                        }
+                    }
+                    bucketStart = bucketEnd;
+                }
+            }
+
+            if (to < size) {
+                view[count++] = to;
+            }
+            return Arrays.copyOf(view, count);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.jfree.data.xy.XYDataset;
 import org.jfree.data.xy.XYSeries;
 import org.jfree.data.xy.XYSeriesCollection;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 /**
  * Created by IntelliJ IDEA.
  * <p/>
@@ -32,13 +35,49 @@ public class MzGraphDatasetUtils {
     public static XYSeries createXYSeries(Comparable seriesKey, double[] x, double[] y, boolean autoSort, boolean allowDuplicateXValues) {
         XYSeries series = new XYSeries(seriesKey, autoSort, allowDuplicateXValues);
         if (x != null && y != null && x.length == y.length) {
+            // add the points in x order, so an auto sorted series appends them instead of inserting
+            int[] order = autoSort ? sortedOrder(x) : null;
             for (int i = 0; i < x.length; i++) {
-                series.add(x[i], y[i]);
+                int index = order == null ? i : order[i];
+                series.add(x[index], y[index], false);
+            }
+            if (x.length > 0) {
+                series.fireSeriesChanged();
             }
         }
         return series;
     }
 
+    /**
+     * Indices of the values in ascending order, null if the values are sorted already
+     */
+    private static int[] sortedOrder(final double[] values) {
+        boolean sorted = true;
+        for (int i = 1; i < values.length && sorted; i++) {
+            sorted = values[i - 1] <= values[i];
+        }
+        if (sorted) {
+            return null;
+        }
+
+        Integer[] indices = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            indices[i] = i;
+        }
+        // stable sort, duplicated x values keep their order
+        Arrays.sort(indices, new Comparator<Integer>() {
+            @Override
+            public int compare(Integer o1, Integer o2) {
+                return Double.compare(values[o1], values[o2]);
+            }
+        });
+        int[] order = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            order[i] = indices[i];
+        }
+        return order;
+    }
+
     public static boolean hasXYSeries(XYDataset dataset, Comparable seriesKey) {
         boolean exist = false;
         int seriesCount = dataset.getSeriesCount();
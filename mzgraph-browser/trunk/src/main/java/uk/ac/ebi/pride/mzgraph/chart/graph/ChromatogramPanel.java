@@ -70,7 +70,7 @@ public class ChromatogramPanel extends MzGraphPanel {
     }
 
     protected void setGraphDataset() {
-        plot.setDataset(chromaDataset);
+        plot.setDataset(createDecimatedDataset(chromaDataset));
     }
 
     protected void setGraphRenderer() {
@@ -10,6 +10,7 @@ import org.jfree.chart.plot.DatasetRenderingOrder;
 import org.jfree.chart.plot.PlotOrientation;
 import org.jfree.chart.plot.XYPlot;
 import org.jfree.chart.title.LegendTitle;
+import org.jfree.data.xy.XYDataset;
 import org.jfree.ui.RectangleEdge;
 import org.jfree.ui.RectangleInsets;
 import org.jfree.ui.TextAnchor;
@@ -19,19 +20,24 @@ import uk.ac.ebi.pride.data.Tuple;
 import uk.ac.ebi.pride.gui.io.FileExtension;
 import uk.ac.ebi.pride.gui.io.SaveComponentUtils;
 import uk.ac.ebi.pride.gui.io.SaveImageDialog;
+import uk.ac.ebi.pride.mzgraph.chart.data.util.DecimatedXYDataset;
 import uk.ac.ebi.pride.mzgraph.chart.legend.LegendFactory;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.InputEvent;
 import java.awt.event.MouseEvent;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -70,6 +76,10 @@ public abstract class MzGraphPanel extends JPanel implements ChartMouseListener,
     protected XYPlot plot;
     private XYTextAnnotation overflowAnnotation1;
     private XYTextAnnotation overflowAnnotation2;
+    /**
+     * Level of detail datasets, their resolution follows the width of the chart panel
+     */
+    private final List<DecimatedXYDataset> decimatedDatasets = new ArrayList<DecimatedXYDataset>();
 
     public MzGraphPanel(String title,
                         String xAxisLabel,
@@ -277,9 +287,37 @@ public abstract class MzGraphPanel extends JPanel implements ChartMouseListener,
         chartPanel.setMaximumDrawHeight(screenDim.height);
         // not popup menu
         chartPanel.setPopupMenu(null);
+        // one bucket per pixel for the level of detail datasets
+        chartPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                for (DecimatedXYDataset dataset : decimatedDatasets) {
+                    updateResolution(dataset);
+                }
+            }
+        });
         this.add(chartPanel);
     }
 
+    /**
+     * Create a level of detail view of a dataset, which follows the range of the x axis and the width of the chart.
+     * This has to be called after setPlotAxis.
+     *
+     * @param source dataset with all the points
+     * @return level of detail dataset to add to the plot
+     */
+    protected DecimatedXYDataset createDecimatedDataset(XYDataset source) {
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source, xAxis);
+        updateResolution(dataset);
+        decimatedDatasets.add(dataset);
+        return dataset;
+    }
+
+    private void updateResolution(DecimatedXYDataset dataset) {
+        int width = chartPanel == null ? 0 : chartPanel.getWidth();
+        dataset.setResolution(width > 0 ? width : DecimatedXYDataset.DEFAULT_RESOLUTION);
+    }
+
     protected void setupGraph() {
         chartTheme.apply(chart);
         // set plot orientation
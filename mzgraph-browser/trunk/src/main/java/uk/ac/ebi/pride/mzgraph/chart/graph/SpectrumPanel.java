@@ -10,6 +10,7 @@ import uk.ac.ebi.pride.mol.ion.FragmentIonType;
 import uk.ac.ebi.pride.mol.ion.FragmentIonTypeColor;
 import uk.ac.ebi.pride.mzgraph.chart.data.annotation.AminoAcidAnnotationGenerator;
 import uk.ac.ebi.pride.mzgraph.chart.data.annotation.IonAnnotation;
+import uk.ac.ebi.pride.mzgraph.chart.data.util.DecimatedXYDataset;
 import uk.ac.ebi.pride.mzgraph.chart.data.util.MzGraphDatasetUtils;
 import uk.ac.ebi.pride.mzgraph.chart.label.AminoAcidAnnotationLabelGenerator;
 import uk.ac.ebi.pride.mzgraph.chart.label.IonAnnotationLabelGenerator;
@@ -49,6 +50,10 @@ public class SpectrumPanel extends MzGraphPanel implements PropertyChangeListene
     public final static String HIDE_PEAK_LIST = "HIDE_PEAK_LIST";
     public final static String CLEAR_MASS_DIFF = "CLEAR_MASS_DIFF";
 
+    /**
+     * Level of detail view of the peak dataset, which is drawn instead of all the peaks
+     */
+    private DecimatedXYDataset decimatedPeakDataset;
     /**
      * Renderer to draw the peaks
      */
@@ -297,9 +302,11 @@ public class SpectrumPanel extends MzGraphPanel implements PropertyChangeListene
             int itemKey = xyItemEntity.getItem();
             XYDataset dataSet = xyItemEntity.getDataset();
             XYDataItem peakDataItem = null;
-            if (dataSet.equals(spectrumPanelModel.getPeakDataset())) {
-                peakRenderer.setHighlightedItem(seriesKey, itemKey);
-                peakDataItem = spectrumPanelModel.getPeakDataset().getSeries(seriesKey).getDataItem(itemKey);
+            if (dataSet == decimatedPeakDataset) {
+                // the view of the decimated dataset changes with the zoom, so highlight the source item
+                int peakIndex = decimatedPeakDataset.getSourceItem(seriesKey, itemKey);
+                peakRenderer.setHighlightedItem(seriesKey, peakIndex);
+                peakDataItem = spectrumPanelModel.getPeakDataset().getSeries(seriesKey).getDataItem(peakIndex);
             } else if (dataSet.equals(spectrumPanelModel.getIonDataset())) {
                 ionRenderer.setHighlightedItem(seriesKey, itemKey);
                 peakDataItem = spectrumPanelModel.getIonDataset().getSeries(seriesKey).getDataItem(itemKey);
@@ -336,7 +343,8 @@ public class SpectrumPanel extends MzGraphPanel implements PropertyChangeListene
      */
     protected void setGraphDataset() {
         // add peak list dataset
-        plot.setDataset(DEFAULT_PEAK_DATASET_INDEX, spectrumPanelModel.getPeakDataset());
+        decimatedPeakDataset = createDecimatedDataset(spectrumPanelModel.getPeakDataset());
+        plot.setDataset(DEFAULT_PEAK_DATASET_INDEX, decimatedPeakDataset);
 
         // add mass diff dataset
         plot.setDataset(DEFAULT_MASS_DIFF_DATASET_INDEX, spectrumPanelModel.getMassDiffDataset());
@@ -19,6 +19,7 @@ import org.jfree.ui.RectangleEdge;
 import org.jfree.ui.TextAnchor;
 import org.jfree.util.BooleanList;
 import org.jfree.util.ShapeUtilities;
+import uk.ac.ebi.pride.mzgraph.chart.data.util.DecimatedXYDataset;
 import uk.ac.ebi.pride.mzgraph.chart.label.PeakItemLabelGenerator;
 
 import java.awt.*;
@@ -85,6 +86,13 @@ public class PeakRenderer extends AbstractXYItemRenderer
         fireChangeEvent();
     }
 
+    /**
+     * Highlight an item, the item is an index of the source dataset when the dataset is a DecimatedXYDataset,
+     * so the highlighted peak does not change when the view is rebuilt
+     *
+     * @param series series index
+     * @param item   item index, in the source dataset
+     */
     public void setHighlightedItem(int series, int item) {
         if (highlightSeries != series || highlightItem != item) {
             highlightSeries = series;
@@ -210,25 +218,29 @@ public class PeakRenderer extends AbstractXYItemRenderer
         double yy = rangeAxis.valueToJava2D(y, dataArea, yAxisLocation);
         double yyLow = rangeAxis.valueToJava2D(yLow, dataArea, yAxisLocation);
 
-        Paint p = getItemPaint(series, item);
+        // the highlighted item is an item of the source dataset
+        int sourceItem = dataset instanceof DecimatedXYDataset ? ((DecimatedXYDataset) dataset).getSourceItem(series, item) : item;
+
+        Paint p = getItemPaint(series, sourceItem);
         Stroke s = getItemStroke(series, item);
-        Shape shape = getItemShape(series, item);
         Line2D line = null;
-        Shape top = null;
         PlotOrientation orientation = plot.getOrientation();
-        if (orientation == PlotOrientation.HORIZONTAL) {
+        boolean horizontal = orientation == PlotOrientation.HORIZONTAL;
+        if (horizontal) {
             line = new Line2D.Double(yyLow, xx, yy, xx);
-            top = ShapeUtilities.createTranslatedShape(shape, yy, xx);
         } else if (orientation == PlotOrientation.VERTICAL) {
             line = new Line2D.Double(xx, yyLow, xx, yy);
-            top = ShapeUtilities.createTranslatedShape(shape, xx, yy);
         }
 
         // draw the peak
         g2.setPaint(p);
         g2.setStroke(s);
         g2.draw(line);
-        if (isItemShapeVisible(series, item)) {
+        if (isItemShapeVisible(series, sourceItem)) {
+            // only the highlighted peak has a shape, translate it when needed
+            Shape shape = getItemShape(series, item);
+            Shape top = horizontal ? ShapeUtilities.createTranslatedShape(shape, yy, xx)
+                    : ShapeUtilities.createTranslatedShape(shape, xx, yy);
             g2.draw(top);
             // set m/z and intensity annotation
             java.util.List<XYAnnotation> annotations = plot.getAnnotations();
@@ -247,7 +259,7 @@ public class PeakRenderer extends AbstractXYItemRenderer
         }
 
         // draw item label
-        if (isItemLabelVisible(series, item)) {
+        if (isItemLabelVisible(series, sourceItem)) {
             drawItemLabel(g2, orientation, dataset, series, item, xx, yy, false);
         }
 
@@ -52,6 +52,12 @@ public class ExperimentalFragmentedIonsTableModel extends TheoreticalFragmentedI
      */
     private PeakSet peakSet = new PeakSet();
 
+    /**
+     * matches the peak set every time the annotations are calculated, its noise filter keeps
+     * the threshold of the last peak set.
+     */
+    private final PSMMatcher psmMatcher = PSMMatcher.getInstance();
+
     /**
      * There are some observers of experimental table model data change.
      * In our system, we use a sorted map to store the observers, which key means the update order.
@@ -338,7 +344,7 @@ public class ExperimentalFragmentedIonsTableModel extends TheoreticalFragmentedI
      * call PSM algorithm to generate auto annotations.
      */
     private IonAnnotation[][]  match() {
-        return PSMMatcher.getInstance().match(this, this.peakSet);
+        return psmMatcher.match(this, this.peakSet);
     }
 
     public boolean isCalculate() {
@@ -1,6 +1,6 @@
 package uk.ac.ebi.pride.mzgraph.psm.match;
 
-import uk.ac.ebi.pride.iongen.model.Peak;
+import uk.ac.ebi.pride.iongen.model.PeakList;
 import uk.ac.ebi.pride.iongen.model.PeakSet;
 import uk.ac.ebi.pride.iongen.model.ProductIon;
 import uk.ac.ebi.pride.iongen.utils.ApproximateComparator;
@@ -59,8 +59,11 @@ public class MaxSpectraMatcher implements SpectraMatcher {
         FragmentIonType type;
         int location;
         NeutralLoss loss;
-        PeakSet set;
-        Peak peak;
+        PeakList set;
+        int peak;
+
+        // convert once, the subsets below are views without copying peaks
+        PeakList peakList = peakSet.toPeakList();
 
         for (int row = 0; row < tableModel.getRowCount(); row++) {
             for (int col = 0; col < tableModel.getColumnCount(); col++) {
@@ -69,11 +72,11 @@ public class MaxSpectraMatcher implements SpectraMatcher {
                     ion = (ProductIon) cell;
                     theoretical = ion.getMassOverCharge();
 
-                    set = peakSet.subSet(theoretical, range);
+                    set = peakList.subListByMz(theoretical, range);
                     if (set.size() > 0) {
-                        peak = set.getMaxIntensityPeak();
-                        mz = peak.getMz();
-                        intensity = peak.getIntensity();
+                        peak = set.getMaxIntensityIndex();
+                        mz = set.getMz(peak);
+                        intensity = set.getIntensity(peak);
 
                         charge = ion.getCharge();
                         location = ion.getPosition();
@@ -16,6 +16,12 @@ import java.util.Arrays;
  * Date: 02/11/12
  */
 public class ASANoiseFilter implements NoiseFilter {
+    /**
+     * Noise threshold of the last spectrum filtered by this instance, reused by the following
+     * passes over the same spectrum.
+     */
+    private volatile NoiseEstimate lastEstimate;
+
     private double calcSum(double[] values) {
         if (values == null) {
             throw new IllegalArgumentException("Can not calculate sum of null!");
@@ -43,6 +49,9 @@ public class ASANoiseFilter implements NoiseFilter {
         return squares / (double) values.length;
     }
 
+    /**
+     * Calculate the median in linear time, notice: the order of the values is changed.
+     */
     private double calculateMedian(double[] values) {
         if (values == null || values.length == 0) {
             throw new IllegalArgumentException("Can not calculate median of null or empty array!");
@@ -54,19 +63,84 @@ public class ASANoiseFilter implements NoiseFilter {
         }
 
         double result; // the median we are going to calculate
-        Arrays.sort(values);
-
         int middle = values.length / 2; // determine the middle of the list
+        double upper = select(values, middle);
+
         if (values.length % 2 == 0) { // even number of elements (middle is between two values)
-            // build the average between the two values next to the middle
-            result = (values[middle] + values[middle - 1]) / 2d;
+            // build the average between the two values next to the middle,
+            // after the selection the values before the middle are not greater than it
+            result = (upper + max(values, 0, middle)) / 2d;
         } else { // uneven number of elements (middle is one value of the list)
-            result = values[middle];
+            result = upper;
         }
 
         return result;
     }
 
+    /**
+     * Find the k-th smallest value by quick select. Afterwards the values before position k
+     * are not greater than it, and the values after it are not smaller.
+     */
+    private double select(double[] values, int k) {
+        int left = 0;
+        int right = values.length - 1;
+        // sort the rest if the partitions do not shrink fast enough, this bounds the worst case
+        int rounds = 2 * (32 - Integer.numberOfLeadingZeros(values.length));
+
+        while (left < right) {
+            if (rounds-- == 0) {
+                Arrays.sort(values, left, right + 1);
+                break;
+            }
+
+            // median of three as the pivot
+            int mid = (left + right) >>> 1;
+            if (values[mid] < values[left]) {
+                swap(values, left, mid);
+            }
+            if (values[right] < values[left]) {
+                swap(values, left, right);
+            }
+            if (values[right] < values[mid]) {
+                swap(values, mid, right);
+            }
+            double pivot = values[mid];
+
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                // values between j and i are equal to the pivot
+                break;
+            }
+        }
+
+        return values[k];
+    }
+
+    private void swap(double[] values, int i, int j) {
+        double tmp = values[i];
+        values[i] = values[j];
+        values[j] = tmp;
+    }
+
     private double min(double[] doubles) {
         if (doubles == null || doubles.length == 0) {
             throw new NullPointerException("array is null!");
@@ -84,8 +158,12 @@ public class ASANoiseFilter implements NoiseFilter {
             throw new NullPointerException("array is null!");
         }
 
-        double max = doubles[0];
-        for (int i = 1; i < doubles.length; i++) {
+        return max(doubles, 0, doubles.length);
+    }
+
+    private double max(double[] doubles, int from, int to) {
+        double max = doubles[from];
+        for (int i = from + 1; i < to; i++) {
             max = Math.max(max, doubles[i]);
         }
         return max;
@@ -111,9 +189,9 @@ public class ASANoiseFilter implements NoiseFilter {
         //the noise treshold for the privided signal values.
         double[] winsorisedValues = winsorise(signalValues);
 
-        double winsorisedMedian = calculateMedian(winsorisedValues);
         double winsorisedMean = calculateMean(winsorisedValues);
         double winsorisedStandardDeviation = Math.sqrt(calcVariance(winsorisedValues, winsorisedMean));
+        double winsorisedMedian = calculateMedian(winsorisedValues);
 
         //check if the winsorised mean to mean ratio exceeds a given threshold
         double meanRatio = ((winsorisedMean - 0.0) < 0.001) ? 0.0 : winsorisedMean / mean;
@@ -143,32 +221,33 @@ public class ASANoiseFilter implements NoiseFilter {
     }
 
     private double[] winsorise(double[] signalValues) {
-        double median = calculateMedian(signalValues);
-        double currMAD = calcIntensityMAD(signalValues, median);
+        // working array for the medians, the signal values keep their order
+        double[] work = new double[signalValues.length];
+        System.arraycopy(signalValues, 0, work, 0, signalValues.length);
+
+        double median = calculateMedian(work);
+        double currMAD = calcIntensityMAD(signalValues, median, work);
         double prevMAD = 3d * currMAD; //initial start value
         double[] correctedIntensities = new double[signalValues.length];
 
         while (((prevMAD - currMAD) / prevMAD) >= MzGraphConstants.ASA_CONVERGENCE_CRITERIUM) {
-            correctedIntensities = reduceOutliers(signalValues, median + (MzGraphConstants.ASA_WINSORISATION_CONSTANT * currMAD));
+            reduceOutliers(signalValues, median + (MzGraphConstants.ASA_WINSORISATION_CONSTANT * currMAD), correctedIntensities);
             prevMAD = currMAD;
-            currMAD = calcIntensityMAD(correctedIntensities, median);
+            currMAD = calcIntensityMAD(correctedIntensities, median, work);
         }
 
         return correctedIntensities;
     }
 
-    private double calcIntensityMAD(double[] values, double median) {
-        double[] diffs = new double[values.length];
-        int cnt = 0;
-        for (double p : values) {
-            diffs[cnt++] = (Math.abs(p - median));
+    private double calcIntensityMAD(double[] values, double median, double[] diffs) {
+        for (int i = 0; i < values.length; i++) {
+            diffs[i] = Math.abs(values[i] - median);
         }
 
         return calculateMedian(diffs);
     }
 
-    private double[] reduceOutliers(double[] intensities, double maxIntensityLimit) {
-        double[] correctedIntensities = new double[intensities.length];
+    private void reduceOutliers(double[] intensities, double maxIntensityLimit, double[] correctedIntensities) {
         //sets all the values above the limit (outliers) to the limit
         //and therefore effectively eliminating outliers
         for (int i = 0; i < intensities.length; i++) {
@@ -178,7 +257,22 @@ public class ASANoiseFilter implements NoiseFilter {
                 correctedIntensities[i] = maxIntensityLimit;
             }
         }
-        return correctedIntensities;
+    }
+
+    /**
+     * Get the noise threshold of the peaks, the threshold of the last spectrum is reused
+     * if the peak intensities are the same.
+     */
+    public double getNoiseThreshold(PeakSet peaks) {
+        double[] intensities = peaks.getIntensityArray();
+
+        NoiseEstimate estimate = lastEstimate;
+        if (estimate == null || !Arrays.equals(estimate.intensities, intensities)) {
+            estimate = new NoiseEstimate(intensities.clone(), findNoiseThreshold(intensities));
+            lastEstimate = estimate;
+        }
+
+        return estimate.threshold;
     }
 
     @Override
@@ -187,12 +281,26 @@ public class ASANoiseFilter implements NoiseFilter {
             return null;
         }
 
+        return filterNoise(peaks, tableModel.getPrecursorIon().getMassOverCharge());
+    }
+
+    /**
+     * Remove the peaks below the noise threshold and the peaks near the precursor.
+     *
+     * @param peaks                     the spectrum peaks.
+     * @param experimentalPrecursorMass the experimental precursor m/z.
+     * @return the filtered peaks.
+     */
+    public PeakSet filterNoise(PeakSet peaks, double experimentalPrecursorMass) {
+        if (peaks == null) {
+            return null;
+        }
+
         if (peaks.size() == 0) {
             return peaks;
         }
 
-        double experimentalPrecursorMass = tableModel.getPrecursorIon().getMassOverCharge();
-        double threshold = findNoiseThreshold(peaks.getIntensityArray());
+        double threshold = getNoiseThreshold(peaks);
 
         PeakSet result = new PeakSet();
 
@@ -213,4 +321,14 @@ public class ASANoiseFilter implements NoiseFilter {
 
         return result;
     }
+
+    private static class NoiseEstimate {
+        private final double[] intensities;
+        private final double threshold;
+
+        private NoiseEstimate(double[] intensities, double threshold) {
+            this.intensities = intensities;
+            this.threshold = threshold;
+        }
+    }
 }
@@ -0,0 +1,211 @@
+package uk.ac.ebi.pride.mzgraph.chart.data.util;
+
+import org.jfree.chart.axis.NumberAxis;
+import org.jfree.data.Range;
+import org.jfree.data.xy.DefaultXYDataset;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Compare the view of DecimatedXYDataset with a brute force scan of the source points.
+ *
+ * Date: 17/10/2026
+ */
+public class DecimatedXYDatasetTest {
+    private static final String SERIES = "peaks";
+
+    /**
+     * Points at x = 0, 1, 2 ... with random y values, in the given order of x
+     */
+    private static DefaultXYDataset createSource(Random random, int size, boolean shuffled) {
+        double[] x = new double[size];
+        double[] y = new double[size];
+        for (int i = 0; i < size; i++) {
+            x[i] = i;
+        }
+        if (shuffled) {
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                double tmp = x[i];
+                x[i] = x[j];
+                x[j] = tmp;
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            y[i] = random.nextDouble() * 1000.0;
+        }
+
+        DefaultXYDataset source = new DefaultXYDataset();
+        source.addSeries(SERIES, new double[][]{x, y});
+        return source;
+    }
+
+    /**
+     * Check that every bucket of the visible range keeps exactly its lowest and highest points
+     */
+    private void assertBucketsMatch(DefaultXYDataset source, DecimatedXYDataset dataset, double lowerX, double upperX) {
+        int buckets = dataset.getResolution();
+        double width = (upperX - lowerX) / buckets;
+
+        double[] expectedMin = new double[buckets];
+        double[] expectedMax = new double[buckets];
+        double[] viewMin = new double[buckets];
+        double[] viewMax = new double[buckets];
+        int[] viewCount = new int[buckets];
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            expectedMin[bucket] = Double.POSITIVE_INFINITY;
+            expectedMax[bucket] = Double.NEGATIVE_INFINITY;
+            viewMin[bucket] = Double.POSITIVE_INFINITY;
+            viewMax[bucket] = Double.NEGATIVE_INFINITY;
+        }
+
+        for (int i = 0; i < source.getItemCount(0); i++) {
+            double x = source.getXValue(0, i);
+            if (x >= lowerX && x <= upperX) {
+                int bucket = bucket(x, lowerX, width, buckets);
+                expectedMin[bucket] = Math.min(expectedMin[bucket], source.getYValue(0, i));
+                expectedMax[bucket] = Math.max(expectedMax[bucket], source.getYValue(0, i));
+            }
+        }
+
+        for (int i = 0; i < dataset.getItemCount(0); i++) {
+            double x = dataset.getXValue(0, i);
+            if (x >= lowerX && x <= upperX) {
+                int bucket = bucket(x, lowerX, width, buckets);
+                viewMin[bucket] = Math.min(viewMin[bucket], dataset.getYValue(0, i));
+                viewMax[bucket] = Math.max(viewMax[bucket], dataset.getYValue(0, i));
+                viewCount[bucket]++;
+            }
+        }
+
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            assertEquals("Lowest point of bucket " + bucket, expectedMin[bucket], viewMin[bucket], 0.0);
+            assertEquals("Highest point of bucket " + bucket, expectedMax[bucket], viewMax[bucket], 0.0);
+            assertTrue("At most two points per bucket", viewCount[bucket] <= 2);
+        }
+    }
+
+    private static int bucket(double x, double lowerX, double width, int buckets) {
+        return Math.min(buckets - 1, (int) Math.floor((x - lowerX) / width));
+    }
+
+    private void assertSourceItemsMatch(DefaultXYDataset source, DecimatedXYDataset dataset) {
+        double previousX = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < dataset.getItemCount(0); i++) {
+            int sourceItem = dataset.getSourceItem(0, i);
+            assertEquals(source.getXValue(0, sourceItem), dataset.getXValue(0, i), 0.0);
+            assertEquals(source.getYValue(0, sourceItem), dataset.getYValue(0, i), 0.0);
+            assertTrue("View should be sorted by x", dataset.getXValue(0, i) > previousX);
+            previousX = dataset.getXValue(0, i);
+        }
+    }
+
+    @Test
+    public void testSmallSeriesIsNotDecimated() {
+        DefaultXYDataset source = createSource(new Random(1), 100, false);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source);
+        dataset.setResolution(50);
+
+        assertEquals(100, dataset.getItemCount(0));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, dataset.getSourceItem(0, i));
+        }
+    }
+
+    @Test
+    public void testBucketMinMax() {
+        DefaultXYDataset source = createSource(new Random(2), 10000, false);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source);
+        dataset.setResolution(37);
+
+        assertTrue(dataset.getItemCount(0) <= 2 * 37);
+        assertBucketsMatch(source, dataset, 0, 9999);
+        assertSourceItemsMatch(source, dataset);
+    }
+
+    @Test
+    public void testClosestPointsOutsideOfRange() {
+        DefaultXYDataset source = createSource(new Random(3), 10000, false);
+        NumberAxis axis = new NumberAxis();
+        axis.setRange(1000.5, 3000.5);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source, axis);
+        dataset.setResolution(100);
+
+        int count = dataset.getItemCount(0);
+        assertEquals("Closest point on the left of the range", 1000.0, dataset.getXValue(0, 0), 0.0);
+        assertEquals("Closest point on the right of the range", 3001.0, dataset.getXValue(0, count - 1), 0.0);
+        assertBucketsMatch(source, dataset, 1000.5, 3000.5);
+    }
+
+    @Test
+    public void testWholeDomainKeepsFirstAndLastPoints() {
+        DefaultXYDataset source = createSource(new Random(4), 5000, false);
+        NumberAxis axis = new NumberAxis();
+        axis.setRange(-10, 6000);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source, axis);
+        dataset.setResolution(10);
+
+        // no point outside of the range, but the first and last buckets hold the first and last points
+        assertBucketsMatch(source, dataset, -10, 6000);
+        assertEquals(new Range(0, 4999), dataset.getDomainBounds(false));
+    }
+
+    @Test
+    public void testUnsortedInput() {
+        DefaultXYDataset source = createSource(new Random(5), 10000, true);
+        NumberAxis axis = new NumberAxis();
+        axis.setRange(2000, 4000);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source, axis);
+        dataset.setResolution(50);
+
+        assertEquals(new Range(0, 9999), dataset.getDomainBounds(false));
+        assertBucketsMatch(source, dataset, 2000, 4000);
+        assertSourceItemsMatch(source, dataset);
+    }
+
+    @Test
+    public void testRebuildOnRangeChange() {
+        DefaultXYDataset source = createSource(new Random(6), 10000, false);
+        NumberAxis axis = new NumberAxis();
+        axis.setRange(0, 9999);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source, axis);
+        dataset.setResolution(20);
+        assertBucketsMatch(source, dataset, 0, 9999);
+
+        // zoom in, so all the points of the range fit in the view
+        axis.setRange(500, 530);
+        assertEquals("All the points in the range and one on each side", 33, dataset.getItemCount(0));
+        for (int i = 0; i < dataset.getItemCount(0); i++) {
+            assertEquals(499.0 + i, dataset.getXValue(0, i), 0.0);
+            assertEquals(499 + i, dataset.getSourceItem(0, i));
+        }
+
+        // zoom out again
+        axis.setRange(5000, 9000);
+        assertBucketsMatch(source, dataset, 5000, 9000);
+        assertSourceItemsMatch(source, dataset);
+
+        // change the resolution
+        dataset.setResolution(200);
+        assertBucketsMatch(source, dataset, 5000, 9000);
+    }
+
+    @Test
+    public void testRebuildOnSourceChange() {
+        Random random = new Random(7);
+        DefaultXYDataset source = createSource(random, 10000, false);
+        DecimatedXYDataset dataset = new DecimatedXYDataset(source);
+        dataset.setResolution(20);
+        assertBucketsMatch(source, dataset, 0, 9999);
+
+        // replace the series
+        source.addSeries(SERIES, new double[][]{{5.0, 1.0, 3.0}, {1.0, 2.0, 3.0}});
+        assertEquals(3, dataset.getItemCount(0));
+        assertEquals(1.0, dataset.getXValue(0, 0), 0.0);
+        assertEquals(1, dataset.getSourceItem(0, 0));
+        assertEquals(3.0, dataset.getRangeUpperBound(false), 0.0);
+    }
+}
@@ -0,0 +1,67 @@
+package uk.ac.ebi.pride.mzgraph.psm.noise;
+
+import org.openjdk.jmh.annotations.*;
+import uk.ac.ebi.pride.iongen.model.PeakSet;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Noise filter on dense spectra, the selection based ASANoiseFilter against the sort based reference.
+ * Every spectrum is filtered three times, once for each product ion pair, as PSMMatcher does.
+ * <p/>
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ * <p/>
+ * Date: 17/10/2026
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ASANoiseFilterBenchmark {
+    private static final int PASSES = 3;
+    private static final double PRECURSOR_MZ = 500.0;
+
+    @Param({"20000"})
+    private int numberOfPeaks;
+
+    @Param({"50"})
+    private int numberOfSpectra;
+
+    private PeakSet[] spectra;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(20121102L);
+        spectra = new PeakSet[numberOfSpectra];
+        for (int i = 0; i < numberOfSpectra; i++) {
+            spectra[i] = ASANoiseFilterTest.createSpectrum(random, numberOfPeaks, 0.01, 0.02, false);
+        }
+    }
+
+    @Benchmark
+    public long selection() {
+        ASANoiseFilter filter = new ASANoiseFilter();
+        long peaks = 0;
+        for (PeakSet spectrum : spectra) {
+            for (int pass = 0; pass < PASSES; pass++) {
+                peaks += filter.filterNoise(spectrum, PRECURSOR_MZ).size();
+            }
+        }
+        return peaks;
+    }
+
+    @Benchmark
+    public long sort() {
+        ASANoiseFilterReference filter = new ASANoiseFilterReference();
+        long peaks = 0;
+        for (PeakSet spectrum : spectra) {
+            for (int pass = 0; pass < PASSES; pass++) {
+                peaks += filter.filterNoise(spectrum, PRECURSOR_MZ).size();
+            }
+        }
+        return peaks;
+    }
+}
@@ -0,0 +1,128 @@
+package uk.ac.ebi.pride.mzgraph.psm.noise;
+
+import org.junit.Test;
+import uk.ac.ebi.pride.iongen.model.PeakSet;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compare the selection based ASANoiseFilter with the sort based reference.
+ * <p/>
+ * The reference sorts the intensities for the median before it sums the winsorised intensities for their mean
+ * and variance, the selection leaves them partly ordered, so these sums are accumulated in another order. The thresholds are compared
+ * with a relative tolerance of THRESHOLD_TOLERANCE, the filtered peaks must be the same.
+ *
+ * Date: 17/10/2026
+ */
+public class ASANoiseFilterTest {
+    private static final double PRECURSOR_MZ = 500.0;
+
+    /**
+     * relative difference allowed between the thresholds, a few ulps of rounding in the sums of up to 2000 values
+     */
+    private static final double THRESHOLD_TOLERANCE = 1e-12;
+
+    /**
+     * Create a spectrum with exponential distributed noise and a fraction of high signal peaks.
+     *
+     * @param random        random generator
+     * @param size          number of peaks
+     * @param spacing       m/z distance between the peaks, controls the peak density
+     * @param signalRatio   fraction of the peaks which are signal
+     * @param integral      round the intensities, so there are a lot of equal values
+     * @return the peaks
+     */
+    static PeakSet createSpectrum(Random random, int size, double spacing, double signalRatio, boolean integral) {
+        double[] mz = new double[size];
+        double[] intensity = new double[size];
+        for (int i = 0; i < size; i++) {
+            mz[i] = 100.0 + i * spacing + random.nextDouble() * spacing / 2;
+            double value = -100.0 * Math.log(1.0 - random.nextDouble());
+            if (random.nextDouble() < signalRatio) {
+                value += 10000.0 + random.nextDouble() * 90000.0;
+            }
+            intensity[i] = integral ? Math.rint(value / 50.0) : value;
+        }
+        return PeakSet.getInstance(mz, intensity);
+    }
+
+    private void assertSameFilteredPeaks(PeakSet peaks) {
+        ASANoiseFilterReference reference = new ASANoiseFilterReference();
+        ASANoiseFilter filter = new ASANoiseFilter();
+
+        double expectedThreshold = reference.findNoiseThreshold(peaks.getIntensityArray());
+        double threshold = filter.getNoiseThreshold(peaks);
+        assertEquals(expectedThreshold, threshold, Math.abs(expectedThreshold) * THRESHOLD_TOLERANCE);
+
+        PeakSet expected = reference.filterNoise(peaks, PRECURSOR_MZ);
+        PeakSet result = filter.filterNoise(peaks, PRECURSOR_MZ);
+        assertTrue(Arrays.equals(expected.getMzArray(), result.getMzArray()));
+        assertTrue(Arrays.equals(expected.getIntensityArray(), result.getIntensityArray()));
+    }
+
+    @Test
+    public void testRandomSpectra() throws Exception {
+        Random random = new Random(20121102L);
+        double[] spacings = {0.01, 0.5, 5.0};
+        double[] signalRatios = {0.0, 0.05, 0.5, 1.0};
+
+        for (int round = 0; round < 20; round++) {
+            for (double spacing : spacings) {
+                for (double signalRatio : signalRatios) {
+                    int size = 1 + random.nextInt(2000);
+                    assertSameFilteredPeaks(createSpectrum(random, size, spacing, signalRatio, false));
+                    assertSameFilteredPeaks(createSpectrum(random, size, spacing, signalRatio, true));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSmallSpectra() throws Exception {
+        Random random = new Random(7L);
+        for (int size = 1; size <= 10; size++) {
+            for (int round = 0; round < 50; round++) {
+                assertSameFilteredPeaks(createSpectrum(random, size, 1.0, 0.3, round % 2 == 0));
+            }
+        }
+    }
+
+    @Test
+    public void testEqualIntensities() throws Exception {
+        double[] mz = new double[100];
+        double[] intensity = new double[100];
+        for (int i = 0; i < mz.length; i++) {
+            mz[i] = 300.0 + i * 5.0;
+            intensity[i] = 42.0;
+        }
+        assertSameFilteredPeaks(PeakSet.getInstance(mz, intensity));
+    }
+
+    @Test
+    public void testEmptySpectrum() throws Exception {
+        ASANoiseFilter filter = new ASANoiseFilter();
+        assertTrue(filter.filterNoise(new PeakSet(), PRECURSOR_MZ).isEmpty());
+        assertTrue(filter.filterNoise(null, PRECURSOR_MZ) == null);
+    }
+
+    @Test
+    public void testThresholdReused() throws Exception {
+        Random random = new Random(11L);
+        ASANoiseFilterReference reference = new ASANoiseFilterReference();
+        ASANoiseFilter filter = new ASANoiseFilter();
+
+        PeakSet first = createSpectrum(random, 500, 0.5, 0.1, false);
+        PeakSet second = createSpectrum(random, 500, 0.5, 0.1, false);
+        double threshold = filter.getNoiseThreshold(first);
+
+        // a copy of the same spectrum gets the same threshold, another spectrum gets its own
+        assertEquals(threshold, filter.getNoiseThreshold(new PeakSet(first)), 0.0);
+        assertEquals(reference.findNoiseThreshold(second.getIntensityArray()), filter.getNoiseThreshold(second),
+                Math.abs(threshold) * THRESHOLD_TOLERANCE);
+        assertEquals(threshold, filter.getNoiseThreshold(first), Math.abs(threshold) * THRESHOLD_TOLERANCE);
+    }
+}
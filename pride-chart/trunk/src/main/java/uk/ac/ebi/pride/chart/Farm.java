@@ -2,90 +2,133 @@ package uk.ac.ebi.pride.chart;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import uk.ac.ebi.pride.chart.controller.DBAccessController;
-import uk.ac.ebi.pride.chart.controller.PrideChartSummaryData;
-import uk.ac.ebi.pride.chart.graphics.implementation.PrideChart;
-import uk.ac.ebi.pride.chart.graphics.implementation.PrideChartException;
-import uk.ac.ebi.pride.chart.graphics.implementation.PrideChartFactory;
-import uk.ac.ebi.pride.chart.model.implementation.SpectralDataPerExperimentException;
+import uk.ac.ebi.pride.chart.controller.*;
+import uk.ac.ebi.pride.chart.farm.ChartFarm;
+import uk.ac.ebi.pride.chart.farm.FarmCheckpoint;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 
 /**
  * <p>Main class for running PRIDE-Chart on the FARM</p>
  *
+ * Usage: Farm (pride_1|pride_2) [-host host:port] [-workers n] [-checkpoint file] [-recalculate]
+ *        Farm -h2 dbFile [-workers n] [-checkpoint file] [-recalculate]
+ *
+ * The finished experiments are recorded in the checkpoint file (by default [database].checkpoint),
+ * running the farm again with the same file resumes the work where it stopped.
+ *
  * @author Antonio Fabregat
  * Date: 2-July-2010
  * Time: 14:23:57
  */
 public class Farm {
-    private static DBAccessController dbac;
     private static final Logger logger = LoggerFactory.getLogger(Farm.class);
 
+    private static final String DEFAULT_HOST = "193.62.194.210:5000";
+
+    private static final String USAGE = "Usage: Farm (pride_1|pride_2) [-host host:port] [-workers n] [-checkpoint file] [-recalculate]" +
+            " or Farm -h2 dbFile [-workers n] [-checkpoint file] [-recalculate]";
 
     public static void main(String[] args) {
-        String dbName = "";
-        if(args.length==0){
-            logger.error("Database name (pride_1|pride_2) has to be passed as first parameter");
-            System.exit(1);
-        }else{
-            dbName = args[0];
-            if(!dbName.equals("pride_1") && !dbName.equals("pride_2")){
-                logger.error("Database name (pride_1|pride_2) has to be passed as first parameter");
-                System.exit(1);
+        String dbName = null;
+        String host = DEFAULT_HOST;
+        File h2File = null;
+        File checkpointFile = null;
+        int workers = Runtime.getRuntime().availableProcessors();
+        boolean recalculate = false;
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals("-host")) {
+                    host = args[++i];
+                } else if (args[i].equals("-h2")) {
+                    h2File = new File(args[++i]);
+                } else if (args[i].equals("-workers")) {
+                    workers = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("-checkpoint")) {
+                    checkpointFile = new File(args[++i]);
+                } else if (args[i].equals("-recalculate")) {
+                    recalculate = true;
+                } else if (dbName == null && (args[i].equals("pride_1") || args[i].equals("pride_2"))) {
+                    dbName = args[i];
+                } else {
+                    exit("Unknown parameter " + args[i]);
+                }
             }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            exit("Missing value of parameter " + args[args.length - 1]);
+        } catch (NumberFormatException e) {
+            exit("The number of workers has to be a number: " + e.getMessage());
         }
-        logger.warn("Connecting to public instance at 193.62.194.210:5000, hardcoded in code");
-        String dbAlias = "//193.62.194.210:5000/" + dbName;
-        dbac = new DBAccessController(dbAlias);
 
-        PrideChartSummaryData.setVerbose(false);
-        logger.info("** Starting chart calculation... **");
-        List<String> experimentAccessionNumbers = dbac.getAllExperimentsAccessionNumber();
-        //List<String> experimentAccessionNumbers = new ArrayList<String>();
-        //experimentAccessionNumbers.add("10548");
-        for(String accessionNumber : experimentAccessionNumbers){
-            System.out.print("[" + accessionNumber + "] ");
-            processCharts(accessionNumber);
+        ChartDataSource dataSource;
+        if (h2File != null) {
+            H2ChartDataSource h2DataSource = new H2ChartDataSource(h2File);
+            try {
+                h2DataSource.createSchema();
+            } catch (Exception e) {
+                logger.error("Failed to create the tables of " + h2DataSource.getDescription(), e);
+                System.exit(1);
+            }
+            dataSource = h2DataSource;
+            dbName = h2File.getName();
+        } else if (dbName != null) {
+            dataSource = new MySqlChartDataSource("//" + host + "/" + dbName);
+        } else {
+            exit("Database name (pride_1|pride_2) has to be passed as first parameter");
+            return;
         }
-        logger.info("");
-        logger.info("** Work finished successfully **");
-    }
-
-    public static void processCharts(String accessionNumber) {
-        //Retrieving data from database
-        List<PrideChart> prideCharts = getChartData(accessionNumber);
+        logger.info("Connecting to " + dataSource.getDescription());
 
-        //Here you can check if size is equal to a number if you add a new chart and want to recalculate everything
-        if (prideCharts.isEmpty()) {
-            try {
-                PrideChartSummaryData  summaryData = new PrideChartSummaryData(accessionNumber, dbac);
+        if (checkpointFile == null) {
+            checkpointFile = new File(dbName + ".checkpoint");
+        }
 
-                prideCharts = PrideChartFactory.getAllCharts(summaryData);
+        FarmCheckpoint checkpoint = null;
+        try {
+            checkpoint = new FarmCheckpoint(checkpointFile);
+            logger.info(checkpoint.getFinishedCount() + " experiments already finished in " + checkpointFile.getAbsolutePath());
 
-                for (PrideChart chart : prideCharts)
-                    storeChartData(summaryData.getExperimentID(), chart);
+            List<String> experimentAccessionNumbers = getAllExperimentsAccessionNumber(dataSource);
 
-                logger.info(" has been successfully calculated");
-            } catch (SpectralDataPerExperimentException e) {
-                System.out.println( e.getMessage() );
+            PrideChartSummaryData.setVerbose(false);
+            logger.info("** Starting chart calculation of " + experimentAccessionNumbers.size() + " experiments with " +
+                    workers + " workers... **");
+            ChartFarm farm = new ChartFarm(dataSource, workers, checkpoint);
+            farm.setRecalculate(recalculate);
+            farm.run(experimentAccessionNumbers);
+            logger.info("** Work finished successfully **");
+        } catch (IOException e) {
+            logger.error("Failed to open the checkpoint file " + checkpointFile.getAbsolutePath(), e);
+            System.exit(1);
+        } catch (InterruptedException e) {
+            logger.error("Interrupted, run the farm again with the same checkpoint file to resume", e);
+            System.exit(1);
+        } finally {
+            if (checkpoint != null) {
+                try {
+                    checkpoint.close();
+                } catch (IOException e) {
+                    logger.error(e.getMessage(), e);
+                }
             }
-        } else {
-            logger.info(" has been successfully calculated");
         }
     }
 
-    private static void storeChartData(int experimentID, PrideChart prideChart) {
+    private static List<String> getAllExperimentsAccessionNumber(ChartDataSource dataSource) {
+        DBAccessController dbac = new DBAccessController(dataSource);
         try {
-            int type = PrideChartFactory.getPrideChartIdentifier(prideChart);
-            dbac.storeChartData(experimentID, type, prideChart.getChartJSonData());
-        } catch (PrideChartException e) {
-            logger.error(e.getMessage(), e);
+            return dbac.getAllExperimentsAccessionNumber();
+        } finally {
+            dbac.close();
         }
     }
 
-    private static List<PrideChart> getChartData(String accessionNumber) {
-        int experimentID = dbac.getExperimentID(accessionNumber);
-        return dbac.getChartData(experimentID);
+    private static void exit(String message) {
+        logger.error(message);
+        logger.error(USAGE);
+        System.exit(1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package uk.ac.ebi.pride.chart.controller;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * <p> Source of database connections to a PRIDE database, used to create one DBAccessController per worker.</p>
+ *
+ * Date: 17-oct-2026
+ */
+public interface ChartDataSource {
+
+    /**
+     * Opens a new connection to the database, the caller is responsible for closing it
+     *
+     * @return a new database connection
+     * @throws SQLException if the connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException;
+
+    /**
+     * Returns a human readable description of the database, for logging
+     *
+     * @return a description of the database
+     */
+    public String getDescription();
+}
@@ -10,8 +10,6 @@ import uk.ac.ebi.pride.engine.SearchEngineType;
 import uk.ac.ebi.pride.term.CvTermReference;
 import uk.ac.ebi.pride.util.NumberUtilities;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.sql.*;
 import java.util.*;
 
@@ -47,34 +45,36 @@ public class DBAccessController {
      * <p> Creates an instance of this DBAccessController object</p>
      */
     public DBAccessController(String dbAlias) {
-        //get properties file
-        Properties properties = new Properties();
-        InputStream is = this.getClass().getClassLoader().getResourceAsStream("database.properties");
-        try {
-            properties.load(is);
-        }
-        catch (IOException e) {
-            logger.error(e.getMessage(), e);
-        }
-        //create connection
-        //load driver
-        try {
-            Class.forName("com.mysql.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            logger.error(e.getMessage(), e);
-        }
-        dbAlias = dbAlias.equals("")?properties.getProperty("alias"):dbAlias;
-        String url_connection = properties.getProperty("protocol") + ':' + properties.getProperty("subprotocol") +
-                ':' + dbAlias;
-        logger.debug("Connecting to " + url_connection );
+        this(new MySqlChartDataSource(dbAlias));
+    }
+
+    /**
+     * <p> Creates an instance of this DBAccessController object with a new connection of the given data source</p>
+     *
+     * @param dataSource the data source to connect to
+     */
+    public DBAccessController(ChartDataSource dataSource) {
         try {
-            DBConnection = DriverManager.getConnection(url_connection, properties.getProperty("user"), properties.getProperty("password"));
+            DBConnection = dataSource.getConnection();
         }
         catch (SQLException err) {
             logger.error(err.getMessage(), err);
         }
     }
 
+    /**
+     * <p> Closes the database connection</p>
+     */
+    public void close() {
+        if (DBConnection != null) {
+            try {
+                DBConnection.close();
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+    }
+
     //Precursor Mass Data Query
 
     public List<PrecursorData> precursorMassData(String accessionNumber) {
@@ -241,7 +241,7 @@ public class DBAccessController {
                             "   c.binary_array_id=a.binary_array_id and " +
                             "   m.accession_number = ? and " +
                             "   s.ms_level= 2 " +
-                            "group by a.binary_array_id " +
+                            "group by s.spectrum_id, c.data_endian, a.binary_array_id, c.data_precision " +
                             "order by s.spectrum_id "); //Needed for retrieving data of mz and intensity in the same order
             st.setString(1, accessionNumber);
 
@@ -288,7 +288,7 @@ public class DBAccessController {
                             "   c.binary_array_id=a.binary_array_id and " +
                             "   m.accession_number = ? and " +
                             "   s.ms_level= 2 " +
-                            "group by a.binary_array_id " +
+                            "group by s.spectrum_id, c.data_endian, a.binary_array_id, c.data_precision " +
                             "order by s.spectrum_id "); //Needed for retrieving data of mz and intensity in the same order
             st.setString(1, accessionNumber);
 
@@ -433,8 +433,8 @@ public class DBAccessController {
             boolean is_empty = true;
             while (rs.next()) {
                 is_empty = false;
-                int spectrum_ref = rs.getInt("ms.spectrum_identifier");
-                int spectrum_id = rs.getInt("ms.spectrum_id");
+                int spectrum_ref = rs.getInt("spectrum_identifier");
+                int spectrum_id = rs.getInt("spectrum_id");
                 spectrumsRefs.put(spectrum_ref, spectrum_id);
             }
             rs.close();
@@ -487,11 +487,11 @@ public class DBAccessController {
         Map<Integer, PeptideScore> map = new HashMap<Integer, PeptideScore>();
         try {
             PreparedStatement st = DBConnection.prepareStatement(
-                    "SELECT peptide_id, ppp.accession, value " +
-                            "FROM pride_peptide_param as ppp join pride_peptide on(parent_element_fk=peptide_id)" +
-                            "     join pride_identification using(identification_id) " +
-                            "     join pride_experiment using(experiment_id) " +
-                            "WHERE pride_experiment.accession=?"
+                    "SELECT pep.peptide_id, ppp.accession, ppp.value " +
+                            "FROM pride_peptide_param ppp join pride_peptide pep on (ppp.parent_element_fk = pep.peptide_id) " +
+                            "     join pride_identification ide on (pep.identification_id = ide.identification_id) " +
+                            "     join pride_experiment exp on (ide.experiment_id = exp.experiment_id) " +
+                            "WHERE exp.accession=?"
                     );
             st.setString(1, accessionNumber);
             ResultSet rs = st.executeQuery();
@@ -585,6 +585,77 @@ public class DBAccessController {
         return retValue;
     }
 
+    /**
+     * <p> Stores all the charts of an experiment in a single transaction, so either all of them
+     * or none of them are stored</p>
+     *
+     * @param experimentID the experiment identifier
+     * @param charts       the chart type to the intermediate data of each chart
+     * @return true if the charts have been stored
+     */
+    public boolean storeChartData(int experimentID, Map<Integer, String> charts) {
+        boolean retValue = false;
+        boolean autoCommit = true;
+        try {
+            autoCommit = DBConnection.getAutoCommit();
+            DBConnection.setAutoCommit(false);
+
+            PreparedStatement st = DBConnection.prepareStatement(
+                    "insert into pride_chart_data(experiment_id, chart_type, intermediate_data)" +
+                            "values (?, ?, ?)" +
+                            "on duplicate key update intermediate_data = ?");
+            for (Map.Entry<Integer, String> chart : charts.entrySet()) {
+                st.setInt(1, experimentID);
+                st.setInt(2, chart.getKey());
+                st.setString(3, chart.getValue());
+                st.setString(4, chart.getValue());
+                st.addBatch();
+            }
+            st.executeBatch();
+            st.close();
+
+            DBConnection.commit();
+            retValue = true;
+        } catch (SQLException e) {
+            logger.error("No chart data stored for " + experimentID + ": " + e.getMessage(), e);
+            try {
+                DBConnection.rollback();
+            } catch (SQLException re) {
+                logger.error(re.getMessage(), re);
+            }
+        } finally {
+            try {
+                DBConnection.setAutoCommit(autoCommit);
+            } catch (SQLException e) {
+                logger.error(e.getMessage(), e);
+            }
+        }
+        return retValue;
+    }
+
+    /**
+     * Returns true if charts have been stored for the experiment, without reading them
+     *
+     * @param experimentID the experiment identifier
+     * @return true if there is intermediate chart data for the experiment
+     */
+    public boolean hasChartData(int experimentID){
+        boolean hasData = false;
+        try {
+            PreparedStatement st = DBConnection.prepareStatement(
+                    "select count(*) from pride_chart_data where experiment_id = ? and intermediate_data is not null");
+            st.setInt(1, experimentID);
+            ResultSet rs = st.executeQuery();
+            if (rs.next())
+                hasData = rs.getInt(1) > 0;
+            rs.close();
+            st.close();
+        } catch (SQLException e) {
+            logger.error(e.getMessage(), e);
+        }
+        return hasData;
+    }
+
     public List<PrideChart> getChartData(int experimentID){
         List<PrideChart> list = new ArrayList<PrideChart>();
 
@@ -0,0 +1,116 @@
+package uk.ac.ebi.pride.chart.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * <p> Embedded H2 database with the tables of the PRIDE database used by PRIDE-Chart, for running
+ * the chart generation offline, without a connection to the PRIDE database.</p>
+ *
+ * The database runs in MySQL compatibility mode, so the queries of DBAccessController work unchanged.
+ * The H2 driver is needed on the classpath at runtime only.
+ *
+ * Date: 17-oct-2026
+ */
+public class H2ChartDataSource implements ChartDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(H2ChartDataSource.class);
+
+    /**
+     * Statements creating the tables, separated by ';'
+     */
+    public static final String SCHEMA_RESOURCE = "h2/pride-chart-schema.sql";
+
+    private static final String URL_OPTIONS = ";MODE=MySQL";
+
+    private final String url;
+
+    /**
+     * <p> Creates a data source for a H2 database stored in the given file</p>
+     *
+     * @param dbFile the database file, without the .h2.db extension
+     */
+    public H2ChartDataSource(File dbFile) {
+        this("jdbc:h2:" + dbFile.getAbsolutePath() + URL_OPTIONS);
+    }
+
+    /**
+     * <p> Creates a data source for a H2 database URL</p>
+     *
+     * @param url the H2 JDBC URL, which should set MODE=MySQL
+     */
+    public H2ChartDataSource(String url) {
+        this.url = url;
+        try {
+            Class.forName("org.h2.Driver");
+        } catch (ClassNotFoundException e) {
+            logger.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * <p> Creates a data source for a named in-memory database, which is kept until the JVM exits</p>
+     *
+     * @param name the name of the database
+     * @return a data source for the in-memory database
+     */
+    public static H2ChartDataSource inMemory(String name) {
+        return new H2ChartDataSource("jdbc:h2:mem:" + name + URL_OPTIONS + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(url, "sa", "");
+    }
+
+    @Override
+    public String getDescription() {
+        return url;
+    }
+
+    /**
+     * <p> Creates the PRIDE-Chart tables if they do not exist yet</p>
+     *
+     * @throws SQLException if the tables cannot be created
+     * @throws IOException  if the schema cannot be read
+     */
+    public void createSchema() throws SQLException, IOException {
+        Connection connection = getConnection();
+        try {
+            Statement st = connection.createStatement();
+            for (String sql : readSchema().split(";")) {
+                if (sql.trim().length() > 0) {
+                    st.execute(sql);
+                }
+            }
+            st.close();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private String readSchema() throws IOException {
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream(SCHEMA_RESOURCE);
+        if (is == null) {
+            throw new FileNotFoundException(SCHEMA_RESOURCE);
+        }
+        StringBuilder sb = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(is, "UTF-8"));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().startsWith("--")) {
+                    sb.append(line).append('\n');
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return sb.toString();
+    }
+}
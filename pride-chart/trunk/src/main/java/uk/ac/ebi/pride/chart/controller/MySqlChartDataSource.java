@@ -0,0 +1,71 @@
+package uk.ac.ebi.pride.chart.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * <p> MySQL PRIDE database, configured in database.properties.</p>
+ *
+ * Date: 17-oct-2026
+ */
+public class MySqlChartDataSource implements ChartDataSource {
+    private static final Logger logger = LoggerFactory.getLogger(MySqlChartDataSource.class);
+
+    private final String url;
+
+    private final String user;
+
+    private final String password;
+
+    /**
+     * <p> Creates a data source for the database alias in database.properties</p>
+     */
+    public MySqlChartDataSource() {
+        this("");
+    }
+
+    /**
+     * <p> Creates a data source for the given database alias</p>
+     *
+     * @param dbAlias the database alias (//host:port/database), or an empty string for the alias in database.properties
+     */
+    public MySqlChartDataSource(String dbAlias) {
+        //get properties file
+        Properties properties = new Properties();
+        InputStream is = this.getClass().getClassLoader().getResourceAsStream("database.properties");
+        try {
+            properties.load(is);
+        }
+        catch (IOException e) {
+            logger.error(e.getMessage(), e);
+        }
+        //load driver
+        try {
+            Class.forName("com.mysql.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            logger.error(e.getMessage(), e);
+        }
+        dbAlias = dbAlias.equals("")?properties.getProperty("alias"):dbAlias;
+        url = properties.getProperty("protocol") + ':' + properties.getProperty("subprotocol") + ':' + dbAlias;
+        user = properties.getProperty("user");
+        password = properties.getProperty("password");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        logger.debug("Connecting to " + url);
+        return DriverManager.getConnection(url, user, password);
+    }
+
+    @Override
+    public String getDescription() {
+        return url;
+    }
+}
@@ -0,0 +1,205 @@
+package uk.ac.ebi.pride.chart.farm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.ebi.pride.chart.controller.ChartDataSource;
+import uk.ac.ebi.pride.chart.controller.DBAccessController;
+import uk.ac.ebi.pride.chart.controller.PrideChartSummaryData;
+import uk.ac.ebi.pride.chart.graphics.implementation.PrideChart;
+import uk.ac.ebi.pride.chart.graphics.implementation.PrideChartException;
+import uk.ac.ebi.pride.chart.graphics.implementation.PrideChartFactory;
+import uk.ac.ebi.pride.chart.model.implementation.SpectralDataPerExperimentException;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p> Calculates and stores the charts of many experiments in parallel.</p>
+ *
+ * Experiments are processed by a fixed number of workers, each one with its own database connection.
+ * At most two experiments per worker are queued, when the queue is full the experiment is processed
+ * by the submitting thread, so the accession numbers are not all queued at once.
+ *
+ * Finished experiments are recorded in an optional FarmCheckpoint and skipped when the farm is run again.
+ * The charts of an experiment are stored in a single transaction, so an experiment never has only part
+ * of its charts. Experiments failing with an unexpected error, or whose charts could not be calculated
+ * or stored, are not recorded, so they are retried by the next run.
+ *
+ * Date: 17-oct-2026
+ */
+public class ChartFarm {
+    private static final Logger logger = LoggerFactory.getLogger(ChartFarm.class);
+
+    private final ChartDataSource dataSource;
+
+    private final int workers;
+
+    private final FarmCheckpoint checkpoint;
+
+    /**
+     * If true, the charts are calculated again for experiments which already have charts in the database
+     */
+    private boolean recalculate = false;
+
+    /**
+     * The database access controller of each worker
+     */
+    private final ThreadLocal<DBAccessController> controller = new ThreadLocal<DBAccessController>();
+
+    /**
+     * All the database access controllers, to close them when the farm has finished
+     */
+    private final List<DBAccessController> controllers = Collections.synchronizedList(new ArrayList<DBAccessController>());
+
+    private final AtomicInteger calculated = new AtomicInteger();
+
+    private final AtomicInteger skipped = new AtomicInteger();
+
+    private final AtomicInteger noData = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * <p> Creates a chart farm</p>
+     *
+     * @param dataSource the database to read the experiments from and to store the charts in
+     * @param workers    the number of experiments processed in parallel
+     * @param checkpoint the finished experiments, or null to process all the experiments
+     */
+    public ChartFarm(ChartDataSource dataSource, int workers, FarmCheckpoint checkpoint) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of workers has to be positive: " + workers);
+        }
+        this.dataSource = dataSource;
+        this.workers = workers;
+        this.checkpoint = checkpoint;
+    }
+
+    public void setRecalculate(boolean recalculate) {
+        this.recalculate = recalculate;
+    }
+
+    /**
+     * <p> Processes the charts of all the given experiments and waits until they are finished</p>
+     *
+     * @param accessionNumbers the experiment accession numbers
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void run(List<String> accessionNumbers) throws InterruptedException {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(2 * workers), new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (final String accessionNumber : accessionNumbers) {
+                if (checkpoint != null && checkpoint.isFinished(accessionNumber)) {
+                    skipped.incrementAndGet();
+                    continue;
+                }
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        processExperiment(accessionNumber);
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.info("Waiting for the workers to finish, " + calculated.get() + " experiments calculated so far");
+            }
+            closeControllers();
+        }
+        logger.info("Charts calculated for " + calculated.get() + " experiments, " + skipped.get() + " skipped, " +
+                noData.get() + " without data, " + failed.get() + " failed");
+    }
+
+    /**
+     * <p> Calculates and stores the charts of an experiment, unless it has charts already</p>
+     *
+     * @param accessionNumber the experiment accession number
+     */
+    public void processExperiment(String accessionNumber) {
+        DBAccessController dbac = getController();
+        try {
+            int experimentID = dbac.getExperimentID(accessionNumber);
+            if (experimentID == -1) {
+                logger.warn("[" + accessionNumber + "] not found");
+                failed.incrementAndGet();
+                return;
+            }
+
+            //Here you can check if size is equal to a number if you add a new chart and want to recalculate everything
+            if (!recalculate && dbac.hasChartData(experimentID)) {
+                skipped.incrementAndGet();
+            } else {
+                try {
+                    PrideChartSummaryData summaryData = new PrideChartSummaryData(accessionNumber, dbac);
+                    Map<Integer, String> charts = new LinkedHashMap<Integer, String>();
+                    for (PrideChart chart : PrideChartFactory.getAllCharts(summaryData)) {
+                        charts.put(PrideChartFactory.getPrideChartIdentifier(chart), chart.getChartJSonData());
+                    }
+                    if (!dbac.storeChartData(experimentID, charts)) {
+                        failed.incrementAndGet();
+                        logger.error("[" + accessionNumber + "] charts could not be stored");
+                        return;
+                    }
+                    calculated.incrementAndGet();
+                    logger.info("[" + accessionNumber + "] has been successfully calculated");
+                } catch (SpectralDataPerExperimentException e) {
+                    noData.incrementAndGet();
+                    logger.info("[" + accessionNumber + "] " + e.getMessage());
+                } catch (PrideChartException e) {
+                    failed.incrementAndGet();
+                    logger.error("[" + accessionNumber + "] charts could not be calculated: " + e.getMessage(), e);
+                    return;
+                }
+            }
+
+            if (checkpoint != null) {
+                checkpoint.setFinished(accessionNumber);
+            }
+        } catch (IOException e) {
+            logger.error("[" + accessionNumber + "] could not be recorded in the checkpoint file", e);
+        } catch (RuntimeException e) {
+            failed.incrementAndGet();
+            logger.error("[" + accessionNumber + "] failed: " + e.getMessage(), e);
+        }
+    }
+
+    private DBAccessController getController() {
+        DBAccessController dbac = controller.get();
+        if (dbac == null) {
+            dbac = new DBAccessController(dataSource);
+            controller.set(dbac);
+            controllers.add(dbac);
+        }
+        return dbac;
+    }
+
+    private void closeControllers() {
+        synchronized (controllers) {
+            for (DBAccessController dbac : controllers) {
+                dbac.close();
+            }
+            controllers.clear();
+        }
+        controller.remove();
+    }
+
+    public int getCalculated() {
+        return calculated.get();
+    }
+
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    public int getNoData() {
+        return noData.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+}
@@ -0,0 +1,117 @@
+package uk.ac.ebi.pride.chart.farm;
+
+import java.io.*;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p> Records the experiments finished by the chart farm in a file, one accession number per line,
+ * so that an interrupted run can be resumed without processing them again.</p>
+ *
+ * Every accession number is flushed to the file as soon as the experiment is finished. A line
+ * not terminated by a new line (an interrupted write) is removed when the file is loaded.
+ *
+ * Date: 17-oct-2026
+ */
+public class FarmCheckpoint {
+
+    private final File file;
+
+    private final Set<String> finished = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private Writer writer;
+
+    /**
+     * <p> Loads the finished experiments of the given checkpoint file, the file is created if it does not exist</p>
+     *
+     * @param file the checkpoint file
+     * @throws IOException if the file cannot be read or opened for writing
+     */
+    public FarmCheckpoint(File file) throws IOException {
+        this.file = file;
+        if (file.exists()) {
+            load();
+        }
+        writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), "UTF-8"));
+    }
+
+    private void load() throws IOException {
+        StringBuilder content = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+
+        int start = 0;
+        int end;
+        while ((end = content.indexOf("\n", start)) != -1) {
+            String accessionNumber = content.substring(start, end).trim();
+            if (accessionNumber.length() > 0) {
+                finished.add(accessionNumber);
+            }
+            start = end + 1;
+        }
+        if (start < content.length()) {
+            // the last write was interrupted, drop it so the next accession number starts on a new line
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(content.substring(0, start).getBytes("UTF-8").length);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns true if the experiment has been finished in this or a previous run
+     *
+     * @param accessionNumber the experiment accession number
+     * @return true if the experiment has been finished
+     */
+    public boolean isFinished(String accessionNumber) {
+        return finished.contains(accessionNumber);
+    }
+
+    /**
+     * Returns the number of finished experiments
+     *
+     * @return the number of finished experiments
+     */
+    public int getFinishedCount() {
+        return finished.size();
+    }
+
+    /**
+     * Records the experiment as finished and flushes it to the checkpoint file
+     *
+     * @param accessionNumber the experiment accession number
+     * @throws IOException if the checkpoint file cannot be written
+     */
+    public synchronized void setFinished(String accessionNumber) throws IOException {
+        if (finished.add(accessionNumber)) {
+            writer.write(accessionNumber);
+            writer.write('\n');
+            writer.flush();
+        }
+    }
+
+    /**
+     * Closes the checkpoint file
+     *
+     * @throws IOException if the checkpoint file cannot be closed
+     */
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,86 @@
+-- Tables of the PRIDE database read and written by PRIDE-Chart, for the embedded H2 data source
+create table if not exists pride_experiment (
+    experiment_id int primary key,
+    accession varchar(255) not null
+);
+
+create table if not exists mzdata_mz_data (
+    mz_data_id int primary key,
+    accession_number varchar(255) not null
+);
+
+create table if not exists mzdata_binary_array (
+    binary_array_id int primary key,
+    data_precision varchar(10),
+    data_endian varchar(10)
+);
+
+create table if not exists mzdata_base_64_data (
+    binary_array_id int not null,
+    base_64_data clob
+);
+
+create table if not exists mzdata_spectrum (
+    spectrum_id int primary key,
+    mz_data_id int not null,
+    spectrum_identifier int,
+    ms_level int,
+    mz_array_binary_id int,
+    inten_array_binary_id int
+);
+
+create table if not exists mzdata_precursor (
+    precursor_id int primary key,
+    spectrum_id int not null
+);
+
+create table if not exists mzdata_ion_selection_param (
+    parent_element_fk int not null,
+    accession varchar(255),
+    name varchar(255),
+    value varchar(255)
+);
+
+create table if not exists pride_identification (
+    identification_id int primary key,
+    experiment_id int not null
+);
+
+create table if not exists pride_peptide (
+    peptide_id int primary key,
+    identification_id int not null,
+    sequence varchar(4000),
+    spectrum_ref int
+);
+
+create table if not exists pride_peptide_param (
+    parent_element_fk int not null,
+    accession varchar(255),
+    name varchar(255),
+    value varchar(255)
+);
+
+create table if not exists pride_modification (
+    modification_id int primary key,
+    peptide_id int not null
+);
+
+create table if not exists pride_mass_delta (
+    modification_id int not null,
+    mass_delta_value double,
+    classname varchar(255)
+);
+
+create table if not exists pride_chart_data (
+    experiment_id int not null,
+    chart_type int not null,
+    intermediate_data clob,
+    primary key (experiment_id, chart_type)
+);
+
+create index if not exists mzdata_spectrum_mz_data_idx on mzdata_spectrum(mz_data_id);
+create index if not exists mzdata_precursor_spectrum_idx on mzdata_precursor(spectrum_id);
+create index if not exists mzdata_ion_selection_param_idx on mzdata_ion_selection_param(parent_element_fk);
+create index if not exists mzdata_base_64_data_idx on mzdata_base_64_data(binary_array_id);
+create index if not exists pride_peptide_identification_idx on pride_peptide(identification_id);
+create index if not exists pride_peptide_param_idx on pride_peptide_param(parent_element_fk);
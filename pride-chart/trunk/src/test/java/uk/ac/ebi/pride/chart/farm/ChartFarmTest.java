@@ -0,0 +1,197 @@
+package uk.ac.ebi.pride.chart.farm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.pride.chart.controller.H2ChartDataSource;
+
+import java.io.*;
+import java.sql.*;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Runs the chart farm on an embedded H2 database, interrupting it and running it again.
+ *
+ * Date: 17-oct-2026
+ */
+public class ChartFarmTest {
+
+    private static final int EXPERIMENTS = 6;
+
+    private static final int SPECTRA = 5;
+
+    private File folder;
+
+    private H2ChartDataSource dataSource;
+
+    private File checkpointFile;
+
+    @Before
+    public void setUp() throws Exception {
+        folder = File.createTempFile("chart-farm", "");
+        folder.delete();
+        folder.mkdir();
+        checkpointFile = new File(folder, "farm.checkpoint");
+
+        dataSource = new H2ChartDataSource(new File(folder, "pride"));
+        dataSource.createSchema();
+        Connection connection = dataSource.getConnection();
+        try {
+            for (int experiment = 1; experiment <= EXPERIMENTS; experiment++) {
+                insertExperiment(connection, experiment);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = folder.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        folder.delete();
+    }
+
+    @Test
+    public void testRestart() throws Exception {
+        List<String> accessionNumbers = getAccessionNumbers();
+
+        // first run, interrupted after four experiments
+        FarmCheckpoint checkpoint = new FarmCheckpoint(checkpointFile);
+        ChartFarm farm = new ChartFarm(dataSource, 2, checkpoint);
+        farm.run(accessionNumbers.subList(0, 4));
+        checkpoint.close();
+
+        assertEquals(4, farm.getCalculated());
+        assertEquals(0, farm.getFailed());
+        Map<Integer, Integer> charts = countCharts();
+        assertEquals(4, charts.size());
+        int chartsPerExperiment = charts.get(1);
+        assertTrue(chartsPerExperiment > 0);
+
+        // the last experiment was stored, but its line in the checkpoint file was not finished
+        String content = read(checkpointFile);
+        String lastAccessionNumber = accessionNumbers.get(3);
+        int lastLine = content.indexOf(lastAccessionNumber + "\n");
+        write(checkpointFile, content.substring(0, lastLine) + content.substring(lastLine + lastAccessionNumber.length() + 1)
+                + lastAccessionNumber.substring(0, 2));
+
+        // second run, with all the experiments
+        checkpoint = new FarmCheckpoint(checkpointFile);
+        assertEquals(3, checkpoint.getFinishedCount());
+        farm = new ChartFarm(dataSource, 2, checkpoint);
+        farm.run(accessionNumbers);
+        checkpoint.close();
+
+        assertEquals(2, farm.getCalculated());
+        assertEquals(4, farm.getSkipped());
+        assertEquals(0, farm.getFailed());
+        assertEquals(EXPERIMENTS, checkpoint.getFinishedCount());
+
+        charts = countCharts();
+        assertEquals(EXPERIMENTS, charts.size());
+        for (int experiment = 1; experiment <= EXPERIMENTS; experiment++) {
+            assertEquals("experiment " + experiment, chartsPerExperiment, (int) charts.get(experiment));
+        }
+
+        // third run, everything is in the checkpoint
+        checkpoint = new FarmCheckpoint(checkpointFile);
+        farm = new ChartFarm(dataSource, 2, checkpoint);
+        farm.run(accessionNumbers);
+        checkpoint.close();
+
+        assertEquals(0, farm.getCalculated());
+        assertEquals(EXPERIMENTS, farm.getSkipped());
+        assertEquals(charts, countCharts());
+    }
+
+    private static String getAccessionNumber(int experiment) {
+        return String.valueOf(1000 + experiment);
+    }
+
+    private static List<String> getAccessionNumbers() {
+        List<String> accessionNumbers = new ArrayList<String>();
+        for (int experiment = 1; experiment <= EXPERIMENTS; experiment++) {
+            accessionNumbers.add(getAccessionNumber(experiment));
+        }
+        return accessionNumbers;
+    }
+
+    /**
+     * Inserts an experiment with MS2 spectra, each with a precursor m/z and charge
+     */
+    private static void insertExperiment(Connection connection, int experiment) throws SQLException {
+        String accessionNumber = getAccessionNumber(experiment);
+        execute(connection, "insert into pride_experiment(experiment_id, accession) values (?, ?)", experiment, accessionNumber);
+        execute(connection, "insert into mzdata_mz_data(mz_data_id, accession_number) values (?, ?)", experiment, accessionNumber);
+        for (int i = 0; i < SPECTRA; i++) {
+            int spectrumID = experiment * 100 + i;
+            execute(connection, "insert into mzdata_spectrum(spectrum_id, mz_data_id, spectrum_identifier, ms_level) values (?, ?, ?, 2)",
+                    spectrumID, experiment, i + 1);
+            execute(connection, "insert into mzdata_precursor(precursor_id, spectrum_id) values (?, ?)", spectrumID, spectrumID);
+            execute(connection, "insert into mzdata_ion_selection_param(parent_element_fk, accession, name, value) values (?, ?, ?, ?)",
+                    spectrumID, "PSI:1000040", "MassToChargeRatio", String.valueOf(400 + 50 * i + experiment));
+            execute(connection, "insert into mzdata_ion_selection_param(parent_element_fk, accession, name, value) values (?, ?, ?, ?)",
+                    spectrumID, "PSI:1000041", "ChargeState", String.valueOf(2 + i % 2));
+        }
+    }
+
+    private static void execute(Connection connection, String sql, Object... parameters) throws SQLException {
+        PreparedStatement st = connection.prepareStatement(sql);
+        for (int i = 0; i < parameters.length; i++) {
+            st.setObject(i + 1, parameters[i]);
+        }
+        st.executeUpdate();
+        st.close();
+    }
+
+    /**
+     * Returns the number of stored charts of each experiment
+     */
+    private Map<Integer, Integer> countCharts() throws SQLException {
+        Map<Integer, Integer> charts = new HashMap<Integer, Integer>();
+        Connection connection = dataSource.getConnection();
+        try {
+            Statement st = connection.createStatement();
+            ResultSet rs = st.executeQuery("select experiment_id, count(*) from pride_chart_data group by experiment_id");
+            while (rs.next()) {
+                charts.put(rs.getInt(1), rs.getInt(2));
+            }
+            rs.close();
+            st.close();
+        } finally {
+            connection.close();
+        }
+        return charts;
+    }
+
+    private static void write(File file, String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static String read(File file) throws IOException {
+        StringBuilder content = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            int c;
+            while ((c = reader.read()) != -1) {
+                content.append((char) c);
+            }
+        } finally {
+            reader.close();
+        }
+        return content.toString();
+    }
+}
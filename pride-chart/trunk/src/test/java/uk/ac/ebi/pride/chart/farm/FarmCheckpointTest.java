@@ -0,0 +1,112 @@
+package uk.ac.ebi.pride.chart.farm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17-oct-2026
+ */
+public class FarmCheckpointTest {
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("farm", ".checkpoint");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void testNewCheckpoint() throws IOException {
+        FarmCheckpoint checkpoint = new FarmCheckpoint(file);
+        checkpoint.close();
+
+        assertTrue(file.exists());
+        assertEquals(0, checkpoint.getFinishedCount());
+        assertFalse(checkpoint.isFinished("1643"));
+    }
+
+    @Test
+    public void testLoad() throws IOException {
+        write("1643\n1644\n\n 1645 \n");
+
+        FarmCheckpoint checkpoint = new FarmCheckpoint(file);
+        checkpoint.close();
+
+        assertEquals(3, checkpoint.getFinishedCount());
+        assertTrue(checkpoint.isFinished("1643"));
+        assertTrue(checkpoint.isFinished("1644"));
+        assertTrue(checkpoint.isFinished("1645"));
+        assertFalse(checkpoint.isFinished("1646"));
+    }
+
+    @Test
+    public void testPartialLastLine() throws IOException {
+        write("1643\n1644\n16");
+
+        FarmCheckpoint checkpoint = new FarmCheckpoint(file);
+        assertEquals(2, checkpoint.getFinishedCount());
+        assertFalse(checkpoint.isFinished("16"));
+        assertEquals("1643\n1644\n", read());
+
+        checkpoint.setFinished("1645");
+        checkpoint.close();
+        assertEquals("1643\n1644\n1645\n", read());
+    }
+
+    @Test
+    public void testResume() throws IOException {
+        FarmCheckpoint checkpoint = new FarmCheckpoint(file);
+        checkpoint.setFinished("1643");
+        checkpoint.setFinished("1644");
+        checkpoint.setFinished("1643");
+        checkpoint.close();
+        assertEquals("1643\n1644\n", read());
+
+        checkpoint = new FarmCheckpoint(file);
+        assertEquals(2, checkpoint.getFinishedCount());
+        assertTrue(checkpoint.isFinished("1643"));
+        assertTrue(checkpoint.isFinished("1644"));
+
+        // experiments finished before the restart are not appended again
+        checkpoint.setFinished("1644");
+        checkpoint.setFinished("1645");
+        checkpoint.close();
+        assertEquals("1643\n1644\n1645\n", read());
+    }
+
+    private void write(String content) throws IOException {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String read() throws IOException {
+        StringBuilder content = new StringBuilder();
+        Reader reader = new InputStreamReader(new FileInputStream(file), "UTF-8");
+        try {
+            int c;
+            while ((c = reader.read()) != -1) {
+                content.append((char) c);
+            }
+        } finally {
+            reader.close();
+        }
+        return content.toString();
+    }
+}
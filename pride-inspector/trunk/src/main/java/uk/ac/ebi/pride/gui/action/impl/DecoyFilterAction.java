@@ -8,6 +8,7 @@ import uk.ac.ebi.pride.gui.action.PrideAction;
 import uk.ac.ebi.pride.gui.component.decoy.DecoyFilterDialog;
 import uk.ac.ebi.pride.gui.component.startup.ControllerContentPane;
 import uk.ac.ebi.pride.gui.component.table.filter.DecoyAccessionFilter;
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
 import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.task.Task;
 import uk.ac.ebi.pride.gui.task.impl.DecoyFilterTask;
@@ -189,8 +190,12 @@ public class DecoyFilterAction extends PrideAction implements PropertyChangeList
         }
 
         private void clearFilter(JTable table) {
-            TableRowSorter rowSorter = (TableRowSorter) table.getRowSorter();
-            rowSorter.setRowFilter(null);
+            RowSorter rowSorter = table.getRowSorter();
+            if (rowSorter instanceof PagedTableRowSorter) {
+                ((PagedTableRowSorter) rowSorter).setRowFilter(-1, null);
+            } else {
+                ((TableRowSorter) rowSorter).setRowFilter(null);
+            }
         }
     }
 
@@ -231,10 +236,18 @@ public class DecoyFilterAction extends PrideAction implements PropertyChangeList
         }
 
         private void setFilter(JTable table) {
-            TableRowSorter rowSorter = (TableRowSorter) table.getRowSorter();
-            DecoyAccessionFilter oldFilter = (DecoyAccessionFilter) rowSorter.getRowFilter();
-
-            rowSorter.setRowFilter(new DecoyAccessionFilter(oldFilter.getType(), oldFilter.getCriteria(), oldFilter.getAccessionColumnIndex(), decoyOnly));
+            RowSorter rowSorter = table.getRowSorter();
+            boolean paged = rowSorter instanceof PagedTableRowSorter;
+            DecoyAccessionFilter oldFilter = (DecoyAccessionFilter) (paged ?
+                    ((PagedTableRowSorter) rowSorter).getRowFilter() : ((TableRowSorter) rowSorter).getRowFilter());
+
+            DecoyAccessionFilter newFilter = new DecoyAccessionFilter(oldFilter.getType(), oldFilter.getCriteria(), oldFilter.getAccessionColumnIndex(), decoyOnly);
+            if (paged) {
+                // a paged table is filtered on the index of its accession column
+                ((PagedTableRowSorter) rowSorter).setRowFilter(newFilter.getAccessionColumnIndex(), newFilter);
+            } else {
+                ((TableRowSorter) rowSorter).setRowFilter(newFilter);
+            }
         }
     }
 }
@@ -7,8 +7,8 @@ import uk.ac.ebi.pride.gui.GUIUtilities;
 import uk.ac.ebi.pride.gui.PrideInspectorContext;
 import uk.ac.ebi.pride.gui.action.PrideAction;
 import uk.ac.ebi.pride.gui.component.startup.ControllerContentPane;
-import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
-import uk.ac.ebi.pride.gui.component.table.model.ProteinTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractProteinTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.QuantProteinTableModel;
 import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.task.TaskListener;
@@ -21,8 +21,6 @@ import javax.swing.*;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableModel;
 import java.awt.event.ActionEvent;
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -82,9 +80,9 @@ public class ExtraProteinDetailAction extends PrideAction {
         List<TableColumn> columns = showHideColModel.getColumns(true);
         for (TableColumn column : columns) {
             Object header = column.getHeaderValue();
-            if (ProteinTableModel.TableHeader.PROTEIN_NAME.getHeader().equals(header) ||
-                    ProteinTableModel.TableHeader.PROTEIN_STATUS.getHeader().equals(header) ||
-                    ProteinTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader().equals(header)) {
+            if (AbstractProteinTableModel.TableHeader.PROTEIN_NAME.getHeader().equals(header) ||
+                    AbstractProteinTableModel.TableHeader.PROTEIN_STATUS.getHeader().equals(header) ||
+                    AbstractProteinTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader().equals(header)) {
                 ((TableColumnExt) column).setVisible(true);
             }
         }
@@ -95,7 +93,7 @@ public class ExtraProteinDetailAction extends PrideAction {
         columns = showHideColModel.getColumns(true);
         for (TableColumn column : columns) {
             Object header = column.getHeaderValue();
-            if (PeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader().equals(header)) {
+            if (AbstractPeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader().equals(header)) {
                 ((TableColumnExt) column).setVisible(true);
             }
         }
@@ -106,8 +104,8 @@ public class ExtraProteinDetailAction extends PrideAction {
         columns = showHideColModel.getColumns(true);
         for (TableColumn column : columns) {
             Object header = column.getHeaderValue();
-            if (PeptideTableModel.TableHeader.PROTEIN_NAME.getHeader().equals(header) ||
-                    PeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader().equals(header)) {
+            if (AbstractPeptideTableModel.TableHeader.PROTEIN_NAME.getHeader().equals(header) ||
+                    AbstractPeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader().equals(header)) {
                 ((TableColumnExt) column).setVisible(true);
             }
         }
@@ -133,53 +131,14 @@ public class ExtraProteinDetailAction extends PrideAction {
      * Start the task to retrieve protein details
      */
     private void startRetrieval() {
-        // get protein accessions
-        List<String> accs = getMappedProteinAccs();
-
-        // start a new task to retrieve protein names
-        runRetrieveProteinNameTask(accs);
-    }
-
-    /**
-     * Get a set of mapped protein accession from table
-     *
-     * @return List<String>  a list of protein accessions.
-     */
-    private List<String> getMappedProteinAccs() {
-
-        // get the main GUI component for this controller
-        ControllerContentPane contentPane = (ControllerContentPane) appContext.getDataContentPane(controller);
-        JTable table = contentPane.getProteinTabPane().getIdentificationPane().getIdentificationTable();
-
-        List<String> accs = new ArrayList<String>();
-
-        int rowCount = table.getRowCount();
-        int column = table.getColumnModel().getColumnIndex(PeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
-        int selectedRow = table.getSelectedRow();
-        // add selected row first
-        if (selectedRow >= 0) {
-            Object selectedVal = table.getValueAt(selectedRow, column);
-            if (selectedVal != null) {
-                accs.add((String) selectedVal);
-            }
-        }
-        // add the rest
-        for (int row = 0; row < rowCount; row++) {
-            Object val = table.getValueAt(row, column);
-            if (val != null && row != selectedRow && !accs.contains(val)) {
-                accs.add((String) val);
-            }
-        }
-
-        return accs;
+        // start a new task to retrieve protein names, the task reads the protein accessions from the controller
+        runRetrieveProteinNameTask();
     }
 
     /**
      * Start and run a new protein name retrieve task
-     *
-     * @param mappedProteinAcces a collection of mapped protein accessions.
      */
-    private void runRetrieveProteinNameTask(Collection<String> mappedProteinAcces) {
+    private void runRetrieveProteinNameTask() {
 
         // create a task to retrieve protein name
         RetrieveProteinDetailTask task = new RetrieveProteinDetailTask(controller);
@@ -198,6 +157,10 @@ public class ExtraProteinDetailAction extends PrideAction {
         JTable table = contentPane.getProteinTabPane().getIdentificationPane().getIdentificationTable();
         TableModel tableModel = table.getModel();
         task.addTaskListener((TaskListener) tableModel);
+        // protein tab's peptide table
+        table = contentPane.getProteinTabPane().getPeptidePane().getPeptideTable();
+        tableModel = table.getModel();
+        task.addTaskListener((TaskListener) tableModel);
         // peptide tab
         table = contentPane.getPeptideTabPane().getPeptidePane().getPeptideTable();
         tableModel = table.getModel();
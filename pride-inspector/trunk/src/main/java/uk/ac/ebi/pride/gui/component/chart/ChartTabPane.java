@@ -13,6 +13,7 @@ import uk.ac.ebi.pride.gui.component.PrideInspectorLoadingPanel;
 import uk.ac.ebi.pride.gui.component.startup.ControllerContentPane;
 import uk.ac.ebi.pride.gui.component.utils.Iconable;
 import uk.ac.ebi.pride.gui.task.TaskEvent;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
 import uk.ac.ebi.pride.gui.task.impl.LoadChartDataTask;
 import uk.ac.ebi.pride.gui.utils.DefaultGUIBlocker;
 import uk.ac.ebi.pride.gui.utils.GUIBlocker;
@@ -116,7 +117,7 @@ public class ChartTabPane extends DataAccessControllerPane<List<PrideChartManage
 
         // start running the task
         lcd.setGUIBlocker(new DefaultGUIBlocker(lcd, GUIBlocker.Scope.NONE, null));
-        viewerContext.addTask(lcd);
+        viewerContext.addTask(lcd, TaskPriority.LOW);
     }
 
     public void showChart(PrideChartManager managedPrideChart) {
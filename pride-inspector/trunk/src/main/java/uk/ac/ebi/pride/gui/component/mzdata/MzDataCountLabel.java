@@ -54,6 +54,16 @@ public class MzDataCountLabel extends JLabel
         setLabelTitle();
     }
 
+    /**
+     * Set the number of spectra, for a spectrum table which does not load the spectra using a task
+     *
+     * @param count number of spectra
+     */
+    public void setSpectraCount(int count) {
+        spectraCount = count;
+        setLabelTitle();
+    }
+
     /**
      * Update the label title
      */
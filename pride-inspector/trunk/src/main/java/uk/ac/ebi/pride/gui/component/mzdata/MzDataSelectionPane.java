@@ -27,7 +27,6 @@ import uk.ac.ebi.pride.gui.event.container.SpectrumEvent;
 import uk.ac.ebi.pride.gui.task.Task;
 import uk.ac.ebi.pride.gui.task.TaskListener;
 import uk.ac.ebi.pride.gui.task.impl.RetrieveChromatogramTableTask;
-import uk.ac.ebi.pride.gui.task.impl.RetrieveSpectrumTableTask;
 import uk.ac.ebi.pride.gui.utils.DefaultGUIBlocker;
 import uk.ac.ebi.pride.gui.utils.GUIBlocker;
 
@@ -37,6 +36,8 @@ import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 import javax.swing.event.ListSelectionEvent;
 import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
 import javax.swing.table.TableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
@@ -82,13 +83,10 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
      */
     private JTable chromaTable;
     /**
-     * the number of entries to read for each iteration of the paging
+     * the number of chromatograms to read for each iteration of the paging,
+     * the spectrum table reads the spectra itself when they are displayed
      */
     private int defaultOffset;
-    /**
-     * start index for spectrum, this is for paging
-     */
-    private int startForSpec;
 
     /**
      * start index for chromatogram
@@ -149,7 +147,7 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
         tabPane.addChangeListener(new MzDataTabChangeListener());
 
         // init spectra selection pane
-        spectrumTable = TableFactory.createSpectrumTable();
+        spectrumTable = TableFactory.createSpectrumTable(controller);
 
         // add selection listener
         spectrumTable.getSelectionModel().addListSelectionListener(new MzDataListSelectionListener(spectrumTable));
@@ -287,7 +285,6 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
      */
     private void initializeTabPane() {
         // set the start index for paging
-        startForSpec = 0;
         startForChroma = 0;
 
         // check whether there is spectra
@@ -305,9 +302,18 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
         tabPane.setEnabledAt(SPECTRUM_TAB_INDEX, spectrumTabVisibility);
         tabPane.setEnabledAt(CHROMATOGRAM_TAB_INDEX, chromaTabVisibility);
 
-        // start retrieving data for spectrum table
+        // start retrieving the spectrum ids, the rest of the spectrum table is read when it is displayed
         if (spectrumTabVisibility) {
-            updateTable((SpectrumTableModel) spectrumTable.getModel(), Spectrum.class, defaultOffset);
+            final SpectrumTableModel spectrumTableModel = (SpectrumTableModel) spectrumTable.getModel();
+            spectrumTableModel.addTableModelListener(new TableModelListener() {
+                @Override
+                public void tableChanged(TableModelEvent e) {
+                    if (e.getType() != TableModelEvent.UPDATE && countLabel != null) {
+                        countLabel.setSpectraCount(spectrumTableModel.getRowCount());
+                    }
+                }
+            });
+            spectrumTableModel.loadRowKeys();
         }
 
         // start retrieving data for chromatogram table
@@ -321,10 +327,24 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
         } else if (chromaTabVisibility) {
             tabPane.setSelectedIndex(CHROMATOGRAM_TAB_INDEX);
         }
+        setLoadButtonsEnabled(tabPane.getSelectedIndex() == CHROMATOGRAM_TAB_INDEX);
+    }
+
+    /**
+     * Load next/all buttons are only needed by the chromatogram table
+     *
+     * @param enabled true to enable the buttons
+     */
+    private void setLoadButtonsEnabled(boolean enabled) {
+        Color color = enabled ? Color.blue : Color.gray;
+        loadNextButton.setEnabled(enabled);
+        loadNextButton.setForeground(color);
+        loadAllButton.setEnabled(enabled);
+        loadAllButton.setForeground(color);
     }
 
     /**
-     * This method is responsible for fire up a new background task to retrieve mzgraph data.
+     * This method is responsible for fire up a new background task to retrieve chromatogram data.
      *
      * @param tableModel table model to insert the result to
      * @param classType  indicates the type of mzgraph
@@ -334,10 +354,7 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
     private <T extends MzGraph> void updateTable(ProgressiveListTableModel tableModel, Class<T> classType, int offset) {
         // create a new task
         Task retrieveTask = null;
-        if (Spectrum.class.equals(classType)) {
-            retrieveTask = new RetrieveSpectrumTableTask(controller, startForSpec, offset);
-            startForSpec += defaultOffset;
-        } else if (Chromatogram.class.equals(classType)) {
+        if (Chromatogram.class.equals(classType)) {
             retrieveTask = new RetrieveChromatogramTableTask(controller, startForChroma, offset);
             startForChroma += defaultOffset;
         }
@@ -400,17 +417,8 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
             //
             int index = tabPane.getSelectedIndex();
             try {
-                if (index == SPECTRUM_TAB_INDEX) {
-                    int numOfSpectra = controller.getNumberOfSpectra();
-                    // set offset
-                    if (LoadBatchEvent.Type.ALL.equals(event.getType())) {
-                        offset = numOfSpectra - startForSpec;
-                    }
-                    // get table model
-                    if (startForSpec < numOfSpectra && numOfSpectra > spectrumTable.getRowCount()) {
-                        updateTable((SpectrumTableModel) spectrumTable.getModel(), Spectrum.class, offset);
-                    }
-                } else {
+                // all the spectra are in the spectrum table already
+                if (index == CHROMATOGRAM_TAB_INDEX) {
                     int numOfChromas = controller.getNumberOfChromatograms();
 
                     // set offset
@@ -423,7 +431,7 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
                     }
                 }
             } catch (DataAccessException ex) {
-                String msg = "Failed to get the number of spectra";
+                String msg = "Failed to get the number of chromatograms";
                 logger.error(msg, ex);
                 appContext.addThrowableEntry(new ThrowableEntry(MessageType.ERROR, msg, ex));
             }
@@ -497,6 +505,7 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
                     eventBus.publish(new SpectrumEvent(this, controller, spectrumId));
                     exportButton.setEnabled(true);
                     exportButton.setForeground(Color.blue);
+                    setLoadButtonsEnabled(false);
                     break;
                 case 1:
                     Chromatogram chroma = controller.getForegroundChromatogram();
@@ -504,6 +513,7 @@ public class MzDataSelectionPane extends DataAccessControllerPane<MzGraph, Void>
                     eventBus.publish(new ChromatogramEvent(this, controller, chromaId));
                     exportButton.setEnabled(false);
                     exportButton.setForeground(Color.gray);
+                    setLoadButtonsEnabled(true);
                     break;
             }
         }
@@ -4,6 +4,7 @@ import org.bushe.swing.event.ContainerEventServiceFinder;
 import org.bushe.swing.event.EventService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.ac.ebi.pride.data.Tuple;
 import uk.ac.ebi.pride.data.controller.DataAccessController;
 import uk.ac.ebi.pride.data.controller.DataAccessException;
 import uk.ac.ebi.pride.gui.GUIUtilities;
@@ -204,14 +205,11 @@ public class PeptideDescriptionPane extends DataAccessControllerPane {
                     // get table model
                     PeptideTableModel pepTableModel = (PeptideTableModel) pepTable.getModel();
 
-                    // get spectrum reference column
-                    int identColNum = pepTableModel.getColumnIndex(PeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
-                    int peptideColNum = pepTableModel.getColumnIndex(PeptideTableModel.TableHeader.PEPTIDE_ID.getHeader());
-
-                    // get spectrum id
+                    // get identification and peptide id, the row key is available before the row is loaded
                     int modelRowIndex = pepTable.convertRowIndexToModel(rowNum);
-                    Comparable identId = (Comparable) pepTableModel.getValueAt(modelRowIndex, identColNum);
-                    Comparable peptideId = (Comparable) pepTableModel.getValueAt(modelRowIndex, peptideColNum);
+                    Tuple<Comparable, Comparable> key = pepTableModel.getRowKey(modelRowIndex);
+                    Comparable identId = key.getKey();
+                    Comparable peptideId = key.getValue();
 
                     // fire a background task to retrieve peptide
                     if (peptideId != null && identId != null) {
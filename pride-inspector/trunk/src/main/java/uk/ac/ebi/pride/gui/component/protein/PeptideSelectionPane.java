@@ -6,6 +6,7 @@ import org.bushe.swing.event.EventSubscriber;
 import org.jdesktop.swingx.table.TableColumnExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import uk.ac.ebi.pride.data.Tuple;
 import uk.ac.ebi.pride.data.controller.DataAccessController;
 import uk.ac.ebi.pride.data.controller.DataAccessException;
 import uk.ac.ebi.pride.data.core.Modification;
@@ -15,19 +16,16 @@ import uk.ac.ebi.pride.gui.component.DataAccessControllerPane;
 import uk.ac.ebi.pride.gui.component.EventBusSubscribable;
 import uk.ac.ebi.pride.gui.component.exception.ThrowableEntry;
 import uk.ac.ebi.pride.gui.component.message.MessageType;
+import uk.ac.ebi.pride.gui.component.table.PeptideTableRowSource;
 import uk.ac.ebi.pride.gui.component.table.TableFactory;
 import uk.ac.ebi.pride.gui.component.table.listener.PeptideCellMouseClickListener;
 import uk.ac.ebi.pride.gui.component.table.listener.TableCellMouseMotionListener;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
-import uk.ac.ebi.pride.gui.component.table.model.ProgressiveListTableModel;
 import uk.ac.ebi.pride.gui.component.table.renderer.OpenPTMRenderer;
-import uk.ac.ebi.pride.gui.component.table.sorter.NumberTableRowSorter;
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
 import uk.ac.ebi.pride.gui.event.container.PeptideEvent;
 import uk.ac.ebi.pride.gui.event.container.ProteinIdentificationEvent;
-import uk.ac.ebi.pride.gui.task.Task;
-import uk.ac.ebi.pride.gui.task.impl.RetrievePeptideTableTask;
-import uk.ac.ebi.pride.gui.utils.DefaultGUIBlocker;
-import uk.ac.ebi.pride.gui.utils.GUIBlocker;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionEvent;
@@ -118,13 +116,13 @@ public class PeptideSelectionPane extends DataAccessControllerPane<Peptide, Void
         try {
             pepTable = TableFactory.createPeptideTable(controller.getSearchEngine(), controller);
             // hide protein accession column
-            TableColumnExt proteinAccCol = (TableColumnExt) pepTable.getColumn(PeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader());
+            TableColumnExt proteinAccCol = (TableColumnExt) pepTable.getColumn(AbstractPeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader());
             proteinAccCol.setVisible(false);
             // hide mapped protein accession column
-            TableColumnExt proteinMappedCol = (TableColumnExt) pepTable.getColumn(PeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
+            TableColumnExt proteinMappedCol = (TableColumnExt) pepTable.getColumn(AbstractPeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
             proteinMappedCol.setVisible(false);
             // rendering number of ptms column
-            TableColumnExt numOfPTM = (TableColumnExt) pepTable.getColumn(PeptideTableModel.TableHeader.PEPTIDE_PTM_NUMBER_COLUMN.getHeader());
+            TableColumnExt numOfPTM = (TableColumnExt) pepTable.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_NUMBER_COLUMN.getHeader());
             ImageIcon icon = GUIUtilities.loadImageIcon(appContext.getProperty("open.ptm.small.icon"));
             numOfPTM.setCellRenderer(new OpenPTMRenderer(icon));
         } catch (DataAccessException e) {
@@ -137,8 +135,8 @@ public class PeptideSelectionPane extends DataAccessControllerPane<Peptide, Void
         pepTable.getSelectionModel().addListSelectionListener(new PeptideSelectionListener(pepTable));
 
         // add mouse listener
-        String protAccColumnHeader = PeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
-        String ptmColumnHeader = PeptideTableModel.TableHeader.PEPTIDE_PTM_NUMBER_COLUMN.getHeader();
+        String protAccColumnHeader = AbstractPeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
+        String ptmColumnHeader = AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_NUMBER_COLUMN.getHeader();
         pepTable.addMouseMotionListener(new TableCellMouseMotionListener(pepTable, protAccColumnHeader, ptmColumnHeader));
         // show PTM dialog
         PeptideCellMouseClickListener peptideMouseListener = new PeptideCellMouseClickListener(pepTable, ptmColumnHeader);
@@ -189,18 +187,17 @@ public class PeptideSelectionPane extends DataAccessControllerPane<Peptide, Void
             // update ptm label
             updatePTMLabel(identId);
 
-            // clear peptide table,
+            // clear peptide table, the rows still being read are discarded
             PeptideTableModel tableModel = (PeptideTableModel) pepTable.getModel();
 
             // reset sorting behavior
-            pepTable.setRowSorter(new NumberTableRowSorter(tableModel));
+            pepTable.setRowSorter(new PagedTableRowSorter(tableModel));
             tableModel.removeAllRows();
 
-            // cancel ongoing table update tasks
-            cancelOngoingTableUpdates(tableModel);
-
-            // update peptide table
-            updateTable(tableModel, identId);
+            // update peptide table, the rows are read when they are displayed
+            if (identId != null) {
+                tableModel.loadRowKeys(new PeptideTableRowSource(controller, identId));
+            }
         }
 
         private void updateProteinLabel(Comparable identId) {
@@ -241,39 +238,6 @@ public class PeptideSelectionPane extends DataAccessControllerPane<Peptide, Void
             }
         }
 
-        /**
-         * Cancel ongoing table update task
-         *
-         * @param tableModel peptide table model
-         */
-        private void cancelOngoingTableUpdates(ProgressiveListTableModel tableModel) {
-            // stop any running retrieving task
-            java.util.List<Task> existingTask = appContext.getTask(tableModel);
-            for (Task task : existingTask) {
-                appContext.cancelTask(task, true);
-            }
-        }
-
-        /**
-         * Fire up a peptide table update table in the background.
-         *
-         * @param tableModel peptide table model
-         * @param identId    identification id
-         */
-        @SuppressWarnings("unchecked")
-        private void updateTable(ProgressiveListTableModel tableModel, Comparable identId) {
-            try {
-                RetrievePeptideTableTask retrieveTask = new RetrievePeptideTableTask(PeptideSelectionPane.this.getController(), identId);
-                retrieveTask.addTaskListener(tableModel);
-                retrieveTask.setGUIBlocker(new DefaultGUIBlocker(retrieveTask, GUIBlocker.Scope.NONE, null));
-                appContext.addTask(retrieveTask);
-            } catch (DataAccessException e) {
-                String msg = "Failed to retrieve information for peptide table";
-                logger.error(msg, e);
-                appContext.addThrowableEntry(new ThrowableEntry(MessageType.ERROR, msg, e));
-            }
-        }
-
         /**
          * Generate PTM summary string, it gathers all the unique amino acids with the same modification.
          *
@@ -348,15 +312,12 @@ public class PeptideSelectionPane extends DataAccessControllerPane<Peptide, Void
                 if (rowNum >= 0) {
                     // get table model
                     PeptideTableModel tableModel = (PeptideTableModel) table.getModel();
-                    // get identification and peptide column
-                    int identColNum = tableModel.getColumnIndex(PeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
-                    int peptideColNum = tableModel.getColumnIndex(PeptideTableModel.TableHeader.PEPTIDE_ID.getHeader());
-
-                    // get identification and peptide id
+                    // get identification and peptide id, the row key is available before the row is loaded
                     if (table.getRowCount() > 0) {
                         int modelRowIndex = table.convertRowIndexToModel(rowNum);
-                        Comparable identId = (Comparable) tableModel.getValueAt(modelRowIndex, identColNum);
-                        Comparable peptideId = (Comparable) tableModel.getValueAt(modelRowIndex, peptideColNum);
+                        Tuple<Comparable, Comparable> key = tableModel.getRowKey(modelRowIndex);
+                        Comparable identId = key.getKey();
+                        Comparable peptideId = key.getValue();
 
                         if (peptideId != null && identId != null) {
                             // publish the event to local event bus
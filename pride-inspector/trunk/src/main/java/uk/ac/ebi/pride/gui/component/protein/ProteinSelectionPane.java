@@ -243,9 +243,8 @@ public class ProteinSelectionPane extends DataAccessControllerPane {
                 if (rowCnt > 0 && rowNum >= 0) {
                     // get table model
                     ProteinTableModel tableModel = (ProteinTableModel)identTable.getModel();
-                    // fire a property change event with selected identification id
-                    int columnNum = tableModel.getColumnIndex(ProteinTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
-                    Comparable identId = (Comparable)tableModel.getValueAt(table.convertRowIndexToModel(rowNum), columnNum);
+                    // fire a property change event with selected identification id, the row key is available before the row is loaded
+                    Comparable identId = tableModel.getRowKey(table.convertRowIndexToModel(rowNum));
                     // publish the event to local event bus
                     EventService eventBus = ContainerEventServiceFinder.getEventService(ProteinSelectionPane.this);
                     eventBus.publish(new ProteinIdentificationEvent(ProteinSelectionPane.this, controller, identId));
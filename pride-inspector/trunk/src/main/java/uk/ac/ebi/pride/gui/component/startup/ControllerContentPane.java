@@ -14,6 +14,7 @@ import uk.ac.ebi.pride.gui.component.peptide.PeptideTabPane;
 import uk.ac.ebi.pride.gui.component.protein.ProteinTabPane;
 import uk.ac.ebi.pride.gui.component.quant.QuantTabPane;
 import uk.ac.ebi.pride.gui.component.report.SummaryReportMessage;
+import uk.ac.ebi.pride.gui.component.table.model.PagedTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.ProgressiveListTableModel;
 import uk.ac.ebi.pride.gui.desktop.DesktopContext;
 import uk.ac.ebi.pride.gui.event.SummaryReportEvent;
@@ -227,8 +228,8 @@ public class ControllerContentPane extends DataAccessControllerPane {
     }
 
     /**
-     * Use a background task to populate identification tab's
-     * and peptide tab's table with content
+     * Start reading the rows of identification tab's and peptide tab's table,
+     * use a background task to scan the experiment and populate the quantitative table
      */
     @SuppressWarnings("unchecked")
     private void retrieveIdentificationData() {
@@ -241,16 +242,16 @@ public class ControllerContentPane extends DataAccessControllerPane {
             // register protein tab as a task listener
             retrieveTask.addTaskListener(proteinTabPane);
 
-            // register protein table model as a task listener
+            // the protein table reads its rows when they are displayed
             JTable identTable = proteinTabPane.getIdentificationPane().getIdentificationTable();
-            retrieveTask.addTaskListener((ProgressiveListTableModel) identTable.getModel());
+            ((PagedTableModel) identTable.getModel()).loadRowKeys();
 
             // register peptide tab as a task listener
             retrieveTask.addTaskListener(peptideTabPane);
 
-            // register peptide table model as a task listener
+            // the peptide table reads its rows when they are displayed
             JTable peptideTable = peptideTabPane.getPeptidePane().getPeptideTable();
-            retrieveTask.addTaskListener((ProgressiveListTableModel) peptideTable.getModel());
+            ((PagedTableModel) peptideTable.getModel()).loadRowKeys();
 
             // register quantitative tab as a task listener
             try {
@@ -4,9 +4,11 @@ import org.jdesktop.swingx.search.SearchFactory;
 import uk.ac.ebi.pride.gui.GUIUtilities;
 import uk.ac.ebi.pride.gui.component.table.listener.EntryUpdateSelectionListener;
 import uk.ac.ebi.pride.gui.component.table.model.ListTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.PagedTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.SpectrumTableModel;
 import uk.ac.ebi.pride.gui.component.table.renderer.RowNumberRenderer;
 import uk.ac.ebi.pride.gui.component.table.sorter.NumberTableRowSorter;
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
 import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.desktop.DesktopContext;
 import uk.ac.ebi.pride.gui.utils.Constants;
@@ -95,8 +97,12 @@ public class DefaultPrideTable extends AlterRowColorTable implements ActionListe
         // auto fill
         setFillsViewportHeight(true);
 
-        // sorter
-        setRowSorter(new NumberTableRowSorter(tableModel));
+        // sorter, a paged table model is sorted using its column index instead of loading all the rows
+        if (tableModel instanceof PagedTableModel) {
+            setRowSorter(new PagedTableRowSorter((PagedTableModel) tableModel));
+        } else {
+            setRowSorter(new NumberTableRowSorter(tableModel));
+        }
 
         // row height
         setRowHeight(20);
@@ -0,0 +1,92 @@
+package uk.ac.ebi.pride.gui.component.table;
+
+import uk.ac.ebi.pride.data.Tuple;
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+import uk.ac.ebi.pride.data.core.Modification;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.PagedRowSource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * PeptideTableRowSource reads the rows of the peptide table from a data access controller, the key of a row is
+ * the identification id and the peptide id. A row is read using
+ * {@link TableDataRetriever#getPeptideTableRow(DataAccessController, Comparable, Comparable)}.
+ * <p/>
+ * The score columns of the search engine follow the number of fragment ions, so only the columns before them
+ * are read on their own, such as the protein accession which is used by the decoy filter.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PeptideTableRowSource implements PagedRowSource<Tuple<Comparable, Comparable>> {
+
+    private final DataAccessController controller;
+
+    /**
+     * identification id of the peptides, null for the peptides of all the identifications
+     */
+    private final Comparable identId;
+
+    /**
+     * Read the peptides of all the identifications
+     *
+     * @param controller data access controller
+     */
+    public PeptideTableRowSource(DataAccessController controller) {
+        this(controller, null);
+    }
+
+    /**
+     * Read the peptides of one identification
+     *
+     * @param controller data access controller
+     * @param identId    identification id, null for all the identifications
+     */
+    public PeptideTableRowSource(DataAccessController controller, Comparable identId) {
+        this.controller = controller;
+        this.identId = identId;
+    }
+
+    @Override
+    public List<Tuple<Comparable, Comparable>> getRowKeys() throws DataAccessException {
+        Collection<Comparable> identIds = identId == null ? controller.getIdentificationIds() : Collections.singletonList(identId);
+
+        List<Tuple<Comparable, Comparable>> keys = new ArrayList<Tuple<Comparable, Comparable>>();
+        for (Comparable id : identIds) {
+            Collection<Comparable> peptideIds = controller.getPeptideIds(id);
+            if (peptideIds != null) {
+                for (Comparable peptideId : peptideIds) {
+                    keys.add(new Tuple<Comparable, Comparable>(id, peptideId));
+                }
+            }
+        }
+        return keys;
+    }
+
+    @Override
+    public List<Object> getRow(Tuple<Comparable, Comparable> key) throws DataAccessException {
+        return TableDataRetriever.getPeptideTableRow(controller, key.getKey(), key.getValue());
+    }
+
+    @Override
+    public Object getColumnValue(Tuple<Comparable, Comparable> key, int column) throws DataAccessException {
+        Object value;
+
+        if (column == AbstractPeptideTableModel.TableHeader.ROW_NUMBER_COLUMN.ordinal()) {
+            throw new IllegalArgumentException("Row number is not part of the peptide data");
+        } else if (column == AbstractPeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.ordinal()) {
+            value = controller.getProteinAccession(key.getKey());
+        } else if (column == AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_NUMBER_COLUMN.ordinal()) {
+            Collection<Modification> mods = controller.getPTMs(key.getKey(), key.getValue());
+            value = mods == null ? 0 : mods.size();
+        } else {
+            value = getRow(key).get(column - 1);
+        }
+
+        return value;
+    }
+}
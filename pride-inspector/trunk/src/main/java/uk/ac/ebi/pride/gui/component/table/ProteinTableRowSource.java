@@ -0,0 +1,77 @@
+package uk.ac.ebi.pride.gui.component.table;
+
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractProteinTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.PagedRowSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ProteinTableRowSource reads the rows of the protein table from a data access controller,
+ * a row is read using {@link TableDataRetriever#getProteinTableRow(DataAccessController, Comparable)}.
+ * <p/>
+ * The columns used for sorting and filtering, such as the accessions and the scores, are read on their own.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class ProteinTableRowSource implements PagedRowSource<Comparable> {
+    private static final AbstractProteinTableModel.TableHeader[] HEADERS = AbstractProteinTableModel.TableHeader.values();
+
+    private final DataAccessController controller;
+
+    public ProteinTableRowSource(DataAccessController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public List<Comparable> getRowKeys() throws DataAccessException {
+        return new ArrayList<Comparable>(controller.getIdentificationIds());
+    }
+
+    @Override
+    public List<Object> getRow(Comparable identId) throws DataAccessException {
+        return TableDataRetriever.getProteinTableRow(controller, identId);
+    }
+
+    @Override
+    public Object getColumnValue(Comparable identId, int column) throws DataAccessException {
+        Object value;
+
+        switch (HEADERS[column]) {
+            case ROW_NUMBER_COLUMN:
+                throw new IllegalArgumentException("Row number is not part of the protein data");
+            case PROTEIN_ACCESSION_COLUMN:
+                value = controller.getProteinAccession(identId);
+                break;
+            case IDENTIFICATION_SCORE_COLUMN:
+                double score = controller.getIdentificationScore(identId);
+                value = score == -1 ? null : score;
+                break;
+            case IDENTIFICATION_THRESHOLD_COLUMN:
+                double threshold = controller.getIdentificationThreshold(identId);
+                value = threshold == -1 ? null : threshold;
+                break;
+            case NUMBER_OF_PEPTIDES:
+                value = controller.getNumberOfPeptides(identId);
+                break;
+            case NUMBER_OF_UNIQUE_PEPTIDES:
+                value = controller.getNumberOfUniquePeptides(identId);
+                break;
+            case NUMBER_OF_PTMS:
+                value = controller.getNumberOfPTMs(identId);
+                break;
+            case IDENTIFICATION_ID:
+            case ADDITIONAL:
+                value = identId;
+                break;
+            default:
+                // the protein details are read together
+                value = getRow(identId).get(column - 1);
+                break;
+        }
+
+        return value;
+    }
+}
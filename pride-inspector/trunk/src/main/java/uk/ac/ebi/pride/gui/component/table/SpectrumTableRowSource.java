@@ -0,0 +1,79 @@
+package uk.ac.ebi.pride.gui.component.table;
+
+import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+import uk.ac.ebi.pride.gui.component.table.model.PagedRowSource;
+import uk.ac.ebi.pride.gui.component.table.model.SpectrumTableModel;
+import uk.ac.ebi.pride.util.NumberUtilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SpectrumTableRowSource reads the rows of the spectrum table from a data access controller.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class SpectrumTableRowSource implements PagedRowSource<Comparable> {
+    private static final SpectrumTableModel.TableHeader[] HEADERS = SpectrumTableModel.TableHeader.values();
+
+    private final DataAccessController controller;
+
+    public SpectrumTableRowSource(DataAccessController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public List<Comparable> getRowKeys() throws DataAccessException {
+        return new ArrayList<Comparable>(controller.getSpectrumIds());
+    }
+
+    @Override
+    public List<Object> getRow(Comparable specId) throws DataAccessException {
+        List<Object> content = new ArrayList<Object>(HEADERS.length - 1);
+        for (int i = 1; i < HEADERS.length; i++) {
+            content.add(getColumnValue(specId, i));
+        }
+        return content;
+    }
+
+    @Override
+    public Object getColumnValue(Comparable specId, int column) throws DataAccessException {
+        Object value = null;
+
+        switch (HEADERS[column]) {
+            case ROW_NUMBER_COLUMN:
+                throw new IllegalArgumentException("Row number is not part of the spectrum data");
+            case SPECTRUM_ID_COLUMN:
+                value = specId;
+                break;
+            case MZ_LEVEL_COLUMN:
+                int msLevel = controller.getMsLevel(specId);
+                value = msLevel == -1 ? null : msLevel;
+                break;
+            case IDENTIFIED_COLUMN:
+                value = controller.isIdentifiedSpectrum(specId);
+                break;
+            case PRECURSOR_CHARGE_COLUMN:
+                int pCharge = controller.getPrecursorCharge(specId);
+                value = pCharge == 0 ? null : pCharge;
+                break;
+            case PRECURSOR_MZ_COLUMN:
+                double pMz = controller.getPrecursorMz(specId);
+                value = pMz == -1 ? null : NumberUtilities.scaleDouble(pMz, 4);
+                break;
+            case PRECURSOR_INTENSITY_COLUMN:
+                double pIntent = controller.getPrecursorIntensity(specId);
+                value = pIntent == -1 ? null : NumberUtilities.scaleDouble(pIntent, 1);
+                break;
+            case SUM_OF_INTENSITY_COLUMN:
+                value = NumberUtilities.scaleDouble(controller.getSumOfIntensity(specId), 1);
+                break;
+            case NUMBER_OF_PEAKS_COLUMN:
+                value = controller.getNumberOfPeaks(specId);
+                break;
+        }
+
+        return value;
+    }
+}
@@ -28,12 +28,14 @@ import java.util.regex.Pattern;
  */
 public class TableFactory {
     /**
-     * Build a table to display spectrum related details
+     * Build a table to display spectrum related details,
+     * the rows are read from the data access controller when they are displayed.
      *
+     * @param controller data access controller
      * @return JTable   spectrum table
      */
-    public static JTable createSpectrumTable() {
-        return new DefaultPrideTable(new SpectrumTableModel(), new DefaultTableColumnModelExt());
+    public static JTable createSpectrumTable(DataAccessController controller) {
+        return new DefaultPrideTable(new SpectrumTableModel(new SpectrumTableRowSource(controller)), new DefaultTableColumnModelExt());
     }
 
     /**
@@ -46,20 +48,21 @@ public class TableFactory {
     }
 
     /**
-     * Build a table to display identification related details.
+     * Build a table to display identification related details,
+     * the rows are read from the data access controller when they are displayed.
      *
      * @param controller data access controller
      * @return JTable   identification table
      */
     public static JTable createIdentificationTable(DataAccessController controller) {
-        ProteinTableModel identTableModel = new ProteinTableModel();
+        ProteinTableModel identTableModel = new ProteinTableModel(new ProteinTableRowSource(controller));
         DefaultTableColumnModelExt columnModel = new DefaultTableColumnModelExt();
         DefaultPrideTable table = new DefaultPrideTable(identTableModel, columnModel);
 
-        TableColumnExt proteinIdColumn = (TableColumnExt) table.getColumn(ProteinTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
+        TableColumnExt proteinIdColumn = (TableColumnExt) table.getColumn(AbstractProteinTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
         proteinIdColumn.setVisible(false);
 
-        TableColumnExt proteinNameColumn = (TableColumnExt) table.getColumn(ProteinTableModel.TableHeader.PROTEIN_NAME.getHeader());
+        TableColumnExt proteinNameColumn = (TableColumnExt) table.getColumn(AbstractProteinTableModel.TableHeader.PROTEIN_NAME.getHeader());
         // set protein name width
         proteinNameColumn.setPreferredWidth(200);
 
@@ -67,29 +70,29 @@ public class TableFactory {
         proteinNameColumn.setVisible(false);
 
         // protein status column
-        TableColumnExt proteinStatusColumn = (TableColumnExt) table.getColumn(ProteinTableModel.TableHeader.PROTEIN_STATUS.getHeader());
+        TableColumnExt proteinStatusColumn = (TableColumnExt) table.getColumn(AbstractProteinTableModel.TableHeader.PROTEIN_STATUS.getHeader());
         proteinStatusColumn.setVisible(false);
 
         // sequence coverage column
-        TableColumnExt seqCoverageColumn = (TableColumnExt) table.getColumn(ProteinTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader());
+        TableColumnExt seqCoverageColumn = (TableColumnExt) table.getColumn(AbstractProteinTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader());
         seqCoverageColumn.setCellRenderer(new SequenceCoverageRenderer());
         seqCoverageColumn.setVisible(false);
 
         // isoelectric point column
-        TableColumnExt isoelectricColumn = (TableColumnExt) table.getColumn(ProteinTableModel.TableHeader.THEORITICAL_ISOELECTRIC_POINT_COLUMN.getHeader());
+        TableColumnExt isoelectricColumn = (TableColumnExt) table.getColumn(AbstractProteinTableModel.TableHeader.THEORITICAL_ISOELECTRIC_POINT_COLUMN.getHeader());
         isoelectricColumn.setVisible(false);
 
         // add hyper link click listener
-        String protAccColumnHeader = ProteinTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
+        String protAccColumnHeader = AbstractProteinTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
         table.addMouseMotionListener(new TableCellMouseMotionListener(table, protAccColumnHeader));
         table.addMouseListener(new HyperLinkCellMouseClickListener(table, protAccColumnHeader, new ProteinAccHyperLinkGenerator()));
 
         // ptm accession hyperlink
-        TableColumn protAcc = table.getColumn(ProteinTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
+        TableColumn protAcc = table.getColumn(AbstractProteinTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
         protAcc.setCellRenderer(new HyperLinkCellRenderer());
 
         // additional column
-        String additionalColHeader = ProteinTableModel.TableHeader.ADDITIONAL.getHeader();
+        String additionalColHeader = AbstractProteinTableModel.TableHeader.ADDITIONAL.getHeader();
         TableColumnExt additionalCol = (TableColumnExt) table.getColumn(additionalColHeader);
         Icon icon = GUIUtilities.loadIcon(Desktop.getInstance().getDesktopContext().getProperty("view.detail.small.icon"));
         additionalCol.setCellRenderer(new IconRenderer(icon));
@@ -103,7 +106,8 @@ public class TableFactory {
     }
 
     /**
-     * Build a table to display peptide related details.
+     * Build a table to display peptide related details,
+     * the rows are read from the data access controller when they are displayed.
      *
      * @param se         search engine
      * @param controller data access controller
@@ -111,80 +115,80 @@ public class TableFactory {
      */
     public static JTable createPeptideTable(SearchEngine se, DataAccessController controller) {
 
-        PeptideTableModel peptideTableModel = new PeptideTableModel(se);
+        PeptideTableModel peptideTableModel = new PeptideTableModel(se, new PeptideTableRowSource(controller));
         DefaultTableColumnModelExt columnModel = new DefaultTableColumnModelExt();
         DefaultPrideTable table = new DefaultPrideTable(peptideTableModel, columnModel);
 
         // peptide sequence column renderer
-        TableColumnExt peptideColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PEPTIDE_PTM_COLUMN.getHeader());
+        TableColumnExt peptideColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_COLUMN.getHeader());
         peptideColumn.setCellRenderer(new PeptideSequenceCellRenderer());
 
         // delta mass column
-        TableColumnExt deltaMassColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.DELTA_MASS_COLUMN.getHeader());
+        TableColumnExt deltaMassColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.DELTA_MASS_COLUMN.getHeader());
         double minLimit = Double.parseDouble(Desktop.getInstance().getDesktopContext().getProperty("delta.mz.min.limit"));
         double maxLimit = Double.parseDouble(Desktop.getInstance().getDesktopContext().getProperty("delta.mz.max.limit"));
         DeltaMZRenderer renderer = new DeltaMZRenderer(minLimit, maxLimit);
         deltaMassColumn.setCellRenderer(renderer);
 
         // peptide sequence present in protein sequence
-        TableColumnExt peptideFitColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader());
+        TableColumnExt peptideFitColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_FIT.getHeader());
         peptideFitColumn.setCellRenderer(new PeptideFitCellRenderer());
         peptideFitColumn.setVisible(false);
 
         // hide modified peptide sequence
-        TableColumnExt peptideSeqColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PEPTIDE_PTM_MASS_COLUMN.getHeader());
+        TableColumnExt peptideSeqColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_MASS_COLUMN.getHeader());
         peptideSeqColumn.setVisible(false);
 
         // hide protein id column
-        TableColumnExt proteinIdColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
+        TableColumnExt proteinIdColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader());
         proteinIdColumn.setVisible(false);
 
         // hide peptide id column
-        TableColumnExt peptideIdColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PEPTIDE_ID.getHeader());
+        TableColumnExt peptideIdColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_ID.getHeader());
         peptideIdColumn.setVisible(false);
 
         // set protein name column width
-        TableColumnExt proteinNameColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PROTEIN_NAME.getHeader());
+        TableColumnExt proteinNameColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PROTEIN_NAME.getHeader());
         proteinNameColumn.setPreferredWidth(200);
 
         // hide the protein name column
         proteinNameColumn.setVisible(false);
 
         // protein status column
-        TableColumnExt proteinStatusColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PROTEIN_STATUS.getHeader());
+        TableColumnExt proteinStatusColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PROTEIN_STATUS.getHeader());
         proteinStatusColumn.setVisible(false);
 
         // sequence coverage column
-        TableColumnExt coverageColumn = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader());
+        TableColumnExt coverageColumn = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.PROTEIN_SEQUENCE_COVERAGE.getHeader());
         coverageColumn.setCellRenderer(new SequenceCoverageRenderer());
         coverageColumn.setVisible(false);
 
         // add hyper link click listener
-        String protAccColumnHeader = PeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
+        String protAccColumnHeader = AbstractPeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader();
         table.addMouseMotionListener(new TableCellMouseMotionListener(table, protAccColumnHeader));
         table.addMouseListener(new HyperLinkCellMouseClickListener(table, protAccColumnHeader, new ProteinAccHyperLinkGenerator()));
 
         // ptm accession hyperlink
-        TableColumnExt protAcc = (TableColumnExt) table.getColumn(PeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
+        TableColumnExt protAcc = (TableColumnExt) table.getColumn(AbstractPeptideTableModel.TableHeader.MAPPED_PROTEIN_ACCESSION_COLUMN.getHeader());
         protAcc.setCellRenderer(new HyperLinkCellRenderer());
 
         // set peptide column width
         peptideColumn.setPreferredWidth(200);
 
         // hide spectrum id column
-        String spectrumIdHeader = PeptideTableModel.TableHeader.SPECTRUM_ID.getHeader();
+        String spectrumIdHeader = AbstractPeptideTableModel.TableHeader.SPECTRUM_ID.getHeader();
         TableColumnExt spectrumIdColumn = (TableColumnExt) table.getColumn(spectrumIdHeader);
         spectrumIdColumn.setVisible(false);
 
         // additional column
-        String additionalColHeader = PeptideTableModel.TableHeader.ADDITIONAL.getHeader();
+        String additionalColHeader = AbstractPeptideTableModel.TableHeader.ADDITIONAL.getHeader();
         TableColumnExt additionalCol = (TableColumnExt) table.getColumn(additionalColHeader);
         Icon icon = GUIUtilities.loadIcon(Desktop.getInstance().getDesktopContext().getProperty("view.detail.small.icon"));
         additionalCol.setCellRenderer(new IconRenderer(icon));
         additionalCol.setMaxWidth(50);
 
         // hide pI column
-        String pIHeader = PeptideTableModel.TableHeader.THEORITICAL_ISOELECTRIC_POINT_COLUMN.getHeader();
+        String pIHeader = AbstractPeptideTableModel.TableHeader.THEORITICAL_ISOELECTRIC_POINT_COLUMN.getHeader();
         TableColumnExt pICol = (TableColumnExt) table.getColumn(pIHeader);
         pICol.setVisible(false);
 
@@ -446,7 +450,7 @@ public class TableFactory {
         numOfPtmColumn.setVisible(false);
 
         // additional column
-        String additionalColHeader = ProteinTableModel.TableHeader.ADDITIONAL.getHeader();
+        String additionalColHeader = AbstractProteinTableModel.TableHeader.ADDITIONAL.getHeader();
         TableColumnExt additionalCol = (TableColumnExt) quantProteinTable.getColumn(additionalColHeader);
         Icon icon = GUIUtilities.loadIcon(Desktop.getInstance().getDesktopContext().getProperty("view.detail.small.icon"));
         additionalCol.setCellRenderer(new IconRenderer(icon));
@@ -590,7 +594,7 @@ public class TableFactory {
         quantPeptideTable.addMouseListener(new HyperLinkCellMouseClickListener(quantPeptideTable, protAccColumnHeader, new ProteinAccHyperLinkGenerator()));
 
         // additional column
-        String additionalColHeader = ProteinTableModel.TableHeader.ADDITIONAL.getHeader();
+        String additionalColHeader = AbstractProteinTableModel.TableHeader.ADDITIONAL.getHeader();
         TableColumnExt additionalCol = (TableColumnExt) quantPeptideTable.getColumn(additionalColHeader);
         Icon detailIcon = GUIUtilities.loadIcon(Desktop.getInstance().getDesktopContext().getProperty("view.detail.small.icon"));
         additionalCol.setCellRenderer(new IconRenderer(detailIcon));
@@ -1,14 +1,19 @@
 package uk.ac.ebi.pride.gui.component.table.filter;
 
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
+
 import javax.swing.*;
 
 /**
+ * Filter the rows by their protein accession, it can be used as the row filter of a table row sorter,
+ * or as the value filter of the accession column of a paged table.
+ * <p/>
  * Created by IntelliJ IDEA.
  * User: rwang
  * Date: 01/09/2011
  * Time: 12:19
  */
-public class DecoyAccessionFilter extends RowFilter {
+public class DecoyAccessionFilter extends RowFilter implements PagedTableRowSorter.ValueFilter {
     public enum Type {PREFIX, POSTFIX, CONTAIN}
 
     /**
@@ -47,17 +52,41 @@ public class DecoyAccessionFilter extends RowFilter {
 
     @Override
     public boolean include(Entry entry) {
-        String accession = entry.getStringValue(accessionColumnIndex);
+        return includeAccession(entry.getStringValue(accessionColumnIndex));
+    }
 
+    /**
+     * Filter on the value of the accession column
+     *
+     * @param value protein accession
+     * @return boolean true if the row should be shown
+     */
+    @Override
+    public boolean include(Object value) {
+        // same as the string value of an empty entry
+        return includeAccession(value == null ? "" : value.toString());
+    }
+
+    private boolean includeAccession(String accession) {
+        return accession != null && (decoyOnly == isDecoyAccession(accession));
+    }
+
+    /**
+     * Check whether a protein accession matches the criteria
+     *
+     * @param accession protein accession
+     * @return boolean true if it is a decoy accession
+     */
+    public boolean isDecoyAccession(String accession) {
         if (accession != null) {
             accession = accession.toLowerCase();
             switch (type) {
                 case PREFIX:
-                    return decoyOnly ? accession.startsWith(criteria) : !accession.startsWith(criteria);
+                    return accession.startsWith(criteria);
                 case POSTFIX:
-                    return decoyOnly ? accession.endsWith(criteria) : !accession.endsWith(criteria);
+                    return accession.endsWith(criteria);
                 case CONTAIN:
-                    return decoyOnly ? accession.contains(criteria) : !accession.contains(criteria);
+                    return accession.contains(criteria);
             }
         }
         return false;
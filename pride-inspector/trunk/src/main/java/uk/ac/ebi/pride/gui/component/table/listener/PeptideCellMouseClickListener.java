@@ -4,7 +4,7 @@ import org.jdesktop.swingx.table.TableColumnExt;
 import uk.ac.ebi.pride.data.core.Peptide;
 import uk.ac.ebi.pride.gui.PrideInspector;
 import uk.ac.ebi.pride.gui.component.protein.PTMDialog;
-import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
 
 import javax.swing.*;
 import javax.swing.table.TableModel;
@@ -35,7 +35,7 @@ public class PeptideCellMouseClickListener extends MouseAdapter {
         String header = table.getColumnName(col);
         if (header.equals(columnHeader)) {
             TableModel tableModel = table.getModel();
-            TableColumnExt column = (TableColumnExt)table.getColumn(PeptideTableModel.TableHeader.PEPTIDE_PTM_COLUMN.getHeader());
+            TableColumnExt column = (TableColumnExt)table.getColumn(AbstractPeptideTableModel.TableHeader.PEPTIDE_PTM_COLUMN.getHeader());
             Object val = tableModel.getValueAt(table.convertRowIndexToModel(row), column.getModelIndex());
             if (val != null && val instanceof Peptide) {
                 Peptide peptide = (Peptide) val;
@@ -78,6 +78,16 @@ public class AbstractPeptideTableModel extends ProgressiveListTableModel<Void, T
     }
 
     void addAdditionalColumns() {
+        addColumns(columnNames, searchEngine);
+    }
+
+    /**
+     * Add the peptide columns, with the score columns of the search engine after the number of fragment ions
+     *
+     * @param columnNames  column names to tool tips
+     * @param searchEngine search engine, null if there is no score column
+     */
+    static void addColumns(Map<String, String> columnNames, SearchEngine searchEngine) {
         // add columns for search engine scores
         TableHeader[] headers = TableHeader.values();
         for (TableHeader header : headers) {
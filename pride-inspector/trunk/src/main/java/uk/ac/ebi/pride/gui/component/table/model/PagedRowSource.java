@@ -0,0 +1,44 @@
+package uk.ac.ebi.pride.gui.component.table.model;
+
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+
+import java.util.List;
+
+/**
+ * PagedRowSource provides the rows of a PagedTableModel on demand,
+ * each row is identified by a key, for example: spectrum id.
+ * <p/>
+ * The methods are called from a background thread, never from the event dispatch thread.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public interface PagedRowSource<K> {
+
+    /**
+     * Get the keys of all the rows in their natural order
+     *
+     * @return List<K>  row keys
+     * @throws DataAccessException error while reading the data
+     */
+    public List<K> getRowKeys() throws DataAccessException;
+
+    /**
+     * Get the values of a row, the first column (row number) is excluded
+     *
+     * @param key row key
+     * @return List<Object>    values of the columns after the row number column
+     * @throws DataAccessException error while reading the data
+     */
+    public List<Object> getRow(K key) throws DataAccessException;
+
+    /**
+     * Get the value of a single column, this is used to build the sort and filter index,
+     * so it should avoid reading the whole row when possible.
+     *
+     * @param key    row key
+     * @param column column index in the table model, the row number column is 0
+     * @return Object  column value
+     * @throws DataAccessException error while reading the data
+     */
+    public Object getColumnValue(K key, int column) throws DataAccessException;
+}
@@ -0,0 +1,443 @@
+package uk.ac.ebi.pride.gui.component.table.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+import uk.ac.ebi.pride.gui.EDTUtils;
+import uk.ac.ebi.pride.gui.task.executor.PriorityTaskExecutor;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PagedTableModel only keeps the keys of all the rows in memory, the values of the rows
+ * are read from a PagedRowSource in pages, when they are displayed.
+ * <p/>
+ * 1. A page which has not been loaded yet shows empty cells, it is loaded in the background
+ * and the rows are updated once it is ready. The next page is prefetched with a lower priority.
+ * <p/>
+ * 2. Only a limited number of pages are cached, the least recently used page is dropped first.
+ * <p/>
+ * 3. Sorting and filtering use a column index, which holds a single value per row,
+ * see {@link #loadColumnValues(int, ColumnIndexListener)}.
+ * <p/>
+ * The first column is the row number, as in all the other table models. The values of the row number
+ * column and of the key column are always available.
+ * <p/>
+ * All the methods, apart from the constructor, should be called on the event dispatch thread.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public abstract class PagedTableModel<K> extends ListTableModel<List<K>> {
+    private static final Logger logger = LoggerFactory.getLogger(PagedTableModel.class);
+
+    /**
+     * the default number of rows in a page
+     */
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    /**
+     * the default maximum number of cached pages
+     */
+    public static final int DEFAULT_MAX_CACHED_PAGES = 50;
+    /**
+     * the maximum number of page loads waiting to be started
+     */
+    private static final int LOADER_QUEUE_CAPACITY = 64;
+
+    private final PagedRowSource<K> rowSource;
+    private final int keyColumn;
+    private final int pageSize;
+
+    /**
+     * keys of all the rows, in model order
+     */
+    private final List<K> rowKeys;
+    /**
+     * page index to the rows of the page, in access order
+     */
+    private final Map<Integer, List<List<Object>>> pages;
+    /**
+     * pages which have been requested, but not loaded yet
+     */
+    private final Set<Integer> pendingPages;
+    /**
+     * column index to the values of the column, in model order
+     */
+    private final Map<Integer, Object[]> columnIndexes;
+    /**
+     * loads the pages and the column indexes, one at a time
+     */
+    private final PriorityTaskExecutor loader;
+    /**
+     * increased when all the rows are removed, results of older loads are discarded
+     */
+    private volatile int generation;
+    /**
+     * increased when the rows are reloaded, pages and column indexes read before are discarded
+     */
+    private volatile int rowsVersion;
+
+    /**
+     * Constructor
+     *
+     * @param rowSource      source of the rows
+     * @param keyColumn      index of the column which contains the row key, -1 if there is none
+     * @param pageSize       number of rows in a page
+     * @param maxCachedPages maximum number of pages kept in memory
+     */
+    public PagedTableModel(PagedRowSource<K> rowSource, int keyColumn, int pageSize, final int maxCachedPages) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        if (maxCachedPages < 1) {
+            throw new IllegalArgumentException("Number of cached pages must be positive: " + maxCachedPages);
+        }
+        this.rowSource = rowSource;
+        this.keyColumn = keyColumn;
+        this.pageSize = pageSize;
+        this.rowKeys = new ArrayList<K>();
+        this.pages = new LinkedHashMap<Integer, List<List<Object>>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<List<Object>>> eldest) {
+                return size() > maxCachedPages;
+            }
+        };
+        this.pendingPages = new HashSet<Integer>();
+        this.columnIndexes = new ConcurrentHashMap<Integer, Object[]>();
+        this.loader = new PriorityTaskExecutor(1, LOADER_QUEUE_CAPACITY);
+        this.loader.allowCoreThreadTimeOut(true);
+    }
+
+    public PagedTableModel(PagedRowSource<K> rowSource, int keyColumn) {
+        this(rowSource, keyColumn, DEFAULT_PAGE_SIZE, DEFAULT_MAX_CACHED_PAGES);
+    }
+
+    /**
+     * Read the keys of all the rows from the row source in the background,
+     * the rows are added to the table once they have been read.
+     */
+    public void loadRowKeys() {
+        loadRowKeys(rowSource);
+    }
+
+    /**
+     * Read the keys of the rows from another source in the background, such as a subset of the rows
+     * of the row source, the values of the rows are still read from the row source.
+     *
+     * @param keySource source of the row keys
+     */
+    public void loadRowKeys(final PagedRowSource<K> keySource) {
+        final int loadGeneration = generation;
+        submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final List<K> keys = keySource.getRowKeys();
+                    EDTUtils.invokeLater(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (loadGeneration == generation) {
+                                addData(keys);
+                            }
+                        }
+                    });
+                } catch (DataAccessException e) {
+                    logger.error("Failed to read the row keys", e);
+                }
+            }
+        }, TaskPriority.HIGH);
+    }
+
+    /**
+     * Add more rows to the end of the table
+     *
+     * @param newKeys keys of the new rows
+     */
+    @Override
+    public void addData(List<K> newKeys) {
+        if (newKeys != null && !newKeys.isEmpty()) {
+            int rowCnt = rowKeys.size();
+            // the last page may grow
+            int lastPage = (rowCnt - 1) / pageSize;
+            if (rowCnt > 0 && rowCnt % pageSize != 0) {
+                pages.remove(lastPage);
+                pendingPages.remove(lastPage);
+            }
+            rowKeys.addAll(newKeys);
+            fireTableRowsInserted(rowCnt, rowKeys.size() - 1);
+        }
+    }
+
+    /**
+     * Rows are read from the row source, they can not be added directly
+     */
+    @Override
+    public void addRow(List<Object> content) {
+        throw new UnsupportedOperationException("Rows of a paged table model are read from its row source");
+    }
+
+    @Override
+    public void removeAllRows() {
+        int rowCnt = rowKeys.size();
+        generation++;
+        rowKeys.clear();
+        pages.clear();
+        pendingPages.clear();
+        columnIndexes.clear();
+        if (rowCnt > 0) {
+            fireTableRowsDeleted(0, rowCnt - 1);
+        }
+    }
+
+    /**
+     * Drop the cached rows and column indexes, so they are read again from the row source,
+     * for instance when the data behind the rows has changed. The row keys are kept.
+     */
+    public void reloadRows() {
+        rowsVersion++;
+        pages.clear();
+        pendingPages.clear();
+        columnIndexes.clear();
+        int rowCnt = rowKeys.size();
+        if (rowCnt > 0) {
+            fireTableRowsUpdated(0, rowCnt - 1);
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowKeys.size();
+    }
+
+    /**
+     * Get the key of a row
+     *
+     * @param rowIndex row index in the model
+     * @return K   row key
+     */
+    public K getRowKey(int rowIndex) {
+        return rowKeys.get(rowIndex);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Check whether a row has been loaded
+     *
+     * @param rowIndex row index in the model
+     * @return boolean true if the values of the row are in memory
+     */
+    public boolean isRowLoaded(int rowIndex) {
+        return pages.containsKey(rowIndex / pageSize);
+    }
+
+    /**
+     * Get the row data, without the loading it
+     *
+     * @param rowNum row number
+     * @return List<Object>    row data, null if the row has not been loaded
+     */
+    @Override
+    public List<Object> getRow(int rowNum) {
+        List<Object> content = null;
+        List<Object> values = getLoadedRow(rowNum);
+        if (values != null) {
+            content = new ArrayList<Object>(values.size() + 1);
+            content.add(rowNum + 1);
+            content.addAll(values);
+        }
+        return content;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        Object result = null;
+
+        if (rowIndex >= 0 && rowIndex < rowKeys.size() && columnIndex >= 0) {
+            if (columnIndex == 0) {
+                result = rowIndex + 1;
+            } else if (columnIndex == keyColumn) {
+                result = rowKeys.get(rowIndex);
+            } else {
+                int page = rowIndex / pageSize;
+                if (pages.containsKey(page)) {
+                    List<Object> values = getLoadedRow(rowIndex);
+                    if (values != null) {
+                        result = values.get(columnIndex - 1);
+                    }
+                } else {
+                    loadPage(page, TaskPriority.HIGH);
+                    // prefetch the next page
+                    if (!pages.containsKey(page + 1)) {
+                        loadPage(page + 1, TaskPriority.LOW);
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Only the cached rows can be changed, the changes are lost when their page is dropped from the cache.
+     */
+    @Override
+    public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
+        if (columnIndex > 0 && columnIndex != keyColumn) {
+            List<Object> values = getLoadedRow(rowIndex);
+            if (values != null) {
+                values.set(columnIndex - 1, aValue);
+                fireTableCellUpdated(rowIndex, columnIndex);
+            }
+        }
+    }
+
+    private List<Object> getLoadedRow(int rowIndex) {
+        List<Object> values = null;
+        if (rowIndex >= 0 && rowIndex < rowKeys.size()) {
+            List<List<Object>> rows = pages.get(rowIndex / pageSize);
+            if (rows != null) {
+                values = rows.get(rowIndex % pageSize);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Request a page to be loaded in the background
+     *
+     * @param page     page index
+     * @param priority load priority
+     */
+    private void loadPage(final int page, TaskPriority priority) {
+        final int start = page * pageSize;
+        if (start >= rowKeys.size() || pendingPages.contains(page)) {
+            return;
+        }
+
+        final int stop = Math.min(start + pageSize, rowKeys.size());
+        final List<K> keys = new ArrayList<K>(rowKeys.subList(start, stop));
+        final int loadGeneration = generation;
+        final int loadVersion = rowsVersion;
+
+        boolean accepted = submit(new Runnable() {
+            @Override
+            public void run() {
+                final List<List<Object>> rows = new ArrayList<List<Object>>(keys.size());
+                for (K key : keys) {
+                    List<Object> row = null;
+                    try {
+                        row = rowSource.getRow(key);
+                    } catch (DataAccessException e) {
+                        logger.error("Failed to read the table row: " + key, e);
+                    }
+                    rows.add(row);
+                }
+
+                EDTUtils.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (loadGeneration == generation && loadVersion == rowsVersion && pendingPages.remove(page)) {
+                            // a failed row stays empty, instead of being read again on every repaint
+                            pages.put(page, rows);
+                            fireTableRowsUpdated(start, stop - 1);
+                        }
+                    }
+                });
+            }
+        }, priority);
+
+        if (accepted) {
+            pendingPages.add(page);
+        }
+    }
+
+    /**
+     * Get the values of a column for all the rows in the background, the values are
+     * kept as an index for the following sorting and filtering.
+     *
+     * @param column   column index
+     * @param listener notified on the event dispatch thread, with null values if the column could not be read
+     */
+    public void loadColumnValues(final int column, final ColumnIndexListener listener) {
+        final List<K> keys = new ArrayList<K>(rowKeys);
+        final int loadGeneration = generation;
+        final int loadVersion = rowsVersion;
+
+        boolean accepted = submit(new Runnable() {
+            @Override
+            public void run() {
+                Object[] values = null;
+                try {
+                    values = getColumnValues(column, keys, loadGeneration, loadVersion);
+                } catch (DataAccessException e) {
+                    logger.error("Failed to read the values of column: " + getColumnName(column), e);
+                }
+
+                final Object[] result = values;
+                EDTUtils.invokeLater(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.columnIndexed(column, loadGeneration == generation ? result : null);
+                    }
+                });
+            }
+        }, TaskPriority.HIGH);
+
+        if (!accepted) {
+            listener.columnIndexed(column, null);
+        }
+    }
+
+    /**
+     * Get the column values from the index, rows added since the index was built are appended to it.
+     * This is only called by the loader thread.
+     */
+    private Object[] getColumnValues(int column, List<K> keys, int loadGeneration, int loadVersion) throws DataAccessException {
+        Object[] indexed = columnIndexes.get(column);
+        int start = indexed == null ? 0 : Math.min(indexed.length, keys.size());
+
+        Object[] values = indexed == null ? new Object[keys.size()] : Arrays.copyOf(indexed, keys.size());
+        for (int i = start; i < keys.size(); i++) {
+            if (column == 0) {
+                values[i] = i + 1;
+            } else if (column == keyColumn) {
+                values[i] = keys.get(i);
+            } else {
+                values[i] = rowSource.getColumnValue(keys.get(i), column);
+            }
+        }
+
+        if (loadGeneration == generation && loadVersion == rowsVersion) {
+            columnIndexes.put(column, values);
+        }
+        return values;
+    }
+
+    private boolean submit(Runnable task, TaskPriority priority) {
+        boolean accepted = false;
+        try {
+            // never block the event dispatch thread, the table asks again when it repaints
+            accepted = loader.execute(task, priority, 0, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return accepted;
+    }
+
+    /**
+     * Notified when the values of a column have been read
+     */
+    public interface ColumnIndexListener {
+
+        /**
+         * @param column column index
+         * @param values values of the column in model order, null if they could not be read
+         */
+        public void columnIndexed(int column, Object[] values);
+    }
+}
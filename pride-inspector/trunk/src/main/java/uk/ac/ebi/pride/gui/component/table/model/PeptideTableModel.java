@@ -3,47 +3,27 @@ package uk.ac.ebi.pride.gui.component.table.model;
 import uk.ac.ebi.pride.data.Tuple;
 import uk.ac.ebi.pride.data.core.SearchEngine;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * PeptideTableModel contains all the detailed that displayed in peptide table.
+ * PeptideTableModel contains all the detailed that displayed in peptide table,
+ * the rows are read from the row source when they are displayed.
+ * <p/>
+ * The row key is the identification id and the peptide id. Protein details, sequence coverages and peptide fits
+ * published by a task are read again from the cache, see {@link uk.ac.ebi.pride.gui.component.table.TableDataRetriever}.
  * <p/>
  * User: rwang
  * Date: 14-Apr-2010
  * Time: 15:58:15
  */
-public class PeptideTableModel extends AbstractPeptideTableModel {
-
+public class PeptideTableModel extends ProgressivePagedTableModel<Tuple<Comparable, Comparable>, Void, Tuple<TableContentType, Object>> {
 
-    public PeptideTableModel(SearchEngine se) {
-        super(se);
+    public PeptideTableModel(SearchEngine se, PagedRowSource<Tuple<Comparable, Comparable>> rowSource) {
+        super(rowSource, -1);
+        // the score columns depend on the search engine
+        AbstractPeptideTableModel.addColumns(columnNames, se);
     }
 
     @Override
-    public void addData(Tuple<TableContentType, Object> newData) {
-        TableContentType type = newData.getKey();
-
-        if (TableContentType.PEPTIDE.equals(type)) {
-            addPeptideData(newData.getValue());
-        } else {
-            super.addData(newData);
-        }
-    }
-
-    /**
-     * Add peptide row data
-     *
-     * @param newData peptide data
-     */
-    private void addPeptideData(Object newData) {
-        int rowCnt = this.getRowCount();
-        List<Object> content = new ArrayList<Object>();
-        // add row number
-        content.add(rowCnt + 1);
-        // add the rest content
-        content.addAll((List<String>) newData);
-        this.addRow(content);
-        fireTableRowsInserted(rowCnt, rowCnt);
+    public void initializeTableModel() {
+        // nothing here
     }
 }
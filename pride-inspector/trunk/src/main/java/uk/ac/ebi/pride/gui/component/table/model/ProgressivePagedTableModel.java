@@ -0,0 +1,57 @@
+package uk.ac.ebi.pride.gui.component.table.model;
+
+import uk.ac.ebi.pride.gui.task.TaskEvent;
+import uk.ac.ebi.pride.gui.task.TaskListener;
+
+import java.util.List;
+
+/**
+ * Extend this table model to update the rows of a paged table progressively.
+ * <p/>
+ * The values published by a task are not added to the rows directly, the task is expected to
+ * have made them available to the row source, the cached rows are then read again.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public abstract class ProgressivePagedTableModel<K, T, V> extends PagedTableModel<K> implements TaskListener<T, V> {
+
+    public ProgressivePagedTableModel(PagedRowSource<K> rowSource, int keyColumn) {
+        super(rowSource, keyColumn);
+    }
+
+    @Override
+    public void process(TaskEvent<List<V>> listTaskEvent) {
+        List<V> newDataList = listTaskEvent.getValue();
+        if (newDataList != null && !newDataList.isEmpty()) {
+            reloadRows();
+        }
+    }
+
+    @Override
+    public void started(TaskEvent<Void> event) {
+    }
+
+    @Override
+    public void interrupted(TaskEvent<InterruptedException> iex) {
+    }
+
+    @Override
+    public void finished(TaskEvent<Void> event) {
+    }
+
+    @Override
+    public void failed(TaskEvent<Throwable> event) {
+    }
+
+    @Override
+    public void succeed(TaskEvent<T> tTaskEvent) {
+    }
+
+    @Override
+    public void cancelled(TaskEvent<Void> event) {
+    }
+
+    @Override
+    public void progress(TaskEvent<Integer> progress) {
+    }
+}
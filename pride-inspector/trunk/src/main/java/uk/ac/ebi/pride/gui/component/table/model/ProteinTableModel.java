@@ -2,49 +2,28 @@ package uk.ac.ebi.pride.gui.component.table.model;
 
 import uk.ac.ebi.pride.data.Tuple;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * IdentificationTableModel stores all information to be displayed in the identification table.
+ * IdentificationTableModel stores all information to be displayed in the identification table,
+ * the rows are read from the row source when they are displayed.
+ * <p/>
+ * The row key is the identification id. Protein details, sequence coverages and peptide fits published by
+ * a task are read again from the cache, see {@link uk.ac.ebi.pride.gui.component.table.TableDataRetriever}.
  * <p/>
  * User: rwang
  * Date: 14-Apr-2010
  * Time: 15:58:04
  */
-public class ProteinTableModel extends AbstractProteinTableModel {
+public class ProteinTableModel extends ProgressivePagedTableModel<Comparable, Void, Tuple<TableContentType, Object>> {
 
-    @Override
-    public void initializeTableModel() {
-        TableHeader[] headers = TableHeader.values();
-        for (TableHeader header : headers) {
-            columnNames.put(header.getHeader(), header.getToolTip());
-        }
+    public ProteinTableModel(PagedRowSource<Comparable> rowSource) {
+        super(rowSource, AbstractProteinTableModel.TableHeader.IDENTIFICATION_ID.ordinal());
     }
 
     @Override
-    public void addData(Tuple<TableContentType, Object> newData) {
-        TableContentType type = newData.getKey();
-
-        if (TableContentType.PROTEIN.equals(type)) {
-            addIdentificationData(newData.getValue());
-        } else {
-            super.addData(newData);
+    public void initializeTableModel() {
+        AbstractProteinTableModel.TableHeader[] headers = AbstractProteinTableModel.TableHeader.values();
+        for (AbstractProteinTableModel.TableHeader header : headers) {
+            columnNames.put(header.getHeader(), header.getToolTip());
         }
     }
-
-    /**
-     * Add identification detail for each row
-     *
-     * @param newData identification detail
-     */
-    private void addIdentificationData(Object newData) {
-        List<Object> content = new ArrayList<Object>();
-        int rowCnt = this.getRowCount();
-        // row number
-        content.add(rowCnt + 1);
-        content.addAll((List<Object>) newData);
-        contents.add(content);
-        fireTableRowsInserted(rowCnt, rowCnt);
-    }
 }
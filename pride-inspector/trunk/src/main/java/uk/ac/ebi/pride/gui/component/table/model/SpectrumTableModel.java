@@ -1,16 +1,13 @@
 package uk.ac.ebi.pride.gui.component.table.model;
 
-import uk.ac.ebi.pride.data.Tuple;
-
-import java.util.ArrayList;
-import java.util.List;
-
 /**
+ * Spectrum table, the rows are read from the data access controller when they are displayed.
+ * <p/>
  * User: rwang
  * Date: 12-Apr-2010
  * Time: 15:39:59
  */
-public class SpectrumTableModel extends ProgressiveListTableModel<Void, Tuple<TableContentType, List<Object>>> {
+public class SpectrumTableModel extends PagedTableModel<Comparable> {
 
     /**
      * table column title
@@ -43,6 +40,10 @@ public class SpectrumTableModel extends ProgressiveListTableModel<Void, Tuple<Ta
         }
     }
 
+    public SpectrumTableModel(PagedRowSource<Comparable> rowSource) {
+        super(rowSource, TableHeader.SPECTRUM_ID_COLUMN.ordinal());
+    }
+
     @Override
     public void initializeTableModel() {
         TableHeader[] headers = TableHeader.values();
@@ -50,18 +51,4 @@ public class SpectrumTableModel extends ProgressiveListTableModel<Void, Tuple<Ta
             columnNames.put(header.getHeader(), header.getToolTip());
         }
     }
-
-    @Override
-    public void addData(Tuple<TableContentType, List<Object>> newData) {
-        // check the content type
-        TableContentType type = newData.getKey();
-        int rowCnt = this.getRowCount();
-        if (TableContentType.SPECTRUM.equals(type)) {
-            List<Object> content = new ArrayList<Object>();
-            content.add(this.getRowCount() + 1);
-            content.addAll(newData.getValue());
-            addRow(content);
-            fireTableRowsInserted(rowCnt, rowCnt);
-        }
-    }
 }
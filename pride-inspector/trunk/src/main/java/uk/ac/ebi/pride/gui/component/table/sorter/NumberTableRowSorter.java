@@ -23,7 +23,7 @@ public class NumberTableRowSorter extends TableRowSorter {
         }
     }
 
-    private static class NumberComparator implements Comparator, Serializable {
+    static class NumberComparator implements Comparator, Serializable {
 
         public int compare(Object o1, Object o2) {
             if (o1 instanceof Number && o2 instanceof Number) {
@@ -0,0 +1,312 @@
+package uk.ac.ebi.pride.gui.component.table.sorter;
+
+import uk.ac.ebi.pride.gui.component.table.model.PagedTableModel;
+
+import javax.swing.*;
+import java.util.*;
+
+/**
+ * PagedTableRowSorter sorts and filters a PagedTableModel using its column indexes,
+ * so the rows don't have to be loaded.
+ * <p/>
+ * The column index is read in the background, the view keeps its current order until it is ready.
+ * Only one sort key is supported, numbers are sorted as numbers and empty values come first.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PagedTableRowSorter extends RowSorter<PagedTableModel> {
+
+    private final PagedTableModel model;
+    private final Comparator comparator = new NumberTableRowSorter.NumberComparator();
+
+    private List<SortKey> sortKeys = Collections.emptyList();
+
+    /**
+     * column to filter on, -1 if there is no filter
+     */
+    private int filterColumn = -1;
+    private ValueFilter filter;
+
+    /**
+     * view index to model index, null if the view has the model order
+     */
+    private int[] viewToModel;
+    /**
+     * model index to view index, -1 if the row has been filtered out
+     */
+    private int[] modelToView;
+
+    /**
+     * increased for every new sort request, so an outdated index is ignored
+     */
+    private int sortRequest;
+
+    public PagedTableRowSorter(PagedTableModel model) {
+        this.model = model;
+    }
+
+    @Override
+    public PagedTableModel getModel() {
+        return model;
+    }
+
+    @Override
+    public void toggleSortOrder(int column) {
+        checkColumn(column);
+        SortOrder order = SortOrder.ASCENDING;
+        if (!sortKeys.isEmpty()) {
+            SortKey key = sortKeys.get(0);
+            if (key.getColumn() == column && key.getSortOrder() == SortOrder.ASCENDING) {
+                order = SortOrder.DESCENDING;
+            }
+        }
+        setSortKeys(Arrays.asList(new SortKey(column, order)));
+    }
+
+    @Override
+    public void setSortKeys(List<? extends SortKey> keys) {
+        List<SortKey> newKeys = Collections.emptyList();
+        if (keys != null && !keys.isEmpty()) {
+            SortKey key = keys.get(0);
+            checkColumn(key.getColumn());
+            if (key.getSortOrder() != SortOrder.UNSORTED) {
+                newKeys = Collections.singletonList(key);
+            }
+        }
+
+        if (!newKeys.equals(sortKeys)) {
+            sortKeys = newKeys;
+            fireSortOrderChanged();
+            sort();
+        }
+    }
+
+    @Override
+    public List<? extends SortKey> getSortKeys() {
+        return sortKeys;
+    }
+
+    /**
+     * Only show the rows whose value in the given column passes the filter
+     *
+     * @param column column index in the model
+     * @param filter value filter, null to remove the filter
+     */
+    public void setRowFilter(int column, ValueFilter filter) {
+        if (filter != null) {
+            checkColumn(column);
+        }
+        this.filterColumn = filter == null ? -1 : column;
+        this.filter = filter;
+        sort();
+    }
+
+    /**
+     * @return ValueFilter    the current filter, null if there is none
+     */
+    public ValueFilter getRowFilter() {
+        return filter;
+    }
+
+    /**
+     * Apply the sort keys and the filter, reading the column indexes first
+     */
+    public void sort() {
+        final int request = ++sortRequest;
+        final int sortColumn = sortKeys.isEmpty() ? -1 : sortKeys.get(0).getColumn();
+        final SortOrder order = sortKeys.isEmpty() ? SortOrder.UNSORTED : sortKeys.get(0).getSortOrder();
+        final int currentFilterColumn = filterColumn;
+        final ValueFilter currentFilter = filter;
+
+        loadColumnValues(sortColumn, new PagedTableModel.ColumnIndexListener() {
+            @Override
+            public void columnIndexed(int column, final Object[] sortValues) {
+                loadColumnValues(currentFilterColumn, new PagedTableModel.ColumnIndexListener() {
+                    @Override
+                    public void columnIndexed(int column, Object[] filterValues) {
+                        if (request == sortRequest) {
+                            applyOrder(sortValues, order, filterValues, currentFilter);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    private void loadColumnValues(int column, PagedTableModel.ColumnIndexListener listener) {
+        if (column < 0) {
+            listener.columnIndexed(column, null);
+        } else {
+            model.loadColumnValues(column, listener);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void applyOrder(final Object[] sortValues, final SortOrder order, Object[] filterValues, ValueFilter rowFilter) {
+        int rowCnt = model.getRowCount();
+        // the index may be shorter if rows were added while it was read, these rows go to the end
+        List<Integer> rows = new ArrayList<Integer>(rowCnt);
+        for (int i = 0; i < rowCnt; i++) {
+            if (rowFilter == null || filterValues == null || i >= filterValues.length || rowFilter.include(filterValues[i])) {
+                rows.add(i);
+            }
+        }
+
+        if (sortValues != null && order != SortOrder.UNSORTED) {
+            // stable, so rows with equal values keep the model order
+            Collections.sort(rows, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer row1, Integer row2) {
+                    boolean indexed1 = row1 < sortValues.length;
+                    boolean indexed2 = row2 < sortValues.length;
+                    if (!indexed1 || !indexed2) {
+                        return indexed1 == indexed2 ? 0 : (indexed1 ? -1 : 1);
+                    }
+                    int result = compareValues(sortValues[row1], sortValues[row2]);
+                    return order == SortOrder.DESCENDING ? -result : result;
+                }
+            });
+        }
+
+        int[] lastViewToModel = getViewToModelAsInts();
+        boolean identity = rows.size() == rowCnt;
+        for (int i = 0; identity && i < rowCnt; i++) {
+            identity = rows.get(i) == i;
+        }
+
+        if (identity) {
+            viewToModel = null;
+            modelToView = null;
+        } else {
+            viewToModel = new int[rows.size()];
+            modelToView = new int[rowCnt];
+            Arrays.fill(modelToView, -1);
+            for (int i = 0; i < viewToModel.length; i++) {
+                viewToModel[i] = rows.get(i);
+                modelToView[viewToModel[i]] = i;
+            }
+        }
+        fireRowSorterChanged(lastViewToModel);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compareValues(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == value2 ? 0 : (value1 == null ? -1 : 1);
+        }
+        return comparator.compare(value1, value2);
+    }
+
+    private int[] getViewToModelAsInts() {
+        int[] rows = viewToModel;
+        if (rows == null) {
+            rows = new int[getViewRowCount()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = i;
+            }
+        } else {
+            rows = rows.clone();
+        }
+        return rows;
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= model.getColumnCount()) {
+            throw new IndexOutOfBoundsException("Column index is out of range: " + column);
+        }
+    }
+
+    @Override
+    public int convertRowIndexToModel(int index) {
+        if (viewToModel == null) {
+            if (index < 0 || index >= model.getRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid index: " + index);
+            }
+            return index;
+        }
+        return viewToModel[index];
+    }
+
+    @Override
+    public int convertRowIndexToView(int index) {
+        if (modelToView == null) {
+            if (index < 0 || index >= model.getRowCount()) {
+                throw new IndexOutOfBoundsException("Invalid index: " + index);
+            }
+            return index;
+        }
+        return modelToView[index];
+    }
+
+    @Override
+    public int getViewRowCount() {
+        return viewToModel == null ? model.getRowCount() : viewToModel.length;
+    }
+
+    @Override
+    public int getModelRowCount() {
+        return model.getRowCount();
+    }
+
+    @Override
+    public void modelStructureChanged() {
+        sortKeys = Collections.emptyList();
+        filterColumn = -1;
+        filter = null;
+        resetOrder();
+    }
+
+    @Override
+    public void allRowsChanged() {
+        resetOrder();
+    }
+
+    @Override
+    public void rowsInserted(int firstRow, int endRow) {
+        resetOrder();
+    }
+
+    @Override
+    public void rowsDeleted(int firstRow, int endRow) {
+        resetOrder();
+    }
+
+    /**
+     * Updated rows only get their values loaded, the index does not change
+     */
+    @Override
+    public void rowsUpdated(int firstRow, int endRow) {
+    }
+
+    @Override
+    public void rowsUpdated(int firstRow, int endRow, int column) {
+    }
+
+    /**
+     * Show the model order until the rows have been sorted again
+     */
+    private void resetOrder() {
+        sortRequest++;
+        boolean ordered = viewToModel != null;
+        viewToModel = null;
+        modelToView = null;
+        if (ordered) {
+            fireRowSorterChanged(null);
+        }
+        if (!sortKeys.isEmpty() || filter != null) {
+            sort();
+        }
+    }
+
+    /**
+     * Decides whether a row is shown, using the value of the filter column
+     */
+    public interface ValueFilter {
+
+        /**
+         * @param value value of the filter column, null if empty
+         * @return boolean true if the row should be shown
+         */
+        public boolean include(Object value);
+    }
+}
@@ -7,6 +7,7 @@ import uk.ac.ebi.pride.gui.prop.PropertyManager;
 import uk.ac.ebi.pride.gui.task.Task;
 import uk.ac.ebi.pride.gui.task.TaskListener;
 import uk.ac.ebi.pride.gui.task.TaskManager;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
 import uk.ac.ebi.pride.gui.utils.PropertyChangeHelper;
 
 import java.beans.PropertyChangeListener;
@@ -103,10 +104,22 @@ public class DesktopContext extends PropertyChangeHelper {
      *
      * @param task a new task
      */
-    public final synchronized void addTask(Task task) {
+    public final void addTask(Task task) {
         taskManager.addTask(task);
     }
 
+    /**
+     * Add a task with the given priority to task manager
+     * <p/>
+     * Not synchronized, adding a task might wait for a free place in the task queue.
+     *
+     * @param task     a new task
+     * @param priority task priority
+     */
+    public final void addTask(Task task, TaskPriority priority) {
+        taskManager.addTask(task, priority);
+    }
+
     /**
      * Add a task to task manager, and also specify whether to notify other components
      * Such as: status bar
@@ -114,7 +127,7 @@ public class DesktopContext extends PropertyChangeHelper {
      * @param task   new task
      * @param notify true means notify
      */
-    public final synchronized void addTask(Task task, boolean notify) {
+    public final void addTask(Task task, boolean notify) {
         taskManager.addTask(task, notify);
     }
 
@@ -7,6 +7,7 @@ import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.event.container.PeptideEvent;
 import uk.ac.ebi.pride.gui.task.Task;
 import uk.ac.ebi.pride.gui.task.TaskListener;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
 import uk.ac.ebi.pride.gui.task.impl.RetrieveSpectrumTask;
 import uk.ac.ebi.pride.gui.utils.DefaultGUIBlocker;
 import uk.ac.ebi.pride.gui.utils.GUIBlocker;
@@ -38,6 +39,6 @@ public class PeptideSpectrumEventSubscriber implements EventSubscriber<PeptideEv
         newTask.addTaskListener(taskListener);
         newTask.setGUIBlocker(new DefaultGUIBlocker(newTask, GUIBlocker.Scope.NONE, null));
         // add task listeners
-        appContext.addTask(newTask);
+        appContext.addTask(newTask, TaskPriority.HIGH);
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.event.container.SpectrumEvent;
 import uk.ac.ebi.pride.gui.task.Task;
 import uk.ac.ebi.pride.gui.task.TaskListener;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
 import uk.ac.ebi.pride.gui.task.impl.RetrieveSpectrumTask;
 import uk.ac.ebi.pride.gui.utils.DefaultGUIBlocker;
 import uk.ac.ebi.pride.gui.utils.GUIBlocker;
@@ -36,7 +37,7 @@ public class SpectrumEventSubscriber implements EventSubscriber<SpectrumEvent> {
         Task newTask = new RetrieveSpectrumTask(controller, specturmId);
         newTask.addTaskListener(taskListener);
         newTask.setGUIBlocker(new DefaultGUIBlocker(newTask, GUIBlocker.Scope.NONE, null));
-        // add task listeners
-        appContext.addTask(newTask);
+        // add task listeners, the user is waiting for the selected spectrum
+        appContext.addTask(newTask, TaskPriority.HIGH);
     }
 }
\ No newline at end of file
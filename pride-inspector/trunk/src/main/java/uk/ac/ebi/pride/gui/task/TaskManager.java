@@ -4,6 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.ac.ebi.pride.gui.utils.GUIBlocker;
 import uk.ac.ebi.pride.gui.utils.PropertyChangeHelper;
+import uk.ac.ebi.pride.gui.task.executor.TaskMetrics;
+import uk.ac.ebi.pride.gui.task.executor.TaskPriority;
+import uk.ac.ebi.pride.gui.task.executor.TaskSubmitter;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
@@ -11,16 +14,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 /**
  * TaskManager acts as a thread pool, it does the followings:
  * <p/>
  * 1. maintain a list of Tasks
  * <p/>
- * 2. manage a queue of Tasks
+ * 2. manage a queue of Tasks, ordered by task priority
+ * <p/>
+ * The tasks are passed to the executor by a TaskSubmitter, the queue is bounded, when it is full
+ * a task added from the event dispatch thread is cancelled straight away, other threads wait
+ * for a free place up to TaskSubmitter.DEFAULT_QUEUE_TIMEOUT.
  * <p/>
  * User: rwang
  * Date: 22-Jan-2010
@@ -40,19 +44,9 @@ public class TaskManager extends PropertyChangeHelper {
     public final static String REMOVE_TASK_PROP = "remove_new_task";
 
     /**
-     * This number defines the number threads can be running at the same time
-     */
-    private final static int CORE_POOL_SIZE = 10;
-
-    /**
-     * This number defines the number threads can be running and waiting at the same time
+     * Passes the tasks to the thread pool, it is responsible to running all the tasks
      */
-    private final static int MAXIMUM_POOL_SIZE = 20;
-
-    /**
-     * Threshold pool executor, it is responsible to running all the tasks
-     */
-    private final ExecutorService executor;
+    private final TaskSubmitter submitter;
 
     /**
      * A list of current ongoing tasks
@@ -69,24 +63,33 @@ public class TaskManager extends PropertyChangeHelper {
      * <p/>
      * This will create a thread pool with default configurations.
      * <p/>
-     * 1. the number of allowed threads are 20.
+     * 1. the number of max running threads are 10.
      * <p/>
-     * 2. the number of max running threads are 10.
+     * 2. the number of max waiting tasks are 500.
      */
     public TaskManager() {
-        this(new ThreadPoolExecutor(CORE_POOL_SIZE, MAXIMUM_POOL_SIZE,
-                1L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>()));
+        this(new TaskSubmitter());
     }
 
     /**
      * Constructor
      *
-     * @param executor provide an implementation of the thread pool.
+     * @param executor provide an implementation of the thread pool, task priorities and metrics
+     *                 are only supported by PriorityTaskExecutor.
      */
     public TaskManager(ExecutorService executor) {
+        this(new TaskSubmitter(executor));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param submitter passes the tasks to the thread pool
+     */
+    public TaskManager(TaskSubmitter submitter) {
 
         // thread pool
-        this.executor = executor;
+        this.submitter = submitter;
 
         // a list of tasks
         this.tasks = Collections.synchronizedList(new ArrayList<Task>());
@@ -103,7 +106,19 @@ public class TaskManager extends PropertyChangeHelper {
      * @param task new task
      */
     public void addTask(Task task) {
-        addTask(task, true);
+        addTask(task, true, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Add a new task with the given priority to the task manager.
+     * <p/>
+     * Notify any listeners listen to the task manager
+     *
+     * @param task     new task
+     * @param priority task priority
+     */
+    public void addTask(Task task, TaskPriority priority) {
+        addTask(task, true, priority);
     }
 
     /**
@@ -115,12 +130,31 @@ public class TaskManager extends PropertyChangeHelper {
      * @param notify choose whether to notify
      */
     public void addTask(Task task, boolean notify) {
+        addTask(task, notify, TaskPriority.NORMAL);
+    }
+
+    /**
+     * Add a new task with the given priority to the task manager, you can choose whether to notify
+     * the task manager listeners.
+     *
+     * @param task     new task
+     * @param notify   choose whether to notify
+     * @param priority task priority
+     */
+    public void addTask(Task task, boolean notify, TaskPriority priority) {
+        // only copy the task list when somebody listens
+        notify = notify && hasListeners();
+
         // add task the task list
-        List<Task> oldTasks, newTasks;
+        List<Task> oldTasks = null, newTasks = null;
         synchronized (tasks) {
-            oldTasks = new ArrayList<Task>(tasks);
+            if (notify) {
+                oldTasks = new ArrayList<Task>(tasks);
+            }
             tasks.add(task);
-            newTasks = new ArrayList<Task>(tasks);
+            if (notify) {
+                newTasks = new ArrayList<Task>(tasks);
+            }
             task.addPropertyChangeListener(taskPropListener);
         }
 
@@ -136,7 +170,25 @@ public class TaskManager extends PropertyChangeHelper {
             blocker.block();
 
         // execute the task
-        executor.execute(task);
+        if (!submitter.submit(task, priority)) {
+            logger.warn("Task queue is full or shut down, cancel task: " + task.getName());
+            cancelTask(task, false);
+            if (blocker != null)
+                blocker.unblock();
+        }
+    }
+
+    private boolean hasListeners() {
+        return getPropertyChangeListeners().length > 0;
+    }
+
+    /**
+     * Get the queue time and run time of the tasks, grouped by task class
+     *
+     * @return TaskMetrics  task metrics, null if the executor is not a PriorityTaskExecutor
+     */
+    public TaskMetrics getTaskMetrics() {
+        return submitter.getMetrics();
     }
 
     /**
@@ -247,21 +299,30 @@ public class TaskManager extends PropertyChangeHelper {
                 newTasks = new ArrayList<Task>(tasks);
                 task.removePropertyChangeListener(taskPropListener);
             }
+            // give its place in the queue free, if it has not started yet
+            submitter.remove(task);
             firePropertyChange(REMOVE_TASK_PROP, oldTasks, newTasks);
         }
 
         return canceled;
     }
 
-
     /**
      * Cancel all the tasks owned by the owner
      *
      * @param owner owner of the tasks
      */
     public void cancelTasksByOwner(Object owner) {
-        for (Task task : tasks) {
+        List<Task> ts;
+        synchronized (tasks) {
+            ts = new ArrayList<Task>(tasks);
+        }
+
+        for (Task task : ts) {
             task.removeByOwner(owner);
+            if (task.isCancelled()) {
+                submitter.remove(task);
+            }
         }
     }
 
@@ -270,14 +331,14 @@ public class TaskManager extends PropertyChangeHelper {
      * no task is submitted.
      */
     public void shutdown() {
-        executor.shutdown();
+        submitter.shutdown();
     }
 
     /**
      * attempt to stop all running tasks at once
      */
     public void shutdownNow() {
-        executor.shutdownNow();
+        submitter.shutdownNow();
     }
 
     /**
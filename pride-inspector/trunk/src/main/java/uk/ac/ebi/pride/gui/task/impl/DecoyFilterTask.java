@@ -2,14 +2,16 @@ package uk.ac.ebi.pride.gui.task.impl;
 
 import org.bushe.swing.event.EventBus;
 import uk.ac.ebi.pride.data.controller.DataAccessController;
+import uk.ac.ebi.pride.gui.EDTUtils;
 import uk.ac.ebi.pride.gui.PrideInspectorContext;
 import uk.ac.ebi.pride.gui.component.report.RemovalReportMessage;
 import uk.ac.ebi.pride.gui.component.startup.ControllerContentPane;
 import uk.ac.ebi.pride.gui.component.table.filter.DecoyAccessionFilter;
-import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
-import uk.ac.ebi.pride.gui.component.table.model.ProteinTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractProteinTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.QuantProteinTableModel;
 import uk.ac.ebi.pride.gui.component.table.sorter.NumberTableRowSorter;
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
 import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.event.SummaryReportEvent;
 import uk.ac.ebi.pride.gui.task.TaskAdapter;
@@ -52,14 +54,14 @@ public class DecoyFilterTask extends TaskAdapter<Void, Void>{
         ControllerContentPane contentPane = (ControllerContentPane) appContext.getDataContentPane(controller);
         // protein tab
         JTable table = contentPane.getProteinTabPane().getIdentificationPane().getIdentificationTable();
-        String protAccColName = ProteinTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
+        String protAccColName = AbstractProteinTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
         int index = getAccessionColumnIndex(table.getModel(), protAccColName);
         setRowFilter(table, new DecoyAccessionFilter(type, criteria, index, false));
         // protein decoy ratio
 
         // peptide tab
         table = contentPane.getPeptideTabPane().getPeptidePane().getPeptideTable();
-        protAccColName = PeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
+        protAccColName = AbstractPeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
         index = getAccessionColumnIndex(table.getModel(), protAccColName);
         setRowFilter(table, new DecoyAccessionFilter(type, criteria, index, false));
         // quant tab
@@ -84,18 +86,28 @@ public class DecoyFilterTask extends TaskAdapter<Void, Void>{
     }
 
     /**
-     * Set the row filter
+     * Set the row filter, a paged table is filtered on the index of its accession column,
+     * instead of loading all its rows.
      *
      * @param rowFilter a given row filter
      */
-    private void setRowFilter(JTable table, RowFilter rowFilter) {
-        // get table model
-        TableModel tableModel = table.getModel();
-        RowSorter rowSorter = table.getRowSorter();
-        if (rowSorter == null || !(rowSorter instanceof TableRowSorter)) {
-            rowSorter = new NumberTableRowSorter(tableModel);
-            table.setRowSorter(rowSorter);
-        }
-        ((TableRowSorter) rowSorter).setRowFilter(rowFilter);
+    private void setRowFilter(final JTable table, final DecoyAccessionFilter rowFilter) {
+        EDTUtils.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                // get table model
+                TableModel tableModel = table.getModel();
+                RowSorter rowSorter = table.getRowSorter();
+                if (rowSorter instanceof PagedTableRowSorter) {
+                    ((PagedTableRowSorter) rowSorter).setRowFilter(rowFilter.getAccessionColumnIndex(), rowFilter);
+                } else {
+                    if (rowSorter == null || !(rowSorter instanceof TableRowSorter)) {
+                        rowSorter = new NumberTableRowSorter(tableModel);
+                        table.setRowSorter(rowSorter);
+                    }
+                    ((TableRowSorter) rowSorter).setRowFilter(rowFilter);
+                }
+            }
+        });
     }
 }
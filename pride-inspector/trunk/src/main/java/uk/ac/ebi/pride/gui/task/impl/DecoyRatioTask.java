@@ -2,19 +2,13 @@ package uk.ac.ebi.pride.gui.task.impl;
 
 import org.bushe.swing.event.EventBus;
 import uk.ac.ebi.pride.data.controller.DataAccessController;
-import uk.ac.ebi.pride.gui.PrideInspectorContext;
 import uk.ac.ebi.pride.gui.component.report.RemovalReportMessage;
 import uk.ac.ebi.pride.gui.component.report.SummaryReportMessage;
-import uk.ac.ebi.pride.gui.component.startup.ControllerContentPane;
 import uk.ac.ebi.pride.gui.component.table.filter.DecoyAccessionFilter;
-import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
-import uk.ac.ebi.pride.gui.component.table.model.ProteinTableModel;
-import uk.ac.ebi.pride.gui.desktop.Desktop;
 import uk.ac.ebi.pride.gui.event.SummaryReportEvent;
 import uk.ac.ebi.pride.gui.task.TaskAdapter;
 
-import javax.swing.*;
-import javax.swing.table.TableModel;
+import java.util.Collection;
 import java.util.regex.Pattern;
 
 /**
@@ -43,86 +37,39 @@ public class DecoyRatioTask extends TaskAdapter<Void, Void> {
 
     @Override
     protected Void doInBackground() throws Exception {
-        PrideInspectorContext appContext = (PrideInspectorContext) Desktop.getInstance().getDesktopContext();
         // remove previous decoy ratio
         EventBus.publish(new SummaryReportEvent(this, controller, new RemovalReportMessage(Pattern.compile("Decoy.*"))));
-        // get content pane
-        ControllerContentPane contentPane = (ControllerContentPane) appContext.getDataContentPane(controller);
-        // protein tab
-        JTable table = contentPane.getProteinTabPane().getIdentificationPane().getIdentificationTable();
-        String protAccColName = ProteinTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
-        int index = getAccessionColumnIndex(table.getModel(), protAccColName);
-        // protein decoy ratio
-        String proteinDecoyRatio = calculateDecoyRatio(table.getModel(), index, type, criteria);
-        String proteinDecoyMsg = "Decoy Protein Hits: " + proteinDecoyRatio;
-        EventBus.publish(new SummaryReportEvent(this, controller, new SummaryReportMessage(SummaryReportMessage.Type.INFO, proteinDecoyMsg, proteinDecoyMsg)));
-
-        // peptide tab
-        table = contentPane.getPeptideTabPane().getPeptidePane().getPeptideTable();
-        protAccColName = PeptideTableModel.TableHeader.PROTEIN_ACCESSION_COLUMN.getHeader();
-        index = getAccessionColumnIndex(table.getModel(), protAccColName);
-        // peptide decoy ratio
-        String peptideDecoyRatio = calculateDecoyRatio(table.getModel(), index, type, criteria);
-        String peptideDecoyMsg = "Decoy Peptide Hits: " + peptideDecoyRatio;
-        EventBus.publish(new SummaryReportEvent(this, controller, new SummaryReportMessage(SummaryReportMessage.Type.INFO, peptideDecoyMsg, peptideDecoyMsg)));
 
-        return null;
-    }
+        // the tables only hold the rows which have been displayed, so the ratios are counted from the controller,
+        // a peptide row carries the accession of its protein
+        DecoyAccessionFilter filter = new DecoyAccessionFilter(type, criteria, -1, true);
+        Collection<Comparable> identIds = controller.getIdentificationIds();
+        int decoyProteinCnt = 0;
+        int peptideCnt = 0;
+        int decoyPeptideCnt = 0;
+        for (Comparable identId : identIds) {
+            Collection<Comparable> peptideIds = controller.getPeptideIds(identId);
+            int numOfPeptides = peptideIds == null ? 0 : peptideIds.size();
+            peptideCnt += numOfPeptides;
+            if (filter.isDecoyAccession(controller.getProteinAccession(identId))) {
+                decoyProteinCnt++;
+                decoyPeptideCnt += numOfPeptides;
+            }
 
-    /**
-     * Get the index of accession column
-     *
-     * @param tableModel     table model
-     * @param protAccColName protein accession column name
-     * @return int protein accession column index
-     */
-    private int getAccessionColumnIndex(TableModel tableModel, String protAccColName) {
-        int colCnt = tableModel.getColumnCount();
-        for (int i = 0; i < colCnt; i++) {
-            if (tableModel.getColumnName(i).equals(protAccColName)) {
-                return i;
+            // this is important for cancelling
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
             }
         }
-        return -1;
-    }
 
-    /**
-     * Calculate decoy ratio
-     *
-     * @param tableModel table model
-     * @param colIndex   protein accession column
-     * @param type
-     * @param criteria
-     * @return String  decoy ratio
-     */
-    private String calculateDecoyRatio(TableModel tableModel, int colIndex,
-                                       DecoyAccessionFilter.Type type, String criteria) {
-        int rowCnt = tableModel.getRowCount();
-        int decoyCnt = 0;
+        // protein decoy ratio
+        String proteinDecoyMsg = "Decoy Protein Hits: " + decoyProteinCnt + "/" + identIds.size();
+        EventBus.publish(new SummaryReportEvent(this, controller, new SummaryReportMessage(SummaryReportMessage.Type.INFO, proteinDecoyMsg, proteinDecoyMsg)));
 
-        for (int i = 0; i < rowCnt; i++) {
-            String acc = ((String) tableModel.getValueAt(i, colIndex)).toLowerCase();
-            if (acc != null) {
-                switch (type) {
-                    case PREFIX:
-                        if (acc.startsWith(criteria)) {
-                            decoyCnt ++;
-                        }
-                        break;
-                    case POSTFIX:
-                        if (acc.endsWith(criteria)) {
-                            decoyCnt ++;
-                        }
-                        break;
-                    case CONTAIN:
-                        if (acc.contains(criteria)) {
-                            decoyCnt ++;
-                        }
-                        break;
-                }
-            }
-        }
+        // peptide decoy ratio
+        String peptideDecoyMsg = "Decoy Peptide Hits: " + decoyPeptideCnt + "/" + peptideCnt;
+        EventBus.publish(new SummaryReportEvent(this, controller, new SummaryReportMessage(SummaryReportMessage.Type.INFO, peptideDecoyMsg, peptideDecoyMsg)));
 
-        return decoyCnt + "/"+ rowCnt;
+        return null;
     }
 }
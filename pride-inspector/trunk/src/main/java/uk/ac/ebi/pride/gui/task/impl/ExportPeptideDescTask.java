@@ -6,7 +6,9 @@ import uk.ac.ebi.pride.data.controller.DataAccessController;
 import uk.ac.ebi.pride.data.controller.DataAccessException;
 import uk.ac.ebi.pride.data.core.Experiment;
 import uk.ac.ebi.pride.gui.GUIUtilities;
+import uk.ac.ebi.pride.gui.component.table.PeptideTableRowSource;
 import uk.ac.ebi.pride.gui.component.table.TableDataRetriever;
+import uk.ac.ebi.pride.gui.component.table.model.AbstractPeptideTableModel;
 import uk.ac.ebi.pride.gui.component.table.model.PeptideTableModel;
 import uk.ac.ebi.pride.gui.desktop.Desktop;
 
@@ -96,13 +98,13 @@ public class ExportPeptideDescTask extends AbstractDataAccessTask<Void, Void> {
 
             // in order to get a list of headers for export
             // first, we need to create an instance of PeptideTableModel
-            PeptideTableModel pepTableModel = new PeptideTableModel(controller.getSearchEngine());
+            PeptideTableModel pepTableModel = new PeptideTableModel(controller.getSearchEngine(), new PeptideTableRowSource(controller));
             // a list of columns to be skipped
             List<Integer> skipIndexes = new ArrayList<Integer>();
             // skip identification id
-            skipIndexes.add(pepTableModel.getColumnIndex(PeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader()));
+            skipIndexes.add(pepTableModel.getColumnIndex(AbstractPeptideTableModel.TableHeader.IDENTIFICATION_ID.getHeader()));
             // skip peptide id
-            skipIndexes.add(pepTableModel.getColumnIndex(PeptideTableModel.TableHeader.PEPTIDE_ID.getHeader()));
+            skipIndexes.add(pepTableModel.getColumnIndex(AbstractPeptideTableModel.TableHeader.PEPTIDE_ID.getHeader()));
             // get number of columns in peptide table model
             int numOfCols = pepTableModel.getColumnCount();
             // iterate over each column to construct the header
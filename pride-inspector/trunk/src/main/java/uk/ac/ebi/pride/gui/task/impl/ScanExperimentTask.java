@@ -19,6 +19,9 @@ import java.util.*;
 /**
  * Scan experiment for all the data related to identification, peptide and quantitation
  * <p/>
+ * The rows of the protein and peptide tables are read by the tables themselves, when they are displayed,
+ * this task publishes the quantitative rows and reports the missing spectra and the PTMs.
+ * <p/>
  * User: rwang
  * Date: 14-Sep-2010
  * Time: 11:34:33
@@ -66,12 +69,9 @@ public class ScanExperimentTask extends AbstractDataAccessTask<Void, Tuple<Table
 
             for (Comparable identId : identIds) {
 
-                // get and publish protein related details
-                List<Object> identContent = TableDataRetriever.getProteinTableRow(controller, identId);
-                publish(new Tuple<TableContentType, List<Object>>(TableContentType.PROTEIN, identContent));
-
                 if (hasQuantData) {
-                    // get and publish quantitative data
+                    // get and publish quantitative data, together with the protein related details
+                    List<Object> identContent = TableDataRetriever.getProteinTableRow(controller, identId);
                     List<Object> allQuantContent = new ArrayList<Object>();
                     allQuantContent.addAll(identContent);
                     List<Object> identQuantContent = TableDataRetriever.getProteinQuantTableRow(controller, identId, -1);
@@ -79,13 +79,10 @@ public class ScanExperimentTask extends AbstractDataAccessTask<Void, Tuple<Table
                     publish(new Tuple<TableContentType, List<Object>>(TableContentType.PROTEIN_QUANTITATION, allQuantContent));
                 }
 
-                // get and publish peptide related details
+                // check the peptide related details
                 Collection<Comparable> ids = controller.getPeptideIds(identId);
                 if (ids != null) {
                     for (Comparable peptideId : ids) {
-                        List<Object> peptideContent = TableDataRetriever.getPeptideTableRow(controller, identId, peptideId);
-                        publish(new Tuple<TableContentType, List<Object>>(TableContentType.PEPTIDE, peptideContent));
-
                         if (controller.getPeptideSpectrumId(identId, peptideId) == null) {
                             missingSpectrumLinks++;
                         }
@@ -0,0 +1,379 @@
+package uk.ac.ebi.pride.gui.component.table.model;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.pride.data.controller.DataAccessException;
+import uk.ac.ebi.pride.gui.component.table.sorter.PagedTableRowSorter;
+
+import javax.swing.*;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class PagedTableModelTest {
+    private static final int NUMBER_OF_ROWS = 1000;
+
+    private TestRowSource rowSource;
+    private TestTableModel model;
+
+    @Before
+    public void setUp() throws Exception {
+        rowSource = new TestRowSource();
+        model = onEDT(new Callable<TestTableModel>() {
+            @Override
+            public TestTableModel call() throws Exception {
+                TestTableModel tableModel = new TestTableModel(rowSource);
+                tableModel.loadRowKeys();
+                return tableModel;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.getRowCount() == NUMBER_OF_ROWS;
+            }
+        });
+    }
+
+    @Test
+    public void testRowNumberAndKeyWithoutLoading() throws Exception {
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertEquals(501, model.getValueAt(500, 0));
+                assertEquals("id500", model.getValueAt(500, 1));
+                return null;
+            }
+        });
+        assertEquals(0, rowSource.rowReads.get());
+    }
+
+    @Test
+    public void testLoadPage() throws Exception {
+        Object value = onEDT(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return model.getValueAt(250, 2);
+            }
+        });
+        assertNull(value);
+
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.isRowLoaded(250);
+            }
+        });
+
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertEquals(250 % 7, model.getValueAt(250, 2));
+                assertEquals(Arrays.<Object>asList(251, "id250", 250 % 7), model.getRow(250));
+                // the row in another page has not been loaded
+                assertNull(model.getRow(150));
+                return null;
+            }
+        });
+
+        // the requested page and the prefetched page, nothing else
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.isRowLoaded(350);
+            }
+        });
+        assertEquals(2 * model.getPageSize(), rowSource.rowReads.get());
+    }
+
+    @Test
+    public void testPageCacheIsBounded() throws Exception {
+        for (int i = 0; i < NUMBER_OF_ROWS; i += model.getPageSize()) {
+            final int row = i;
+            onEDT(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return model.getValueAt(row, 2);
+                }
+            });
+            waitFor(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    return model.isRowLoaded(row);
+                }
+            });
+        }
+
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                int loaded = 0;
+                for (int i = 0; i < NUMBER_OF_ROWS; i += model.getPageSize()) {
+                    if (model.isRowLoaded(i)) {
+                        loaded++;
+                    }
+                }
+                assertEquals(TestTableModel.MAX_CACHED_PAGES, loaded);
+                assertFalse(model.isRowLoaded(0));
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testSortAndFilter() throws Exception {
+        final PagedTableRowSorter sorter = onEDT(new Callable<PagedTableRowSorter>() {
+            @Override
+            public PagedTableRowSorter call() throws Exception {
+                PagedTableRowSorter rowSorter = new PagedTableRowSorter(model);
+                rowSorter.setSortKeys(Arrays.asList(new RowSorter.SortKey(2, SortOrder.DESCENDING)));
+                return rowSorter;
+            }
+        });
+
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return sorter.convertRowIndexToModel(0) != 0;
+            }
+        });
+
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertEquals(NUMBER_OF_ROWS, sorter.getViewRowCount());
+                // value 6 first, rows with the same value keep the model order
+                assertEquals(6, sorter.convertRowIndexToModel(0));
+                assertEquals(13, sorter.convertRowIndexToModel(1));
+                assertEquals(1, sorter.convertRowIndexToView(13));
+                assertEquals(994, sorter.convertRowIndexToModel(NUMBER_OF_ROWS - 1));
+
+                sorter.setRowFilter(2, new PagedTableRowSorter.ValueFilter() {
+                    @Override
+                    public boolean include(Object value) {
+                        return ((Integer) value) == 3;
+                    }
+                });
+                return null;
+            }
+        });
+
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return sorter.getViewRowCount() < NUMBER_OF_ROWS;
+            }
+        });
+
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertEquals(143, sorter.getViewRowCount());
+                assertEquals(3, sorter.convertRowIndexToModel(0));
+                assertEquals(-1, sorter.convertRowIndexToView(4));
+                return null;
+            }
+        });
+
+        // the column was read once, only its values, without loading the rows
+        assertEquals(NUMBER_OF_ROWS, rowSource.columnReads.get());
+        assertEquals(0, rowSource.rowReads.get());
+    }
+
+    @Test
+    public void testRemoveAllRows() throws Exception {
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                model.getValueAt(0, 2);
+                model.removeAllRows();
+                assertEquals(0, model.getRowCount());
+                assertNull(model.getValueAt(0, 2));
+                return null;
+            }
+        });
+
+        // the page requested before the removal is discarded
+        Thread.sleep(100);
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                model.addData(Arrays.asList("a", "b"));
+                assertFalse(model.isRowLoaded(0));
+                return null;
+            }
+        });
+    }
+
+    @Test
+    public void testReloadRows() throws Exception {
+        loadRow(0);
+        // wait for the prefetched page as well
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.isRowLoaded(model.getPageSize());
+            }
+        });
+        assertEquals(2 * model.getPageSize(), rowSource.rowReads.get());
+
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                model.reloadRows();
+                assertEquals(NUMBER_OF_ROWS, model.getRowCount());
+                assertEquals("id0", model.getValueAt(0, 1));
+                assertFalse(model.isRowLoaded(0));
+                return null;
+            }
+        });
+
+        // the rows are read again from the row source
+        loadRow(0);
+        assertTrue(rowSource.rowReads.get() > 2 * model.getPageSize());
+    }
+
+    @Test
+    public void testLoadRowKeysFromKeySource() throws Exception {
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                model.removeAllRows();
+                model.loadRowKeys(new TestRowSource() {
+                    @Override
+                    public List<String> getRowKeys() throws DataAccessException {
+                        return Arrays.asList("id5", "id6");
+                    }
+                });
+                return null;
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.getRowCount() == 2;
+            }
+        });
+
+        // the values are still read from the row source of the model
+        loadRow(1);
+        onEDT(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                assertEquals("id6", model.getValueAt(1, 1));
+                assertEquals(6, model.getValueAt(1, 2));
+                return null;
+            }
+        });
+        assertEquals(2, rowSource.rowReads.get());
+    }
+
+    private void loadRow(final int row) throws Exception {
+        onEDT(new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return model.getValueAt(row, 2);
+            }
+        });
+        waitFor(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return model.isRowLoaded(row);
+            }
+        });
+    }
+
+    private static <T> T onEDT(Callable<T> callable) throws Exception {
+        FutureTaskRunner<T> runner = new FutureTaskRunner<T>(callable);
+        SwingUtilities.invokeAndWait(runner);
+        if (runner.error != null) {
+            throw runner.error;
+        }
+        return runner.result;
+    }
+
+    private static void waitFor(Callable<Boolean> condition) throws Exception {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!onEDT(condition)) {
+            assertTrue("Timeout", System.currentTimeMillis() < timeout);
+            Thread.sleep(10);
+        }
+    }
+
+    private static class FutureTaskRunner<T> implements Runnable {
+        private final Callable<T> callable;
+        private T result;
+        private Exception error;
+
+        private FutureTaskRunner(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public void run() {
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                error = e;
+            } catch (AssertionError e) {
+                error = new RuntimeException(e);
+            }
+        }
+    }
+
+    private static class TestTableModel extends PagedTableModel<String> {
+        private static final int MAX_CACHED_PAGES = 3;
+
+        private TestTableModel(PagedRowSource<String> rowSource) {
+            super(rowSource, 1, 100, MAX_CACHED_PAGES);
+        }
+
+        @Override
+        public void initializeTableModel() {
+            columnNames.put("#", "Row Number");
+            columnNames.put("ID", "ID");
+            columnNames.put("Value", "Value");
+        }
+    }
+
+    /**
+     * Rows are id0 to id999, the value of a row is its number modulo 7
+     */
+    private static class TestRowSource implements PagedRowSource<String> {
+        private final AtomicInteger rowReads = new AtomicInteger();
+        private final AtomicInteger columnReads = new AtomicInteger();
+
+        @Override
+        public List<String> getRowKeys() throws DataAccessException {
+            List<String> keys = new ArrayList<String>();
+            for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+                keys.add("id" + i);
+            }
+            return keys;
+        }
+
+        @Override
+        public List<Object> getRow(String key) throws DataAccessException {
+            rowReads.incrementAndGet();
+            return new ArrayList<Object>(Arrays.<Object>asList(key, getValue(key)));
+        }
+
+        @Override
+        public Object getColumnValue(String key, int column) throws DataAccessException {
+            columnReads.incrementAndGet();
+            return getValue(key);
+        }
+
+        private int getValue(String key) {
+            return Integer.parseInt(key.substring(2)) % 7;
+        }
+    }
+}
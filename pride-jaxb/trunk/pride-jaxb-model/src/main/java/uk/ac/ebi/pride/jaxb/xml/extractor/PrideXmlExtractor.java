@@ -53,7 +53,10 @@ public class PrideXmlExtractor {
     private Map<String, IndexElement> gelFreeAccMap = null;
     private Map<String, IndexElement> twoDimAccMap = null;
     private Map<String, List<IndexElement>> identToPeptideMap = null;
-    private List<String> identifiedSpectrumList = null;
+    /**
+     * ids of the spectra referenced by a peptide, a set because it is looked up for every spectrum
+     */
+    private Set<String> identifiedSpectrumIds = null;
 
     /**
      * Pride xml extractor
@@ -98,7 +101,9 @@ public class PrideXmlExtractor {
         // init peptide map
         identToPeptideMap = initPeptideCacheMap();
         // init identified spectrum list
-        identifiedSpectrumList = initIdentifiedSpectrumList();
+        identifiedSpectrumIds = initIdentifiedSpectrumIds();
+        // persist the ids extracted above along with the index
+        indexer.saveIndex();
     }
 
     private Map<String, IndexElement> initCacheMap(String xpath, Pattern idPattern) {
@@ -106,10 +111,11 @@ public class PrideXmlExtractor {
         Map<String, IndexElement> idMap = new LinkedHashMap<String, IndexElement>();
         // 2. get index elements from xpath
         Collection<IndexElement> indexElements = indexer.getIndexElements(xpath);
+        // 3. get the ids of the index elements
+        Iterator<String> ids = getElementIds(xpath, idPattern, true).iterator();
 
         for (IndexElement indexElement : indexElements) {
-            // get id from index element using pattern
-            String id = getIDByPattern(indexElement, idPattern, true);
+            String id = ids.next();
             if (idMap.containsKey(id)) {
                 logger.error("Ambiguous ID Exception: " + xpath + " \nID: " + id);
             } else {
@@ -160,30 +166,17 @@ public class PrideXmlExtractor {
         return identPeptideMap;
     }
 
-    private List<String> initIdentifiedSpectrumList() {
-        // 1. create an empty list for storing identified spectrum ids.
-        List<String> identifiedList = new ArrayList<String>();
+    private Set<String> initIdentifiedSpectrumIds() {
+        // 1. create an empty set for storing identified spectrum ids, a spectrum can be referenced by several peptides
+        Set<String> identifiedIds = new HashSet<String>();
 
         // 2. get all gel free peptide spectrum references
-        Collection<IndexElement> gelFreeSpectrumRefElements = indexer.getIndexElements(PrideXmlXpath.GELFREE_PEPTIDE_SPEC_REF.getXpath());
+        identifiedIds.addAll(getElementIds(PrideXmlXpath.GELFREE_PEPTIDE_SPEC_REF.getXpath(), TAG_PATTERN, false));
 
-        // 3. iterate over each spectrum reference
-        for (IndexElement spectrumRefElement : gelFreeSpectrumRefElements) {
-            // get id from index element using pattern
-            String id = getIDByPattern(spectrumRefElement, TAG_PATTERN, false);
-            identifiedList.add(id);
-        }
+        // 3. get all two dimentional peptide spectrum references
+        identifiedIds.addAll(getElementIds(PrideXmlXpath.TWOD_PEPTIDE_SPEC_REF.getXpath(), TAG_PATTERN, false));
 
-        // 4. get all two dimentional peptide spectrum references
-        Collection<IndexElement> twoDimSpectrumRefElements = indexer.getIndexElements(PrideXmlXpath.TWOD_PEPTIDE_SPEC_REF.getXpath());
-
-        // 5. iterate over each spectrum reference
-        for (IndexElement twoDimSpectrumRefElement : twoDimSpectrumRefElements) {
-            String id = getIDByPattern(twoDimSpectrumRefElement, TAG_PATTERN, false);
-            identifiedList.add(id);
-        }
-
-        return identifiedList;
+        return identifiedIds;
     }
 
     /**
@@ -316,7 +309,7 @@ public class PrideXmlExtractor {
      * @return boolean true if it is an identified spectrum.
      */
     public boolean isIdentifiedSpectrum(String id) {
-        return identifiedSpectrumList.contains(id);
+        return identifiedSpectrumIds.contains(id);
     }
 
     public List<String> getIdentIds() {
@@ -463,11 +456,37 @@ public class PrideXmlExtractor {
         return xml;
     }
 
+    /**
+     * Get the ids of all the elements matched by an xpath, the ids are read from the xml only
+     * when they have not been stored in the index before.
+     *
+     * @param xpath      xpath
+     * @param pattern    pattern to extract the id
+     * @param quickMatch true if the id can be found at the beginning of the element
+     * @return List<String>    ids in the same order as the index elements
+     */
+    private List<String> getElementIds(String xpath, Pattern pattern, boolean quickMatch) {
+        List<String> ids = indexer.getElementIds(xpath);
+
+        if (ids == null) {
+            Collection<IndexElement> indexElements = indexer.getIndexElements(xpath);
+            ids = new ArrayList<String>(indexElements.size());
+            for (IndexElement indexElement : indexElements) {
+                // get id from index element using pattern
+                ids.add(getIDByPattern(indexElement, pattern, quickMatch));
+            }
+            indexer.setElementIds(xpath, ids);
+        }
+
+        return ids;
+    }
+
     /**
      * Find the id from xml string based indexElement's range.
      *
      * @param indexElement index element.
      * @param pattern      This pattern should only match once.
+     * @param quickMatch   true if the id can be found at the beginning of the element.
      * @return String   id or accession.
      */
     private String getIDByPattern(IndexElement indexElement, Pattern pattern, boolean quickMatch) {
@@ -0,0 +1,463 @@
+package uk.ac.ebi.pride.jaxb.xml.xxindex;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * DeflateBlockScanner decodes the deflate data of gzip members to find the boundaries of the deflate blocks.
+ * <p/>
+ * java.util.zip.Inflater cannot stop at a block boundary, so the blocks are decoded here, following the
+ * reference decoder of zlib (puff.c). The uncompressed content is only kept in a sliding window, the window
+ * and the bit position at the start of a block are all that is needed to resume inflating from that block.
+ */
+class DeflateBlockScanner {
+
+    /**
+     * Size of the sliding window of deflate
+     */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    private static final int WINDOW_MASK = WINDOW_SIZE - 1;
+
+    private static final int MAX_BITS = 15;
+
+    private static final int MAX_LENGTH_CODES = 286;
+
+    private static final int MAX_DISTANCE_CODES = 30;
+
+    private static final int FIXED_LENGTH_CODES = 288;
+
+    private static final int END_OF_BLOCK = 256;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final short[] LENGTH_BASE = {
+            3, 4, 5, 6, 7, 8, 9, 10, 11, 13, 15, 17, 19, 23, 27, 31,
+            35, 43, 51, 59, 67, 83, 99, 115, 131, 163, 195, 227, 258};
+
+    private static final short[] LENGTH_EXTRA = {
+            0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 2, 2, 2, 2,
+            3, 3, 3, 3, 4, 4, 4, 4, 5, 5, 5, 5, 0};
+
+    private static final short[] DISTANCE_BASE = {
+            1, 2, 3, 4, 5, 7, 9, 13, 17, 25, 33, 49, 65, 97, 129, 193,
+            257, 385, 513, 769, 1025, 1537, 2049, 3073, 4097, 6145,
+            8193, 12289, 16385, 24577};
+
+    private static final short[] DISTANCE_EXTRA = {
+            0, 0, 0, 0, 1, 1, 2, 2, 3, 3, 4, 4, 5, 5, 6, 6,
+            7, 7, 8, 8, 9, 9, 10, 10, 11, 11, 12, 12, 13, 13};
+
+    /**
+     * order of the code length code lengths in a dynamic block header
+     */
+    private static final short[] CODE_LENGTH_ORDER = {
+            16, 17, 18, 0, 8, 7, 9, 6, 10, 5, 11, 4, 12, 3, 13, 2, 14, 1, 15};
+
+    private static final Huffman FIXED_LENGTH_CODE = new Huffman(FIXED_LENGTH_CODES);
+
+    private static final Huffman FIXED_DISTANCE_CODE = new Huffman(MAX_DISTANCE_CODES);
+
+    static {
+        short[] lengths = new short[FIXED_LENGTH_CODES];
+        for (int symbol = 0; symbol < FIXED_LENGTH_CODES; symbol++) {
+            if (symbol < 144) {
+                lengths[symbol] = 8;
+            } else if (symbol < 256) {
+                lengths[symbol] = 9;
+            } else if (symbol < 280) {
+                lengths[symbol] = 7;
+            } else {
+                lengths[symbol] = 8;
+            }
+        }
+        FIXED_LENGTH_CODE.construct(lengths, 0, FIXED_LENGTH_CODES);
+
+        for (int symbol = 0; symbol < MAX_DISTANCE_CODES; symbol++) {
+            lengths[symbol] = 5;
+        }
+        FIXED_DISTANCE_CODE.construct(lengths, 0, MAX_DISTANCE_CODES);
+    }
+
+    /**
+     * Receives the blocks found by the scanner
+     */
+    interface BlockListener {
+        /**
+         * Called at the start of every block, except the first block of a member
+         *
+         * @param uncompressedOffset offset of the block in the uncompressed content of the member
+         * @param bitOffset          offset of the block in the gzip file, in bits
+         * @param scanner            the scanner, its window holds the content right before the block
+         * @throws IOException failed to handle the block
+         */
+        void blockStarted(long uncompressedOffset, long bitOffset, DeflateBlockScanner scanner) throws IOException;
+    }
+
+    private final RandomAccessFile raf;
+
+    private final byte[] input = new byte[BUFFER_SIZE];
+
+    private int inputLength = 0;
+
+    private int inputPosition = 0;
+
+    /**
+     * offset of the input buffer in the gzip file
+     */
+    private long inputOffset = 0;
+
+    private int bitBuffer = 0;
+
+    private int bitCount = 0;
+
+    private final byte[] window = new byte[WINDOW_SIZE];
+
+    /**
+     * uncompressed length of the member so far
+     */
+    private long outputLength = 0;
+
+    private final Huffman lengthCode = new Huffman(MAX_LENGTH_CODES);
+
+    private final Huffman distanceCode = new Huffman(MAX_DISTANCE_CODES);
+
+    private final short[] lengths = new short[MAX_LENGTH_CODES + MAX_DISTANCE_CODES];
+
+    DeflateBlockScanner(RandomAccessFile raf) {
+        this.raf = raf;
+    }
+
+    /**
+     * Decode the deflate data of a gzip member
+     *
+     * @param dataStart offset of the deflate data in the gzip file
+     * @param listener  receives the blocks of the member
+     * @return long    uncompressed length of the member
+     * @throws IOException failed to read the gzip file, or the deflate data is corrupted
+     */
+    long scanMember(long dataStart, BlockListener listener) throws IOException {
+        raf.seek(dataStart);
+        inputOffset = dataStart;
+        inputLength = 0;
+        inputPosition = 0;
+        bitBuffer = 0;
+        bitCount = 0;
+        outputLength = 0;
+
+        boolean last;
+        do {
+            if (outputLength > 0) {
+                listener.blockStarted(outputLength, getBitOffset(), this);
+            }
+
+            last = bits(1) == 1;
+            int type = bits(2);
+            switch (type) {
+                case 0:
+                    stored();
+                    break;
+                case 1:
+                    codes(FIXED_LENGTH_CODE, FIXED_DISTANCE_CODE);
+                    break;
+                case 2:
+                    dynamic();
+                    break;
+                default:
+                    throw new IOException("Invalid deflate block type: " + type);
+            }
+        } while (!last);
+
+        return outputLength;
+    }
+
+    /**
+     * Offset right after the deflate data of the last scanned member, this is where its trailer starts
+     *
+     * @return long    offset in the gzip file
+     */
+    long getEndOfData() {
+        // the remaining bits of the last byte are padding
+        return inputOffset + inputPosition;
+    }
+
+    /**
+     * Copy the uncompressed content right before the current position, at most WINDOW_SIZE bytes
+     *
+     * @return byte[]  window, oldest byte first
+     */
+    byte[] getWindow() {
+        int length = (int) Math.min(outputLength, WINDOW_SIZE);
+        byte[] copy = new byte[length];
+        int end = (int) (outputLength & WINDOW_MASK);
+        if (length <= end) {
+            System.arraycopy(window, end - length, copy, 0, length);
+        } else {
+            int head = length - end;
+            System.arraycopy(window, WINDOW_SIZE - head, copy, 0, head);
+            System.arraycopy(window, 0, copy, head, end);
+        }
+        return copy;
+    }
+
+    private long getBitOffset() {
+        return (inputOffset + inputPosition) * 8 - bitCount;
+    }
+
+    private int nextByte() throws IOException {
+        if (inputPosition == inputLength) {
+            inputOffset += inputLength;
+            inputPosition = 0;
+            inputLength = raf.read(input);
+            if (inputLength == -1) {
+                inputLength = 0;
+                throw new EOFException("Unexpected end of deflate data");
+            }
+        }
+        return input[inputPosition++] & 0xff;
+    }
+
+    private int bits(int need) throws IOException {
+        int value = bitBuffer;
+        while (bitCount < need) {
+            value |= nextByte() << bitCount;
+            bitCount += 8;
+        }
+        bitBuffer = value >>> need;
+        bitCount -= need;
+        return value & ((1 << need) - 1);
+    }
+
+    private void output(int b) {
+        window[(int) (outputLength & WINDOW_MASK)] = (byte) b;
+        outputLength++;
+    }
+
+    private void stored() throws IOException {
+        // discard the remaining bits of the current byte
+        bitBuffer = 0;
+        bitCount = 0;
+
+        int length = nextByte() | (nextByte() << 8);
+        int complement = nextByte() | (nextByte() << 8);
+        if (length != (~complement & 0xffff)) {
+            throw new IOException("Invalid stored block length");
+        }
+
+        for (int i = 0; i < length; i++) {
+            output(nextByte());
+        }
+    }
+
+    private void dynamic() throws IOException {
+        int numberOfLengths = bits(5) + 257;
+        int numberOfDistances = bits(5) + 1;
+        int numberOfCodes = bits(4) + 4;
+        if (numberOfLengths > MAX_LENGTH_CODES || numberOfDistances > MAX_DISTANCE_CODES) {
+            throw new IOException("Invalid dynamic block header");
+        }
+
+        // code length code
+        for (int i = 0; i < CODE_LENGTH_ORDER.length; i++) {
+            lengths[CODE_LENGTH_ORDER[i]] = i < numberOfCodes ? (short) bits(3) : 0;
+        }
+        if (!lengthCode.construct(lengths, 0, CODE_LENGTH_ORDER.length)) {
+            throw new IOException("Over subscribed code length code");
+        }
+
+        int index = 0;
+        while (index < numberOfLengths + numberOfDistances) {
+            int symbol = decode(lengthCode);
+            if (symbol < 16) {
+                lengths[index++] = (short) symbol;
+            } else {
+                short length = 0;
+                int repeat;
+                if (symbol == 16) {
+                    if (index == 0) {
+                        throw new IOException("Invalid code length repeat");
+                    }
+                    length = lengths[index - 1];
+                    repeat = 3 + bits(2);
+                } else if (symbol == 17) {
+                    repeat = 3 + bits(3);
+                } else {
+                    repeat = 11 + bits(7);
+                }
+                if (index + repeat > numberOfLengths + numberOfDistances) {
+                    throw new IOException("Too many code lengths");
+                }
+                while (repeat-- > 0) {
+                    lengths[index++] = length;
+                }
+            }
+        }
+
+        if (lengths[END_OF_BLOCK] == 0) {
+            throw new IOException("Missing end of block code");
+        }
+
+        if (!lengthCode.construct(lengths, 0, numberOfLengths)
+                || !distanceCode.construct(lengths, numberOfLengths, numberOfDistances)) {
+            throw new IOException("Over subscribed huffman code");
+        }
+        codes(lengthCode, distanceCode);
+    }
+
+    private void codes(Huffman literalCode, Huffman lengthDistanceCode) throws IOException {
+        int symbol;
+        do {
+            symbol = decode(literalCode);
+            if (symbol < END_OF_BLOCK) {
+                output(symbol);
+            } else if (symbol > END_OF_BLOCK) {
+                symbol -= END_OF_BLOCK + 1;
+                if (symbol >= LENGTH_BASE.length) {
+                    throw new IOException("Invalid length code");
+                }
+                int length = LENGTH_BASE[symbol] + bits(LENGTH_EXTRA[symbol]);
+
+                int distanceSymbol = decode(lengthDistanceCode);
+                if (distanceSymbol >= DISTANCE_BASE.length) {
+                    throw new IOException("Invalid distance code");
+                }
+                int distance = DISTANCE_BASE[distanceSymbol] + bits(DISTANCE_EXTRA[distanceSymbol]);
+                if (distance > outputLength) {
+                    throw new IOException("Distance is too far back");
+                }
+
+                while (length-- > 0) {
+                    output(window[(int) ((outputLength - distance) & WINDOW_MASK)]);
+                }
+            }
+        } while (symbol != END_OF_BLOCK);
+    }
+
+    /**
+     * Decode a symbol, the code is read one bit at a time, canonical codes of the same length are consecutive
+     */
+    private int decode(Huffman huffman) throws IOException {
+        int code = 0;
+        int first = 0;
+        int index = 0;
+        for (int length = 1; length <= MAX_BITS; length++) {
+            code |= bits(1);
+            int count = huffman.count[length];
+            if (code - count < first) {
+                return huffman.symbol[index + (code - first)];
+            }
+            index += count;
+            first += count;
+            first <<= 1;
+            code <<= 1;
+        }
+        throw new IOException("Invalid huffman code");
+    }
+
+    /**
+     * Create empty, non final deflate blocks that end at the given bit of their last byte.
+     * <p/>
+     * java.util.zip.Inflater cannot start at a bit offset, the blocks are set as input before the compressed data,
+     * with the bits of the first compressed byte merged into their last byte. Unlike shifting the compressed data,
+     * the byte boundaries still match the gzip file, stored blocks are padded to those boundaries.
+     *
+     * @param bit bit of the last byte where the compressed data starts, 1 to 7
+     * @return byte[]  empty blocks, the unused bits of the last byte are zero
+     */
+    static byte[] createAlignmentBlocks(int bit) {
+        // an empty fixed block is 10 bits, 2 mod 8, an empty dynamic block is 95 bits, 7 mod 8
+        boolean dynamic = bit % 2 == 1;
+        int fixedBlocks = dynamic ? ((bit + 1) % 8) / 2 : bit / 2;
+        int length = (dynamic ? 95 : 0) + fixedBlocks * 10;
+
+        byte[] blocks = new byte[(length + 7) / 8];
+        int position = 0;
+        if (dynamic) {
+            // no distance code and one literal/length code for the end of block, of length 1
+            position = writeBits(blocks, position, 0, 1);
+            position = writeBits(blocks, position, 2, 2);
+            position = writeBits(blocks, position, 0, 5);
+            position = writeBits(blocks, position, 0, 5);
+            position = writeBits(blocks, position, 15, 4);
+            // code length codes: 18 is 0, 0 is 10 and 1 is 11
+            for (short symbol : CODE_LENGTH_ORDER) {
+                position = writeBits(blocks, position, symbol == 18 ? 1 : (symbol == 0 || symbol == 1 ? 2 : 0), 3);
+            }
+            // 256 zero lengths, then length 1 for the end of block and length 0 for the distance code
+            position = writeBits(blocks, position, 0, 1);
+            position = writeBits(blocks, position, 138 - 11, 7);
+            position = writeBits(blocks, position, 0, 1);
+            position = writeBits(blocks, position, 118 - 11, 7);
+            position = writeBits(blocks, position, 3, 2);
+            position = writeBits(blocks, position, 1, 2);
+            // end of block
+            position = writeBits(blocks, position, 0, 1);
+        }
+        for (int i = 0; i < fixedBlocks; i++) {
+            position = writeBits(blocks, position, 0, 1);
+            position = writeBits(blocks, position, 1, 2);
+            position = writeBits(blocks, position, 0, 7);
+        }
+        return blocks;
+    }
+
+    /**
+     * Write bits, least significant bit first, huffman codes are passed with their bits reversed
+     *
+     * @return int     bit position after the written bits
+     */
+    private static int writeBits(byte[] buffer, int position, int value, int count) {
+        for (int i = 0; i < count; i++, position++) {
+            if ((value >>> i & 1) != 0) {
+                buffer[position >>> 3] |= 1 << (position & 7);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Canonical huffman code, number of codes per length and the symbols ordered by code
+     */
+    private static class Huffman {
+        private final short[] count = new short[MAX_BITS + 1];
+        private final short[] symbol;
+        private final short[] offsets = new short[MAX_BITS + 1];
+
+        private Huffman(int maxSymbols) {
+            this.symbol = new short[maxSymbols];
+        }
+
+        /**
+         * @return boolean false if the code is over subscribed, incomplete codes are allowed as zlib does
+         */
+        private boolean construct(short[] lengths, int offset, int n) {
+            for (int length = 0; length <= MAX_BITS; length++) {
+                count[length] = 0;
+            }
+            for (int i = 0; i < n; i++) {
+                count[lengths[offset + i]]++;
+            }
+
+            int left = 1;
+            for (int length = 1; length <= MAX_BITS; length++) {
+                left <<= 1;
+                left -= count[length];
+                if (left < 0) {
+                    return false;
+                }
+            }
+
+            offsets[1] = 0;
+            for (int length = 1; length < MAX_BITS; length++) {
+                offsets[length + 1] = (short) (offsets[length] + count[length]);
+            }
+            for (int i = 0; i < n; i++) {
+                if (lengths[offset + i] != 0) {
+                    symbol[offsets[lengths[offset + i]]++] = (short) i;
+                }
+            }
+            return true;
+        }
+    }
+}
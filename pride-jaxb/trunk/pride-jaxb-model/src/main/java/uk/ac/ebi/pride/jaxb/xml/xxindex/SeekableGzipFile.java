@@ -0,0 +1,733 @@
+package uk.ac.ebi.pride.jaxb.xml.xxindex;
+
+import org.apache.log4j.Logger;
+
+import java.io.*;
+import java.util.zip.*;
+
+/**
+ * SeekableGzipFile gives random access to the uncompressed content of a gzip file.
+ * <p/>
+ * The gzip file is scanned once to collect access points, an access point is a position from which
+ * inflating can start without reading anything before it:
+ * 1. if the file is made of small gzip members (e.g. written by bgzip or pigz --independent),
+ * the access points are the starts of the members
+ * 2. otherwise, the access points are deflate blocks roughly ACCESS_POINT_SPAN bytes apart, each one is stored
+ * with its bit offset and the last 32KB of content before it, which is the dictionary needed to resume inflating
+ * Reading a range only inflates the access points it overlaps, so the cost of a read depends on
+ * the length of the range, but not on its position in the file.
+ * <p/>
+ * When the index is persistent, it is stored next to the gzip file as <file>.gzi, and reused as long as
+ * the gzip file is unchanged. The index only holds the access points, the content is always read from
+ * the gzip file. If the index cannot be written, e.g. the folder is read only, it is kept in memory.
+ * <p/>
+ * The gzip file is kept open until close is called.
+ */
+public class SeekableGzipFile implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(SeekableGzipFile.class);
+
+    public static final String INDEX_EXTENSION = ".gzi";
+
+    /**
+     * Minimum distance between two access points inside a gzip member
+     */
+    static final int ACCESS_POINT_SPAN = 1024 * 1024;
+
+    /**
+     * Gzip members larger than this are split into deflate blocks
+     */
+    static final int MAX_MEMBER_SIZE = 1024 * 1024;
+
+    private static final int MAGIC_NUMBER = 0x50475a49;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private static final int GZIP_TRAILER_SIZE = 8;
+
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final File gzFile;
+
+    /**
+     * true if the access points are deflate blocks, false if they are gzip members
+     */
+    private boolean blockIndexed;
+
+    /**
+     * uncompressed offsets of the access points
+     */
+    private long[] uncompressedOffsets;
+
+    /**
+     * offsets of the access points in the gzip file, in bits
+     */
+    private long[] bitOffsets;
+
+    /**
+     * compressed content before each access point, null for the start of a gzip member
+     */
+    private byte[][] windows;
+
+    private long uncompressedLength;
+
+    private final Inflater inflater = new Inflater(true);
+
+    private final byte[] inputBuffer = new byte[BUFFER_SIZE];
+
+    private final byte[] windowBuffer = new byte[DeflateBlockScanner.WINDOW_SIZE];
+
+    /**
+     * gzip file opened by the first read
+     */
+    private RandomAccessFile dataFile = null;
+
+    private boolean closed = false;
+
+    /**
+     * last inflated access point, consecutive reads are usually within the same one
+     */
+    private int cachedAccessPoint = -1;
+
+    private byte[] cachedBytes = null;
+
+    public SeekableGzipFile(File gzFile) throws IOException {
+        this(gzFile, XmlIndexSidecar.isEnabled());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param gzFile     gzip file
+     * @param persistent true to read and write the index file next to the gzip file,
+     *                   otherwise the index is only kept in memory.
+     * @throws IOException failed to read the gzip file
+     */
+    public SeekableGzipFile(File gzFile, boolean persistent) throws IOException {
+        if (gzFile == null || !gzFile.exists()) {
+            throw new IllegalStateException("Gzip file does not exist: " + gzFile);
+        }
+
+        this.gzFile = gzFile;
+
+        if (!persistent || !load(getIndexFile(gzFile))) {
+            try {
+                build();
+            } catch (IOException e) {
+                inflater.end();
+                throw e;
+            }
+            if (persistent) {
+                save(getIndexFile(gzFile));
+            }
+        }
+    }
+
+    public static File getIndexFile(File gzFile) {
+        return new File(gzFile.getAbsoluteFile().getParentFile(), gzFile.getName() + INDEX_EXTENSION);
+    }
+
+    public File getGzFile() {
+        return gzFile;
+    }
+
+    public long getUncompressedLength() {
+        return uncompressedLength;
+    }
+
+    public int getNumberOfAccessPoints() {
+        return uncompressedOffsets.length;
+    }
+
+    boolean isBlockIndexed() {
+        return blockIndexed;
+    }
+
+    long getAccessPointOffset(int accessPoint) {
+        return uncompressedOffsets[accessPoint];
+    }
+
+    long getAccessPointBitOffset(int accessPoint) {
+        return bitOffsets[accessPoint];
+    }
+
+    /**
+     * Read a range of the uncompressed content
+     *
+     * @param start start of the range, inclusive
+     * @param stop  stop of the range, exclusive
+     * @return byte[]  uncompressed bytes
+     * @throws IOException failed to read the range
+     */
+    public synchronized byte[] read(long start, long stop) throws IOException {
+        if (closed) {
+            throw new IOException("Gzip file has been closed: " + gzFile);
+        }
+        if (start < 0 || stop < start || stop > uncompressedLength) {
+            throw new IOException("Range [" + start + ", " + stop + ") is outside of the content of " + gzFile);
+        }
+
+        byte[] result = new byte[(int) (stop - start)];
+        if (result.length == 0) {
+            return result;
+        }
+
+        if (dataFile == null) {
+            dataFile = new RandomAccessFile(gzFile, "r");
+        }
+
+        int accessPoint = findAccessPoint(start);
+        long position = start;
+        int copied = 0;
+        while (copied < result.length) {
+            byte[] bytes = inflateAccessPoint(accessPoint);
+            int offset = (int) (position - uncompressedOffsets[accessPoint]);
+            int length = Math.min(bytes.length - offset, result.length - copied);
+            System.arraycopy(bytes, offset, result, copied, length);
+            copied += length;
+            position += length;
+            accessPoint++;
+        }
+
+        return result;
+    }
+
+    /**
+     * Read a range of the uncompressed content as a string
+     *
+     * @param start    start of the range, inclusive
+     * @param stop     stop of the range, exclusive
+     * @param encoding character encoding
+     * @return String  uncompressed string
+     * @throws IOException failed to read the range
+     */
+    public String readString(long start, long stop, String encoding) throws IOException {
+        return new String(read(start, stop), encoding);
+    }
+
+    /**
+     * Close the gzip file and release the inflater, the content cannot be read afterwards
+     *
+     * @throws IOException failed to close the gzip file
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            cachedBytes = null;
+            inflater.end();
+            if (dataFile != null) {
+                dataFile.close();
+                dataFile = null;
+            }
+        }
+    }
+
+    /**
+     * Find the last access point starting at or before a position
+     *
+     * @param position uncompressed position
+     * @return int index of the access point
+     */
+    private int findAccessPoint(long position) {
+        int low = 0;
+        int high = uncompressedOffsets.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (uncompressedOffsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private byte[] inflateAccessPoint(int accessPoint) throws IOException {
+        if (accessPoint == cachedAccessPoint) {
+            return cachedBytes;
+        }
+
+        long end = accessPoint + 1 < uncompressedOffsets.length ? uncompressedOffsets[accessPoint + 1] : uncompressedLength;
+        byte[] bytes = new byte[(int) (end - uncompressedOffsets[accessPoint])];
+
+        inflater.reset();
+        if (windows[accessPoint] != null) {
+            setDictionary(windows[accessPoint]);
+        }
+
+        // a deflate block may start in the middle of a byte, empty blocks are then inflated first to reach that bit
+        dataFile.seek(bitOffsets[accessPoint] >>> 3);
+        int bit = (int) (bitOffsets[accessPoint] & 7);
+        if (bit != 0) {
+            int first = dataFile.read();
+            if (first == -1) {
+                throw new EOFException("Unexpected end of compressed data: " + gzFile);
+            }
+            byte[] blocks = DeflateBlockScanner.createAlignmentBlocks(bit);
+            blocks[blocks.length - 1] |= first & (0xff << bit);
+            inflater.setInput(blocks);
+        }
+
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (inflater.needsInput()) {
+                int count = dataFile.read(inputBuffer);
+                if (count == -1) {
+                    throw new EOFException("Unexpected end of compressed data: " + gzFile);
+                }
+                inflater.setInput(inputBuffer, 0, count);
+            }
+
+            int count = inflate(inflater, bytes, offset, bytes.length - offset);
+            if (count == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                throw new IOException("Compressed data is shorter than expected: " + gzFile);
+            }
+            offset += count;
+        }
+
+        cachedAccessPoint = accessPoint;
+        cachedBytes = bytes;
+
+        return bytes;
+    }
+
+    /**
+     * Inflate a compressed window and set it as the dictionary of the inflater
+     */
+    private void setDictionary(byte[] window) throws IOException {
+        inflater.setInput(window);
+        int length = 0;
+        while (!inflater.finished() && length < windowBuffer.length) {
+            int count = inflate(inflater, windowBuffer, length, windowBuffer.length - length);
+            if (count == 0 && inflater.needsInput()) {
+                throw new IOException("Corrupted gzip index window: " + gzFile);
+            }
+            length += count;
+        }
+        inflater.reset();
+        inflater.setDictionary(windowBuffer, 0, length);
+    }
+
+    /**
+     * Load the index file
+     *
+     * @param indexFile index file
+     * @return boolean true if the index file is up to date
+     */
+    private boolean load(File indexFile) {
+        if (!indexFile.exists()) {
+            return false;
+        }
+
+        DataInputStream in = null;
+        try {
+            CheckedInputStream checkedIn = new CheckedInputStream(new BufferedInputStream(new FileInputStream(indexFile)), new CRC32());
+            in = new DataInputStream(checkedIn);
+
+            if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+                logger.info("Ignoring gzip index with an unknown format: " + indexFile);
+                return false;
+            }
+
+            if (in.readLong() != gzFile.length() || in.readLong() != gzFile.lastModified()
+                    || in.readLong() != XmlIndexSidecar.computeFingerprint(gzFile)) {
+                logger.info("Ignoring out of date gzip index: " + indexFile);
+                return false;
+            }
+
+            boolean blocks = in.readBoolean();
+            long length = in.readLong();
+            int count = in.readInt();
+            if (count <= 0) {
+                logger.warn("Ignoring corrupted gzip index: " + indexFile);
+                return false;
+            }
+
+            long[] uncompressed = new long[count];
+            long[] bits = new long[count];
+            byte[][] compressedWindows = new byte[count][];
+            for (int i = 0; i < count; i++) {
+                uncompressed[i] = in.readLong();
+                bits[i] = in.readLong();
+                int windowLength = in.readInt();
+                if (windowLength > DeflateBlockScanner.WINDOW_SIZE * 2) {
+                    logger.warn("Ignoring corrupted gzip index: " + indexFile);
+                    return false;
+                }
+                if (windowLength >= 0) {
+                    compressedWindows[i] = new byte[windowLength];
+                    in.readFully(compressedWindows[i]);
+                }
+            }
+
+            long checksum = checkedIn.getChecksum().getValue();
+            if (in.readLong() != checksum) {
+                logger.warn("Ignoring corrupted gzip index: " + indexFile);
+                return false;
+            }
+
+            blockIndexed = blocks;
+            uncompressedLength = length;
+            uncompressedOffsets = uncompressed;
+            bitOffsets = bits;
+            windows = compressedWindows;
+
+            return true;
+        } catch (IOException e) {
+            logger.warn("Failed to read gzip index: " + indexFile, e);
+            return false;
+        } finally {
+            close(in, indexFile);
+        }
+    }
+
+    /**
+     * Write the index file, the existing index file is replaced atomically where possible
+     *
+     * @param indexFile index file
+     */
+    private void save(File indexFile) {
+        File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + ".tmp");
+
+        DataOutputStream out = null;
+        try {
+            CheckedOutputStream checkedOut = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)), new CRC32());
+            out = new DataOutputStream(checkedOut);
+
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(gzFile.length());
+            out.writeLong(gzFile.lastModified());
+            out.writeLong(XmlIndexSidecar.computeFingerprint(gzFile));
+
+            out.writeBoolean(blockIndexed);
+            out.writeLong(uncompressedLength);
+            out.writeInt(uncompressedOffsets.length);
+            for (int i = 0; i < uncompressedOffsets.length; i++) {
+                out.writeLong(uncompressedOffsets[i]);
+                out.writeLong(bitOffsets[i]);
+                if (windows[i] == null) {
+                    out.writeInt(-1);
+                } else {
+                    out.writeInt(windows[i].length);
+                    out.write(windows[i]);
+                }
+            }
+
+            out.flush();
+            out.writeLong(checkedOut.getChecksum().getValue());
+            out.close();
+            out = null;
+
+            // File.renameTo does not replace an existing file on all platforms
+            if (indexFile.exists() && !indexFile.delete()) {
+                logger.warn("Failed to replace gzip index: " + indexFile);
+            } else if (!tmpFile.renameTo(indexFile)) {
+                logger.warn("Failed to write gzip index: " + indexFile);
+            }
+        } catch (IOException e) {
+            // e.g. the folder is read only, the index is kept in memory and rebuilt next time
+            logger.warn("Failed to write gzip index: " + indexFile, e);
+        } finally {
+            close(out, tmpFile);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                logger.warn("Failed to delete temporary gzip index: " + tmpFile);
+            }
+        }
+    }
+
+    /**
+     * Scan the gzip file to collect the access points
+     *
+     * @throws IOException failed to read the gzip file
+     */
+    private void build() throws IOException {
+        logger.info("Building gzip index: " + gzFile);
+
+        RandomAccessFile raf = new RandomAccessFile(gzFile, "r");
+        try {
+            // try to use the gzip members first
+            AccessPoints accessPoints = new AccessPoints();
+            blockIndexed = !scanMembers(raf, accessPoints);
+            if (blockIndexed) {
+                accessPoints = new AccessPoints();
+                scanBlocks(raf, accessPoints);
+            }
+
+            uncompressedOffsets = accessPoints.getUncompressedOffsets();
+            bitOffsets = accessPoints.getBitOffsets();
+            windows = accessPoints.getWindows();
+        } finally {
+            raf.close();
+        }
+
+        cachedAccessPoint = -1;
+        cachedBytes = null;
+    }
+
+    /**
+     * Inflate all the members of the gzip file, using the members as access points
+     *
+     * @param raf          gzip file
+     * @param accessPoints access points of the members
+     * @return boolean    false if a member is too large to be used as an access point
+     * @throws IOException failed to read the gzip file
+     */
+    private boolean scanMembers(RandomAccessFile raf, AccessPoints accessPoints) throws IOException {
+        Inflater memberInflater = new Inflater(true);
+        try {
+            byte[] output = new byte[BUFFER_SIZE];
+            long length = raf.length();
+            long memberStart = 0;
+            long uncompressed = 0;
+
+            while (memberStart < length) {
+                raf.seek(memberStart);
+                if (!skipHeader(raf, memberStart)) {
+                    break;
+                }
+
+                long dataStart = raf.getFilePointer();
+                accessPoints.add(uncompressed, dataStart * 8, null);
+
+                memberInflater.reset();
+                long memberSize = 0;
+                while (!memberInflater.finished()) {
+                    if (memberInflater.needsInput()) {
+                        int count = raf.read(inputBuffer);
+                        if (count == -1) {
+                            throw new EOFException("Unexpected end of gzip file: " + gzFile);
+                        }
+                        memberInflater.setInput(inputBuffer, 0, count);
+                    }
+
+                    int count = inflate(memberInflater, output, 0, output.length);
+                    if (count == 0 && memberInflater.needsDictionary()) {
+                        throw new IOException("Unsupported gzip data: " + gzFile);
+                    }
+
+                    memberSize += count;
+                    if (memberSize > MAX_MEMBER_SIZE) {
+                        return false;
+                    }
+                }
+
+                uncompressed += memberSize;
+                memberStart = dataStart + memberInflater.getBytesRead() + GZIP_TRAILER_SIZE;
+            }
+
+            setUncompressedLength(uncompressed, accessPoints);
+            return true;
+        } finally {
+            memberInflater.end();
+        }
+    }
+
+    /**
+     * Decode all the members of the gzip file, using the members and the deflate blocks as access points
+     *
+     * @param raf          gzip file
+     * @param accessPoints access points of the members and the blocks
+     * @throws IOException failed to read the gzip file
+     */
+    private void scanBlocks(RandomAccessFile raf, final AccessPoints accessPoints) throws IOException {
+        final Deflater windowDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            DeflateBlockScanner scanner = new DeflateBlockScanner(raf);
+            long length = raf.length();
+            long memberStart = 0;
+            long uncompressed = 0;
+
+            while (memberStart < length) {
+                raf.seek(memberStart);
+                if (!skipHeader(raf, memberStart)) {
+                    break;
+                }
+
+                long dataStart = raf.getFilePointer();
+                final long memberOffset = uncompressed;
+                accessPoints.add(memberOffset, dataStart * 8, null);
+
+                uncompressed += scanner.scanMember(dataStart, new DeflateBlockScanner.BlockListener() {
+                    private long lastAccessPoint = 0;
+
+                    public void blockStarted(long uncompressedOffset, long bitOffset, DeflateBlockScanner blockScanner) {
+                        if (uncompressedOffset - lastAccessPoint >= ACCESS_POINT_SPAN) {
+                            accessPoints.add(memberOffset + uncompressedOffset, bitOffset,
+                                    compressWindow(windowDeflater, blockScanner.getWindow()));
+                            lastAccessPoint = uncompressedOffset;
+                        }
+                    }
+                });
+                memberStart = scanner.getEndOfData() + GZIP_TRAILER_SIZE;
+            }
+
+            setUncompressedLength(uncompressed, accessPoints);
+        } catch (IOException e) {
+            IOException ex = new IOException("Failed to scan the deflate blocks of " + gzFile);
+            ex.initCause(e);
+            throw ex;
+        } finally {
+            windowDeflater.end();
+        }
+    }
+
+    private void setUncompressedLength(long length, AccessPoints accessPoints) {
+        uncompressedLength = length;
+        if (accessPoints.size() == 0) {
+            // empty content
+            accessPoints.add(0, 0, null);
+        }
+    }
+
+    private static byte[] compressWindow(Deflater deflater, byte[] window) {
+        deflater.reset();
+        deflater.setInput(window);
+        deflater.finish();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(window.length / 4);
+        byte[] buffer = new byte[4096];
+        while (!deflater.finished()) {
+            int count = deflater.deflate(buffer);
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Skip the header of a gzip member
+     *
+     * @param raf         gzip file, positioned at the start of the member
+     * @param memberStart start of the member
+     * @return boolean false if there is no more gzip member
+     * @throws IOException failed to read the header, or the file is not in gzip format
+     */
+    private boolean skipHeader(RandomAccessFile raf, long memberStart) throws IOException {
+        if (raf.length() - raf.getFilePointer() < 10) {
+            return noMoreMember(memberStart);
+        }
+
+        int magic = raf.readUnsignedByte() | (raf.readUnsignedByte() << 8);
+        if (magic != GZIP_MAGIC) {
+            return noMoreMember(memberStart);
+        }
+        if (raf.readUnsignedByte() != Deflater.DEFLATED) {
+            throw new IOException("Unsupported gzip compression method: " + gzFile);
+        }
+
+        int flags = raf.readUnsignedByte();
+        // modification time, extra flags and operating system
+        raf.skipBytes(6);
+
+        if ((flags & FEXTRA) != 0) {
+            int extraLength = raf.readUnsignedByte() | (raf.readUnsignedByte() << 8);
+            raf.skipBytes(extraLength);
+        }
+        if ((flags & FNAME) != 0) {
+            skipZeroTerminatedString(raf);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            skipZeroTerminatedString(raf);
+        }
+        if ((flags & FHCRC) != 0) {
+            raf.skipBytes(2);
+        }
+
+        return true;
+    }
+
+    private boolean noMoreMember(long memberStart) throws IOException {
+        if (memberStart == 0) {
+            throw new IOException("Not in gzip format: " + gzFile);
+        }
+        // ignore trailing garbage, such as zero padding
+        return false;
+    }
+
+    private static void skipZeroTerminatedString(RandomAccessFile raf) throws IOException {
+        while (raf.readUnsignedByte() != 0) {
+            // skip
+        }
+    }
+
+    private int inflate(Inflater anInflater, byte[] output, int offset, int length) throws IOException {
+        try {
+            return anInflater.inflate(output, offset, length);
+        } catch (DataFormatException e) {
+            IOException ex = new IOException("Corrupted gzip data: " + gzFile);
+            ex.initCause(e);
+            throw ex;
+        }
+    }
+
+    private static void close(Closeable closeable, File file) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close gzip index: " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Growable lists of access points
+     */
+    private static class AccessPoints {
+        private long[] uncompressed = new long[64];
+        private long[] bits = new long[64];
+        private byte[][] windows = new byte[64][];
+        private int size = 0;
+
+        private void add(long uncompressedOffset, long bitOffset, byte[] window) {
+            if (size == uncompressed.length) {
+                uncompressed = grow(uncompressed);
+                bits = grow(bits);
+                byte[][] largerWindows = new byte[windows.length * 2][];
+                System.arraycopy(windows, 0, largerWindows, 0, size);
+                windows = largerWindows;
+            }
+            uncompressed[size] = uncompressedOffset;
+            bits[size] = bitOffset;
+            windows[size] = window;
+            size++;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private long[] getUncompressedOffsets() {
+            return trim(uncompressed, size);
+        }
+
+        private long[] getBitOffsets() {
+            return trim(bits, size);
+        }
+
+        private byte[][] getWindows() {
+            byte[][] trimmed = new byte[size][];
+            System.arraycopy(windows, 0, trimmed, 0, size);
+            return trimmed;
+        }
+
+        private static long[] grow(long[] array) {
+            long[] larger = new long[array.length * 2];
+            System.arraycopy(array, 0, larger, 0, array.length);
+            return larger;
+        }
+
+        private static long[] trim(long[] array, int length) {
+            long[] trimmed = new long[length];
+            System.arraycopy(array, 0, trimmed, 0, length);
+            return trimmed;
+        }
+    }
+}
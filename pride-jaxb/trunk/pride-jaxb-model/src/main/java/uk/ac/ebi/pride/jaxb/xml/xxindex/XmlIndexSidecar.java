@@ -0,0 +1,290 @@
+package uk.ac.ebi.pride.jaxb.xml.xxindex;
+
+import org.apache.log4j.Logger;
+import psidev.psi.tools.xxindex.index.ByteRange;
+import psidev.psi.tools.xxindex.index.IndexElement;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * XmlIndexSidecar is an on-disk copy of an xxindex, stored next to the indexed xml file.
+ * <p/>
+ * It holds the byte ranges of every indexed xpath, plus optional lists of element ids
+ * (one id per element, in the same order), so that reopening a file does not need to
+ * scan the xml again.
+ * <p/>
+ * A sidecar is only used when:
+ * 1. its format version matches FORMAT_VERSION
+ * 2. the length, last modified time and head/tail checksum of the xml file are unchanged
+ * 3. it was built for the same set of xpaths
+ * 4. the checksum of its content is correct
+ * Otherwise it is ignored, and overwritten with a fresh index.
+ */
+public class XmlIndexSidecar {
+
+    private static final Logger logger = Logger.getLogger(XmlIndexSidecar.class);
+
+    /**
+     * Set this system property to false to disable reading and writing sidecar files
+     */
+    public static final String SIDECAR_PROPERTY = "uk.ac.ebi.pride.jaxb.xxindex.sidecar";
+
+    public static final String SIDECAR_EXTENSION = ".pxi";
+
+    private static final int MAGIC_NUMBER = 0x50584958;
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Number of bytes read from both ends of the xml file to compute its fingerprint
+     */
+    private static final int FINGERPRINT_BLOCK_SIZE = 64 * 1024;
+
+    private final Set<String> xpaths;
+
+    private final Map<String, List<IndexElement>> elements;
+
+    private final Map<String, List<String>> elementIds;
+
+    public XmlIndexSidecar(Set<String> xpaths) {
+        this.xpaths = new HashSet<String>(xpaths);
+        this.elements = new LinkedHashMap<String, List<IndexElement>>();
+        this.elementIds = new LinkedHashMap<String, List<String>>();
+    }
+
+    public static boolean isEnabled() {
+        return !"false".equalsIgnoreCase(System.getProperty(SIDECAR_PROPERTY));
+    }
+
+    public static File getSidecarFile(File xmlFile) {
+        return new File(xmlFile.getAbsoluteFile().getParentFile(), xmlFile.getName() + SIDECAR_EXTENSION);
+    }
+
+    public Set<String> getXpaths() {
+        return Collections.unmodifiableSet(xpaths);
+    }
+
+    public Map<String, List<IndexElement>> getElements() {
+        return elements;
+    }
+
+    public void putElements(String xpath, List<IndexElement> indexElements) {
+        elements.put(xpath, indexElements);
+    }
+
+    /**
+     * Ids of the elements matched by an xpath
+     *
+     * @param xpath xpath
+     * @return List<String> ids in the same order as the index elements, null if not stored
+     */
+    public List<String> getElementIds(String xpath) {
+        return elementIds.get(xpath);
+    }
+
+    public void putElementIds(String xpath, List<String> ids) {
+        elementIds.put(xpath, ids);
+    }
+
+    /**
+     * Load the sidecar of an xml file
+     *
+     * @param xmlFile xml file
+     * @param xpaths  xpaths the index must have been built for
+     * @return XmlIndexSidecar  sidecar, null if there is none or it is out of date
+     */
+    public static XmlIndexSidecar load(File xmlFile, Set<String> xpaths) {
+        File sidecarFile = getSidecarFile(xmlFile);
+        if (!sidecarFile.exists()) {
+            return null;
+        }
+
+        DataInputStream in = null;
+        try {
+            CheckedInputStream checkedIn = new CheckedInputStream(new BufferedInputStream(new FileInputStream(sidecarFile)), new CRC32());
+            in = new DataInputStream(checkedIn);
+
+            if (in.readInt() != MAGIC_NUMBER || in.readInt() != FORMAT_VERSION) {
+                logger.info("Ignoring index sidecar with an unknown format: " + sidecarFile);
+                return null;
+            }
+
+            if (in.readLong() != xmlFile.length() || in.readLong() != xmlFile.lastModified()
+                    || in.readLong() != computeFingerprint(xmlFile)) {
+                logger.info("Ignoring out of date index sidecar: " + sidecarFile);
+                return null;
+            }
+
+            int numberOfXpaths = in.readInt();
+            Set<String> indexedXpaths = new HashSet<String>();
+            for (int i = 0; i < numberOfXpaths; i++) {
+                indexedXpaths.add(in.readUTF());
+            }
+            if (!indexedXpaths.equals(xpaths)) {
+                logger.info("Ignoring index sidecar built for different xpaths: " + sidecarFile);
+                return null;
+            }
+
+            XmlIndexSidecar sidecar = new XmlIndexSidecar(xpaths);
+
+            int numberOfElementLists = in.readInt();
+            for (int i = 0; i < numberOfElementLists; i++) {
+                String xpath = in.readUTF();
+                int size = in.readInt();
+                List<IndexElement> indexElements = new ArrayList<IndexElement>(size);
+                for (int j = 0; j < size; j++) {
+                    ByteRange byteRange = new ByteRange();
+                    byteRange.setStart(in.readLong());
+                    byteRange.setStop(in.readLong());
+                    indexElements.add(byteRange);
+                }
+                sidecar.putElements(xpath, indexElements);
+            }
+
+            int numberOfIdLists = in.readInt();
+            for (int i = 0; i < numberOfIdLists; i++) {
+                String xpath = in.readUTF();
+                int size = in.readInt();
+                List<String> ids = new ArrayList<String>(size);
+                for (int j = 0; j < size; j++) {
+                    ids.add(in.readBoolean() ? in.readUTF() : null);
+                }
+                sidecar.putElementIds(xpath, ids);
+            }
+
+            long checksum = checkedIn.getChecksum().getValue();
+            if (in.readLong() != checksum) {
+                logger.warn("Ignoring corrupted index sidecar: " + sidecarFile);
+                return null;
+            }
+
+            return sidecar;
+        } catch (IOException e) {
+            logger.warn("Failed to read index sidecar: " + sidecarFile, e);
+            return null;
+        } finally {
+            close(in);
+        }
+    }
+
+    /**
+     * Save the sidecar next to the xml file, the existing sidecar is replaced atomically where possible
+     *
+     * @param xmlFile xml file
+     * @return boolean true if the sidecar has been written
+     */
+    public boolean save(File xmlFile) {
+        File sidecarFile = getSidecarFile(xmlFile);
+        File tmpFile = new File(sidecarFile.getParentFile(), sidecarFile.getName() + ".tmp");
+
+        DataOutputStream out = null;
+        try {
+            CheckedOutputStream checkedOut = new CheckedOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)), new CRC32());
+            out = new DataOutputStream(checkedOut);
+
+            out.writeInt(MAGIC_NUMBER);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(xmlFile.length());
+            out.writeLong(xmlFile.lastModified());
+            out.writeLong(computeFingerprint(xmlFile));
+
+            out.writeInt(xpaths.size());
+            for (String xpath : xpaths) {
+                out.writeUTF(xpath);
+            }
+
+            out.writeInt(elements.size());
+            for (Map.Entry<String, List<IndexElement>> entry : elements.entrySet()) {
+                out.writeUTF(entry.getKey());
+                List<IndexElement> indexElements = entry.getValue();
+                out.writeInt(indexElements.size());
+                for (IndexElement indexElement : indexElements) {
+                    out.writeLong(indexElement.getStart());
+                    out.writeLong(indexElement.getStop());
+                }
+            }
+
+            out.writeInt(elementIds.size());
+            for (Map.Entry<String, List<String>> entry : elementIds.entrySet()) {
+                out.writeUTF(entry.getKey());
+                List<String> ids = entry.getValue();
+                out.writeInt(ids.size());
+                for (String id : ids) {
+                    out.writeBoolean(id != null);
+                    if (id != null) {
+                        out.writeUTF(id);
+                    }
+                }
+            }
+
+            out.flush();
+            out.writeLong(checkedOut.getChecksum().getValue());
+            out.close();
+            out = null;
+
+            // File.renameTo does not replace an existing file on all platforms
+            if (sidecarFile.exists() && !sidecarFile.delete()) {
+                logger.warn("Failed to replace index sidecar: " + sidecarFile);
+                return false;
+            }
+            if (!tmpFile.renameTo(sidecarFile)) {
+                logger.warn("Failed to write index sidecar: " + sidecarFile);
+                return false;
+            }
+
+            return true;
+        } catch (IOException e) {
+            // e.g. the folder is read only, the index will simply be rebuilt next time
+            logger.warn("Failed to write index sidecar: " + sidecarFile, e);
+            return false;
+        } finally {
+            close(out);
+            if (tmpFile.exists() && !tmpFile.delete()) {
+                logger.warn("Failed to delete temporary index sidecar: " + tmpFile);
+            }
+        }
+    }
+
+    /**
+     * Checksum of the first and the last blocks of a file,
+     * this catches in-place edits which keep both the length and the modification time.
+     *
+     * @param file input file
+     * @return long    fingerprint
+     * @throws IOException failed to read the file
+     */
+    static long computeFingerprint(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            long length = raf.length();
+            byte[] buffer = new byte[(int) Math.min(FINGERPRINT_BLOCK_SIZE, length)];
+
+            raf.readFully(buffer);
+            crc.update(buffer);
+
+            if (length > FINGERPRINT_BLOCK_SIZE) {
+                raf.seek(length - buffer.length);
+                raf.readFully(buffer);
+                crc.update(buffer);
+            }
+        } finally {
+            raf.close();
+        }
+        return crc.getValue();
+    }
+
+    private static void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close index sidecar stream", e);
+            }
+        }
+    }
+}
@@ -78,5 +78,25 @@ public interface XmlIndexer {
      * @return String   xml string.
      */
     public String getXmlSnippet(long start, long stop);
+
+    /**
+     * Get the ids stored for the elements of an xpath, see setElementIds.
+     * @param xpath xpath expression.
+     * @return List<String> one id per index element, null if no ids have been stored.
+     */
+    public List<String> getElementIds(String xpath);
+
+    /**
+     * Store the ids of the elements of an xpath, so they can be persisted along with the index.
+     * @param xpath xpath expression.
+     * @param ids   one id per index element, in the same order as getIndexElements.
+     */
+    public void setElementIds(String xpath, List<String> ids);
+
+    /**
+     * Save the index to its sidecar file if it has changed, this does nothing if the index is not persistent.
+     * A newly built index is only written to the sidecar file by this method.
+     */
+    public void saveIndex();
 }
 
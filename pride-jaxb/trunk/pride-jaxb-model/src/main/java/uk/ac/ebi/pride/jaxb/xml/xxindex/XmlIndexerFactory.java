@@ -8,6 +8,7 @@ import psidev.psi.tools.xxindex.index.XpathIndex;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
@@ -25,6 +26,8 @@ public class XmlIndexerFactory {
 
     private static final XmlIndexerFactory instance = new XmlIndexerFactory();
 
+    private static final String DEFAULT_ENCODING = "UTF-8";
+
     private XmlIndexerFactory() {
     }
 
@@ -34,13 +37,28 @@ public class XmlIndexerFactory {
 
     /**
      * Build an implementation of XmlIndexer.
+     * <p/>
+     * The index is reused from the sidecar file next to the xml file when it is up to date,
+     * see XmlIndexSidecar, this can be disabled using the system property XmlIndexSidecar.SIDECAR_PROPERTY.
      *
      * @param xmlFile input xml file.
      * @param xpaths  xpaths used to generate index.
      * @return XmlIndexer  return an XmlIndexer.
      */
     public XmlIndexer buildIndex(File xmlFile, Set<String> xpaths) {
-        return new XmlIndexerImpl(xmlFile, xpaths);
+        return buildIndex(xmlFile, xpaths, XmlIndexSidecar.isEnabled());
+    }
+
+    /**
+     * Build an implementation of XmlIndexer.
+     *
+     * @param xmlFile    input xml file.
+     * @param xpaths     xpaths used to generate index.
+     * @param persistent true to read and write the index sidecar file.
+     * @return XmlIndexer  return an XmlIndexer.
+     */
+    public XmlIndexer buildIndex(File xmlFile, Set<String> xpaths, boolean persistent) {
+        return new XmlIndexerImpl(xmlFile, xpaths, persistent);
     }
 
     /**
@@ -53,58 +71,87 @@ public class XmlIndexerFactory {
          * input xml file to read
          */
         private File xmlFile = null;
-        /**
-         * xpathAccess is used to generate index on the input xml file
-         */
-        private XpathAccess xpathAccess = null;
         /**
          * xmlExtrator is used to extract xml strings
          */
         private XmlElementExtractor xmlExtractor = null;
         /**
-         * xml index
+         * random access to the content of a gzip file, null if the xml file is not compressed
+         */
+        private SeekableGzipFile gzipFile = null;
+        /**
+         * character encoding of the xml file
          */
-        private XpathIndex index = null;
+        private String encoding = DEFAULT_ENCODING;
+        /**
+         * xml index, either generated by xxindex or loaded from the sidecar
+         */
+        private XmlIndexSidecar index = null;
+        /**
+         * whether the index is saved to the sidecar file
+         */
+        private boolean persistent;
+        /**
+         * true when the index has changed since it was saved
+         */
+        private boolean modified = false;
 
         /**
          * XmlIndexerImpl
          *
-         * @param aXmlFile input xml file.
-         * @param xpaths   xpaths used to generate index.
+         * @param aXmlFile   input xml file.
+         * @param xpaths     xpaths used to generate index.
+         * @param persistent true to read and write the index sidecar file.
          */
-        private XmlIndexerImpl(File aXmlFile, Set<String> xpaths) {
+        private XmlIndexerImpl(File aXmlFile, Set<String> xpaths, boolean persistent) {
             if (aXmlFile == null) {
                 throw new IllegalStateException("XML File to index must not be null.");
             }
             if (!aXmlFile.exists()) {
-                throw new IllegalStateException("XML File to index does not exist: " + xmlFile.getAbsolutePath());
+                throw new IllegalStateException("XML File to index does not exist: " + aXmlFile.getAbsolutePath());
             }
 
             // store file reference
             xmlFile = aXmlFile;
+            this.persistent = persistent;
 
             try {
-                // generate XXINDEX
-                xpathAccess = new StandardXpathAccess(xmlFile, xpaths);
-
                 // check if we have a compressed file
                 if (xmlFile.getName().endsWith(".gz")) {
                     // create xml element extractor
                     xmlExtractor = new GzXmlElementExtractor();
+                    // GzXmlElementExtractor inflates from the start of the file on every read
+                    gzipFile = new SeekableGzipFile(xmlFile, persistent);
                 } else {
                     // create xml element extractor
                     xmlExtractor = new SimpleXmlElementExtractor();
                 }
 
 
-                String encoding = xmlExtractor.detectFileEncoding(xmlFile.toURI().toURL());
-                if (encoding != null) {
-                    xmlExtractor.setEncoding(encoding);
+                String detectedEncoding = xmlExtractor.detectFileEncoding(xmlFile.toURI().toURL());
+                if (detectedEncoding != null) {
+                    xmlExtractor.setEncoding(detectedEncoding);
+                    encoding = detectedEncoding;
+                }
+
+                // reuse the index from a previous run
+                if (persistent) {
+                    index = XmlIndexSidecar.load(xmlFile, xpaths);
                 }
 
-                // create index
-                index = xpathAccess.getIndex();
+                if (index == null) {
+                    // generate XXINDEX
+                    XpathAccess xpathAccess = new StandardXpathAccess(xmlFile, xpaths);
+                    XpathIndex xpathIndex = xpathAccess.getIndex();
 
+                    index = new XmlIndexSidecar(xpaths);
+                    for (String xpath : xpathIndex.getKeys()) {
+                        index.putElements(xpath, xpathIndex.getElements(xpath));
+                    }
+
+                    // written by saveIndex, once the caller has added the element ids
+                    modified = true;
+                }
             } catch (IOException e) {
                 logger.error("PrideIndexFactory$PrideIndexImpl.PrideIndexImpl", e);
                 throw new IllegalStateException("Could not generate index file for: " + xmlFile, e);
@@ -134,23 +181,48 @@ public class XmlIndexerFactory {
         }
 
         public Iterator<String> getXmlStringIterator(String xpathExpression) {
-            return xpathAccess.getXmlSnippetIterator(xpathExpression);
+            return new XmlStringIterator(getIndexElements(xpathExpression).iterator());
         }
 
         public int getCount(String xpathExpression) {
-            return index.getElementCount(xpathExpression);
+            return getIndexElements(xpathExpression).size();
         }
 
         public Set<String> getXpath() {
-            return index.getKeys();
+            return index.getElements().keySet();
         }
 
         public List<IndexElement> getIndexElements(String xpathExpression) {
-            return index.getElements(xpathExpression);
+            List<IndexElement> indexElements = index.getElements().get(xpathExpression);
+            return indexElements == null ? Collections.<IndexElement>emptyList() : indexElements;
         }
 
         public Iterator<String> getXmlStringWithinRange(String xpath, long start, long stop) {
-            return xpathAccess.getXmlSnippetIterator(xpath, start, stop);
+            List<IndexElement> elementsWithinRange = new ArrayList<IndexElement>();
+            for (IndexElement indexElement : getIndexElements(xpath)) {
+                if (indexElement.getStart() >= start && indexElement.getStop() <= stop) {
+                    elementsWithinRange.add(indexElement);
+                }
+            }
+            return new XmlStringIterator(elementsWithinRange.iterator());
+        }
+
+        public List<String> getElementIds(String xpath) {
+            return index.getElementIds(xpath);
+        }
+
+        public void setElementIds(String xpath, List<String> ids) {
+            if (ids.size() != getCount(xpath)) {
+                throw new IllegalArgumentException("Expected one id per element of " + xpath);
+            }
+            index.putElementIds(xpath, ids);
+            modified = true;
+        }
+
+        public void saveIndex() {
+            if (persistent && modified) {
+                modified = !index.save(xmlFile);
+            }
         }
 
         /**
@@ -162,11 +234,38 @@ public class XmlIndexerFactory {
          */
         private String readXml(long start, long stop) {
             try {
-                return xmlExtractor.readString(start, stop, xmlFile);
+                if (gzipFile != null) {
+                    return gzipFile.readString(start, stop, encoding);
+                } else {
+                    return xmlExtractor.readString(start, stop, xmlFile);
+                }
             } catch (IOException e) {
                 logger.error("PrideIndexFactory$PrideIndexImpl.readXML", e);
                 throw new IllegalStateException("Could not extract XML from file: " + xmlFile, e);
             }
         }
+
+        /**
+         * Read the xml strings lazily, one index element at a time
+         */
+        private class XmlStringIterator implements Iterator<String> {
+            private final Iterator<IndexElement> indexElementIterator;
+
+            private XmlStringIterator(Iterator<IndexElement> indexElementIterator) {
+                this.indexElementIterator = indexElementIterator;
+            }
+
+            public boolean hasNext() {
+                return indexElementIterator.hasNext();
+            }
+
+            public String next() {
+                return getXmlByIndexElement(indexElementIterator.next());
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException("Remove is not supported");
+            }
+        }
     }
 }
@@ -0,0 +1,299 @@
+package uk.ac.ebi.pride.jaxb.xml.xxindex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for SeekableGzipFile, every read is compared with the same range
+ * of the fully decompressed file.
+ *
+ * Date: 17/10/2026
+ */
+public class SeekableGzipFileTest {
+
+    private List<File> files = new ArrayList<File>();
+
+    private Random random = null;
+
+    @Before
+    public void prepareTest() throws Exception {
+        random = new Random(17);
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        for (File file : files) {
+            SeekableGzipFile.getIndexFile(file).delete();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testPrideXml() throws Exception {
+        URL url = SeekableGzipFileTest.class.getClassLoader().getResource("test-pride.xml");
+        if (url == null) {
+            throw new IllegalStateException("no file for input found!");
+        }
+        byte[] content = readFully(new FileInputStream(new File(url.toURI())));
+
+        File gzFile = createGzipFile(content, content.length);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, true);
+
+        assertFalse("Small single member file should be indexed by member", gzipFile.isBlockIndexed());
+        assertReadsMatch(gzipFile, gzFile);
+    }
+
+    @Test
+    public void testLargeSingleMember() throws Exception {
+        byte[] content = createContent(SeekableGzipFile.MAX_MEMBER_SIZE * 3 + 12345);
+
+        File gzFile = createGzipFile(content, content.length);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, true);
+
+        assertTrue("Large member should be indexed by deflate block", gzipFile.isBlockIndexed());
+        int numberOfAccessPoints = gzipFile.getNumberOfAccessPoints();
+        // access points start at the first block after every ACCESS_POINT_SPAN bytes
+        assertTrue(numberOfAccessPoints > 1);
+        assertTrue(numberOfAccessPoints <= content.length / SeekableGzipFile.ACCESS_POINT_SPAN + 1);
+        assertReadsMatch(gzipFile, gzFile);
+
+        // a range across several access points
+        long start = SeekableGzipFile.ACCESS_POINT_SPAN - 10;
+        long stop = SeekableGzipFile.ACCESS_POINT_SPAN * 3 + 10;
+        assertRangeMatches(content, gzipFile, start, stop);
+
+        // only the access points are stored, not the content
+        File indexFile = SeekableGzipFile.getIndexFile(gzFile);
+        assertTrue("Index should be much smaller than the gzip file", indexFile.length() < gzFile.length() / 10);
+    }
+
+    @Test
+    public void testStoredBlocks() throws Exception {
+        byte[] content = createContent(SeekableGzipFile.MAX_MEMBER_SIZE * 2 + 100);
+
+        File gzFile = createGzipFile(content, content.length, Deflater.NO_COMPRESSION);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, false);
+
+        assertTrue(gzipFile.isBlockIndexed());
+        assertTrue(gzipFile.getNumberOfAccessPoints() > 1);
+        assertReadsMatch(gzipFile, gzFile);
+    }
+
+    @Test
+    public void testMixedContent() throws Exception {
+        // compressed blocks are followed by stored blocks, which are byte aligned in the gzip file
+        ByteArrayOutputStream mixed = new ByteArrayOutputStream();
+        while (mixed.size() < SeekableGzipFile.MAX_MEMBER_SIZE * 4) {
+            mixed.write(createContent(100000 + random.nextInt(200000)));
+            byte[] incompressible = new byte[50000 + random.nextInt(150000)];
+            random.nextBytes(incompressible);
+            mixed.write(incompressible);
+        }
+        byte[] content = mixed.toByteArray();
+
+        File gzFile = createGzipFile(content, content.length);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, false);
+
+        assertTrue(gzipFile.isBlockIndexed());
+        assertTrue(gzipFile.getNumberOfAccessPoints() > 1);
+        assertReadsMatch(gzipFile, gzFile);
+        int unaligned = 0;
+        for (int i = 1; i < gzipFile.getNumberOfAccessPoints(); i++) {
+            long accessPoint = gzipFile.getAccessPointOffset(i);
+            assertRangeMatches(content, gzipFile, accessPoint, Math.min(content.length, accessPoint + SeekableGzipFile.ACCESS_POINT_SPAN * 2));
+            if (gzipFile.getAccessPointBitOffset(i) % 8 != 0) {
+                unaligned++;
+            }
+        }
+        assertTrue("Some access points should start in the middle of a byte", unaligned > 0);
+    }
+
+    @Test
+    public void testLargeMultipleMembers() throws Exception {
+        byte[] content = createContent(SeekableGzipFile.MAX_MEMBER_SIZE * 5);
+
+        File gzFile = createGzipFile(content, SeekableGzipFile.MAX_MEMBER_SIZE * 3 / 2);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, true);
+
+        assertTrue(gzipFile.isBlockIndexed());
+        assertReadsMatch(gzipFile, gzFile);
+
+        // a range across two members
+        long memberEnd = SeekableGzipFile.MAX_MEMBER_SIZE * 3 / 2;
+        assertRangeMatches(content, gzipFile, memberEnd - 100, memberEnd + 100);
+
+        SeekableGzipFile reloaded = new SeekableGzipFile(gzFile, true);
+        assertEquals(gzipFile.getNumberOfAccessPoints(), reloaded.getNumberOfAccessPoints());
+        assertReadsMatch(reloaded, gzFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadAfterClose() throws Exception {
+        File gzFile = createGzipFile(createContent(1000), 1000);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, false);
+        gzipFile.read(0, 100);
+        gzipFile.close();
+        gzipFile.read(0, 100);
+    }
+
+    @Test
+    public void testMultipleMembers() throws Exception {
+        byte[] content = createContent(SeekableGzipFile.MAX_MEMBER_SIZE * 2);
+
+        File gzFile = createGzipFile(content, 64 * 1024);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, true);
+
+        assertFalse("Members should be used as access points", gzipFile.isBlockIndexed());
+        assertEquals(32, gzipFile.getNumberOfAccessPoints());
+        assertReadsMatch(gzipFile, gzFile);
+        assertRangeMatches(content, gzipFile, 64 * 1024 - 1, 64 * 1024 * 5 + 1);
+    }
+
+    @Test
+    public void testReloadIndex() throws Exception {
+        byte[] content = createContent(SeekableGzipFile.MAX_MEMBER_SIZE * 2);
+        File gzFile = createGzipFile(content, content.length);
+
+        new SeekableGzipFile(gzFile, true);
+        File indexFile = SeekableGzipFile.getIndexFile(gzFile);
+        assertTrue("Index should be written next to the gzip file", indexFile.exists());
+        long lastModified = indexFile.lastModified();
+
+        SeekableGzipFile reloaded = new SeekableGzipFile(gzFile, true);
+        assertEquals("Index should not be rebuilt", lastModified, indexFile.lastModified());
+        assertEquals(content.length, reloaded.getUncompressedLength());
+        assertReadsMatch(reloaded, gzFile);
+    }
+
+    @Test
+    public void testModifiedFileRebuildsIndex() throws Exception {
+        File gzFile = createGzipFile(createContent(100000), 100000);
+        new SeekableGzipFile(gzFile, true);
+
+        // overwrite the gzip file with a different content
+        byte[] content = createContent(200000);
+        writeGzip(gzFile, content, 50000);
+
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, true);
+        assertEquals(content.length, gzipFile.getUncompressedLength());
+        assertReadsMatch(gzipFile, gzFile);
+    }
+
+    @Test
+    public void testNonPersistentIndex() throws Exception {
+        File gzFile = createGzipFile(createContent(100000), 100000);
+        SeekableGzipFile gzipFile = new SeekableGzipFile(gzFile, false);
+
+        assertFalse(SeekableGzipFile.getIndexFile(gzFile).exists());
+        assertReadsMatch(gzipFile, gzFile);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRangeOutsideOfContent() throws Exception {
+        File gzFile = createGzipFile(createContent(1000), 1000);
+        new SeekableGzipFile(gzFile, false).read(900, 1001);
+    }
+
+    /**
+     * Compare random ranges, in random order, with the decompressed file
+     */
+    private void assertReadsMatch(SeekableGzipFile gzipFile, File gzFile) throws IOException {
+        byte[] content = readFully(new GZIPInputStream(new FileInputStream(gzFile)));
+        assertEquals(content.length, gzipFile.getUncompressedLength());
+
+        for (int i = 0; i < 200; i++) {
+            long start = (long) (random.nextDouble() * content.length);
+            long stop = Math.min(content.length, start + random.nextInt(20000));
+            assertRangeMatches(content, gzipFile, start, stop);
+        }
+
+        assertRangeMatches(content, gzipFile, 0, content.length);
+        assertRangeMatches(content, gzipFile, content.length, content.length);
+    }
+
+    private void assertRangeMatches(byte[] content, SeekableGzipFile gzipFile, long start, long stop) throws IOException {
+        byte[] expected = new byte[(int) (stop - start)];
+        System.arraycopy(content, (int) start, expected, 0, expected.length);
+        assertArrayEquals("Range [" + start + ", " + stop + ")", expected, gzipFile.read(start, stop));
+    }
+
+    /**
+     * Xml like content, compressible but not trivially
+     */
+    private byte[] createContent(int length) {
+        StringBuilder content = new StringBuilder(length + 100);
+        int spectrum = 0;
+        while (content.length() < length) {
+            content.append("<spectrum id=\"").append(spectrum++).append("\"><data>");
+            for (int i = 0; i < 10; i++) {
+                content.append(random.nextInt(100000)).append(' ');
+            }
+            content.append("</data></spectrum>\n");
+        }
+        content.setLength(length);
+        return content.toString().getBytes();
+    }
+
+    private File createGzipFile(byte[] content, int memberSize) throws IOException {
+        return createGzipFile(content, memberSize, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    private File createGzipFile(byte[] content, int memberSize, int level) throws IOException {
+        File gzFile = File.createTempFile("test-pride", ".xml.gz");
+        files.add(gzFile);
+        writeGzip(gzFile, content, memberSize, level);
+        return gzFile;
+    }
+
+    private static void writeGzip(File gzFile, byte[] content, int memberSize) throws IOException {
+        writeGzip(gzFile, content, memberSize, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Write the content as a sequence of gzip members of memberSize bytes
+     */
+    private static void writeGzip(File gzFile, byte[] content, int memberSize, final int level) throws IOException {
+        OutputStream out = new FileOutputStream(gzFile);
+        try {
+            for (int offset = 0; offset < content.length; offset += memberSize) {
+                ByteArrayOutputStream member = new ByteArrayOutputStream();
+                GZIPOutputStream gzipOut = new GZIPOutputStream(member) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+                gzipOut.write(content, offset, Math.min(memberSize, content.length - offset));
+                gzipOut.close();
+                out.write(member.toByteArray());
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package uk.ac.ebi.pride.jaxb.xml.xxindex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import psidev.psi.tools.xxindex.index.IndexElement;
+import uk.ac.ebi.pride.jaxb.xml.PrideXmlXpath;
+
+import java.io.*;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test case for XmlIndexSidecar
+ *
+ * Date: 17/10/2026
+ */
+public class XmlIndexSidecarTest {
+
+    private File xmlFile = null;
+
+    private Set<String> xpaths = null;
+
+    @Before
+    public void prepareTest() throws Exception {
+        URL url = XmlIndexSidecarTest.class.getClassLoader().getResource("test-pride.xml");
+        if (url == null) {
+            throw new IllegalStateException("no file for input found!");
+        }
+
+        // work on a copy, the sidecar is written next to the xml file
+        xmlFile = File.createTempFile("test-pride", ".xml");
+        copy(new File(url.toURI()), xmlFile);
+
+        xpaths = PrideXmlXpath.getXpaths();
+    }
+
+    @After
+    public void cleanUp() throws Exception {
+        XmlIndexSidecar.getSidecarFile(xmlFile).delete();
+        xmlFile.delete();
+    }
+
+    @Test
+    public void testReloadIndex() throws Exception {
+        String xpath = PrideXmlXpath.MZDATA_SPECTRUM.getXpath();
+
+        XmlIndexer indexer = XmlIndexerFactory.getInstance().buildIndex(xmlFile, xpaths, true);
+        assertFalse("Sidecar should only be written on save", XmlIndexSidecar.getSidecarFile(xmlFile).exists());
+
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < indexer.getCount(xpath); i++) {
+            ids.add("spectrum" + i);
+        }
+        indexer.setElementIds(xpath, ids);
+        indexer.saveIndex();
+
+        XmlIndexSidecar sidecar = XmlIndexSidecar.load(xmlFile, xpaths);
+        assertNotNull("Sidecar should be up to date", sidecar);
+        assertEquals(ids, sidecar.getElementIds(xpath));
+
+        XmlIndexer reloaded = XmlIndexerFactory.getInstance().buildIndex(xmlFile, xpaths, true);
+        assertEquals(new ArrayList<String>(indexer.getXpath()), new ArrayList<String>(reloaded.getXpath()));
+        for (String key : indexer.getXpath()) {
+            List<IndexElement> expected = new ArrayList<IndexElement>(indexer.getIndexElements(key));
+            List<IndexElement> actual = new ArrayList<IndexElement>(reloaded.getIndexElements(key));
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getStart(), actual.get(i).getStart());
+                assertEquals(expected.get(i).getStop(), actual.get(i).getStop());
+            }
+        }
+        assertEquals(ids, reloaded.getElementIds(xpath));
+        assertEquals(indexer.getXmlStringList(xpath), reloaded.getXmlStringList(xpath));
+    }
+
+    @Test
+    public void testModifiedFileInvalidatesSidecar() throws Exception {
+        XmlIndexerFactory.getInstance().buildIndex(xmlFile, xpaths, true).saveIndex();
+        assertNotNull(XmlIndexSidecar.load(xmlFile, xpaths));
+
+        // append a comment, this changes both the length and the checksum of the tail
+        FileWriter writer = new FileWriter(xmlFile, true);
+        writer.write("<!-- modified -->");
+        writer.close();
+
+        assertNull(XmlIndexSidecar.load(xmlFile, xpaths));
+    }
+
+    @Test
+    public void testNonPersistentIndex() throws Exception {
+        XmlIndexerFactory.getInstance().buildIndex(xmlFile, xpaths, false).saveIndex();
+        assertFalse(XmlIndexSidecar.getSidecarFile(xmlFile).exists());
+    }
+
+    private static void copy(File source, File target) throws IOException {
+        InputStream in = new FileInputStream(source);
+        OutputStream out = new FileOutputStream(target);
+        try {
+            byte[] buffer = new byte[8192];
+            int count;
+            while ((count = in.read(buffer)) != -1) {
+                out.write(buffer, 0, count);
+            }
+        } finally {
+            in.close();
+            out.close();
+        }
+    }
+}
@@ -1,80 +1,184 @@
 package uk.ac.ebi.pridemod;
 
-import ch.qos.logback.core.util.FileUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import uk.ac.ebi.pridemod.controller.impl.PRIDEModDataAccessController;
 import uk.ac.ebi.pridemod.controller.impl.PSIModDataAccessController;
 import uk.ac.ebi.pridemod.controller.impl.UnimodDataAccessController;
 import uk.ac.ebi.pridemod.exception.DataAccessException;
+import uk.ac.ebi.pridemod.index.MassTolerance;
+import uk.ac.ebi.pridemod.index.PTMMassIndex;
+import uk.ac.ebi.pridemod.io.snapshot.ModSnapshot;
 import uk.ac.ebi.pridemod.model.PTM;
 import uk.ac.ebi.pridemod.model.Specificity;
 import uk.ac.ebi.pridemod.utils.PRIDEModUtils;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.net.URISyntaxException;
-import java.net.URL;
+import java.io.*;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
+ * ModReader gives access to the Unimod, PSI-MOD and PRIDE modifications.
+ * <p/>
+ * The modifications are read on the first call of {@link #getInstance()} from a binary snapshot,
+ * which is compiled from the sources the first time they are parsed. The snapshot is only used if
+ * the checksums of the sources match, otherwise the sources are parsed and the snapshot is compiled
+ * again. The snapshot file is given by the system property {@link #SNAPSHOT_FILE_PROPERTY}, by
+ * default it is in the .pride directory of the user's home, so it cannot be replaced by other users.
+ *
  * yperez
  */
 public class ModReader {
 
     private static final Logger logger = LoggerFactory.getLogger(ModReader.class);
 
+    /**
+     * System property of the snapshot file, an empty value disables the snapshot
+     */
+    public static final String SNAPSHOT_FILE_PROPERTY = "pride.mod.snapshot";
+
+    private static final String DEFAULT_SNAPSHOT_DIRECTORY = ".pride";
+
+    private static final String DEFAULT_SNAPSHOT_FILE = "pride-mod.snapshot";
+
     /**
      * Local definition of Unimod
      */
-    private static InputStream unimodUrl    = ModReader.class.getClassLoader().getResourceAsStream("unimod.xml");
+    private static final String UNIMOD_RESOURCE = "unimod.xml";
 
     /**
      * Local definition of psiMod
      */
-    private static InputStream psiModUrl    = ModReader.class.getClassLoader().getResourceAsStream("PSI-MOD.obo");
+    private static final String PSIMOD_RESOURCE = "PSI-MOD.obo";
 
     /**
      * Local definition of pride mod
      */
-    private static InputStream prideModdUrl = ModReader.class.getClassLoader().getResourceAsStream("pride_mods.xml");
+    private static final String PRIDEMOD_RESOURCE = "pride_mods.xml";
 
-    private static UnimodDataAccessController unimodController;
+    private final UnimodDataAccessController unimodController;
 
-    private static PSIModDataAccessController psiModController;
+    private final PSIModDataAccessController psiModController;
 
-    private static PRIDEModDataAccessController prideModController;
+    private final PRIDEModDataAccessController prideModController;
 
-    private volatile static ModReader instance = new ModReader();
+    /**
+     * Mass index of Unimod, PSI-MOD and PRIDE modifications
+     */
+    private final PTMMassIndex ptmMassIndex;
+
+    private volatile static ModReader instance;
 
     protected ModReader(){
         try {
-            unimodController = new UnimodDataAccessController(unimodUrl);
-            psiModController = new PSIModDataAccessController(psiModUrl);
-            prideModController = new PRIDEModDataAccessController(prideModdUrl);
+            byte[] unimod = readResource(UNIMOD_RESOURCE);
+            byte[] psiMod = readResource(PSIMOD_RESOURCE);
+            byte[] prideMod = readResource(PRIDEMOD_RESOURCE);
+            long[] checksums = ModSnapshot.checksums(unimod, psiMod, prideMod);
+
+            File snapshotFile = getSnapshotFile();
+            ModSnapshot snapshot = readSnapshot(snapshotFile, checksums);
+            if (snapshot != null) {
+                unimodController = new UnimodDataAccessController(snapshot.getUnimodPTMs());
+                psiModController = new PSIModDataAccessController(snapshot.getPsiModPTMs());
+                prideModController = new PRIDEModDataAccessController(snapshot.getPrideModPTMs());
+            } else {
+                unimodController = new UnimodDataAccessController(new ByteArrayInputStream(unimod));
+                psiModController = new PSIModDataAccessController(new ByteArrayInputStream(psiMod));
+                prideModController = new PRIDEModDataAccessController(new ByteArrayInputStream(prideMod));
+                writeSnapshot(snapshotFile, new ModSnapshot(checksums, unimodController.ptmMap,
+                        psiModController.ptmMap, prideModController.ptmMap));
+            }
+
+            List<PTM> ptms = new ArrayList<PTM>(unimodController.ptmMap.values());
+            ptms.addAll(psiModController.ptmMap.values());
+            ptms.addAll(prideModController.ptmMap.values());
+            ptmMassIndex = new PTMMassIndex(ptms);
         } catch (Exception e) {
             String msg = "Exception while trying to read Database files..";
             logger.error(msg, e);
             throw new DataAccessException(msg, e);
-        } finally {
-            try {
-                if(unimodUrl!= null){
-                    unimodUrl.close();
-                }
-                if(psiModUrl!= null){
-                    psiModUrl.close();
-                }
-                if(psiModUrl!= null){
-                    psiModUrl.close();
+        }
+    }
+
+    /**
+     * Return the shared ModReader, the modifications are read on the first call.
+     *
+     * @return ModReader
+     * @throws DataAccessException if the modifications can not be read
+     */
+    public static ModReader getInstance(){
+        ModReader reader = instance;
+        if (reader == null) {
+            synchronized (ModReader.class) {
+                reader = instance;
+                if (reader == null) {
+                    reader = new ModReader();
+                    instance = reader;
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
             }
         }
+        return reader;
     }
 
-    public static ModReader getInstance(){
-        return instance;
+    private static byte[] readResource(String name) throws IOException {
+        InputStream in = ModReader.class.getClassLoader().getResourceAsStream(name);
+        if (in == null) {
+            throw new IOException("Resource not found: " + name);
+        }
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private static File getSnapshotFile() {
+        String path = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        if (path == null) {
+            File directory = new File(System.getProperty("user.home"), DEFAULT_SNAPSHOT_DIRECTORY);
+            return new File(directory, DEFAULT_SNAPSHOT_FILE);
+        }
+        return path.trim().length() == 0 ? null : new File(path);
+    }
+
+    /**
+     * Read the snapshot, if it exists and it is compiled from the current sources.
+     */
+    private static ModSnapshot readSnapshot(File file, long[] checksums) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+
+        try {
+            ModSnapshot snapshot = ModSnapshot.read(file);
+            if (snapshot.isCompiledFrom(checksums)) {
+                logger.debug("Modifications read from snapshot: " + file.getAbsolutePath());
+                return snapshot;
+            }
+            logger.info("Modification snapshot is out of date: " + file.getAbsolutePath());
+        } catch (Exception e) {
+            logger.warn("Failed to read modification snapshot: " + file.getAbsolutePath(), e);
+        }
+        return null;
+    }
+
+    private static void writeSnapshot(File file, ModSnapshot snapshot) {
+        if (file == null) {
+            return;
+        }
+
+        try {
+            snapshot.write(file);
+        } catch (IOException e) {
+            logger.warn("Failed to write modification snapshot: " + file.getAbsolutePath(), e);
+        }
     }
 
     /**
@@ -150,4 +254,46 @@ public class ModReader {
         return ptms;
 
     }
+
+    /**
+     * Unimod, PSI-MOD and PRIDE modifications with a mono delta mass within the tolerance
+     * of the given delta mass, the closest first.
+     * @param delta
+     * @param tolerance mass tolerance in Dalton or ppm
+     * @return
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance) {
+        return ptmMassIndex.getPTMListByMonoDeltaMass(delta, tolerance);
+    }
+
+    /**
+     * Unimod, PSI-MOD and PRIDE modifications with an average delta mass within the tolerance
+     * of the given delta mass, the closest first.
+     * @param delta
+     * @param tolerance mass tolerance in Dalton or ppm
+     * @return
+     */
+    public List<PTM> getPTMListByAvgDeltaMass(double delta, MassTolerance tolerance) {
+        return ptmMassIndex.getPTMListByAvgDeltaMass(delta, tolerance);
+    }
+
+    /**
+     * Unimod, PSI-MOD and PRIDE modifications with a mono delta mass within the tolerance
+     * of the given delta mass, which can be found on the given amino acid, the closest first.
+     * @param delta
+     * @param tolerance mass tolerance in Dalton or ppm
+     * @param aminoAcid amino acid of the specificity
+     * @return
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance, Specificity.AminoAcid aminoAcid) {
+        return ptmMassIndex.getPTMListByMonoDeltaMass(delta, tolerance, aminoAcid);
+    }
+
+    /**
+     * Mass index of Unimod, PSI-MOD and PRIDE modifications
+     * @return
+     */
+    public PTMMassIndex getPTMMassIndex() {
+        return ptmMassIndex;
+    }
 }
@@ -1,5 +1,7 @@
 package uk.ac.ebi.pridemod.controller;
 
+import uk.ac.ebi.pridemod.index.MassTolerance;
+import uk.ac.ebi.pridemod.index.PTMMassIndex;
 import uk.ac.ebi.pridemod.model.PTM;
 import uk.ac.ebi.pridemod.model.Specificity;
 
@@ -18,6 +20,18 @@ public class AbstractDataAccessController implements DataAccessController {
 
     private InputStream source;
 
+    /**
+     * Mass index of the ptmMap, created on the first mass query
+     */
+    private volatile PTMMassIndex ptmMassIndex;
+
+    /**
+     * The ptmMap and its size when the mass index was created
+     */
+    private Map<Comparable, PTM> indexedPtmMap;
+
+    private int indexedPtmMapSize;
+
     /**
      * Default constructor for Controllers
      */
@@ -26,6 +40,14 @@ public class AbstractDataAccessController implements DataAccessController {
         source = inputStream;
     }
 
+    /**
+     * Constructor for Controllers of PTMs which are already loaded, e.g. from a snapshot
+     */
+    public AbstractDataAccessController(Map<Comparable, PTM> ptmMap) {
+        this.ptmMap = ptmMap;
+        source = null;
+    }
+
     @Override
     public InputStream getSource() {
         return source;
@@ -90,21 +112,48 @@ public class AbstractDataAccessController implements DataAccessController {
 
     @Override
     public List<PTM> getPTMListByMonoDeltaMass(Double delta) {
-        List<PTM> ptms = new ArrayList<PTM>();
-        for (PTM ptm : ptmMap.values()) {
-            if (ptm.getMonoDeltaMass() != null && Double.compare(ptm.getMonoDeltaMass(), delta) == 0)
-                ptms.add(ptm);
-        }
-        return ptms;
+        return getPTMMassIndex().getPTMListByMonoDeltaMass(delta, MassTolerance.dalton(0));
     }
 
     @Override
     public List<PTM> getPTMListByAvgDeltaMass(Double delta) {
-        List<PTM> ptms = new ArrayList<PTM>();
-        for (PTM ptm : ptmMap.values()) {
-            if (ptm.getAveDeltaMass() != null && Double.compare(ptm.getAveDeltaMass(), delta) == 0)
-                ptms.add(ptm);
+        return getPTMMassIndex().getPTMListByAvgDeltaMass(delta, MassTolerance.dalton(0));
+    }
+
+    @Override
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance) {
+        return getPTMMassIndex().getPTMListByMonoDeltaMass(delta, tolerance);
+    }
+
+    @Override
+    public List<PTM> getPTMListByAvgDeltaMass(double delta, MassTolerance tolerance) {
+        return getPTMMassIndex().getPTMListByAvgDeltaMass(delta, tolerance);
+    }
+
+    @Override
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance, Specificity.AminoAcid aminoAcid) {
+        return getPTMMassIndex().getPTMListByMonoDeltaMass(delta, tolerance, aminoAcid);
+    }
+
+    /**
+     * Return the mass index of the PTMs, it is created again if the ptmMap has been replaced or resized.
+     *
+     * @return
+     */
+    @Override
+    public PTMMassIndex getPTMMassIndex() {
+        PTMMassIndex index = ptmMassIndex;
+        if (index == null || indexedPtmMap != ptmMap || indexedPtmMapSize != ptmMap.size()) {
+            synchronized (this) {
+                index = ptmMassIndex;
+                if (index == null || indexedPtmMap != ptmMap || indexedPtmMapSize != ptmMap.size()) {
+                    indexedPtmMap = ptmMap;
+                    indexedPtmMapSize = ptmMap.size();
+                    index = new PTMMassIndex(ptmMap.values());
+                    ptmMassIndex = index;
+                }
+            }
         }
-        return ptms;
+        return index;
     }
 }
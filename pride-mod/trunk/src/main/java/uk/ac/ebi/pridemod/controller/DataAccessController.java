@@ -1,5 +1,7 @@
 package uk.ac.ebi.pridemod.controller;
 
+import uk.ac.ebi.pridemod.index.MassTolerance;
+import uk.ac.ebi.pridemod.index.PTMMassIndex;
 import uk.ac.ebi.pridemod.model.PTM;
 import uk.ac.ebi.pridemod.model.Specificity;
 
@@ -65,4 +67,36 @@ public interface DataAccessController {
      */
     public List<PTM> getPTMListByAvgDeltaMass(Double delta);
 
+    /**
+     * Get List of PTMs by Monoisotopic delta mass within a tolerance, the closest first
+     * @param delta
+     * @param tolerance
+     * @return
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance);
+
+    /**
+     * Get List of PTMs by Average delta mass within a tolerance, the closest first
+     * @param delta
+     * @param tolerance
+     * @return
+     */
+    public List<PTM> getPTMListByAvgDeltaMass(double delta, MassTolerance tolerance);
+
+    /**
+     * Get List of PTMs by Monoisotopic delta mass within a tolerance, which can be found on an amino acid,
+     * the closest first
+     * @param delta
+     * @param tolerance
+     * @param aminoAcid
+     * @return
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance, Specificity.AminoAcid aminoAcid);
+
+    /**
+     * Get the mass index of the PTMs
+     * @return
+     */
+    public PTMMassIndex getPTMMassIndex();
+
 }
@@ -13,6 +13,7 @@ import uk.ac.ebi.pridemod.model.Specificity;
 import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * yperez
@@ -21,6 +22,15 @@ public class PRIDEModDataAccessController extends AbstractDataAccessController {
 
     private static final Logger logger = LoggerFactory.getLogger(PRIDEModDataAccessController.class);
 
+    /**
+     * Constructor for PTMs which are already loaded, e.g. from a snapshot
+     *
+     * @param ptmMap PTMs by accession
+     */
+    public PRIDEModDataAccessController(Map<Comparable, PTM> ptmMap) {
+        super(ptmMap);
+    }
+
     /**
      * Default constructor for Controllers
      *
@@ -18,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * yperez
@@ -50,6 +51,15 @@ public class PSIModDataAccessController extends AbstractDataAccessController{
 
     private static final Logger logger = LoggerFactory.getLogger(UnimodDataAccessController.class);
 
+    /**
+     * Constructor for PTMs which are already loaded, e.g. from a snapshot
+     *
+     * @param ptmMap PTMs by accession
+     */
+    public PSIModDataAccessController(Map<Comparable, PTM> ptmMap) {
+        super(ptmMap);
+    }
+
     public PSIModDataAccessController(InputStream inputStream) {
         super(inputStream);
         try {
@@ -19,6 +19,7 @@ import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -30,6 +31,15 @@ public class UnimodDataAccessController extends AbstractDataAccessController{
 
     private static final Logger logger = LoggerFactory.getLogger(UnimodDataAccessController.class);
 
+    /**
+     * Constructor for PTMs which are already loaded, e.g. from a snapshot
+     *
+     * @param ptmMap PTMs by accession
+     */
+    public UnimodDataAccessController(Map<Comparable, PTM> ptmMap) {
+        super(ptmMap);
+    }
+
     public UnimodDataAccessController(InputStream xml) {
         super(xml);
         try {
@@ -0,0 +1,75 @@
+package uk.ac.ebi.pridemod.index;
+
+/**
+ * Mass tolerance, either absolute in Dalton or relative in ppm of the searched mass.
+ */
+public class MassTolerance {
+
+    public enum Unit {
+        DA, PPM
+    }
+
+    private final double value;
+
+    private final Unit unit;
+
+    /**
+     * Constructor of a tolerance
+     *
+     * @param value non negative tolerance value
+     * @param unit  Dalton or ppm
+     */
+    public MassTolerance(double value, Unit unit) {
+        if (value < 0 || Double.isNaN(value)) {
+            throw new IllegalArgumentException("Mass tolerance must be non negative: " + value);
+        }
+        if (unit == null) {
+            throw new IllegalArgumentException("Mass tolerance unit can not be null");
+        }
+        this.value = value;
+        this.unit = unit;
+    }
+
+    /**
+     * Absolute tolerance in Dalton
+     *
+     * @param value tolerance in Dalton
+     * @return MassTolerance
+     */
+    public static MassTolerance dalton(double value) {
+        return new MassTolerance(value, Unit.DA);
+    }
+
+    /**
+     * Relative tolerance in parts per million of the searched mass
+     *
+     * @param value tolerance in ppm
+     * @return MassTolerance
+     */
+    public static MassTolerance ppm(double value) {
+        return new MassTolerance(value, Unit.PPM);
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public Unit getUnit() {
+        return unit;
+    }
+
+    /**
+     * Return the absolute error in Dalton allowed around a mass.
+     *
+     * @param mass the searched mass
+     * @return the allowed error in Dalton
+     */
+    public double getError(double mass) {
+        return unit == Unit.DA ? value : Math.abs(mass) * value / 1000000d;
+    }
+
+    @Override
+    public String toString() {
+        return value + " " + (unit == Unit.DA ? "Da" : "ppm");
+    }
+}
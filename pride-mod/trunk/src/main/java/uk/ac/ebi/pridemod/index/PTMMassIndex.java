@@ -0,0 +1,222 @@
+package uk.ac.ebi.pridemod.index;
+
+import uk.ac.ebi.pridemod.model.PTM;
+import uk.ac.ebi.pridemod.model.Specificity;
+
+import java.util.*;
+
+/**
+ * PTMMassIndex keeps the PTMs sorted by their mono and average delta masses, in total and per
+ * amino acid specificity. A search for a delta mass within a tolerance, with or without an amino
+ * acid, is a binary search, and the candidates are ranked by their mass error.
+ * <p/>
+ * The index is immutable once created and it can be shared between threads.
+ */
+public class PTMMassIndex {
+
+    private final int size;
+
+    private final SortedMasses monoMasses;
+
+    private final SortedMasses avgMasses;
+
+    private final Map<Specificity.AminoAcid, SortedMasses> monoMassesByAminoAcid;
+
+    private final Map<Specificity.AminoAcid, SortedMasses> avgMassesByAminoAcid;
+
+    /**
+     * Create the index of a collection of PTMs, PTMs without a delta mass are not indexed
+     * for that mass.
+     *
+     * @param ptms PTMs to index
+     */
+    public PTMMassIndex(Collection<? extends PTM> ptms) {
+        List<PTM> monoPTMs = new ArrayList<PTM>();
+        List<PTM> avgPTMs = new ArrayList<PTM>();
+        Map<Specificity.AminoAcid, List<PTM>> monoPTMsByAminoAcid = new EnumMap<Specificity.AminoAcid, List<PTM>>(Specificity.AminoAcid.class);
+        Map<Specificity.AminoAcid, List<PTM>> avgPTMsByAminoAcid = new EnumMap<Specificity.AminoAcid, List<PTM>>(Specificity.AminoAcid.class);
+
+        for (PTM ptm : ptms) {
+            Set<Specificity.AminoAcid> aminoAcids = getAminoAcids(ptm);
+            if (ptm.getMonoDeltaMass() != null) {
+                monoPTMs.add(ptm);
+                addByAminoAcid(ptm, aminoAcids, monoPTMsByAminoAcid);
+            }
+            if (ptm.getAveDeltaMass() != null) {
+                avgPTMs.add(ptm);
+                addByAminoAcid(ptm, aminoAcids, avgPTMsByAminoAcid);
+            }
+        }
+
+        size = ptms.size();
+        monoMasses = new SortedMasses(monoPTMs, true);
+        avgMasses = new SortedMasses(avgPTMs, false);
+        monoMassesByAminoAcid = new EnumMap<Specificity.AminoAcid, SortedMasses>(Specificity.AminoAcid.class);
+        for (Map.Entry<Specificity.AminoAcid, List<PTM>> entry : monoPTMsByAminoAcid.entrySet()) {
+            monoMassesByAminoAcid.put(entry.getKey(), new SortedMasses(entry.getValue(), true));
+        }
+        avgMassesByAminoAcid = new EnumMap<Specificity.AminoAcid, SortedMasses>(Specificity.AminoAcid.class);
+        for (Map.Entry<Specificity.AminoAcid, List<PTM>> entry : avgPTMsByAminoAcid.entrySet()) {
+            avgMassesByAminoAcid.put(entry.getKey(), new SortedMasses(entry.getValue(), false));
+        }
+    }
+
+    private static Set<Specificity.AminoAcid> getAminoAcids(PTM ptm) {
+        Set<Specificity.AminoAcid> aminoAcids = EnumSet.noneOf(Specificity.AminoAcid.class);
+        if (ptm.getSpecificityCollection() != null) {
+            for (Specificity specificity : ptm.getSpecificityCollection()) {
+                if (specificity != null && specificity.getName() != null) {
+                    aminoAcids.add(specificity.getName());
+                }
+            }
+        }
+        return aminoAcids;
+    }
+
+    private static void addByAminoAcid(PTM ptm, Set<Specificity.AminoAcid> aminoAcids, Map<Specificity.AminoAcid, List<PTM>> ptmsByAminoAcid) {
+        for (Specificity.AminoAcid aminoAcid : aminoAcids) {
+            List<PTM> ptms = ptmsByAminoAcid.get(aminoAcid);
+            if (ptms == null) {
+                ptms = new ArrayList<PTM>();
+                ptmsByAminoAcid.put(aminoAcid, ptms);
+            }
+            ptms.add(ptm);
+        }
+    }
+
+    /**
+     * Number of PTMs in the index
+     *
+     * @return number of PTMs
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * PTMs with a mono delta mass within the tolerance of the given delta mass, closest first.
+     *
+     * @param delta     delta mass
+     * @param tolerance mass tolerance
+     * @return ranked list of PTMs
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance) {
+        return monoMasses.search(delta, tolerance.getError(delta));
+    }
+
+    /**
+     * PTMs with an average delta mass within the tolerance of the given delta mass, closest first.
+     *
+     * @param delta     delta mass
+     * @param tolerance mass tolerance
+     * @return ranked list of PTMs
+     */
+    public List<PTM> getPTMListByAvgDeltaMass(double delta, MassTolerance tolerance) {
+        return avgMasses.search(delta, tolerance.getError(delta));
+    }
+
+    /**
+     * PTMs with a mono delta mass within the tolerance of the given delta mass, which can be found
+     * on the given amino acid, closest first.
+     *
+     * @param delta     delta mass
+     * @param tolerance mass tolerance
+     * @param aminoAcid amino acid of the specificity
+     * @return ranked list of PTMs
+     */
+    public List<PTM> getPTMListByMonoDeltaMass(double delta, MassTolerance tolerance, Specificity.AminoAcid aminoAcid) {
+        SortedMasses masses = monoMassesByAminoAcid.get(aminoAcid);
+        return masses == null ? new ArrayList<PTM>() : masses.search(delta, tolerance.getError(delta));
+    }
+
+    /**
+     * PTMs with an average delta mass within the tolerance of the given delta mass, which can be found
+     * on the given amino acid, closest first.
+     *
+     * @param delta     delta mass
+     * @param tolerance mass tolerance
+     * @param aminoAcid amino acid of the specificity
+     * @return ranked list of PTMs
+     */
+    public List<PTM> getPTMListByAvgDeltaMass(double delta, MassTolerance tolerance, Specificity.AminoAcid aminoAcid) {
+        SortedMasses masses = avgMassesByAminoAcid.get(aminoAcid);
+        return masses == null ? new ArrayList<PTM>() : masses.search(delta, tolerance.getError(delta));
+    }
+
+    /**
+     * PTMs sorted by one of their delta masses, then by accession.
+     */
+    private static class SortedMasses {
+
+        private final double[] masses;
+
+        private final PTM[] ptms;
+
+        private SortedMasses(List<PTM> ptmList, final boolean mono) {
+            PTM[] sorted = ptmList.toArray(new PTM[ptmList.size()]);
+            Arrays.sort(sorted, new Comparator<PTM>() {
+                @Override
+                public int compare(PTM o1, PTM o2) {
+                    int result = Double.compare(getMass(o1, mono), getMass(o2, mono));
+                    if (result == 0) {
+                        result = String.valueOf(o1.getAccession()).compareTo(String.valueOf(o2.getAccession()));
+                    }
+                    return result;
+                }
+            });
+
+            ptms = sorted;
+            masses = new double[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                masses[i] = getMass(sorted[i], mono);
+            }
+        }
+
+        private static double getMass(PTM ptm, boolean mono) {
+            return mono ? ptm.getMonoDeltaMass() : ptm.getAveDeltaMass();
+        }
+
+        private List<PTM> search(final double delta, double error) {
+            int start = lowerBound(delta - error);
+            int end = start;
+            while (end < masses.length && masses[end] <= delta + error) {
+                end++;
+            }
+
+            // rank by mass error, equal errors keep the mass and accession order
+            Integer[] positions = new Integer[end - start];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = start + i;
+            }
+            Arrays.sort(positions, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Double.compare(Math.abs(masses[o1] - delta), Math.abs(masses[o2] - delta));
+                }
+            });
+
+            List<PTM> results = new ArrayList<PTM>(positions.length);
+            for (Integer position : positions) {
+                results.add(ptms[position]);
+            }
+            return results;
+        }
+
+        /**
+         * @return the first position whose mass is greater than or equal to the given mass
+         */
+        private int lowerBound(double mass) {
+            int low = 0;
+            int high = masses.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (masses[mid] < mass) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
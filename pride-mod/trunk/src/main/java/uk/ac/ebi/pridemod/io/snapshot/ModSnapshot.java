@@ -0,0 +1,345 @@
+package uk.ac.ebi.pridemod.io.snapshot;
+
+import uk.ac.ebi.pridemod.model.*;
+
+import java.io.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled binary snapshot of the merged modification catalogue (Unimod, PSI-MOD and PRIDE mods).
+ * Reading a snapshot avoids parsing the XML and OBO sources, the snapshot carries the CRC32 checksums
+ * of the sources it was compiled from, so a stale snapshot can be detected.
+ */
+public class ModSnapshot {
+
+    /**
+     * "PMOD"
+     */
+    private static final int MAGIC = 0x504d4f44;
+
+    private static final int VERSION = 1;
+
+    private static final int MAX_STRING_LENGTH = 1 << 24;
+
+    private static final byte UNIMOD_PTM = 1;
+
+    private static final byte PSIMOD_PTM = 2;
+
+    private static final byte PRIDEMOD_PTM = 3;
+
+    private final long[] checksums;
+
+    private final Map<Comparable, PTM> unimodPTMs;
+
+    private final Map<Comparable, PTM> psiModPTMs;
+
+    private final Map<Comparable, PTM> prideModPTMs;
+
+    /**
+     * Constructor of a snapshot
+     *
+     * @param checksums    checksums of the sources, see {@link #checksums(byte[][])}
+     * @param unimodPTMs   Unimod PTMs by accession
+     * @param psiModPTMs   PSI-MOD PTMs by accession
+     * @param prideModPTMs PRIDE PTMs by accession
+     */
+    public ModSnapshot(long[] checksums, Map<Comparable, PTM> unimodPTMs,
+                       Map<Comparable, PTM> psiModPTMs, Map<Comparable, PTM> prideModPTMs) {
+        this.checksums = checksums.clone();
+        this.unimodPTMs = unimodPTMs;
+        this.psiModPTMs = psiModPTMs;
+        this.prideModPTMs = prideModPTMs;
+    }
+
+    /**
+     * CRC32 checksum of each source
+     *
+     * @param sources content of the sources
+     * @return checksums, in the same order as the sources
+     */
+    public static long[] checksums(byte[]... sources) {
+        long[] checksums = new long[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            CRC32 crc = new CRC32();
+            crc.update(sources[i]);
+            checksums[i] = crc.getValue();
+        }
+        return checksums;
+    }
+
+    /**
+     * Whether the snapshot was compiled from sources with the given checksums
+     *
+     * @param checksums checksums of the current sources
+     * @return true if the snapshot is up to date
+     */
+    public boolean isCompiledFrom(long[] checksums) {
+        return Arrays.equals(this.checksums, checksums);
+    }
+
+    public long[] getChecksums() {
+        return checksums.clone();
+    }
+
+    public Map<Comparable, PTM> getUnimodPTMs() {
+        return unimodPTMs;
+    }
+
+    public Map<Comparable, PTM> getPsiModPTMs() {
+        return psiModPTMs;
+    }
+
+    public Map<Comparable, PTM> getPrideModPTMs() {
+        return prideModPTMs;
+    }
+
+    /**
+     * Write the snapshot to a file, the file is replaced only once the snapshot is complete.
+     *
+     * @param file snapshot file
+     * @throws IOException
+     */
+    public void write(File file) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Failed to create directory: " + dir.getAbsolutePath());
+        }
+
+        File tmp = File.createTempFile(file.getName(), ".tmp", dir);
+        try {
+            OutputStream out = new BufferedOutputStream(new FileOutputStream(tmp));
+            try {
+                write(out);
+            } finally {
+                out.close();
+            }
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Failed to replace snapshot: " + file.getAbsolutePath());
+            }
+            if (!tmp.renameTo(file)) {
+                throw new IOException("Failed to rename snapshot to: " + file.getAbsolutePath());
+            }
+        } finally {
+            if (tmp.exists()) {
+                tmp.delete();
+            }
+        }
+    }
+
+    /**
+     * Write the snapshot to a stream, the stream is not closed.
+     *
+     * @param outputStream output stream
+     * @throws IOException
+     */
+    public void write(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(checksums.length);
+        for (long checksum : checksums) {
+            out.writeLong(checksum);
+        }
+        writePTMs(out, unimodPTMs);
+        writePTMs(out, psiModPTMs);
+        writePTMs(out, prideModPTMs);
+        out.flush();
+    }
+
+    /**
+     * Read a snapshot from a file
+     *
+     * @param file snapshot file
+     * @return ModSnapshot
+     * @throws IOException if the file is not a snapshot of this version
+     */
+    public static ModSnapshot read(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Read a snapshot from a stream, the stream is not closed.
+     *
+     * @param inputStream input stream
+     * @return ModSnapshot
+     * @throws IOException if the stream is not a snapshot of this version
+     */
+    public static ModSnapshot read(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a modification snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported modification snapshot version: " + version);
+        }
+        long[] checksums = new long[in.readInt()];
+        for (int i = 0; i < checksums.length; i++) {
+            checksums[i] = in.readLong();
+        }
+        Map<Comparable, PTM> unimodPTMs = readPTMs(in);
+        Map<Comparable, PTM> psiModPTMs = readPTMs(in);
+        Map<Comparable, PTM> prideModPTMs = readPTMs(in);
+        return new ModSnapshot(checksums, unimodPTMs, psiModPTMs, prideModPTMs);
+    }
+
+    private static void writePTMs(DataOutputStream out, Map<Comparable, PTM> ptms) throws IOException {
+        out.writeInt(ptms.size());
+        for (Map.Entry<Comparable, PTM> entry : ptms.entrySet()) {
+            writeString(out, entry.getKey().toString());
+            writePTM(out, entry.getValue());
+        }
+    }
+
+    private static Map<Comparable, PTM> readPTMs(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<Comparable, PTM> ptms = new HashMap<Comparable, PTM>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            String key = readString(in);
+            ptms.put(key, readPTM(in));
+        }
+        return ptms;
+    }
+
+    private static void writePTM(DataOutputStream out, PTM ptm) throws IOException {
+        if (ptm instanceof PSIModPTM) {
+            out.writeByte(PSIMOD_PTM);
+        } else if (ptm instanceof PRIDEModPTM) {
+            out.writeByte(PRIDEMOD_PTM);
+        } else if (ptm instanceof UniModPTM) {
+            out.writeByte(UNIMOD_PTM);
+        } else {
+            throw new IOException("Unsupported PTM type: " + ptm.getClass().getName());
+        }
+
+        writeString(out, ptm.getAccession());
+        writeString(out, ptm.getName());
+        writeString(out, ptm.getDescription());
+        writeDouble(out, ptm.getMonoDeltaMass());
+        writeDouble(out, ptm.getAveDeltaMass());
+        writeString(out, ptm.getFormula());
+
+        List<Specificity> specificities = ptm.getSpecificityCollection();
+        out.writeInt(specificities == null ? -1 : specificities.size());
+        if (specificities != null) {
+            for (Specificity specificity : specificities) {
+                writeString(out, specificity.getName() == null ? null : specificity.getName().name());
+                writeString(out, specificity.getPosition() == null ? null : specificity.getPosition().name());
+            }
+        }
+
+        if (ptm instanceof PSIModPTM) {
+            PSIModPTM psiModPTM = (PSIModPTM) ptm;
+            writeStrings(out, psiModPTM.getSynonyms());
+            writeString(out, psiModPTM.getSource());
+            writeStrings(out, psiModPTM.getParentPTMList());
+            out.writeBoolean(psiModPTM.isObsolete());
+        } else if (ptm instanceof PRIDEModPTM) {
+            Comparable uniModRef = ((PRIDEModPTM) ptm).getUniModRef();
+            writeString(out, uniModRef == null ? null : uniModRef.toString());
+        }
+    }
+
+    private static PTM readPTM(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        String accession = readString(in);
+        String name = readString(in);
+        String description = readString(in);
+        Double monoDeltaMass = readDouble(in);
+        Double averageDeltaMass = readDouble(in);
+        String formula = readString(in);
+
+        List<Specificity> specificities = null;
+        int nrSpecificities = in.readInt();
+        if (nrSpecificities >= 0) {
+            specificities = new ArrayList<Specificity>(nrSpecificities);
+            for (int i = 0; i < nrSpecificities; i++) {
+                String aminoAcid = readString(in);
+                String position = readString(in);
+                specificities.add(new Specificity(aminoAcid == null ? null : Specificity.AminoAcid.valueOf(aminoAcid),
+                        position == null ? null : Specificity.Position.valueOf(position)));
+            }
+        }
+
+        switch (type) {
+            case UNIMOD_PTM:
+                return new UniModPTM(accession, name, description, monoDeltaMass, averageDeltaMass, specificities, formula);
+            case PSIMOD_PTM:
+                List<String> synonyms = readStrings(in);
+                String source = readString(in);
+                List<String> parents = readStrings(in);
+                boolean obsolete = in.readBoolean();
+                return new PSIModPTM(accession, name, description, monoDeltaMass, averageDeltaMass, specificities, formula,
+                        synonyms, source, parents == null ? null : new ArrayList<Comparable>(parents), obsolete);
+            case PRIDEMOD_PTM:
+                String uniModRef = readString(in);
+                return new PRIDEModPTM(accession, name, description, monoDeltaMass, averageDeltaMass, specificities, uniModRef, formula);
+            default:
+                throw new IOException("Unknown PTM type in snapshot: " + type);
+        }
+    }
+
+    /**
+     * Strings are written as UTF-8 bytes, since modified UTF-8 is limited to 64k
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = value.getBytes("UTF-8");
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("Corrupted modification snapshot, string length: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+
+    private static void writeStrings(DataOutputStream out, List<? extends Comparable> values) throws IOException {
+        out.writeInt(values == null ? -1 : values.size());
+        if (values != null) {
+            for (Comparable value : values) {
+                writeString(out, value == null ? null : value.toString());
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<String>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void writeDouble(DataOutputStream out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    private static Double readDouble(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+}
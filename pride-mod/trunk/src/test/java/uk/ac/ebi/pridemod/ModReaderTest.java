@@ -3,7 +3,9 @@ package uk.ac.ebi.pridemod;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import uk.ac.ebi.pridemod.index.MassTolerance;
 import uk.ac.ebi.pridemod.model.PTM;
+import uk.ac.ebi.pridemod.model.Specificity;
 
 import java.util.List;
 
@@ -47,4 +49,14 @@ public class ModReaderTest {
         List<PTM> ptms = modReader.getPTMListByAvgDeltaMass(42.0367);
         assertTrue("The number of Proteins with Average equal to 42.010565 is:", ptms.size() == 2);
     }
+
+    @Test
+    public void TestGetMonoDeltaMassWithTolerance(){
+        List<PTM> ptms = modReader.getPTMListByMonoDeltaMass(42.0106, MassTolerance.ppm(5));
+        assertTrue("The number of PTMs with Mono within 5 ppm of 42.0106 is:", ptms.size() >= 36);
+        assertTrue("The closest PTM has Mono 42.010565", ptms.get(0).getMonoDeltaMass() == 42.010565);
+
+        List<PTM> lysinePtms = modReader.getPTMListByMonoDeltaMass(42.0106, MassTolerance.ppm(5), Specificity.AminoAcid.K);
+        assertTrue("The PTMs on K are a subset", !lysinePtms.isEmpty() && ptms.containsAll(lysinePtms));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package uk.ac.ebi.pridemod.index;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.ac.ebi.pridemod.model.AbstractPTM;
+import uk.ac.ebi.pridemod.model.PTM;
+import uk.ac.ebi.pridemod.model.Specificity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PTMMassIndexTest {
+
+    private PTMMassIndex index;
+
+    private PTM phospho;
+
+    private PTM sulfo;
+
+    private PTM oxidation;
+
+    private PTM acetyl;
+
+    @Before
+    public void setUp() throws Exception {
+        phospho = createPTM("UNIMOD:21", 79.966331, 79.9799, "S", "T", "Y");
+        sulfo = createPTM("UNIMOD:40", 79.956815, 80.0632, "S", "T", "Y");
+        oxidation = createPTM("UNIMOD:35", 15.994915, 15.9994, "M", "W");
+        acetyl = createPTM("MOD:00394", 42.010565, null, "K");
+        index = new PTMMassIndex(Arrays.asList(phospho, sulfo, oxidation, acetyl));
+    }
+
+    private static PTM createPTM(String accession, Double mono, Double avg, String... aminoAcids) {
+        List<Specificity> specificities = new ArrayList<Specificity>();
+        for (String aminoAcid : aminoAcids) {
+            specificities.add(new Specificity(aminoAcid, "Anywhere"));
+        }
+        return new AbstractPTM(accession, accession, accession, mono, avg, specificities, null);
+    }
+
+    @Test
+    public void testExactMass() throws Exception {
+        assertEquals(Arrays.asList(oxidation), index.getPTMListByMonoDeltaMass(15.994915, MassTolerance.dalton(0)));
+        assertTrue(index.getPTMListByMonoDeltaMass(15.9949, MassTolerance.dalton(0)).isEmpty());
+        assertTrue(index.getPTMListByAvgDeltaMass(42.010565, MassTolerance.dalton(0)).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    public void testTolerance() throws Exception {
+        // the fourth decimal place differs
+        assertEquals(Arrays.asList(oxidation), index.getPTMListByMonoDeltaMass(15.9948, MassTolerance.dalton(0.001)));
+
+        // ranked by mass error
+        assertEquals(Arrays.asList(phospho, sulfo), index.getPTMListByMonoDeltaMass(79.9663, MassTolerance.dalton(0.02)));
+        assertEquals(Arrays.asList(sulfo, phospho), index.getPTMListByMonoDeltaMass(79.9570, MassTolerance.dalton(0.02)));
+
+        // 10 ppm of 80 Da is 0.0008 Da
+        assertEquals(Arrays.asList(phospho), index.getPTMListByMonoDeltaMass(79.9660, MassTolerance.ppm(10)));
+        assertTrue(index.getPTMListByMonoDeltaMass(79.9650, MassTolerance.ppm(10)).isEmpty());
+    }
+
+    @Test
+    public void testAminoAcid() throws Exception {
+        assertEquals(Arrays.asList(sulfo, phospho),
+                index.getPTMListByMonoDeltaMass(79.96, MassTolerance.dalton(0.01), Specificity.AminoAcid.S));
+        assertTrue(index.getPTMListByMonoDeltaMass(79.96, MassTolerance.dalton(0.01), Specificity.AminoAcid.K).isEmpty());
+        assertEquals(Arrays.asList(acetyl),
+                index.getPTMListByMonoDeltaMass(42.01, MassTolerance.ppm(50), Specificity.AminoAcid.K));
+        assertEquals(Arrays.asList(oxidation),
+                index.getPTMListByAvgDeltaMass(16.0, MassTolerance.dalton(0.01), Specificity.AminoAcid.W));
+        assertTrue(index.getPTMListByAvgDeltaMass(16.0, MassTolerance.dalton(0.01), Specificity.AminoAcid.C).isEmpty());
+    }
+}
@@ -0,0 +1,81 @@
+package uk.ac.ebi.pridemod.snapshot;
+
+import org.junit.Test;
+import uk.ac.ebi.pridemod.io.snapshot.ModSnapshot;
+import uk.ac.ebi.pridemod.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ModSnapshotTest {
+
+    @Test
+    public void testReadWrite() throws Exception {
+        List<Specificity> specificities = new ArrayList<Specificity>();
+        specificities.add(new Specificity(Specificity.AminoAcid.S, Specificity.Position.NONE));
+        specificities.add(new Specificity(Specificity.AminoAcid.K, null));
+
+        Map<Comparable, PTM> unimod = new HashMap<Comparable, PTM>();
+        unimod.put("UNIMOD:21", new UniModPTM("UNIMOD:21", "Phospho", "Phosphorylation", 79.966331, 79.9799, specificities, "H O(3) P"));
+
+        Map<Comparable, PTM> psiMod = new HashMap<Comparable, PTM>();
+        psiMod.put("MOD:00036", new PSIModPTM("MOD:00036", "2x(13)C,6x(2)H labeled", null, null, 16.0,
+                new ArrayList<Specificity>(), null, Arrays.asList("synonym \u00e9"), "artifactual",
+                Arrays.<Comparable>asList("MOD:00842"), true));
+
+        Map<Comparable, PTM> prideMod = new HashMap<Comparable, PTM>();
+        prideMod.put("MOD:00394", new PRIDEModPTM("MOD:00394", "acetylated residue", "acetylated residue", 42.010565, null,
+                specificities, "1", null));
+
+        long[] checksums = ModSnapshot.checksums("unimod".getBytes(), "psimod".getBytes(), "pridemod".getBytes());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ModSnapshot(checksums, unimod, psiMod, prideMod).write(out);
+
+        ModSnapshot snapshot = ModSnapshot.read(new ByteArrayInputStream(out.toByteArray()));
+        assertTrue(snapshot.isCompiledFrom(checksums));
+        assertFalse(snapshot.isCompiledFrom(ModSnapshot.checksums("unimod".getBytes(), "psimod 2".getBytes(), "pridemod".getBytes())));
+
+        UniModPTM phospho = (UniModPTM) snapshot.getUnimodPTMs().get("UNIMOD:21");
+        assertEquals("Phospho", phospho.getName());
+        assertEquals(79.966331, phospho.getMonoDeltaMass(), 0);
+        assertEquals("H O(3) P", phospho.getFormula());
+        assertEquals(2, phospho.getSpecificityCollection().size());
+        assertEquals(Specificity.AminoAcid.K, phospho.getSpecificityCollection().get(1).getName());
+        assertNull(phospho.getSpecificityCollection().get(1).getPosition());
+
+        PSIModPTM labeled = (PSIModPTM) snapshot.getPsiModPTMs().get("MOD:00036");
+        assertNull(labeled.getDescription());
+        assertNull(labeled.getMonoDeltaMass());
+        assertEquals(16.0, labeled.getAveDeltaMass(), 0);
+        assertEquals(Arrays.asList("synonym \u00e9"), labeled.getSynonyms());
+        assertEquals(Arrays.<Comparable>asList("MOD:00842"), labeled.getParentPTMList());
+        assertTrue(labeled.isObsolete());
+
+        PRIDEModPTM acetyl = (PRIDEModPTM) snapshot.getPrideModPTMs().get("MOD:00394");
+        assertEquals("1", acetyl.getUniModRef());
+        assertNull(acetyl.getAveDeltaMass());
+    }
+
+    @Test
+    public void testReadWriteFile() throws Exception {
+        File file = File.createTempFile("pride-mod", ".snapshot");
+        file.deleteOnExit();
+
+        Map<Comparable, PTM> empty = new HashMap<Comparable, PTM>();
+        long[] checksums = ModSnapshot.checksums("unimod".getBytes());
+        new ModSnapshot(checksums, empty, empty, empty).write(file);
+
+        ModSnapshot snapshot = ModSnapshot.read(file);
+        assertTrue(snapshot.isCompiledFrom(checksums));
+        assertTrue(snapshot.getUnimodPTMs().isEmpty());
+    }
+
+    @Test(expected = java.io.IOException.class)
+    public void testNotASnapshot() throws Exception {
+        ModSnapshot.read(new ByteArrayInputStream("<unimod/>".getBytes()));
+    }
+}
@@ -1,5 +1,8 @@
 package uk.ac.ebi.pride.pia.intermediate;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 /**
  * An interface for the data import controllers for PIA input files.
@@ -26,6 +29,16 @@ public interface DataImportController {
 	public String getInputFileName();
 	
 	
+	/**
+	 * Returns the type of the file which is handled by this controller. It is
+	 * written to the intermediate file together with the controller's class,
+	 * to open the file again with the same controller and type.
+	 * 
+	 * @return
+	 */
+	public String getInputFileType();
+	
+	
 	/**
 	 * Adds all spectrum Identifications to the {@link IntermediateStructureCreator}
 	 * 
@@ -35,6 +48,53 @@ public interface DataImportController {
 	public void addAllSpectrumIdentificationsToStructCreator(IntermediateStructureCreator structCreator);
 	
 	
+	/**
+	 * Writes the data needed to restore the given PSM of this controller by
+	 * {@link #readPeptideSpectrumMatch(DataInput)}, e.g. the IDs to access the
+	 * PSM in the input file.
+	 * 
+	 * @param psm a PSM created by this controller
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writePeptideSpectrumMatch(IntermediatePeptideSpectrumMatch psm, DataOutput out)
+			throws IOException;
+	
+	
+	/**
+	 * Restores a PSM written by {@link #writePeptideSpectrumMatch(IntermediatePeptideSpectrumMatch, DataOutput)}
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public IntermediatePeptideSpectrumMatch readPeptideSpectrumMatch(DataInput in)
+			throws IOException;
+	
+	
+	/**
+	 * Writes the data needed to restore the given protein of this controller
+	 * by {@link #readProtein(DataInput)}.
+	 * 
+	 * @param protein a protein created by this controller
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeProtein(IntermediateProtein protein, DataOutput out)
+			throws IOException;
+	
+	
+	/**
+	 * Restores a protein written by {@link #writeProtein(IntermediateProtein, DataOutput)}
+	 * 
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public IntermediateProtein readProtein(DataInput in)
+			throws IOException;
+	
+	
 	/**
 	 * Some controllers should be closed after usage.
 	 */
@@ -0,0 +1,280 @@
+package uk.ac.ebi.pride.pia.intermediate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.log4j.Logger;
+
+/**
+ * This class splits the peptide to protein mapping into disjoint clusters,
+ * i.e. the connected components of the peptide-protein graph, using several
+ * threads.
+ * <p>
+ * The proteins and peptides are numbered (proteins first, in the iteration
+ * order of the proteins mapping) and merged in a lock-free union-find
+ * structure, where a root is always the smallest number of its component.
+ * Therefore the result does not depend on the thread scheduling: the clusters
+ * are ordered by the first protein of the proteins mapping they contain, which
+ * is the order of a sequential traversal of the proteins mapping.
+ */
+public class IntermediateClusterBuilder {
+
+	/** the logger for this class */
+	private static final Logger logger = Logger.getLogger(IntermediateClusterBuilder.class);
+
+	/** number of nodes handed to a thread at once */
+	private static final int BLOCK_SIZE = 1024;
+
+
+	/** mapping from the protein IDs to connected peptides' IDs **/
+	private Map<Comparable, Set<Comparable>> proteinsToPeptidesMapping;
+
+	/** mapping from the peptide IDs to connected proteins' IDs */
+	private Map<Comparable, Set<Comparable>> peptidesToProteinsMapping;
+
+	/** the maximal number of used threads */
+	private int numberThreads;
+
+
+	/** the protein IDs, numbered 0 .. nrProteins-1 */
+	private Comparable[] proteinIDs;
+
+	/** the peptide IDs, numbered nrProteins .. nrProteins+nrPeptides-1 */
+	private Comparable[] peptideIDs;
+
+	/** mapping from the peptide IDs to their numbers */
+	private Map<Comparable, Integer> peptideNumbers;
+
+	/** the parent of each node in the union-find structure */
+	private AtomicIntegerArray parents;
+
+
+	public IntermediateClusterBuilder(Map<Comparable, Set<Comparable>> proteinsToPeptidesMapping,
+			Map<Comparable, Set<Comparable>> peptidesToProteinsMapping, int threads) {
+		this.proteinsToPeptidesMapping = proteinsToPeptidesMapping;
+		this.peptidesToProteinsMapping = peptidesToProteinsMapping;
+		this.numberThreads = Math.max(1, threads);
+	}
+
+
+	/**
+	 * Creates the disjoint mappings from peptide IDs to protein IDs. The
+	 * protein sets are the ones of the peptides mapping, they are not copied.
+	 *
+	 * @return the clusters, ordered by their first protein in the proteins mapping
+	 * @throws InterruptedException if the thread got interrupted while waiting
+	 * for the worker threads
+	 */
+	public List<Map<Comparable, Set<Comparable>>> buildClusterList()
+			throws InterruptedException {
+		proteinIDs = proteinsToPeptidesMapping.keySet().toArray(
+				new Comparable[proteinsToPeptidesMapping.size()]);
+		peptideIDs = peptidesToProteinsMapping.keySet().toArray(
+				new Comparable[peptidesToProteinsMapping.size()]);
+
+		final int nrProteins = proteinIDs.length;
+		final int nrNodes = nrProteins + peptideIDs.length;
+
+		peptideNumbers = new HashMap<Comparable, Integer>(peptideIDs.length * 4 / 3 + 1);
+		for (int i = 0; i < peptideIDs.length; i++) {
+			peptideNumbers.put(peptideIDs[i], nrProteins + i);
+		}
+
+		parents = new AtomicIntegerArray(nrNodes);
+		for (int i = 0; i < nrNodes; i++) {
+			parents.set(i, i);
+		}
+
+		// merge each protein with its peptides
+		runParallel(nrProteins, new RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int protein = from; protein < to; protein++) {
+					for (Comparable peptideID : proteinsToPeptidesMapping.get(proteinIDs[protein])) {
+						union(protein, peptideNumbers.get(peptideID));
+					}
+				}
+			}
+		});
+
+		// flatten the union-find structure
+		final int[] roots = new int[nrNodes];
+		runParallel(nrNodes, new RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int node = from; node < to; node++) {
+					roots[node] = find(node);
+				}
+			}
+		});
+
+		// the roots are the smallest numbers, hence always proteins
+		int[] clusterNumbers = new int[nrProteins];
+		int nrClusters = 0;
+		for (int protein = 0; protein < nrProteins; protein++) {
+			if (roots[protein] == protein) {
+				clusterNumbers[protein] = nrClusters++;
+			}
+		}
+
+		// sort the peptides by their clusters, keeping the peptides' order
+		final int[] clusterStarts = new int[nrClusters + 1];
+		for (int peptide = nrProteins; peptide < nrNodes; peptide++) {
+			clusterStarts[clusterNumbers[roots[peptide]] + 1]++;
+		}
+		for (int cluster = 0; cluster < nrClusters; cluster++) {
+			clusterStarts[cluster + 1] += clusterStarts[cluster];
+		}
+		final int[] sortedPeptides = new int[peptideIDs.length];
+		int[] positions = Arrays.copyOf(clusterStarts, nrClusters);
+		for (int peptide = nrProteins; peptide < nrNodes; peptide++) {
+			sortedPeptides[positions[clusterNumbers[roots[peptide]]]++] = peptide - nrProteins;
+		}
+
+		// create the clusters' mappings
+		final Map<Comparable, Set<Comparable>>[] clusters = createMapArray(nrClusters);
+		runParallel(nrClusters, new RangeTask() {
+			@Override
+			public void run(int from, int to) {
+				for (int cluster = from; cluster < to; cluster++) {
+					int size = clusterStarts[cluster + 1] - clusterStarts[cluster];
+					Map<Comparable, Set<Comparable>> peptidesToProteinsMapCluster =
+							new HashMap<Comparable, Set<Comparable>>(size);
+					for (int i = clusterStarts[cluster]; i < clusterStarts[cluster + 1]; i++) {
+						Comparable peptideID = peptideIDs[sortedPeptides[i]];
+						peptidesToProteinsMapCluster.put(peptideID, peptidesToProteinsMapping.get(peptideID));
+					}
+					clusters[cluster] = peptidesToProteinsMapCluster;
+				}
+			}
+		});
+
+		// the helper structures are no longer needed
+		proteinIDs = null;
+		peptideIDs = null;
+		peptideNumbers = null;
+		parents = null;
+
+		logger.debug(nrClusters + " clusters of " + nrProteins + " proteins and "
+				+ sortedPeptides.length + " peptides");
+		return new ArrayList<Map<Comparable, Set<Comparable>>>(Arrays.asList(clusters));
+	}
+
+
+	@SuppressWarnings("unchecked")
+	private static Map<Comparable, Set<Comparable>>[] createMapArray(int size) {
+		return new Map[size];
+	}
+
+
+	/**
+	 * Returns the root of the given node, halving the path to the root.
+	 */
+	private int find(int node) {
+		while (true) {
+			int parent = parents.get(node);
+			if (parent == node) {
+				return node;
+			}
+
+			int grandParent = parents.get(parent);
+			if (grandParent != parent) {
+				parents.compareAndSet(node, parent, grandParent);
+			}
+			node = grandParent;
+		}
+	}
+
+
+	/**
+	 * Merges the components of the given nodes, the larger root is linked to
+	 * the smaller one.
+	 */
+	private void union(int node1, int node2) {
+		while (true) {
+			int root1 = find(node1);
+			int root2 = find(node2);
+			if (root1 == root2) {
+				return;
+			}
+
+			if (root1 < root2) {
+				if (parents.compareAndSet(root2, root2, root1)) {
+					return;
+				}
+			} else {
+				if (parents.compareAndSet(root1, root1, root2)) {
+					return;
+				}
+			}
+			// another thread changed one of the roots, try again
+		}
+	}
+
+
+	/**
+	 * Work on a range [from, to) of numbers
+	 */
+	private interface RangeTask {
+		void run(int from, int to);
+	}
+
+
+	/**
+	 * Runs the task on the numbers 0 .. size-1, which are handed in blocks to
+	 * the threads, and waits until all are done.
+	 */
+	private void runParallel(final int size, final RangeTask task)
+			throws InterruptedException {
+		int nrThreads = Math.min(numberThreads, (size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+		if (nrThreads <= 1) {
+			task.run(0, size);
+			return;
+		}
+
+		final AtomicInteger nextBlock = new AtomicInteger(0);
+		final AtomicReference<RuntimeException> error = new AtomicReference<RuntimeException>();
+
+		List<Thread> threads = new ArrayList<Thread>(nrThreads);
+		for (int i = 0; i < nrThreads; i++) {
+			Thread thread = new Thread(getClass().getCanonicalName() + "-" + i) {
+				@Override
+				public void run() {
+					try {
+						int from = nextBlock.getAndAdd(BLOCK_SIZE);
+						while ((from < size) && (error.get() == null)) {
+							task.run(from, Math.min(from + BLOCK_SIZE, size));
+							from = nextBlock.getAndAdd(BLOCK_SIZE);
+						}
+					} catch (RuntimeException e) {
+						error.compareAndSet(null, e);
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+
+		try {
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			for (Thread thread : threads) {
+				thread.interrupt();
+			}
+			throw e;
+		}
+
+		if (error.get() != null) {
+			throw error.get();
+		}
+	}
+}
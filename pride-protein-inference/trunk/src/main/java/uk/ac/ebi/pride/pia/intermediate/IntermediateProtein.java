@@ -19,6 +19,14 @@ public interface IntermediateProtein {
 	public Comparable getID();
 	
 	
+	/**
+	 * Returns the ID of the used controller for importing.
+	 * 
+	 * @return
+	 */
+	public Comparable getControllerID();
+	
+	
 	/**
 	 * getter for the Protein accession
 	 * @return
@@ -5,9 +5,9 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.log4j.Logger;
 
@@ -45,8 +45,11 @@ public class IntermediateStructureCreator {
 	
 	
 	
-	/** iterates over the clustered list of peptide -> proteins mapping */
-	private ListIterator<Map<Comparable, Set<Comparable>>> clusterIterator;
+	/** the clustered list of peptide -> proteins mapping */
+	private List<Map<Comparable, Set<Comparable>>> clusterList;
+	
+	/** index of the next cluster in the clusterList, shared by the worker threads */
+	private AtomicInteger nextClusterIndex;
 	
 	
 	
@@ -65,7 +68,8 @@ public class IntermediateStructureCreator {
 				new HashMap<Comparable, Set<Comparable>>();
 		this.peptidesToProteinsMapping = new HashMap<Comparable, Set<Comparable>>();
 		
-		this.clusterIterator = null;
+		this.clusterList = null;
+		this.nextClusterIndex = new AtomicInteger(0);
 		this.intermediateStructure = null;
 		
 		this.numberThreads = threads;
@@ -204,10 +208,15 @@ public class IntermediateStructureCreator {
 				+ getNrProteins() + " protein accessions");
         
 		// first cluster the data
-		List<Map<Comparable, Set<Comparable>>> clusterList = buildClusterList();
+		try {
+			clusterList = buildClusterList();
+		} catch (InterruptedException e) {
+			logger.error("thread got interrupted!", e);
+			return null;
+		}
 		
-		// initialize the iterator
-		clusterIterator = clusterList.listIterator();
+		// initialize the index of the next cluster
+		nextClusterIndex.set(0);
 		
 		// initialize the intermediate structure
 		intermediateStructure = new IntermediateStructure();
@@ -243,35 +252,18 @@ public class IntermediateStructureCreator {
 	
 	/**
 	 * Creates mappings from peptide IDs to protein IDs, which are
-	 * disjoint.
+	 * disjoint. The clusters are built in parallel, see
+	 * {@link IntermediateClusterBuilder}.
 	 */
-	private List<Map<Comparable, Set<Comparable>>> buildClusterList() {
+	private List<Map<Comparable, Set<Comparable>>> buildClusterList()
+			throws InterruptedException {
 		
 		logger.info("start sorting clusters");
 		
 		// disjoint list of mappings from peptide IDs to protein IDs
 		List<Map<Comparable, Set<Comparable>>> clusteredPepEntriesMap =
-				new ArrayList<Map<Comparable,Set<Comparable>>>();
-		
-		Set<Comparable> peptidesDone = new HashSet<Comparable>(peptides.size());
-		Set<Comparable> proteinsDone = new HashSet<Comparable>(proteins.size());
-		
-		for (Map.Entry<Comparable, Set<Comparable>> entryToPepsIt : proteinsToPeptidesMapping.entrySet()) {
-			if (!proteinsDone.contains(entryToPepsIt.getKey())) {
-				// this accession is not yet clustered, so start a new cluster
-				// and insert all the "connected" peptides and accessions
-				Map<Comparable, Set<Comparable>> pepEntriesMapCluster =
-						createCluster(entryToPepsIt.getKey(), peptidesDone, proteinsDone);
-				
-				if (pepEntriesMapCluster != null) {
-					clusteredPepEntriesMap.add(pepEntriesMapCluster);
-				} else {
-					logger.error("cluster could not be created!");
-				}
-				
-				proteinsDone.add(entryToPepsIt.getKey());
-			}
-		}
+				new IntermediateClusterBuilder(proteinsToPeptidesMapping,
+						peptidesToProteinsMapping, numberThreads).buildClusterList();
 		
 		// the maps are no longer needed
 		proteinsToPeptidesMapping = null;
@@ -282,85 +274,24 @@ public class IntermediateStructureCreator {
 	}
 	
 	
-	/**
-	 * Inserts the cluster of the given accession into the peptide accession
-	 * map cluster.
-	 * <p>
-	 * This method should only be called by
-	 * {@link IntermediateStructureCreator#buildClusterList()}
-	 */
-	private Map<Comparable, Set<Comparable>> createCluster(Comparable proteinID,
-			Set<Comparable> peptidesDone, Set<Comparable> proteinsDone) {
-		
-		Set<Comparable> clusterProteins = new HashSet<Comparable>();
-		Set<Comparable> clusterPeptides = new HashSet<Comparable>();
-		
-		boolean newProteins = true; // the given dbSequence is new 
-		boolean newPeptides = false;
-		
-		// initialize the cluster's peptides with the peptides of the given dbSequence
-		for (Comparable pepID : proteinsToPeptidesMapping.get(proteinID)) {
-			newPeptides |= clusterPeptides.add(pepID);
-		}
-		
-		// put the entries and peptides into the cluster and remove them from the original maps
-		while (newProteins || newPeptides) {
-			// repeat as long, as we get more accessions or peptides
-			newProteins = false;
-			newPeptides = false;
-			
-			// get proteins for peptides, which are new since the last loop
-			for (Comparable newPeptideID : clusterPeptides) {
-				if (!peptidesDone.contains(newPeptideID)) {
-					for (Comparable newProteinID : peptidesToProteinsMapping.get(newPeptideID)) {
-						newProteins |= clusterProteins.add(newProteinID);
-					}
-					peptidesDone.add(newPeptideID);
-				}
-			}
-			
-			// get peptides for proteins, which are new since the last loop
-			for (Comparable newProteinID : clusterProteins) {
-				if (!proteinsDone.contains(newProteinID)) {
-					for (Comparable newPeptideID : proteinsToPeptidesMapping.get(newProteinID)) {
-						newPeptides |= clusterPeptides.add(newPeptideID);
-					}
-					proteinsDone.add(newProteinID);
-				}
-			}
-		}
-		clusterProteins = null;
-		
-		// now we have the whole cluster, so put it into the pepAccMapCluster
-		Map<Comparable, Set<Comparable>> peptidesToProteinsMapCluster =
-				new HashMap<Comparable, Set<Comparable>>(clusterPeptides.size());
-		
-		for (Comparable peptideID : clusterPeptides) {
-			peptidesToProteinsMapCluster.put(peptideID, peptidesToProteinsMapping.get(peptideID));
-		}
-		
-		return peptidesToProteinsMapCluster;
-	}
-	
-	
 	/**
 	 * Returns the next cluster in the clustered mapping of peptides to
 	 * DBSequences.
 	 * 
 	 * @return
 	 */
-	protected synchronized Map<Comparable, Set<Comparable>> getNextCluster() {
-		synchronized (clusterIterator) {
-			if (clusterIterator != null) {
-				if (clusterIterator.hasNext()) {
-					return clusterIterator.next();
-				} else {
-					return null;
-				}
+	protected Map<Comparable, Set<Comparable>> getNextCluster() {
+		if (clusterList != null) {
+			int index = nextClusterIndex.getAndIncrement();
+			if (index < clusterList.size()) {
+				// the worker threads do not need the cluster afterwards
+				return clusterList.set(index, null);
 			} else {
-				logger.error("The cluster iterator is not yet initialized!");
 				return null;
 			}
+		} else {
+			logger.error("The cluster list is not yet initialized!");
+			return null;
 		}
 	}
 	
@@ -0,0 +1,459 @@
+package uk.ac.ebi.pride.pia.intermediate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * Binary file format of the {@link IntermediateStructure}, i.e. the PSMs,
+ * peptides, proteins and the clustered groups connecting them.
+ * <p>
+ * PSMs and proteins are written by the {@link DataImportController} which
+ * created them, usually only the IDs needed to access them again in the input
+ * file. On loading, the input files are opened again by a
+ * {@link ControllerOpener}, but not imported.
+ * <p>
+ * All references between the items are written as indices into the lists of
+ * written items, the groups are written cluster by cluster ordered by their
+ * IDs, so the loaded structure gets the same group IDs and tree IDs.
+ */
+public class IntermediateStructureFile {
+
+	/** "PIAS" */
+	private static final int MAGIC = 0x50494153;
+
+	private static final int VERSION = 2;
+
+	private static final byte ID_NULL = 0;
+
+	private static final byte ID_STRING = 1;
+
+	private static final byte ID_INTEGER = 2;
+
+	private static final byte ID_LONG = 3;
+
+
+	/** maps from an internal fileID to the corresponding {@link DataImportController} */
+	private Map<Integer, DataImportController> inputControllers;
+
+	/** the loaded structure */
+	private IntermediateStructure intermediateStructure;
+
+
+	private IntermediateStructureFile(Map<Integer, DataImportController> inputControllers,
+			IntermediateStructure intermediateStructure) {
+		this.inputControllers = inputControllers;
+		this.intermediateStructure = intermediateStructure;
+	}
+
+
+	/**
+	 * Getter for the controllers of the input files, opened while loading.
+	 *
+	 * @return
+	 */
+	public Map<Integer, DataImportController> getInputControllers() {
+		return inputControllers;
+	}
+
+
+	/**
+	 * Getter for the loaded structure.
+	 *
+	 * @return
+	 */
+	public IntermediateStructure getIntermediateStructure() {
+		return intermediateStructure;
+	}
+
+
+	/**
+	 * Opens the controller of an input file, when the structure is loaded.
+	 */
+	public interface ControllerOpener {
+
+		/**
+		 * Opens the controller for the given input file.
+		 *
+		 * @param fileID the internal fileID of the input file
+		 * @param controllerType the class name of the controller, which
+		 * handled the file on writing
+		 * @param inputFileType the file type given by
+		 * {@link DataImportController#getInputFileType()} on writing
+		 * @param inputFileName the file name given by
+		 * {@link DataImportController#getInputFileName()} on writing
+		 * @return
+		 * @throws IOException if the controller type or file type is not supported
+		 */
+		public DataImportController open(Integer fileID, String controllerType,
+				String inputFileType, String inputFileName)
+				throws IOException;
+	}
+
+
+	/**
+	 * Writes the structure to the given file.
+	 *
+	 * @param file
+	 * @param structure
+	 * @param inputControllers the controllers, which created the structure
+	 * @throws IOException
+	 */
+	public static void write(File file, IntermediateStructure structure,
+			Map<Integer, DataImportController> inputControllers) throws IOException {
+		OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+		try {
+			write(out, structure, inputControllers);
+		} finally {
+			out.close();
+		}
+	}
+
+
+	/**
+	 * Writes the structure to the given stream, the stream is not closed.
+	 *
+	 * @param outputStream
+	 * @param structure
+	 * @param inputControllers the controllers, which created the structure
+	 * @throws IOException
+	 */
+	public static void write(OutputStream outputStream, IntermediateStructure structure,
+			Map<Integer, DataImportController> inputControllers) throws IOException {
+		DataOutputStream out = new DataOutputStream(outputStream);
+
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+
+		// the input files
+		Map<Comparable, Integer> controllerIDtoFileID =
+				new HashMap<Comparable, Integer>(inputControllers.size());
+		out.writeInt(inputControllers.size());
+		for (Map.Entry<Integer, DataImportController> controllerIt : inputControllers.entrySet()) {
+			controllerIDtoFileID.put(controllerIt.getValue().getID(), controllerIt.getKey());
+			out.writeInt(controllerIt.getKey());
+			out.writeUTF(controllerIt.getValue().getClass().getName());
+			out.writeUTF(controllerIt.getValue().getInputFileType());
+			out.writeUTF(controllerIt.getValue().getInputFileName());
+		}
+
+		// collect the items, the clusters ordered by treeID and the groups by ID
+		List<List<IntermediateGroup>> clusters = new ArrayList<List<IntermediateGroup>>(structure.getNrClusters());
+		Map<IntermediateGroup, Integer> groupIdx = new IdentityHashMap<IntermediateGroup, Integer>();
+		Map<IntermediatePeptide, Integer> peptideIdx = new IdentityHashMap<IntermediatePeptide, Integer>();
+		Map<IntermediateProtein, Integer> proteinIdx = new IdentityHashMap<IntermediateProtein, Integer>();
+		List<IntermediatePeptide> peptides = new ArrayList<IntermediatePeptide>(structure.getNrPeptides());
+		List<IntermediateProtein> proteins = new ArrayList<IntermediateProtein>();
+
+		for (Set<IntermediateGroup> clusterSet
+				: new TreeMap<Integer, Set<IntermediateGroup>>(structure.getClusters()).values()) {
+			List<IntermediateGroup> cluster = new ArrayList<IntermediateGroup>(clusterSet);
+			Collections.sort(cluster, new Comparator<IntermediateGroup>() {
+				@Override
+				public int compare(IntermediateGroup o1, IntermediateGroup o2) {
+					return o1.getID().compareTo(o2.getID());
+				}
+			});
+
+			for (IntermediateGroup group : cluster) {
+				groupIdx.put(group, groupIdx.size());
+
+				if (group.getPeptides() != null) {
+					for (IntermediatePeptide peptide : group.getPeptides()) {
+						if (!peptideIdx.containsKey(peptide)) {
+							peptideIdx.put(peptide, peptides.size());
+							peptides.add(peptide);
+						}
+					}
+				}
+
+				if (group.getProteins() != null) {
+					for (IntermediateProtein protein : group.getProteins()) {
+						if (!proteinIdx.containsKey(protein)) {
+							proteinIdx.put(protein, proteins.size());
+							proteins.add(protein);
+						}
+					}
+				}
+			}
+			clusters.add(cluster);
+		}
+
+		// the proteins
+		out.writeInt(proteins.size());
+		for (IntermediateProtein protein : proteins) {
+			Integer fileID = getFileID(protein.getControllerID(), controllerIDtoFileID);
+			out.writeInt(fileID);
+			inputControllers.get(fileID).writeProtein(protein, out);
+		}
+
+		// the peptides with their PSMs
+		out.writeInt(peptides.size());
+		for (IntermediatePeptide peptide : peptides) {
+			out.writeUTF(peptide.getSequence());
+
+			List<IntermediatePeptideSpectrumMatch> psms = peptide.getAllPeptideSpectrumMatches();
+			out.writeInt(psms.size());
+			for (IntermediatePeptideSpectrumMatch psm : psms) {
+				Integer fileID = getFileID(psm.getControllerID(), controllerIDtoFileID);
+				out.writeInt(fileID);
+				inputControllers.get(fileID).writePeptideSpectrumMatch(psm, out);
+			}
+		}
+
+		// the clusters of groups
+		out.writeInt(clusters.size());
+		for (List<IntermediateGroup> cluster : clusters) {
+			out.writeInt(cluster.size());
+			for (IntermediateGroup group : cluster) {
+				out.writeInt(group.getID());
+				writeIndices(out, group.getPeptides(), peptideIdx);
+				writeIndices(out, group.getProteins(), proteinIdx);
+				writeIndices(out, group.getChildren(), groupIdx);
+			}
+		}
+
+		out.flush();
+	}
+
+
+	/**
+	 * Loads a structure from the given file.
+	 *
+	 * @param file
+	 * @param opener opens the controllers of the input files
+	 * @return
+	 * @throws IOException if the file is not an intermediate file of this version
+	 */
+	public static IntermediateStructureFile read(File file, ControllerOpener opener)
+			throws IOException {
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			return read(in, opener);
+		} finally {
+			in.close();
+		}
+	}
+
+
+	/**
+	 * Loads a structure from the given stream, the stream is not closed.
+	 *
+	 * @param inputStream
+	 * @param opener opens the controllers of the input files
+	 * @return
+	 * @throws IOException if the stream is not an intermediate file of this version
+	 */
+	public static IntermediateStructureFile read(InputStream inputStream, ControllerOpener opener)
+			throws IOException {
+		DataInputStream in = new DataInputStream(inputStream);
+
+		if (in.readInt() != MAGIC) {
+			throw new IOException("Not a PIA intermediate file");
+		}
+		int version = in.readInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported PIA intermediate file version: " + version);
+		}
+
+		// open the input files
+		int nrFiles = in.readInt();
+		Map<Integer, DataImportController> inputControllers =
+				new HashMap<Integer, DataImportController>(nrFiles + 1);
+		for (int i = 0; i < nrFiles; i++) {
+			Integer fileID = in.readInt();
+			String controllerType = in.readUTF();
+			String inputFileType = in.readUTF();
+			String inputFileName = in.readUTF();
+			inputControllers.put(fileID, opener.open(fileID, controllerType, inputFileType, inputFileName));
+		}
+
+		// the proteins
+		IntermediateProtein[] proteins = new IntermediateProtein[in.readInt()];
+		for (int i = 0; i < proteins.length; i++) {
+			proteins[i] = getController(in.readInt(), inputControllers).readProtein(in);
+		}
+
+		// the peptides with their PSMs
+		IntermediatePeptide[] peptides = new IntermediatePeptide[in.readInt()];
+		for (int i = 0; i < peptides.length; i++) {
+			peptides[i] = new IntermediatePeptide(in.readUTF());
+
+			int nrPSMs = in.readInt();
+			for (int j = 0; j < nrPSMs; j++) {
+				peptides[i].addPeptideSpectrumMatch(
+						getController(in.readInt(), inputControllers).readPeptideSpectrumMatch(in));
+			}
+		}
+
+		// the groups, children are connected after all groups are read
+		int nrClusters = in.readInt();
+		List<List<IntermediateGroup>> clusters = new ArrayList<List<IntermediateGroup>>(nrClusters);
+		List<IntermediateGroup> groups = new ArrayList<IntermediateGroup>();
+		List<int[]> groupsChildren = new ArrayList<int[]>();
+
+		for (int treeID = 1; treeID <= nrClusters; treeID++) {
+			int nrGroups = in.readInt();
+			List<IntermediateGroup> cluster = new ArrayList<IntermediateGroup>(nrGroups);
+
+			for (int i = 0; i < nrGroups; i++) {
+				IntermediateGroup group = new IntermediateGroup(in.readInt());
+				group.setTreeID(treeID);
+
+				for (int idx : readIndices(in, peptides.length)) {
+					peptides[idx].setGroup(group);
+					group.addPeptide(peptides[idx]);
+				}
+				for (int idx : readIndices(in, proteins.length)) {
+					proteins[idx].setGroup(group);
+					group.addProtein(proteins[idx]);
+				}
+				groupsChildren.add(readIndices(in, -1));
+
+				groups.add(group);
+				cluster.add(group);
+			}
+			clusters.add(cluster);
+		}
+
+		for (int i = 0; i < groups.size(); i++) {
+			IntermediateGroup group = groups.get(i);
+			for (int idx : groupsChildren.get(i)) {
+				if (idx >= groups.size()) {
+					throw new IOException("Corrupted PIA intermediate file, unknown group " + idx);
+				}
+				group.addChild(groups.get(idx));
+				groups.get(idx).addParent(group);
+			}
+		}
+
+		IntermediateStructure structure = new IntermediateStructure();
+		for (List<IntermediateGroup> cluster : clusters) {
+			structure.addCluster(cluster);
+		}
+
+		return new IntermediateStructureFile(inputControllers, structure);
+	}
+
+
+	/**
+	 * Writes an ID of a PSM or protein, which is a String, Integer, Long or null.
+	 *
+	 * @param out
+	 * @param id
+	 * @throws IOException
+	 */
+	public static void writeID(DataOutput out, Comparable id) throws IOException {
+		if (id == null) {
+			out.writeByte(ID_NULL);
+		} else if (id instanceof String) {
+			out.writeByte(ID_STRING);
+			out.writeUTF((String) id);
+		} else if (id instanceof Integer) {
+			out.writeByte(ID_INTEGER);
+			out.writeInt((Integer) id);
+		} else if (id instanceof Long) {
+			out.writeByte(ID_LONG);
+			out.writeLong((Long) id);
+		} else {
+			throw new IOException("Unsupported ID type: " + id.getClass().getName());
+		}
+	}
+
+
+	/**
+	 * Reads an ID written by {@link #writeID(DataOutput, Comparable)}
+	 *
+	 * @param in
+	 * @return
+	 * @throws IOException
+	 */
+	public static Comparable readID(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case ID_NULL:
+			return null;
+		case ID_STRING:
+			return in.readUTF();
+		case ID_INTEGER:
+			return in.readInt();
+		case ID_LONG:
+			return in.readLong();
+		default:
+			throw new IOException("Unknown ID type in PIA intermediate file: " + type);
+		}
+	}
+
+
+	private static Integer getFileID(Comparable controllerID,
+			Map<Comparable, Integer> controllerIDtoFileID) throws IOException {
+		Integer fileID = controllerIDtoFileID.get(controllerID);
+		if (fileID == null) {
+			throw new IOException("No input file for the controller " + controllerID);
+		}
+		return fileID;
+	}
+
+
+	private static DataImportController getController(int fileID,
+			Map<Integer, DataImportController> inputControllers) throws IOException {
+		DataImportController controller = inputControllers.get(fileID);
+		if (controller == null) {
+			throw new IOException("Corrupted PIA intermediate file, unknown file " + fileID);
+		}
+		return controller;
+	}
+
+
+	private static <T> void writeIndices(DataOutput out, Set<T> items, Map<T, Integer> indices)
+			throws IOException {
+		if (items == null) {
+			out.writeInt(0);
+			return;
+		}
+
+		out.writeInt(items.size());
+		for (T item : items) {
+			Integer idx = indices.get(item);
+			if (idx == null) {
+				throw new IOException("The item " + item + " is not part of the structure's clusters");
+			}
+			out.writeInt(idx);
+		}
+	}
+
+
+	/**
+	 * Reads the indices, checking them against the given number of items (if
+	 * not negative).
+	 */
+	private static int[] readIndices(DataInput in, int nrItems) throws IOException {
+		int[] indices = new int[in.readInt()];
+		for (int i = 0; i < indices.length; i++) {
+			indices[i] = in.readInt();
+			if ((indices[i] < 0) || ((nrItems >= 0) && (indices[i] >= nrItems))) {
+				throw new IOException("Corrupted PIA intermediate file, index " + indices[i]);
+			}
+		}
+		return indices;
+	}
+}
@@ -1,6 +1,9 @@
 package uk.ac.ebi.pride.pia.intermediate.prideimpl;
 
+import java.io.DataInput;
+import java.io.DataOutput;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -17,6 +20,7 @@ import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptide;
 import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptideSpectrumMatch;
 import uk.ac.ebi.pride.pia.intermediate.IntermediateProtein;
 import uk.ac.ebi.pride.pia.intermediate.IntermediateStructureCreator;
+import uk.ac.ebi.pride.pia.intermediate.IntermediateStructureFile;
 import uk.ac.ebi.pride.pia.modeller.filter.AbstractFilter;
 import uk.ac.ebi.pride.pia.modeller.filter.FilterUtilities;
 import uk.ac.ebi.pride.pia.modeller.scores.CvScore;
@@ -38,6 +42,9 @@ public class PrideImportController implements DataImportController {
 	/** the input file name of this controller */
 	private String inputFileName;
 	
+	/** the type of the input file */
+	private InputFileType inputFileType;
+	
 	
 	/**
 	 * Creates an import controller for the given file type without any filters
@@ -116,6 +123,7 @@ public class PrideImportController implements DataImportController {
 		
 		if (this.controller != null) {
 			inputFileName = inputFile.getAbsolutePath();
+			inputFileType = fileType;
 			this.filters = (filters == null) ? new ArrayList<AbstractFilter>() : filters;
 			
 			controller.getContentCategories();
@@ -135,6 +143,12 @@ public class PrideImportController implements DataImportController {
 	}
 	
 	
+	@Override
+	public String getInputFileType() {
+		return inputFileType.name();
+	}
+	
+	
 	@Override
 	public void close() {
 		controller.close();
@@ -189,6 +203,52 @@ public class PrideImportController implements DataImportController {
 	}
 	
 	
+	@Override
+	public void writePeptideSpectrumMatch(IntermediatePeptideSpectrumMatch psm, DataOutput out)
+			throws IOException {
+		if (!(psm instanceof PrideIntermediatePeptideSpectrumMatch)) {
+			throw new IOException("The PSM " + psm.getID() + " was not created by a " + getClass().getSimpleName());
+		}
+		
+		PrideIntermediatePeptideSpectrumMatch pridePSM = (PrideIntermediatePeptideSpectrumMatch)psm;
+		IntermediateStructureFile.writeID(out, pridePSM.getProteinID());
+		IntermediateStructureFile.writeID(out, pridePSM.getPeptideID());
+		out.writeUTF(pridePSM.getSpectrumIdentificationID());
+	}
+	
+	
+	@Override
+	public IntermediatePeptideSpectrumMatch readPeptideSpectrumMatch(DataInput in)
+			throws IOException {
+		Comparable proteinID = IntermediateStructureFile.readID(in);
+		Comparable peptideID = IntermediateStructureFile.readID(in);
+		String spectrumIdentificationID = in.readUTF();
+		return new PrideIntermediatePeptideSpectrumMatch(controller, proteinID, peptideID,
+				spectrumIdentificationID);
+	}
+	
+	
+	@Override
+	public void writeProtein(IntermediateProtein protein, DataOutput out)
+			throws IOException {
+		if (!(protein instanceof PrideIntermediateProtein)) {
+			throw new IOException("The protein " + protein.getID() + " was not created by a " + getClass().getSimpleName());
+		}
+		
+		IntermediateStructureFile.writeID(out, ((PrideIntermediateProtein)protein).getProteinID());
+		out.writeUTF(protein.getAccession());
+	}
+	
+	
+	@Override
+	public IntermediateProtein readProtein(DataInput in)
+			throws IOException {
+		Comparable proteinID = IntermediateStructureFile.readID(in);
+		String accession = in.readUTF();
+		return new PrideIntermediateProtein(controller, proteinID, accession);
+	}
+	
+	
 	/**
 	 * Defines the input file type
 	 * @author julian
@@ -55,6 +55,22 @@ public class PrideIntermediatePeptideSpectrumMatch implements IntermediatePeptid
 	}
 	
 	
+	/**
+	 * Constructor for a PSM with known spectrum identification ID, e.g. when
+	 * loaded from an intermediate file.
+	 * 
+	 * @param controller
+	 * @param proteinID
+	 * @param peptideID
+	 * @param spectrumIdentificationID
+	 */
+	public PrideIntermediatePeptideSpectrumMatch(DataAccessController controller,
+			Comparable proteinID, Comparable peptideID, String spectrumIdentificationID) {
+		this(controller, proteinID, peptideID);
+		this.id = getControllerID() + ":" + spectrumIdentificationID;
+	}
+	
+	
 	@Override
 	public String getID() {
 		if (id == null) {
@@ -70,6 +86,37 @@ public class PrideIntermediatePeptideSpectrumMatch implements IntermediatePeptid
 	}
 	
 	
+	/**
+	 * Getter for the protein ID used by the PRIDE dataAccessController
+	 * 
+	 * @return
+	 */
+	public Comparable getProteinID() {
+		return proteinID;
+	}
+	
+	
+	/**
+	 * Getter for the peptide ID used by the PRIDE dataAccessController
+	 * 
+	 * @return
+	 */
+	public Comparable getPeptideID() {
+		return peptideID;
+	}
+	
+	
+	/**
+	 * Getter for the ID of the spectrum identification, i.e. the ID without
+	 * the controller's ID.
+	 * 
+	 * @return
+	 */
+	public String getSpectrumIdentificationID() {
+		return getID().substring(getControllerID().length() + 1);
+	}
+	
+	
 	@Override
 	public Double getScore(String scoreAccession) {
 		if (CvScore.PSI_PSM_LEVEL_FDRSCORE.getAccession().equals(scoreAccession)) {
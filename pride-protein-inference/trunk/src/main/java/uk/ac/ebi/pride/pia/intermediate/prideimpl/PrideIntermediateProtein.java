@@ -39,12 +39,44 @@ public class PrideIntermediateProtein implements IntermediateProtein {
 	}
 	
 	
+	/**
+	 * Constructor for a protein with known accession, e.g. when loaded from
+	 * an intermediate file.
+	 * 
+	 * @param controller
+	 * @param proteinID
+	 * @param accession
+	 */
+	public PrideIntermediateProtein(DataAccessController controller,
+			Comparable proteinID, String accession) {
+		this.controller = controller;
+		this.proteinID = proteinID;
+		this.accession = accession;
+	}
+	
+	
 	@Override
 	public Comparable getID() {
 		return accession;
 	}
 	
 	
+	@Override
+	public String getControllerID() {
+		return controller.getUid();
+	}
+	
+	
+	/**
+	 * Getter for the protein ID used by the PRIDE dataAccessController
+	 * 
+	 * @return
+	 */
+	public Comparable getProteinID() {
+		return proteinID;
+	}
+	
+	
 	@Override
 	public String getAccession() {
 		return accession;
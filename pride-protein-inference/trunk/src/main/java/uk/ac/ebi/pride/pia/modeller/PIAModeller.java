@@ -1,6 +1,7 @@
 package uk.ac.ebi.pride.pia.modeller;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -11,6 +12,7 @@ import uk.ac.ebi.pride.pia.intermediate.DataImportController;
 import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptideSpectrumMatch;
 import uk.ac.ebi.pride.pia.intermediate.IntermediateStructure;
 import uk.ac.ebi.pride.pia.intermediate.IntermediateStructureCreator;
+import uk.ac.ebi.pride.pia.intermediate.IntermediateStructureFile;
 import uk.ac.ebi.pride.pia.intermediate.prideimpl.PrideImportController;
 import uk.ac.ebi.pride.pia.modeller.filter.AbstractFilter;
 import uk.ac.ebi.pride.pia.modeller.psm.PSMModeller;
@@ -62,16 +64,60 @@ public class PIAModeller {
 	
 	
 	/**
-	 * Creates a modeller which loads the intermediate structure from a file
+	 * Creates a modeller which loads the intermediate structure from a file,
+	 * written by {@link #saveIntermediateStructure(String)}. The input files
+	 * are opened again, but not imported.
+	 * 
+	 * @throws IOException if the file cannot be loaded
 	 */
-	public PIAModeller(String pathname) {
+	public PIAModeller(String pathname) throws IOException {
 		// the struct creator is not needed for a loaded file
 		structCreator = null;
 		
-		// TODO: load the structure
-		inputControllers = null;
-		psmModeller = null;
-		intermediateStructure = null;
+		logger.debug("loading intermediate structure from " + pathname);
+		IntermediateStructureFile structureFile = IntermediateStructureFile.read(new File(pathname),
+				new IntermediateStructureFile.ControllerOpener() {
+					@Override
+					public DataImportController open(Integer fileID, String controllerType,
+							String inputFileType, String inputFileName) throws IOException {
+						return openController(controllerType, inputFileType, inputFileName);
+					}
+				});
+		
+		inputControllers = structureFile.getInputControllers();
+		intermediateStructure = structureFile.getIntermediateStructure();
+		
+		logger.debug("initializing PSM modeller");
+		initializePSMModeller();
+		
+		logger.debug("loading intermediate structure done");
+	}
+	
+	
+	/**
+	 * Opens the controller of an input file again, using the controller type
+	 * and file type stored in the intermediate file.
+	 * 
+	 * @param controllerType the class name of the controller
+	 * @param inputFileType the type of the input file
+	 * @param inputFileName the input file
+	 * @return
+	 * @throws IOException if the controller or file type is not supported
+	 */
+	private static DataImportController openController(String controllerType,
+			String inputFileType, String inputFileName) throws IOException {
+		if (PrideImportController.class.getName().equals(controllerType)) {
+			PrideImportController.InputFileType fileType;
+			try {
+				fileType = PrideImportController.InputFileType.valueOf(inputFileType);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Unsupported file type " + inputFileType + " of " + inputFileName);
+			}
+			return new PrideImportController(new File(inputFileName), fileType);
+		}
+		// TODO: add the import from other controllers
+		
+		throw new IOException("Unsupported controller " + controllerType + " for " + inputFileName);
 	}
 	
 	
@@ -165,6 +211,24 @@ public class PIAModeller {
 	}
 	
 	
+	/**
+	 * Saves the intermediate structure to the given file, which can be loaded
+	 * by {@link #PIAModeller(String)}. The input files must not be moved.
+	 * 
+	 * @param pathname
+	 * @throws IOException
+	 */
+	public void saveIntermediateStructure(String pathname) throws IOException {
+		if (intermediateStructure == null) {
+			logger.error("There is no intermediate structure to save!");
+			return;
+		}
+		
+		logger.debug("saving intermediate structure to " + pathname);
+		IntermediateStructureFile.write(new File(pathname), intermediateStructure, inputControllers);
+	}
+	
+	
 	/**
 	 * This method initializes the PSM modeller with the PSMs. The method must
 	 * be called after the intermediate structure is built or loaded from file.
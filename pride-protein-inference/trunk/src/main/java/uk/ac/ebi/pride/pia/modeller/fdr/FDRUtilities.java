@@ -1,9 +1,12 @@
 package uk.ac.ebi.pride.pia.modeller.fdr;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.ListIterator;
+
+import org.apache.log4j.Logger;
 
 import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptideSpectrumMatch;
 import uk.ac.ebi.pride.pia.modeller.filter.psm.PSMAccessionsFilter;
@@ -18,79 +21,155 @@ import uk.ac.ebi.pride.pia.modeller.scores.ScoreUtilities;
  */
 public class FDRUtilities {
 	
+	/** logger for this class */
+	private static final Logger logger = Logger.getLogger(FDRUtilities.class);
+	
 	/**
-	 * Calculate the FDR on the given score sorted List of
+	 * Calculate the FDR and q-values on the given score sorted List of
 	 * {@link FDRComputableByDecoys} objects.
 	 * 
 	 * The item with the best score must be the first in the list, the worst
 	 * score the last.
 	 * 
-	 * @param reportItems
+	 * @param items
+	 * @param scoreAccession
 	 */
 	public static <T extends FDRComputableByDecoys> void calculateFDR(List<T> items, String scoreAccession) {
-		double fdr;
-		
-		Double rankScore = Double.NaN;
-		List<T> rankItems = new ArrayList<T>();
+		// a single list is not merged, so the score direction is not needed
+		calculateFDRAndQValues(new RankedItems<T>(Collections.singletonList(items), scoreAccession, true),
+				scoreAccession);
+	}
+	
+	
+	/**
+	 * Calculate the FDR, q-values and FDR scores of the items in the given
+	 * lists, ranked all together by the score. Each list must be sorted by the
+	 * score, the best score first (see
+	 * {@link #sortByScore(List, String, boolean)}). The lists are merged while
+	 * iterating, no copy of the items is created.
+	 * <p>
+	 * For the FDR of a single list, pass a singleton collection.
+	 * 
+	 * @param sortedLists the score sorted lists
+	 * @param scoreAccession the accession of the score used for FDR calculation
+	 * @param higherScoreBetter whether a higher score is better
+	 */
+	public static <T extends FDRComputableByDecoys> void calculateFDR(
+			Collection<? extends List<T>> sortedLists, String scoreAccession,
+			boolean higherScoreBetter) {
+		RankedItems<T> rankedItems =
+				new RankedItems<T>(sortedLists, scoreAccession, higherScoreBetter);
 		
+		calculateFDRAndQValues(rankedItems, scoreAccession);
+		calculateFDRScore(rankedItems, scoreAccession, higherScoreBetter);
+	}
+	
+	
+	/**
+	 * Sorts the list in place by the given score, the best score first. Items
+	 * without the score or with a NaN score are sorted to the end.
+	 * 
+	 * @param items
+	 * @param scoreAccession
+	 * @param higherScoreBetter whether a higher score is better
+	 */
+	public static <T extends FDRComputableByDecoys> void sortByScore(List<T> items,
+			final String scoreAccession, final boolean higherScoreBetter) {
+		Collections.sort(items, new Comparator<T>() {
+			@Override
+			public int compare(T o1, T o2) {
+				return compareScores(o1.getScore(scoreAccession),
+						o2.getScore(scoreAccession), higherScoreBetter);
+			}
+		});
+	}
+	
+	
+	/**
+	 * Compares two scores, the better score first. Missing scores, i.e. null
+	 * and NaN, are equal to each other and worse than any other score.
+	 * <p>
+	 * Unlike {@link ScoreUtilities#compareValues(Double, Double, boolean)},
+	 * which considers a NaN worse than another NaN, this is a consistent
+	 * ordering as needed for sorting.
+	 * 
+	 * @param score1
+	 * @param score2
+	 * @param higherScoreBetter whether a higher score is better
+	 * @return an int smaller 0, if score1 is better than score2, 0 if both
+	 * are equal, bigger 0 if score2 is better than score1
+	 */
+	static int compareScores(Double score1, Double score2, boolean higherScoreBetter) {
+		boolean missing1 = isMissing(score1);
+		boolean missing2 = isMissing(score2);
+		if (missing1 || missing2) {
+			if (missing1 == missing2) {
+				return 0;
+			}
+			return missing1 ? 1 : -1;
+		}
+		return ScoreUtilities.compareValues(score1, score2, higherScoreBetter);
+	}
+	
+	
+	/**
+	 * Sets the FDR and q-value of the ranked items.
+	 * <p>
+	 * The items are visited from the worst to the best score: the FDR of a rank
+	 * (i.e. all items with the same score) is given by the decoys and targets
+	 * which are not worse than the rank, which is known as soon as the first
+	 * item of the rank is visited. The q-value is the minimal FDR of all items
+	 * visited so far.
+	 */
+	private static <T extends FDRComputableByDecoys> void calculateFDRAndQValues(
+			RankedItems<T> rankedItems, String scoreAccession) {
 		int nrTargets = 0;
 		int nrDecoys = 0;
 		
-		for (T item : items) {
-			if (!rankScore.equals(item.getScore(scoreAccession))) {
+		for (T item : rankedItems) {
+			if (isDecoy(item)) {
+				nrDecoys++;
+			} else {
+				nrTargets++;
+			}
+		}
+		
+		Iterator<T> it = rankedItems.descendingIterator();
+		Double rankScore = null;
+		boolean firstItem = true;
+		double fdr = Double.POSITIVE_INFINITY;
+		double qValue = Double.POSITIVE_INFINITY;
+		
+		while (it.hasNext()) {
+			T item = it.next();
+			Double score = item.getScore(scoreAccession);
+			
+			if (firstItem || !sameScore(rankScore, score)) {
 				// this is a new rank, calculate FDR
-				if (!rankScore.equals(Double.NaN) && (nrTargets < 1)) {
+				if (nrTargets < 1) {
 					// only decoys until now -> set FDR to infinity
 					fdr = Double.POSITIVE_INFINITY;
 				} else {
 					fdr = (double)nrDecoys / nrTargets;
 				}
 				
-				for (T rankItem : rankItems) {
-					rankItem.setFDR(fdr);
+				if (fdr < qValue) {
+					qValue = fdr;
 				}
 				
-				rankScore = item.getScore(scoreAccession);
-				rankItems.clear();
-			}
-			
-			// check for decoy
-			if (item.getIsDecoy()) {
-				nrDecoys++;
-			} else {
-				nrTargets++;
+				rankScore = score;
+				firstItem = false;
 			}
 			
-			rankItems.add(item);
-		}
-		
-		// calculate the last rank
-		if (nrTargets < 1) {
-			// only decoys until now -> set FDR to infinity
-			fdr = Double.POSITIVE_INFINITY;
-		} else {
-			fdr = (double)nrDecoys / nrTargets;
-		}
-		
-		for (T rankItem : rankItems) {
-			rankItem.setFDR(fdr);
-		}
-		
-		
-		// at last calculate the q-values
-		// for this, iterate backwards through the list
-		ListIterator<T> it  = items.listIterator(items.size());
-		Double qValue = Double.NaN;
-		
-		while (it.hasPrevious()) {
-			T item = it.previous();
+			item.setFDR(fdr);
+			item.setQValue(qValue);
 			
-			if ((qValue.compareTo(Double.NaN) == 0) ||
-					(item.getFDR() < qValue)) {
-				qValue = item.getFDR();
+			// the item is not counted for the better ranks
+			if (isDecoy(item)) {
+				nrDecoys--;
+			} else {
+				nrTargets--;
 			}
-			
-			item.setQValue(qValue);
 		}
 	}
 	
@@ -105,55 +184,64 @@ public class FDRUtilities {
 	 */
 	public static <T extends FDRComputableByDecoys> void calculateFDRScore(
 			List<T> items, String scoreAccession, boolean oboLookup) {
-		if (items.size() < 2) {
-			// no calculation for empty list possible
-			return;
-		}
-		
-		// get the stepPoints of the q-values
-		List<Integer> stepPoints = new ArrayList<Integer>();
-		ListIterator<T> it = items.listIterator(items.size());
-		double qValue = Double.NaN;
+		boolean higherScoreBetter = ScoreUtilities.isHigherScoreBetter(scoreAccession, oboLookup);
+		calculateFDRScore(
+				new RankedItems<T>(Collections.singletonList(items), scoreAccession, higherScoreBetter),
+				scoreAccession, higherScoreBetter);
+	}
+	
+	
+	/**
+	 * Calculates the FDR score of the ranked items, which must have q-values.
+	 * <p>
+	 * The FDR score is interpolated linearly between the step points, i.e. the
+	 * items whose q-value is higher than the one of the preceding item. The
+	 * step points are searched by a second iterator running ahead of the one
+	 * setting the FDR scores, so the items are visited only a constant number
+	 * of times.
+	 */
+	private static <T extends FDRComputableByDecoys> void calculateFDRScore(
+			RankedItems<T> rankedItems, String scoreAccession, boolean higherScoreBetter) {
+		int nrItems = 0;
 		int nrDecoys = 0;
 		int nrTargets = 0;
+		double firstScore = Double.NaN;
+		double lastScore = Double.NaN;
 		
-		while (it.hasPrevious()) {
-			T item = it.previous();
-			
-			if ((Double.compare(qValue, Double.NaN) != 0) &&
-					(item.getQValue() < qValue)) {
-				stepPoints.add(it.nextIndex()+1);
+		for (T item : rankedItems) {
+			if (nrItems == 0) {
+				firstScore = getScore(item, scoreAccession);
 			}
+			lastScore = getScore(item, scoreAccession);
+			nrItems++;
 			
-			qValue = item.getQValue();
-			
-			if (item.getIsDecoy()) {
+			if (isDecoy(item)) {
 				nrDecoys++;
 			} else {
 				nrTargets++;
 			}
 		}
 		
+		if (nrItems < 2) {
+			// no calculation for empty list possible
+			return;
+		}
+		
+		StepPoints<T> steps = new StepPoints<T>(rankedItems.iterator(), scoreAccession);
+		boolean hasStep = steps.next();
+		
 		// calculate the FDR scores
 		double g;
 		double qLast, qNext;
 		double sLast, sNext;
+		int nextStep;
 		
-		Collections.sort(stepPoints);
-		ListIterator<Integer> stepIterator = stepPoints.listIterator();
-		Integer nextStep;
-		
-		if (ScoreUtilities.isHigherScoreBetter(scoreAccession, oboLookup)) {
+		if (higherScoreBetter) {
 			// get the score of the first entry + (difference between first entry and first decoy) / (index of first decoy)  (to avoid FDRScore = 0)
-			if (stepPoints.size() > 0) {
-				sLast = items.get(0).getScore(scoreAccession) +
-						(items.get(0).getScore(scoreAccession) -
-								items.get(stepPoints.get(0)).getScore(scoreAccession)) / stepPoints.get(0);
-				
+			if (hasStep) {
+				sLast = firstScore + (firstScore - steps.score) / steps.index;
 			} else {
-				sLast = items.get(0).getScore(scoreAccession) + 
-						(items.get(0).getScore(scoreAccession) -
-								items.get(items.size()-1).getScore(scoreAccession)) / items.size()-1;
+				sLast = firstScore + (firstScore - lastScore) / (nrItems - 1);
 			}
 		} else {
 			// or 0, if not higherscorebetter
@@ -161,44 +249,135 @@ public class FDRUtilities {
 		}
 		qLast = 0;
 		
-		if (stepIterator.hasNext()) {
-			nextStep = stepIterator.next();
-			
-			sNext = items.get(nextStep).getScore(scoreAccession);
-			qNext = items.get(nextStep).getQValue();
+		if (hasStep) {
+			nextStep = steps.index;
+			sNext = steps.score;
+			qNext = steps.qValue;
 		} else {
 			// we add an artificial decoy to the end...
-			nextStep = items.size();
-			
-			sNext = items.get(items.size()-1).getScore(scoreAccession);
+			nextStep = nrItems;
+			sNext = lastScore;
 			qNext = (nrTargets == 0) ? Double.POSITIVE_INFINITY : (double)(nrDecoys + 1) / nrTargets;
 		}
 		
 		g = (qNext-qLast) / (sNext-sLast);
 		
-		it = items.listIterator();
-		while (it.hasNext()) {
-			T item = it.next();
-			
-			if (nextStep == it.nextIndex()-1) {
-				if (stepIterator.hasNext()) {
+		int idx = 0;
+		for (T item : rankedItems) {
+			if (idx == nextStep) {
+				if (steps.next()) {
 					sLast = sNext;
 					qLast = qNext;
 					
-					nextStep = stepIterator.next();
-					
-					sNext = items.get(nextStep).getScore(scoreAccession);
-					qNext = items.get(nextStep).getQValue();
+					nextStep = steps.index;
+					sNext = steps.score;
+					qNext = steps.qValue;
 				}
 				
 				g = (qNext-qLast) / (sNext-sLast);
 			}
 			
-			item.setFDRScore((item.getScore(scoreAccession)-sLast)*g + qLast);
+			item.setFDRScore((getScore(item, scoreAccession)-sLast)*g + qLast);
+			idx++;
+		}
+		
+		logger.debug("decoys: " + nrDecoys + " targets: " + nrTargets);
+	}
+	
+	
+	/**
+	 * Runs through the ranked items and stops at each item, whose q-value is
+	 * higher than the one of the preceding item.
+	 */
+	private static class StepPoints<T extends FDRComputableByDecoys> {
+		
+		private Iterator<T> it;
+		
+		private String scoreAccession;
+		
+		/** index of the next item of the iterator */
+		private int nextIdx;
+		
+		/** q-value of the last visited item */
+		private Double lastQValue;
+		
+		/** index of the current step point */
+		private int index;
+		
+		/** score of the current step point */
+		private double score;
+		
+		/** q-value of the current step point */
+		private double qValue;
+		
+		
+		private StepPoints(Iterator<T> it, String scoreAccession) {
+			this.it = it;
+			this.scoreAccession = scoreAccession;
+			this.nextIdx = 0;
+			this.lastQValue = null;
 		}
 		
 		
-		System.err.println("decoys: " + nrDecoys + " targets: " + nrTargets);
+		/**
+		 * Moves to the next step point, returns false, if there is none.
+		 */
+		private boolean next() {
+			while (it.hasNext()) {
+				T item = it.next();
+				Double itemQValue = item.getQValue();
+				boolean isStep = (lastQValue != null) && (itemQValue != null) &&
+						(lastQValue < itemQValue);
+				
+				lastQValue = itemQValue;
+				nextIdx++;
+				
+				if (isStep) {
+					index = nextIdx - 1;
+					score = getScore(item, scoreAccession);
+					qValue = itemQValue;
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+	
+	
+	/**
+	 * Whether the two scores belong to the same rank, all missing scores
+	 * belong to the last rank.
+	 */
+	private static boolean sameScore(Double score1, Double score2) {
+		if (isMissing(score1)) {
+			return isMissing(score2);
+		}
+		return score1.equals(score2);
+	}
+	
+	
+	/**
+	 * Whether the score is null or NaN.
+	 */
+	private static boolean isMissing(Double score) {
+		return (score == null) || score.isNaN();
+	}
+	
+	
+	/**
+	 * Returns the score of the item, NaN if it has none.
+	 */
+	private static double getScore(FDRComputableByDecoys item, String scoreAccession) {
+		Double score = item.getScore(scoreAccession);
+		return (score == null) ? Double.NaN : score;
+	}
+	
+	
+	/**
+	 * Whether the item is a decoy, items with unknown decoy state count as targets.
+	 */
+	private static boolean isDecoy(FDRComputableByDecoys item) {
+		return Boolean.TRUE.equals(item.getIsDecoy());
 	}
 	
 	
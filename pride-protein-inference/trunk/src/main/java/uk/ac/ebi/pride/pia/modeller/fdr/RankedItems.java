@@ -0,0 +1,174 @@
+package uk.ac.ebi.pride.pia.modeller.fdr;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+
+/**
+ * A view on several lists of {@link FDRComputableByDecoys}, each sorted by the
+ * same score (best first), which iterates over all items ranked together.
+ * <p>
+ * The lists are merged on the fly, no items are copied. Iterating is linear in
+ * the number of items for a single list and needs log(number of lists)
+ * comparisons per item otherwise.
+ */
+class RankedItems<T extends FDRComputableByDecoys> implements Iterable<T> {
+
+	/** the sorted lists */
+	private Collection<? extends List<T>> sortedLists;
+
+	/** the accession of the score, by which the lists are sorted */
+	private String scoreAccession;
+
+	/** whether a higher score is better */
+	private boolean higherScoreBetter;
+
+
+	public RankedItems(Collection<? extends List<T>> sortedLists,
+			String scoreAccession, boolean higherScoreBetter) {
+		this.sortedLists = sortedLists;
+		this.scoreAccession = scoreAccession;
+		this.higherScoreBetter = higherScoreBetter;
+	}
+
+
+	/**
+	 * Iterates over the items, the best score first.
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return new MergeIterator(false);
+	}
+
+
+	/**
+	 * Iterates over the items, the worst score first.
+	 */
+	public Iterator<T> descendingIterator() {
+		return new MergeIterator(true);
+	}
+
+
+	/**
+	 * The current position in one of the lists.
+	 */
+	private class Cursor implements Comparable<Cursor> {
+
+		/** the iterator over the list */
+		private ListIterator<T> it;
+
+		/** the index of the list, to break ties */
+		private int listIdx;
+
+		/** whether the list is iterated backwards */
+		private boolean descending;
+
+		/** the current item */
+		private T item;
+
+		/** the score of the current item */
+		private Double score;
+
+
+		private Cursor(List<T> list, int listIdx, boolean descending) {
+			this.it = descending ? list.listIterator(list.size()) : list.listIterator();
+			this.listIdx = listIdx;
+			this.descending = descending;
+		}
+
+
+		/**
+		 * Moves the cursor to the next item, returns false if there is none.
+		 */
+		private boolean advance() {
+			if (descending ? it.hasPrevious() : it.hasNext()) {
+				item = descending ? it.previous() : it.next();
+				score = item.getScore(scoreAccession);
+				return true;
+			}
+			item = null;
+			score = null;
+			return false;
+		}
+
+
+		@Override
+		public int compareTo(Cursor o) {
+			int cmp = FDRUtilities.compareScores(score, o.score, higherScoreBetter);
+			if (cmp == 0) {
+				cmp = listIdx - o.listIdx;
+			}
+			return descending ? -cmp : cmp;
+		}
+	}
+
+
+	/**
+	 * Merges the cursors of all lists. A single list needs no merging.
+	 */
+	private class MergeIterator implements Iterator<T> {
+
+		/** the cursor, if only one list is given */
+		private Cursor single;
+
+		/** the cursors of the lists, if more than one list is given */
+		private PriorityQueue<Cursor> cursors;
+
+
+		private MergeIterator(boolean descending) {
+			List<Cursor> listCursors = new ArrayList<Cursor>(sortedLists.size());
+			int listIdx = 0;
+			for (List<T> list : sortedLists) {
+				Cursor cursor = new Cursor(list, listIdx++, descending);
+				if (cursor.advance()) {
+					listCursors.add(cursor);
+				}
+			}
+
+			if (listCursors.size() == 1) {
+				single = listCursors.get(0);
+			} else {
+				cursors = new PriorityQueue<Cursor>(Math.max(1, listCursors.size()));
+				cursors.addAll(listCursors);
+			}
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return (single != null) ? (single.item != null) : !cursors.isEmpty();
+		}
+
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			if (single != null) {
+				T item = single.item;
+				single.advance();
+				return item;
+			}
+
+			Cursor cursor = cursors.poll();
+			T item = cursor.item;
+			if (cursor.advance()) {
+				cursors.add(cursor);
+			}
+			return item;
+		}
+
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
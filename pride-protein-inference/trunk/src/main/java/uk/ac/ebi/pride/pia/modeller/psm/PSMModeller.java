@@ -1,6 +1,7 @@
 package uk.ac.ebi.pride.pia.modeller.psm;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -10,7 +11,11 @@ import java.util.Set;
 import org.apache.log4j.Logger;
 
 import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptideSpectrumMatch;
+import uk.ac.ebi.pride.pia.modeller.fdr.FDRUtilities;
+import uk.ac.ebi.pride.pia.modeller.filter.FilterComparator;
+import uk.ac.ebi.pride.pia.modeller.filter.psm.PSMAccessionsFilter;
 import uk.ac.ebi.pride.pia.modeller.scores.CvScore;
+import uk.ac.ebi.pride.pia.modeller.scores.ScoreUtilities;
 import uk.ac.ebi.pride.term.CvTermReference;
 
 
@@ -35,6 +40,15 @@ public class PSMModeller {
 	/** mapping from the fileIDs to the score accessions used for FDR calculation */
 	private Map<Integer, String> fileFdrScoreAccessions;
 	
+	/** mapping from the fileIDs to the filters marking the decoys, if not set the decoy state of the PSMs is used */
+	private Map<Integer, PSMAccessionsFilter> fileDecoyFilters;
+	
+	/** the score directions set explicitly, overriding the known ones */
+	private Map<String, Boolean> scoreHigherScoreBetter;
+	
+	/** whether the PSI-MS obo should be searched for unknown scores */
+	private boolean oboLookup;
+	
 	
 	
 	public PSMModeller(Integer nrFiles) {
@@ -42,6 +56,9 @@ public class PSMModeller {
 				new HashMap<Integer, List<IntermediatePeptideSpectrumMatch>>(nrFiles + 1);
 		fileScoreAccessions = new HashMap<Integer, Set<String>>(nrFiles + 1);
 		fileFdrScoreAccessions = new HashMap<Integer, String>(nrFiles + 1);
+		fileDecoyFilters = new HashMap<Integer, PSMAccessionsFilter>(nrFiles + 1);
+		scoreHigherScoreBetter = new HashMap<String, Boolean>();
+		oboLookup = false;
 	}
 	
 	
@@ -133,12 +150,162 @@ public class PSMModeller {
 	}
 	
 	
+	/**
+	 * Sets the filter which marks the decoys of the file given by fileID
+	 * before the FDR is calculated. If no filter is set, the decoy state given
+	 * by the PSMs themselves is used.
+	 * 
+	 * @param fileID
+	 * @param decoyFilter the filter, or null to use the PSMs' decoy state
+	 */
+	public void setDecoyFilter(Integer fileID, PSMAccessionsFilter decoyFilter) {
+		if (decoyFilter == null) {
+			fileDecoyFilters.remove(fileID);
+		} else {
+			fileDecoyFilters.put(fileID, decoyFilter);
+		}
+	}
+	
+	
+	/**
+	 * Marks all PSMs of the file given by fileID as decoys, which have a
+	 * protein accession matching the given regular expression.
+	 * 
+	 * @param fileID
+	 * @param pattern regular expression of the decoy accessions, e.g. "Rnd.*"
+	 */
+	public void setDecoyPattern(Integer fileID, String pattern) {
+		setDecoyFilter(fileID,
+				new PSMAccessionsFilter(FilterComparator.regex_only, pattern, false));
+	}
+	
+	
+	/**
+	 * Getter for the decoy filter of the file given by fileID.
+	 * 
+	 * @param fileID
+	 * @return the filter or null, if the PSMs' decoy state is used
+	 */
+	public PSMAccessionsFilter getDecoyFilter(Integer fileID) {
+		return fileDecoyFilters.get(fileID);
+	}
+	
+	
+	/**
+	 * Sets explicitly whether a higher value of the given score is better,
+	 * e.g. for scores which are not hard-coded.
+	 * 
+	 * @param scoreAccession
+	 * @param higherScoreBetter
+	 */
+	public void setHigherScoreBetter(String scoreAccession, boolean higherScoreBetter) {
+		scoreHigherScoreBetter.put(scoreAccession, higherScoreBetter);
+	}
+	
+	
+	/**
+	 * Returns whether a higher value of the given score is better. If it was
+	 * not set explicitly, the known scores are used.
+	 * 
+	 * @param scoreAccession
+	 */
+	public boolean isHigherScoreBetter(String scoreAccession) {
+		Boolean higherScoreBetter = scoreHigherScoreBetter.get(scoreAccession);
+		if (higherScoreBetter != null) {
+			return higherScoreBetter;
+		}
+		return ScoreUtilities.isHigherScoreBetter(scoreAccession, oboLookup);
+	}
+	
+	
+	/**
+	 * Sets whether the PSI-MS obo should be searched for the score direction
+	 * of unknown scores.
+	 * 
+	 * @param oboLookup
+	 */
+	public void setOboLookup(boolean oboLookup) {
+		this.oboLookup = oboLookup;
+	}
+	
+	
+	/**
+	 * Calculates the FDR, q-values and FDR scores for each file separately.
+	 */
 	public void calculateAllFDR() {
-		
+		for (Integer fileID : filePSMs.keySet()) {
+			calculateFDR(fileID);
+		}
 	}
 	
 	
+	/**
+	 * Calculates the FDR, q-values and FDR scores of the PSMs of the file
+	 * given by fileID, using the file's FDR score (or its main score, if none
+	 * is set). The PSMs of the file are sorted by this score afterwards.
+	 * 
+	 * @param fileID
+	 */
 	public void calculateFDR(Integer fileID) {
+		List<IntermediatePeptideSpectrumMatch> psms = filePSMs.get(fileID);
+		if (psms == null) {
+			logger.warn("no PSMs for file " + fileID);
+			return;
+		}
+		
+		String scoreAccession = getFdrScoreAccession(fileID);
+		if (scoreAccession == null) {
+			scoreAccession = getFilesMainScoreAccession(fileID);
+		}
+		if (scoreAccession == null) {
+			logger.error("no score for the FDR calculation of file " + fileID);
+			return;
+		}
+		
+		boolean higherScoreBetter = isHigherScoreBetter(scoreAccession);
+		prepareFDR(fileID, psms, scoreAccession, higherScoreBetter);
+		
+		FDRUtilities.calculateFDR(Collections.singletonList(psms),
+				scoreAccession, higherScoreBetter);
+		logger.debug("FDR calculated for file " + fileID + " using " + scoreAccession);
+	}
+	
+	
+	/**
+	 * Calculates the FDR, q-values and FDR scores of the PSMs of all files
+	 * together, ranked by the given score. This overwrites the values of the
+	 * FDR calculation for the single files.
+	 * <p>
+	 * The PSMs of each file are sorted by the score and merged while
+	 * calculating, so no combined list of all PSMs is created.
+	 * 
+	 * @param scoreAccession
+	 */
+	public void calculateCombinedFDR(String scoreAccession) {
+		boolean higherScoreBetter = isHigherScoreBetter(scoreAccession);
+		
+		for (Map.Entry<Integer, List<IntermediatePeptideSpectrumMatch>> psmsIt
+				: filePSMs.entrySet()) {
+			prepareFDR(psmsIt.getKey(), psmsIt.getValue(), scoreAccession, higherScoreBetter);
+		}
+		
+		FDRUtilities.calculateFDR(filePSMs.values(), scoreAccession, higherScoreBetter);
+		logger.debug("combined FDR calculated using " + scoreAccession);
+	}
+	
+	
+	/**
+	 * Marks the decoys of the file, if a decoy filter is set, and sorts the
+	 * PSMs by the given score.
+	 */
+	private void prepareFDR(Integer fileID, List<IntermediatePeptideSpectrumMatch> psms,
+			String scoreAccession, boolean higherScoreBetter) {
+		PSMAccessionsFilter decoyFilter = fileDecoyFilters.get(fileID);
+		if (decoyFilter != null) {
+			int nrDecoys = FDRUtilities.markDecoys(psms, decoyFilter);
+			logger.debug("decoys marked for file " + fileID + " (" + nrDecoys + "/" + psms.size() + ")");
+		}
 		
+		FDRUtilities.sortByScore(psms, scoreAccession, higherScoreBetter);
 	}
 }
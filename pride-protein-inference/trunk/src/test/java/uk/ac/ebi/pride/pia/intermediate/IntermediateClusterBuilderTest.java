@@ -0,0 +1,138 @@
+package uk.ac.ebi.pride.pia.intermediate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Compares the parallel clustering with a sequential breadth-first traversal
+ * on synthetic peptide-protein graphs.
+ */
+public class IntermediateClusterBuilderTest {
+
+	@Test
+	public void testSmallGraph() throws Exception {
+		Map<Comparable, Set<Comparable>> proteinsToPeptides = new HashMap<Comparable, Set<Comparable>>();
+		Map<Comparable, Set<Comparable>> peptidesToProteins = new HashMap<Comparable, Set<Comparable>>();
+
+		// two clusters: {P1, P2 | A, B, C} and {P3 | D}
+		connect("A", "P1", proteinsToPeptides, peptidesToProteins);
+		connect("B", "P1", proteinsToPeptides, peptidesToProteins);
+		connect("B", "P2", proteinsToPeptides, peptidesToProteins);
+		connect("C", "P2", proteinsToPeptides, peptidesToProteins);
+		connect("D", "P3", proteinsToPeptides, peptidesToProteins);
+
+		List<Map<Comparable, Set<Comparable>>> clusters =
+				new IntermediateClusterBuilder(proteinsToPeptides, peptidesToProteins, 4).buildClusterList();
+
+		assertEquals(2, clusters.size());
+		assertEquals(buildReferenceClusterList(proteinsToPeptides, peptidesToProteins), clusters);
+
+		Set<Comparable> sizes = new HashSet<Comparable>();
+		for (Map<Comparable, Set<Comparable>> cluster : clusters) {
+			sizes.add(cluster.size());
+		}
+		assertTrue(sizes.contains(3));
+		assertTrue(sizes.contains(1));
+	}
+
+	@Test
+	public void testSyntheticGraphs() throws Exception {
+		Random random = new Random(42);
+		// sparse graphs give many clusters, dense graphs give a few large clusters
+		int[][] settings = {{100, 300, 1}, {5000, 20000, 1}, {5000, 20000, 3}, {20000, 60000, 2}};
+
+		for (int[] setting : settings) {
+			Map<Comparable, Set<Comparable>> proteinsToPeptides = new HashMap<Comparable, Set<Comparable>>();
+			Map<Comparable, Set<Comparable>> peptidesToProteins = new HashMap<Comparable, Set<Comparable>>();
+
+			int nrProteins = setting[0];
+			int nrPeptides = setting[1];
+			int maxSharedProteins = setting[2];
+			for (int peptide = 0; peptide < nrPeptides; peptide++) {
+				int nrConnections = 1 + random.nextInt(maxSharedProteins);
+				for (int i = 0; i < nrConnections; i++) {
+					connect("PEP_" + peptide, "PROT_" + random.nextInt(nrProteins),
+							proteinsToPeptides, peptidesToProteins);
+				}
+			}
+
+			List<Map<Comparable, Set<Comparable>>> reference =
+					buildReferenceClusterList(proteinsToPeptides, peptidesToProteins);
+			for (int threads = 1; threads <= 8; threads *= 2) {
+				List<Map<Comparable, Set<Comparable>>> clusters =
+						new IntermediateClusterBuilder(proteinsToPeptides, peptidesToProteins, threads).buildClusterList();
+				assertEquals(reference, clusters);
+			}
+		}
+	}
+
+	private static void connect(Comparable peptideID, Comparable proteinID,
+			Map<Comparable, Set<Comparable>> proteinsToPeptides,
+			Map<Comparable, Set<Comparable>> peptidesToProteins) {
+		Set<Comparable> protIDs = peptidesToProteins.get(peptideID);
+		if (protIDs == null) {
+			protIDs = new HashSet<Comparable>();
+			peptidesToProteins.put(peptideID, protIDs);
+		}
+		protIDs.add(proteinID);
+
+		Set<Comparable> pepIDs = proteinsToPeptides.get(proteinID);
+		if (pepIDs == null) {
+			pepIDs = new HashSet<Comparable>();
+			proteinsToPeptides.put(proteinID, pepIDs);
+		}
+		pepIDs.add(peptideID);
+	}
+
+	/**
+	 * The sequential breadth-first clustering, which was used before.
+	 */
+	private static List<Map<Comparable, Set<Comparable>>> buildReferenceClusterList(
+			Map<Comparable, Set<Comparable>> proteinsToPeptides,
+			Map<Comparable, Set<Comparable>> peptidesToProteins) {
+		List<Map<Comparable, Set<Comparable>>> clusters = new ArrayList<Map<Comparable, Set<Comparable>>>();
+		Set<Comparable> peptidesDone = new HashSet<Comparable>();
+		Set<Comparable> proteinsDone = new HashSet<Comparable>();
+
+		for (Comparable proteinID : proteinsToPeptides.keySet()) {
+			if (proteinsDone.contains(proteinID)) {
+				continue;
+			}
+
+			Set<Comparable> clusterProteins = new HashSet<Comparable>();
+			Set<Comparable> clusterPeptides = new HashSet<Comparable>(proteinsToPeptides.get(proteinID));
+			boolean changed = true;
+			while (changed) {
+				changed = false;
+				for (Comparable peptideID : new ArrayList<Comparable>(clusterPeptides)) {
+					if (peptidesDone.add(peptideID)) {
+						changed |= clusterProteins.addAll(peptidesToProteins.get(peptideID));
+					}
+				}
+				for (Comparable clusterProteinID : new ArrayList<Comparable>(clusterProteins)) {
+					if (proteinsDone.add(clusterProteinID)) {
+						changed |= clusterPeptides.addAll(proteinsToPeptides.get(clusterProteinID));
+					}
+				}
+			}
+			proteinsDone.add(proteinID);
+
+			Map<Comparable, Set<Comparable>> cluster = new HashMap<Comparable, Set<Comparable>>();
+			for (Comparable peptideID : clusterPeptides) {
+				cluster.put(peptideID, peptidesToProteins.get(peptideID));
+			}
+			clusters.add(cluster);
+		}
+		return clusters;
+	}
+}
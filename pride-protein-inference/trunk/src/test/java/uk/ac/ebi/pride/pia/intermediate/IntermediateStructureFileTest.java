@@ -0,0 +1,386 @@
+package uk.ac.ebi.pride.pia.intermediate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import uk.ac.ebi.pride.data.core.DBSequence;
+import uk.ac.ebi.pride.data.core.SpectrumIdentification;
+
+/**
+ * Writes intermediate structures of synthetic files and checks that the
+ * loaded structures are unchanged.
+ */
+public class IntermediateStructureFileTest {
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		Map<Integer, DataImportController> controllers = new HashMap<Integer, DataImportController>();
+		controllers.put(1, new TestController("file1", 300, 150, new Random(1)));
+		controllers.put(2, new TestController("file2", 200, 150, new Random(2)));
+
+		IntermediateStructureCreator creator = new IntermediateStructureCreator(2);
+		for (DataImportController controller : controllers.values()) {
+			controller.addAllSpectrumIdentificationsToStructCreator(creator);
+		}
+		IntermediateStructure structure = creator.buildIntermediateStructure();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		IntermediateStructureFile.write(out, structure, controllers);
+
+		final Map<String, String> openedFiles = new HashMap<String, String>();
+		IntermediateStructureFile loaded = IntermediateStructureFile.read(
+				new ByteArrayInputStream(out.toByteArray()),
+				new IntermediateStructureFile.ControllerOpener() {
+					@Override
+					public DataImportController open(Integer fileID, String controllerType,
+							String inputFileType, String inputFileName) {
+						assertEquals(TestController.class.getName(), controllerType);
+						openedFiles.put(fileID.toString(), inputFileType + ":" + inputFileName);
+						// the reopened controllers get new IDs
+						return new TestController(inputFileName, 0, 0, null);
+					}
+				});
+
+		assertEquals("TEST:file1", openedFiles.get("1"));
+		assertEquals("TEST:file2", openedFiles.get("2"));
+
+		IntermediateStructure loadedStructure = loaded.getIntermediateStructure();
+		assertEquals(structure.getNrClusters(), loadedStructure.getNrClusters());
+		assertEquals(structure.getNrGroups(), loadedStructure.getNrGroups());
+		assertEquals(structure.getNrPeptides(), loadedStructure.getNrPeptides());
+		assertEquals(structure.getAllIntermediatePSMs().size(), loadedStructure.getAllIntermediatePSMs().size());
+		assertEquals(describe(structure, controllers), describe(loadedStructure, loaded.getInputControllers()));
+	}
+
+	@Test
+	public void testRoundTripFile() throws Exception {
+		Map<Integer, DataImportController> controllers = new HashMap<Integer, DataImportController>();
+		final TestController controller = new TestController("file1", 20, 10, new Random(3));
+		controllers.put(1, controller);
+
+		IntermediateStructureCreator creator = new IntermediateStructureCreator(1);
+		controller.addAllSpectrumIdentificationsToStructCreator(creator);
+		IntermediateStructure structure = creator.buildIntermediateStructure();
+
+		File file = File.createTempFile("pia-intermediate", ".bin");
+		file.deleteOnExit();
+		IntermediateStructureFile.write(file, structure, controllers);
+
+		IntermediateStructureFile loaded = IntermediateStructureFile.read(file,
+				new IntermediateStructureFile.ControllerOpener() {
+					@Override
+					public DataImportController open(Integer fileID, String controllerType,
+							String inputFileType, String inputFileName) {
+						return controller;
+					}
+				});
+
+		assertNotNull(loaded.getIntermediateStructure());
+		assertEquals(describe(structure, controllers), describe(loaded.getIntermediateStructure(), controllers));
+	}
+
+	@Test(expected = IOException.class)
+	public void testNotAnIntermediateFile() throws Exception {
+		IntermediateStructureFile.read(new ByteArrayInputStream("<MzIdentML/>".getBytes()), null);
+	}
+
+	/**
+	 * A canonical description of the structure, independent of the controllers' IDs
+	 */
+	private static String describe(IntermediateStructure structure, Map<Integer, DataImportController> controllers) {
+		Map<Comparable, Integer> fileIDs = new HashMap<Comparable, Integer>();
+		for (Map.Entry<Integer, DataImportController> controllerIt : controllers.entrySet()) {
+			fileIDs.put(controllerIt.getValue().getID(), controllerIt.getKey());
+		}
+
+		StringBuilder description = new StringBuilder();
+		for (Map.Entry<Integer, Set<IntermediateGroup>> clusterIt
+				: new TreeMap<Integer, Set<IntermediateGroup>>(structure.getClusters()).entrySet()) {
+			Map<Integer, String> groups = new TreeMap<Integer, String>();
+			for (IntermediateGroup group : clusterIt.getValue()) {
+				List<String> peptides = new ArrayList<String>();
+				if (group.getPeptides() != null) {
+					for (IntermediatePeptide peptide : group.getPeptides()) {
+						List<String> psms = new ArrayList<String>();
+						for (IntermediatePeptideSpectrumMatch psm : peptide.getAllPeptideSpectrumMatches()) {
+							String localID = psm.getID().toString().substring(psm.getControllerID().toString().length());
+							psms.add(fileIDs.get(psm.getControllerID()) + localID);
+						}
+						Collections.sort(psms);
+						peptides.add(peptide.getSequence() + "@" + peptide.getGroup().getID() + psms);
+					}
+				}
+				List<String> proteins = new ArrayList<String>();
+				if (group.getProteins() != null) {
+					for (IntermediateProtein protein : group.getProteins()) {
+						proteins.add(fileIDs.get(protein.getControllerID()) + ":" + protein.getAccession()
+								+ "@" + protein.getGroup().getID());
+					}
+				}
+				Collections.sort(peptides);
+				Collections.sort(proteins);
+				groups.put(group.getID(), clusterIt.getKey() + "/" + group.getTreeID() + " "
+						+ peptides + " " + proteins
+						+ " children" + groupIDs(group.getChildren())
+						+ " parents" + groupIDs(group.getParents()));
+			}
+			description.append(groups).append('\n');
+		}
+		return description.toString();
+	}
+
+	private static List<Integer> groupIDs(Collection<IntermediateGroup> groups) {
+		List<Integer> ids = new ArrayList<Integer>();
+		if (groups != null) {
+			for (IntermediateGroup group : groups) {
+				ids.add(group.getID());
+			}
+		}
+		Collections.sort(ids);
+		return ids;
+	}
+
+	/**
+	 * Creates random PSMs of peptides on proteins, without an input file.
+	 */
+	private static class TestController implements DataImportController {
+
+		private static int nextID = 0;
+
+		private String id;
+
+		private String inputFileName;
+
+		private int nrPSMs;
+
+		private int nrProteins;
+
+		private Random random;
+
+		private TestController(String inputFileName, int nrPSMs, int nrProteins, Random random) {
+			this.id = "controller" + (nextID++);
+			this.inputFileName = inputFileName;
+			this.nrPSMs = nrPSMs;
+			this.nrProteins = nrProteins;
+			this.random = random;
+		}
+
+		@Override
+		public String getID() {
+			return id;
+		}
+
+		@Override
+		public String getInputFileName() {
+			return inputFileName;
+		}
+
+		@Override
+		public String getInputFileType() {
+			return "TEST";
+		}
+
+		@Override
+		public void addAllSpectrumIdentificationsToStructCreator(IntermediateStructureCreator structCreator) {
+			for (int i = 0; i < nrPSMs; i++) {
+				String sequence = "PEPTIDE" + random.nextInt(nrPSMs / 2);
+				IntermediatePeptide peptide = structCreator.getPeptide(IntermediatePeptide.computeID(sequence));
+				if (peptide == null) {
+					peptide = new IntermediatePeptide(sequence);
+					structCreator.addPeptide(peptide);
+				}
+				peptide.addPeptideSpectrumMatch(new TestPSM(id, "spectrum" + i));
+
+				// one or two proteins per PSM, the proteins are shared between the files
+				for (int j = 0; j <= random.nextInt(2); j++) {
+					String accession = "PROT" + random.nextInt(nrProteins);
+					if (!structCreator.proteinsContains(accession)) {
+						structCreator.addProtein(new TestProtein(id, accession));
+					}
+					structCreator.addPeptideToProteinConnection(peptide.getID(), accession);
+				}
+			}
+		}
+
+		@Override
+		public void writePeptideSpectrumMatch(IntermediatePeptideSpectrumMatch psm, DataOutput out) throws IOException {
+			out.writeUTF(((TestPSM) psm).spectrumID);
+		}
+
+		@Override
+		public IntermediatePeptideSpectrumMatch readPeptideSpectrumMatch(DataInput in) throws IOException {
+			return new TestPSM(id, in.readUTF());
+		}
+
+		@Override
+		public void writeProtein(IntermediateProtein protein, DataOutput out) throws IOException {
+			IntermediateStructureFile.writeID(out, protein.getAccession());
+		}
+
+		@Override
+		public IntermediateProtein readProtein(DataInput in) throws IOException {
+			return new TestProtein(id, (String) IntermediateStructureFile.readID(in));
+		}
+
+		@Override
+		public void close() {
+		}
+	}
+
+	private static class TestPSM implements IntermediatePeptideSpectrumMatch {
+
+		private String controllerID;
+
+		private String spectrumID;
+
+		private Boolean isDecoy;
+
+		private Double fdr;
+
+		private Double qValue;
+
+		private Double fdrScore;
+
+		private TestPSM(String controllerID, String spectrumID) {
+			this.controllerID = controllerID;
+			this.spectrumID = spectrumID;
+		}
+
+		@Override
+		public Comparable getID() {
+			return controllerID + ":" + spectrumID;
+		}
+
+		@Override
+		public Comparable getControllerID() {
+			return controllerID;
+		}
+
+		@Override
+		public Double getScore(String scoreAccession) {
+			return null;
+		}
+
+		@Override
+		public Boolean getIsDecoy() {
+			return isDecoy;
+		}
+
+		@Override
+		public void setIsDecoy(Boolean isDecoy) {
+			this.isDecoy = isDecoy;
+		}
+
+		@Override
+		public SpectrumIdentification getSpectrumIdentification() {
+			return null;
+		}
+
+		@Override
+		public void setFDR(Double fdr) {
+			this.fdr = fdr;
+		}
+
+		@Override
+		public Double getFDR() {
+			return fdr;
+		}
+
+		@Override
+		public Double getQValue() {
+			return qValue;
+		}
+
+		@Override
+		public void setQValue(Double value) {
+			this.qValue = value;
+		}
+
+		@Override
+		public void setFDRScore(Double fdrScore) {
+			this.fdrScore = fdrScore;
+		}
+
+		@Override
+		public Double getFDRScore() {
+			return fdrScore;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (obj instanceof TestPSM) && getID().equals(((TestPSM) obj).getID());
+		}
+
+		@Override
+		public int hashCode() {
+			return getID().hashCode();
+		}
+	}
+
+	private static class TestProtein implements IntermediateProtein {
+
+		private String controllerID;
+
+		private String accession;
+
+		private IntermediateGroup group;
+
+		private TestProtein(String controllerID, String accession) {
+			this.controllerID = controllerID;
+			this.accession = accession;
+		}
+
+		@Override
+		public Comparable getID() {
+			return accession;
+		}
+
+		@Override
+		public Comparable getControllerID() {
+			return controllerID;
+		}
+
+		@Override
+		public String getAccession() {
+			return accession;
+		}
+
+		@Override
+		public String getProteinSequence() {
+			return null;
+		}
+
+		@Override
+		public DBSequence getDBSequence() {
+			return null;
+		}
+
+		@Override
+		public void setGroup(IntermediateGroup group) {
+			this.group = group;
+		}
+
+		@Override
+		public IntermediateGroup getGroup() {
+			return group;
+		}
+	}
+}
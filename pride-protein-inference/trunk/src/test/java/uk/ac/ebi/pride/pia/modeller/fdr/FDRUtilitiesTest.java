@@ -0,0 +1,258 @@
+package uk.ac.ebi.pride.pia.modeller.fdr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the FDR, q-value and FDR score calculation on synthetic items.
+ */
+public class FDRUtilitiesTest {
+
+	private static final String SCORE = "score";
+
+	@Test
+	public void testFDRAndQValues() throws Exception {
+		List<Item> items = createItems();
+		Collections.shuffle(items, new Random(7));
+
+		FDRUtilities.sortByScore(items, SCORE, true);
+		FDRUtilities.calculateFDR(Collections.singletonList(items), SCORE, true);
+
+		assertValues(items, new double[] {10, 9, 8, 8, 7, 6, 5},
+				new double[] {0, 0, 1.0/3, 1.0/3, 0.25, 0.5, 0.75},
+				new double[] {0, 0, 0.25, 0.25, 0.25, 0.5, 0.75},
+				new double[] {1.0/12, 1.0/6, 0.25, 0.25, 0.375, 0.5, 0.75});
+	}
+
+	@Test
+	public void testPresortedList() throws Exception {
+		List<Item> items = createItems();
+		FDRUtilities.sortByScore(items, SCORE, true);
+		FDRUtilities.calculateFDR(items, SCORE);
+
+		assertValues(items, new double[] {10, 9, 8, 8, 7, 6, 5},
+				new double[] {0, 0, 1.0/3, 1.0/3, 0.25, 0.5, 0.75},
+				new double[] {0, 0, 0.25, 0.25, 0.25, 0.5, 0.75},
+				null);
+	}
+
+	@Test
+	public void testLowerScoreBetter() throws Exception {
+		List<Item> items = new ArrayList<Item>();
+		items.add(new Item(0.01, false));
+		items.add(new Item(0.5, true));
+		items.add(new Item(null, false));
+		items.add(new Item(0.1, false));
+
+		FDRUtilities.sortByScore(items, SCORE, false);
+		FDRUtilities.calculateFDR(Collections.singletonList(items), SCORE, false);
+
+		assertEquals(0.01, items.get(0).getScore(SCORE), 0);
+		assertEquals(0.1, items.get(1).getScore(SCORE), 0);
+		assertEquals(0.5, items.get(2).getScore(SCORE), 0);
+		assertEquals(null, items.get(3).getScore(SCORE));
+
+		assertEquals(0.5, items.get(2).getFDR(), 0);
+		assertEquals(1.0 / 3, items.get(3).getFDR(), 0);
+		assertEquals(1.0 / 3, items.get(2).getQValue(), 0);
+	}
+
+	@Test
+	public void testOnlyDecoys() throws Exception {
+		List<Item> items = new ArrayList<Item>();
+		items.add(new Item(3.0, true));
+		items.add(new Item(2.0, false));
+
+		FDRUtilities.calculateFDR(Collections.singletonList(items), SCORE, true);
+
+		assertEquals(Double.POSITIVE_INFINITY, items.get(0).getFDR(), 0);
+		assertEquals(1.0, items.get(0).getQValue(), 0);
+		assertEquals(1.0, items.get(1).getFDR(), 0);
+	}
+
+	@Test
+	public void testCombinedEqualsSingleList() throws Exception {
+		Random random = new Random(42);
+		List<Item> all = new ArrayList<Item>();
+		List<List<Item>> files = new ArrayList<List<Item>>();
+		for (int i = 0; i < 3; i++) {
+			files.add(new ArrayList<Item>());
+		}
+
+		for (int i = 0; i < 2000; i++) {
+			Item item = new Item((double) random.nextInt(300), random.nextInt(4) == 0);
+			all.add(item);
+			files.get(random.nextInt(files.size())).add(item);
+		}
+
+		for (List<Item> file : files) {
+			FDRUtilities.sortByScore(file, SCORE, true);
+		}
+		FDRUtilities.calculateFDR(files, SCORE, true);
+
+		List<Item> combined = new ArrayList<Item>();
+		for (Item item : all) {
+			combined.add(new Item(item.getScore(SCORE), item.getIsDecoy()));
+		}
+		FDRUtilities.sortByScore(combined, SCORE, true);
+		FDRUtilities.calculateFDR(Collections.singletonList(combined), SCORE, true);
+
+		// rank the items of the files the same way to compare them
+		FDRUtilities.sortByScore(all, SCORE, true);
+		for (int i = 0; i < all.size(); i++) {
+			assertEquals(combined.get(i).getScore(SCORE), all.get(i).getScore(SCORE));
+			assertEquals(combined.get(i).getFDR(), all.get(i).getFDR(), 0);
+			assertEquals(combined.get(i).getQValue(), all.get(i).getQValue(), 0);
+			assertEquals(combined.get(i).getFDRScore(), all.get(i).getFDRScore(), 1e-12);
+		}
+	}
+
+	@Test
+	public void testMissingScores() throws Exception {
+		Random random = new Random(11);
+		List<Item> items = new ArrayList<Item>();
+		int nrMissing = 0;
+		for (int i = 0; i < 500; i++) {
+			int kind = random.nextInt(5);
+			if (kind == 0) {
+				items.add(new Item(null, random.nextBoolean()));
+				nrMissing++;
+			} else if (kind == 1) {
+				items.add(new Item(Double.NaN, random.nextBoolean()));
+				nrMissing++;
+			} else {
+				items.add(new Item((double) random.nextInt(50), random.nextInt(4) == 0));
+			}
+		}
+
+		for (boolean higherScoreBetter : new boolean[] {true, false}) {
+			Collections.shuffle(items, random);
+			FDRUtilities.sortByScore(items, SCORE, higherScoreBetter);
+
+			int nrScored = items.size() - nrMissing;
+			for (int i = 0; i < items.size(); i++) {
+				Double score = items.get(i).getScore(SCORE);
+				boolean missing = (score == null) || score.isNaN();
+				assertEquals("missing scores should be at the end", i >= nrScored, missing);
+				if ((i > 0) && !missing) {
+					double previous = items.get(i - 1).getScore(SCORE);
+					assertTrue(higherScoreBetter ? previous >= score : previous <= score);
+				}
+			}
+
+			FDRUtilities.calculateFDR(Collections.singletonList(items), SCORE, higherScoreBetter);
+
+			// all the missing scores form the last rank
+			Item last = items.get(items.size() - 1);
+			for (int i = nrScored; i < items.size(); i++) {
+				assertEquals(last.getFDR(), items.get(i).getFDR(), 0);
+				assertEquals(last.getQValue(), items.get(i).getQValue(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testCompareScoresIsSymmetric() throws Exception {
+		Double[] scores = {null, Double.NaN, -1.0, 0.0, 2.5, Double.NaN, null};
+		for (Double score1 : scores) {
+			for (Double score2 : scores) {
+				assertEquals(Integer.signum(FDRUtilities.compareScores(score1, score2, true)),
+						-Integer.signum(FDRUtilities.compareScores(score2, score1, true)));
+			}
+		}
+		assertEquals(0, FDRUtilities.compareScores(null, Double.NaN, true));
+		assertEquals(0, FDRUtilities.compareScores(Double.NaN, Double.NaN, false));
+		assertTrue(FDRUtilities.compareScores(-1.0, Double.NaN, true) < 0);
+		assertTrue(FDRUtilities.compareScores(null, 2.5, false) > 0);
+	}
+
+	private static List<Item> createItems() {
+		return new ArrayList<Item>(Arrays.asList(
+				new Item(10.0, false),
+				new Item(9.0, false),
+				new Item(8.0, true),
+				new Item(8.0, false),
+				new Item(7.0, false),
+				new Item(6.0, true),
+				new Item(5.0, true)));
+	}
+
+	private static void assertValues(List<Item> items, double[] scores,
+			double[] fdrs, double[] qValues, double[] fdrScores) {
+		for (int i = 0; i < items.size(); i++) {
+			Item item = items.get(i);
+			assertEquals(scores[i], item.getScore(SCORE), 0);
+			assertEquals(fdrs[i], item.getFDR(), 1e-12);
+			assertEquals(qValues[i], item.getQValue(), 1e-12);
+			if (fdrScores != null) {
+				assertEquals(fdrScores[i], item.getFDRScore(), 1e-12);
+			}
+		}
+	}
+
+	private static class Item implements FDRComputableByDecoys {
+
+		private Double score;
+
+		private Boolean isDecoy;
+
+		private Double fdr;
+
+		private Double qValue;
+
+		private Double fdrScore;
+
+		private Item(Double score, Boolean isDecoy) {
+			this.score = score;
+			this.isDecoy = isDecoy;
+		}
+
+		@Override
+		public Double getScore(String scoreAccession) {
+			return score;
+		}
+
+		@Override
+		public void setFDR(Double fdr) {
+			this.fdr = fdr;
+		}
+
+		@Override
+		public Double getFDR() {
+			return fdr;
+		}
+
+		@Override
+		public Double getQValue() {
+			return qValue;
+		}
+
+		@Override
+		public void setQValue(Double value) {
+			this.qValue = value;
+		}
+
+		@Override
+		public void setFDRScore(Double fdrScore) {
+			this.fdrScore = fdrScore;
+		}
+
+		@Override
+		public Double getFDRScore() {
+			return fdrScore;
+		}
+
+		@Override
+		public Boolean getIsDecoy() {
+			return isDecoy;
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package uk.ac.ebi.pride.pia.modeller.psm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import uk.ac.ebi.pride.data.core.SpectrumIdentification;
+import uk.ac.ebi.pride.pia.intermediate.IntermediatePeptideSpectrumMatch;
+
+/**
+ * Checks the FDR calculation of the PSMs of a file.
+ */
+public class PSMModellerTest {
+
+	private static final String SCORE = "score";
+
+	private static final Integer FILE_ID = 1;
+
+	@Test
+	public void testCalculateFDR() throws Exception {
+		PSMModeller modeller = new PSMModeller(1);
+		modeller.setFdrScoreAccession(FILE_ID, SCORE);
+		modeller.setHigherScoreBetter(SCORE, true);
+
+		List<PSM> psms = new ArrayList<PSM>();
+		psms.add(new PSM(1, 10.0, false));
+		psms.add(new PSM(2, 9.0, false));
+		psms.add(new PSM(3, 8.0, true));
+		psms.add(new PSM(4, 8.0, false));
+		psms.add(new PSM(5, null, false));
+		psms.add(new PSM(6, 7.0, false));
+		psms.add(new PSM(7, Double.NaN, true));
+		psms.add(new PSM(8, 6.0, true));
+		psms.add(new PSM(9, null, true));
+		psms.add(new PSM(10, 5.0, true));
+		psms.add(new PSM(11, Double.NaN, false));
+		Collections.shuffle(psms, new Random(3));
+		for (PSM psm : psms) {
+			modeller.addPSMforFile(FILE_ID, psm);
+		}
+
+		modeller.calculateFDR(FILE_ID);
+
+		// the PSMs of the file are sorted by the score, missing scores last
+		Collections.sort(psms, new java.util.Comparator<PSM>() {
+			@Override
+			public int compare(PSM o1, PSM o2) {
+				return o1.id - o2.id;
+			}
+		});
+		double[] fdrs = {0, 0, 1.0/3, 1.0/3, 5.0/6, 0.25, 5.0/6, 0.5, 5.0/6, 0.75, 5.0/6};
+		double[] qValues = {0, 0, 0.25, 0.25, 5.0/6, 0.25, 5.0/6, 0.5, 5.0/6, 0.75, 5.0/6};
+		for (PSM psm : psms) {
+			assertEquals("FDR of PSM " + psm.id, fdrs[psm.id - 1], psm.getFDR(), 1e-12);
+			assertEquals("q-value of PSM " + psm.id, qValues[psm.id - 1], psm.getQValue(), 1e-12);
+		}
+	}
+
+	@Test
+	public void testCalculateFDRWithoutScore() throws Exception {
+		PSMModeller modeller = new PSMModeller(1);
+		PSM psm = new PSM(1, 1.0, false);
+		modeller.addPSMforFile(FILE_ID, psm);
+
+		// neither an FDR score nor a main score is known for the file
+		modeller.calculateFDR(FILE_ID);
+		assertNull(psm.getFDR());
+
+		// unknown files are ignored
+		modeller.calculateFDR(2);
+		assertTrue(modeller.getNrPSMs(2) == 0);
+	}
+
+	private static class PSM implements IntermediatePeptideSpectrumMatch {
+
+		private int id;
+
+		private Double score;
+
+		private Boolean isDecoy;
+
+		private Double fdr;
+
+		private Double qValue;
+
+		private Double fdrScore;
+
+		private PSM(int id, Double score, Boolean isDecoy) {
+			this.id = id;
+			this.score = score;
+			this.isDecoy = isDecoy;
+		}
+
+		@Override
+		public Comparable getID() {
+			return id;
+		}
+
+		@Override
+		public Comparable getControllerID() {
+			return FILE_ID;
+		}
+
+		@Override
+		public Double getScore(String scoreAccession) {
+			return SCORE.equals(scoreAccession) ? score : null;
+		}
+
+		@Override
+		public void setFDR(Double fdr) {
+			this.fdr = fdr;
+		}
+
+		@Override
+		public Double getFDR() {
+			return fdr;
+		}
+
+		@Override
+		public Double getQValue() {
+			return qValue;
+		}
+
+		@Override
+		public void setQValue(Double value) {
+			this.qValue = value;
+		}
+
+		@Override
+		public void setFDRScore(Double fdrScore) {
+			this.fdrScore = fdrScore;
+		}
+
+		@Override
+		public Double getFDRScore() {
+			return fdrScore;
+		}
+
+		@Override
+		public Boolean getIsDecoy() {
+			return isDecoy;
+		}
+
+		@Override
+		public void setIsDecoy(Boolean isDecoy) {
+			this.isDecoy = isDecoy;
+		}
+
+		@Override
+		public SpectrumIdentification getSpectrumIdentification() {
+			return null;
+		}
+	}
+}
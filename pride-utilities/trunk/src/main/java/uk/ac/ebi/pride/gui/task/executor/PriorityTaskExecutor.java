@@ -0,0 +1,263 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PriorityTaskExecutor is a thread pool with a bounded priority queue:
+ * <p/>
+ * 1. waiting tasks are started by priority, tasks with the same priority in submission order.
+ * <p/>
+ * 2. at most capacity tasks can wait, further submissions block until a task starts
+ * or is removed, or give up after a timeout.
+ * <p/>
+ * 3. the queue time and run time of the tasks are collected per task class, see {@link TaskMetrics}.
+ * <p/>
+ * The queue of this executor contains wrappers of the submitted tasks, use {@link #remove(Runnable)}
+ * with the submitted task to take it off the queue.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class PriorityTaskExecutor extends ThreadPoolExecutor {
+
+    /**
+     * maximum number of waiting tasks
+     */
+    private final int capacity;
+
+    /**
+     * one permit for every free place in the queue
+     */
+    private final Semaphore queuePermits;
+
+    /**
+     * submission order of the tasks with the same priority
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * submitted task to its queue entry, for the tasks which have not been started yet.
+     * Whoever removes an entry from this map releases its queue permit.
+     */
+    private final ConcurrentMap<Runnable, PrioritisedTask> queuedTasks = new ConcurrentHashMap<Runnable, PrioritisedTask>();
+
+    private final TaskMetrics metrics = new TaskMetrics();
+
+    /**
+     * Constructor
+     *
+     * @param poolSize number of threads running the tasks
+     * @param capacity maximum number of tasks waiting to be started
+     */
+    public PriorityTaskExecutor(int poolSize, int capacity) {
+        super(poolSize, poolSize, 1L, TimeUnit.SECONDS, new PriorityBlockingQueue<Runnable>());
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Task queue capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.queuePermits = new Semaphore(capacity, true);
+    }
+
+    /**
+     * Execute the task with normal priority, block while the queue is full
+     *
+     * @param task task to execute
+     * @throws RejectedExecutionException if the executor has been shut down or the thread is interrupted
+     */
+    @Override
+    public void execute(Runnable task) {
+        try {
+            execute(task, TaskPriority.NORMAL);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a free place in the task queue", e);
+        }
+    }
+
+    /**
+     * Execute the task, block while the queue is full
+     *
+     * @param task     task to execute
+     * @param priority task priority
+     * @throws InterruptedException       if the thread is interrupted while waiting
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    public void execute(Runnable task, TaskPriority priority) throws InterruptedException {
+        checkTask(task, priority);
+        queuePermits.acquire();
+        enqueue(task, priority);
+    }
+
+    /**
+     * Execute the task, wait at most the given time for a free place in the queue
+     *
+     * @param task     task to execute
+     * @param priority task priority
+     * @param timeout  maximum time to wait, 0 to give up immediately when the queue is full
+     * @param unit     unit of the timeout
+     * @return boolean  true if the task was accepted, false if the queue stayed full
+     * @throws InterruptedException       if the thread is interrupted while waiting
+     * @throws RejectedExecutionException if the executor has been shut down
+     */
+    public boolean execute(Runnable task, TaskPriority priority, long timeout, TimeUnit unit) throws InterruptedException {
+        checkTask(task, priority);
+        if (!queuePermits.tryAcquire(timeout, unit)) {
+            metrics.taskRejected(task.getClass());
+            return false;
+        }
+        enqueue(task, priority);
+        return true;
+    }
+
+    private void checkTask(Runnable task, TaskPriority priority) {
+        if (task == null) {
+            throw new NullPointerException("Null task");
+        }
+        if (priority == null) {
+            throw new NullPointerException("Null task priority");
+        }
+    }
+
+    private void enqueue(Runnable task, TaskPriority priority) {
+        PrioritisedTask entry = new PrioritisedTask(task, priority, sequence.getAndIncrement());
+        if (queuedTasks.putIfAbsent(task, entry) != null) {
+            queuePermits.release();
+            throw new RejectedExecutionException("Task is already waiting in the queue: " + task);
+        }
+
+        try {
+            super.execute(entry);
+        } catch (RejectedExecutionException e) {
+            release(entry);
+            metrics.taskRejected(task.getClass());
+            throw e;
+        }
+        metrics.taskSubmitted(task.getClass());
+    }
+
+    /**
+     * Remove a task which has not been started yet from the queue
+     *
+     * @param task submitted task
+     * @return boolean  true if the task was removed
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        PrioritisedTask entry = task instanceof PrioritisedTask ? (PrioritisedTask) task : queuedTasks.get(task);
+        if (entry != null && super.remove(entry)) {
+            if (release(entry)) {
+                metrics.taskRemoved(entry.task.getClass());
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Give the place of a task in the queue free
+     *
+     * @param entry queue entry
+     * @return boolean  false if the place has been given free already
+     */
+    private boolean release(PrioritisedTask entry) {
+        if (queuedTasks.remove(entry.task, entry)) {
+            queuePermits.release();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Attempt to stop all the running tasks
+     *
+     * @return List<Runnable>  the submitted tasks which were never started
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> entries = super.shutdownNow();
+        List<Runnable> tasks = new ArrayList<Runnable>(entries.size());
+        for (Runnable runnable : entries) {
+            PrioritisedTask entry = (PrioritisedTask) runnable;
+            release(entry);
+            tasks.add(entry.task);
+        }
+        return tasks;
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable runnable) {
+        super.beforeExecute(thread, runnable);
+        PrioritisedTask entry = (PrioritisedTask) runnable;
+        release(entry);
+        entry.startTime = System.nanoTime();
+        metrics.taskStarted(entry.task.getClass(), entry.startTime - entry.submitTime);
+    }
+
+    @Override
+    protected void afterExecute(Runnable runnable, Throwable error) {
+        PrioritisedTask entry = (PrioritisedTask) runnable;
+        metrics.taskFinished(entry.task.getClass(), System.nanoTime() - entry.startTime);
+        super.afterExecute(runnable, error);
+    }
+
+    /**
+     * @return int  maximum number of waiting tasks
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return int  number of tasks waiting to be started
+     */
+    public int getQueuedTaskCount() {
+        return queuedTasks.size();
+    }
+
+    /**
+     * @return TaskMetrics  queue time and run time of the tasks
+     */
+    public TaskMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Queue entry, orders by priority and then by submission
+     */
+    private static class PrioritisedTask implements Runnable, Comparable<PrioritisedTask> {
+        private final Runnable task;
+        private final TaskPriority priority;
+        private final long sequence;
+        private final long submitTime;
+        private long startTime;
+
+        private PrioritisedTask(Runnable task, TaskPriority priority, long sequence) {
+            this.task = task;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.submitTime = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public int compareTo(PrioritisedTask o) {
+            int result = priority.compareTo(o.priority);
+            if (result == 0) {
+                result = sequence < o.sequence ? -1 : (sequence == o.sequence ? 0 : 1);
+            }
+            return result;
+        }
+    }
+}
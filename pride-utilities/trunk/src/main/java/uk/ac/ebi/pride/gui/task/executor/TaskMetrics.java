@@ -0,0 +1,122 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects the queue time and run time of the tasks, grouped by task class.
+ * <p/>
+ * This class is thread safe.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class TaskMetrics {
+
+    private final ConcurrentMap<Class<?>, Counter> counters = new ConcurrentHashMap<Class<?>, Counter>();
+
+    void taskSubmitted(Class<?> taskClass) {
+        getCounter(taskClass).submitted();
+    }
+
+    void taskRejected(Class<?> taskClass) {
+        getCounter(taskClass).rejected();
+    }
+
+    void taskRemoved(Class<?> taskClass) {
+        getCounter(taskClass).removed();
+    }
+
+    void taskStarted(Class<?> taskClass, long queueTime) {
+        getCounter(taskClass).started(queueTime);
+    }
+
+    void taskFinished(Class<?> taskClass, long runTime) {
+        getCounter(taskClass).finished(runTime);
+    }
+
+    /**
+     * Get the statistics of one task class
+     *
+     * @param taskClass task class
+     * @return TaskStatistics  statistics, null if no task of the class has been submitted
+     */
+    public TaskStatistics getStatistics(Class<?> taskClass) {
+        Counter counter = counters.get(taskClass);
+        return counter == null ? null : counter.getStatistics(taskClass);
+    }
+
+    /**
+     * Get the statistics of all the task classes
+     *
+     * @return Map<Class<?>, TaskStatistics>  task class to statistics
+     */
+    public Map<Class<?>, TaskStatistics> getStatistics() {
+        Map<Class<?>, TaskStatistics> statistics = new HashMap<Class<?>, TaskStatistics>();
+        for (Map.Entry<Class<?>, Counter> entry : counters.entrySet()) {
+            statistics.put(entry.getKey(), entry.getValue().getStatistics(entry.getKey()));
+        }
+        return statistics;
+    }
+
+    /**
+     * Remove all the collected statistics
+     */
+    public void reset() {
+        counters.clear();
+    }
+
+    private Counter getCounter(Class<?> taskClass) {
+        Counter counter = counters.get(taskClass);
+        if (counter == null) {
+            Counter newCounter = new Counter();
+            counter = counters.putIfAbsent(taskClass, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    private static class Counter {
+        private long submitted;
+        private long rejected;
+        private long removed;
+        private long started;
+        private long finished;
+        private long totalQueueTime;
+        private long maxQueueTime;
+        private long totalRunTime;
+        private long maxRunTime;
+
+        private synchronized void submitted() {
+            submitted++;
+        }
+
+        private synchronized void rejected() {
+            rejected++;
+        }
+
+        private synchronized void removed() {
+            removed++;
+        }
+
+        private synchronized void started(long queueTime) {
+            started++;
+            totalQueueTime += queueTime;
+            maxQueueTime = Math.max(maxQueueTime, queueTime);
+        }
+
+        private synchronized void finished(long runTime) {
+            finished++;
+            totalRunTime += runTime;
+            maxRunTime = Math.max(maxRunTime, runTime);
+        }
+
+        private synchronized TaskStatistics getStatistics(Class<?> taskClass) {
+            return new TaskStatistics(taskClass, submitted, rejected, removed, started, finished,
+                    totalQueueTime, maxQueueTime, totalRunTime, maxRunTime);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+/**
+ * Priority of a task waiting in the PriorityTaskExecutor, tasks with a higher
+ * priority are started first, tasks with the same priority in submission order.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public enum TaskPriority {
+    /**
+     * tasks the user is waiting for, e.g. the data of the selected spectrum
+     */
+    HIGH,
+    NORMAL,
+    /**
+     * background tasks, e.g. prefetching or summary calculations
+     */
+    LOW
+}
@@ -0,0 +1,118 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Snapshot of the queue time and run time of one task class.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class TaskStatistics {
+    private final Class<?> taskClass;
+    private final long submittedCount;
+    private final long rejectedCount;
+    private final long removedCount;
+    private final long startedCount;
+    private final long finishedCount;
+    private final long totalQueueTime;
+    private final long maxQueueTime;
+    private final long totalRunTime;
+    private final long maxRunTime;
+
+    public TaskStatistics(Class<?> taskClass,
+                          long submittedCount,
+                          long rejectedCount,
+                          long removedCount,
+                          long startedCount,
+                          long finishedCount,
+                          long totalQueueTime,
+                          long maxQueueTime,
+                          long totalRunTime,
+                          long maxRunTime) {
+        this.taskClass = taskClass;
+        this.submittedCount = submittedCount;
+        this.rejectedCount = rejectedCount;
+        this.removedCount = removedCount;
+        this.startedCount = startedCount;
+        this.finishedCount = finishedCount;
+        this.totalQueueTime = totalQueueTime;
+        this.maxQueueTime = maxQueueTime;
+        this.totalRunTime = totalRunTime;
+        this.maxRunTime = maxRunTime;
+    }
+
+    public Class<?> getTaskClass() {
+        return taskClass;
+    }
+
+    /**
+     * @return number of tasks accepted by the executor
+     */
+    public long getSubmittedCount() {
+        return submittedCount;
+    }
+
+    /**
+     * @return number of tasks rejected, because the queue was full or the executor was shut down
+     */
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    /**
+     * @return number of tasks removed from the queue before they started
+     */
+    public long getRemovedCount() {
+        return removedCount;
+    }
+
+    public long getStartedCount() {
+        return startedCount;
+    }
+
+    public long getFinishedCount() {
+        return finishedCount;
+    }
+
+    /**
+     * Time between the submission and the start of the tasks
+     *
+     * @param unit time unit of the result
+     * @return average queue time, 0 if no task has been started
+     */
+    public long getAverageQueueTime(TimeUnit unit) {
+        return startedCount == 0 ? 0 : unit.convert(totalQueueTime / startedCount, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxQueueTime(TimeUnit unit) {
+        return unit.convert(maxQueueTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Time between the start and the end of the tasks
+     *
+     * @param unit time unit of the result
+     * @return average run time, 0 if no task has finished
+     */
+    public long getAverageRunTime(TimeUnit unit) {
+        return finishedCount == 0 ? 0 : unit.convert(totalRunTime / finishedCount, TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxRunTime(TimeUnit unit) {
+        return unit.convert(maxRunTime, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return taskClass.getSimpleName() +
+                "{submitted=" + submittedCount +
+                ", rejected=" + rejectedCount +
+                ", removed=" + removedCount +
+                ", finished=" + finishedCount +
+                ", avgQueueMs=" + getAverageQueueTime(TimeUnit.MILLISECONDS) +
+                ", maxQueueMs=" + getMaxQueueTime(TimeUnit.MILLISECONDS) +
+                ", avgRunMs=" + getAverageRunTime(TimeUnit.MILLISECONDS) +
+                ", maxRunMs=" + getMaxRunTime(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
@@ -0,0 +1,139 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import java.awt.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskSubmitter passes the tasks of a task manager to its executor, so that all the task managers
+ * follow the same submission rules:
+ * <p/>
+ * 1. tasks are started by priority if the executor is a PriorityTaskExecutor.
+ * <p/>
+ * 2. when the queue is full, the event dispatch thread never waits for a free place,
+ * other threads wait up to the queue timeout.
+ * <p/>
+ * 3. a task removed before it starts gives its place in the queue free.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public class TaskSubmitter {
+
+    /**
+     * number of threads running tasks at the same time
+     */
+    public final static int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * number of tasks waiting at the same time
+     */
+    public final static int DEFAULT_QUEUE_CAPACITY = 500;
+
+    /**
+     * maximum time in seconds a thread other than the event dispatch thread waits for a free place in the queue
+     */
+    public final static long DEFAULT_QUEUE_TIMEOUT = 30;
+
+    private final ExecutorService executor;
+
+    private final long queueTimeout;
+
+    private final TimeUnit queueTimeoutUnit;
+
+    /**
+     * Submit to a PriorityTaskExecutor with the default pool size and queue capacity
+     */
+    public TaskSubmitter() {
+        this(new PriorityTaskExecutor(DEFAULT_POOL_SIZE, DEFAULT_QUEUE_CAPACITY));
+    }
+
+    /**
+     * @param executor executor running the tasks, task priorities and metrics
+     *                 are only supported by PriorityTaskExecutor.
+     */
+    public TaskSubmitter(ExecutorService executor) {
+        this(executor, DEFAULT_QUEUE_TIMEOUT, TimeUnit.SECONDS);
+    }
+
+    /**
+     * @param executor         executor running the tasks
+     * @param queueTimeout     maximum time a thread other than the event dispatch thread waits for a free place
+     * @param queueTimeoutUnit unit of the queue timeout
+     */
+    public TaskSubmitter(ExecutorService executor, long queueTimeout, TimeUnit queueTimeoutUnit) {
+        if (executor == null) {
+            throw new NullPointerException("Null executor");
+        }
+        this.executor = executor;
+        this.queueTimeout = queueTimeout;
+        this.queueTimeoutUnit = queueTimeoutUnit;
+    }
+
+    /**
+     * Pass a task to the executor
+     *
+     * @param task     task to execute
+     * @param priority task priority, ignored if the executor is not a PriorityTaskExecutor
+     * @return boolean  false if the queue was full or the executor rejected the task
+     */
+    public boolean submit(Runnable task, TaskPriority priority) {
+        if (executor instanceof PriorityTaskExecutor) {
+            // never let the event dispatch thread wait
+            long timeout = EventQueue.isDispatchThread() ? 0 : queueTimeout;
+            try {
+                return ((PriorityTaskExecutor) executor).execute(task, priority, timeout, queueTimeoutUnit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        } else {
+            try {
+                executor.execute(task);
+                return true;
+            } catch (RejectedExecutionException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Take a task which has not been started yet off the queue
+     *
+     * @param task submitted task
+     * @return boolean  true if the task was removed
+     */
+    public boolean remove(Runnable task) {
+        return executor instanceof ThreadPoolExecutor && ((ThreadPoolExecutor) executor).remove(task);
+    }
+
+    /**
+     * Get the queue time and run time of the tasks, grouped by task class
+     *
+     * @return TaskMetrics  task metrics, null if the executor is not a PriorityTaskExecutor
+     */
+    public TaskMetrics getMetrics() {
+        return executor instanceof PriorityTaskExecutor ? ((PriorityTaskExecutor) executor).getMetrics() : null;
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * orderly shutdown, all existing tasks are allowed to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * attempt to stop all running tasks at once
+     */
+    public void shutdownNow() {
+        executor.shutdownNow();
+    }
+}
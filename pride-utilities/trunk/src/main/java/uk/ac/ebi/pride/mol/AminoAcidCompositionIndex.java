@@ -0,0 +1,356 @@
+package uk.ac.ebi.pride.mol;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * AminoAcidCompositionIndex is a precomputed index of all the amino acid compositions (multisets of residues)
+ * up to a maximum number of residues, sorted by mass.
+ * <p/>
+ * A search for the compositions within a mass window is a binary search, so it is logarithmic in the number of
+ * compositions. The index is immutable, therefore, can be shared between threads.
+ * <p/>
+ * The index is serializable, {@link #getInstance(boolean, int)} stores it in the directory given by the
+ * system property {@link #INDEX_DIRECTORY_PROPERTY} if present, so it is only built once.
+ * <p/>
+ * Date: 17/10/2026
+ */
+public final class AminoAcidCompositionIndex implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger logger = LoggerFactory.getLogger(AminoAcidCompositionIndex.class);
+
+    public static final int DEFAULT_MAX_NUMBER_OF_RESIDUES = 3;
+
+    /**
+     * System property of the directory where the indexes are stored
+     */
+    public static final String INDEX_DIRECTORY_PROPERTY = "pride.mol.index.dir";
+
+    /**
+     * Shared indexes, one for mono mass and one for average mass
+     */
+    private static final Map<Boolean, AminoAcidCompositionIndex> instances = new HashMap<Boolean, AminoAcidCompositionIndex>();
+
+    private final boolean monoMass;
+
+    /**
+     * Residues of the index, the compositions refer to the residues by their positions in this array
+     */
+    private final AminoAcid[] residues;
+
+    /**
+     * Masses of the residues when the index was built
+     */
+    private final double[] residueMasses;
+
+    /**
+     * masses[n - 1] are the sorted masses of the compositions with n residues
+     */
+    private final double[][] masses;
+
+    /**
+     * compositions[n - 1] are the compositions with n residues, n residue positions per composition,
+     * in ascent order, in the same order as masses[n - 1]
+     */
+    private final byte[][] compositions;
+
+    private AminoAcidCompositionIndex(boolean monoMass, AminoAcid[] residues, double[] residueMasses,
+                                      double[][] masses, byte[][] compositions) {
+        this.monoMass = monoMass;
+        this.residues = residues;
+        this.residueMasses = residueMasses;
+        this.masses = masses;
+        this.compositions = compositions;
+    }
+
+    /**
+     * Get the shared index of the given mass type, which has at least the given number of residues.
+     *
+     * @param isMonoMass          choose between mono mass and average mass.
+     * @param maxNumberOfResidues maximum number of residues of the compositions.
+     * @return AminoAcidCompositionIndex    shared index.
+     */
+    public static AminoAcidCompositionIndex getInstance(boolean isMonoMass, int maxNumberOfResidues) {
+        synchronized (instances) {
+            AminoAcidCompositionIndex index = instances.get(isMonoMass);
+            if (index == null || index.getMaxNumberOfResidues() < maxNumberOfResidues) {
+                int numberOfResidues = Math.max(maxNumberOfResidues, DEFAULT_MAX_NUMBER_OF_RESIDUES);
+                index = loadOrBuild(isMonoMass, numberOfResidues);
+                instances.put(isMonoMass, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Read the index from the index directory, or build it and store it in the index directory.
+     */
+    private static AminoAcidCompositionIndex loadOrBuild(boolean isMonoMass, int maxNumberOfResidues) {
+        String dir = System.getProperty(INDEX_DIRECTORY_PROPERTY);
+        if (dir == null) {
+            return build(isMonoMass, maxNumberOfResidues);
+        }
+
+        File file = new File(dir, "aa-composition-" + (isMonoMass ? "mono" : "avg") + "-" + maxNumberOfResidues + ".ser");
+        if (file.isFile()) {
+            try {
+                AminoAcidCompositionIndex index = read(file);
+                if (index.isMonoMass() == isMonoMass && index.getMaxNumberOfResidues() >= maxNumberOfResidues && index.isUpToDate()) {
+                    return index;
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read amino acid composition index: " + file.getAbsolutePath(), e);
+            }
+        }
+
+        AminoAcidCompositionIndex index = build(isMonoMass, maxNumberOfResidues);
+        try {
+            index.write(file);
+        } catch (IOException e) {
+            logger.warn("Failed to write amino acid composition index: " + file.getAbsolutePath(), e);
+        }
+        return index;
+    }
+
+    /**
+     * Build a new index of all the amino acids.
+     *
+     * @param isMonoMass          choose between mono mass and average mass.
+     * @param maxNumberOfResidues maximum number of residues of the compositions.
+     * @return AminoAcidCompositionIndex    new index.
+     */
+    public static AminoAcidCompositionIndex build(boolean isMonoMass, int maxNumberOfResidues) {
+        if (maxNumberOfResidues < 1) {
+            throw new IllegalArgumentException("Maximum number of residues must be greater than 0: " + maxNumberOfResidues);
+        }
+
+        AminoAcid[] residues = AminoAcid.values();
+        double[] residueMasses = getResidueMasses(residues, isMonoMass);
+        double[][] masses = new double[maxNumberOfResidues][];
+        byte[][] compositions = new byte[maxNumberOfResidues][];
+
+        for (int n = 1; n <= maxNumberOfResidues; n++) {
+            int count = (int) numberOfCompositions(residues.length, n);
+            double[] unsortedMasses = new double[count];
+            byte[] unsortedCompositions = new byte[count * n];
+
+            // enumerate the compositions as non-descending residue positions
+            byte[] composition = new byte[n];
+            for (int i = 0; i < count; i++) {
+                double mass = 0;
+                for (int j = 0; j < n; j++) {
+                    mass += residueMasses[composition[j]];
+                }
+                unsortedMasses[i] = mass;
+                System.arraycopy(composition, 0, unsortedCompositions, i * n, n);
+                nextComposition(composition, residues.length);
+            }
+
+            // sort by mass
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            final double[] m = unsortedMasses;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override
+                public int compare(Integer o1, Integer o2) {
+                    return Double.compare(m[o1], m[o2]);
+                }
+            });
+
+            masses[n - 1] = new double[count];
+            compositions[n - 1] = new byte[count * n];
+            for (int i = 0; i < count; i++) {
+                masses[n - 1][i] = unsortedMasses[order[i]];
+                System.arraycopy(unsortedCompositions, order[i] * n, compositions[n - 1], i * n, n);
+            }
+        }
+
+        return new AminoAcidCompositionIndex(isMonoMass, residues, residueMasses, masses, compositions);
+    }
+
+    /**
+     * Move to the next composition in the enumeration order, the residue positions are non-descending.
+     */
+    private static void nextComposition(byte[] composition, int numberOfResidues) {
+        int i = composition.length - 1;
+        while (i >= 0 && composition[i] == numberOfResidues - 1) {
+            i--;
+        }
+        if (i >= 0) {
+            byte next = (byte) (composition[i] + 1);
+            for (int j = i; j < composition.length; j++) {
+                composition[j] = next;
+            }
+        }
+    }
+
+    /**
+     * Number of multisets of size n from k residues, (k + n - 1)! / (n! (k - 1)!)
+     */
+    private static long numberOfCompositions(int k, int n) {
+        long result = 1;
+        for (int i = 1; i <= n; i++) {
+            result = result * (k - 1 + i) / i;
+        }
+        if (result > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many amino acid compositions with " + n + " residues");
+        }
+        return result;
+    }
+
+    private static double[] getResidueMasses(AminoAcid[] residues, boolean isMonoMass) {
+        double[] residueMasses = new double[residues.length];
+        for (int i = 0; i < residues.length; i++) {
+            residueMasses[i] = isMonoMass ? residues[i].getMonoMass() : residues[i].getAvgMass();
+        }
+        return residueMasses;
+    }
+
+    /**
+     * Search for the compositions with the given number of residues within a mass window (inclusive).
+     *
+     * @param massRangeStart   mass window start.
+     * @param massRangeEnd     mass window end.
+     * @param numOfResidue     number of residues.
+     * @return List<AminoAcidSequence>  compositions in mass ascent order, the residues of each composition are in
+     *         the order of {@link AminoAcid}.
+     */
+    public List<AminoAcidSequence> search(double massRangeStart, double massRangeEnd, int numOfResidue) {
+        List<AminoAcidSequence> results = new ArrayList<AminoAcidSequence>();
+        if (numOfResidue < 1) {
+            return results;
+        }
+        checkNumberOfResidues(numOfResidue);
+
+        double[] ms = masses[numOfResidue - 1];
+        byte[] cs = compositions[numOfResidue - 1];
+        for (int i = lowerBound(ms, massRangeStart); i < ms.length && ms[i] <= massRangeEnd; i++) {
+            AminoAcid[] composition = new AminoAcid[numOfResidue];
+            for (int j = 0; j < numOfResidue; j++) {
+                composition[j] = residues[cs[i * numOfResidue + j]];
+            }
+            results.add(new AminoAcidSequence(composition));
+        }
+        return results;
+    }
+
+    /**
+     * Count the compositions with the given number of residues within a mass window (inclusive).
+     *
+     * @param massRangeStart   mass window start.
+     * @param massRangeEnd     mass window end.
+     * @param numOfResidue     number of residues.
+     * @return int  number of compositions.
+     */
+    public int count(double massRangeStart, double massRangeEnd, int numOfResidue) {
+        if (numOfResidue < 1) {
+            return 0;
+        }
+        checkNumberOfResidues(numOfResidue);
+
+        double[] ms = masses[numOfResidue - 1];
+        int start = lowerBound(ms, massRangeStart);
+        int end = lowerBound(ms, massRangeEnd);
+        while (end < ms.length && ms[end] <= massRangeEnd) {
+            end++;
+        }
+        return end - start;
+    }
+
+    private void checkNumberOfResidues(int numOfResidue) {
+        if (numOfResidue > masses.length) {
+            throw new IllegalArgumentException("Number of residues " + numOfResidue +
+                    " is greater than the maximum number of residues of the index: " + masses.length);
+        }
+    }
+
+    /**
+     * @return the first position whose mass is greater than or equal to the given mass.
+     */
+    private static int lowerBound(double[] ms, double mass) {
+        int low = 0;
+        int high = ms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ms[mid] < mass) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public boolean isMonoMass() {
+        return monoMass;
+    }
+
+    public int getMaxNumberOfResidues() {
+        return masses.length;
+    }
+
+    /**
+     * Check whether the index was built with the current amino acids and masses.
+     *
+     * @return boolean  false if the index should be rebuilt.
+     */
+    public boolean isUpToDate() {
+        AminoAcid[] current = AminoAcid.values();
+        return Arrays.equals(residues, current) && Arrays.equals(residueMasses, getResidueMasses(current, monoMass));
+    }
+
+    /**
+     * Write the index to a file.
+     *
+     * @param file  output file.
+     * @throws IOException  failed to write.
+     */
+    public void write(File file) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try {
+            out.writeObject(this);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Read an index from a file written by {@link #write(java.io.File)}.
+     *
+     * @param file  input file.
+     * @return AminoAcidCompositionIndex    index.
+     * @throws IOException  failed to read, or the file is not an index.
+     */
+    public static AminoAcidCompositionIndex read(File file) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            return (AminoAcidCompositionIndex) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new InvalidClassException(e.getMessage());
+        } catch (ClassCastException e) {
+            throw new InvalidClassException(e.getMessage());
+        } finally {
+            in.close();
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (residues == null || residueMasses == null || masses == null || compositions == null
+                || residues.length != residueMasses.length || masses.length != compositions.length) {
+            throw new InvalidObjectException("Corrupted amino acid composition index");
+        }
+        for (int n = 1; n <= masses.length; n++) {
+            if (masses[n - 1] == null || compositions[n - 1] == null || masses[n - 1].length * n != compositions[n - 1].length) {
+                throw new InvalidObjectException("Corrupted amino acid composition index");
+            }
+        }
+    }
+}
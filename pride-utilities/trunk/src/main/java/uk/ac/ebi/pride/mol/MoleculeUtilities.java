@@ -3,6 +3,8 @@ package uk.ac.ebi.pride.mol;
 import uk.ac.ebi.pride.exception.IllegalAminoAcidSequenceException;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
 import static uk.ac.ebi.pride.mol.NeutralLoss.WATER_LOSS;
@@ -16,6 +18,11 @@ import static uk.ac.ebi.pride.mol.NuclearParticle.PROTON;
  *         Time: 11:51:12
  */
 public class MoleculeUtilities {
+    /**
+     * Masses summed up in different orders differ by rounding errors
+     */
+    private static final double MASS_SUM_TOLERANCE = 1e-9;
+
     /**
      * Converts a chart to an AminoAcid if it matches with one of them
      *
@@ -67,6 +74,9 @@ public class MoleculeUtilities {
 
     /**
      * Search and return a combination of amino acid according the number of residue specified.
+     * <p/>
+     * All the orders of the residues are returned, use {@link AminoAcidCompositionIndex} to search for
+     * the compositions only.
      *
      * @param massRangeStart mass window start.
      * @param massRangeEnd   mass window end.
@@ -77,41 +87,72 @@ public class MoleculeUtilities {
     public static java.util.List<AminoAcidSequence> searchForPeptide(double massRangeStart, double massRangeEnd,
                                                            boolean isMonoMass, int numOfResidue) {
         java.util.List<AminoAcidSequence> aminoAcidSequences = new ArrayList<AminoAcidSequence>();
-        AminoAcid[] acEntries = AminoAcid.values();
+        if (numOfResidue < 1) {
+            return aminoAcidSequences;
+        }
 
-        // create all combinations.
-        for (int i = 0; i < numOfResidue; i++) {
-            java.util.List<AminoAcidSequence> tmpAminoAcidSequences = new ArrayList<AminoAcidSequence>();
-            for (AminoAcid acEntry : acEntries) {
-                if (i == 0) {
-                    AminoAcidSequence aminoAcidSequence = new AminoAcidSequence(acEntry);
+        // search the compositions, then expand each composition to all its distinct orders
+        AminoAcidCompositionIndex index = AminoAcidCompositionIndex.getInstance(isMonoMass, numOfResidue);
+        for (AminoAcidSequence composition : index.search(massRangeStart - MASS_SUM_TOLERANCE,
+                massRangeEnd + MASS_SUM_TOLERANCE, numOfResidue)) {
+            AminoAcid[] residues = composition.getAminoAcids().toArray(new AminoAcid[numOfResidue]);
+            do {
+                AminoAcidSequence aminoAcidSequence = new AminoAcidSequence(residues);
+                // the mass of each order is summed up separately
+                double mass = isMonoMass ? aminoAcidSequence.getMonoMass() : aminoAcidSequence.getAvgMass();
+                if (mass >= massRangeStart && mass <= massRangeEnd) {
                     aminoAcidSequences.add(aminoAcidSequence);
-                } else {
-                    for (AminoAcidSequence aminoAcidSequence : aminoAcidSequences) {
-                        AminoAcidSequence tmpAminoAcidSequence = new AminoAcidSequence();
-                        tmpAminoAcidSequence.addAminoAcids(aminoAcidSequence.getAminoAcids());
-                        tmpAminoAcidSequence.addAminoAcid(acEntry);
-                        tmpAminoAcidSequences.add(tmpAminoAcidSequence);
-                    }
                 }
-            }
-            if (i != 0) {
-                aminoAcidSequences = tmpAminoAcidSequences;
-            }
+            } while (nextPermutation(residues));
         }
 
-        // remove unqualified ones
-        java.util.List<AminoAcidSequence> tmpAminoAcidSequences = new ArrayList<AminoAcidSequence>();
-        for (AminoAcidSequence aminoAcidSequence : aminoAcidSequences) {
-            double mass = isMonoMass ? aminoAcidSequence.getMonoMass() : aminoAcidSequence.getAvgMass();
-            if (mass >= massRangeStart && mass <= massRangeEnd) {
-                tmpAminoAcidSequences.add(aminoAcidSequence);
+        // the last residue varies slowest
+        Collections.sort(aminoAcidSequences, new Comparator<AminoAcidSequence>() {
+            @Override
+            public int compare(AminoAcidSequence o1, AminoAcidSequence o2) {
+                List<AminoAcid> residues1 = o1.getAminoAcids();
+                List<AminoAcid> residues2 = o2.getAminoAcids();
+                for (int i = residues1.size() - 1; i >= 0; i--) {
+                    int result = residues1.get(i).compareTo(residues2.get(i));
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                return 0;
             }
-        }
-        aminoAcidSequences = tmpAminoAcidSequences;
+        });
         return aminoAcidSequences;
     }
 
+    /**
+     * Rearrange the residues into the next order in lexicographic order.
+     *
+     * @param residues  residues.
+     * @return boolean  false if the residues are already in the last order.
+     */
+    private static boolean nextPermutation(AminoAcid[] residues) {
+        int i = residues.length - 2;
+        while (i >= 0 && residues[i].compareTo(residues[i + 1]) >= 0) {
+            i--;
+        }
+        if (i < 0) {
+            return false;
+        }
+        int j = residues.length - 1;
+        while (residues[j].compareTo(residues[i]) <= 0) {
+            j--;
+        }
+        AminoAcid tmp = residues[i];
+        residues[i] = residues[j];
+        residues[j] = tmp;
+        for (int low = i + 1, high = residues.length - 1; low < high; low++, high--) {
+            tmp = residues[low];
+            residues[low] = residues[high];
+            residues[high] = tmp;
+        }
+        return true;
+    }
+
     /**
      * Calculates the theoretical mass taking into account the mono-mass of every AminoAcid
      * of the sequence and the array of masses passed
@@ -0,0 +1,219 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+/**
+ * Date: 17/10/2026
+ */
+public class PriorityTaskExecutorTest {
+    private PriorityTaskExecutor executor;
+    private CountDownLatch blockerStarted;
+    private CountDownLatch releaseBlocker;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new PriorityTaskExecutor(1, 3);
+        blockerStarted = new CountDownLatch(1);
+        releaseBlocker = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        releaseBlocker.countDown();
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Occupy the only thread of the executor, so the following tasks wait in the queue
+     */
+    private void blockExecutor() throws InterruptedException {
+        executor.execute(new BlockingTask(), TaskPriority.NORMAL);
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testPriorityOrder() throws Exception {
+        blockExecutor();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(3);
+        executor.execute(new RecordingTask("low", order, finished), TaskPriority.LOW);
+        executor.execute(new RecordingTask("normal", order, finished), TaskPriority.NORMAL);
+        executor.execute(new RecordingTask("high", order, finished), TaskPriority.HIGH);
+
+        releaseBlocker.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[high, normal, low]", order.toString());
+    }
+
+    @Test
+    public void testSubmissionOrderWithinPriority() throws Exception {
+        executor.shutdown();
+        executor = new PriorityTaskExecutor(1, 10);
+        blockExecutor();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new RecordingTask(String.valueOf(i), order, finished), TaskPriority.NORMAL);
+        }
+
+        releaseBlocker.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[0, 1, 2, 3, 4]", order.toString());
+    }
+
+    @Test
+    public void testBoundedQueue() throws Exception {
+        blockExecutor();
+
+        CountDownLatch finished = new CountDownLatch(4);
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(executor.execute(new RecordingTask("task" + i, order, finished), TaskPriority.NORMAL, 0, TimeUnit.SECONDS));
+        }
+        assertEquals(3, executor.getQueuedTaskCount());
+
+        // the queue is full
+        RecordingTask waiting = new RecordingTask("waiting", order, finished);
+        assertFalse(executor.execute(waiting, TaskPriority.HIGH, 50, TimeUnit.MILLISECONDS));
+
+        // a blocked producer continues as soon as a task starts
+        releaseBlocker.countDown();
+        assertTrue(executor.execute(waiting, TaskPriority.HIGH, 5, TimeUnit.SECONDS));
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        blockExecutor();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(3);
+        RecordingTask removed = new RecordingTask("removed", order, finished);
+        executor.execute(new RecordingTask("first", order, finished), TaskPriority.NORMAL);
+        executor.execute(removed, TaskPriority.NORMAL);
+        executor.execute(new RecordingTask("second", order, finished), TaskPriority.NORMAL);
+
+        assertTrue(executor.remove(removed));
+        assertFalse(executor.remove(removed));
+
+        // the removed task gave its place free
+        assertTrue(executor.execute(new RecordingTask("third", order, finished), TaskPriority.NORMAL, 0, TimeUnit.SECONDS));
+
+        releaseBlocker.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals("[first, second, third]", order.toString());
+        assertEquals(1, executor.getMetrics().getStatistics(RecordingTask.class).getRemovedCount());
+    }
+
+    @Test
+    public void testSameTaskQueuedTwice() throws Exception {
+        blockExecutor();
+
+        RecordingTask task = new RecordingTask("task", new ArrayList<String>(), new CountDownLatch(1));
+        executor.execute(task, TaskPriority.NORMAL);
+        try {
+            executor.execute(task, TaskPriority.NORMAL);
+            fail("The same task can not wait twice");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(1, executor.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        blockExecutor();
+
+        List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        CountDownLatch finished = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(new RecordingTask("task" + i, order, finished), TaskPriority.NORMAL);
+        }
+        assertFalse(executor.execute(new RecordingTask("rejected", order, finished), TaskPriority.NORMAL, 0, TimeUnit.SECONDS));
+
+        Thread.sleep(20);
+        releaseBlocker.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        TaskStatistics statistics = executor.getMetrics().getStatistics(RecordingTask.class);
+        assertNotNull(statistics);
+        assertEquals(3, statistics.getSubmittedCount());
+        assertEquals(1, statistics.getRejectedCount());
+        assertEquals(3, statistics.getFinishedCount());
+        assertTrue(statistics.getMaxQueueTime(TimeUnit.MILLISECONDS) >= 20);
+
+        TaskStatistics blockerStatistics = executor.getMetrics().getStatistics(BlockingTask.class);
+        assertEquals(1, blockerStatistics.getFinishedCount());
+        assertTrue(blockerStatistics.getMaxRunTime(TimeUnit.MILLISECONDS) >= 20);
+    }
+
+    @Test
+    public void testShutdownNow() throws Exception {
+        blockExecutor();
+
+        RecordingTask task = new RecordingTask("task", new ArrayList<String>(), new CountDownLatch(1));
+        executor.execute(task, TaskPriority.LOW);
+
+        List<Runnable> notStarted = executor.shutdownNow();
+        assertEquals(1, notStarted.size());
+        assertTrue(notStarted.get(0) == task);
+
+        try {
+            executor.execute(task, TaskPriority.LOW);
+            fail("A shut down executor can not accept tasks");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    private class BlockingTask implements Runnable {
+        @Override
+        public void run() {
+            blockerStarted.countDown();
+            try {
+                releaseBlocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class RecordingTask implements Runnable {
+        private final String name;
+        private final List<String> order;
+        private final CountDownLatch finished;
+
+        private RecordingTask(String name, List<String> order, CountDownLatch finished) {
+            this.name = name;
+            this.order = order;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            order.add(name);
+            finished.countDown();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package uk.ac.ebi.pride.gui.task.executor;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class TaskSubmitterTest {
+    private PriorityTaskExecutor executor;
+    private CountDownLatch blockerStarted;
+    private CountDownLatch releaseBlocker;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = new PriorityTaskExecutor(1, 1);
+        blockerStarted = new CountDownLatch(1);
+        releaseBlocker = new CountDownLatch(1);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        releaseBlocker.countDown();
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Occupy the only thread of the executor and the only place of its queue
+     */
+    private void fillExecutor(TaskSubmitter submitter) throws InterruptedException {
+        assertTrue(submitter.submit(new BlockingTask(), TaskPriority.NORMAL));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        assertTrue(submitter.submit(new NoopTask(), TaskPriority.NORMAL));
+    }
+
+    @Test
+    public void testWaitOutsideDispatchThread() throws Exception {
+        TaskSubmitter submitter = new TaskSubmitter(executor, 50, TimeUnit.MILLISECONDS);
+        fillExecutor(submitter);
+
+        long start = System.nanoTime();
+        assertFalse(submitter.submit(new NoopTask(), TaskPriority.HIGH));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    @Test
+    public void testNoWaitOnDispatchThread() throws Exception {
+        final TaskSubmitter submitter = new TaskSubmitter(executor, 1, TimeUnit.MINUTES);
+        fillExecutor(submitter);
+
+        final AtomicBoolean accepted = new AtomicBoolean(true);
+        final AtomicLong waited = new AtomicLong();
+        EventQueue.invokeAndWait(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                accepted.set(submitter.submit(new NoopTask(), TaskPriority.HIGH));
+                waited.set(System.nanoTime() - start);
+            }
+        });
+
+        assertFalse(accepted.get());
+        assertTrue(waited.get() < TimeUnit.SECONDS.toNanos(10));
+        assertEquals(1, submitter.getMetrics().getStatistics(NoopTask.class).getRejectedCount());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        TaskSubmitter submitter = new TaskSubmitter(executor, 0, TimeUnit.SECONDS);
+        assertTrue(submitter.submit(new BlockingTask(), TaskPriority.NORMAL));
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+
+        NoopTask waiting = new NoopTask();
+        assertTrue(submitter.submit(waiting, TaskPriority.NORMAL));
+        assertTrue(submitter.remove(waiting));
+
+        // the removed task gave its place free
+        assertTrue(submitter.submit(new NoopTask(), TaskPriority.NORMAL));
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        TaskSubmitter submitter = new TaskSubmitter(executor);
+        submitter.shutdown();
+        assertFalse(submitter.submit(new NoopTask(), TaskPriority.NORMAL));
+    }
+
+    @Test
+    public void testOtherExecutor() throws Exception {
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        TaskSubmitter submitter = new TaskSubmitter(other);
+        assertSame(other, submitter.getExecutor());
+        assertNull(submitter.getMetrics());
+        assertFalse(submitter.remove(new NoopTask()));
+
+        assertTrue(submitter.submit(new NoopTask(), TaskPriority.LOW));
+        submitter.shutdown();
+        assertFalse(submitter.submit(new NoopTask(), TaskPriority.LOW));
+        assertTrue(other.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    private class BlockingTask implements Runnable {
+        @Override
+        public void run() {
+            blockerStarted.countDown();
+            try {
+                releaseBlocker.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static class NoopTask implements Runnable {
+        @Override
+        public void run() {
+        }
+    }
+}
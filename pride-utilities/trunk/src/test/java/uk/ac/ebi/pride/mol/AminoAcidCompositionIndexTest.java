@@ -0,0 +1,96 @@
+package uk.ac.ebi.pride.mol;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Date: 17/10/2026
+ */
+public class AminoAcidCompositionIndexTest {
+
+    @Test
+    public void testSearch() throws Exception {
+        AminoAcidCompositionIndex index = AminoAcidCompositionIndex.build(true, 3);
+        assertEquals(3, index.getMaxNumberOfResidues());
+
+        // G + G has the same mass as N
+        List<AminoAcidSequence> results = index.search(114.0, 114.1, 2);
+        assertTrue(results.contains(new AminoAcidSequence(AminoAcid.G, AminoAcid.G)));
+        assertEquals(results.size(), index.count(114.0, 114.1, 2));
+        for (AminoAcidSequence result : results) {
+            assertEquals(2, result.getLength());
+            assertTrue(result.getMonoMass() >= 114.0 && result.getMonoMass() <= 114.1);
+        }
+
+        assertEquals(0, index.search(114.0, 114.1, 0).size());
+        assertEquals(0, index.count(10, 20, 1));
+        int numberOfResidues = AminoAcid.values().length;
+        assertEquals(numberOfResidues * (numberOfResidues + 1) / 2, index.count(0, 1000, 2));
+    }
+
+    @Test
+    public void testSearchForPeptide() throws Exception {
+        double[] masses = {57.02, 114.04, 128.06, 186.08, 228.1, 300.0, 343.15};
+        for (double mass : masses) {
+            for (int numOfResidue = 0; numOfResidue <= 3; numOfResidue++) {
+                assertEquals(enumerate(mass - 0.5, mass + 0.5, true, numOfResidue),
+                        MoleculeUtilities.searchForPeptide(mass - 0.5, mass + 0.5, true, numOfResidue));
+                assertEquals(enumerate(mass - 0.05, mass + 0.05, false, numOfResidue),
+                        MoleculeUtilities.searchForPeptide(mass - 0.05, mass + 0.05, false, numOfResidue));
+            }
+        }
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        AminoAcidCompositionIndex index = AminoAcidCompositionIndex.build(false, 2);
+        File file = File.createTempFile("aa-composition", ".ser");
+        file.deleteOnExit();
+        index.write(file);
+
+        AminoAcidCompositionIndex copy = AminoAcidCompositionIndex.read(file);
+        assertTrue(copy.isUpToDate());
+        assertEquals(false, copy.isMonoMass());
+        assertEquals(2, copy.getMaxNumberOfResidues());
+        assertEquals(index.search(200, 250, 2), copy.search(200, 250, 2));
+    }
+
+    /**
+     * Enumerate all the orders of the residues.
+     */
+    private static List<AminoAcidSequence> enumerate(double massRangeStart, double massRangeEnd,
+                                                     boolean isMonoMass, int numOfResidue) {
+        List<AminoAcidSequence> sequences = new ArrayList<AminoAcidSequence>();
+        for (int i = 0; i < numOfResidue; i++) {
+            List<AminoAcidSequence> tmp = new ArrayList<AminoAcidSequence>();
+            for (AminoAcid residue : AminoAcid.values()) {
+                if (i == 0) {
+                    tmp.add(new AminoAcidSequence(residue));
+                } else {
+                    for (AminoAcidSequence sequence : sequences) {
+                        AminoAcidSequence next = new AminoAcidSequence();
+                        next.addAminoAcids(sequence.getAminoAcids());
+                        next.addAminoAcid(residue);
+                        tmp.add(next);
+                    }
+                }
+            }
+            sequences = tmp;
+        }
+
+        List<AminoAcidSequence> results = new ArrayList<AminoAcidSequence>();
+        for (AminoAcidSequence sequence : sequences) {
+            double mass = isMonoMass ? sequence.getMonoMass() : sequence.getAvgMass();
+            if (mass >= massRangeStart && mass <= massRangeEnd) {
+                results.add(sequence);
+            }
+        }
+        return results;
+    }
+}